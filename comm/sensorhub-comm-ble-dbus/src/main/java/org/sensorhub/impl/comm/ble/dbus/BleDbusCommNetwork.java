@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.regex.Pattern;
@@ -39,6 +40,7 @@ import org.sensorhub.api.comm.IDeviceInfo;
 import org.sensorhub.api.comm.IDeviceScanCallback;
 import org.sensorhub.api.comm.IDeviceScanner;
 import org.sensorhub.api.comm.INetworkInfo;
+import org.sensorhub.api.comm.ble.BleNotificationStats;
 import org.sensorhub.api.comm.ble.IBleNetwork;
 import org.sensorhub.api.comm.ble.GattCallback;
 import org.sensorhub.api.comm.ble.IGattClient;
@@ -72,6 +74,7 @@ public class BleDbusCommNetwork extends AbstractModule<BluetoothNetworkConfig> i
     Properties btAdapterProps;
     BleDeviceScanner bleScanner;
     Map<String, String> devAddressToObjPaths = new HashMap<String, String>();
+    Map<String, GattClientImpl> gattClients = new ConcurrentHashMap<String, GattClientImpl>();
     
     
     class BleDeviceScanner implements IDeviceScanner
@@ -415,6 +418,10 @@ public class BleDbusCommNetwork extends AbstractModule<BluetoothNetworkConfig> i
         btAdapter = null;
         bleScanner = null;
         
+        for (GattClientImpl client: gattClients.values())
+            client.close();
+        gattClients.clear();
+        
         dbus.disconnect();
         dbus = null;
         objManager = null;        
@@ -488,7 +495,8 @@ public class BleDbusCommNetwork extends AbstractModule<BluetoothNetworkConfig> i
                 }
                 
                 // create and connect GATT client
-                GattClientImpl client = new GattClientImpl(dbus, objManager, objPath, callback);
+                GattClientImpl client = new GattClientImpl(dbus, objManager, address, objPath, callback, config);
+                gattClients.put(address, client);
                 log.info("Connecting to BT device " + address + "...");
                 client.connect();
             }        
@@ -499,6 +507,14 @@ public class BleDbusCommNetwork extends AbstractModule<BluetoothNetworkConfig> i
     }   
     
     
+    @Override
+    public BleNotificationStats getNotificationStats(String address)
+    {
+        GattClientImpl client = gattClients.get(address);
+        return (client != null) ? client.getNotificationStats() : null;
+    }
+    
+    
     @Override
     public void cleanup() throws SensorHubException
     {
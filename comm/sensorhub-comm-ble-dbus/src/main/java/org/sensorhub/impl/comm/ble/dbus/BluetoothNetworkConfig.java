@@ -28,4 +28,12 @@ public class BluetoothNetworkConfig extends NetworkConfig
     @DisplayInfo(desc="Set to a non-null value to advertise this OSH node via this Bluetooth link")
     public String advertisementName;
     
+    
+    @DisplayInfo(desc="Maximum number of GATT notifications queued for each device before the oldest ones are dropped")
+    public int notificationQueueSize = 256;
+    
+    
+    @DisplayInfo(desc="Maximum number of GATT notifications delivered at once to drivers that enable batching")
+    public int maxNotificationBatchSize = 32;
+    
 }
@@ -48,6 +48,8 @@ public class GattCharacteristicImpl implements IGattCharacteristic
     int handle;
     UUID uuid;
     Map<String, IGattDescriptor> descriptors = new LinkedHashMap<String, IGattDescriptor>();
+    volatile ByteBuffer value; // locally cached value
+    volatile boolean notifying;
         
     
     protected GattCharacteristicImpl(IGattService service, DBusConnection dbus, String charObjPath) throws DBusException
@@ -73,6 +75,16 @@ public class GattCharacteristicImpl implements IGattCharacteristic
             GattDescriptorImpl d = new GattDescriptorImpl(this, dbus, objPath);
             descriptors.put(objPath, d);
         }
+        
+        // initial notification state, property is optional
+        try
+        {
+            this.notifying = gattCharProps.Get(GattCharacteristic1.IFACE_NAME, GattCharacteristic1.PROP_NOTIFYING);
+        }
+        catch (Exception e)
+        {
+            this.notifying = false;
+        }
     }
 
 
@@ -131,21 +143,30 @@ public class GattCharacteristicImpl implements IGattCharacteristic
     @Override
     public ByteBuffer getValue()
     {
-        byte[] data = gattCharProps.Get(GattCharacteristic1.IFACE_NAME, GattCharacteristic1.PROP_VALUE);
-        return ByteBuffer.wrap(data);
+        // use value received with last notification or read response
+        // so we don't need a D-Bus round trip each time
+        ByteBuffer cachedValue = this.value;
+        if (cachedValue == null)
+        {
+            byte[] data = gattCharProps.Get(GattCharacteristic1.IFACE_NAME, GattCharacteristic1.PROP_VALUE);
+            this.value = cachedValue = ByteBuffer.wrap(data);
+        }
+        
+        // duplicate so reading the buffer doesn't change the cached value
+        return cachedValue.duplicate();
     }
 
 
     @Override
     public boolean setValue(ByteBuffer value)
     {
-        gattCharProps.Set(GattCharacteristic1.IFACE_NAME, GattCharacteristic1.PROP_VALUE, value.array());
+        this.value = value;
         return true;
     }
     
     
     protected boolean isNotifying()
     {
-        return (boolean)gattCharProps.Get(GattCharacteristic1.IFACE_NAME, GattCharacteristic1.PROP_NOTIFYING);
+        return notifying;
     }
 }
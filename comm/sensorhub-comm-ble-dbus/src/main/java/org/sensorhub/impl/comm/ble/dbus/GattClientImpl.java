@@ -14,8 +14,10 @@ Copyright (C) 2012-2016 Sensia Software LLC. All Rights Reserved.
 
 package org.sensorhub.impl.comm.ble.dbus;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import org.bluez.Device1;
@@ -30,6 +32,7 @@ import org.freedesktop.dbus.Properties;
 import org.freedesktop.dbus.Variant;
 import org.freedesktop.dbus.Properties.PropertiesChanged;
 import org.freedesktop.dbus.exceptions.DBusException;
+import org.sensorhub.api.comm.ble.BleNotificationStats;
 import org.sensorhub.api.comm.ble.GattCallback;
 import org.sensorhub.api.comm.ble.IGattCharacteristic;
 import org.sensorhub.api.comm.ble.IGattClient;
@@ -66,14 +69,17 @@ public class GattClientImpl implements IGattClient
     volatile boolean serviceDiscoveryRequested;
     volatile boolean servicesDiscovered;
     Map<String, IGattService> services = new LinkedHashMap<String, IGattService>();
+    GattNotificationQueue notifQueue;
     
     
-    GattClientImpl(DBusConnection dbus, ObjectManager objManager, String devObjPath, GattCallback callback)
+    GattClientImpl(DBusConnection dbus, ObjectManager objManager, String address, String devObjPath, GattCallback callback, BluetoothNetworkConfig config)
     {
         this.dbus = dbus;
         this.objManager = objManager;
         this.devObjPath = devObjPath;
         this.callback = callback;
+        this.notifQueue = new GattNotificationQueue(address, this, callback,
+            config.notificationQueueSize, config.maxNotificationBatchSize);
         
         try
         {
@@ -129,15 +135,26 @@ public class GattClientImpl implements IGattClient
                         services.put(objPath, s);
                     }
                     
+                    // notification state changes
+                    if (event.changedProps.containsKey(GattCharacteristic1.PROP_NOTIFYING))
+                    {
+                        GattCharacteristicImpl c = getCharacteristic(objPath);
+                        if (c != null)
+                            c.notifying = (Boolean)event.changedProps.get(GattCharacteristic1.PROP_NOTIFYING).getValue();
+                    }
+                    
                     // property value changes
+                    // just queue the new value here so we don't hold the D-Bus
+                    // dispatch thread while the callback processes it
                     if (event.changedProps.containsKey(GattCharacteristic1.PROP_VALUE))
                     {
-                        log.debug("Property value changed {}", objPath, event.changedProps);                        
+                        log.trace("Property value changed {}", objPath);
                         GattCharacteristicImpl c = getCharacteristic(objPath);
-                        if (c.isNotifying())
-                            callback.onCharacteristicChanged(GattClientImpl.this, c);
-                        else
-                            callback.onCharacteristicRead(GattClientImpl.this, c, GATT_SUCCESS);
+                        if (c != null)
+                        {
+                            ByteBuffer value = toByteBuffer(event.changedProps.get(GattCharacteristic1.PROP_VALUE).getValue());
+                            notifQueue.offer(c, value, c.isNotifying());
+                        }
                     }
                     
                     // end service discovery
@@ -150,6 +167,7 @@ public class GattClientImpl implements IGattClient
                 }                        
             };
             
+            notifQueue.start();
             dbus.addSigHandler(PropertiesChanged.class, sigHandler);
             btDevice.Connect();
         }
@@ -226,10 +244,26 @@ public class GattClientImpl implements IGattClient
     {
         String servObjPath = objPath.substring(0, objPath.lastIndexOf('/'));
         GattServiceImpl s = getService(servObjPath);
+        if (s == null)
+            return null;
         return (GattCharacteristicImpl)s.getCharacteristic(objPath);
     }
     
     
+    protected static ByteBuffer toByteBuffer(Object value)
+    {
+        if (value instanceof byte[])
+            return ByteBuffer.wrap((byte[])value);
+        
+        // some D-Bus versions unmarshall byte arrays as lists
+        List<?> list = (List<?>)value;
+        byte[] bytes = new byte[list.size()];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = ((Number)list.get(i)).byteValue();
+        return ByteBuffer.wrap(bytes);
+    }
+    
+    
     @Override
     public boolean discoverServices()
     {
@@ -262,6 +296,7 @@ public class GattClientImpl implements IGattClient
         }
         
         // generic case
+        // result is reported with the value change signal
         ((GattCharacteristicImpl)characteristic).gattChar.ReadValue();
         return true;
     }
@@ -280,14 +315,31 @@ public class GattClientImpl implements IGattClient
         // generic case
         if (characteristic instanceof GattCharacteristicImpl)
         {
+            GattCharacteristicImpl c = (GattCharacteristicImpl)characteristic;
             if (enable)
             {
-                if (!((GattCharacteristicImpl)characteristic).isNotifying())
-                    ((GattCharacteristicImpl)characteristic).gattChar.StartNotify();
+                if (!c.isNotifying())
+                    c.gattChar.StartNotify();
             }            
             else
-                ((GattCharacteristicImpl)characteristic).gattChar.StopNotify();
+                c.gattChar.StopNotify();
             
+            // set flag now so the next values are reported as notifications
+            // even if the Notifying signal is received later
+            c.notifying = enable;
+            return true;
+        }
+        
+        return false;
+    }
+    
+    
+    @Override
+    public boolean setNotificationBatching(IGattCharacteristic characteristic, boolean enable)
+    {
+        if (characteristic instanceof GattCharacteristicImpl)
+        {
+            notifQueue.setBatching(characteristic, enable);
             return true;
         }
         
@@ -298,7 +350,28 @@ public class GattClientImpl implements IGattClient
     @Override
     public boolean writeCharacteristic(IGattCharacteristic characteristic)
     {
-        // TODO Auto-generated method stub
+        if (characteristic instanceof GattCharacteristicImpl)
+        {
+            // send locally cached value
+            GattCharacteristicImpl c = (GattCharacteristicImpl)characteristic;
+            ByteBuffer value = c.getValue();
+            byte[] bytes = new byte[value.remaining()];
+            value.get(bytes);
+            
+            try
+            {
+                c.gattChar.WriteValue(bytes);
+                callback.onCharacteristicWrite(this, c, GATT_SUCCESS);
+            }
+            catch (Exception e)
+            {
+                log.error("Cannot write GATT characteristic " + c.getType(), e);
+                callback.onCharacteristicWrite(this, c, GATT_FAILURE);
+            }
+            
+            return true;
+        }
+        
         return false;
     }
 
@@ -322,8 +395,24 @@ public class GattClientImpl implements IGattClient
     @Override
     public void close()
     {
-        // TODO Auto-generated method stub
-
+        try
+        {
+            if (sigHandler != null)
+                dbus.removeSigHandler(PropertiesChanged.class, sigHandler);
+            sigHandler = null;
+        }
+        catch (DBusException e)
+        {
+            log.error("Cannot unregister D-Bus signal handler", e);
+        }
+        
+        notifQueue.stop();
+    }
+    
+    
+    protected BleNotificationStats getNotificationStats()
+    {
+        return notifQueue.getStats();
     }
 
 }
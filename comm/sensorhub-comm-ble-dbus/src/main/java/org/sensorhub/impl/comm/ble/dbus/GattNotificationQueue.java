@@ -0,0 +1,274 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.comm.ble.dbus;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sensorhub.api.comm.ble.BleNotificationStats;
+import org.sensorhub.api.comm.ble.GattCallback;
+import org.sensorhub.api.comm.ble.IGattClient;
+import org.sensorhub.api.comm.ble.IGattField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * <p>
+ * Bounded queue of characteristic values received from a remote device.<br/>
+ * Values are queued by the D-Bus signal handler and delivered to the client
+ * callback by a dedicated thread so a slow driver cannot hold up signal
+ * dispatching for other devices. When the callback cannot keep up, the
+ * oldest values are dropped and counted as lost.
+ * </p><p>
+ * All values already queued when the delivery thread wakes up are handled
+ * together. Values of characteristics for which batching is enabled are then
+ * delivered in a single callback call, others are delivered one by one.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class GattNotificationQueue implements Runnable
+{
+    static final Logger log = LoggerFactory.getLogger(GattNotificationQueue.class);
+    static final long RATE_WINDOW = 1000L;
+
+    final String address;
+    final IGattClient gatt;
+    final GattCallback callback;
+    final ArrayBlockingQueue<Notification> queue;
+    final int maxQueueSize;
+    final int maxBatchSize;
+    final Set<IGattField> batchedFields = ConcurrentHashMap.newKeySet();
+    final List<Notification> batch = new ArrayList<>();
+    final Map<IGattField, List<ByteBuffer>> batchedValues = new LinkedHashMap<>();
+    volatile Thread thread;
+
+    // stats, guarded by this
+    long numReceived;
+    long numDelivered;
+    long numDropped;
+    long numBatches;
+    long windowStart;
+    int windowCount;
+    double rate;
+
+
+    static class Notification
+    {
+        final IGattField field;
+        final ByteBuffer value;
+        final boolean notify;
+
+        Notification(IGattField field, ByteBuffer value, boolean notify)
+        {
+            this.field = field;
+            this.value = value;
+            this.notify = notify;
+        }
+    }
+
+
+    /**
+     * @param address Address of the remote device
+     * @param gatt GATT client passed to callback methods
+     * @param callback Client callback
+     * @param maxQueueSize Max number of values waiting to be delivered
+     * @param maxBatchSize Max number of values delivered at once
+     */
+    public GattNotificationQueue(String address, IGattClient gatt, GattCallback callback, int maxQueueSize, int maxBatchSize)
+    {
+        this.address = address;
+        this.gatt = gatt;
+        this.callback = callback;
+        this.maxQueueSize = Math.max(1, maxQueueSize);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.queue = new ArrayBlockingQueue<>(this.maxQueueSize);
+    }
+
+
+    public synchronized void start()
+    {
+        if (thread == null)
+        {
+            thread = new Thread(this, "BLE Notifications " + address);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+
+    public synchronized void stop()
+    {
+        if (thread != null)
+        {
+            thread.interrupt();
+            thread = null;
+        }
+
+        queue.clear();
+    }
+
+
+    /**
+     * Queue a new value for delivery.<br/>
+     * This never blocks and drops the oldest queued value if the queue is full.
+     * @param field Characteristic whose value has changed
+     * @param value New value
+     * @param notify true if the value was received as a notification, false
+     * if it is the result of a read operation
+     */
+    public void offer(IGattField field, ByteBuffer value, boolean notify)
+    {
+        var n = new Notification(field, value, notify);
+        updateRate();
+
+        while (!queue.offer(n))
+        {
+            if (queue.poll() != null)
+            {
+                synchronized (this)
+                {
+                    numDropped++;
+                }
+            }
+        }
+    }
+
+
+    protected synchronized void updateRate()
+    {
+        long now = System.currentTimeMillis();
+        numReceived++;
+        windowCount++;
+
+        long dt = now - windowStart;
+        if (dt >= RATE_WINDOW)
+        {
+            // ignore first window that doesn't have a proper start time
+            if (windowStart > 0)
+                rate = windowCount * 1000.0 / dt;
+            windowStart = now;
+            windowCount = 0;
+        }
+    }
+
+
+    /**
+     * Enable or disable batched delivery for a characteristic
+     * @param field
+     * @param enable
+     */
+    public void setBatching(IGattField field, boolean enable)
+    {
+        if (enable)
+            batchedFields.add(field);
+        else
+            batchedFields.remove(field);
+    }
+
+
+    @Override
+    public void run()
+    {
+        try
+        {
+            while (thread == Thread.currentThread())
+            {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - 1);
+                dispatch(batch);
+                batch.clear();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            // exit
+        }
+    }
+
+
+    protected void dispatch(List<Notification> notifs)
+    {
+        for (var n: notifs)
+        {
+            if (n.notify && batchedFields.contains(n.field))
+            {
+                var values = batchedValues.get(n.field);
+                if (values == null)
+                    batchedValues.put(n.field, values = new ArrayList<>());
+                values.add(n.value);
+            }
+            else
+            {
+                n.field.setValue(n.value);
+
+                try
+                {
+                    if (n.notify)
+                        callback.onCharacteristicChanged(gatt, n.field);
+                    else
+                        callback.onCharacteristicRead(gatt, n.field, IGattClient.GATT_SUCCESS);
+                }
+                catch (Exception e)
+                {
+                    log.error("Error in GATT callback", e);
+                }
+            }
+        }
+
+        for (Entry<IGattField, List<ByteBuffer>> entry: batchedValues.entrySet())
+        {
+            var values = entry.getValue();
+            entry.getKey().setValue(values.get(values.size()-1));
+
+            try
+            {
+                callback.onCharacteristicChanged(gatt, entry.getKey(), values);
+            }
+            catch (Exception e)
+            {
+                log.error("Error in GATT callback", e);
+            }
+        }
+        batchedValues.clear();
+
+        synchronized (this)
+        {
+            numDelivered += notifs.size();
+            numBatches++;
+        }
+    }
+
+
+    public synchronized BleNotificationStats getStats()
+    {
+        // rate decays to zero if notifications stop
+        double currentRate = rate;
+        long dt = System.currentTimeMillis() - windowStart;
+        if (dt >= 2*RATE_WINDOW)
+            currentRate = windowCount * 1000.0 / dt;
+
+        return new BleNotificationStats(address, numReceived, numDelivered, numDropped,
+            numBatches, queue.size(), maxQueueSize, currentRate);
+    }
+}
@@ -0,0 +1,259 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.sensorhub.api.comm.ble.BleNotificationStats;
+import org.sensorhub.api.comm.ble.GattCallback;
+import org.sensorhub.api.comm.ble.IGattClient;
+import org.sensorhub.api.comm.ble.IGattField;
+import org.sensorhub.impl.comm.ble.dbus.GattNotificationQueue;
+
+
+public class TestGattNotificationQueue
+{
+
+    static class TestField implements IGattField
+    {
+        UUID uuid = UUID.randomUUID();
+        volatile ByteBuffer value;
+
+        public UUID getType() { return uuid; }
+        public int getPermissions() { return 0; }
+        public ByteBuffer getValue() { return value.duplicate(); }
+        public boolean setValue(ByteBuffer value) { this.value = value; return true; }
+    }
+
+
+    static ByteBuffer intValue(int i)
+    {
+        return ByteBuffer.allocate(4).putInt(0, i);
+    }
+
+
+    static void waitDelivered(GattNotificationQueue queue, long count) throws InterruptedException
+    {
+        long t0 = System.currentTimeMillis();
+        while (queue.getStats().getNumDelivered() + queue.getStats().getNumDropped() < count)
+        {
+            assertTrue("Timeout waiting for notifications", System.currentTimeMillis() - t0 < 10000);
+            Thread.sleep(5);
+        }
+    }
+
+
+    @Test
+    public void testDeliveryInOrder() throws Exception
+    {
+        var field = new TestField();
+        var received = Collections.synchronizedList(new ArrayList<Integer>());
+        var readCount = new AtomicInteger();
+
+        var queue = new GattNotificationQueue("00:00:00:00:00:01", null, new GattCallback() {
+            public void onCharacteristicChanged(IGattClient gatt, IGattField c)
+            {
+                // value must be the notified one
+                received.add(c.getValue().getInt());
+            }
+
+            public void onCharacteristicRead(IGattClient gatt, IGattField c, int status)
+            {
+                assertEquals(-1, c.getValue().getInt());
+                readCount.incrementAndGet();
+            }
+        }, 64, 8);
+        queue.start();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            queue.offer(field, intValue(i), true);
+            if (i % 100 == 0)
+                Thread.sleep(1);
+        }
+        queue.offer(field, intValue(-1), false);
+
+        waitDelivered(queue, 1001);
+        queue.stop();
+
+        BleNotificationStats stats = queue.getStats();
+        assertEquals(1001, stats.getNumReceived());
+        assertEquals(1, readCount.get());
+
+        // values must be in order even if some were dropped
+        assertEquals(stats.getNumReceived() - 1 - stats.getNumDropped(), received.size());
+        for (int i = 1; i < received.size(); i++)
+            assertTrue(received.get(i) > received.get(i-1));
+    }
+
+
+    @Test
+    public void testBatchedDelivery() throws Exception
+    {
+        var accel = new TestField();
+        var hr = new TestField();
+        var accelValues = Collections.synchronizedList(new ArrayList<Integer>());
+        var hrValues = Collections.synchronizedList(new ArrayList<Integer>());
+        var numBatches = new AtomicInteger();
+        int numValues = 2000;
+
+        var queue = new GattNotificationQueue("00:00:00:00:00:02", null, new GattCallback() {
+            public void onCharacteristicChanged(IGattClient gatt, IGattField c)
+            {
+                assertSame(hr, c);
+                hrValues.add(c.getValue().getInt());
+            }
+
+            public void onCharacteristicChanged(IGattClient gatt, IGattField c, List<ByteBuffer> values)
+            {
+                assertSame(accel, c);
+                assertTrue(values.size() <= 16);
+                for (var v: values)
+                    accelValues.add(v.getInt(0));
+
+                // last value is also the cached one
+                assertEquals(accelValues.get(accelValues.size()-1).intValue(), c.getValue().getInt());
+                numBatches.incrementAndGet();
+
+                // simulate slow processing
+                try { Thread.sleep(1); }
+                catch (InterruptedException e) { }
+            }
+        }, numValues * 2, 16);
+        queue.setBatching(accel, true);
+        queue.start();
+
+        for (int i = 0; i < numValues; i++)
+        {
+            queue.offer(accel, intValue(i), true);
+            if (i % 10 == 0)
+                queue.offer(hr, intValue(i), true);
+        }
+
+        waitDelivered(queue, numValues + numValues/10);
+        queue.stop();
+
+        assertEquals(0, queue.getStats().getNumDropped());
+        assertEquals(numValues, accelValues.size());
+        assertEquals(numValues/10, hrValues.size());
+        for (int i = 0; i < numValues; i++)
+            assertEquals(i, accelValues.get(i).intValue());
+        assertTrue(numBatches.get() < numValues / 4);
+    }
+
+
+    @Test
+    public void testOverflowDropsOldest() throws Exception
+    {
+        var field = new TestField();
+        var received = Collections.synchronizedList(new ArrayList<Integer>());
+        var blocked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var queue = new GattNotificationQueue("00:00:00:00:00:03", null, new GattCallback() {
+            public void onCharacteristicChanged(IGattClient gatt, IGattField c)
+            {
+                int val = c.getValue().getInt();
+                received.add(val);
+                if (val == 0)
+                {
+                    // block on first value until all others are queued
+                    blocked.countDown();
+                    try { release.await(); }
+                    catch (InterruptedException e) { }
+                }
+            }
+        }, 8, 4);
+        queue.start();
+
+        queue.offer(field, intValue(0), true);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 100; i++)
+            queue.offer(field, intValue(i), true);
+
+        BleNotificationStats stats = queue.getStats();
+        assertEquals(8, stats.getQueueSize());
+        assertEquals(92, stats.getNumDropped());
+
+        release.countDown();
+        waitDelivered(queue, 101);
+        queue.stop();
+
+        // only the most recent values were kept
+        var expected = new ArrayList<Integer>();
+        expected.add(0);
+        for (int i = 93; i <= 100; i++)
+            expected.add(i);
+        assertEquals(expected, received);
+    }
+
+
+    @Test
+    public void testThroughput() throws Exception
+    {
+        assumeTrue("Benchmark only runs with -Dble.benchmark=true", Boolean.getBoolean("ble.benchmark"));
+
+        int numDevices = 20;
+        int numValues = 20000;
+        var queues = new ArrayList<GattNotificationQueue>();
+        var fields = new ArrayList<TestField>();
+        var numDelivered = new AtomicInteger();
+
+        for (int d = 0; d < numDevices; d++)
+        {
+            var field = new TestField();
+            var queue = new GattNotificationQueue("dev" + d, null, new GattCallback() {
+                public void onCharacteristicChanged(IGattClient gatt, IGattField c, List<ByteBuffer> values)
+                {
+                    numDelivered.addAndGet(values.size());
+                }
+            }, 1024, 64);
+            queue.setBatching(field, true);
+            queue.start();
+            queues.add(queue);
+            fields.add(field);
+        }
+
+        // single thread enqueuing values for all devices, like the D-Bus signal thread
+        long t0 = System.nanoTime();
+        for (int i = 0; i < numValues; i++)
+        {
+            for (int d = 0; d < numDevices; d++)
+                queues.get(d).offer(fields.get(d), intValue(i), true);
+        }
+        double enqueueTime = (System.nanoTime() - t0) / 1e9;
+
+        long dropped = 0;
+        for (var queue: queues)
+        {
+            waitDelivered(queue, numValues);
+            dropped += queue.getStats().getNumDropped();
+            queue.stop();
+        }
+        double totalTime = (System.nanoTime() - t0) / 1e9;
+
+        int total = numDevices * numValues;
+        assertEquals(total, numDelivered.get() + dropped);
+        System.out.printf("%d notifications from %d devices: enqueue=%.0f/s, delivered=%.0f/s, dropped=%d%n",
+            total, numDevices, total / enqueueTime, numDelivered.get() / totalTime, dropped);
+    }
+}
@@ -0,0 +1,134 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.api.comm.ble;
+
+
+/**
+ * <p>
+ * Snapshot of statistics about GATT notifications received from a remote
+ * device, as reported by {@link IBleNetwork#getNotificationStats(String)}.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class BleNotificationStats
+{
+    final String address;
+    final long numReceived;
+    final long numDelivered;
+    final long numDropped;
+    final long numBatches;
+    final int queueSize;
+    final int maxQueueSize;
+    final double rate;
+
+
+    public BleNotificationStats(String address, long numReceived, long numDelivered, long numDropped,
+                                long numBatches, int queueSize, int maxQueueSize, double rate)
+    {
+        this.address = address;
+        this.numReceived = numReceived;
+        this.numDelivered = numDelivered;
+        this.numDropped = numDropped;
+        this.numBatches = numBatches;
+        this.queueSize = queueSize;
+        this.maxQueueSize = maxQueueSize;
+        this.rate = rate;
+    }
+
+
+    /**
+     * @return Address of the remote device
+     */
+    public String getAddress()
+    {
+        return address;
+    }
+
+
+    /**
+     * @return Number of notifications received from the device
+     */
+    public long getNumReceived()
+    {
+        return numReceived;
+    }
+
+
+    /**
+     * @return Number of notifications delivered to the client callback
+     */
+    public long getNumDelivered()
+    {
+        return numDelivered;
+    }
+
+
+    /**
+     * @return Number of notifications dropped because the client callback
+     * could not keep up with the incoming rate
+     */
+    public long getNumDropped()
+    {
+        return numDropped;
+    }
+
+
+    /**
+     * @return Number of times queued notifications were dispatched to the
+     * client callback
+     */
+    public long getNumBatches()
+    {
+        return numBatches;
+    }
+
+
+    /**
+     * @return Number of notifications waiting to be delivered
+     */
+    public int getQueueSize()
+    {
+        return queueSize;
+    }
+
+
+    /**
+     * @return Maximum number of notifications that can be queued before the
+     * oldest ones are dropped
+     */
+    public int getMaxQueueSize()
+    {
+        return maxQueueSize;
+    }
+
+
+    /**
+     * @return Recent notification rate, in notifications per second
+     */
+    public double getRate()
+    {
+        return rate;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: received=%d, delivered=%d, dropped=%d, batches=%d, queued=%d/%d, rate=%.1f/s",
+            address, numReceived, numDelivered, numDropped, numBatches, queueSize, maxQueueSize, rate);
+    }
+}
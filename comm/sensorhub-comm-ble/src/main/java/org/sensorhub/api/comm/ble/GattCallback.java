@@ -14,6 +14,9 @@ Copyright (C) 2012-2016 Sensia Software LLC. All Rights Reserved.
 
 package org.sensorhub.api.comm.ble;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+
 
 /**
  * <p>
@@ -69,6 +72,22 @@ public abstract class GattCallback
     }
     
     
+    /**
+     * Callback triggered with all notifications received for a characteristic
+     * since the previous call.<br/>
+     * This is only used for characteristics for which batching was enabled
+     * with {@link IGattClient#setNotificationBatching}, otherwise
+     * {@link #onCharacteristicChanged(IGattClient, IGattField)} is called once
+     * per notification.
+     * @param gatt
+     * @param characteristic
+     * @param values notified values, oldest first
+     */
+    public void onCharacteristicChanged(IGattClient gatt, IGattField characteristic, List<ByteBuffer> values)
+    {        
+    }
+    
+    
     /**
      * Callback reporting the result of a characteristic read operation.
      * @param gatt
@@ -38,4 +38,15 @@ public interface IBleNetwork<ConfigType extends NetworkConfig> extends ICommNetw
      * @param callback Callback to received client events
      */
     void connectGatt(String address, GattCallback callback);
+    
+    
+    /**
+     * Gets statistics about notifications received from a connected device.
+     * @param address Address of the device
+     * @return The notification statistics or null if not available
+     */
+    default BleNotificationStats getNotificationStats(String address)
+    {
+        return null;
+    }
 }
@@ -99,6 +99,22 @@ public interface IGattClient
     boolean setCharacteristicNotification(IGattCharacteristic characteristic, boolean enable);
     
     
+    /**
+     * Enable or disable batched delivery of notifications for a given characteristic.<br/>
+     * When enabled, notifications received faster than the callback can process
+     * them are delivered together to {@link GattCallback#onCharacteristicChanged(IGattClient, IGattField, java.util.List)}
+     * instead of being delivered one by one. This is useful for high-rate
+     * characteristics (e.g. accelerometer samples).
+     * @param characteristic
+     * @param enable Set to true to enable batching
+     * @return true if batching is supported by this client
+     */
+    default boolean setNotificationBatching(IGattCharacteristic characteristic, boolean enable)
+    {
+        return false;
+    }
+    
+    
     /**
      * Writes the cached value of a given characteristic to the associated remote device.<br/>
      * Once the write operation has been completed, the onCharacteristicWrite() callback
@@ -265,7 +265,7 @@ public abstract class JmDNS implements Closeable {
      * @param name
      *            unqualified service name, such as <code>foobar</code> .
      * @param timeout
-     *            timeout in milliseconds
+     *            timeout in milliseconds, or 0 to return immediately and only receive the result through ServiceListener.resolveService
      */
     public abstract void requestServiceInfo(String type, String name, long timeout);
 
@@ -279,7 +279,7 @@ public abstract class JmDNS implements Closeable {
      * @param persistent
      *            if <code>true</code> ServiceListener.resolveService will be called whenever new new information is received.
      * @param timeout
-     *            timeout in milliseconds
+     *            timeout in milliseconds, or 0 to return immediately and only receive the result through ServiceListener.resolveService
      */
     public abstract void requestServiceInfo(String type, String name, boolean persistent, long timeout);
 
@@ -7,12 +7,14 @@ package javax.jmdns.impl;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.jmdns.impl.constants.DNSConstants;
 import javax.jmdns.impl.constants.DNSRecordClass;
 import javax.jmdns.impl.constants.DNSRecordType;
 
@@ -38,6 +40,10 @@ import javax.jmdns.impl.constants.DNSRecordType;
  *           ...do something with entry...
  *       }
  * </pre>
+ * <p/>
+ * Each name has its own entry list and lock so lookups and updates of different names never contend. The cache also keeps an index of entries
+ * ordered by the time they next need attention (becoming stale or expiring) so the record reaper only visits those instead of scanning the
+ * whole cache.
  *
  * @author Arthur van Hoff, Werner Randelshofer, Rick Blair, Pierre Frisch
  */
@@ -52,6 +58,37 @@ public class DNSCache extends ConcurrentHashMap<String, List<DNSEntry>> {
      */
     public static final DNSCache EmptyCache       = new _EmptyCache();
 
+    /**
+     * Entries ordered by the time they are due for a stale or expiry check. Entries are not removed from this queue when they are removed from
+     * the cache or rescheduled, outdated items are simply ignored when they come due.
+     */
+    private final transient PriorityQueue<ScheduledEntry> _schedule = new PriorityQueue<ScheduledEntry>();
+
+    /**
+     * Current due time of each scheduled entry, guarded by the schedule lock.
+     */
+    private final transient Map<DNSEntry, Long>          _dueTimes = new IdentityHashMap<DNSEntry, Long>();
+
+    static final class ScheduledEntry implements Comparable<ScheduledEntry> {
+
+        final long     _dueTime;
+
+        final DNSEntry _entry;
+
+        ScheduledEntry(long dueTime, DNSEntry entry) {
+            _dueTime = dueTime;
+            _entry = entry;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo(ScheduledEntry other) {
+            return Long.compare(_dueTime, other._dueTime);
+        }
+    }
+
     static final class _EmptyCache extends DNSCache {
 
         private static final long serialVersionUID = 8487377323074567224L;
@@ -297,14 +334,16 @@ public class DNSCache extends ConcurrentHashMap<String, List<DNSEntry>> {
     public boolean addDNSEntry(final DNSEntry dnsEntry) {
         boolean result = false;
         if (dnsEntry != null) {
-            List<DNSEntry> entryList = this.get(dnsEntry.getKey());
-            if (entryList == null) {
-                this.putIfAbsent(dnsEntry.getKey(), new ArrayList<DNSEntry>());
-                entryList = this.get(dnsEntry.getKey());
-            }
-            synchronized (entryList) {
-                entryList.add(dnsEntry);
-            }
+            this.compute(dnsEntry.getKey(), (key, entryList) -> {
+                if (entryList == null) {
+                    entryList = new ArrayList<DNSEntry>();
+                }
+                synchronized (entryList) {
+                    entryList.add(dnsEntry);
+                }
+                return entryList;
+            });
+            this.scheduleDNSEntry(dnsEntry, System.currentTimeMillis());
             // This is probably not very informative
             result = true;
         }
@@ -318,16 +357,23 @@ public class DNSCache extends ConcurrentHashMap<String, List<DNSEntry>> {
      * @return true if the entry was removed
      */
     public boolean removeDNSEntry(DNSEntry dnsEntry) {
-        boolean result = false;
+        final DNSEntry[] removed = new DNSEntry[1];
         if (dnsEntry != null) {
-            List<DNSEntry> entryList = this.get(dnsEntry.getKey());
-            if (entryList != null) {
+            // drop the list once empty so names of departed services don't accumulate
+            this.computeIfPresent(dnsEntry.getKey(), (key, entryList) -> {
                 synchronized (entryList) {
-                    entryList.remove(dnsEntry);
+                    int index = entryList.indexOf(dnsEntry);
+                    if (index >= 0) {
+                        removed[0] = entryList.remove(index);
+                    }
+                    return entryList.isEmpty() ? null : entryList;
                 }
+            });
+            if (removed[0] != null) {
+                this.unscheduleDNSEntry(removed[0]);
             }
         }
-        return result;
+        return removed[0] != null;
     }
 
     /**
@@ -338,24 +384,118 @@ public class DNSCache extends ConcurrentHashMap<String, List<DNSEntry>> {
      * @param existingDNSEntry
      * @return <code>true</code> if the entry has been replace, <code>false</code> otherwise.
      */
-    public boolean replaceDNSEntry(DNSEntry newDNSEntry, DNSEntry existingDNSEntry) {
+    public boolean replaceDNSEntry(final DNSEntry newDNSEntry, final DNSEntry existingDNSEntry) {
         boolean result = false;
         if ((newDNSEntry != null) && (existingDNSEntry != null) && (newDNSEntry.getKey().equals(existingDNSEntry.getKey()))) {
-            List<DNSEntry> entryList = this.get(newDNSEntry.getKey());
-            if (entryList == null) {
-                this.putIfAbsent(newDNSEntry.getKey(), new ArrayList<DNSEntry>());
-                entryList = this.get(newDNSEntry.getKey());
-            }
-            synchronized (entryList) {
-                entryList.remove(existingDNSEntry);
-                entryList.add(newDNSEntry);
-            }
+            this.compute(newDNSEntry.getKey(), (key, entryList) -> {
+                if (entryList == null) {
+                    entryList = new ArrayList<DNSEntry>();
+                }
+                synchronized (entryList) {
+                    entryList.remove(existingDNSEntry);
+                    entryList.add(newDNSEntry);
+                }
+                return entryList;
+            });
+            this.unscheduleDNSEntry(existingDNSEntry);
+            this.scheduleDNSEntry(newDNSEntry, System.currentTimeMillis());
             // This is probably not very informative
             result = true;
         }
         return result;
     }
 
+    /**
+     * Schedule the next stale or expiry check of an entry.<br/>
+     * This must be called again when the expiration time of a cached entry is brought forward (e.g. when a goodbye packet is received). Entries
+     * whose TTL is extended don't need to be rescheduled, they are simply rescheduled when they come due.
+     *
+     * @param dnsEntry
+     * @param now
+     *            current time in milliseconds
+     */
+    public void scheduleDNSEntry(DNSEntry dnsEntry, long now) {
+        if (dnsEntry instanceof DNSRecord) {
+            DNSRecord record = (DNSRecord) dnsEntry;
+            long dueTime = record.getExpirationTime(50);
+            if (dueTime <= now) {
+                // already stale, check again at the next reaper pass until it is renewed or expires
+                dueTime = Math.min(record.getExpirationTime(100), now + DNSConstants.RECORD_REAPER_INTERVAL);
+            }
+            synchronized (_schedule) {
+                _dueTimes.put(dnsEntry, dueTime);
+                _schedule.add(new ScheduledEntry(dueTime, dnsEntry));
+            }
+        }
+    }
+
+    private void unscheduleDNSEntry(DNSEntry dnsEntry) {
+        synchronized (_schedule) {
+            _dueTimes.remove(dnsEntry);
+        }
+    }
+
+    /**
+     * Retrieve and unschedule all cached entries that are due for a stale or expiry check.<br/>
+     * Callers are responsible for removing expired entries and rescheduling the other ones with {@link #scheduleDNSEntry(DNSEntry, long)}.
+     *
+     * @param now
+     *            current time in milliseconds
+     * @return entries that may be stale or expired, oldest first
+     */
+    public Collection<DNSEntry> pollDueEntries(long now) {
+        List<DNSEntry> dueEntries = new ArrayList<DNSEntry>();
+        synchronized (_schedule) {
+            while (!_schedule.isEmpty() && _schedule.peek()._dueTime <= now) {
+                ScheduledEntry item = _schedule.poll();
+                Long dueTime = _dueTimes.get(item._entry);
+                if (dueTime == null || dueTime.longValue() != item._dueTime) {
+                    continue; // removed or rescheduled
+                }
+                _dueTimes.remove(item._entry);
+                if (this.isCached(item._entry)) {
+                    dueEntries.add(item._entry);
+                }
+            }
+        }
+        return dueEntries;
+    }
+
+    /**
+     * @return number of entries currently scheduled for a stale or expiry check
+     */
+    public int getScheduledCount() {
+        synchronized (_schedule) {
+            return _dueTimes.size();
+        }
+    }
+
+    private boolean isCached(DNSEntry dnsEntry) {
+        List<DNSEntry> entryList = this.get(dnsEntry.getKey());
+        if (entryList != null) {
+            synchronized (entryList) {
+                for (DNSEntry entry : entryList) {
+                    if (entry == dnsEntry) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        synchronized (_schedule) {
+            _schedule.clear();
+            _dueTimes.clear();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
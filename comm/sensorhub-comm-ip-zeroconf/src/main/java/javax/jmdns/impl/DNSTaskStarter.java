@@ -12,7 +12,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import javax.jmdns.impl.tasks.RecordReaper;
 import javax.jmdns.impl.tasks.Responder;
-import javax.jmdns.impl.tasks.resolver.ServiceInfoResolver;
+import javax.jmdns.impl.tasks.resolver.ServiceInfoBatchResolver;
 import javax.jmdns.impl.tasks.resolver.ServiceResolver;
 import javax.jmdns.impl.tasks.resolver.TypeResolver;
 import javax.jmdns.impl.tasks.state.Announcer;
@@ -159,6 +159,11 @@ public interface DNSTaskStarter {
          */
         private final Timer     _stateTimer;
 
+        /**
+         * Resolver shared by all service infos being resolved at the same time, guarded by this starter.
+         */
+        private ServiceInfoBatchResolver _serviceInfoResolver;
+
         public static class StarterTimer extends Timer {
 
             // This is needed because in some case we cancel the timers before all the task have finished running and in some case they will try to reschedule
@@ -364,7 +369,14 @@ public interface DNSTaskStarter {
          */
         @Override
         public void startServiceInfoResolver(ServiceInfoImpl info) {
-            new ServiceInfoResolver(_jmDNSImpl, info).start(_timer);
+            synchronized (this) {
+                // queries for services discovered together are sent in the same messages
+                if ((_serviceInfoResolver == null) || !_serviceInfoResolver.add(info)) {
+                    _serviceInfoResolver = new ServiceInfoBatchResolver(_jmDNSImpl);
+                    _serviceInfoResolver.add(info);
+                    _serviceInfoResolver.start(_timer);
+                }
+            }
         }
 
         /*
@@ -825,6 +825,10 @@ public class JmDNSImpl extends JmDNS implements DNSStatefulObject, DNSTaskStarte
     }
 
     private void waitForInfoData(ServiceInfo info, long timeout) {
+        if (timeout <= 0) {
+            // asynchronous request, result is dispatched to service listeners
+            return;
+        }
         synchronized (info) {
             long loops = (timeout / 200L);
             if (loops < 1) {
@@ -864,7 +868,7 @@ public class JmDNSImpl extends JmDNS implements DNSStatefulObject, DNSTaskStarte
      */
     @Override
     public void requestServiceInfo(String type, String name, long timeout) {
-        this.requestServiceInfo(type, name, false, DNSConstants.SERVICE_INFO_TIMEOUT);
+        this.requestServiceInfo(type, name, false, timeout);
     }
 
     /**
@@ -1340,6 +1344,7 @@ public class JmDNSImpl extends JmDNS implements DNSStatefulObject, DNSTaskStarte
                 for (DNSEntry entry : this.getCache().getDNSEntryList(newRecord.getKey())) {
                     if (newRecord.getRecordType().equals(entry.getRecordType()) && newRecord.getRecordClass().equals(entry.getRecordClass()) && (entry != cachedRecord)) {
                         ((DNSRecord) entry).setWillExpireSoon(now);
+                        this.getCache().scheduleDNSEntry(entry, now);
                     }
                 }
             }
@@ -1349,6 +1354,7 @@ public class JmDNSImpl extends JmDNS implements DNSStatefulObject, DNSTaskStarte
                     if (newRecord.getTTL() == 0) {
                         cacheOperation = Operation.Noop;
                         cachedRecord.setWillExpireSoon(now);
+                        this.getCache().scheduleDNSEntry(cachedRecord, now);
                         // the actual record will be disposed of by the record reaper.
                     } else {
                         cacheOperation = Operation.Remove;
@@ -1772,21 +1778,31 @@ public class JmDNSImpl extends JmDNS implements DNSStatefulObject, DNSTaskStarte
 
     public void cleanCache() {
         long now = System.currentTimeMillis();
-        for (DNSEntry entry : this.getCache().allValues()) {
+        // only visit records that became stale or expired since the last pass
+        Map<String, DNSRecord> staleTypes = new HashMap<String, DNSRecord>();
+        for (DNSEntry entry : this.getCache().pollDueEntries(now)) {
             try {
                 DNSRecord record = (DNSRecord) entry;
                 if (record.isExpired(now)) {
-                    this.updateRecord(now, record, Operation.Remove);
-                    this.getCache().removeDNSEntry(record);
-                } else if (record.isStale(now)) {
-                    // we should query for the record we care about i.e. those in the service collectors
-                    this.renewServiceCollector(record);
+                    if (this.getCache().removeDNSEntry(record)) {
+                        this.updateRecord(now, record, Operation.Remove);
+                    }
+                } else {
+                    if (record.isStale(now)) {
+                        // we should query for the record we care about i.e. those in the service collectors
+                        // but one query per service type is enough to renew all records of that type
+                        staleTypes.put(record.getServiceInfo().getType().toLowerCase(), record);
+                    }
+                    this.getCache().scheduleDNSEntry(record, now);
                 }
             } catch (Exception exception) {
                 logger.log(Level.SEVERE, this.getName() + ".Error while reaping records: " + entry, exception);
                 logger.severe(this.toString());
             }
         }
+        for (DNSRecord record : staleTypes.values()) {
+            this.renewServiceCollector(record);
+        }
     }
 
     /**
@@ -0,0 +1,251 @@
+// Copyright 2026 Sensia Software LLC
+// Licensed under Apache License version 2.0
+
+package javax.jmdns.impl.tasks.resolver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.jmdns.impl.DNSEntry;
+import javax.jmdns.impl.DNSOutgoing;
+import javax.jmdns.impl.DNSQuestion;
+import javax.jmdns.impl.DNSRecord;
+import javax.jmdns.impl.JmDNSImpl;
+import javax.jmdns.impl.ServiceInfoImpl;
+import javax.jmdns.impl.constants.DNSConstants;
+import javax.jmdns.impl.constants.DNSRecordClass;
+import javax.jmdns.impl.constants.DNSRecordType;
+
+/**
+ * The ServiceInfoBatchResolver queries for all service infos being resolved at the same time, packing their questions in as few messages as
+ * possible.
+ * <p/>
+ * Each service info is queried up to three times consecutively, like with the {@link ServiceInfoResolver}, but a single timer task and query
+ * message are used for all of them. Questions shared by several services (e.g. address of a host publishing several services) are only asked
+ * once. The task removes itself from the timer once there is nothing left to resolve.
+ */
+public class ServiceInfoBatchResolver extends DNSResolverTask {
+    private static Logger                      logger   = Logger.getLogger(ServiceInfoBatchResolver.class.getName());
+
+    /**
+     * Number of queries already sent for each service info, guarded by itself.
+     */
+    private final Map<ServiceInfoImpl, Integer> _pending = new IdentityHashMap<ServiceInfoImpl, Integer>();
+
+    /**
+     * Service infos queried in the current run, only accessed by the timer thread.
+     */
+    private final List<ServiceInfoImpl>         _batch   = new ArrayList<ServiceInfoImpl>();
+
+    private boolean                             _cancelled;
+
+    public ServiceInfoBatchResolver(JmDNSImpl jmDNSImpl) {
+        super(jmDNSImpl);
+    }
+
+    /**
+     * Add a service info to resolve in the next query.
+     *
+     * @param info
+     *            service info to resolve
+     * @return <code>false</code> if this resolver was cancelled and a new one must be started
+     */
+    public boolean add(ServiceInfoImpl info) {
+        synchronized (_pending) {
+            if (_cancelled) {
+                return false;
+            }
+            if (_pending.containsKey(info)) {
+                return true;
+            }
+            _pending.put(info, 0);
+        }
+        info.setDns(this.getDns());
+        // this also dispatches the records already in the cache
+        this.getDns().addListener(info, DNSQuestion.newQuestion(info.getQualifiedName(), DNSRecordType.TYPE_ANY, DNSRecordClass.CLASS_IN, DNSRecordClass.NOT_UNIQUE));
+        return true;
+    }
+
+    /**
+     * @return number of service infos still being resolved
+     */
+    public int getPendingCount() {
+        synchronized (_pending) {
+            return _pending.size();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see javax.jmdns.impl.tasks.DNSTask#getName()
+     */
+    @Override
+    public String getName() {
+        return "ServiceInfoBatchResolver(" + (this.getDns() != null ? this.getDns().getName() : "") + ")";
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see javax.jmdns.impl.tasks.resolver.DNSResolverTask#start(java.util.Timer)
+     */
+    @Override
+    public void start(Timer timer) {
+        if (!this.getDns().isCanceling() && !this.getDns().isCanceled()) {
+            timer.schedule(this, DNSConstants.QUERY_WAIT_INTERVAL, DNSConstants.QUERY_WAIT_INTERVAL);
+        } else {
+            // make sure no more infos are queued to a task that will never run
+            this.cancel();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.TimerTask#cancel()
+     */
+    @Override
+    public boolean cancel() {
+        boolean result = super.cancel();
+        List<ServiceInfoImpl> infos;
+        synchronized (_pending) {
+            _cancelled = true;
+            infos = new ArrayList<ServiceInfoImpl>(_pending.keySet());
+            _pending.clear();
+        }
+        // We should not forget to remove the listeners
+        this.removeListeners(infos);
+        return result;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see javax.jmdns.impl.tasks.resolver.DNSResolverTask#run()
+     */
+    @Override
+    public void run() {
+        try {
+            if (this.getDns().isCanceling() || this.getDns().isCanceled()) {
+                this.cancel();
+                return;
+            }
+
+            // select infos still needing a query, this is where the query count is kept for each of them
+            List<ServiceInfoImpl> done = new ArrayList<ServiceInfoImpl>();
+            boolean idle;
+            _batch.clear();
+            synchronized (_pending) {
+                for (Iterator<Map.Entry<ServiceInfoImpl, Integer>> i = _pending.entrySet().iterator(); i.hasNext();) {
+                    Map.Entry<ServiceInfoImpl, Integer> entry = i.next();
+                    ServiceInfoImpl info = entry.getKey();
+                    if (info.hasData() || entry.getValue() >= 3) {
+                        done.add(info);
+                        i.remove();
+                    } else {
+                        entry.setValue(entry.getValue() + 1);
+                        _batch.add(info);
+                    }
+                }
+                idle = _pending.isEmpty();
+                if (idle) {
+                    // a new resolver will be started when needed
+                    _cancelled = true;
+                }
+            }
+            this.removeListeners(done);
+            if (idle) {
+                super.cancel();
+            }
+
+            if (!_batch.isEmpty()) {
+                if (logger.isLoggable(Level.FINER)) {
+                    logger.finer(this.getName() + ".run() JmDNS " + this.description());
+                }
+                DNSOutgoing out = new DNSOutgoing(DNSConstants.FLAGS_QR_QUERY);
+                out = this.addQuestions(out);
+                if (this.getDns().isAnnounced()) {
+                    out = this.addAnswers(out);
+                }
+                if (!out.isEmpty()) {
+                    this.getDns().send(out);
+                }
+                _count++;
+            }
+        } catch (Throwable e) {
+            logger.log(Level.WARNING, this.getName() + ".run() exception ", e);
+            this.getDns().recover();
+        }
+    }
+
+    private void removeListeners(List<ServiceInfoImpl> infos) {
+        for (ServiceInfoImpl info : infos) {
+            if (!info.isPersistent()) {
+                this.getDns().removeListener(info);
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see javax.jmdns.impl.tasks.Resolver#addAnswers(javax.jmdns.impl.DNSOutgoing)
+     */
+    @Override
+    protected DNSOutgoing addAnswers(DNSOutgoing out) throws IOException {
+        DNSOutgoing newOut = out;
+        long now = System.currentTimeMillis();
+        Set<DNSEntry> knownAnswers = new HashSet<DNSEntry>();
+        for (ServiceInfoImpl info : _batch) {
+            knownAnswers.add(this.getDns().getCache().getDNSEntry(info.getQualifiedName(), DNSRecordType.TYPE_SRV, DNSRecordClass.CLASS_IN));
+            knownAnswers.add(this.getDns().getCache().getDNSEntry(info.getQualifiedName(), DNSRecordType.TYPE_TXT, DNSRecordClass.CLASS_IN));
+            if (info.getServer().length() > 0) {
+                knownAnswers.addAll(this.getDns().getCache().getDNSEntryList(info.getServer(), DNSRecordType.TYPE_A, DNSRecordClass.CLASS_IN));
+                knownAnswers.addAll(this.getDns().getCache().getDNSEntryList(info.getServer(), DNSRecordType.TYPE_AAAA, DNSRecordClass.CLASS_IN));
+            }
+        }
+        knownAnswers.remove(null);
+        for (DNSEntry answer : knownAnswers) {
+            newOut = this.addAnswer(newOut, (DNSRecord) answer, now);
+        }
+        return newOut;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see javax.jmdns.impl.tasks.Resolver#addQuestions(javax.jmdns.impl.DNSOutgoing)
+     */
+    @Override
+    protected DNSOutgoing addQuestions(DNSOutgoing out) throws IOException {
+        DNSOutgoing newOut = out;
+        Set<String> names = new HashSet<String>();
+        Set<String> servers = new HashSet<String>();
+        for (ServiceInfoImpl info : _batch) {
+            // the same service can be resolved by several infos (e.g. service collector and user request)
+            if (names.add(info.getKey())) {
+                newOut = this.addQuestion(newOut, DNSQuestion.newQuestion(info.getQualifiedName(), DNSRecordType.TYPE_SRV, DNSRecordClass.CLASS_IN, DNSRecordClass.NOT_UNIQUE));
+                newOut = this.addQuestion(newOut, DNSQuestion.newQuestion(info.getQualifiedName(), DNSRecordType.TYPE_TXT, DNSRecordClass.CLASS_IN, DNSRecordClass.NOT_UNIQUE));
+            }
+            if (info.getServer().length() > 0 && servers.add(info.getServer().toLowerCase())) {
+                newOut = this.addQuestion(newOut, DNSQuestion.newQuestion(info.getServer(), DNSRecordType.TYPE_A, DNSRecordClass.CLASS_IN, DNSRecordClass.NOT_UNIQUE));
+                newOut = this.addQuestion(newOut, DNSQuestion.newQuestion(info.getServer(), DNSRecordType.TYPE_AAAA, DNSRecordClass.CLASS_IN, DNSRecordClass.NOT_UNIQUE));
+            }
+        }
+        return newOut;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see javax.jmdns.impl.tasks.Resolver#description()
+     */
+    @Override
+    protected String description() {
+        return "querying service info for " + _batch.size() + " services";
+    }
+
+}
@@ -21,12 +21,13 @@ import java.net.NetworkInterface;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.jmdns.JmDNS;
 import javax.jmdns.ServiceEvent;
 import javax.jmdns.ServiceInfo;
@@ -68,7 +69,7 @@ public class IpCommNetwork extends AbstractModule<IpNetworkConfig> implements IC
     {
         volatile boolean scanning;
         ServiceTypeListener sTypeListener;
-        Map<String, ServiceListener> srvListeners = new HashMap<String, ServiceListener>();        
+        Map<String, ServiceListener> srvListeners = new ConcurrentHashMap<String, ServiceListener>();        
         
         @Override
         public void startScan(IDeviceScanCallback callback)
@@ -95,14 +96,17 @@ public class IpCommNetwork extends AbstractModule<IpNetworkConfig> implements IC
                             {
                                 log.debug("Service Added: " + ev.getName() + "." + ev.getType());
                                 
-                                ServiceInfo svcInfo = jmdns.getServiceInfo(ev.getType(), ev.getName(), 1);
-                                if (svcInfo != null)
-                                    notifyServiceInfo(svcInfo, callback);
+                                // don't wait for the service info here as this would block
+                                // the dispatch of all other events while the query is running.
+                                // queries are batched and results are reported one by one
+                                // in serviceResolved() as soon as they are received
+                                jmdns.requestServiceInfo(ev.getType(), ev.getName(), 0);
                             }
 
                             @Override
                             public void serviceRemoved(ServiceEvent ev)
-                            {                                
+                            {
+                                log.debug("Service Removed: " + ev.getName() + "." + ev.getType());
                             }
 
                             @Override
@@ -110,7 +114,7 @@ public class IpCommNetwork extends AbstractModule<IpNetworkConfig> implements IC
                             {
                                 log.debug("Service Resolved: " + ev.getName() +
                                         ", Type=" + ev.getType() + 
-                                        ", Address=" + ev.getInfo().getInetAddresses()[0],
+                                        ", Address=" + Arrays.toString(ev.getInfo().getHostAddresses()) +
                                         ", Port=" + ev.getInfo().getPort());
                                 
                                 notifyServiceInfo(ev.getInfo(), callback);
@@ -218,6 +222,7 @@ public class IpCommNetwork extends AbstractModule<IpNetworkConfig> implements IC
             
             for (Entry<String, ServiceListener> entry: srvListeners.entrySet())
                 jmdns.removeServiceListener(entry.getKey(), entry.getValue());
+            srvListeners.clear();
             
             this.scanning = false;
             log.debug("Scan stopped");
@@ -0,0 +1,293 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.test.comm.zeroconf;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.jmdns.JmDNS;
+import javax.jmdns.ServiceEvent;
+import javax.jmdns.ServiceInfo;
+import javax.jmdns.ServiceListener;
+import javax.jmdns.impl.DNSCache;
+import javax.jmdns.impl.DNSEntry;
+import javax.jmdns.impl.DNSRecord;
+import javax.jmdns.impl.constants.DNSRecordClass;
+import org.junit.Test;
+
+
+public class TestZeroConfDiscovery
+{
+    static final String SERVICE_TYPE = "_osh._tcp.local.";
+
+
+    /*
+     * Cache records of a simulated responder population, each publishing one
+     * service with the usual PTR, SRV and TXT records
+     */
+    static List<DNSRecord> addResponders(DNSCache cache, int numResponders, int ttl)
+    {
+        var records = new ArrayList<DNSRecord>();
+        for (int i = 0; i < numResponders; i++)
+        {
+            String name = "Device" + i + "." + SERVICE_TYPE;
+            String host = "device" + i + ".local.";
+            records.add(new DNSRecord.Pointer(SERVICE_TYPE, DNSRecordClass.CLASS_IN, false, ttl, name));
+            records.add(new DNSRecord.Service(name, DNSRecordClass.CLASS_IN, true, ttl, 0, 0, 8000 + i, host));
+            records.add(new DNSRecord.Text(name, DNSRecordClass.CLASS_IN, true, ttl, new byte[] {4, 'p', '=', '1', '0'}));
+        }
+
+        for (var rec: records)
+            cache.addDNSEntry(rec);
+        return records;
+    }
+
+
+    @Test
+    public void testCacheLookup() throws Exception
+    {
+        var cache = new DNSCache();
+        var records = addResponders(cache, 10, 120);
+
+        // lookups are case insensitive
+        assertEquals(10, cache.getDNSEntryList(SERVICE_TYPE.toUpperCase()).size());
+        assertSame(records.get(1), cache.getDNSEntry(records.get(1)));
+
+        // equal record is removed even if it's another instance
+        var srvCopy = new DNSRecord.Service("device3._OSH._tcp.local.", DNSRecordClass.CLASS_IN, true, 120, 0, 0, 8003, "device3.local.");
+        assertTrue(cache.removeDNSEntry(srvCopy));
+        assertFalse(cache.removeDNSEntry(srvCopy));
+        assertEquals(1, cache.getDNSEntryList("device3._osh._tcp.local.").size());
+
+        // name is dropped from the cache with its last record
+        assertTrue(cache.removeDNSEntry(records.get(11)));
+        assertTrue(cache.getDNSEntryList("device3._osh._tcp.local.").isEmpty());
+        assertFalse(cache.containsKey("device3._osh._tcp.local."));
+        assertEquals(28, cache.getScheduledCount());
+
+        cache.clear();
+        assertEquals(0, cache.getScheduledCount());
+    }
+
+
+    @Test
+    public void testCacheExpiryIndex() throws Exception
+    {
+        var cache = new DNSCache();
+        long now = System.currentTimeMillis();
+        var records = addResponders(cache, 20, 10);
+        assertEquals(60, cache.getScheduledCount());
+
+        // nothing to check before records get stale
+        assertTrue(cache.pollDueEntries(now).isEmpty());
+
+        // all records are stale after half their TTL
+        var due = cache.pollDueEntries(now + 6000);
+        assertEquals(60, due.size());
+        assertEquals(0, cache.getScheduledCount());
+        for (var entry: due)
+        {
+            assertTrue(entry.isStale(now + 6000));
+            cache.scheduleDNSEntry(entry, now + 6000);
+        }
+
+        // removed records are never reported
+        for (int i = 0; i < 30; i++)
+            cache.removeDNSEntry(records.get(i));
+        assertEquals(30, cache.getScheduledCount());
+
+        // stale records come due again when they expire
+        assertTrue(cache.pollDueEntries(now + 9000).isEmpty());
+        due = cache.pollDueEntries(now + 11000);
+        assertEquals(30, due.size());
+        for (var entry: due)
+            assertTrue(entry.isExpired(now + 11000));
+        assertTrue(cache.pollDueEntries(Long.MAX_VALUE).isEmpty());
+    }
+
+
+    @Test
+    public void testRescheduledEntryReportedOnce() throws Exception
+    {
+        var cache = new DNSCache();
+        long now = System.currentTimeMillis();
+        var rec = new DNSRecord.Text("dev._osh._tcp.local.", DNSRecordClass.CLASS_IN, true, 3600, new byte[1]);
+        cache.addDNSEntry(rec);
+
+        // reschedule several times, only the last one counts
+        cache.scheduleDNSEntry(rec, now);
+        cache.scheduleDNSEntry(rec, now);
+        assertEquals(1, cache.getScheduledCount());
+
+        Collection<DNSEntry> due = cache.pollDueEntries(now + 3600 * 1000L);
+        assertEquals(1, due.size());
+        assertTrue(cache.pollDueEntries(Long.MAX_VALUE).isEmpty());
+    }
+
+
+    @Test
+    public void testReaperBenchmark() throws Exception
+    {
+        assumeTrue("Benchmark only runs with -Dzeroconf.benchmark=true", Boolean.getBoolean("zeroconf.benchmark"));
+
+        var cache = new DNSCache();
+        int numResponders = 2000;
+        int numPasses = 1000;
+        addResponders(cache, numResponders, 4500);
+        long now = System.currentTimeMillis();
+
+        // reaper pass as previously done, scanning the whole cache
+        long t0 = System.nanoTime();
+        int count = 0;
+        for (int i = 0; i < numPasses; i++)
+        {
+            for (DNSEntry entry: cache.allValues())
+            {
+                if (entry.isExpired(now) || entry.isStale(now))
+                    count++;
+            }
+        }
+        double scanTime = (System.nanoTime() - t0) / 1e6 / numPasses;
+        assertEquals(0, count);
+
+        // reaper pass using the expiry index
+        t0 = System.nanoTime();
+        for (int i = 0; i < numPasses; i++)
+            count += cache.pollDueEntries(now).size();
+        double indexTime = (System.nanoTime() - t0) / 1e6 / numPasses;
+        assertEquals(0, count);
+
+        System.out.printf("Reaper pass with %d records: full scan=%.3f ms, expiry index=%.4f ms%n",
+            numResponders * 3, scanTime, indexTime);
+    }
+
+
+    /*
+     * Discovery of a population of services published by another JmDNS
+     * instance on the loopback interface. This is only run if the number of
+     * services is given with -Dzeroconf.responders=N since publishing them
+     * takes a while.
+     */
+    @Test
+    public void testLoopbackDiscovery() throws Exception
+    {
+        int numServices = Integer.getInteger("zeroconf.responders", 0);
+        assumeTrue("Loopback discovery only runs with -Dzeroconf.responders=N", numServices > 0);
+
+        InetAddress lo = InetAddress.getByName("127.0.0.1");
+        JmDNS responder = JmDNS.create(lo, "responder");
+        JmDNS client = null;
+        MulticastSocket sniffer = null;
+
+        try
+        {
+            // register services in parallel so they are probed together
+            ExecutorService exec = Executors.newFixedThreadPool(Math.min(numServices, 32));
+            for (int i = 0; i < numServices; i++)
+            {
+                final int id = i;
+                exec.submit(() -> {
+                    responder.registerService(ServiceInfo.create(SERVICE_TYPE, "Device" + id, 8000 + id, "p=1"));
+                    return null;
+                });
+            }
+            exec.shutdown();
+            assertTrue(exec.awaitTermination(5, TimeUnit.MINUTES));
+
+            // count queries sent on the link from now on
+            final MulticastSocket socket = sniffer = new MulticastSocket(5353);
+            var netIf = NetworkInterface.getByInetAddress(lo);
+            socket.joinGroup(new InetSocketAddress(InetAddress.getByName("224.0.0.251"), 5353), netIf);
+            socket.setSoTimeout(100);
+            var numQueries = new AtomicInteger();
+            var sniffThread = new Thread(() -> {
+                var buf = new byte[9000];
+                while (!socket.isClosed())
+                {
+                    try
+                    {
+                        var pkt = new DatagramPacket(buf, buf.length);
+                        socket.receive(pkt);
+                        if ((buf[2] & 0x80) == 0)
+                            numQueries.incrementAndGet();
+                    }
+                    catch (SocketTimeoutException e)
+                    {
+                    }
+                    catch (Exception e)
+                    {
+                        break;
+                    }
+                }
+            });
+            sniffThread.start();
+
+            long t0 = System.currentTimeMillis();
+            client = JmDNS.create(lo, "client");
+            var found = new ConcurrentHashMap<String, Long>();
+            var latch = new CountDownLatch(numServices);
+            final JmDNS jmdns = client;
+            client.addServiceListener(SERVICE_TYPE, new ServiceListener() {
+                @Override
+                public void serviceAdded(ServiceEvent ev)
+                {
+                    jmdns.requestServiceInfo(ev.getType(), ev.getName(), 0);
+                }
+
+                @Override
+                public void serviceRemoved(ServiceEvent ev)
+                {
+                }
+
+                @Override
+                public void serviceResolved(ServiceEvent ev)
+                {
+                    if (found.putIfAbsent(ev.getName(), System.currentTimeMillis() - t0) == null)
+                        latch.countDown();
+                }
+            });
+
+            latch.await(60, TimeUnit.SECONDS);
+            long dt = System.currentTimeMillis() - t0;
+            assertEquals(numServices, found.size());
+
+            long firstFound = found.values().stream().mapToLong(Long::longValue).min().getAsLong();
+            System.out.printf("Resolved %d services in %d ms, first after %d ms, %d queries sent%n",
+                numServices, dt, firstFound, numQueries.get());
+        }
+        finally
+        {
+            if (sniffer != null)
+                sniffer.close();
+            if (client != null)
+                client.close();
+            responder.close();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+ The contents of this file are subject to the Mozilla Public License, v. 2.0.
+ If a copy of the MPL was not distributed with this file, You can obtain one
+ at http://mozilla.org/MPL/2.0/.
+
+ Software distributed under the License is distributed on an "AS IS" basis,
+ WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ for the specific language governing rights and limitations under the License.
+
+ The Initial Developer is Botts Innovative Research Inc. Portions created by the Initial
+ Developer are Copyright (C) 2026 the Initial Developer. All Rights Reserved.
+
+ ******************************* END LICENSE BLOCK ***************************/
+
+package com.botts.impl.comm.jssc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * <p>
+ * Lock-free byte ring buffer for one writer thread and one reader thread.
+ * </p><p>
+ * Bytes that don't fit in the buffer are dropped and counted as overrun.
+ * When timestamps are enabled, the arrival time of each chunk of bytes is
+ * recorded so the reader can get the time at which the bytes it reads
+ * were received.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ByteRingBuffer {
+
+    private final byte[] data;
+    private final int mask;
+    private final AtomicLong writePos = new AtomicLong();
+    private final AtomicLong readPos = new AtomicLong();
+
+    // chunk end positions and arrival times, null if timestamps are disabled
+    private final long[] chunkEnds;
+    private final long[] chunkTimes;
+    private final int chunkMask;
+    private final AtomicLong chunkWriteIdx = new AtomicLong();
+    private final AtomicLong chunkReadIdx = new AtomicLong();
+    private long lastReadTimestamp = Long.MIN_VALUE;
+
+    // statistics, only updated by the writer thread
+    private volatile long bytesReceived;
+    private volatile long chunksReceived;
+    private volatile long overrunBytes;
+    private volatile int maxFill;
+
+
+    /**
+     * @param capacity Buffer size in bytes, rounded up to the next power of two
+     * @param timestamps True to record the arrival time of each chunk
+     */
+    public ByteRingBuffer(int capacity, boolean timestamps) {
+        if (capacity <= 0 || capacity > (1 << 30))
+            throw new IllegalArgumentException("Buffer capacity must be between 1 and 2^30");
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        this.data = new byte[size];
+        this.mask = size - 1;
+
+        if (timestamps) {
+            int numChunks = Math.max(64, size / 64);
+            this.chunkEnds = new long[numChunks];
+            this.chunkTimes = new long[numChunks];
+            this.chunkMask = numChunks - 1;
+        } else {
+            this.chunkEnds = null;
+            this.chunkTimes = null;
+            this.chunkMask = 0;
+        }
+    }
+
+
+    /**
+     * Writes a chunk of bytes. Only called by the writer thread.
+     * @param src Source array
+     * @param off Offset of first byte in source array
+     * @param len Number of bytes to write
+     * @param timestamp Arrival time of the chunk
+     * @return Number of bytes actually written, less than len if the buffer is full
+     */
+    public int write(byte[] src, int off, int len, long timestamp) {
+        long w = writePos.get();
+        int fill = (int) (w - readPos.get());
+        int n = Math.min(len, data.length - fill);
+
+        if (n > 0) {
+            int start = (int) (w & mask);
+            int first = Math.min(n, data.length - start);
+            System.arraycopy(src, off, data, start, first);
+            System.arraycopy(src, off + first, data, 0, n - first);
+
+            // chunk entry must be visible before the bytes
+            // if the chunk table is full, bytes get the time of the next recorded chunk
+            if (chunkEnds != null) {
+                long c = chunkWriteIdx.get();
+                if (c - chunkReadIdx.get() < chunkEnds.length) {
+                    chunkEnds[(int) (c & chunkMask)] = w + n;
+                    chunkTimes[(int) (c & chunkMask)] = timestamp;
+                    chunkWriteIdx.lazySet(c + 1);
+                }
+            }
+
+            writePos.lazySet(w + n);
+            chunksReceived++;
+            maxFill = Math.max(maxFill, fill + n);
+        }
+
+        bytesReceived += len;
+        if (n < len)
+            overrunBytes += len - n;
+
+        return n;
+    }
+
+
+    /**
+     * @return Number of bytes that can be read without blocking
+     */
+    public int available() {
+        return (int) (writePos.get() - readPos.get());
+    }
+
+
+    /**
+     * Reads up to len bytes. Only called by the reader thread.
+     * @param dst Destination array
+     * @param off Offset in destination array
+     * @param len Maximum number of bytes to read
+     * @return Number of bytes read, 0 if the buffer is empty
+     */
+    public int read(byte[] dst, int off, int len) {
+        long r = readPos.get();
+        int n = (int) Math.min(len, writePos.get() - r);
+
+        if (n > 0) {
+            int start = (int) (r & mask);
+            int first = Math.min(n, data.length - start);
+            System.arraycopy(data, start, dst, off, first);
+            System.arraycopy(data, 0, dst, off + first, n - first);
+            updateReadTimestamp(r);
+            readPos.lazySet(r + n);
+        }
+
+        return n;
+    }
+
+
+    /**
+     * Reads a single byte. Only called by the reader thread.
+     * @return The byte value, or -1 if the buffer is empty
+     */
+    public int read() {
+        long r = readPos.get();
+        if (writePos.get() == r)
+            return -1;
+
+        int b = data[(int) (r & mask)] & 0xFF;
+        updateReadTimestamp(r);
+        readPos.lazySet(r + 1);
+        return b;
+    }
+
+
+    /*
+     * Find the chunk containing the byte at the given position
+     * and skip chunks that have been fully read
+     */
+    private void updateReadTimestamp(long pos) {
+        if (chunkEnds == null)
+            return;
+
+        long c = chunkReadIdx.get();
+        long cmax = chunkWriteIdx.get();
+        while (c < cmax && chunkEnds[(int) (c & chunkMask)] <= pos)
+            c++;
+        chunkReadIdx.lazySet(c);
+
+        if (c < cmax)
+            lastReadTimestamp = chunkTimes[(int) (c & chunkMask)];
+    }
+
+
+    /**
+     * @return Arrival time of the first byte returned by the last read, or
+     * {@link Long#MIN_VALUE} if timestamps are disabled or nothing was read yet
+     */
+    public long getLastReadTimestamp() {
+        return lastReadTimestamp;
+    }
+
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+
+    public long getChunksReceived() {
+        return chunksReceived;
+    }
+
+
+    public long getOverrunBytes() {
+        return overrunBytes;
+    }
+
+
+    public int getMaxFill() {
+        return maxFill;
+    }
+}
@@ -37,7 +37,7 @@ import java.io.OutputStream;
 public class JsscSerialCommProvider extends AbstractModule<JsscSerialCommProviderConfig> implements ICommProvider<JsscSerialCommProviderConfig> {
 
     SerialPort serialPort;
-    InputStream is;
+    SerialInputStream is;
     OutputStream os;
 
     @Override
@@ -71,8 +71,10 @@ public class JsscSerialCommProvider extends AbstractModule<JsscSerialCommProvide
             serialPort.purgePort(SerialPort.PURGE_RXCLEAR | SerialPort.PURGE_TXCLEAR);
 
             // obtain input/output streams
-            is = new SerialInputStream(serialPort);
+            // received bytes are pushed to the input stream by the port event thread
+            is = new SerialInputStream(serialPort, this.config.bufferSize, this.config.timestampChunks);
             os = new SerialOutputStream(serialPort);
+            serialPort.addEventListener(is, SerialPort.MASK_RXCHAR);
 
             getLogger().info("Serial port {} opened: {} baud, {} data bits, {} stop bits, parity {}",
                     config.portName, config.baudRate, config.dataBits, config.stopBits, config.parity);
@@ -100,6 +102,7 @@ public class JsscSerialCommProvider extends AbstractModule<JsscSerialCommProvide
         if (serialPort != null) {
             try {
                 if (serialPort.isOpened()) {
+                    serialPort.removeEventListener();
                     serialPort.closePort();
                     getLogger().info("Serial port closed");
                 }
@@ -109,6 +112,11 @@ public class JsscSerialCommProvider extends AbstractModule<JsscSerialCommProvide
                 serialPort = null;
             }
         }
+        if (is != null) {
+            is.close();
+            getLogger().info("Received {} bytes in {} chunks, max buffer fill {} bytes, {} bytes lost to overrun",
+                    is.getBytesReceived(), is.getChunksReceived(), is.getMaxBufferFill(), is.getOverrunBytes());
+        }
         is = null;
         os = null;
     }
@@ -16,11 +16,18 @@
 package com.botts.impl.comm.jssc;
 
 import org.sensorhub.api.comm.CommProviderConfig;
+import org.sensorhub.api.config.DisplayInfo;
 import org.sensorhub.impl.comm.UARTConfig;
 
 
 public class JsscSerialCommProviderConfig extends CommProviderConfig<UARTConfig> {
 
+    @DisplayInfo(label="Receive Buffer Size", desc="Size of the receive buffer in bytes (rounded up to a power of two). Bytes received while the buffer is full are dropped")
+    public int bufferSize = 65536;
+
+    @DisplayInfo(label="Timestamp Received Data", desc="Record the arrival time of each chunk of received bytes")
+    public boolean timestampChunks = false;
+
     public JsscSerialCommProviderConfig() {
         this.moduleClass = JsscSerialCommProvider.class.getCanonicalName();
         this.protocol = new UARTConfig();
@@ -16,39 +16,144 @@
 package com.botts.impl.comm.jssc;
 
 import jssc.SerialPort;
+import jssc.SerialPortEvent;
+import jssc.SerialPortEventListener;
 import jssc.SerialPortException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.locks.LockSupport;
 
-public class SerialInputStream extends InputStream {
+/**
+ * <p>
+ * Input stream fed by the serial port event listener.
+ * </p><p>
+ * Bytes are read from the port in whole chunks as soon as they are signaled
+ * by the JSSC event thread and stored in a lock-free {@link ByteRingBuffer}.
+ * Reads only block when no byte is available, and bulk reads return all
+ * bytes that are ready (up to the requested length) instead of waiting for
+ * the buffer to be full. If enabled, the arrival time of the bytes returned
+ * by the last read is available from {@link #getLastReadTimestamp()}.
+ * </p><p>
+ * Only one thread can read from this stream at a time.
+ * </p>
+ */
+public class SerialInputStream extends InputStream implements SerialPortEventListener {
 
     private final SerialPort port;
+    private final ByteRingBuffer buffer;
+    private volatile Thread waitingReader;
+    private volatile boolean closed;
+    private volatile IOException error;
 
-    protected SerialInputStream(SerialPort port) {
+    protected SerialInputStream(SerialPort port, int bufferSize, boolean timestamps) {
         this.port = port;
+        this.buffer = new ByteRingBuffer(bufferSize, timestamps);
     }
 
+    /**
+     * Called by the JSSC event thread when bytes are received
+     */
     @Override
-    public int read() throws IOException {
+    public void serialEvent(SerialPortEvent event) {
+        if (!event.isRXCHAR() || event.getEventValue() <= 0)
+            return;
+
         try {
-            byte[] data = port.readBytes(1);
-            return (data == null || data.length == 0 ? -1 : (data[0] & 0xFF));
+            long timestamp = System.currentTimeMillis();
+            byte[] data = port.readBytes(event.getEventValue());
+            if (data != null)
+                buffer.write(data, 0, data.length, timestamp);
         } catch (SerialPortException e) {
-            throw new IOException("Failed to read from serial port", e);
+            error = new IOException("Failed to read from serial port", e);
+        }
+
+        Thread reader = waitingReader;
+        if (reader != null)
+            LockSupport.unpark(reader);
+    }
+
+    /**
+     * Waits until at least one byte is available
+     * @return false if the stream was closed
+     */
+    private boolean waitForData() throws IOException {
+        while (buffer.available() == 0) {
+            if (error != null)
+                throw error;
+            if (closed)
+                return false;
+
+            // check again after registering to avoid missing a wake up
+            waitingReader = Thread.currentThread();
+            if (buffer.available() == 0 && !closed)
+                LockSupport.park(this);
+            waitingReader = null;
+
+            if (Thread.interrupted())
+                throw new IOException("Interrupted while waiting for serial data");
         }
+
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!waitForData())
+            return -1;
+        return buffer.read();
     }
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
-        try {
-            byte[] data = port.readBytes(len);
-            if (data == null) return -1;
-            System.arraycopy(data, 0, b, off, data.length);
-            return data.length;
-        } catch (SerialPortException e) {
-            throw new IOException("Failed to read from serial port", e);
-        }
+        if (len == 0)
+            return 0;
+        if (!waitForData())
+            return -1;
+        return buffer.read(b, off, len);
+    }
+
+    @Override
+    public int available() {
+        return buffer.available();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Thread reader = waitingReader;
+        if (reader != null)
+            LockSupport.unpark(reader);
+    }
+
+    /**
+     * @return Arrival time (ms since epoch) of the first byte returned by the last read,
+     * or {@link Long#MIN_VALUE} if timestamps are disabled
+     */
+    public long getLastReadTimestamp() {
+        return buffer.getLastReadTimestamp();
+    }
+
+    public long getBytesReceived() {
+        return buffer.getBytesReceived();
+    }
+
+    public long getChunksReceived() {
+        return buffer.getChunksReceived();
+    }
+
+    /**
+     * @return Number of bytes dropped because the buffer was full
+     */
+    public long getOverrunBytes() {
+        return buffer.getOverrunBytes();
+    }
+
+    /**
+     * @return Maximum number of bytes waiting in the buffer since the port was opened
+     */
+    public int getMaxBufferFill() {
+        return buffer.getMaxFill();
     }
 
 }
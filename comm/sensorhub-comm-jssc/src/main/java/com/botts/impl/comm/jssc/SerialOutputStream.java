@@ -31,13 +31,22 @@ public class SerialOutputStream extends OutputStream {
 
     @Override
     public void write(int b) throws IOException {
-        write(new byte[]{(byte) b});
+        try {
+            port.writeByte((byte) b);
+        } catch (SerialPortException e) {
+            throw new IOException("Failed to write to serial port", e);
+        }
     }
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
-        byte[] chunk = new byte[len];
-        System.arraycopy(b, off, chunk, 0, len);
+        // JSSC only writes whole arrays, so copy only when writing part of one
+        byte[] chunk = b;
+        if (off != 0 || len != b.length) {
+            chunk = new byte[len];
+            System.arraycopy(b, off, chunk, 0, len);
+        }
+
         try {
             port.writeBytes(chunk);
         } catch (SerialPortException e) {
@@ -0,0 +1,155 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+ The contents of this file are subject to the Mozilla Public License, v. 2.0.
+ If a copy of the MPL was not distributed with this file, You can obtain one
+ at http://mozilla.org/MPL/2.0/.
+
+ Software distributed under the License is distributed on an "AS IS" basis,
+ WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ for the specific language governing rights and limitations under the License.
+
+ The Initial Developer is Botts Innovative Research Inc. Portions created by the Initial
+ Developer are Copyright (C) 2026 the Initial Developer. All Rights Reserved.
+
+ ******************************* END LICENSE BLOCK ***************************/
+
+package com.botts.impl.comm.jssc;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class TestByteRingBuffer {
+
+    private static byte[] sequence(int start, int len) {
+        byte[] b = new byte[len];
+        for (int i = 0; i < len; i++)
+            b[i] = (byte) (start + i);
+        return b;
+    }
+
+    @Test
+    public void testCapacityRoundedUp() {
+        assertEquals(16, new ByteRingBuffer(10, false).getCapacity());
+        assertEquals(16, new ByteRingBuffer(16, false).getCapacity());
+    }
+
+    @Test
+    public void testWrapAround() {
+        ByteRingBuffer buffer = new ByteRingBuffer(16, false);
+        byte[] out = new byte[16];
+
+        assertEquals(-1, buffer.read());
+        assertEquals(0, buffer.read(out, 0, out.length));
+
+        int next = 0;
+        for (int i = 0; i < 20; i++) {
+            assertEquals(11, buffer.write(sequence(next, 11), 0, 11, 0));
+            assertEquals(11, buffer.available());
+
+            // bulk read returns only what is available
+            assertEquals(next & 0xFF, buffer.read());
+            assertEquals(10, buffer.read(out, 0, out.length));
+            for (int j = 0; j < 10; j++)
+                assertEquals((byte) (next + 1 + j), out[j]);
+            next += 11;
+        }
+
+        assertEquals(0, buffer.available());
+        assertEquals(220, buffer.getBytesReceived());
+        assertEquals(20, buffer.getChunksReceived());
+        assertEquals(11, buffer.getMaxFill());
+    }
+
+    @Test
+    public void testOverrun() {
+        ByteRingBuffer buffer = new ByteRingBuffer(16, false);
+
+        assertEquals(10, buffer.write(sequence(0, 10), 0, 10, 0));
+        assertEquals(6, buffer.write(sequence(10, 10), 0, 10, 0));
+        assertEquals(0, buffer.write(sequence(20, 5), 0, 5, 0));
+        assertEquals(9, buffer.getOverrunBytes());
+        assertEquals(16, buffer.getMaxFill());
+
+        // oldest bytes are kept
+        byte[] out = new byte[32];
+        assertEquals(16, buffer.read(out, 0, out.length));
+        for (int j = 0; j < 16; j++)
+            assertEquals(j, out[j]);
+    }
+
+    @Test
+    public void testTimestamps() {
+        ByteRingBuffer buffer = new ByteRingBuffer(64, true);
+        byte[] out = new byte[64];
+
+        assertEquals(Long.MIN_VALUE, buffer.getLastReadTimestamp());
+        buffer.write(sequence(0, 4), 0, 4, 100);
+        buffer.write(sequence(4, 4), 0, 4, 200);
+        buffer.write(sequence(8, 4), 0, 4, 300);
+
+        // timestamp is the one of the first byte read
+        assertEquals(3, buffer.read(out, 0, 3));
+        assertEquals(100, buffer.getLastReadTimestamp());
+        assertEquals(3, buffer.read());
+        assertEquals(100, buffer.getLastReadTimestamp());
+        assertEquals(6, buffer.read(out, 0, 6));
+        assertEquals(200, buffer.getLastReadTimestamp());
+        assertEquals(10, buffer.read());
+        assertEquals(300, buffer.getLastReadTimestamp());
+
+        // no timestamp recorded without timestamps enabled
+        ByteRingBuffer noTimes = new ByteRingBuffer(64, false);
+        noTimes.write(sequence(0, 4), 0, 4, 100);
+        noTimes.read(out, 0, 4);
+        assertEquals(Long.MIN_VALUE, noTimes.getLastReadTimestamp());
+    }
+
+    @Test
+    public void testConcurrentReadWrite() throws Exception {
+        ByteRingBuffer buffer = new ByteRingBuffer(1024, true);
+        int numBytes = 2000000;
+
+        Thread writer = new Thread(() -> {
+            byte[] chunk = new byte[37];
+            int next = 0;
+            while (next < numBytes) {
+                int len = Math.min(chunk.length, numBytes - next);
+                for (int i = 0; i < len; i++)
+                    chunk[i] = (byte) (next + i);
+
+                // retry until everything is written so no byte is lost
+                int off = 0;
+                while (off < len) {
+                    int n = buffer.write(chunk, off, len - off, next + off);
+                    if (n == 0)
+                        Thread.yield();
+                    off += n;
+                }
+                next += len;
+            }
+        });
+        writer.start();
+
+        byte[] out = new byte[100];
+        long lastTime = Long.MIN_VALUE;
+        int count = 0;
+        while (count < numBytes) {
+            int n = buffer.read(out, 0, out.length);
+            if (n > 0) {
+                assertTrue(buffer.getLastReadTimestamp() >= lastTime);
+                lastTime = buffer.getLastReadTimestamp();
+                for (int i = 0; i < n; i++)
+                    assertEquals((byte) (count + i), out[i]);
+                count += n;
+            } else {
+                Thread.yield();
+            }
+        }
+
+        writer.join();
+        assertEquals(0, buffer.available());
+        assertEquals(numBytes, buffer.getBytesReceived() - buffer.getOverrunBytes());
+    }
+}
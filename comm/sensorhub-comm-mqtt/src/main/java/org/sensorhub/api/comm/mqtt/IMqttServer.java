@@ -99,6 +99,9 @@ public interface IMqttServer
     
     /**
      * Publish an outbound message using the MQTT service
+     * <br/>The caller keeps ownership of the payload buffer but must not
+     * modify it until the returned future completes. Implementations must
+     * not access the buffer after completing the future.
      * @param topic MQTT topic to publish to
      * @param payload Payload data
      * @return future that will be completed when PUBLISH operation is
@@ -109,6 +112,9 @@ public interface IMqttServer
     
     /**
      * Publish an outbound message using the MQTT service
+     * <br/>The caller keeps ownership of the payload and correlation data
+     * buffers but must not modify them until the returned future completes.
+     * Implementations must not access the buffers after completing the future.
      * @param topic MQTT topic to publish to
      * @param payload Payload data
      * @param correlData Correlation data or null if not present
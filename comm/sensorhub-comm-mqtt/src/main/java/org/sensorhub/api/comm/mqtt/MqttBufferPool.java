@@ -0,0 +1,128 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.api.comm.mqtt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * <p>
+ * Pool of byte arrays used as MQTT payload buffers.<br/>
+ * Arrays are grouped in power of two size classes, so an array leased with
+ * {@link #acquire(int)} is at least as large as requested. Arrays can be
+ * given back with {@link #release(byte[])} once the publish operation using
+ * them is complete, including arrays that were not obtained from the pool.
+ * Each size class only retains a bounded number of arrays and arrays larger
+ * than the largest size class are never pooled.
+ * </p><p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MqttBufferPool
+{
+    public static final int MIN_SIZE_CLASS = 8; // 256 bytes
+    public static final int MAX_SIZE_CLASS = 20; // 1 MB
+    public static final int DEFAULT_BUFFERS_PER_CLASS = 32;
+
+    private static final MqttBufferPool DEFAULT = new MqttBufferPool(DEFAULT_BUFFERS_PER_CLASS);
+
+    protected final ArrayBlockingQueue<byte[]>[] sizeClasses;
+    protected final AtomicLong allocCount = new AtomicLong();
+    protected final AtomicLong reuseCount = new AtomicLong();
+
+
+    /**
+     * @return The pool shared by all MQTT output streams
+     */
+    public static MqttBufferPool getDefault()
+    {
+        return DEFAULT;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    public MqttBufferPool(int maxBuffersPerClass)
+    {
+        this.sizeClasses = new ArrayBlockingQueue[MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1];
+        for (int i = 0; i < sizeClasses.length; i++)
+            sizeClasses[i] = new ArrayBlockingQueue<>(maxBuffersPerClass);
+    }
+
+
+    /**
+     * Lease an array from the pool, or allocate a new one if none is available
+     * @param minSize Minimum size of the array
+     * @return An array of at least minSize bytes, with undefined content
+     */
+    public byte[] acquire(int minSize)
+    {
+        // smallest class whose arrays are all large enough
+        int sizeClass = Math.max(MIN_SIZE_CLASS, 32 - Integer.numberOfLeadingZeros(Math.max(minSize, 1) - 1));
+
+        if (sizeClass <= MAX_SIZE_CLASS)
+        {
+            var b = sizeClasses[sizeClass - MIN_SIZE_CLASS].poll();
+            if (b != null)
+            {
+                reuseCount.incrementAndGet();
+                return b;
+            }
+        }
+
+        allocCount.incrementAndGet();
+        return new byte[sizeClass <= MAX_SIZE_CLASS ? 1 << sizeClass : minSize];
+    }
+
+
+    /**
+     * Give an array back to the pool.<br/>
+     * The array must not be used by the caller anymore after this call.
+     * @param b The array to recycle
+     */
+    public void release(byte[] b)
+    {
+        // largest class whose minimum size fits in the array
+        int sizeClass = 31 - Integer.numberOfLeadingZeros(b.length);
+        if (sizeClass < MIN_SIZE_CLASS)
+            return;
+
+        // arrays grown beyond the largest class are dropped, as are
+        // arrays returned to a class that is already full
+        if (sizeClass <= MAX_SIZE_CLASS)
+            sizeClasses[sizeClass - MIN_SIZE_CLASS].offer(b);
+    }
+
+
+    /**
+     * @return Number of arrays allocated because no pooled array was available
+     */
+    public long getAllocCount()
+    {
+        return allocCount.get();
+    }
+
+
+    /**
+     * @return Number of arrays leased from the pool
+     */
+    public long getReuseCount()
+    {
+        return reuseCount.get();
+    }
+}
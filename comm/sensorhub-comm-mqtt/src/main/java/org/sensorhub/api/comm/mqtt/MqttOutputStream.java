@@ -17,6 +17,7 @@ package org.sensorhub.api.comm.mqtt;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 import org.vast.util.Asserts;
 
 
@@ -25,6 +26,12 @@ import org.vast.util.Asserts;
  * Adapter output stream for sending data to an MQTT topic.<br/>
  * Data is buffered in a byte array, then packaged to an MQTT message and sent
  * to the topic when send() is called.
+ * </p><p>
+ * Ownership of the byte array is transferred to the MQTT server when a
+ * message is sent, and a new array is leased from a {@link MqttBufferPool}
+ * for the next message. The array is given back to the pool when the publish
+ * future completes, so the payload is never copied nor modified while the
+ * server is still using it.
  * </p>
  *
  * @author Alex Robin
@@ -34,18 +41,25 @@ public class MqttOutputStream extends ByteArrayOutputStream
 {
     protected IMqttServer server;
     protected String topic;
-    protected ByteBuffer buffer;
-    protected ByteBuffer correlData;
+    protected MqttBufferPool bufferPool;
+    protected int initialSize;
     protected boolean autoSendOnFlush;
     
     
     public MqttOutputStream(IMqttServer server, String topic, int bufferSize, boolean autoSendOnFlush)
     {
-        super(bufferSize);
+        this(server, topic, bufferSize, autoSendOnFlush, MqttBufferPool.getDefault());
+    }
+    
+    
+    public MqttOutputStream(IMqttServer server, String topic, int bufferSize, boolean autoSendOnFlush, MqttBufferPool bufferPool)
+    {
+        super(0);
         this.server = Asserts.checkNotNull(server, IMqttServer.class);
         this.topic = topic;
-        this.buffer = ByteBuffer.wrap(this.buf);
-        this.correlData = ByteBuffer.allocate(8);
+        this.bufferPool = Asserts.checkNotNull(bufferPool, MqttBufferPool.class);
+        this.initialSize = bufferSize;
+        this.buf = bufferPool.acquire(bufferSize);
         this.autoSendOnFlush = autoSendOnFlush;
     }
     
@@ -70,32 +84,33 @@ public class MqttOutputStream extends ByteArrayOutputStream
     }
     
     
-    public void send(long correlId) throws IOException
+    public synchronized void send(long correlId) throws IOException
     {
         // do nothing if no more bytes have been written since last call
         if (count == 0)
             return;
         
-        // detect when buffer has grown
-        if (count > buffer.capacity())
-            this.buffer = ByteBuffer.wrap(this.buf);
-        
-        buffer.limit(count);
+        // hand over current array to the server and lease a new one
+        // big enough for a message of the same size
+        final byte[] payloadArray = this.buf;
+        var payload = ByteBuffer.wrap(payloadArray, 0, count).asReadOnlyBuffer();
+        this.buf = bufferPool.acquire(Math.max(count, initialSize));
+        this.count = 0;
         
+        CompletableFuture<Boolean> future;
         if (correlId != 0)
         {
-            correlData.clear();
+            var correlData = ByteBuffer.allocate(8);
             correlData.putLong(correlId);
             correlData.flip();
-            server.publish(topic, buffer, correlData);
+            future = server.publish(topic, payload, correlData);
         }
         else
-            server.publish(topic, buffer);
-        //System.out.println("Sending " + count + " bytes");
+            future = server.publish(topic, payload);
         
-        // reset so we can write again in same buffer
-        this.reset();
-        buffer.rewind();
+        // recycle array only when server is done with it
+        if (future != null)
+            future.whenComplete((ok, e) -> bufferPool.release(payloadArray));
     }
 
 }
@@ -0,0 +1,173 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.api.comm.mqtt;
+
+import static org.junit.Assert.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+
+
+public class TestMqttOutputStream
+{
+
+    static class PendingPublish
+    {
+        ByteBuffer payload;
+        ByteBuffer correlData;
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+    }
+
+
+    /*
+     * Server that keeps payloads until futures are completed by the test
+     */
+    static class DeferredMqttServer implements IMqttServer
+    {
+        List<PendingPublish> published = new ArrayList<>();
+
+        @Override
+        public void registerHandler(String topicPrefix, IMqttHandler handler)
+        {
+        }
+
+        @Override
+        public void unregisterHandler(String topicPrefix, IMqttHandler handler)
+        {
+        }
+
+        @Override
+        public CompletableFuture<Boolean> publish(String topic, ByteBuffer payload)
+        {
+            return publish(topic, payload, null);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> publish(String topic, ByteBuffer payload, ByteBuffer correlData)
+        {
+            var p = new PendingPublish();
+            p.payload = payload;
+            p.correlData = correlData;
+            published.add(p);
+            return p.future;
+        }
+    }
+
+
+    static String getString(ByteBuffer buf)
+    {
+        var b = new byte[buf.remaining()];
+        buf.duplicate().get(b);
+        return new String(b);
+    }
+
+
+    @Test
+    public void testPayloadNotOverwrittenBeforeCompletion() throws Exception
+    {
+        var server = new DeferredMqttServer();
+        var pool = new MqttBufferPool(4);
+        var os = new MqttOutputStream(server, "topic", 256, false, pool);
+
+        os.write("message1".getBytes());
+        os.send();
+        os.write("message2".getBytes());
+        os.send(12L);
+        os.send(); // nothing to send
+
+        assertEquals(2, server.published.size());
+        assertEquals("message1", getString(server.published.get(0).payload));
+        assertEquals("message2", getString(server.published.get(1).payload));
+        assertEquals(12L, server.published.get(1).correlData.getLong(0));
+        assertTrue(server.published.get(0).payload.isReadOnly());
+        assertEquals(3, pool.getAllocCount());
+
+        // arrays are only reused after completion
+        server.published.get(0).future.complete(true);
+        os.write("message3".getBytes());
+        os.send();
+        assertEquals("message2", getString(server.published.get(1).payload));
+        assertEquals("message3", getString(server.published.get(2).payload));
+        assertEquals(3, pool.getAllocCount());
+        assertEquals(1, pool.getReuseCount());
+
+        // arrays are also recycled when publish fails
+        server.published.get(1).future.completeExceptionally(new IllegalStateException("error"));
+        os.write("message4".getBytes());
+        os.send();
+        assertEquals(3, pool.getAllocCount());
+        assertEquals(2, pool.getReuseCount());
+    }
+
+
+    @Test
+    public void testLargeMessage() throws Exception
+    {
+        var server = new DeferredMqttServer();
+        var pool = new MqttBufferPool(4);
+        var os = new MqttOutputStream(server, "topic", 256, false, pool);
+
+        var data = new byte[5000];
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte)i;
+
+        os.write(data);
+        os.send();
+        os.write(data);
+        os.send();
+
+        for (var p: server.published)
+        {
+            assertEquals(data.length, p.payload.remaining());
+            assertEquals(data[4999], p.payload.get(4999));
+        }
+    }
+
+
+    @Test
+    public void testPoolSizeClasses()
+    {
+        var pool = new MqttBufferPool(2);
+
+        assertEquals(256, pool.acquire(1).length);
+        assertEquals(256, pool.acquire(256).length);
+        assertEquals(512, pool.acquire(257).length);
+
+        // arrays of any size are recycled in the largest class they fit in
+        pool.release(new byte[1000]);
+        assertEquals(1000, pool.acquire(300).length);
+        assertEquals(512, pool.acquire(300).length);
+
+        // small arrays and full classes are dropped
+        pool.release(new byte[100]);
+        pool.release(new byte[256]);
+        pool.release(new byte[256]);
+        pool.release(new byte[256]);
+        long allocCount = pool.getAllocCount();
+        pool.acquire(10);
+        pool.acquire(10);
+        assertEquals(3, pool.getReuseCount());
+        pool.acquire(10);
+        assertEquals(allocCount + 1, pool.getAllocCount());
+
+        // very large arrays are never pooled
+        var big = pool.acquire(10000000);
+        assertEquals(10000000, big.length);
+        pool.release(big);
+        assertNotSame(big, pool.acquire(10000000));
+    }
+}
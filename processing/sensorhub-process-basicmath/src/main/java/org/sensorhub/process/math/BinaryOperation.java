@@ -22,6 +22,7 @@ import net.opengis.swe.v20.Text;
 import org.sensorhub.api.processing.OSHProcessInfo;
 import org.vast.process.ExecutableProcessImpl;
 import org.vast.process.ProcessException;
+import org.vast.process.ProcessInfo;
 import org.vast.swe.SWEConstants;
 import org.vast.swe.SWEHelper;
 
@@ -42,13 +43,19 @@ public class BinaryOperation extends ExecutableProcessImpl
     private Quantity operand2;
     private Quantity result;
 	private Text operator;
-	private OperatorEnum op;
+	protected OperatorEnum op;
     enum OperatorEnum {ADD, SUB, MUL, DIV, POW}
     
     
     public BinaryOperation()
     {
-    	super(INFO);
+        this(INFO);
+    }
+    
+    
+    protected BinaryOperation(ProcessInfo info)
+    {
+    	super(info);
         SWEHelper sweHelper = new SWEHelper();
     	
     	// inputs
@@ -109,32 +116,40 @@ public class BinaryOperation extends ExecutableProcessImpl
     {
         double N1 = operand1.getData().getDoubleValue();
         double N2 = operand2.getData().getDoubleValue();
-        double Nr = 0.0;
-        
+        double Nr = compute(N1, N2);
+
+        //System.out.println(operator + " = " + Nr);
+        result.getData().setDoubleValue(Nr);
+    }
+    
+    
+    /**
+     * Applies the configured operator to the given operands
+     * @param N1 first operand
+     * @param N2 second operand
+     * @return result of the operation
+     */
+    protected double compute(double N1, double N2)
+    {
         switch (op)
         {
             case ADD:
-                Nr = N1 + N2;
-                break;
+                return N1 + N2;
                 
             case SUB:
-                Nr = N1 - N2;
-                break;
+                return N1 - N2;
                 
             case MUL:
-                Nr = N1 * N2;
-                break;
+                return N1 * N2;
                 
             case DIV:
-                Nr = N1 / N2;
-                break;
+                return N1 / N2;
                 
             case POW:
-                Nr = Math.pow(N1, N2);
-                break;
+                return Math.pow(N1, N2);
+                
+            default:
+                return 0.0;
         }
-
-        //System.out.println(operator + " = " + Nr);
-        result.getData().setDoubleValue(Nr);
-    } 
+    }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.math;
+
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+import org.vast.swe.SWEConstants;
+import org.vast.swe.SWEHelper;
+
+
+/**
+ * <p>
+ * Binary operation applied to a list of operand pairs in a single execution,
+ * using the same operator for all pairs.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class BinaryOperation_Batch extends BinaryOperation
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("binaryOpBatch", "Binary Operation (Batch)", null, BinaryOperation_Batch.class);
+    protected Count numOperandsIn;
+    protected DataArray operandsIn;
+    protected Count numResultsOut;
+    protected DataArray resultsOut;
+
+
+    public BinaryOperation_Batch()
+    {
+        super(INFO);
+        SWEHelper sweHelper = new SWEHelper();
+
+        // inputs
+        inputData.clear();
+        inputData.add("operands", sweHelper.createRecord()
+            .label("Operands")
+            .addField("numValues", numOperandsIn = sweHelper.createCount()
+                .id("NUM_OPERANDS")
+                .build())
+            .addField("operandList", operandsIn = sweHelper.createArray()
+                .withSizeComponent(numOperandsIn)
+                .withElement("operands", sweHelper.createRecord()
+                    .addField("operand1", sweHelper.createQuantity()
+                        .definition(SWEConstants.DEF_DN)
+                        .label("Operand1")
+                        .uomUri(SWEConstants.UOM_ANY))
+                    .addField("operand2", sweHelper.createQuantity()
+                        .definition(SWEConstants.DEF_DN)
+                        .label("Operand2")
+                        .uomUri(SWEConstants.UOM_ANY)))
+                .build())
+            .build());
+
+        // outputs
+        outputData.clear();
+        outputData.add("results", sweHelper.createRecord()
+            .label("Results")
+            .addField("numValues", numResultsOut = sweHelper.createCount()
+                .id("NUM_RESULTS")
+                .build())
+            .addField("resultList", resultsOut = sweHelper.createArray()
+                .withSizeComponent(numResultsOut)
+                .withElement("result", sweHelper.createQuantity()
+                    .definition(SWEConstants.DEF_DN)
+                    .label("Result")
+                    .uomUri(SWEConstants.UOM_ANY))
+                .build())
+            .build());
+    }
+
+
+    @Override
+    public void execute() throws ProcessException
+    {
+        int count = numOperandsIn.getData().getIntValue();
+        var inData = operandsIn.getData();
+        resultsOut.updateSize(count);
+        var outData = resultsOut.getData();
+
+        for (int i = 0; i < count; i++)
+        {
+            double N1 = inData.getDoubleValue(2*i);
+            double N2 = inData.getDoubleValue(2*i+1);
+            outData.setDoubleValue(i, compute(N1, N2));
+        }
+    }
+}
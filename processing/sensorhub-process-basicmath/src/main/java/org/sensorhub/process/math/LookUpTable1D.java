@@ -25,6 +25,7 @@ import org.sensorhub.api.processing.OSHProcessInfo;
 import org.vast.data.DataValue;
 import org.vast.process.ExecutableProcessImpl;
 import org.vast.process.ProcessException;
+import org.vast.process.ProcessInfo;
 
 
 /**
@@ -42,6 +43,7 @@ public class LookUpTable1D extends ExecutableProcessImpl
     public static final OSHProcessInfo INFO = new OSHProcessInfo("lookUpTable1D", "Look-up Table 1D", null, LookUpTable1D.class);
     DataValue inputVar;
     DataValue[] outputVars;
+    double[] outputValues;
     DataValue inputGain, outputGain, inputBias, outputBias;
     DataBlock tableData;
     int tableSize;
@@ -54,7 +56,13 @@ public class LookUpTable1D extends ExecutableProcessImpl
     
     public LookUpTable1D()
     {
-    	super(INFO);
+        this(INFO);
+    }
+    
+    
+    protected LookUpTable1D(ProcessInfo info)
+    {
+    	super(info);
     }
 
     
@@ -64,26 +72,9 @@ public class LookUpTable1D extends ExecutableProcessImpl
         
         try
         {
-            // input mapping
-            inputVar = (DataValue)inputData.getComponent(0);
-            
-            // output mapping
-            int outputCount = outputData.getComponent(0).getComponentCount();
-            if (outputCount > 0)
-            {
-                // if output is a vector
-                outputVars = new DataValue[outputCount];
-                for (int i=0; i<outputCount; i++)
-                {
-                    outputVars[i] = (DataValue)outputData.getComponent(0).getComponent(i);
-                }
-            }
-            else
-            {
-                // if output is a scalar
-                outputVars = new DataValue[1];
-                outputVars[0] = (DataValue)outputData.getComponent(0);
-            }
+            // input/output mapping
+            int outputCount = mapInputsOutputs();
+            outputValues = new double[outputCount];
             
             // params mappings
             inputGain = (DataValue)paramData.getComponent("inputGain");
@@ -93,7 +84,7 @@ public class LookUpTable1D extends ExecutableProcessImpl
             tableData = paramData.getComponent("table").getData();
             tupleSize = paramData.getComponent("table").getComponent(0).getComponentCount();          
             tableSize = tableData.getAtomCount()/(tupleSize);
-            if (tupleSize != outputVars.length+1)
+            if (tupleSize != outputCount+1)
                 throw new ProcessException("table and output should have the same size");
 
             // read interpolation method
@@ -124,6 +115,37 @@ public class LookUpTable1D extends ExecutableProcessImpl
         }
     }
     
+    
+    /**
+     * Maps input and output variables
+     * @return number of output values computed for each input value
+     */
+    protected int mapInputsOutputs()
+    {
+        // input mapping
+        inputVar = (DataValue)inputData.getComponent(0);
+        
+        // output mapping
+        int outputCount = outputData.getComponent(0).getComponentCount();
+        if (outputCount > 0)
+        {
+            // if output is a vector
+            outputVars = new DataValue[outputCount];
+            for (int i=0; i<outputCount; i++)
+            {
+                outputVars[i] = (DataValue)outputData.getComponent(0).getComponent(i);
+            }
+        }
+        else
+        {
+            // if output is a scalar
+            outputVars = new DataValue[1];
+            outputVars[0] = (DataValue)outputData.getComponent(0);
+        }
+        
+        return outputVars.length;
+    }
+    
 
     /**
      * Executes process algorithm on inputs and set output data
@@ -135,7 +157,9 @@ public class LookUpTable1D extends ExecutableProcessImpl
     	switch (interpolationMethod)
     	{
     		case 1:
-    			computeInterpolatedValue1D(input);
+    			computeInterpolatedValue1D(input, outputValues);
+    			for (int j=0; j<outputVars.length; j++)
+    			    outputVars[j].getData().setDoubleValue(outputValues[j]);
     			break;    			
     	}
     	
@@ -148,8 +172,9 @@ public class LookUpTable1D extends ExecutableProcessImpl
      * This method assumes that table index values are sorted 
      * from lowest to highest
      * @param indexVal
+     * @param values array to receive the interpolated output values
      */
-    protected void computeInterpolatedValue1D(double indexVal)
+    protected void computeInterpolatedValue1D(double indexVal, double[] values)
     {
         int maxi = tableSize - 1;
         
@@ -160,7 +185,7 @@ public class LookUpTable1D extends ExecutableProcessImpl
             for (int j=1; j<tupleSize; j++)
             {
                 double value = tableData.getDoubleValue(maxi*tupleSize + j);
-                outputVars[j-1].getData().setDoubleValue(value);
+                values[j-1] = value;
             }
         }
         // 0th order extrapolation if less than min value
@@ -170,7 +195,7 @@ public class LookUpTable1D extends ExecutableProcessImpl
             for (int j=1; j<tupleSize; j++)
             {
                 double value = tableData.getDoubleValue(j);
-                outputVars[j-1].getData().setDoubleValue(value);
+                values[j-1] = value;
             }
         }
         else
@@ -199,7 +224,7 @@ public class LookUpTable1D extends ExecutableProcessImpl
                 for (int j=1; j<tupleSize; j++)
                 {
                     double value = tableData.getDoubleValue(nextIndex + j);                    
-                    outputVars[j-1].getData().setDoubleValue(value);
+                    values[j-1] = value;
                 }
             }
             // otherwise, need interpolation
@@ -217,7 +242,7 @@ public class LookUpTable1D extends ExecutableProcessImpl
                     nextVal = tableData.getDoubleValue(nextIndex + j);
                     
                     double value = prevVal + a*(nextVal - prevVal);
-                    outputVars[j-1].getData().setDoubleValue(value);
+                    values[j-1] = value;
                 }
             }
             
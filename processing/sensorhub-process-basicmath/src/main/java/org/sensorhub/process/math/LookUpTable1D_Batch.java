@@ -0,0 +1,79 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.math;
+
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataComponent;
+import org.sensorhub.api.processing.OSHProcessInfo;
+
+
+/**
+ * <p>
+ * Look up table process applied to a list of input values in a single
+ * execution.<br/>
+ * The first input must be an array of scalars and the first output an array
+ * of scalars or vectors (one element per input value). Table and other
+ * parameters are the same as for {@link LookUpTable1D}.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class LookUpTable1D_Batch extends LookUpTable1D
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("lookUpTable1DBatch", "Look-up Table 1D (Batch)", null, LookUpTable1D_Batch.class);
+    DataArray inputArray;
+    DataArray outputArray;
+    int outputCount;
+
+
+    public LookUpTable1D_Batch()
+    {
+        super(INFO);
+    }
+
+
+    @Override
+    protected int mapInputsOutputs()
+    {
+        inputArray = (DataArray)inputData.getComponent(0);
+        outputArray = (DataArray)outputData.getComponent(0);
+
+        // output elements are either vectors or scalars
+        DataComponent elt = outputArray.getElementType();
+        outputCount = Math.max(1, elt.getComponentCount());
+        return outputCount;
+    }
+
+
+    @Override
+    public void execute()
+    {
+        int count = inputArray.getComponentCount();
+        var inData = inputArray.getData();
+        outputArray.updateSize(count);
+        var outData = outputArray.getData();
+
+        if (interpolationMethod != 1)
+            return;
+
+        for (int i = 0; i < count; i++)
+        {
+            computeInterpolatedValue1D(inData.getDoubleValue(i), outputValues);
+            for (int j = 0; j < outputCount; j++)
+                outData.setDoubleValue(i*outputCount + j, outputValues[j]);
+        }
+    }
+}
@@ -23,8 +23,10 @@ public class ProcessDescriptors extends AbstractProcessProvider
     public ProcessDescriptors()
     {
         addImpl(BinaryOperation.INFO);
+        addImpl(BinaryOperation_Batch.INFO);
         addImpl(CompareOperation.INFO);
         addImpl(LookUpTable1D.INFO);
+        addImpl(LookUpTable1D_Batch.INFO);
     }
 
 }
@@ -0,0 +1,146 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.test.process.math;
+
+import static org.junit.Assert.assertEquals;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.DataComponent;
+import org.junit.Test;
+import org.sensorhub.process.math.BinaryOperation;
+import org.sensorhub.process.math.BinaryOperation_Batch;
+import org.sensorhub.process.math.LookUpTable1D;
+import org.sensorhub.process.math.LookUpTable1D_Batch;
+import org.vast.process.ExecutableProcessImpl;
+import org.vast.swe.SWEHelper;
+
+
+public class TestBatchProcesses
+{
+    static final double[][] TABLE = {{0, 10, 100}, {1, 20, 50}, {3, 60, 0}, {10, 0, 70}};
+
+    SWEHelper swe = new SWEHelper();
+
+
+    void setOperator(ExecutableProcessImpl p, String op) throws Exception
+    {
+        p.getParameterList().getComponent("operator").getData().setStringValue(op);
+        p.init();
+    }
+
+
+    @Test
+    public void testBinaryOperationBatch() throws Exception
+    {
+        for (String op: new String[] {"ADD", "SUB", "MUL", "DIV", "POW"})
+        {
+            var p1 = new BinaryOperation();
+            setOperator(p1, op);
+            var p2 = new BinaryOperation_Batch();
+            setOperator(p2, op);
+
+            // set operand list
+            int count = 12;
+            var operandList = (DataArray)p2.getInputList().getComponent("operands").getComponent("operandList");
+            operandList.updateSize(count);
+            DataBlock listData = operandList.getData();
+            for (int i = 0; i < count; i++)
+            {
+                listData.setDoubleValue(2*i, i*0.5 + 1);
+                listData.setDoubleValue(2*i+1, 3 - i*0.25);
+            }
+            p2.execute();
+
+            // compare with single operation process
+            DataBlock results = p2.getOutputList().getComponent("results").getComponent("resultList").getData();
+            assertEquals(count, results.getAtomCount());
+            for (int i = 0; i < count; i++)
+            {
+                p1.getInputList().getComponent("operand1").getData().setDoubleValue(listData.getDoubleValue(2*i));
+                p1.getInputList().getComponent("operand2").getData().setDoubleValue(listData.getDoubleValue(2*i+1));
+                p1.execute();
+                double expected = p1.getOutputList().getComponent("result").getData().getDoubleValue();
+                assertEquals(op, expected, results.getDoubleValue(i), 1e-12);
+            }
+        }
+    }
+
+
+    DataComponent createTable()
+    {
+        var table = swe.createArray()
+            .withFixedSize(TABLE.length)
+            .withElement("tuple", swe.createRecord()
+                .addField("index", swe.createQuantity())
+                .addField("v1", swe.createQuantity())
+                .addField("v2", swe.createQuantity()))
+            .build();
+
+        table.assignNewDataBlock();
+        for (int i = 0; i < TABLE.length; i++)
+            for (int j = 0; j < 3; j++)
+                table.getData().setDoubleValue(i*3 + j, TABLE[i][j]);
+        return table;
+    }
+
+
+    @Test
+    public void testLookUpTableBatch() throws Exception
+    {
+        double[] inputs = {-1, 0, 0.5, 1, 2.2, 3, 3.5, 9.9, 10, 12, 4, 0.1};
+
+        // single value process with vector output
+        var p1 = new LookUpTable1D();
+        p1.getInputList().add("x", swe.createQuantity().build());
+        p1.getOutputList().add("y", swe.createVector()
+            .addCoordinate("v1", swe.createQuantity())
+            .addCoordinate("v2", swe.createQuantity())
+            .build());
+        p1.getParameterList().add("table", createTable());
+        p1.init();
+
+        // batch process
+        var p2 = new LookUpTable1D_Batch();
+        p2.getInputList().add("x", swe.createArray()
+            .withFixedSize(inputs.length)
+            .withElement("x", swe.createQuantity())
+            .build());
+        p2.getOutputList().add("y", swe.createArray()
+            .withFixedSize(inputs.length)
+            .withElement("y", swe.createVector()
+                .addCoordinate("v1", swe.createQuantity())
+                .addCoordinate("v2", swe.createQuantity()))
+            .build());
+        p2.getParameterList().add("table", createTable());
+        p2.init();
+
+        DataBlock inData = p2.getInputList().getComponent("x").getData();
+        for (int i = 0; i < inputs.length; i++)
+            inData.setDoubleValue(i, inputs[i]);
+        p2.execute();
+
+        // compare with single value process
+        DataBlock results = p2.getOutputList().getComponent("y").getData();
+        assertEquals(inputs.length*2, results.getAtomCount());
+        for (int i = 0; i < inputs.length; i++)
+        {
+            p1.getInputList().getComponent("x").getData().setDoubleValue(inputs[i]);
+            p1.execute();
+            DataBlock res = p1.getOutputList().getComponent("y").getData();
+            assertEquals(res.getDoubleValue(0), results.getDoubleValue(i*2), 1e-12);
+            assertEquals(res.getDoubleValue(1), results.getDoubleValue(i*2+1), 1e-12);
+        }
+    }
+}
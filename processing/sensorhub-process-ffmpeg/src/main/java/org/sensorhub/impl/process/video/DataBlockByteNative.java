@@ -7,13 +7,14 @@ at http://mozilla.org/MPL/2.0/.
 Software distributed under the License is distributed on an "AS IS" basis,
 WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
 for the specific language governing rights and limitations under the License.
- 
+
 Copyright (C) 2021 Sensia Software LLC. All Rights Reserved.
- 
+
 ******************************* END LICENSE BLOCK ***************************/
 
 package org.sensorhub.impl.process.video;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bytedeco.javacpp.BytePointer;
 import org.vast.data.DataBlockByte;
 
@@ -22,6 +23,17 @@ import org.vast.data.DataBlockByte;
  * <p>
  * DataBlockByte extension carrying a native JavaCPP pointer for direct
  * use in subsequent native code (e.g. FFMPEG decoder -> OpenCV algo)
+ * </p><p>
+ * Native consumers must call {@link #tryRetain()} before using the native
+ * pointer and {@link #release()} when done, so the buffer is not recycled
+ * by the pool while in use.
+ * </p><p>
+ * Frames produced by a {@link NativeFramePool} are not copied to the Java
+ * heap unless a Java consumer needs the byte array. Individual values are
+ * read directly from the native buffer, and the byte array is only created
+ * when {@link #getUnderlyingObject()} is called, when the block is modified
+ * or copied, or when the pool needs to reuse the buffer while the frame is
+ * still referenced.
  * </p>
  *
  * @author Alex Robin
@@ -30,20 +42,399 @@ import org.vast.data.DataBlockByte;
 public class DataBlockByteNative extends DataBlockByte
 {
     private static final long serialVersionUID = -9198205679143401216L;
-    
-    BytePointer pointer;
-    
-    
+
+    transient BytePointer pointer;
+    transient NativeFramePool pool;
+    transient AtomicInteger refCount;
+    long sequence;
+
+
     public DataBlockByteNative(BytePointer pointer, int length)
     {
+        // buffer is owned by caller so copy it right away
         var frameData = new byte[length];
-        pointer.get(frameData);
+        pointer.position(0).get(frameData);
         setUnderlyingObject(frameData);
+        this.pointer = pointer;
     }
-    
-    
+
+
+    DataBlockByteNative(BytePointer pointer, int length, NativeFramePool pool, long sequence)
+    {
+        this.atomCount = length;
+        this.pointer = pointer;
+        this.pool = pool;
+        this.sequence = sequence;
+        this.refCount = new AtomicInteger(1);
+    }
+
+
+    /**
+     * Acquires a reference on the native buffer
+     * @return true if the native pointer can be used until {@link #release()}
+     * is called, false if the buffer has already been recycled
+     */
+    public boolean tryRetain()
+    {
+        if (refCount == null)
+            return false;
+
+        int count;
+        do
+        {
+            count = refCount.get();
+            if (count <= 0)
+                return false;
+        }
+        while (!refCount.compareAndSet(count, count+1));
+
+        return true;
+    }
+
+
+    /**
+     * Releases a reference on the native buffer
+     */
+    public void release()
+    {
+        if (refCount != null && refCount.decrementAndGet() == 0 && pool != null)
+            pool.recycle(this);
+    }
+
+
+    /**
+     * @return true if a newer frame has been published by the same decoder
+     */
+    public boolean isStale()
+    {
+        return pool != null && sequence < pool.getLatestSequence();
+    }
+
+
+    public long getSequenceNumber()
+    {
+        return sequence;
+    }
+
+
     public BytePointer getNativePointer()
     {
         return this.pointer;
     }
+
+
+    /**
+     * @return true if frame data has been copied to the Java heap, in which
+     * case the native buffer is not needed anymore by Java consumers
+     */
+    public boolean isOnHeap()
+    {
+        return primitiveArray != null;
+    }
+
+
+    /*
+     * Copy frame data to the Java heap if not done already.
+     * Synchronized with native reads so the pool cannot reuse the buffer
+     * in the middle of a read.
+     */
+    protected synchronized void ensureOnHeap()
+    {
+        if (primitiveArray == null)
+        {
+            var frameData = new byte[atomCount];
+            pointer.position(0).get(frameData);
+            primitiveArray = frameData;
+        }
+    }
+
+
+    protected synchronized byte readByte(int index)
+    {
+        if (primitiveArray != null)
+            return primitiveArray[startIndex + index];
+        return pointer.get(startIndex + index);
+    }
+
+
+    @Override
+    public byte[] getUnderlyingObject()
+    {
+        ensureOnHeap();
+        return primitiveArray;
+    }
+
+
+    @Override
+    public DataBlockByte copy()
+    {
+        ensureOnHeap();
+        return super.copy();
+    }
+
+
+    @Override
+    public DataBlockByte renew()
+    {
+        ensureOnHeap();
+        return super.renew();
+    }
+
+
+    @Override
+    public DataBlockByte clone()
+    {
+        ensureOnHeap();
+        return super.clone();
+    }
+
+
+    @Override
+    public void resize(int size)
+    {
+        ensureOnHeap();
+        super.resize(size);
+    }
+
+
+    @Override
+    public boolean getBooleanValue()
+    {
+        return getBooleanValue(0);
+    }
+
+
+    @Override
+    public boolean getBooleanValue(int index)
+    {
+        return readByte(index) != 0;
+    }
+
+
+    @Override
+    public byte getByteValue()
+    {
+        return getByteValue(0);
+    }
+
+
+    @Override
+    public byte getByteValue(int index)
+    {
+        return readByte(index);
+    }
+
+
+    @Override
+    public short getShortValue()
+    {
+        return getShortValue(0);
+    }
+
+
+    @Override
+    public short getShortValue(int index)
+    {
+        return readByte(index);
+    }
+
+
+    @Override
+    public int getIntValue()
+    {
+        return getIntValue(0);
+    }
+
+
+    @Override
+    public int getIntValue(int index)
+    {
+        return readByte(index);
+    }
+
+
+    @Override
+    public long getLongValue()
+    {
+        return getLongValue(0);
+    }
+
+
+    @Override
+    public long getLongValue(int index)
+    {
+        return readByte(index);
+    }
+
+
+    @Override
+    public float getFloatValue()
+    {
+        return getFloatValue(0);
+    }
+
+
+    @Override
+    public float getFloatValue(int index)
+    {
+        return readByte(index);
+    }
+
+
+    @Override
+    public double getDoubleValue()
+    {
+        return getDoubleValue(0);
+    }
+
+
+    @Override
+    public double getDoubleValue(int index)
+    {
+        return readByte(index);
+    }
+
+
+    @Override
+    public String getStringValue()
+    {
+        return getStringValue(0);
+    }
+
+
+    @Override
+    public String getStringValue(int index)
+    {
+        return Byte.toString(readByte(index));
+    }
+
+
+    @Override
+    public void setBooleanValue(boolean value)
+    {
+        setBooleanValue(0, value);
+    }
+
+
+    @Override
+    public void setBooleanValue(int index, boolean value)
+    {
+        ensureOnHeap();
+        super.setBooleanValue(index, value);
+    }
+
+
+    @Override
+    public void setByteValue(byte value)
+    {
+        setByteValue(0, value);
+    }
+
+
+    @Override
+    public void setByteValue(int index, byte value)
+    {
+        ensureOnHeap();
+        super.setByteValue(index, value);
+    }
+
+
+    @Override
+    public void setShortValue(short value)
+    {
+        setShortValue(0, value);
+    }
+
+
+    @Override
+    public void setShortValue(int index, short value)
+    {
+        ensureOnHeap();
+        super.setShortValue(index, value);
+    }
+
+
+    @Override
+    public void setIntValue(int value)
+    {
+        setIntValue(0, value);
+    }
+
+
+    @Override
+    public void setIntValue(int index, int value)
+    {
+        ensureOnHeap();
+        super.setIntValue(index, value);
+    }
+
+
+    @Override
+    public void setLongValue(long value)
+    {
+        setLongValue(0, value);
+    }
+
+
+    @Override
+    public void setLongValue(int index, long value)
+    {
+        ensureOnHeap();
+        super.setLongValue(index, value);
+    }
+
+
+    @Override
+    public void setFloatValue(float value)
+    {
+        setFloatValue(0, value);
+    }
+
+
+    @Override
+    public void setFloatValue(int index, float value)
+    {
+        ensureOnHeap();
+        super.setFloatValue(index, value);
+    }
+
+
+    @Override
+    public void setDoubleValue(double value)
+    {
+        setDoubleValue(0, value);
+    }
+
+
+    @Override
+    public void setDoubleValue(int index, double value)
+    {
+        ensureOnHeap();
+        super.setDoubleValue(index, value);
+    }
+
+
+    @Override
+    public void setStringValue(String value)
+    {
+        setStringValue(0, value);
+    }
+
+
+    @Override
+    public void setStringValue(int index, String value)
+    {
+        ensureOnHeap();
+        super.setStringValue(index, value);
+    }
+
+
+    /*
+     * Make sure frame data is serialized even if it was never copied to the heap
+     */
+    protected Object writeReplace()
+    {
+        ensureOnHeap();
+        return this;
+    }
 }
@@ -31,8 +31,8 @@ import org.bytedeco.ffmpeg.swscale.SwsContext;
 import org.bytedeco.javacpp.BytePointer;
 import org.bytedeco.javacpp.PointerPointer;
 import org.sensorhub.api.processing.OSHProcessInfo;
-import org.vast.data.DataBlockByte;
 import org.vast.data.DataBlockCompressed;
+import org.vast.data.DataBlockMixed;
 import org.vast.process.ExecutableProcessImpl;
 import org.vast.process.ProcessException;
 import org.vast.swe.SWEConstants;
@@ -43,6 +43,11 @@ import org.vast.swe.helper.RasterHelper;
 /**
  * <p>
  * Implementation of video decoder based on FFMPEG
+ * </p><p>
+ * Decoded RGB frames are written directly to pooled native buffers and
+ * output as {@link DataBlockByteNative}, so that all native consumers of
+ * the output (e.g. OpenCV processes) can share the same decoded frame
+ * without copying it.
  * </p>
  *
  * @author Alex Robin
@@ -84,6 +89,7 @@ public class FFMpegDecoder extends ExecutableProcessImpl
     AVFrame sws_frame = null;
     AVPacket dec_pkt = null;
     BytePointer nativeFrameData;
+    NativeFramePool framePool;
     int frameCounter = 0;
     int decimFactor = 1;
     boolean publish;
@@ -231,11 +237,12 @@ public class FFMpegDecoder extends ExecutableProcessImpl
         int frameHeight = av_frame.height();
         
         // init scaler
+        // output buffers are provided by the frame pool
         sws_frame.format(AV_PIX_FMT_RGB24);
         sws_frame.width(frameWidth);
         sws_frame.height(frameHeight);
-        av_image_alloc(sws_frame.data(), sws_frame.linesize(), 
-                frameWidth, frameHeight, AV_PIX_FMT_RGB24, 1);
+        sws_frame.linesize(0, frameWidth*3);
+        framePool = new NativeFramePool(frameWidth * frameHeight * 3);
         
         sws_ctx = sws_getContext(frameWidth, frameHeight, AV_PIX_FMT_YUV420P,
                 frameWidth, frameHeight, AV_PIX_FMT_RGB24, SWS_BICUBIC, null, null, (double[])null);
@@ -282,15 +289,14 @@ public class FFMpegDecoder extends ExecutableProcessImpl
             if (frameCounter++ % decimFactor == 0)
             {
                 // apply scaler (needed to convert from YUV to RGB)
+                // RGB data is written directly to a pooled native buffer
+                var rgbBuffer = framePool.acquireBuffer();
+                sws_frame.data(0, rgbBuffer);
                 sws_scale(sws_ctx, av_frame.data(), av_frame.linesize(), 0, av_frame.height(), sws_frame.data(), sws_frame.linesize());
                 
                 // write decoded data to output
-                // TODO use special datablock to encapsulate native buffer
-                // would be more efficient when passing frame to other native libraries (e.g. OpenCV)
-                
-                frameData = new byte[av_frame.width() * av_frame.height() * 3];
-                sws_frame.data(0).get(frameData);
-                ((DataBlockByte)imgOut.getData()).setUnderlyingObject(frameData.clone());
+                // native buffer is passed by reference to downstream processes
+                setOutputImage(framePool.publishFrame(rgbBuffer));
                 
                 // also copy frame timestamp
                 var ts = inputTimeStamp.getData().getDoubleValue();
@@ -304,6 +310,26 @@ public class FFMpegDecoder extends ExecutableProcessImpl
     }
     
     
+    /*
+     * Replace image data block in output record by the native frame
+     */
+    protected void setOutputImage(DataBlockByteNative frame)
+    {
+        var recordData = imgOut.getParent().getData();
+        if (recordData instanceof DataBlockMixed)
+        {
+            var blocks = ((DataBlockMixed)recordData).getUnderlyingObject();
+            for (int i = 0; i < blocks.length; i++)
+            {
+                if (blocks[i] == imgOut.getData())
+                    blocks[i] = frame;
+            }
+        }
+        
+        imgOut.setData(frame);
+    }
+    
+    
     @Override
     protected void publishData() throws InterruptedException
     {
@@ -343,5 +369,10 @@ public class FFMpegDecoder extends ExecutableProcessImpl
             av_frame_free(sws_frame);
             sws_frame = null;
         }
+        
+        if (framePool != null) {
+            framePool.close();
+            framePool = null;
+        }
     }
 }
\ No newline at end of file
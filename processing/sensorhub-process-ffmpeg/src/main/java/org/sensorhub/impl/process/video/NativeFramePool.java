@@ -0,0 +1,216 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.process.video;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import org.bytedeco.javacpp.BytePointer;
+
+
+/**
+ * <p>
+ * Pool of native frame buffers shared by a decoder and all processes
+ * consuming its output frames.
+ * </p><p>
+ * Frames are reference counted. The pool keeps a reference on the most
+ * recently published frames so consumers that are slightly late can still
+ * use them, and buffers are only recycled once all consumers have released
+ * them. The pool also tracks the sequence number of the latest frame so
+ * slow consumers can skip frames that have already been superseded.
+ * </p><p>
+ * Frame data is not copied to the Java heap unless a Java consumer asks for
+ * it, so a released frame can still be read from its native buffer. Such
+ * buffers are parked until the frame is garbage collected or copied to the
+ * heap. If too many buffers are parked, the oldest frame is copied to the
+ * heap so its buffer can be reused.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class NativeFramePool
+{
+    public static final int DEFAULT_HELD_FRAMES = 3;
+
+    final int frameSize;
+    final int numHeldFrames;
+    final ArrayDeque<BytePointer> freeBuffers = new ArrayDeque<>();
+    final ArrayDeque<DataBlockByteNative> heldFrames = new ArrayDeque<>();
+    final ArrayDeque<ParkedBuffer> parkedBuffers = new ArrayDeque<>();
+    final int maxParkedBuffers;
+    volatile long latestSequence = -1;
+    boolean closed;
+
+
+    public NativeFramePool(int frameSize)
+    {
+        this(frameSize, DEFAULT_HELD_FRAMES);
+    }
+
+
+    /**
+     * @param frameSize Size of each frame buffer in bytes
+     * @param numHeldFrames Number of recent frames kept available to consumers
+     */
+    public NativeFramePool(int frameSize, int numHeldFrames)
+    {
+        this.frameSize = frameSize;
+        this.numHeldFrames = Math.max(1, numHeldFrames);
+        this.maxParkedBuffers = 2 * this.numHeldFrames;
+    }
+
+
+    static class ParkedBuffer
+    {
+        final BytePointer buffer;
+        final WeakReference<DataBlockByteNative> frameRef;
+
+        ParkedBuffer(DataBlockByteNative frame)
+        {
+            this.buffer = frame.getNativePointer();
+            this.frameRef = new WeakReference<>(frame);
+        }
+
+        boolean isReusable()
+        {
+            var frame = frameRef.get();
+            return frame == null || frame.isOnHeap();
+        }
+    }
+
+
+    /**
+     * Gets a buffer to write the next frame into.<br/>
+     * A new buffer is allocated if all buffers are still in use.
+     * @return The native buffer
+     */
+    public synchronized BytePointer acquireBuffer()
+    {
+        reclaimParkedBuffers();
+        var buffer = freeBuffers.poll();
+        if (buffer == null)
+            buffer = new BytePointer((long)frameSize);
+        return buffer.position(0);
+    }
+
+
+    /**
+     * Wraps the given buffer in a data block and publishes it as the latest frame
+     * @param buffer Buffer obtained from {@link #acquireBuffer()}, containing frame data
+     * @return The new frame data block
+     */
+    public synchronized DataBlockByteNative publishFrame(BytePointer buffer)
+    {
+        var frame = new DataBlockByteNative(buffer, frameSize, this, ++latestSequence);
+
+        // keep a reference on recent frames until newer ones are published
+        heldFrames.add(frame);
+        if (heldFrames.size() > numHeldFrames)
+            heldFrames.poll().release();
+
+        return frame;
+    }
+
+
+    /*
+     * Called by frames when they are not referenced anymore by native consumers
+     */
+    synchronized void recycle(DataBlockByteNative frame)
+    {
+        // buffer can only be reused right away if nobody can read it anymore
+        if (closed)
+            detach(new ParkedBuffer(frame));
+        else if (frame.isOnHeap())
+            recycleBuffer(frame.getNativePointer());
+        else
+            parkedBuffers.add(new ParkedBuffer(frame));
+    }
+
+
+    protected void recycleBuffer(BytePointer buffer)
+    {
+        // only keep enough buffers for held frames + the one being decoded
+        if (closed || freeBuffers.size() > numHeldFrames)
+            buffer.deallocate();
+        else
+            freeBuffers.add(buffer);
+    }
+
+
+    /*
+     * Reuse buffers of frames that have been collected or copied to the heap,
+     * and copy the oldest frames to the heap if too many buffers are parked
+     */
+    protected void reclaimParkedBuffers()
+    {
+        Iterator<ParkedBuffer> it = parkedBuffers.iterator();
+        while (it.hasNext())
+        {
+            var parked = it.next();
+            if (parked.isReusable())
+            {
+                it.remove();
+                recycleBuffer(parked.buffer);
+            }
+        }
+
+        while (parkedBuffers.size() > maxParkedBuffers)
+            detach(parkedBuffers.poll());
+    }
+
+
+    protected void detach(ParkedBuffer parked)
+    {
+        var frame = parked.frameRef.get();
+        if (frame != null)
+            frame.ensureOnHeap();
+        recycleBuffer(parked.buffer);
+    }
+
+
+    /**
+     * @return The sequence number of the latest published frame
+     */
+    public long getLatestSequence()
+    {
+        return latestSequence;
+    }
+
+
+    public int getFrameSize()
+    {
+        return frameSize;
+    }
+
+
+    /**
+     * Releases all frames held by the pool and deallocates free buffers.
+     * Buffers still used by consumers are deallocated when they are released.
+     */
+    public synchronized void close()
+    {
+        closed = true;
+
+        while (!heldFrames.isEmpty())
+            heldFrames.poll().release();
+
+        while (!parkedBuffers.isEmpty())
+            detach(parkedBuffers.poll());
+
+        while (!freeBuffers.isEmpty())
+            freeBuffers.poll().deallocate();
+    }
+}
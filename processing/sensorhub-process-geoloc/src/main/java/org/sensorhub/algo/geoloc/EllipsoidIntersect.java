@@ -125,4 +125,77 @@ public class EllipsoidIntersect
         
         return found; 
 	}
+
+	
+	/**
+	 * Computes the intersections of many rays at once.<br/>
+	 * Coordinates are stored in separate arrays and elements offset to
+	 * offset+count-1 are processed. Unlike {@link #computeIntersection(Vect3d, Vect3d, Vect3d)},
+	 * result coordinates are set to NaN when no intersection is found.<br/>
+	 * Note that this is safe for aliasing (i.e. result arrays can be the same as input arrays)
+	 * @param vx array of ray origin x coordinates
+	 * @param vy array of ray origin y coordinates
+	 * @param vz array of ray origin z coordinates
+	 * @param dx array of ray direction x coordinates (unit vectors)
+	 * @param dy array of ray direction y coordinates
+	 * @param dz array of ray direction z coordinates
+	 * @param x array to receive intersection x coordinates
+	 * @param y array to receive intersection y coordinates
+	 * @param z array to receive intersection z coordinates
+	 * @param offset index of first ray
+	 * @param count number of rays
+	 * @return number of intersections found
+	 */
+	public int computeIntersections(double[] vx, double[] vy, double[] vz, double[] dx, double[] dy, double[] dz,
+	                                double[] x, double[] y, double[] z, int offset, int count)
+	{
+	    final double irx = 1.0 / rx;
+	    final double iry = 1.0 / ry;
+	    final double irz = 1.0 / rz;
+	    final int end = offset + count;
+	    int numFound = 0;
+	    
+	    for (int i = offset; i < end; i++)
+	    {
+	        double ox = vx[i], oy = vy[i], oz = vz[i];
+	        double ex = dx[i], ey = dy[i], ez = dz[i];
+	        
+	        // scale vectors using ellipsoid radius
+	        double px = ox * irx;
+	        double py = oy * iry;
+	        double pz = oz * irz;
+	        double ux = ex * irx;
+	        double uy = ey * iry;
+	        double uz = ez * irz;
+	        
+	        // computes polynomial coefficients (at^2 + bt + c = 0)
+	        double a = ux*ux + uy*uy + uz*uz;
+	        double b = px*ux + py*uy + pz*uz;
+	        double c = -1.0 + px*px + py*py + pz*pz;
+	        double dscrm = b * b - a * c;
+	        
+	        if (dscrm < 0.0)
+	        {
+	            x[i] = y[i] = z[i] = Double.NaN;
+	            continue;
+	        }
+	        
+	        // always use smallest positive solution
+	        double sqrtDscrm = Math.sqrt(dscrm);
+	        double scalar;
+	        if (c == 0.0)
+	            scalar = 0.0;
+	        else if (b >= 0.0 || c < 0.0) // if origin is inside ellipsoid
+	            scalar = (-b + sqrtDscrm) / a;
+	        else
+	            scalar = (-b - sqrtDscrm) / a;
+	        
+	        x[i] = ox + ex * scalar;
+	        y[i] = oy + ey * scalar;
+	        z[i] = oz + ez * scalar;
+	        numFound++;
+	    }
+	    
+	    return numFound;
+	}
 }
@@ -136,6 +136,104 @@ public class GeoTransforms
     }
     
     
+    /**
+     * Converts many locations from Lat/Lon/Alt to ECEF coordinates.<br/>
+     * Coordinates are stored in separate arrays and elements offset to
+     * offset+count-1 are converted. Ellipsoid constants are only read once
+     * and no object is allocated, so this is much faster than calling
+     * {@link #LLAtoECEF(Vect3d, Vect3d)} for each point.<br/>
+     * Note that this is safe for aliasing (i.e. output arrays can be the same as input arrays)
+     * @param lon array of longitudes in radians
+     * @param lat array of latitudes in radians
+     * @param alt array of altitudes
+     * @param x array to receive ECEF x coordinates
+     * @param y array to receive ECEF y coordinates
+     * @param z array to receive ECEF z coordinates
+     * @param offset index of first point
+     * @param count number of points to convert
+     */
+    public final void LLAtoECEF(double[] lon, double[] lat, double[] alt, double[] x, double[] y, double[] z, int offset, int count)
+    {
+        final double a = datum.getEquatorRadius();
+        final double e2 = datum.getE2();
+        final double oneMinusE2 = 1.0 - e2;
+        final int end = offset + count;
+        
+        for (int i = offset; i < end; i++)
+        {
+            double sinLat = Math.sin(lat[i]);
+            double cosLat = Math.cos(lat[i]);
+            double sinLon = Math.sin(lon[i]);
+            double cosLon = Math.cos(lon[i]);
+            double h = alt[i];
+            double N = a / Math.sqrt(1.0 - e2 * sinLat * sinLat);
+            
+            x[i] = (N + h) * cosLat * cosLon;
+            y[i] = (N + h) * cosLat * sinLon;
+            z[i] = (N * oneMinusE2 + h) * sinLat;
+        }
+    }
+        
+    
+    /**
+     * Converts many locations from ECEF to Lat/Lon/Alt coordinates.<br/>
+     * Coordinates are stored in separate arrays and elements offset to
+     * offset+count-1 are converted, using the same method as
+     * {@link #ECEFtoLLA(Vect3d, Vect3d)}.<br/>
+     * Note that this is safe for aliasing (i.e. output arrays can be the same as input arrays)
+     * @param x array of ECEF x coordinates
+     * @param y array of ECEF y coordinates
+     * @param z array of ECEF z coordinates
+     * @param lon array to receive longitudes in radians
+     * @param lat array to receive latitudes in radians
+     * @param alt array to receive altitudes
+     * @param offset index of first point
+     * @param count number of points to convert
+     */
+    public final void ECEFtoLLA(double[] x, double[] y, double[] z, double[] lon, double[] lat, double[] alt, int offset, int count)
+    {
+        final double a = datum.getEquatorRadius();
+        final double b = datum.getPolarRadius();
+        final double e2 = datum.getE2();
+        final double ePrimeSquared = (a*a - b*b)/(b*b);
+        final double ePrime2b = ePrimeSquared * b;
+        final double e2a = e2 * a;
+        final double aOverB = a / b;
+        final int end = offset + count;
+        
+        for (int i = offset; i < end; i++)
+        {
+            double xi = x[i];
+            double yi = y[i];
+            double zi = z[i];
+            double p = Math.sqrt(xi*xi + yi*yi);
+            
+            if (p == 0.0) // case of lat = 90° or -90°
+            {
+                lon[i] = 0.0;
+                lat[i] = Math.signum(zi) * Math.PI/2;
+                alt[i] = zi - Math.signum(zi)*b;
+                continue;
+            }
+            
+            // atan2 result is already between -PI and PI
+            double longitude = Math.atan2(yi, xi);
+            double theta = Math.atan(zi * aOverB / p);
+            double sineTheta = Math.sin(theta);
+            double cosTheta = Math.cos(theta);
+            double top = zi + ePrime2b * sineTheta * sineTheta * sineTheta;
+            double bottom = p - e2a * cosTheta * cosTheta * cosTheta;
+            double geodeticLat = Math.atan2(top, bottom);
+            double sineLat = Math.sin(geodeticLat);
+            double N = a / Math.sqrt(1 - e2 * sineLat * sineLat);
+            
+            lon[i] = longitude;
+            lat[i] = geodeticLat;
+            alt[i] = (p / Math.cos(geodeticLat)) - N;
+        }
+    }
+    
+    
     /**
      * Converts from ECEF to ECI coordinates.<br/>
      * Note that this is safe for aliasing (i.e. ecef and eci can be the same object).<br/>
@@ -0,0 +1,291 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.geoloc;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * <p>
+ * One SRTM tile (1x1 deg) memory-mapped from an HGT file.<br/>
+ * Both 1 arcsec (3601x3601) and 3 arcsec (1201x1201) tiles are supported.
+ * The tile also maintains a pyramid of min/max elevations over blocks of
+ * grid cells that is built lazily and used to skip empty space when
+ * marching rays through the terrain.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+class SRTMTile
+{
+    static final short VOID_VALUE = -32768;
+    static final int BLOCK_SHIFT = 4; // 16x16 cells at finest pyramid level
+
+    final int lat0, lon0; // SW corner
+    final int size; // number of posts per side
+    final double res; // grid spacing in degrees
+    final ShortBuffer data;
+    volatile short[][] maxLevels;
+    volatile short[][] minLevels;
+
+
+    SRTMTile(int lat0, int lon0, Path file) throws IOException
+    {
+        this.lat0 = lat0;
+        this.lon0 = lon0;
+
+        try (var ch = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            var fileSize = ch.size();
+            this.size = (int)Math.round(Math.sqrt(fileSize / 2.0));
+            if ((long)size * size * 2 != fileSize)
+                throw new IOException("Invalid SRTM tile size: " + file);
+            this.res = 1.0 / (size - 1);
+
+            // mapping remains valid after channel is closed
+            var buf = ch.map(MapMode.READ_ONLY, 0, fileSize);
+            buf.order(ByteOrder.BIG_ENDIAN);
+            this.data = buf.asShortBuffer();
+        }
+    }
+
+
+    final short getPost(int row, int col)
+    {
+        // absolute get is safe to use concurrently
+        return data.get(row * size + col);
+    }
+
+
+    /*
+     * Compute elevation at given location using bilinear interpolation
+     * Lat/lon are in degrees and must fall within the tile
+     */
+    final double getElevation(double lat, double lon)
+    {
+        double rowD = (lat0 + 1 - lat) / res;
+        double colD = (lon - lon0) / res;
+        int row = clampCell((int)rowD);
+        int col = clampCell((int)colD);
+        double dr = rowD - row;
+        double dc = colD - col;
+
+        short z11 = getPost(row, col);
+        short z12 = getPost(row, col+1);
+        short z21 = getPost(row+1, col);
+        short z22 = getPost(row+1, col+1);
+
+        // replace void posts by the mean of valid ones
+        if (z11 == VOID_VALUE || z12 == VOID_VALUE || z21 == VOID_VALUE || z22 == VOID_VALUE)
+        {
+            int sum = 0, count = 0;
+            for (short z: new short[] {z11, z12, z21, z22})
+            {
+                if (z != VOID_VALUE)
+                {
+                    sum += z;
+                    count++;
+                }
+            }
+
+            short mean = count > 0 ? (short)(sum / count) : 0;
+            if (z11 == VOID_VALUE) z11 = mean;
+            if (z12 == VOID_VALUE) z12 = mean;
+            if (z21 == VOID_VALUE) z21 = mean;
+            if (z22 == VOID_VALUE) z22 = mean;
+        }
+
+        double z1 = z11 + (z12 - z11) * dc;
+        double z2 = z21 + (z22 - z21) * dc;
+        return z1 + (z2 - z1) * dr;
+    }
+
+
+    final int clampCell(int i)
+    {
+        return Math.max(0, Math.min(size - 2, i));
+    }
+
+
+    final int getNumLevels()
+    {
+        return getMaxLevels().length;
+    }
+
+
+    final int getBlockShift(int level)
+    {
+        return BLOCK_SHIFT + level;
+    }
+
+
+    /*
+     * Get the max elevation of the pyramid block containing the given location
+     */
+    final short getMaxElevation(double lat, double lon, int level)
+    {
+        return getMaxLevels()[level][getBlockIndex(lat, lon, level)];
+    }
+
+
+    /*
+     * Get the min elevation of the pyramid block containing the given location
+     */
+    final short getMinElevation(double lat, double lon, int level)
+    {
+        getMaxLevels();
+        return minLevels[level][getBlockIndex(lat, lon, level)];
+    }
+
+
+    final int getBlockIndex(double lat, double lon, int level)
+    {
+        int shift = getBlockShift(level);
+        int numBlocks = getNumBlocks(shift);
+        int row = clampCell((int)((lat0 + 1 - lat) / res)) >> shift;
+        int col = clampCell((int)((lon - lon0) / res)) >> shift;
+        return row * numBlocks + col;
+    }
+
+
+    /*
+     * Get the bounds of the pyramid block containing the given location
+     * as {minLat, maxLat, minLon, maxLon} in degrees
+     */
+    final void getBlockBounds(double lat, double lon, int level, double[] bounds)
+    {
+        int shift = getBlockShift(level);
+        int row = clampCell((int)((lat0 + 1 - lat) / res)) >> shift;
+        int col = clampCell((int)((lon - lon0) / res)) >> shift;
+        bounds[0] = Math.max(lat0, lat0 + 1 - ((row + 1) << shift) * res);
+        bounds[1] = lat0 + 1 - (row << shift) * res;
+        bounds[2] = lon0 + (col << shift) * res;
+        bounds[3] = Math.min(lon0 + 1, lon0 + ((col + 1) << shift) * res);
+    }
+
+
+    final int getNumBlocks(int shift)
+    {
+        int blockSize = 1 << shift;
+        return (size - 1 + blockSize - 1) / blockSize;
+    }
+
+
+    final short[][] getMaxLevels()
+    {
+        var levels = maxLevels;
+        if (levels == null)
+        {
+            synchronized (this)
+            {
+                if (maxLevels == null)
+                    buildPyramid();
+                levels = maxLevels;
+            }
+        }
+
+        return levels;
+    }
+
+
+    /*
+     * Build min/max pyramid, starting with blocks of 16x16 cells and
+     * doubling the block size at each level until the whole tile is covered
+     */
+    private void buildPyramid()
+    {
+        int numLevels = 1;
+        while (getNumBlocks(getBlockShift(numLevels - 1)) > 1)
+            numLevels++;
+
+        var max = new short[numLevels][];
+        var min = new short[numLevels][];
+
+        // finest level from data
+        // blocks include posts on their edges since they are used by interpolation
+        int shift = getBlockShift(0);
+        int nb = getNumBlocks(shift);
+        max[0] = new short[nb * nb];
+        min[0] = new short[nb * nb];
+        for (int br = 0; br < nb; br++)
+        {
+            for (int bc = 0; bc < nb; bc++)
+            {
+                short blockMax = Short.MIN_VALUE;
+                short blockMin = Short.MAX_VALUE;
+                int r1 = Math.min(size - 1, (br + 1) << shift);
+                int c1 = Math.min(size - 1, (bc + 1) << shift);
+                for (int r = br << shift; r <= r1; r++)
+                {
+                    for (int c = bc << shift; c <= c1; c++)
+                    {
+                        short z = getPost(r, c);
+                        if (z == VOID_VALUE)
+                            continue;
+                        if (z > blockMax)
+                            blockMax = z;
+                        if (z < blockMin)
+                            blockMin = z;
+                    }
+                }
+
+                // use 0 for blocks containing only voids
+                // max must remain conservative since interpolation uses mean of valid posts
+                max[0][br * nb + bc] = blockMax == Short.MIN_VALUE ? 0 : blockMax;
+                min[0][br * nb + bc] = blockMin == Short.MAX_VALUE ? 0 : blockMin;
+            }
+        }
+
+        // coarser levels from children blocks
+        for (int l = 1; l < numLevels; l++)
+        {
+            int cnb = nb;
+            nb = getNumBlocks(getBlockShift(l));
+            max[l] = new short[nb * nb];
+            min[l] = new short[nb * nb];
+            for (int br = 0; br < nb; br++)
+            {
+                for (int bc = 0; bc < nb; bc++)
+                {
+                    short blockMax = Short.MIN_VALUE;
+                    short blockMin = Short.MAX_VALUE;
+                    for (int r = 2*br; r < Math.min(2*br + 2, cnb); r++)
+                    {
+                        for (int c = 2*bc; c < Math.min(2*bc + 2, cnb); c++)
+                        {
+                            blockMax = (short)Math.max(blockMax, max[l-1][r * cnb + c]);
+                            blockMin = (short)Math.min(blockMin, min[l-1][r * cnb + c]);
+                        }
+                    }
+                    max[l][br * nb + bc] = blockMax;
+                    min[l][br * nb + bc] = blockMin;
+                }
+            }
+        }
+
+        minLevels = min;
+        maxLevels = max;
+    }
+}
@@ -0,0 +1,244 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.geoloc;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * <p>
+ * Thread-safe cache of memory-mapped SRTM tiles.<br/>
+ * Tiles are loaded on demand and the least recently used ones are released
+ * when the maximum number of open tiles is reached. Each tile is loaded only
+ * once even if it is requested by several threads at the same time, and
+ * lookups in tiles that are already loaded never block.
+ * </p><p>
+ * Like the previous file based implementation, an IOException is thrown when
+ * no tile file exists for the requested location, so that callers can decide
+ * how to fall back (e.g. to the ellipsoid).
+ * </p><p>
+ * A single cache instance is normally shared by all users of the same
+ * data set (see {@link #getInstance(String)}).
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SRTMTileCache
+{
+    private static final Logger log = LoggerFactory.getLogger(SRTMTileCache.class);
+    public static final int DEFAULT_MAX_TILES = 16;
+    static final Map<String, SRTMTileCache> sharedInstances = new HashMap<>();
+
+    final String dataRoot;
+    final int maxTiles;
+    final Map<Integer, TileEntry> tiles = new ConcurrentHashMap<>();
+
+
+    static class TileEntry
+    {
+        final CompletableFuture<SRTMTile> future = new CompletableFuture<>();
+        long lastAccess = System.nanoTime(); // approximate LRU, no need to synchronize
+    }
+
+
+    /**
+     * Get the cache instance shared by all users of the given data set
+     * @param dataRoot Path of folder containing SRTM tiles
+     * @return The shared cache instance
+     */
+    public static synchronized SRTMTileCache getInstance(String dataRoot)
+    {
+        return sharedInstances.computeIfAbsent(normalizePath(dataRoot),
+            k -> new SRTMTileCache(k, DEFAULT_MAX_TILES));
+    }
+
+
+    public SRTMTileCache(String dataRoot, int maxTiles)
+    {
+        this.dataRoot = normalizePath(dataRoot);
+        this.maxTiles = maxTiles;
+    }
+
+
+    /**
+     * Get the elevation at the given location, interpolated from the DEM posts
+     * @param lat Latitude in degrees
+     * @param lon Longitude in degrees
+     * @return Elevation in meters above the geoid
+     * @throws IOException if the tile containing the location is missing or
+     * cannot be read
+     */
+    public double getElevation(double lat, double lon) throws IOException
+    {
+        return getTile(lat, lon).getElevation(lat, lon);
+    }
+
+
+    /**
+     * Get the elevation at several locations at once.<br/>
+     * This is much faster than individual calls when successive locations
+     * fall in the same tile (e.g. sampling a footprint or a track)
+     * @param lats Latitudes in degrees
+     * @param lons Longitudes in degrees
+     * @param elevs Array to receive elevations in meters above the geoid
+     * @param count Number of locations to process
+     * @throws IOException if a tile is missing or cannot be read
+     */
+    public void getElevations(double[] lats, double[] lons, double[] elevs, int count) throws IOException
+    {
+        SRTMTile tile = null;
+        for (int i = 0; i < count; i++)
+        {
+            double lat = lats[i];
+            double lon = lons[i];
+            if (tile == null || !contains(tile, lat, lon))
+                tile = getTile(lat, lon);
+            elevs[i] = tile.getElevation(lat, lon);
+        }
+    }
+
+
+    /**
+     * Get the tile containing the given location, loading it if necessary
+     * @param lat Latitude in degrees
+     * @param lon Longitude in degrees
+     * @return The tile (never null)
+     * @throws IOException if the tile file is missing or cannot be read
+     */
+    SRTMTile getTile(double lat, double lon) throws IOException
+    {
+        int lat0 = (int)Math.floor(lat);
+        int lon0 = (int)Math.floor(lon);
+
+        // north and east edges belong to the previous tile
+        if (lat0 >= 90)
+            lat0 = 89;
+        if (lon0 >= 180)
+            lon0 = 179;
+
+        int key = (lat0 + 90) * 360 + (lon0 + 180);
+        var entry = tiles.get(key);
+        if (entry == null)
+        {
+            // only the thread that inserted the entry loads the tile
+            // other threads wait on the future
+            var newEntry = new TileEntry();
+            entry = tiles.putIfAbsent(key, newEntry);
+            if (entry == null)
+            {
+                entry = newEntry;
+                try
+                {
+                    newEntry.future.complete(loadTile(lat0, lon0));
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    // don't cache errors so the tile can be retried later
+                    tiles.remove(key, newEntry);
+                    newEntry.future.completeExceptionally(e);
+                }
+
+                evictIfNeeded(key);
+            }
+        }
+
+        entry.lastAccess = System.nanoTime();
+        try
+        {
+            return entry.future.join();
+        }
+        catch (CompletionException e)
+        {
+            var cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException)cause;
+            if (cause instanceof UncheckedIOException)
+                throw ((UncheckedIOException)cause).getCause();
+            throw e;
+        }
+    }
+
+
+    /*
+     * Remove least recently used tiles when max size is reached
+     * This is only called when a new tile is loaded, and never evicts the
+     * new tile or tiles that are still being loaded by other threads
+     */
+    protected void evictIfNeeded(int newKey)
+    {
+        while (tiles.size() > maxTiles)
+        {
+            Map.Entry<Integer, TileEntry> oldest = null;
+            for (var e: tiles.entrySet())
+            {
+                if (e.getKey() == newKey || !e.getValue().future.isDone())
+                    continue;
+                if (oldest == null || e.getValue().lastAccess < oldest.getValue().lastAccess)
+                    oldest = e;
+            }
+
+            // evicted tiles are unmapped when garbage collected
+            if (oldest == null || !tiles.remove(oldest.getKey(), oldest.getValue()))
+                break;
+        }
+    }
+
+
+    static boolean contains(SRTMTile tile, double lat, double lon)
+    {
+        return lat >= tile.lat0 && lat < tile.lat0 + 1 &&
+               lon >= tile.lon0 && lon < tile.lon0 + 1;
+    }
+
+
+    protected SRTMTile loadTile(int lat0, int lon0) throws IOException
+    {
+        var path = Path.of(dataRoot, getTileName(lat0, lon0));
+        if (!Files.exists(path))
+            throw new FileNotFoundException("Missing SRTM tile " + path);
+
+        log.debug("Mapping SRTM tile {}", path);
+        return new SRTMTile(lat0, lon0, path);
+    }
+
+
+    public static String getTileName(int lat0, int lon0)
+    {
+        return String.format("%s%02d%s%03d.hgt",
+            lat0 >= 0 ? "N" : "S", Math.abs(lat0),
+            lon0 >= 0 ? "E" : "W", Math.abs(lon0));
+    }
+
+
+    static String normalizePath(String dataRoot)
+    {
+        if (!dataRoot.endsWith(File.separator))
+            dataRoot += File.separator;
+        return dataRoot;
+    }
+}
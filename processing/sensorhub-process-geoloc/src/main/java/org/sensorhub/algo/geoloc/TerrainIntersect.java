@@ -0,0 +1,271 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.geoloc;
+
+import java.io.IOException;
+import org.sensorhub.algo.vecmath.Vect3d;
+
+
+/**
+ * <p>
+ * Computes the intersection between a ray given in ECEF frame and the
+ * terrain surface given by SRTM DEM tiles.
+ * </p><p>
+ * The ray is first clipped to the shell containing all terrain heights and
+ * then marched through the min/max pyramid of each tile: when the ray is
+ * above the max elevation of a block, it directly jumps to the block exit
+ * or to the block max elevation, whichever comes first. Marching continues
+ * at DEM resolution only close to the terrain and the exact intersection is
+ * refined by bisection.
+ * </p><p>
+ * The marching step never goes below a fraction of the DEM cell size, so
+ * that the cost of grazing rays doesn't depend on the requested tolerance.
+ * Marching also stops as soon as the ray leaves the terrain shell upward.
+ * </p><p>
+ * DEM heights are used as heights above the ellipsoid (geoid undulation is
+ * ignored as in previous implementations).
+ * </p>
+ * <p>
+ * <b>This class is NOT thread-safe</b> but the tile cache can be shared
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class TerrainIntersect
+{
+    static final double MIN_TERRAIN_HEIGHT = -500.0;
+    static final double MAX_TERRAIN_HEIGHT = 9000.0;
+    static final double DEG_TO_M = Math.PI / 180.0 * 6378137.0;
+    static final double MAX_RAY_LENGTH = 1000e3;
+    static final double MIN_STEP_CELL_FRACTION = 0.125;
+
+    final SRTMTileCache dem;
+    final GeoTransforms transforms;
+    final EllipsoidIntersect upperShell;
+    final EllipsoidIntersect lowerShell;
+    final Vect3d p = new Vect3d();
+    final Vect3d lla = new Vect3d();
+    final double[] blockBounds = new double[4];
+    double heightAdjustment = 0.0;
+    double tolerance = 0.1;
+    SRTMTile lastTile;
+
+
+    public TerrainIntersect(SRTMTileCache dem)
+    {
+        this.dem = dem;
+        this.transforms = new GeoTransforms(Ellipsoid.WGS84);
+        this.upperShell = new EllipsoidIntersect(Ellipsoid.WGS84, MAX_TERRAIN_HEIGHT);
+        this.lowerShell = new EllipsoidIntersect(Ellipsoid.WGS84, MIN_TERRAIN_HEIGHT);
+    }
+
+
+    /**
+     * Sets an offset added to all DEM heights
+     * @param heightAdjustment offset in meters
+     */
+    public void setHeightAdjustment(double heightAdjustment)
+    {
+        this.heightAdjustment = heightAdjustment;
+        this.upperShell.setHeightAdjustment(MAX_TERRAIN_HEIGHT + Math.max(0, heightAdjustment));
+        this.lowerShell.setHeightAdjustment(MIN_TERRAIN_HEIGHT + Math.min(0, heightAdjustment));
+    }
+
+
+    /**
+     * Sets the accuracy of the computed intersection point along the ray
+     * @param tolerance tolerance in meters
+     */
+    public void setTolerance(double tolerance)
+    {
+        this.tolerance = tolerance;
+    }
+
+
+    /**
+     * Computes the intersection
+     * @param origin origin of the ray
+     * @param dir direction of the ray (must be a unit vector since no normalization is done)
+     * @param result intersection location
+     * @return true if intersection was found, false otherwise
+     * @throws IOException if DEM data cannot be read
+     */
+    public boolean computeIntersection(Vect3d origin, Vect3d dir, Vect3d result) throws IOException
+    {
+        // clip ray to shell containing all possible terrain heights
+        double t0 = 0.0;
+        transforms.ECEFtoLLA(origin, lla);
+        if (lla.z > MAX_TERRAIN_HEIGHT + heightAdjustment)
+        {
+            if (!upperShell.computeIntersection(origin, dir, p))
+                return false;
+            t0 = distance(origin, p);
+        }
+
+        double tEnd;
+        if (lowerShell.computeIntersection(origin, dir, p))
+            tEnd = distance(origin, p);
+        else
+            tEnd = t0 + MAX_RAY_LENGTH;
+
+        // march along ray
+        double t = t0;
+        double tPrev = t0;
+        double hPrev = Double.POSITIVE_INFINITY;
+        while (t <= tEnd)
+        {
+            pointAt(origin, dir, t);
+            double lat = Math.toDegrees(lla.y);
+            double lon = Math.toDegrees(lla.x);
+            double h = lla.z - heightAdjustment;
+
+            // ray altitude is convex so it won't come back down once
+            // it is going up above the highest terrain
+            if (h > MAX_TERRAIN_HEIGHT && h > hPrev)
+                return false;
+            hPrev = h;
+
+            var tile = getTile(lat, lon);
+            double minStep = getMinStep(tile);
+
+            // quick test, ray is surely below terrain
+            if (h < tile.getMinElevation(lat, lon, 0))
+                return refine(origin, dir, tPrev, t, result);
+
+            // find coarsest block that is fully below the ray
+            int level = tile.getNumLevels() - 1;
+            while (level >= 0 && h <= tile.getMaxElevation(lat, lon, level))
+                level--;
+
+            double step;
+            if (level >= 0)
+            {
+                // skip to block exit or to max block height
+                step = getBlockStep(dir, lat, lon, h - tile.getMaxElevation(lat, lon, level), tile, level, minStep);
+            }
+            else
+            {
+                // march at DEM resolution
+                double dz = h - tile.getElevation(lat, lon);
+                if (dz <= 0)
+                    return refine(origin, dir, tPrev, t, result);
+                step = Math.max(minStep, Math.min(dz, tile.res * DEG_TO_M * 0.5));
+            }
+
+            tPrev = t;
+            t += step;
+        }
+
+        return false;
+    }
+
+
+    /*
+     * Min marching step, scaled with DEM resolution.
+     * Bisection still refines the intersection down to the tolerance
+     */
+    protected double getMinStep(SRTMTile tile)
+    {
+        return Math.max(tolerance, tile.res * DEG_TO_M * MIN_STEP_CELL_FRACTION);
+    }
+
+
+    /*
+     * Compute the distance along ray to exit block or reach the given height drop
+     * Estimates are computed in the local tangent frame. The height drop estimate
+     * is always conservative since the ray altitude is a convex function of t
+     */
+    protected double getBlockStep(Vect3d dir, double lat, double lon, double dh, SRTMTile tile, int level, double minStep)
+    {
+        double latRad = lla.y;
+        double lonRad = lla.x;
+        double sinLat = Math.sin(latRad), cosLat = Math.cos(latRad);
+        double sinLon = Math.sin(lonRad), cosLon = Math.cos(lonRad);
+
+        // ray direction in local ENU frame
+        double ve = -sinLon*dir.x + cosLon*dir.y;
+        double vn = -sinLat*cosLon*dir.x - sinLat*sinLon*dir.y + cosLat*dir.z;
+        double vu = cosLat*cosLon*dir.x + cosLat*sinLon*dir.y + sinLat*dir.z;
+
+        double step = Double.POSITIVE_INFINITY;
+        if (vu < 0)
+            step = dh / -vu;
+
+        tile.getBlockBounds(lat, lon, level, blockBounds);
+        double mPerDegLon = DEG_TO_M * Math.max(cosLat, 1e-6);
+        if (ve > 0)
+            step = Math.min(step, (blockBounds[3] - lon) * mPerDegLon / ve);
+        else if (ve < 0)
+            step = Math.min(step, (lon - blockBounds[2]) * mPerDegLon / -ve);
+        if (vn > 0)
+            step = Math.min(step, (blockBounds[1] - lat) * DEG_TO_M / vn);
+        else if (vn < 0)
+            step = Math.min(step, (lat - blockBounds[0]) * DEG_TO_M / -vn);
+
+        // make sure we enter next block
+        return Math.max(minStep, step + tolerance);
+    }
+
+
+    /*
+     * Refine intersection by bisection between a point above
+     * and a point below the terrain
+     */
+    protected boolean refine(Vect3d origin, Vect3d dir, double tAbove, double tBelow, Vect3d result) throws IOException
+    {
+        while (tBelow - tAbove > tolerance)
+        {
+            double t = (tAbove + tBelow) / 2;
+            pointAt(origin, dir, t);
+            double lat = Math.toDegrees(lla.y);
+            double lon = Math.toDegrees(lla.x);
+            if (lla.z - heightAdjustment > getTile(lat, lon).getElevation(lat, lon))
+                tAbove = t;
+            else
+                tBelow = t;
+        }
+
+        result.scale(dir, (tAbove + tBelow) / 2);
+        result.add(origin);
+        return true;
+    }
+
+
+    protected void pointAt(Vect3d origin, Vect3d dir, double t)
+    {
+        p.scale(dir, t);
+        p.add(origin);
+        transforms.ECEFtoLLA(p, lla);
+    }
+
+
+    protected SRTMTile getTile(double lat, double lon) throws IOException
+    {
+        // avoid cache lookup while we stay in the same tile
+        if (lastTile == null || !SRTMTileCache.contains(lastTile, lat, lon))
+            lastTile = dem.getTile(lat, lon);
+        return lastTile;
+    }
+
+
+    static double distance(Vect3d p1, Vect3d p2)
+    {
+        double dx = p2.x - p1.x;
+        double dy = p2.y - p1.y;
+        double dz = p2.z - p1.z;
+        return Math.sqrt(dx*dx + dy*dy + dz*dz);
+    }
+}
@@ -68,6 +68,7 @@ public class ImageToGround extends ExecutableProcessImpl
     protected Mat3d rotCamToPlatform = new Mat3d();
     protected Mat3d rotPlatformToECEF = new Mat3d();
     protected Mat3d rotPlatformToNED = new Mat3d();
+    protected Mat3d rotCamToECEF = new Mat3d();
     protected Vect3d platformLocECEF = new Vect3d();
     
     protected Vect3d lookDir = new Vect3d();
@@ -270,6 +271,9 @@ public class ImageToGround extends ExecutableProcessImpl
             reportError("Invalid camera orientation", e);
         }
         
+        // combine rotations so we do it only once per pixel
+        rotCamToECEF.mul(rotPlatformToECEF, rotCamToPlatform);
+        
         // read camera matrix
         try
         {   
@@ -332,26 +336,9 @@ public class ImageToGround extends ExecutableProcessImpl
     protected boolean toGroundLocation(double x, double y, Vect3d result)
     {
         // compute look direction
-        lookDir.x = (x - cx) / fx;
-        lookDir.y = ((480-y) - cy) / fy;
-        lookDir.z = -1.0;
-        
-        // apply distortions
-        var x2 = lookDir.x * lookDir.x;
-        var y2 = lookDir.y * lookDir.y;
-        var r2 = x2 + y2;
-        var r4 = r2 * r2;
-        var r6 = r4 * r2;
-        var xy = lookDir.x * lookDir.y;
-        lookDir.x = lookDir.x * (1 + k1*r2 + k2*r4 + k3*r6 + 2*p1*xy + p2*(r2+2*x2));
-        lookDir.y = lookDir.y * (1 + k1*r2 + k2*r4 + k3*r6 + 2*p2*xy + p1*(r2+2*y2));
-        
-        // transform look dir to ECEF
-        rotCamToPlatform.mul(lookDir, lookDir);
-        rotPlatformToECEF.mul(lookDir, lookDir);
+        computeLookDirection(x, y, lookDir);
         
         // intersect with ellipsoid
-        lookDir.normalize();
         boolean ok = rie.computeIntersection(platformLocECEF, lookDir, result);
         if (!ok)
         {
@@ -362,4 +349,31 @@ public class ImageToGround extends ExecutableProcessImpl
         geoConv.ECEFtoLLA(result, result);
         return true;
     }
+    
+    
+    /*
+     * Compute unit look direction in ECEF frame for the given pixel
+     * This only reads the current camera model so it can be called concurrently
+     */
+    protected void computeLookDirection(double x, double y, Vect3d dir)
+    {
+        // image Y axis points down
+        dir.x = (x - cx) / fx;
+        dir.y = (cy - y) / fy;
+        dir.z = -1.0;
+        
+        // apply distortions
+        var x2 = dir.x * dir.x;
+        var y2 = dir.y * dir.y;
+        var r2 = x2 + y2;
+        var r4 = r2 * r2;
+        var r6 = r4 * r2;
+        var xy = dir.x * dir.y;
+        dir.x = dir.x * (1 + k1*r2 + k2*r4 + k3*r6 + 2*p1*xy + p2*(r2+2*x2));
+        dir.y = dir.y * (1 + k1*r2 + k2*r4 + k3*r6 + 2*p2*xy + p1*(r2+2*y2));
+        
+        // transform look dir to ECEF
+        rotCamToECEF.mul(dir, dir);
+        dir.normalize();
+    }
 }
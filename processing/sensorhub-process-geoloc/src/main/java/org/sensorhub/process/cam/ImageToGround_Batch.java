@@ -0,0 +1,258 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.cam;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.Text;
+import org.sensorhub.algo.geoloc.GeoTransforms;
+import org.sensorhub.algo.geoloc.SRTMTileCache;
+import org.sensorhub.algo.geoloc.TerrainIntersect;
+import org.sensorhub.algo.vecmath.Vect3d;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+import org.vast.process.ProcessInfo;
+import org.vast.swe.helper.GeoPosHelper;
+
+
+/**
+ * <p>
+ * Transforms a list of pixel coordinates to geographic locations on the
+ * ground in a single execution, taking into account the full camera model.
+ * </p><p>
+ * The camera model is computed only once for all pixels and large lists
+ * are split in chunks that are projected in parallel. Rays are intersected
+ * with SRTM terrain if a data folder is provided, or with the earth
+ * ellipsoid otherwise.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ImageToGround_Batch extends ImageToGround
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("geoloc:ImageToGroundBatch", "Image to Ground (Batch)", "Compute ground location of many pixels at once knowing their image coordinates", ImageToGround_Batch.class);
+    static final int PARALLEL_MIN_POINTS = 1024;
+    static final int CHUNK_SIZE = 256;
+
+    protected Count numInputPoints;
+    protected DataArray pointsIn;
+    protected Count numOutputPoints;
+    protected DataArray pointsOut;
+    protected Text srtmDataPath;
+
+    protected SRTMTileCache dem;
+    protected double[] pixels = new double[0];
+    protected double[] locations = new double[0];
+
+
+    public ImageToGround_Batch()
+    {
+        this(INFO);
+    }
+
+
+    public ImageToGround_Batch(ProcessInfo info)
+    {
+        super(info);
+        var swe = new GeoPosHelper();
+
+        // inputs
+        inputData.clear();
+        inputData.add("image_points", swe.createRecord()
+            .label("Image Points")
+            .description("List of points in image space")
+            .addField("numPoints", numInputPoints = swe.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("pointList", pointsIn = swe.createArray()
+                .withSizeComponent(numInputPoints)
+                .withElement("point", swe.createRecord()
+                    .addField("x", swe.createQuantity()
+                        .description("X coordinate, in pixels"))
+                    .addField("y", swe.createQuantity()
+                        .description("Y coordinate, in pixels")))
+                .build())
+            .build());
+
+        // outputs
+        outputData.clear();
+        outputData.add("ground_points", swe.createRecord()
+            .label("Ground Points")
+            .description("Projections of image points on the ground")
+            .addField("numPoints", numOutputPoints = swe.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("pointList", pointsOut = swe.createArray()
+                .withSizeComponent(numOutputPoints)
+                .withElement("location", swe.createLocationVectorLLA()
+                    .description("Ground location of image point"))
+                .build())
+            .build());
+
+        // parameters
+        paramData.add("srtmDataPath", srtmDataPath = swe.createText()
+            .label("SRTM Data Path")
+            .description("Local absolute path to SRTM data folder. Ellipsoid is used if not set")
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+
+        // init SRTM data set if configured
+        dem = null;
+        var pathData = srtmDataPath.getData();
+        String dataPath = pathData != null ? pathData.getStringValue() : null;
+        if (dataPath != null && !dataPath.isBlank())
+        {
+            var path = Path.of(dataPath);
+            if (!Files.isDirectory(path) || !Files.isReadable(path))
+                reportError("Missing or inaccessible SRTM data directory: " + dataPath);
+            dem = SRTMTileCache.getInstance(dataPath);
+        }
+    }
+
+
+    @Override
+    public void execute() throws ProcessException
+    {
+        readPositionParams();
+
+        // wait until platform location has been received
+        var llaData = platformLocParam.getData();
+        if (Double.isNaN(llaData.getDoubleValue(0)))
+            return;
+
+        // get pixel coordinates input
+        int numPoints = readImagePoints();
+        if (locations.length < numPoints*3)
+            locations = new double[numPoints*3];
+
+        // compute ground locations of all pixels
+        projectPoints(pixels, locations, numPoints);
+
+        // set ground locations output
+        pointsOut.updateSize(numPoints);
+        var outData = pointsOut.getData();
+        for (int i = 0; i < numPoints*3; i++)
+            outData.setDoubleValue(i, locations[i]);
+    }
+
+
+    /*
+     * Read image points from input into the pixels array
+     * Returns the number of points
+     */
+    protected int readImagePoints()
+    {
+        int numPoints = numInputPoints.getData().getIntValue();
+        if (pixels.length < numPoints*2)
+            pixels = new double[numPoints*2];
+
+        var inData = pointsIn.getData();
+        for (int i = 0; i < numPoints*2; i++)
+            pixels[i] = inData.getDoubleValue(i);
+
+        return numPoints;
+    }
+
+
+    /**
+     * Computes ground locations of several pixels at once
+     * @param imgCoords pixel coordinates as x,y pairs
+     * @param lla array to receive ground locations as lat,lon,alt triplets
+     * (lat/lon in degrees, NaN if no intersection was found)
+     * @param count number of pixels to project
+     * @throws ProcessException if DEM data cannot be read
+     */
+    protected void projectPoints(double[] imgCoords, double[] lla, int count) throws ProcessException
+    {
+        try
+        {
+            if (count < PARALLEL_MIN_POINTS)
+            {
+                projectRange(imgCoords, lla, 0, count);
+            }
+            else
+            {
+                int numChunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+                IntStream.range(0, numChunks).parallel().forEach(c -> {
+                    int start = c * CHUNK_SIZE;
+                    projectRange(imgCoords, lla, start, Math.min(count, start + CHUNK_SIZE));
+                });
+            }
+        }
+        catch (UncheckedIOException e)
+        {
+            throw new ProcessException("Error while looking up altitude from SRTM DEM data", e.getCause());
+        }
+    }
+
+
+    /*
+     * Project a range of pixels
+     * Intersection objects are allocated per range so ranges can be processed concurrently
+     */
+    protected void projectRange(double[] imgCoords, double[] lla, int start, int end)
+    {
+        var geo = new GeoTransforms();
+        var rit = dem != null ? new TerrainIntersect(dem) : null;
+        var dir = new Vect3d();
+        var p = new Vect3d();
+
+        for (int i = start; i < end; i++)
+        {
+            computeLookDirection(imgCoords[2*i], imgCoords[2*i+1], dir);
+
+            // intersect with terrain or fall back to ellipsoid
+            boolean ok;
+            try
+            {
+                ok = rit != null && rit.computeIntersection(platformLocECEF, dir, p);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            if (!ok)
+                ok = rie.computeIntersection(platformLocECEF, dir, p);
+
+            int idx = 3*i;
+            if (ok)
+            {
+                geo.ECEFtoLLA(p, p);
+                lla[idx++] = Math.toDegrees(p.y);
+                lla[idx++] = Math.toDegrees(p.x);
+                lla[idx] = p.z;
+            }
+            else
+            {
+                lla[idx++] = Double.NaN;
+                lla[idx++] = Double.NaN;
+                lla[idx] = Double.NaN;
+            }
+        }
+    }
+}
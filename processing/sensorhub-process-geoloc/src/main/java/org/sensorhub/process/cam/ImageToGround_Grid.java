@@ -0,0 +1,125 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.cam;
+
+import net.opengis.swe.v20.Count;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+import org.vast.process.ProcessInfo;
+import org.vast.swe.helper.GeoPosHelper;
+
+
+/**
+ * <p>
+ * Projects a regular grid of pixels covering the whole image on the ground.
+ * This is typically used to compute image footprints or lookup tables for
+ * orthorectification.
+ * </p><p>
+ * The process has no input and is executed every time the platform or
+ * camera parameters change. Ground locations are output in row-major order,
+ * with the first and last rows/columns of the grid located on the image
+ * edges.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ImageToGround_Grid extends ImageToGround_Batch
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("geoloc:ImageGridToGround", "Image to Ground (Grid)", "Compute ground location of a regular grid of pixels covering the image", ImageToGround_Grid.class);
+
+    protected Count imgWidthParam;
+    protected Count imgHeightParam;
+    protected Count gridColsParam;
+    protected Count gridRowsParam;
+    protected int numGridPoints;
+
+
+    public ImageToGround_Grid()
+    {
+        this(INFO);
+    }
+
+
+    public ImageToGround_Grid(ProcessInfo info)
+    {
+        super(info);
+        var swe = new GeoPosHelper();
+
+        // no inputs, grid is computed from params
+        inputData.clear();
+
+        // parameters
+        paramData.add("imageWidth", imgWidthParam = swe.createCount()
+            .label("Image Width")
+            .description("Image width in pixels")
+            .build());
+
+        paramData.add("imageHeight", imgHeightParam = swe.createCount()
+            .label("Image Height")
+            .description("Image height in pixels")
+            .build());
+
+        paramData.add("gridCols", gridColsParam = swe.createCount()
+            .label("Grid Columns")
+            .description("Number of grid points along image X axis")
+            .value(2)
+            .build());
+
+        paramData.add("gridRows", gridRowsParam = swe.createCount()
+            .label("Grid Rows")
+            .description("Number of grid points along image Y axis")
+            .value(2)
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+
+        int width = imgWidthParam.getData().getIntValue();
+        int height = imgHeightParam.getData().getIntValue();
+        int numCols = gridColsParam.getData().getIntValue();
+        int numRows = gridRowsParam.getData().getIntValue();
+        if (width <= 0 || height <= 0)
+            reportError("Invalid image size: " + width + "x" + height);
+        if (numCols < 2 || numRows < 2)
+            reportError("Grid must have at least 2 rows and 2 columns");
+
+        // precompute grid pixel coordinates
+        numGridPoints = numCols * numRows;
+        pixels = new double[numGridPoints*2];
+        double dx = (double)width / (numCols - 1);
+        double dy = (double)height / (numRows - 1);
+        int idx = 0;
+        for (int j = 0; j < numRows; j++)
+        {
+            for (int i = 0; i < numCols; i++)
+            {
+                pixels[idx++] = i * dx;
+                pixels[idx++] = j * dy;
+            }
+        }
+    }
+
+
+    @Override
+    protected int readImagePoints()
+    {
+        return numGridPoints;
+    }
+}
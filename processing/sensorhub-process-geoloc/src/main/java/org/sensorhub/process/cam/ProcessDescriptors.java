@@ -23,6 +23,8 @@ public class ProcessDescriptors extends AbstractProcessProvider
     {
         addImpl(ImageToGround.INFO);
         addImpl(ImageToGround_Bbox.INFO);
+        addImpl(ImageToGround_Batch.INFO);
+        addImpl(ImageToGround_Grid.INFO);
         addImpl(FovToCamMatrix.INFO);
         addImpl(CamPtzGeoPointing.INFO);
     }
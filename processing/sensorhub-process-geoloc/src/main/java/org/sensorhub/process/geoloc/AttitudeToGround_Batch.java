@@ -0,0 +1,277 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.geoloc;
+
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.Quantity;
+import net.opengis.swe.v20.Vector;
+import org.sensorhub.algo.geoloc.Ellipsoid;
+import org.sensorhub.algo.geoloc.EllipsoidIntersect;
+import org.sensorhub.algo.geoloc.GeoTransforms;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ExecutableProcessImpl;
+import org.vast.process.ProcessException;
+import org.vast.process.ProcessInfo;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.helper.GeoPosHelper;
+
+
+/**
+ * <p>
+ * Computes ground locations pointed by a sensor for a list of platform
+ * states (location and attitude) in a single execution.
+ * </p><p>
+ * This is equivalent to running the attitude to rotation matrix, matrix
+ * vector multiply, LLA to ECEF, ray/ellipsoid intersection and ECEF to LLA
+ * processes for each record, but all steps are applied to whole columns of
+ * values stored in primitive arrays. Rotations are fused into a single
+ * step and intermediate buffers are reused across executions.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class AttitudeToGround_Batch extends ExecutableProcessImpl
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("geoloc:AttitudeToGroundBatch", "Attitude to Ground (Batch)", "Compute ground locations pointed by a sensor for many platform locations and attitudes at once", AttitudeToGround_Batch.class);
+
+    protected Count numInputRecords;
+    protected DataArray statesIn;
+    protected Count numOutputPoints;
+    protected DataArray pointsOut;
+    protected Quantity heightAdjParam;
+    protected Vector losParam;
+
+    protected GeoTransforms geoConv = new GeoTransforms();
+    protected EllipsoidIntersect rie;
+    protected double losX, losY, losZ;
+
+    // columnar buffers reused across executions
+    protected double[] lat = new double[0];
+    protected double[] lon = new double[0];
+    protected double[] alt = new double[0];
+    protected double[] heading = new double[0];
+    protected double[] pitch = new double[0];
+    protected double[] roll = new double[0];
+    protected double[] x = new double[0];
+    protected double[] y = new double[0];
+    protected double[] z = new double[0];
+
+
+    public AttitudeToGround_Batch()
+    {
+        this(INFO);
+    }
+
+
+    public AttitudeToGround_Batch(ProcessInfo info)
+    {
+        super(info);
+        var swe = new GeoPosHelper();
+
+        // inputs
+        inputData.add("platform_states", swe.createRecord()
+            .label("Platform States")
+            .description("List of platform locations and attitudes")
+            .addField("numRecords", numInputRecords = swe.createCount()
+                .id("NUM_RECORDS")
+                .build())
+            .addField("stateList", statesIn = swe.createArray()
+                .withSizeComponent(numInputRecords)
+                .withElement("state", swe.createRecord()
+                    .addField("location", swe.createLocationVectorLLA()
+                        .localFrame("PLATFORM_FRAME")
+                        .description("Geographic location of platform"))
+                    .addField("attitude", swe.createEulerOrientationNED("deg")
+                        .localFrame("PLATFORM_FRAME")
+                        .description("Orientation of platform w.r.t. the NED local reference frame")))
+                .build())
+            .build());
+
+        // outputs
+        outputData.add("ground_points", swe.createRecord()
+            .label("Ground Points")
+            .description("Ground locations pointed by the sensor")
+            .addField("numPoints", numOutputPoints = swe.createCount()
+                .id("NUM_POINTS")
+                .build())
+            .addField("pointList", pointsOut = swe.createArray()
+                .withSizeComponent(numOutputPoints)
+                .withElement("location", swe.createLocationVectorLLA()
+                    .description("Ground location pointed by the sensor, NaN if no intersection was found"))
+                .build())
+            .build());
+
+        // parameters
+        paramData.add("groundHeight", heightAdjParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("HeightAboveEllipsoid"))
+            .label("Ground Altitude")
+            .description("Altitude of terrain w.r.t. the WGS84 ellipsoid")
+            .uom("m")
+            .value(0.0)
+            .build());
+
+        paramData.add("lineOfSight", losParam = swe.createVector()
+            .label("Line of Sight")
+            .description("Sensor pointing direction in platform frame (X forward, Y right, Z down)")
+            .refFrame("PLATFORM_FRAME")
+            .addCoordinate("x", swe.createQuantity()
+                .uomCode("1")
+                .axisId("X")
+                .value(0.0)
+                .build())
+            .addCoordinate("y", swe.createQuantity()
+                .uomCode("1")
+                .axisId("Y")
+                .value(0.0)
+                .build())
+            .addCoordinate("z", swe.createQuantity()
+                .uomCode("1")
+                .axisId("Z")
+                .value(1.0)
+                .build())
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+
+        // instantiate RIE algo
+        double heightOffset = heightAdjParam.getData().getDoubleValue();
+        this.rie = new EllipsoidIntersect(Ellipsoid.WGS84, heightOffset);
+
+        // read and normalize line of sight
+        var losData = losParam.getData();
+        losX = losData.getDoubleValue(0);
+        losY = losData.getDoubleValue(1);
+        losZ = losData.getDoubleValue(2);
+        double norm = Math.sqrt(losX*losX + losY*losY + losZ*losZ);
+        if (!(norm > 0.0))
+            reportError("Line of sight must be a non-zero vector");
+        losX /= norm;
+        losY /= norm;
+        losZ /= norm;
+    }
+
+
+    @Override
+    public void execute() throws ProcessException
+    {
+        int count = readPlatformStates();
+
+        // platform locations to ECEF
+        geoConv.LLAtoECEF(lon, lat, alt, x, y, z, 0, count);
+
+        // look directions to ECEF, stored in place of attitude angles
+        computeLookDirections(count);
+
+        // intersect with ellipsoid and convert back to LLA
+        rie.computeIntersections(x, y, z, heading, pitch, roll, x, y, z, 0, count);
+        geoConv.ECEFtoLLA(x, y, z, lon, lat, alt, 0, count);
+
+        writeGroundPoints(count);
+    }
+
+
+    /*
+     * Read input records into column buffers, with angles converted to radians
+     * Returns the number of records
+     */
+    protected int readPlatformStates()
+    {
+        int count = numInputRecords.getData().getIntValue();
+        ensureCapacity(count);
+
+        var inData = statesIn.getData();
+        for (int i = 0, idx = 0; i < count; i++)
+        {
+            lat[i] = Math.toRadians(inData.getDoubleValue(idx++));
+            lon[i] = Math.toRadians(inData.getDoubleValue(idx++));
+            alt[i] = inData.getDoubleValue(idx++);
+            heading[i] = Math.toRadians(inData.getDoubleValue(idx++));
+            pitch[i] = Math.toRadians(inData.getDoubleValue(idx++));
+            roll[i] = Math.toRadians(inData.getDoubleValue(idx++));
+        }
+
+        return count;
+    }
+
+
+    /*
+     * Rotate line of sight from platform frame to NED (R_heading * R_pitch * R_roll)
+     * then from NED to ECEF at each platform location, in a single pass.
+     * Unit look directions are written to the heading, pitch and roll buffers.
+     */
+    protected void computeLookDirections(int count)
+    {
+        final double lx = losX, ly = losY, lz = losZ;
+
+        for (int i = 0; i < count; i++)
+        {
+            double sh = Math.sin(heading[i]), ch = Math.cos(heading[i]);
+            double sp = Math.sin(pitch[i]), cp = Math.cos(pitch[i]);
+            double sr = Math.sin(roll[i]), cr = Math.cos(roll[i]);
+
+            // platform to NED
+            double n = cp*ch*lx + (sr*sp*ch - cr*sh)*ly + (cr*sp*ch + sr*sh)*lz;
+            double e = cp*sh*lx + (sr*sp*sh + cr*ch)*ly + (cr*sp*sh - sr*ch)*lz;
+            double d = -sp*lx + sr*cp*ly + cr*cp*lz;
+
+            // NED to ECEF
+            double sLat = Math.sin(lat[i]), cLat = Math.cos(lat[i]);
+            double sLon = Math.sin(lon[i]), cLon = Math.cos(lon[i]);
+            heading[i] = -sLat*cLon*n - sLon*e - cLat*cLon*d;
+            pitch[i] = -sLat*sLon*n + cLon*e - cLat*sLon*d;
+            roll[i] = cLat*n - sLat*d;
+        }
+    }
+
+
+    /*
+     * Write ground locations from column buffers to output, in degrees
+     */
+    protected void writeGroundPoints(int count)
+    {
+        pointsOut.updateSize(count);
+        var outData = pointsOut.getData();
+        for (int i = 0, idx = 0; i < count; i++)
+        {
+            outData.setDoubleValue(idx++, Math.toDegrees(lat[i]));
+            outData.setDoubleValue(idx++, Math.toDegrees(lon[i]));
+            outData.setDoubleValue(idx++, alt[i]);
+        }
+    }
+
+
+    protected void ensureCapacity(int count)
+    {
+        if (lat.length < count)
+        {
+            lat = new double[count];
+            lon = new double[count];
+            alt = new double[count];
+            heading = new double[count];
+            pitch = new double[count];
+            roll = new double[count];
+            x = new double[count];
+            y = new double[count];
+            z = new double[count];
+        }
+    }
+}
@@ -31,6 +31,7 @@ public class ProcessDescriptors extends AbstractProcessProvider
         addImpl(RayIntersectEllipsoid.INFO);
         addImpl(RayIntersectTerrain.INFO);
         addImpl(RayIntersection.INFO);
+        addImpl(AttitudeToGround_Batch.INFO);
     }
 
 }
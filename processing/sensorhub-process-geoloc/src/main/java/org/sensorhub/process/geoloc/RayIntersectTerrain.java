@@ -19,10 +19,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import net.opengis.swe.v20.DataBlock;
 import net.opengis.swe.v20.Text;
-import org.sensorhub.algo.geoloc.Ellipsoid;
-import org.sensorhub.algo.geoloc.GeoTransforms;
-import org.sensorhub.algo.geoloc.SRTMUtil;
-import org.sensorhub.algo.vecmath.Vect3d;
+import org.sensorhub.algo.geoloc.SRTMTileCache;
+import org.sensorhub.algo.geoloc.TerrainIntersect;
 import org.sensorhub.api.processing.OSHProcessInfo;
 import org.vast.process.ProcessException;
 import org.vast.swe.SWEHelper;
@@ -33,6 +31,9 @@ import org.vast.swe.SWEHelper;
  * Computes intersection of a 3D ray with terrain given as a
  * rectangular grid of altitude posts in EPSG 4979 projection.
  * It also allows height adjustment.
+ * </p><p>
+ * DEM tiles are memory-mapped and shared by all process instances using
+ * the same SRTM data folder.
  * </p>
  *
  * @author Alex Robin
@@ -44,10 +45,7 @@ public class RayIntersectTerrain extends RayIntersectEllipsoid
     
     protected Text srtmDataPath;
     
-    protected GeoTransforms transforms;
-    protected SRTMUtil util;
-    protected Vect3d lla;
-    protected double initAlti;
+    protected TerrainIntersect rit;
     
 
     public RayIntersectTerrain()
@@ -68,28 +66,21 @@ public class RayIntersectTerrain extends RayIntersectEllipsoid
     {
         super.init();
         
-        this.lla = new Vect3d();
-        this.transforms = new GeoTransforms(Ellipsoid.WGS84);
-        
         // init SRTM data set
         String dataPath = srtmDataPath.getData().getStringValue();
         var path = Path.of(dataPath);
         if (dataPath == null || !Files.isDirectory(path) || !Files.isReadable(path))
             reportError("Missing or inaccessible SRTM data directory: " + dataPath);
-        util = new SRTMUtil(dataPath);
+        rit = new TerrainIntersect(SRTMTileCache.getInstance(dataPath));
         
-        // set init altitude
-        initAlti = heightAdjustment.getData().getDoubleValue();
+        // set height adjustment
+        rit.setHeightAdjustment(heightAdjustment.getData().getDoubleValue());
     }
     
     
     @Override
     public void execute() throws ProcessException
     {
-        double altitude = initAlti;
-        double error = 0.0;
-        double maxError = 15; // 15m
-                
         // get ray origin input
         DataBlock originData = rayOrigin.getData();
         origin.x = originData.getDoubleValue(0);
@@ -104,24 +95,11 @@ public class RayIntersectTerrain extends RayIntersectEllipsoid
         
         try
         {
-            do
-            {
-                // set height adjustment to DEM altitude
-                rie.setHeightAdjustment(altitude);
-            	
-                boolean ok = rie.computeIntersection(origin, dir, intersect);
-                if (!ok)
-                {
-                    getLogger().debug("No intersection found");
-                    break;
-                }
-                
-                // get altitude at this position
-                transforms.ECEFtoLLA(intersect, lla);
-                altitude = getAltitude(lla.x, lla.y);
-                error = Math.abs(altitude - lla.z);
-            }
-            while (error > maxError);
+            // march ray through DEM
+            // fall back to ellipsoid if ray doesn't hit terrain
+            boolean ok = rit.computeIntersection(origin, dir, intersect);
+            if (!ok && !rie.computeIntersection(origin, dir, intersect))
+                getLogger().debug("No intersection found");
         }
         catch (IOException e)
         {
@@ -134,10 +112,4 @@ public class RayIntersectTerrain extends RayIntersectEllipsoid
         intersectData.setDoubleValue(1, intersect.y);
         intersectData.setDoubleValue(2, intersect.z);
     }
-    
-    
-    private final double getAltitude(double lon, double lat) throws IOException
-    {
-        return util.getInterpolatedElevation(Math.toDegrees(lat), Math.toDegrees(lon));
-    }
 }
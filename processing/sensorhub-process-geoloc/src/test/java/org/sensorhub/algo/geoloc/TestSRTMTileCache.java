@@ -0,0 +1,108 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.geoloc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+public class TestSRTMTileCache
+{
+    static final int TILE_SIZE = 33;
+    static final int MAX_TILES = 4;
+    static String srtmRoot;
+
+
+    /*
+     * Generate small flat tiles along a parallel, one more than the cache size
+     */
+    @BeforeClass
+    public static void createTiles() throws IOException
+    {
+        Path dir = Files.createTempDirectory("srtm");
+        dir.toFile().deleteOnExit();
+
+        for (int i = 0; i <= MAX_TILES; i++)
+        {
+            Path file = dir.resolve(SRTMTileCache.getTileName(0, i));
+            file.toFile().deleteOnExit();
+
+            try (var os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile()))))
+            {
+                for (int j = 0; j < TILE_SIZE * TILE_SIZE; j++)
+                    os.writeShort(100 * i);
+            }
+        }
+
+        srtmRoot = dir.toString();
+    }
+
+
+    @Test
+    public void testNewestTileStaysCached() throws Exception
+    {
+        var cache = new SRTMTileCache(srtmRoot, MAX_TILES);
+
+        var loaded = new SRTMTile[MAX_TILES + 1];
+        for (int i = 0; i <= MAX_TILES; i++)
+        {
+            loaded[i] = cache.getTile(0.5, i + 0.5);
+            assertEquals(100 * i, cache.getElevation(0.5, i + 0.5), 1e-9);
+        }
+
+        // only the least recently used tile was evicted
+        assertEquals(MAX_TILES, cache.tiles.size());
+        assertFalse(cache.tiles.containsKey(getKey(0, 0)));
+        for (int i = 1; i <= MAX_TILES; i++)
+        {
+            assertTrue(cache.tiles.containsKey(getKey(0, i)));
+            assertSame(loaded[i], cache.getTile(0.5, i + 0.5));
+        }
+    }
+
+
+    @Test
+    public void testRecentlyUsedTileStaysCached() throws Exception
+    {
+        var cache = new SRTMTileCache(srtmRoot, MAX_TILES);
+
+        for (int i = 0; i < MAX_TILES; i++)
+            cache.getTile(0.5, i + 0.5);
+
+        // use first tile again so the second one becomes the oldest
+        var first = cache.getTile(0.5, 0.5);
+        cache.getTile(0.5, MAX_TILES + 0.5);
+
+        assertEquals(MAX_TILES, cache.tiles.size());
+        assertFalse(cache.tiles.containsKey(getKey(0, 1)));
+        assertSame(first, cache.getTile(0.5, 0.5));
+    }
+
+
+    static int getKey(int lat0, int lon0)
+    {
+        return (lat0 + 90) * 360 + (lon0 + 180);
+    }
+}
@@ -0,0 +1,176 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.cam;
+
+import static org.junit.Assert.assertEquals;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataRecord;
+import org.junit.Test;
+import org.vast.process.ProcessException;
+
+
+public class TestImageToGroundBatch
+{
+    static final int IMG_WIDTH = 640;
+    static final int IMG_HEIGHT = 480;
+
+
+    void setupParams(ImageToGround process) throws ProcessException
+    {
+        var params = process.getParameterList();
+
+        var groundHeight = params.getComponent("groundHeight");
+        groundHeight.assignNewDataBlock();
+        groundHeight.getData().setDoubleValue(10.0);
+
+        var platformLoc = params.getComponent("platformLocation");
+        platformLoc.assignNewDataBlock();
+        platformLoc.getData().setDoubleValue(0, 45.0);
+        platformLoc.getData().setDoubleValue(1, 10.0);
+        platformLoc.getData().setDoubleValue(2, 500.0);
+
+        var platformAtt = params.getComponent("platformAttitude");
+        platformAtt.assignNewDataBlock();
+        platformAtt.getData().setDoubleValue(0, 30.0);
+        platformAtt.getData().setDoubleValue(1, -5.0);
+        platformAtt.getData().setDoubleValue(2, 2.0);
+
+        var camOrient = params.getComponent("camOrientation");
+        camOrient.assignNewDataBlock();
+        camOrient.getData().setDoubleValue(0, 20.0);
+        camOrient.getData().setDoubleValue(1, -60.0);
+        camOrient.getData().setDoubleValue(2, 0.0);
+
+        var camMatrix = params.getComponent("camMatrix");
+        camMatrix.assignNewDataBlock();
+        camMatrix.getData().setDoubleValue(0, 500);
+        camMatrix.getData().setDoubleValue(2, IMG_WIDTH/2);
+        camMatrix.getData().setDoubleValue(4, 500);
+        camMatrix.getData().setDoubleValue(5, IMG_HEIGHT/2);
+        camMatrix.getData().setDoubleValue(8, 1.0);
+
+        var camDistort = params.getComponent("camDistort");
+        camDistort.assignNewDataBlock();
+
+        process.init();
+    }
+
+
+    void setIntParam(ImageToGround process, String name, int val)
+    {
+        var param = process.getParameterList().getComponent(name);
+        param.assignNewDataBlock();
+        param.getData().setIntValue(val);
+    }
+
+
+    double[] projectSinglePixel(double x, double y) throws ProcessException
+    {
+        var process = new ImageToGround();
+        setupParams(process);
+
+        var imgPos = process.getInputList().getComponent("imgCoords");
+        imgPos.assignNewDataBlock();
+        imgPos.getData().setDoubleValue(0, x);
+        imgPos.getData().setDoubleValue(1, y);
+        process.execute();
+
+        var lla = process.getOutputList().getComponent("groundLocation").getData();
+        return new double[] {lla.getDoubleValue(0), lla.getDoubleValue(1), lla.getDoubleValue(2)};
+    }
+
+
+    void checkPoints(double[] pixels, ImageToGround_Batch process) throws ProcessException
+    {
+        var groundPoints = (DataRecord)process.getOutputList().getComponent("ground_points");
+        var pointsOut = (DataArray)groundPoints.getComponent("pointList");
+        int numPoints = pixels.length / 2;
+        assertEquals(numPoints, pointsOut.getElementCount().getData().getIntValue());
+
+        // compare with single pixel process on a subset of points
+        for (int i = 0; i < numPoints; i += Math.max(1, numPoints/50))
+        {
+            var expected = projectSinglePixel(pixels[2*i], pixels[2*i+1]);
+            for (int k = 0; k < 3; k++)
+                assertEquals(expected[k], pointsOut.getData().getDoubleValue(3*i + k), 1e-8);
+        }
+    }
+
+
+    void testBatch(int numPoints) throws ProcessException
+    {
+        var process = new ImageToGround_Batch();
+        setupParams(process);
+
+        // generate pixels
+        double[] pixels = new double[numPoints*2];
+        for (int i = 0; i < numPoints; i++)
+        {
+            pixels[2*i] = (i * 37) % IMG_WIDTH;
+            pixels[2*i+1] = (i * 53) % IMG_HEIGHT;
+        }
+
+        // set input
+        var pointsIn = (DataRecord)process.getInputList().getComponent("image_points");
+        var pointList = (DataArray)pointsIn.getComponent("pointList");
+        pointList.updateSize(numPoints);
+        for (int i = 0; i < pixels.length; i++)
+            pointList.getData().setDoubleValue(i, pixels[i]);
+
+        process.execute();
+        checkPoints(pixels, process);
+    }
+
+
+    @Test
+    public void testSmallBatch() throws ProcessException
+    {
+        testBatch(20);
+    }
+
+
+    @Test
+    public void testLargeBatch() throws ProcessException
+    {
+        // large enough to use parallel execution
+        testBatch(10000);
+    }
+
+
+    @Test
+    public void testGrid() throws ProcessException
+    {
+        var process = new ImageToGround_Grid();
+        setIntParam(process, "imageWidth", IMG_WIDTH);
+        setIntParam(process, "imageHeight", IMG_HEIGHT);
+        setIntParam(process, "gridCols", 5);
+        setIntParam(process, "gridRows", 4);
+        setupParams(process);
+        process.execute();
+
+        double[] pixels = new double[5*4*2];
+        int idx = 0;
+        for (int j = 0; j < 4; j++)
+        {
+            for (int i = 0; i < 5; i++)
+            {
+                pixels[idx++] = i * IMG_WIDTH / 4.0;
+                pixels[idx++] = j * IMG_HEIGHT / 3.0;
+            }
+        }
+
+        checkPoints(pixels, process);
+    }
+}
@@ -0,0 +1,223 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.geoloc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import java.util.Random;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataRecord;
+import org.junit.Test;
+import org.sensorhub.algo.geoloc.Ellipsoid;
+import org.sensorhub.algo.geoloc.EllipsoidIntersect;
+import org.sensorhub.algo.geoloc.GeoTransforms;
+import org.sensorhub.algo.geoloc.NadirPointing;
+import org.sensorhub.algo.vecmath.Mat3d;
+import org.sensorhub.algo.vecmath.Vect3d;
+import org.vast.process.ProcessException;
+
+
+public class TestAttitudeToGroundBatch
+{
+    static final double GROUND_HEIGHT = 10.0;
+    static final double[] LOS = {0.3, -0.2, 0.9};
+
+    GeoTransforms geoConv = new GeoTransforms();
+    NadirPointing nadirPointing = new NadirPointing(geoConv);
+    EllipsoidIntersect rie = new EllipsoidIntersect(Ellipsoid.WGS84, GROUND_HEIGHT);
+    Mat3d rotPlatformToECEF = new Mat3d();
+    Mat3d rotPlatformToNED = new Mat3d();
+    Vect3d pos = new Vect3d();
+    Vect3d dir = new Vect3d();
+
+
+    AttitudeToGround_Batch createProcess() throws ProcessException
+    {
+        var process = new AttitudeToGround_Batch();
+        var params = process.getParameterList();
+
+        var groundHeight = params.getComponent("groundHeight");
+        groundHeight.assignNewDataBlock();
+        groundHeight.getData().setDoubleValue(GROUND_HEIGHT);
+
+        var los = params.getComponent("lineOfSight");
+        los.assignNewDataBlock();
+        for (int i = 0; i < 3; i++)
+            los.getData().setDoubleValue(i, LOS[i]);
+
+        process.init();
+        return process;
+    }
+
+
+    double[] generateStates(int numRecords)
+    {
+        var random = new Random(42);
+        double[] states = new double[numRecords*6];
+        for (int i = 0, idx = 0; i < numRecords; i++)
+        {
+            states[idx++] = random.nextDouble()*160 - 80; // lat
+            states[idx++] = random.nextDouble()*360 - 180; // lon
+            states[idx++] = random.nextDouble()*5000 + 100; // alt
+            states[idx++] = random.nextDouble()*360; // heading
+            states[idx++] = random.nextDouble()*20 - 10; // pitch
+            states[idx++] = random.nextDouble()*20 - 10; // roll
+        }
+        return states;
+    }
+
+
+    /*
+     * Reference implementation, one record at a time using the same
+     * algorithms as the single step processes
+     */
+    boolean projectSingleRecord(double[] states, int i, Vect3d result)
+    {
+        int idx = i*6;
+        pos.y = Math.toRadians(states[idx++]);
+        pos.x = Math.toRadians(states[idx++]);
+        pos.z = states[idx++];
+        var heading = Math.toRadians(states[idx++]);
+        var pitch = Math.toRadians(states[idx++]);
+        var roll = Math.toRadians(states[idx++]);
+        geoConv.LLAtoECEF(pos, pos);
+
+        nadirPointing.getRotationMatrixNEDToECEF(pos, rotPlatformToECEF);
+        rotPlatformToNED.setIdentity();
+        rotPlatformToNED.rotateX(-roll);
+        rotPlatformToNED.rotateY(-pitch);
+        rotPlatformToNED.rotateZ(-heading);
+        rotPlatformToECEF.mul(rotPlatformToNED);
+
+        dir.set(LOS[0], LOS[1], LOS[2]).normalize();
+        rotPlatformToECEF.mul(dir, dir);
+
+        if (!rie.computeIntersection(pos, dir, result))
+            return false;
+
+        geoConv.ECEFtoLLA(result, result);
+        return true;
+    }
+
+
+    void setInput(AttitudeToGround_Batch process, double[] states)
+    {
+        var statesIn = (DataRecord)process.getInputList().getComponent("platform_states");
+        var stateList = (DataArray)statesIn.getComponent("stateList");
+        stateList.updateSize(states.length / 6);
+        for (int i = 0; i < states.length; i++)
+            stateList.getData().setDoubleValue(i, states[i]);
+    }
+
+
+    void testBatch(int numRecords) throws ProcessException
+    {
+        var process = createProcess();
+        var states = generateStates(numRecords);
+        setInput(process, states);
+        process.execute();
+
+        var groundPoints = (DataRecord)process.getOutputList().getComponent("ground_points");
+        var pointsOut = (DataArray)groundPoints.getComponent("pointList");
+        assertEquals(numRecords, pointsOut.getElementCount().getData().getIntValue());
+
+        var lla = new Vect3d();
+        var outData = pointsOut.getData();
+        for (int i = 0; i < numRecords; i++)
+        {
+            if (projectSingleRecord(states, i, lla))
+            {
+                assertEquals(Math.toDegrees(lla.y), outData.getDoubleValue(3*i), 1e-8);
+                assertEquals(Math.toDegrees(lla.x), outData.getDoubleValue(3*i+1), 1e-8);
+                assertEquals(lla.z, outData.getDoubleValue(3*i+2), 1e-6);
+            }
+            else
+                assertTrue(Double.isNaN(outData.getDoubleValue(3*i)));
+        }
+    }
+
+
+    @Test
+    public void testSmallBatch() throws ProcessException
+    {
+        testBatch(20);
+    }
+
+
+    @Test
+    public void testLargeBatch() throws ProcessException
+    {
+        testBatch(10000);
+    }
+
+
+    @Test
+    public void testBufferReuse() throws ProcessException
+    {
+        // run larger then smaller batch with same process
+        var process = createProcess();
+        setInput(process, generateStates(100));
+        process.execute();
+
+        var states = generateStates(10);
+        setInput(process, states);
+        process.execute();
+
+        var groundPoints = (DataRecord)process.getOutputList().getComponent("ground_points");
+        var pointsOut = (DataArray)groundPoints.getComponent("pointList");
+        assertEquals(10, pointsOut.getElementCount().getData().getIntValue());
+
+        var lla = new Vect3d();
+        assertTrue(projectSingleRecord(states, 9, lla));
+        assertEquals(Math.toDegrees(lla.y), pointsOut.getData().getDoubleValue(27), 1e-8);
+    }
+
+
+    /*
+     * Benchmark comparing per-record and batch processing.
+     * Only run when -Dgeoloc.benchmark=true is set.
+     */
+    @Test
+    public void testPerformance() throws ProcessException
+    {
+        assumeTrue("Benchmark only runs with -Dgeoloc.benchmark=true", Boolean.getBoolean("geoloc.benchmark"));
+
+        int numRecords = 100000;
+        int numRuns = 10;
+        var states = generateStates(numRecords);
+        var lla = new Vect3d();
+
+        // one record at a time
+        long t0 = System.nanoTime();
+        for (int r = 0; r < numRuns; r++)
+        {
+            for (int i = 0; i < numRecords; i++)
+                projectSingleRecord(states, i, lla);
+        }
+        long singleTime = System.nanoTime() - t0;
+
+        // batch process, including input and output data blocks
+        var process = createProcess();
+        setInput(process, states);
+        t0 = System.nanoTime();
+        for (int r = 0; r < numRuns; r++)
+            process.execute();
+        long batchTime = System.nanoTime() - t0;
+
+        System.out.printf("Project %d records: per-record = %.2f ms, batch = %.2f ms\n",
+            numRecords, singleTime/1e6/numRuns, batchTime/1e6/numRuns);
+    }
+}
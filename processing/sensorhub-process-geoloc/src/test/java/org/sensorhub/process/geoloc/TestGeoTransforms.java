@@ -15,6 +15,7 @@ Copyright (C) 2022 Sensia Software LLC. All Rights Reserved.
 package org.sensorhub.process.geoloc;
 
 import static org.junit.Assert.*;
+import java.util.Random;
 import org.junit.Test;
 import org.sensorhub.algo.geoloc.GeoTransforms;
 import org.sensorhub.algo.vecmath.Vect3d;
@@ -109,5 +110,52 @@ public class TestGeoTransforms
         assertEquals(result.x, 0.0, 1e-8);
         assertEquals(result.y, Math.PI/8, 1e-8);
     }
+    
+    
+    @Test
+    public void testBulkLLAtoECEFAndBack()
+    {
+        int numPoints = 10000;
+        double[] lon = new double[numPoints];
+        double[] lat = new double[numPoints];
+        double[] alt = new double[numPoints];
+        var random = new Random(42);
+        
+        for (int i = 0; i < numPoints; i++)
+        {
+            lon[i] = (random.nextDouble() - 0.5) * 2 * Math.PI;
+            lat[i] = (random.nextDouble() - 0.5) * Math.PI;
+            alt[i] = random.nextDouble() * 10000.0 - 100.0;
+        }
+        
+        // include pole
+        lon[0] = 0.0;
+        lat[0] = Math.PI/2;
+        
+        double[] x = new double[numPoints];
+        double[] y = new double[numPoints];
+        double[] z = new double[numPoints];
+        geo.LLAtoECEF(lon, lat, alt, x, y, z, 0, numPoints);
+        
+        // compare with single point methods
+        var lla = new Vect3d();
+        var ecef = new Vect3d();
+        for (int i = 0; i < numPoints; i++)
+        {
+            geo.LLAtoECEF(lla.set(lon[i], lat[i], alt[i]), ecef);
+            assertEquals(ecef.x, x[i], 1e-6);
+            assertEquals(ecef.y, y[i], 1e-6);
+            assertEquals(ecef.z, z[i], 1e-6);
+        }
+        
+        // convert back in place
+        geo.ECEFtoLLA(x, y, z, x, y, z, 0, numPoints);
+        for (int i = 0; i < numPoints; i++)
+        {
+            assertEquals(lon[i], x[i], 1e-8);
+            assertEquals(lat[i], y[i], 1e-8);
+            assertEquals(alt[i], z[i], 1e-2);
+        }
+    }
 
 }
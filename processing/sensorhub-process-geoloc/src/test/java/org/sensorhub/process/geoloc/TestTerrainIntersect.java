@@ -0,0 +1,242 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.geoloc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sensorhub.algo.geoloc.Ellipsoid;
+import org.sensorhub.algo.geoloc.EllipsoidIntersect;
+import org.sensorhub.algo.geoloc.GeoTransforms;
+import org.sensorhub.algo.geoloc.SRTMTileCache;
+import org.sensorhub.algo.geoloc.SRTMUtil;
+import org.sensorhub.algo.geoloc.TerrainIntersect;
+import org.sensorhub.algo.vecmath.Vect3d;
+
+
+public class TestTerrainIntersect
+{
+    static final int TILE_SIZE = 1201; // 3 arcsec tile
+    static final int LAT0 = 35, LON0 = -115;
+    static String srtmRoot;
+
+    GeoTransforms geoConv = new GeoTransforms();
+
+
+    /*
+     * Generate synthetic tile with smooth hills
+     */
+    @BeforeClass
+    public static void createTile() throws IOException
+    {
+        Path dir = Files.createTempDirectory("srtm");
+        dir.toFile().deleteOnExit();
+        Path file = dir.resolve(SRTMTileCache.getTileName(LAT0, LON0));
+        file.toFile().deleteOnExit();
+
+        try (var os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile()))))
+        {
+            for (int row = 0; row < TILE_SIZE; row++)
+            {
+                double lat = LAT0 + 1 - row / (double)(TILE_SIZE-1);
+                for (int col = 0; col < TILE_SIZE; col++)
+                {
+                    double lon = LON0 + col / (double)(TILE_SIZE-1);
+                    os.writeShort((short)Math.round(terrainHeight(lat, lon)));
+                }
+            }
+        }
+
+        srtmRoot = dir.toString();
+    }
+
+
+    static double terrainHeight(double lat, double lon)
+    {
+        return 1200 + 600 * Math.sin(lat * 20) * Math.cos(lon * 15);
+    }
+
+
+    @Test
+    public void testElevationLookup() throws Exception
+    {
+        SRTMUtil srtm = new SRTMUtil(srtmRoot);
+        Random rand = new Random(42);
+
+        int count = 1000;
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        double[] elevs = new double[count];
+        for (int i = 0; i < count; i++)
+        {
+            lats[i] = LAT0 + rand.nextDouble();
+            lons[i] = LON0 + rand.nextDouble();
+        }
+
+        srtm.getInterpolatedElevations(lats, lons, elevs, count);
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals(srtm.getInterpolatedElevation(lats[i], lons[i]), elevs[i], 1e-9);
+            assertEquals(terrainHeight(lats[i], lons[i]), elevs[i], 2.0);
+        }
+    }
+
+
+    @Test(expected = FileNotFoundException.class)
+    public void testMissingTile() throws Exception
+    {
+        SRTMUtil srtm = new SRTMUtil(srtmRoot);
+        srtm.getInterpolatedElevation(LAT0 + 5.5, LON0 + 0.5);
+    }
+
+
+    @Test
+    public void testNadirIntersect() throws Exception
+    {
+        SRTMUtil srtm = new SRTMUtil(srtmRoot);
+        TerrainIntersect rit = new TerrainIntersect(SRTMTileCache.getInstance(srtmRoot));
+        Vect3d intersect = new Vect3d();
+
+        double lat = Math.toRadians(35.3);
+        double lon = Math.toRadians(-114.6);
+        Vect3d origin = geoConv.LLAtoECEF(new Vect3d(lon, lat, 5000.), new Vect3d());
+        Vect3d down = geoConv.LLAtoECEF(new Vect3d(lon, lat, 0.0), new Vect3d());
+        down.sub(origin).normalize();
+
+        assertTrue(rit.computeIntersection(origin, down, intersect));
+        geoConv.ECEFtoLLA(intersect, intersect);
+        assertEquals(lon, intersect.x, 1e-6);
+        assertEquals(lat, intersect.y, 1e-6);
+        assertEquals(srtm.getInterpolatedElevation(Math.toDegrees(lat), Math.toDegrees(lon)), intersect.z, 0.2);
+    }
+
+
+    @Test
+    public void testObliqueIntersect() throws Exception
+    {
+        SRTMUtil srtm = new SRTMUtil(srtmRoot);
+        TerrainIntersect rit = new TerrainIntersect(SRTMTileCache.getInstance(srtmRoot));
+        Vect3d origin = new Vect3d();
+        Vect3d dir = new Vect3d();
+        Vect3d intersect = new Vect3d();
+        Vect3d lla = new Vect3d();
+        Random rand = new Random(42);
+
+        for (int i = 0; i < 200; i++)
+        {
+            generateRay(rand, origin, dir);
+            assertTrue(rit.computeIntersection(origin, dir, intersect));
+
+            // check intersection is on terrain
+            geoConv.ECEFtoLLA(intersect, lla);
+            double elev = srtm.getInterpolatedElevation(Math.toDegrees(lla.y), Math.toDegrees(lla.x));
+            assertEquals(elev, lla.z, 0.2);
+
+            // check it is the first intersection along the ray
+            double dist = intersect.copy().sub(origin).norm();
+            for (double t = 0; t < dist - 5.0; t += 5.0)
+            {
+                lla.scale(dir, t).add(origin);
+                geoConv.ECEFtoLLA(lla, lla);
+                elev = srtm.getInterpolatedElevation(Math.toDegrees(lla.y), Math.toDegrees(lla.x));
+                assertTrue("Ray went through terrain", lla.z > elev - 0.2);
+            }
+        }
+    }
+
+
+    @Test
+    public void testBenchmark() throws Exception
+    {
+        assumeTrue("Benchmark only runs with -Dgeoloc.benchmark=true", Boolean.getBoolean("geoloc.benchmark"));
+
+        SRTMUtil srtm = new SRTMUtil(srtmRoot);
+        TerrainIntersect rit = new TerrainIntersect(SRTMTileCache.getInstance(srtmRoot));
+        EllipsoidIntersect rie = new EllipsoidIntersect(Ellipsoid.WGS84);
+        Vect3d origin = new Vect3d();
+        Vect3d dir = new Vect3d();
+        Vect3d intersect = new Vect3d();
+        Vect3d lla = new Vect3d();
+
+        int numRays = 20000;
+        long t0, t1, tIter = 0, tMarch = 0;
+
+        for (int run = 0; run < 2; run++)
+        {
+            // previous iterative ellipsoid intersection method
+            Random rand = new Random(42);
+            t0 = System.nanoTime();
+            for (int i = 0; i < numRays; i++)
+            {
+                generateRay(rand, origin, dir);
+                double altitude = 0.0, error;
+                do
+                {
+                    rie.setHeightAdjustment(altitude);
+                    if (!rie.computeIntersection(origin, dir, intersect))
+                        break;
+                    geoConv.ECEFtoLLA(intersect, lla);
+                    altitude = srtm.getInterpolatedElevation(Math.toDegrees(lla.y), Math.toDegrees(lla.x));
+                    error = Math.abs(altitude - lla.z);
+                }
+                while (error > 15.0);
+            }
+            t1 = System.nanoTime();
+            tIter = t1 - t0;
+
+            // ray marching
+            rand = new Random(42);
+            t0 = System.nanoTime();
+            for (int i = 0; i < numRays; i++)
+            {
+                generateRay(rand, origin, dir);
+                rit.computeIntersection(origin, dir, intersect);
+            }
+            t1 = System.nanoTime();
+            tMarch = t1 - t0;
+        }
+
+        // compare timings of the second (warmed up) run
+        assertTrue("Ray marching slower than iterative method", tMarch < tIter);
+    }
+
+
+    /*
+     * Generate ray looking down from an aircraft above the tile
+     */
+    void generateRay(Random rand, Vect3d origin, Vect3d dir)
+    {
+        double lat = Math.toRadians(LAT0 + 0.3 + 0.4 * rand.nextDouble());
+        double lon = Math.toRadians(LON0 + 0.3 + 0.4 * rand.nextDouble());
+        double alt = 3000 + 5000 * rand.nextDouble();
+        geoConv.LLAtoECEF(new Vect3d(lon, lat, alt), origin);
+
+        // target within 10km of nadir point
+        lat += Math.toRadians(0.1 * (rand.nextDouble() - 0.5));
+        lon += Math.toRadians(0.1 * (rand.nextDouble() - 0.5));
+        geoConv.LLAtoECEF(new Vect3d(lon, lat, 0.0), dir);
+        dir.sub(origin).normalize();
+    }
+}
@@ -19,15 +19,12 @@ import net.opengis.swe.v20.Count;
 import net.opengis.swe.v20.DataArray;
 import net.opengis.swe.v20.DataType;
 import net.opengis.swe.v20.Text;
-import org.bytedeco.javacpp.BytePointer;
 import org.bytedeco.opencv.opencv_core.*;
-import static org.bytedeco.opencv.global.opencv_core.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import org.bytedeco.opencv.opencv_objdetect.CascadeClassifier;
 import org.sensorhub.api.processing.OSHProcessInfo;
-import org.vast.data.DataBlockByte;
 import org.vast.process.ExecutableProcessImpl;
 import org.vast.process.ProcessException;
 import org.vast.swe.SWEHelper;
@@ -52,12 +49,16 @@ public class FaceDetection extends ExecutableProcessImpl
     DataArray bboxList;
     Category modeParam;
     Text configFileParam;
+    net.opengis.swe.v20.Boolean skipStaleParam;
     
     enum ModeEnum {CONTINUOUS, ONE_SHOT}
     
     ModeEnum mode;
     CascadeClassifier face_cascade;
     RectVector detectedObjects = new RectVector();
+    FrameMatWrapper frameMat = new FrameMatWrapper();
+    boolean skipStaleFrames;
+    boolean publish;
     
     
     public FaceDetection()
@@ -98,6 +99,12 @@ public class FaceDetection extends ExecutableProcessImpl
             .description("Path of XML file containing the Haar cascade configuration (OpenCV format)")
             .build());
         
+        paramData.add("skipStaleFrames", skipStaleParam = swe.createBoolean()
+            .label("Skip Stale Frames")
+            .description("Skip frames that have already been superseded by a newer decoded frame, so detection always runs on the latest frame")
+            .value(true)
+            .build());
+        
         // outputs
         outputData.add("detectedFaces", swe.createRecord()
             .label("Detected Faces")
@@ -135,6 +142,9 @@ public class FaceDetection extends ExecutableProcessImpl
             reportError("Missing or inaccessible config file: " + configFile);
             
         this.face_cascade = new CascadeClassifier(configFile);
+        
+        var skipData = skipStaleParam.getData();
+        skipStaleFrames = skipData == null || skipData.getBooleanValue();
     }
     
 
@@ -145,31 +155,23 @@ public class FaceDetection extends ExecutableProcessImpl
         var cols = ((DataArray)imgIn.getElementType()).getComponentCount();
         var imgData = imgIn.getData();
         
+        // skip frame if a newer one is already available
+        publish = !(skipStaleFrames && FrameMatWrapper.isStale(imgData));
+        if (!publish)
+            return;
+        
         // convert input image data to OpenCV Mat object
-        Mat mat;
-        if (imgData instanceof DataBlockByte)
+        // native frames from decoder are used without copy
+        try
         {
-            var imgBytes = ((DataBlockByte)imgData).getUnderlyingObject();
-            
-            mat = new Mat(rows, cols, CV_8UC(3), new BytePointer(imgBytes));
-            // TODO reuse same native array
+            var mat = frameMat.wrap(imgData, rows, cols);
+            detectedObjects.clear();
+            face_cascade.detectMultiScale(mat, detectedObjects);
         }
-        else
-            throw new IllegalArgumentException("Only DataBlockByte supported as input");
-        
-        /*else if (imgData instanceof DataBlockByteBuffer)
+        finally
         {
-            // optimized version of the above if datablock contains a direct byte buffer
-            // e.g. coming from FFMPEG decoder. This avoids copying the buffer twice between
-            // Java and native code!
-        }*/
-        
-        //Mat gray = new Mat(rows, cols, CV_8UC1);
-        //cvtColor(mat, gray, COLOR_RGB2GRAY);
-        
-        detectedObjects.clear();
-        face_cascade.detectMultiScale(mat, detectedObjects);
-        //gray.deallocate();
+            frameMat.release();
+        }
         
         long numberOfFaces = detectedObjects.size();
         numFaces.getData().setIntValue((int)numberOfFaces);        
@@ -192,6 +194,14 @@ public class FaceDetection extends ExecutableProcessImpl
     }
     
     
+    @Override
+    protected void publishData() throws InterruptedException
+    {
+        if (publish)
+            super.publishData();
+    }
+    
+    
     @Override
     public void dispose()
     {
@@ -199,6 +209,8 @@ public class FaceDetection extends ExecutableProcessImpl
         
         if (detectedObjects != null) {
             detectedObjects.deallocate();
+        }
+        
+        frameMat.dispose();
     }
-}
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.process.opencv;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import java.util.HashMap;
+import java.util.Map;
+import net.opengis.swe.v20.DataBlock;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.sensorhub.impl.process.video.DataBlockByteNative;
+import org.vast.data.DataBlockByte;
+
+
+/**
+ * <p>
+ * Helper to wrap RGB frame data blocks into OpenCV Mat objects, reusing
+ * native memory across frames.
+ * </p><p>
+ * Frames coming from the FFMPEG decoder are wrapped without copy, using
+ * the decoder native buffer directly. The buffer is retained until
+ * {@link #release()} is called. Other byte data blocks are copied to a
+ * native buffer that is only reallocated when the frame size changes.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class FrameMatWrapper
+{
+    static final int MAX_WRAPPED_BUFFERS = 8;
+
+    Map<Long, Mat> wrappedMats = new HashMap<>();
+    Mat copyMat;
+    DataBlockByteNative retainedFrame;
+
+
+    /**
+     * Gets a Mat object containing the frame data
+     * @param imgData The frame data block
+     * @param rows Number of rows in frame
+     * @param cols Number of columns in frame
+     * @return The Mat object, valid until the next call to this method or
+     * to {@link #release()}
+     */
+    public Mat wrap(DataBlock imgData, int rows, int cols)
+    {
+        release();
+
+        // use decoder native buffer directly if it hasn't been recycled yet
+        if (imgData instanceof DataBlockByteNative && ((DataBlockByteNative)imgData).tryRetain())
+        {
+            retainedFrame = (DataBlockByteNative)imgData;
+            var pointer = retainedFrame.getNativePointer();
+
+            var mat = wrappedMats.get(pointer.address());
+            if (mat == null || mat.rows() != rows || mat.cols() != cols)
+            {
+                if (mat != null)
+                    mat.deallocate();
+                else if (wrappedMats.size() >= MAX_WRAPPED_BUFFERS)
+                    clearWrappedMats();
+
+                mat = new Mat(rows, cols, CV_8UC(3), pointer);
+                wrappedMats.put(pointer.address(), mat);
+            }
+
+            return mat;
+        }
+
+        // otherwise copy to our own native buffer
+        else if (imgData instanceof DataBlockByte)
+        {
+            var imgBytes = ((DataBlockByte)imgData).getUnderlyingObject();
+
+            // reallocate matrix only if image size has changed
+            if (copyMat == null || copyMat.rows() != rows || copyMat.cols() != cols)
+            {
+                deallocateCopyMat();
+                copyMat = new Mat(rows, cols, CV_8UC(3), new BytePointer(imgBytes));
+            }
+            else
+                copyMat.data().put(imgBytes);
+
+            return copyMat;
+        }
+
+        else
+            throw new IllegalArgumentException("Only DataBlockByte supported as input");
+    }
+
+
+    /**
+     * Checks if a frame has already been superseded by a newer one
+     * @param imgData The frame data block
+     * @return true if the frame is stale and can be skipped
+     */
+    public static boolean isStale(DataBlock imgData)
+    {
+        return imgData instanceof DataBlockByteNative && ((DataBlockByteNative)imgData).isStale();
+    }
+
+
+    /**
+     * Releases the native frame retained by the last call to {@link #wrap}
+     */
+    public void release()
+    {
+        if (retainedFrame != null)
+        {
+            retainedFrame.release();
+            retainedFrame = null;
+        }
+    }
+
+
+    public void dispose()
+    {
+        release();
+        clearWrappedMats();
+        deallocateCopyMat();
+    }
+
+
+    protected void clearWrappedMats()
+    {
+        // Mat headers don't own the decoder buffers
+        for (var mat: wrappedMats.values())
+            mat.deallocate();
+        wrappedMats.clear();
+    }
+
+
+    protected void deallocateCopyMat()
+    {
+        if (copyMat != null)
+        {
+            copyMat.data().deallocate();
+            copyMat.deallocate();
+            copyMat = null;
+        }
+    }
+}
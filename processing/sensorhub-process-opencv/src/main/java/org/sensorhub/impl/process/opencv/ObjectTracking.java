@@ -21,14 +21,11 @@ import net.opengis.swe.v20.DataArray;
 import net.opengis.swe.v20.DataType;
 import net.opengis.swe.v20.Text;
 import net.opengis.swe.v20.Time;
-import org.bytedeco.javacpp.BytePointer;
-import static org.bytedeco.opencv.global.opencv_core.*;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Rect;
 import org.bytedeco.opencv.opencv_tracking.*;
 import org.bytedeco.opencv.opencv_video.Tracker;
 import org.sensorhub.api.processing.OSHProcessInfo;
-import org.vast.data.DataBlockByte;
 import org.vast.process.ExecutableProcessImpl;
 import org.vast.process.ProcessException;
 import org.vast.swe.SWEHelper;
@@ -60,13 +57,16 @@ public class ObjectTracking extends ExecutableProcessImpl
 	Count numOutputBboxes;
     DataArray bboxesOut;
     Text algorithm;
+    net.opengis.swe.v20.Boolean skipStaleParam;
     
     Supplier<Tracker> trackerSupplier;
     Tracker tracker;
     boolean trackerInitialized;
     
     Rect cvRect = new Rect();
-    Mat cvMat;
+    FrameMatWrapper frameMat = new FrameMatWrapper();
+    boolean skipStaleFrames;
+    boolean publish;
     
     
     public ObjectTracking()
@@ -125,6 +125,12 @@ public class ObjectTracking extends ExecutableProcessImpl
             .addField("bboxList", bboxesIn = swe.createBboxList(numInputBboxes)
                 .build())
             .build());
+        
+        paramData.add("skipStaleFrames", skipStaleParam = swe.createBoolean()
+            .label("Skip Stale Frames")
+            .description("Skip frames that have already been superseded by a newer decoded frame, so the tracker keeps up with the video")
+            .value(true)
+            .build());
     }
 
     
@@ -134,6 +140,9 @@ public class ObjectTracking extends ExecutableProcessImpl
         super.init();
         trackerInitialized = false;
         
+        var skipData = skipStaleParam.getData();
+        skipStaleFrames = skipData == null || skipData.getBooleanValue();
+        
         // read algorithm type
         try
         {
@@ -183,45 +192,23 @@ public class ObjectTracking extends ExecutableProcessImpl
     @Override
     public void execute() throws ProcessException
     {
+        var imgData = imgIn.getData();
+        var timeStamp = inputTimeStamp.getData().getDoubleValue();
+        boolean newRois = numInputBboxes.hasData() && numInputBboxes.getData().getIntValue() > 0;
+        
+        // skip frame if a newer one is already available, unless tracker must be reset
+        publish = newRois || !(skipStaleFrames && FrameMatWrapper.isStale(imgData));
+        if (!publish)
+            return;
+        
         try
         {
-            var imgData = imgIn.getData();
-            var timeStamp = inputTimeStamp.getData().getDoubleValue();
+            // native frames from decoder are used without copy
+            var rows = imgIn.getComponentCount();
+            var cols = ((DataArray)imgIn.getElementType()).getComponentCount();
+            Mat cvMat = frameMat.wrap(imgData, rows, cols);
             
-            if (imgData instanceof DataBlockByte)
-            {
-                var imgBytes = ((DataBlockByte)imgData).getUnderlyingObject();
-                var rows = imgIn.getComponentCount();
-                var cols = ((DataArray)imgIn.getElementType()).getComponentCount();
-                
-                // reallocate matrix only if image size has changed
-                if (cvMat == null || cvMat.rows() != rows || cvMat.cols() != cols)
-                {
-                    if (cvMat != null)
-                    {
-                        // deallocate previous matrix
-                        cvMat.data().deallocate();
-                        cvMat.deallocate();
-                    }
-                    
-                    cvMat = new Mat(rows, cols, CV_8UC(3), new BytePointer(imgBytes));
-                }
-                else
-                {
-                    cvMat.data().put(imgBytes);
-                }
-            }
-            else
-                throw new IllegalArgumentException("Only DataBlockByte supported as input");
-            
-            /*else if (imgData instanceof DataBlockByteBuffer)
-            {
-                // optimized version of the above if datablock contains a direct byte buffer
-                // e.g. coming from FFMPEG decoder. This avoids copying the buffer twice between
-                // Java and native code!
-            }*/
-            
-            if (numInputBboxes.hasData() && numInputBboxes.getData().getIntValue() > 0)
+            if (newRois)
             {
                 var bbox = bboxesIn.getComponent(0).getData();
                 cvRect.x(bbox.getIntValue(0));
@@ -278,11 +265,19 @@ public class ObjectTracking extends ExecutableProcessImpl
         }
         finally
         {
-            
+            frameMat.release();
         }
     }
     
     
+    @Override
+    protected void publishData() throws InterruptedException
+    {
+        if (publish)
+            super.publishData();
+    }
+    
+    
     @Override
     public void dispose()
     {
@@ -293,9 +288,6 @@ public class ObjectTracking extends ExecutableProcessImpl
         if (tracker!= null)
             tracker.deallocate();
         
-        if (cvMat != null) {
-            cvMat.data().deallocate();
-            cvMat.deallocate();
-        }
+        frameMat.dispose();
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+ The contents of this file are Copyright (C) 2026 Sensia Software LLC.
+ All Rights Reserved.
+
+ Contributor(s):
+    Alexandre Robin <alex.robin@sensiasoftware.com>
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.sat.orbit;
+
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.sensorhub.algo.geoloc.GeoTransforms;
+import org.sensorhub.algo.vecmath.Vect3d;
+
+
+/**
+ * <p>
+ * Propagates the orbits of many satellites over a regular time grid.<br/>
+ * Satellites are split in groups that are propagated in parallel using
+ * a fork/join pool. For each time step, the closest TLE is retrieved from
+ * the catalog and evaluated with the SGP4 model.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class BatchOrbitPropagator
+{
+    static final int SATS_PER_TASK = 8;
+
+    protected final TLECatalog catalog;
+    protected final SGP4Propagator propagator;
+    protected final ForkJoinPool pool;
+
+
+    /**
+     * Callback receiving the positions computed for one satellite.<br/>
+     * It is called concurrently from several threads, and the position
+     * array is reused after the callback returns.
+     */
+    public interface SatelliteVisitor
+    {
+        /**
+         * @param satID ID of the satellite
+         * @param positions ECEF positions as x,y,z triplets for each time
+         * step, in meters (NaN if the satellite is not in the catalog)
+         */
+        void visit(int satID, double[] positions);
+    }
+
+
+    public BatchOrbitPropagator(TLECatalog catalog)
+    {
+        this(catalog, ForkJoinPool.commonPool());
+    }
+
+
+    public BatchOrbitPropagator(TLECatalog catalog, ForkJoinPool pool)
+    {
+        this.catalog = catalog;
+        this.propagator = new SGP4Propagator(); // SGP4 computation is stateless
+        this.pool = pool;
+    }
+
+
+    /**
+     * Computes ECEF positions of all given satellites at each time step
+     * @param satIDs IDs of satellites to propagate
+     * @param startTime Julian time of first step (seconds past 1970 epoch)
+     * @param timeStep Time step in seconds
+     * @param numSteps Number of time steps
+     * @return Array of positions for each satellite (same order as satIDs),
+     * as x,y,z triplets for each time step
+     */
+    public double[][] computeECEFPositions(int[] satIDs, double startTime, double timeStep, int numSteps)
+    {
+        var results = new double[satIDs.length][];
+        var indices = new HashMap<Integer, Integer>();
+        for (int i = 0; i < satIDs.length; i++)
+            indices.put(satIDs[i], i);
+
+        propagate(satIDs, startTime, timeStep, numSteps, (satID, positions) -> {
+            results[indices.get(satID)] = positions.clone();
+        });
+
+        return results;
+    }
+
+
+    /**
+     * Propagates all given satellites and calls the visitor for each of them
+     * This method blocks until all satellites have been processed
+     * @param satIDs IDs of satellites to propagate
+     * @param startTime Julian time of first step (seconds past 1970 epoch)
+     * @param timeStep Time step in seconds
+     * @param numSteps Number of time steps
+     * @param visitor Callback receiving the positions of each satellite
+     */
+    public void propagate(int[] satIDs, double startTime, double timeStep, int numSteps, SatelliteVisitor visitor)
+    {
+        pool.invoke(new PropagationTask(satIDs, 0, satIDs.length, startTime, timeStep, numSteps, visitor));
+    }
+
+
+    /**
+     * Computes the ECEF position of one satellite at the given time
+     * @param satID ID of the satellite
+     * @param time Julian time (seconds past 1970 epoch)
+     * @param state Mechanical state to reuse or null
+     * @param geoConv Transforms object owned by the calling thread
+     * @return The state or null if the satellite is not in the catalog
+     */
+    public MechanicalState getECEFState(int satID, double time, MechanicalState state, GeoTransforms geoConv)
+    {
+        var tle = catalog.getClosestTLE(satID, time);
+        if (tle == null)
+            return null;
+
+        state = propagator.getECIOrbitalState(time, tle, state);
+        geoConv.ECItoECEF(time, state.linearPosition, state.linearPosition, false);
+        geoConv.ECItoECEF(time, state.linearVelocity, state.linearVelocity, true);
+        return state;
+    }
+
+
+    @SuppressWarnings("serial")
+    class PropagationTask extends RecursiveAction
+    {
+        final int[] satIDs;
+        final int start, end;
+        final double startTime, timeStep;
+        final int numSteps;
+        final SatelliteVisitor visitor;
+
+        PropagationTask(int[] satIDs, int start, int end, double startTime, double timeStep, int numSteps, SatelliteVisitor visitor)
+        {
+            this.satIDs = satIDs;
+            this.start = start;
+            this.end = end;
+            this.startTime = startTime;
+            this.timeStep = timeStep;
+            this.numSteps = numSteps;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start > SATS_PER_TASK)
+            {
+                int mid = (start + end) >>> 1;
+                invokeAll(
+                    new PropagationTask(satIDs, start, mid, startTime, timeStep, numSteps, visitor),
+                    new PropagationTask(satIDs, mid, end, startTime, timeStep, numSteps, visitor));
+                return;
+            }
+
+            // objects reused for all satellites of this task
+            var geoConv = new GeoTransforms();
+            var state = MechanicalState.withPosOrder1();
+            var positions = new double[numSteps*3];
+
+            for (int i = start; i < end; i++)
+            {
+                int satID = satIDs[i];
+                var tles = catalog.tleMap.get(satID);
+
+                int idx = 0;
+                for (int k = 0; k < numSteps; k++)
+                {
+                    if (tles == null)
+                    {
+                        positions[idx++] = Double.NaN;
+                        positions[idx++] = Double.NaN;
+                        positions[idx++] = Double.NaN;
+                        continue;
+                    }
+
+                    double time = startTime + k * timeStep;
+                    var tle = tles[TLECatalog.getClosestIndex(tles, time)];
+                    state = propagator.getECIOrbitalState(time, tle, state);
+                    Vect3d pos = geoConv.ECItoECEF(time, state.linearPosition, state.linearPosition, false);
+                    positions[idx++] = pos.x;
+                    positions[idx++] = pos.y;
+                    positions[idx++] = pos.z;
+                }
+
+                visitor.visit(satID, positions);
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+ The contents of this file are Copyright (C) 2026 Sensia Software LLC.
+ All Rights Reserved.
+
+ Contributor(s):
+    Alexandre Robin <alex.robin@sensiasoftware.com>
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.sat.orbit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.sensorhub.algo.geoloc.GeoTransforms;
+import org.sensorhub.algo.vecmath.Vect3d;
+
+
+/**
+ * <p>
+ * Predicts passes of many satellites over a ground station.<br/>
+ * Elevations are first computed on a coarse time grid using the batch
+ * propagator, then AOS/LOS times are refined by bisection and the time of
+ * max elevation by golden section search. Passes shorter than the coarse
+ * time step may be missed.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class PassPredictor
+{
+    static final double TIME_TOLERANCE = 0.5; // s
+    static final double GOLDEN_RATIO = (Math.sqrt(5) - 1) / 2;
+
+    protected final BatchOrbitPropagator propagator;
+    protected final Vect3d stationPos = new Vect3d();
+    protected final Vect3d stationUp = new Vect3d();
+    protected final double minElevation;
+
+
+    /**
+     * Info about a satellite pass
+     */
+    public static class Pass
+    {
+        public final int satID;
+        public final double aosTime; // julian time
+        public final double losTime; // julian time
+        public final double maxElevationTime; // julian time
+        public final double maxElevation; // deg
+
+        public Pass(int satID, double aosTime, double losTime, double maxElevationTime, double maxElevation)
+        {
+            this.satID = satID;
+            this.aosTime = aosTime;
+            this.losTime = losTime;
+            this.maxElevationTime = maxElevationTime;
+            this.maxElevation = maxElevation;
+        }
+    }
+
+
+    /**
+     * @param propagator Propagator used to compute satellite positions
+     * @param lat Station latitude (deg)
+     * @param lon Station longitude (deg)
+     * @param alt Station altitude above ellipsoid (m)
+     * @param minElevation Min elevation above horizon to consider satellite visible (deg)
+     */
+    public PassPredictor(BatchOrbitPropagator propagator, double lat, double lon, double alt, double minElevation)
+    {
+        this.propagator = propagator;
+        this.minElevation = minElevation;
+
+        var latRad = Math.toRadians(lat);
+        var lonRad = Math.toRadians(lon);
+        new GeoTransforms().LLAtoECEF(new Vect3d(lonRad, latRad, alt), stationPos);
+        stationUp.set(
+            Math.cos(latRad) * Math.cos(lonRad),
+            Math.cos(latRad) * Math.sin(lonRad),
+            Math.sin(latRad));
+    }
+
+
+    /**
+     * Predicts all passes of the given satellites in the given time period
+     * @param satIDs IDs of satellites
+     * @param startTime Julian time of start of period (seconds past 1970 epoch)
+     * @param stopTime Julian time of end of period (seconds past 1970 epoch)
+     * @param timeStep Coarse time step (s)
+     * @return List of passes, sorted by AOS time. AOS/LOS times are clipped
+     * to the time period when a pass is in progress at its start or end.
+     */
+    public List<Pass> predictPasses(int[] satIDs, double startTime, double stopTime, double timeStep)
+    {
+        var passes = new ConcurrentLinkedQueue<Pass>();
+        int numSteps = (int)Math.ceil((stopTime - startTime) / timeStep) + 1;
+
+        propagator.propagate(satIDs, startTime, timeStep, numSteps, (satID, positions) -> {
+            var geoConv = new GeoTransforms();
+            var state = MechanicalState.withPosOrder1();
+            double aosTime = Double.NaN;
+            int maxIdx = -1;
+
+            for (int k = 0; k < numSteps; k++)
+            {
+                double time = Math.min(stopTime, startTime + k * timeStep);
+                int idx = 3*k;
+                double elev = getElevation(positions[idx], positions[idx+1], positions[idx+2]);
+                if (Double.isNaN(elev))
+                    return;
+
+                boolean visible = elev >= minElevation;
+                if (visible)
+                {
+                    // AOS
+                    if (Double.isNaN(aosTime))
+                    {
+                        aosTime = (k == 0) ? startTime :
+                            refineCrossing(satID, time - timeStep, time, true, state, geoConv);
+                        maxIdx = k;
+                    }
+                    else if (elev > getElevation(positions, maxIdx))
+                        maxIdx = k;
+                }
+
+                // LOS
+                if (!Double.isNaN(aosTime) && (!visible || k == numSteps-1))
+                {
+                    double losTime = visible ? stopTime :
+                        refineCrossing(satID, time - timeStep, time, false, state, geoConv);
+                    double maxTime = refineMax(satID, startTime + maxIdx * timeStep, timeStep,
+                        Math.max(aosTime, startTime), Math.min(losTime, stopTime), state, geoConv);
+                    double maxElev = getElevation(satID, maxTime, state, geoConv);
+                    passes.add(new Pass(satID, aosTime, losTime, maxTime, maxElev));
+                    aosTime = Double.NaN;
+                }
+            }
+        });
+
+        var passList = new ArrayList<>(passes);
+        passList.sort(Comparator.comparingDouble(p -> p.aosTime));
+        return passList;
+    }
+
+
+    /*
+     * Find time where elevation crosses min elevation by bisection
+     */
+    protected double refineCrossing(int satID, double t0, double t1, boolean rising, MechanicalState state, GeoTransforms geoConv)
+    {
+        while (t1 - t0 > TIME_TOLERANCE)
+        {
+            double t = (t0 + t1) / 2;
+            boolean visible = getElevation(satID, t, state, geoConv) >= minElevation;
+            if (visible == rising)
+                t1 = t;
+            else
+                t0 = t;
+        }
+
+        return (t0 + t1) / 2;
+    }
+
+
+    /*
+     * Find time of max elevation by golden section search around coarse max
+     */
+    protected double refineMax(int satID, double tMax, double timeStep, double tMin, double tLimit, MechanicalState state, GeoTransforms geoConv)
+    {
+        double a = Math.max(tMin, tMax - timeStep);
+        double b = Math.min(tLimit, tMax + timeStep);
+        double c = b - GOLDEN_RATIO * (b - a);
+        double d = a + GOLDEN_RATIO * (b - a);
+        double fc = getElevation(satID, c, state, geoConv);
+        double fd = getElevation(satID, d, state, geoConv);
+
+        while (b - a > TIME_TOLERANCE)
+        {
+            if (fc > fd)
+            {
+                b = d;
+                d = c;
+                fd = fc;
+                c = b - GOLDEN_RATIO * (b - a);
+                fc = getElevation(satID, c, state, geoConv);
+            }
+            else
+            {
+                a = c;
+                c = d;
+                fc = fd;
+                d = a + GOLDEN_RATIO * (b - a);
+                fd = getElevation(satID, d, state, geoConv);
+            }
+        }
+
+        return (a + b) / 2;
+    }
+
+
+    protected double getElevation(int satID, double time, MechanicalState state, GeoTransforms geoConv)
+    {
+        state = propagator.getECEFState(satID, time, state, geoConv);
+        var pos = state.linearPosition;
+        return getElevation(pos.x, pos.y, pos.z);
+    }
+
+
+    protected double getElevation(double[] positions, int k)
+    {
+        int idx = 3*k;
+        return getElevation(positions[idx], positions[idx+1], positions[idx+2]);
+    }
+
+
+    /*
+     * Compute elevation above local horizon (deg) of given ECEF position
+     */
+    protected double getElevation(double x, double y, double z)
+    {
+        double dx = x - stationPos.x;
+        double dy = y - stationPos.y;
+        double dz = z - stationPos.z;
+        double range = Math.sqrt(dx*dx + dy*dy + dz*dz);
+        double up = dx*stationUp.x + dy*stationUp.y + dz*stationUp.z;
+        return Math.toDegrees(Math.asin(up / range));
+    }
+}
@@ -0,0 +1,191 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+ The contents of this file are Copyright (C) 2026 Sensia Software LLC.
+ All Rights Reserved.
+
+ Contributor(s):
+    Alexandre Robin <alex.robin@sensiasoftware.com>
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.sat.orbit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * <p>
+ * In-memory catalog of TLEs for any number of satellites.<br/>
+ * TLEs are parsed only once and stored in a time-sorted array for each
+ * satellite so the closest TLE to any time can be found by binary search,
+ * whatever the order of requests.
+ * </p><p>
+ * The catalog is immutable once loaded and can thus be safely shared by
+ * several threads.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class TLECatalog implements TLEProvider
+{
+    final Map<Integer, TLEInfo[]> tleMap;
+
+
+    protected TLECatalog(Map<Integer, TLEInfo[]> tleMap)
+    {
+        this.tleMap = tleMap;
+    }
+
+
+    /**
+     * Loads all TLEs from the given URL
+     * @param tleFileUrl URL of TLE file, with or without satellite name lines
+     * @return The new catalog
+     * @throws IOException if the file cannot be read
+     */
+    public static TLECatalog load(URL tleFileUrl) throws IOException
+    {
+        try (var reader = new InputStreamReader(tleFileUrl.openStream()))
+        {
+            return load(reader);
+        }
+    }
+
+
+    /**
+     * Loads all TLEs from the given reader
+     * @param reader Reader providing TLE data
+     * @return The new catalog
+     * @throws IOException if the data cannot be read
+     */
+    public static TLECatalog load(Reader reader) throws IOException
+    {
+        var tleLists = new HashMap<Integer, List<TLEInfo>>();
+        var br = new BufferedReader(reader);
+        String line, line1 = null, satName = null;
+
+        while ((line = br.readLine()) != null)
+        {
+            if (line.length() >= 69 && line.charAt(0) == '1' && line.charAt(1) == ' ')
+            {
+                line1 = line;
+            }
+            else if (line.length() >= 69 && line.charAt(0) == '2' && line.charAt(1) == ' ' && line1 != null)
+            {
+                var tle = TLEParser.parseTLE(line1, line);
+                tle.satName = satName;
+                tleLists.computeIfAbsent(tle.satID, k -> new ArrayList<>()).add(tle);
+                line1 = null;
+                satName = null;
+            }
+            else if (!line.isBlank())
+            {
+                // name line preceding line 1
+                satName = line.trim();
+                line1 = null;
+            }
+        }
+
+        // convert to time-sorted arrays
+        var tleMap = new HashMap<Integer, TLEInfo[]>();
+        for (var entry: tleLists.entrySet())
+        {
+            var tles = entry.getValue().toArray(new TLEInfo[0]);
+            Arrays.sort(tles, Comparator.comparingDouble(TLEInfo::getTleTime));
+            tleMap.put(entry.getKey(), tles);
+        }
+
+        return new TLECatalog(tleMap);
+    }
+
+
+    @Override
+    public TLEInfo getClosestTLE(String satID, double desiredTime)
+    {
+        return getClosestTLE(Integer.parseInt(satID.trim()), desiredTime);
+    }
+
+
+    /**
+     * Finds the TLE whose epoch is the closest to the given time
+     * @param satID ID of desired sat/object
+     * @param desiredTime Julian time (seconds past 1970 epoch)
+     * @return The TLE or null if the satellite is not in the catalog
+     */
+    public TLEInfo getClosestTLE(int satID, double desiredTime)
+    {
+        var tles = tleMap.get(satID);
+        if (tles == null)
+            return null;
+
+        return tles[getClosestIndex(tles, desiredTime)];
+    }
+
+
+    static int getClosestIndex(TLEInfo[] tles, double time)
+    {
+        // binary search for first TLE after desired time
+        int low = 0, high = tles.length;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (tles[mid].tleTime < time)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        if (low == 0)
+            return 0;
+        if (low == tles.length)
+            return low - 1;
+
+        // select closest of the two TLEs around requested time
+        double prevDelta = time - tles[low-1].tleTime;
+        double nextDelta = tles[low].tleTime - time;
+        return (prevDelta > nextDelta) ? low : low - 1;
+    }
+
+
+    /**
+     * @param satID ID of desired sat/object
+     * @return All TLEs available for the satellite, sorted by time, or
+     * an empty array if the satellite is not in the catalog
+     */
+    public TLEInfo[] getTLEs(int satID)
+    {
+        var tles = tleMap.get(satID);
+        return tles != null ? tles.clone() : new TLEInfo[0];
+    }
+
+
+    /**
+     * @return IDs of all satellites in the catalog
+     */
+    public Set<Integer> getSatelliteIDs()
+    {
+        return Collections.unmodifiableSet(tleMap.keySet());
+    }
+
+
+    /**
+     * @return Number of satellites in the catalog
+     */
+    public int size()
+    {
+        return tleMap.size();
+    }
+}
@@ -273,7 +273,7 @@ public class TLEParser implements TLEProvider
      * @param lineBuffer2
      * @return
      */
-    protected TLEInfo parseTLE(String lineBuffer1, String lineBuffer2)
+    protected static TLEInfo parseTLE(String lineBuffer1, String lineBuffer2)
     {
         TLEInfo tle = new TLEInfo();
         String text;
@@ -326,7 +326,7 @@ public class TLEParser implements TLEProvider
      * @param lineBuffer
      * @return
      */
-    protected double getJulian(String lineBuffer)
+    protected static double getJulian(String lineBuffer)
     {
         int year = Integer.valueOf(lineBuffer.substring(18, 20).trim()).intValue();
         double doyFrac = Double.valueOf(lineBuffer.substring(20, 32).trim()).doubleValue();
@@ -343,7 +343,7 @@ public class TLEParser implements TLEProvider
     }
     
     
-    protected boolean isLeapYear(int year)
+    protected static boolean isLeapYear(int year)
     {
         if((year%4)==0 && ( (year%100)!=0 || (year%400)==0 ))
             return true;
@@ -25,6 +25,7 @@ public class ProcessDescriptors extends AbstractProcessProvider
         addImpl(ECEFtoECI.INFO);
         addImpl(ECItoECEF.INFO);
         addImpl(TLEPredictor.INFO);
+        addImpl(SatPassPredictor.INFO);
     }
 
 }
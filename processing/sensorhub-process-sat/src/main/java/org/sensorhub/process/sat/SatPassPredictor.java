@@ -0,0 +1,210 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.sat;
+
+import java.io.IOException;
+import java.net.URL;
+import org.sensorhub.algo.sat.orbit.BatchOrbitPropagator;
+import org.sensorhub.algo.sat.orbit.PassPredictor;
+import org.sensorhub.algo.sat.orbit.TLECatalog;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ExecutableProcessImpl;
+import org.vast.process.ProcessException;
+import org.vast.swe.helper.GeoPosHelper;
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.Quantity;
+import net.opengis.swe.v20.Text;
+import net.opengis.swe.v20.Time;
+import net.opengis.swe.v20.Vector;
+
+
+/**
+ * <p>
+ * Process for predicting passes of one or more satellites over a ground
+ * station, using TLEs loaded from a file.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SatPassPredictor extends ExecutableProcessImpl
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("SatPassPredictor", "Satellite Pass Predictor", "Prediction of satellite passes over a ground station using Two-Line Elements orbit data", SatPassPredictor.class);
+
+    Time utcTime;
+    Count numPassesOut;
+    DataArray passesOut;
+    Text tleFileParam;
+    Text satIDsParam;
+    Vector stationLocParam;
+    Quantity minElevParam;
+    Quantity predictionWindowParam;
+    Quantity timeStepParam;
+
+    TLECatalog catalog;
+    PassPredictor passPredictor;
+    int[] satIDs;
+
+
+    public SatPassPredictor()
+    {
+        super(INFO);
+        GeoPosHelper swe = new GeoPosHelper();
+
+        // create time input
+        utcTime = swe.createTime()
+            .asSamplingTimeIsoUTC()
+            .label("Start Time")
+            .description("Start of prediction window")
+            .build();
+        inputData.add("startTime", utcTime);
+
+        // create pass list output
+        outputData.add("passes", swe.createRecord()
+            .label("Satellite Passes")
+            .addField("numPasses", numPassesOut = swe.createCount()
+                .id("NUM_PASSES")
+                .build())
+            .addField("passList", passesOut = swe.createArray()
+                .withSizeComponent(numPassesOut)
+                .withElement("pass", swe.createRecord()
+                    .addField("satID", swe.createCount()
+                        .label("Satellite ID")
+                        .description("NORAD ID of satellite"))
+                    .addField("aosTime", swe.createTime()
+                        .asSamplingTimeIsoUTC()
+                        .label("AOS Time")
+                        .description("Acquisition of signal time"))
+                    .addField("losTime", swe.createTime()
+                        .asSamplingTimeIsoUTC()
+                        .label("LOS Time")
+                        .description("Loss of signal time"))
+                    .addField("maxElevTime", swe.createTime()
+                        .asSamplingTimeIsoUTC()
+                        .label("Max Elevation Time"))
+                    .addField("maxElevation", swe.createQuantity()
+                        .label("Max Elevation")
+                        .uomCode("deg")))
+                .build())
+            .build());
+
+        // create params
+        paramData.add("tleFile", tleFileParam = swe.createText()
+            .label("TLE File URL")
+            .description("URL of file containing TLEs of all satellites")
+            .build());
+
+        paramData.add("satIDs", satIDsParam = swe.createText()
+            .label("Satellite IDs")
+            .description("Comma separated list of NORAD IDs. All satellites in TLE file are used if not set")
+            .build());
+
+        paramData.add("stationLocation", stationLocParam = swe.createLocationVectorLLA()
+            .label("Station Location")
+            .description("Geographic location of ground station")
+            .build());
+
+        paramData.add("minElevation", minElevParam = swe.createQuantity()
+            .label("Min Elevation")
+            .description("Min elevation above horizon for satellite to be visible")
+            .uomCode("deg")
+            .value(0.0)
+            .build());
+
+        paramData.add("predictionWindow", predictionWindowParam = swe.createQuantity()
+            .label("Prediction Window")
+            .description("Duration of prediction window")
+            .uomCode("s")
+            .value(86400.)
+            .build());
+
+        paramData.add("timeStep", timeStepParam = swe.createQuantity()
+            .label("Time Step")
+            .description("Coarse time step used to detect passes. Passes shorter than this may be missed")
+            .uomCode("s")
+            .value(60.)
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+
+        // load TLE catalog
+        String tleUrl = tleFileParam.getData().getStringValue();
+        try
+        {
+            catalog = TLECatalog.load(new URL(tleUrl));
+        }
+        catch (IOException e)
+        {
+            reportError("Cannot read TLE file " + tleUrl, e);
+        }
+
+        // parse satellite IDs
+        var satIDsData = satIDsParam.getData();
+        String satIDList = satIDsData != null ? satIDsData.getStringValue() : null;
+        if (satIDList != null && !satIDList.isBlank())
+        {
+            try
+            {
+                String[] tokens = satIDList.split(",");
+                satIDs = new int[tokens.length];
+                for (int i = 0; i < tokens.length; i++)
+                    satIDs[i] = Integer.parseInt(tokens[i].trim());
+            }
+            catch (NumberFormatException e)
+            {
+                reportError("Invalid satellite ID list: " + satIDList, e);
+            }
+        }
+        else
+            satIDs = catalog.getSatelliteIDs().stream().mapToInt(Integer::intValue).toArray();
+
+        var stationLoc = stationLocParam.getData();
+        passPredictor = new PassPredictor(
+            new BatchOrbitPropagator(catalog),
+            stationLoc.getDoubleValue(0),
+            stationLoc.getDoubleValue(1),
+            stationLoc.getDoubleValue(2),
+            minElevParam.getData().getDoubleValue());
+    }
+
+
+    @Override
+    public void execute() throws ProcessException
+    {
+        double startTime = utcTime.getData().getDoubleValue();
+        double stopTime = startTime + predictionWindowParam.getData().getDoubleValue();
+        double timeStep = timeStepParam.getData().getDoubleValue();
+        var passes = passPredictor.predictPasses(satIDs, startTime, stopTime, timeStep);
+
+        // send to output
+        passesOut.updateSize(passes.size());
+        var passData = passesOut.getData();
+        int idx = 0;
+        for (var pass: passes)
+        {
+            passData.setIntValue(idx++, pass.satID);
+            passData.setDoubleValue(idx++, pass.aosTime);
+            passData.setDoubleValue(idx++, pass.losTime);
+            passData.setDoubleValue(idx++, pass.maxElevationTime);
+            passData.setDoubleValue(idx++, pass.maxElevation);
+        }
+    }
+}
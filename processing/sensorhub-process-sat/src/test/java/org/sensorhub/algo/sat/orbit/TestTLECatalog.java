@@ -0,0 +1,120 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.sat.orbit;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.sensorhub.algo.geoloc.GeoTransforms;
+
+
+public class TestTLECatalog
+{
+    static final String[] SAT_IDS = {"39418", "40072", "41975"};
+
+
+    @Test
+    public void testSameResultsAsParser() throws Exception
+    {
+        var tleUrl = getClass().getResource("planet_all.tle");
+        var catalog = TLECatalog.load(tleUrl);
+        var refTime = catalog.getClosestTLE(SAT_IDS[0], 0).tleTime;
+
+        for (var satID: SAT_IDS)
+        {
+            // parser needs to be reset for each new satellite
+            var p = new TLEParser(tleUrl);
+
+            for (int k = -10; k <= 10; k++)
+            {
+                double time = refTime + k * 6 * 3600.;
+                var expected = p.getClosestTLE(satID, time);
+                var tle = catalog.getClosestTLE(satID, time);
+                assertEquals(expected.tleTime, tle.tleTime, 1e-3);
+                assertEquals(expected.meanAnomaly, tle.meanAnomaly, 1e-12);
+                assertEquals(expected.revNumber, tle.revNumber);
+            }
+        }
+
+        assertNull(catalog.getClosestTLE(12345, refTime));
+    }
+
+
+    @Test
+    public void testBatchPropagation() throws Exception
+    {
+        var catalog = TLECatalog.load(getClass().getResource("planet_all.tle"));
+        var satIDs = catalog.getSatelliteIDs().stream().mapToInt(Integer::intValue).toArray();
+        var startTime = catalog.getClosestTLE(SAT_IDS[0], 0).tleTime;
+        double timeStep = 30.0;
+        int numSteps = 100;
+
+        var batch = new BatchOrbitPropagator(catalog);
+        var positions = batch.computeECEFPositions(satIDs, startTime, timeStep, numSteps);
+        assertEquals(satIDs.length, positions.length);
+
+        // compare with single satellite propagation
+        var sgp4 = new SGP4Propagator();
+        var geoConv = new GeoTransforms();
+        for (int i = 0; i < satIDs.length; i += 5)
+        {
+            for (int k = 0; k < numSteps; k += 7)
+            {
+                double time = startTime + k * timeStep;
+                var tle = catalog.getClosestTLE(satIDs[i], time);
+                var state = sgp4.getECIOrbitalState(time, tle, null);
+                var pos = geoConv.ECItoECEF(time, state.linearPosition, state.linearPosition, false);
+                assertEquals(pos.x, positions[i][3*k], 1e-6);
+                assertEquals(pos.y, positions[i][3*k+1], 1e-6);
+                assertEquals(pos.z, positions[i][3*k+2], 1e-6);
+            }
+        }
+    }
+
+
+    @Test
+    public void testPassPrediction() throws Exception
+    {
+        var catalog = TLECatalog.load(getClass().getResource("planet_all.tle"));
+        var satIDs = catalog.getSatelliteIDs().stream().mapToInt(Integer::intValue).toArray();
+        var startTime = catalog.getClosestTLE(SAT_IDS[0], 0).tleTime;
+        var stopTime = startTime + 86400;
+        double minElev = 10.0;
+
+        var batch = new BatchOrbitPropagator(catalog);
+        var predictor = new PassPredictor(batch, 34.7, -86.6, 200.0, minElev);
+        var passes = predictor.predictPasses(satIDs, startTime, stopTime, 60.0);
+        assertFalse(passes.isEmpty());
+
+        var geoConv = new GeoTransforms();
+        var state = MechanicalState.withPosOrder1();
+        double prevAos = startTime;
+        for (var pass: passes)
+        {
+            assertTrue(pass.aosTime >= prevAos);
+            assertTrue(pass.aosTime < pass.losTime);
+            assertTrue(pass.maxElevationTime >= pass.aosTime && pass.maxElevationTime <= pass.losTime);
+            assertTrue(pass.maxElevation >= minElev);
+            assertTrue(pass.maxElevation <= 90.0);
+
+            // check elevation is close to min at AOS/LOS
+            if (pass.aosTime > startTime)
+                assertEquals(minElev, predictor.getElevation(pass.satID, pass.aosTime, state, geoConv), 0.1);
+            if (pass.losTime < stopTime)
+                assertEquals(minElev, predictor.getElevation(pass.satID, pass.losTime, state, geoConv), 0.1);
+
+            prevAos = pass.aosTime;
+        }
+    }
+}
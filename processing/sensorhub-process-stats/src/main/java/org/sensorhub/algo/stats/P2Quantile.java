@@ -0,0 +1,179 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.stats;
+
+
+/**
+ * <p>
+ * Streaming quantile estimator using the P-Square algorithm of Jain and
+ * Chlamtac (1985).
+ * </p><p>
+ * The estimate is maintained with 5 markers only, so memory and time per
+ * sample are constant and no sample is stored. The result is exact for the
+ * first 5 samples.
+ * </p><p>
+ * <b>This class is NOT thread-safe</b>
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class P2Quantile
+{
+    final double p;
+    final double[] q = new double[5]; // marker heights
+    final double[] n = new double[5]; // marker positions
+    final double[] np = new double[5]; // desired marker positions
+    final double[] dn = new double[5]; // desired position increments
+    long count;
+
+
+    /**
+     * @param p Quantile to estimate, between 0 and 1 (e.g. 0.5 for median)
+     */
+    public P2Quantile(double p)
+    {
+        if (!(p > 0.0 && p < 1.0))
+            throw new IllegalArgumentException("Quantile must be between 0 and 1 (exclusive)");
+
+        this.p = p;
+        dn[0] = 0.0;
+        dn[1] = p / 2.0;
+        dn[2] = p;
+        dn[3] = (1.0 + p) / 2.0;
+        dn[4] = 1.0;
+        reset();
+    }
+
+
+    /**
+     * Resets the estimator to its initial state
+     */
+    public void reset()
+    {
+        count = 0;
+        for (int i = 0; i < 5; i++)
+            n[i] = i + 1;
+
+        np[0] = 1.0;
+        np[1] = 1.0 + 2.0*p;
+        np[2] = 1.0 + 4.0*p;
+        np[3] = 3.0 + 2.0*p;
+        np[4] = 5.0;
+    }
+
+
+    /**
+     * Adds a sample. NaN values are ignored.
+     * @param x Sample value
+     */
+    public void add(double x)
+    {
+        if (Double.isNaN(x))
+            return;
+
+        // keep first samples sorted
+        if (count < 5)
+        {
+            int i = (int)count++;
+            while (i > 0 && q[i-1] > x)
+            {
+                q[i] = q[i-1];
+                i--;
+            }
+            q[i] = x;
+            return;
+        }
+
+        count++;
+
+        // find cell containing new sample and adjust extreme markers
+        int k;
+        if (x < q[0])
+        {
+            q[0] = x;
+            k = 0;
+        }
+        else if (x >= q[4])
+        {
+            q[4] = x;
+            k = 3;
+        }
+        else
+        {
+            k = 0;
+            while (x >= q[k+1])
+                k++;
+        }
+
+        // increment positions of markers above new sample
+        for (int i = k+1; i < 5; i++)
+            n[i]++;
+        for (int i = 0; i < 5; i++)
+            np[i] += dn[i];
+
+        // adjust heights of middle markers if needed
+        for (int i = 1; i < 4; i++)
+        {
+            double d = np[i] - n[i];
+            if ((d >= 1.0 && n[i+1] - n[i] > 1.0) || (d <= -1.0 && n[i-1] - n[i] < -1.0))
+            {
+                int s = d >= 0 ? 1 : -1;
+                double qp = parabolic(i, s);
+                if (q[i-1] < qp && qp < q[i+1])
+                    q[i] = qp;
+                else
+                    q[i] = linear(i, s);
+                n[i] += s;
+            }
+        }
+    }
+
+
+    /**
+     * @return The current quantile estimate, or NaN if no sample was added
+     */
+    public double getQuantile()
+    {
+        if (count == 0)
+            return Double.NaN;
+
+        // use nearest rank on sorted samples until we have enough
+        if (count <= 5)
+            return q[(int)Math.round(p * (count - 1))];
+
+        return q[2];
+    }
+
+
+    public long getCount()
+    {
+        return count;
+    }
+
+
+    private double parabolic(int i, int s)
+    {
+        return q[i] + s / (n[i+1] - n[i-1]) * (
+            (n[i] - n[i-1] + s) * (q[i+1] - q[i]) / (n[i+1] - n[i]) +
+            (n[i+1] - n[i] - s) * (q[i] - q[i-1]) / (n[i] - n[i-1]));
+    }
+
+
+    private double linear(int i, int s)
+    {
+        return q[i] + s * (q[i+s] - q[i]) / (n[i+s] - n[i]);
+    }
+}
@@ -0,0 +1,264 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.stats;
+
+
+/**
+ * <p>
+ * Running statistics (count, mean, min, max, standard deviation) over a
+ * window of time stamped samples.
+ * </p><p>
+ * Samples are kept in a ring buffer so old samples can be removed from the
+ * window one by one (sliding window), or all at once (tumbling window).
+ * Min and max are maintained with monotonic queues so all operations run in
+ * constant amortized time. No object is allocated unless the buffer needs
+ * to grow. Samples must be added in time order.
+ * </p><p>
+ * <b>This class is NOT thread-safe</b>
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class WindowStatistics
+{
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    int mask;
+    double[] times;
+    double[] values;
+    long first, next; // sequence numbers of oldest and next sample
+
+    // monotonic queues of sample sequence numbers
+    long[] minQueue, maxQueue;
+    long minFirst, minNext, maxFirst, maxNext;
+
+    // sums are computed relative to a shift value to limit cancellation errors
+    double shift, sum, sumSq;
+    int numRemoved;
+
+
+    public WindowStatistics()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * @param initialCapacity Number of samples that can be stored before the
+     * buffer needs to grow
+     */
+    public WindowStatistics(int initialCapacity)
+    {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+        this.mask = capacity - 1;
+        this.times = new double[capacity];
+        this.values = new double[capacity];
+        this.minQueue = new long[capacity];
+        this.maxQueue = new long[capacity];
+    }
+
+
+    /**
+     * Adds a sample to the window. NaN values are ignored.
+     * @param time Sample time stamp
+     * @param value Sample value
+     */
+    public void add(double time, double value)
+    {
+        if (Double.isNaN(value))
+            return;
+
+        if (next - first > mask)
+            grow();
+
+        if (first == next)
+        {
+            shift = value;
+            sum = sumSq = 0.0;
+        }
+
+        int idx = (int)(next & mask);
+        times[idx] = time;
+        values[idx] = value;
+
+        double d = value - shift;
+        sum += d;
+        sumSq += d*d;
+
+        // drop queued samples that can't be min or max anymore
+        while (minNext > minFirst && values[(int)(minQueue[(int)((minNext-1) & mask)] & mask)] >= value)
+            minNext--;
+        minQueue[(int)(minNext++ & mask)] = next;
+
+        while (maxNext > maxFirst && values[(int)(maxQueue[(int)((maxNext-1) & mask)] & mask)] <= value)
+            maxNext--;
+        maxQueue[(int)(maxNext++ & mask)] = next;
+
+        next++;
+    }
+
+
+    /**
+     * Removes all samples older than the given time from the window
+     * @param time Time stamp of the oldest sample to keep
+     */
+    public void removeBefore(double time)
+    {
+        while (first < next && times[(int)(first & mask)] < time)
+            removeOldest();
+    }
+
+
+    /**
+     * Removes the oldest sample from the window
+     */
+    public void removeOldest()
+    {
+        if (first == next)
+            return;
+
+        double d = values[(int)(first & mask)] - shift;
+        sum -= d;
+        sumSq -= d*d;
+
+        if (minQueue[(int)(minFirst & mask)] == first)
+            minFirst++;
+        if (maxQueue[(int)(maxFirst & mask)] == first)
+            maxFirst++;
+        first++;
+
+        // periodically recompute sums to avoid accumulating rounding errors
+        if (++numRemoved > mask)
+            recomputeSums();
+    }
+
+
+    /**
+     * Removes all samples from the window
+     */
+    public void clear()
+    {
+        first = next;
+        minFirst = minNext;
+        maxFirst = maxNext;
+        sum = sumSq = 0.0;
+        numRemoved = 0;
+    }
+
+
+    public int getCount()
+    {
+        return (int)(next - first);
+    }
+
+
+    public double getMean()
+    {
+        int n = getCount();
+        return n > 0 ? shift + sum / n : Double.NaN;
+    }
+
+
+    /**
+     * @return The sample standard deviation, 0 if the window contains a
+     * single sample or NaN if it is empty
+     */
+    public double getStdDev()
+    {
+        int n = getCount();
+        if (n == 0)
+            return Double.NaN;
+        if (n == 1)
+            return 0.0;
+
+        double var = (sumSq - sum*sum/n) / (n - 1);
+        return var > 0.0 ? Math.sqrt(var) : 0.0;
+    }
+
+
+    public double getMin()
+    {
+        if (first == next)
+            return Double.NaN;
+        return values[(int)(minQueue[(int)(minFirst & mask)] & mask)];
+    }
+
+
+    public double getMax()
+    {
+        if (first == next)
+            return Double.NaN;
+        return values[(int)(maxQueue[(int)(maxFirst & mask)] & mask)];
+    }
+
+
+    public double getOldestTime()
+    {
+        return first < next ? times[(int)(first & mask)] : Double.NaN;
+    }
+
+
+    public double getLatestTime()
+    {
+        return first < next ? times[(int)((next-1) & mask)] : Double.NaN;
+    }
+
+
+    protected void recomputeSums()
+    {
+        sum = sumSq = 0.0;
+        if (first < next)
+            shift = values[(int)(first & mask)];
+
+        for (long seq = first; seq < next; seq++)
+        {
+            double d = values[(int)(seq & mask)] - shift;
+            sum += d;
+            sumSq += d*d;
+        }
+
+        numRemoved = 0;
+    }
+
+
+    protected void grow()
+    {
+        int newCapacity = times.length * 2;
+        int newMask = newCapacity - 1;
+        double[] newTimes = new double[newCapacity];
+        double[] newValues = new double[newCapacity];
+        long[] newMinQueue = new long[newCapacity];
+        long[] newMaxQueue = new long[newCapacity];
+
+        for (long seq = first; seq < next; seq++)
+        {
+            newTimes[(int)(seq & newMask)] = times[(int)(seq & mask)];
+            newValues[(int)(seq & newMask)] = values[(int)(seq & mask)];
+        }
+
+        for (long pos = minFirst; pos < minNext; pos++)
+            newMinQueue[(int)(pos & newMask)] = minQueue[(int)(pos & mask)];
+
+        for (long pos = maxFirst; pos < maxNext; pos++)
+            newMaxQueue[(int)(pos & newMask)] = maxQueue[(int)(pos & mask)];
+
+        times = newTimes;
+        values = newValues;
+        minQueue = newMinQueue;
+        maxQueue = newMaxQueue;
+        mask = newMask;
+    }
+}
@@ -0,0 +1,121 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.stats;
+
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.Quantity;
+import net.opengis.swe.v20.Time;
+import org.vast.process.ExecutableProcessImpl;
+import org.vast.process.ProcessException;
+import org.vast.process.ProcessInfo;
+import org.vast.swe.SWEConstants;
+import org.vast.swe.SWEHelper;
+
+
+/**
+ * <p>
+ * Base class for processes consuming a stream of time stamped numeric
+ * values, one sample per execution.
+ * </p><p>
+ * Outputs are only published when {@link #publish} is set during the
+ * execution, so subclasses can reduce the output rate.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public abstract class AbstractStreamProcess extends ExecutableProcessImpl
+{
+    protected Time timeIn;
+    protected Quantity valueIn;
+    protected boolean publish;
+
+
+    protected AbstractStreamProcess(ProcessInfo info)
+    {
+        super(info);
+        var swe = new SWEHelper();
+
+        // inputs
+        inputData.add("time", timeIn = swe.createTime()
+            .asSamplingTimeIsoUTC()
+            .label("Sampling Time")
+            .build());
+
+        inputData.add("value", valueIn = swe.createQuantity()
+            .definition(SWEConstants.DEF_DN)
+            .label("Value")
+            .uomUri(SWEConstants.UOM_ANY)
+            .build());
+    }
+
+
+    @Override
+    public void execute() throws ProcessException
+    {
+        publish = false;
+
+        double time = timeIn.getData().getDoubleValue();
+        double value = valueIn.getData().getDoubleValue();
+        processSample(time, value);
+    }
+
+
+    /**
+     * Processes the next sample of the stream
+     * @param time Sample time stamp (seconds since Unix epoch)
+     * @param value Sample value
+     * @throws ProcessException if the sample cannot be processed
+     */
+    protected abstract void processSample(double time, double value) throws ProcessException;
+
+
+    /*
+     * Create a result record with a time stamp and a single value
+     */
+    protected DataRecord createResultRecord(SWEHelper swe, String label, String valueName, String valueLabel)
+    {
+        return swe.createRecord()
+            .label(label)
+            .addField("time", swe.createTime()
+                .asSamplingTimeIsoUTC()
+                .label("Time Stamp"))
+            .addField(valueName, swe.createQuantity()
+                .definition(SWEConstants.DEF_DN)
+                .label(valueLabel)
+                .uomUri(SWEConstants.UOM_ANY))
+            .build();
+    }
+
+
+    /*
+     * Read a duration parameter in seconds and check that it is positive
+     */
+    protected double readDuration(Quantity param, boolean allowZero) throws ProcessException
+    {
+        double val = param.getData().getDoubleValue();
+        if (Double.isNaN(val) || val < 0.0 || (!allowZero && val == 0.0))
+            reportError("Invalid value for parameter '" + param.getName() + "': " + val);
+        return val;
+    }
+
+
+    @Override
+    protected void publishData() throws InterruptedException
+    {
+        if (publish)
+            super.publishData();
+    }
+}
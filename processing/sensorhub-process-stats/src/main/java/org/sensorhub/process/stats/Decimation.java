@@ -0,0 +1,110 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.stats;
+
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.Quantity;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+import org.vast.swe.SWEConstants;
+import org.vast.swe.SWEHelper;
+
+
+/**
+ * <p>
+ * Reduces the rate of a numeric stream by only keeping one sample out of N,
+ * and/or by dropping samples received less than a minimum interval after
+ * the last output sample.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class Decimation extends AbstractStreamProcess
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("stats:Decimation", "Decimation", "Output only one value out of N and/or at most one value per time interval", Decimation.class);
+
+    protected Count factorParam;
+    protected Quantity minIntervalParam;
+    protected DataRecord resultOut;
+
+    protected int factor;
+    protected double minInterval;
+    protected int sampleCount;
+    protected double lastOutputTime;
+
+
+    public Decimation()
+    {
+        super(INFO);
+        var swe = new SWEHelper();
+
+        // outputs
+        outputData.add("result", resultOut = createResultRecord(swe, "Decimated Value", "value", "Value"));
+
+        // parameters
+        paramData.add("factor", factorParam = swe.createCount()
+            .definition(SWEConstants.DEF_COUNT)
+            .label("Decimation Factor")
+            .description("Keep one sample out of N")
+            .value(1)
+            .build());
+
+        paramData.add("minInterval", minIntervalParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("SamplingPeriod"))
+            .label("Minimum Interval")
+            .description("Minimum time between output samples, 0 for no limit")
+            .uomCode("s")
+            .value(0.0)
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+
+        factor = factorParam.getData().getIntValue();
+        if (factor < 1)
+            reportError("Decimation factor must be at least 1");
+
+        minInterval = readDuration(minIntervalParam, true);
+        sampleCount = 0;
+        lastOutputTime = Double.NEGATIVE_INFINITY;
+    }
+
+
+    @Override
+    protected void processSample(double time, double value) throws ProcessException
+    {
+        // keep first sample of each group of N
+        boolean keep = sampleCount == 0;
+        if (++sampleCount >= factor)
+            sampleCount = 0;
+        if (!keep)
+            return;
+
+        if (time - lastOutputTime < minInterval)
+            return;
+
+        lastOutputTime = time;
+        var resultData = resultOut.getData();
+        resultData.setDoubleValue(0, time);
+        resultData.setDoubleValue(1, value);
+        publish = true;
+    }
+}
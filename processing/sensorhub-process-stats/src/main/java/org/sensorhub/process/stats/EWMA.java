@@ -0,0 +1,100 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.stats;
+
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.Quantity;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+import org.vast.swe.SWEHelper;
+
+
+/**
+ * <p>
+ * Exponentially weighted moving average of a numeric stream.
+ * </p><p>
+ * The smoothing factor is computed from the time elapsed since the previous
+ * sample and the configured time constant, so irregularly sampled streams
+ * are averaged consistently. The average is output for every sample.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class EWMA extends AbstractStreamProcess
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("stats:EWMA", "Exponential Moving Average", "Compute the exponentially weighted moving average of the values received", EWMA.class);
+
+    protected Quantity timeConstantParam;
+    protected DataRecord resultOut;
+
+    protected double timeConstant;
+    protected double average;
+    protected double lastTime;
+
+
+    public EWMA()
+    {
+        super(INFO);
+        var swe = new SWEHelper();
+
+        // outputs
+        outputData.add("result", resultOut = createResultRecord(swe, "Moving Average", "average", "Average Value"));
+
+        // parameters
+        paramData.add("timeConstant", timeConstantParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("TimeConstant"))
+            .label("Time Constant")
+            .description("Time after which the weight of a sample has decayed to 1/e")
+            .uomCode("s")
+            .value(10.0)
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+        timeConstant = readDuration(timeConstantParam, false);
+        average = Double.NaN;
+        lastTime = Double.NaN;
+    }
+
+
+    @Override
+    protected void processSample(double time, double value) throws ProcessException
+    {
+        if (Double.isNaN(value))
+            return;
+
+        if (Double.isNaN(average))
+        {
+            average = value;
+        }
+        else
+        {
+            double dt = time - lastTime;
+            if (dt > 0.0)
+                average += (1.0 - Math.exp(-dt / timeConstant)) * (value - average);
+        }
+
+        lastTime = time;
+        var resultData = resultOut.getData();
+        resultData.setDoubleValue(0, time);
+        resultData.setDoubleValue(1, average);
+        publish = true;
+    }
+}
@@ -0,0 +1,112 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.stats;
+
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.Quantity;
+import org.sensorhub.algo.stats.P2Quantile;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+import org.vast.swe.SWEHelper;
+
+
+/**
+ * <p>
+ * Estimates a percentile (e.g. median, 95th percentile) of a numeric stream
+ * over tumbling time windows, without storing samples.
+ * </p><p>
+ * Windows are aligned on multiples of the window duration and the estimate
+ * is output when the first sample of the next window is received.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class Percentile extends AbstractStreamProcess
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("stats:Percentile", "Percentile", "Estimate a percentile of the values received over tumbling time windows", Percentile.class);
+
+    protected Quantity percentileParam;
+    protected Quantity windowDurationParam;
+    protected DataRecord resultOut;
+
+    protected P2Quantile estimator;
+    protected double windowDuration;
+    protected double currentWindow;
+
+
+    public Percentile()
+    {
+        super(INFO);
+        var swe = new SWEHelper();
+
+        // outputs
+        outputData.add("result", resultOut = createResultRecord(swe, "Percentile", "value", "Percentile Value"));
+
+        // parameters
+        paramData.add("percentile", percentileParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("Percentile"))
+            .label("Percentile")
+            .description("Percentile to estimate, between 0 and 100 (exclusive)")
+            .uomCode("%")
+            .value(50.0)
+            .build());
+
+        paramData.add("windowDuration", windowDurationParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("Duration"))
+            .label("Window Duration")
+            .uomCode("s")
+            .value(60.0)
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+
+        try
+        {
+            estimator = new P2Quantile(percentileParam.getData().getDoubleValue() / 100.0);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ProcessException("Invalid percentile. Must be between 0 and 100", e);
+        }
+
+        windowDuration = readDuration(windowDurationParam, false);
+        currentWindow = Double.NaN;
+    }
+
+
+    @Override
+    protected void processSample(double time, double value) throws ProcessException
+    {
+        // output estimate when we move to the next window
+        double window = Math.floor(time / windowDuration);
+        if (estimator.getCount() > 0 && window != currentWindow)
+        {
+            var resultData = resultOut.getData();
+            resultData.setDoubleValue(0, (currentWindow + 1) * windowDuration);
+            resultData.setDoubleValue(1, estimator.getQuantile());
+            estimator.reset();
+            publish = true;
+        }
+
+        currentWindow = window;
+        estimator.add(value);
+    }
+}
@@ -0,0 +1,84 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.stats;
+
+import net.opengis.swe.v20.DataRecord;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+import org.vast.swe.SWEHelper;
+
+
+/**
+ * <p>
+ * Computes the rate of change (per second) of a numeric stream between
+ * consecutive samples.
+ * </p><p>
+ * Nothing is output for the first sample or for samples that don't have a
+ * later time stamp than the previous one.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class RateOfChange extends AbstractStreamProcess
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("stats:RateOfChange", "Rate of Change", "Compute the rate of change of the values received, in units per second", RateOfChange.class);
+
+    protected DataRecord resultOut;
+
+    protected double lastTime;
+    protected double lastValue;
+
+
+    public RateOfChange()
+    {
+        super(INFO);
+        var swe = new SWEHelper();
+
+        // outputs
+        outputData.add("result", resultOut = createResultRecord(swe, "Rate of Change", "rate", "Rate"));
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+        lastTime = Double.NaN;
+        lastValue = Double.NaN;
+    }
+
+
+    @Override
+    protected void processSample(double time, double value) throws ProcessException
+    {
+        if (Double.isNaN(value))
+            return;
+
+        double dt = time - lastTime;
+        if (dt > 0.0)
+        {
+            var resultData = resultOut.getData();
+            resultData.setDoubleValue(0, time);
+            resultData.setDoubleValue(1, (value - lastValue) / dt);
+            publish = true;
+        }
+        else if (!Double.isNaN(lastTime))
+            return;
+
+        lastTime = time;
+        lastValue = value;
+    }
+}
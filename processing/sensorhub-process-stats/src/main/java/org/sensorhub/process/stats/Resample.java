@@ -0,0 +1,136 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.stats;
+
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.Quantity;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+import org.vast.swe.SWEHelper;
+
+
+/**
+ * <p>
+ * Resamples a numeric stream at a fixed rate using linear interpolation.
+ * </p><p>
+ * Output time stamps are multiples of the sampling period. Each input
+ * sample can produce zero, one or several output samples, depending on
+ * the input rate. No value is interpolated across gaps longer than the
+ * maximum gap duration, if one is set.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class Resample extends AbstractStreamProcess
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("stats:Resample", "Resampling", "Resample values at a fixed rate using linear interpolation", Resample.class);
+
+    protected Quantity samplingPeriodParam;
+    protected Quantity maxGapParam;
+    protected DataRecord resultOut;
+
+    protected double samplingPeriod;
+    protected double maxGap;
+    protected double lastTime;
+    protected double lastValue;
+    protected long nextOutputIndex;
+
+
+    public Resample()
+    {
+        super(INFO);
+        var swe = new SWEHelper();
+
+        // outputs
+        outputData.add("result", resultOut = createResultRecord(swe, "Resampled Value", "value", "Value"));
+
+        // parameters
+        paramData.add("samplingPeriod", samplingPeriodParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("SamplingPeriod"))
+            .label("Sampling Period")
+            .uomCode("s")
+            .value(1.0)
+            .build());
+
+        paramData.add("maxGap", maxGapParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("Duration"))
+            .label("Maximum Gap")
+            .description("Maximum time between input samples to interpolate, 0 for no limit")
+            .uomCode("s")
+            .value(0.0)
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+        samplingPeriod = readDuration(samplingPeriodParam, false);
+        maxGap = readDuration(maxGapParam, true);
+        lastTime = Double.NaN;
+        lastValue = Double.NaN;
+    }
+
+
+    @Override
+    protected void processSample(double time, double value) throws ProcessException
+    {
+        if (Double.isNaN(value) || time <= lastTime)
+            return;
+
+        // restart after first sample or long gap
+        double dt = time - lastTime;
+        if (Double.isNaN(lastTime) || (maxGap > 0.0 && dt > maxGap))
+        {
+            nextOutputIndex = (long)Math.ceil(time / samplingPeriod);
+            lastTime = time;
+            lastValue = value;
+            dt = 0.0;
+        }
+
+        // output all samples up to current time
+        // samples are published here since there can be several per input
+        try
+        {
+            // compute times from index to avoid accumulating rounding errors
+            double outputTime;
+            while ((outputTime = nextOutputIndex * samplingPeriod) <= time)
+            {
+                double a = dt > 0.0 ? (outputTime - lastTime) / dt : 1.0;
+                var resultData = resultOut.getData();
+                resultData.setDoubleValue(0, outputTime);
+                resultData.setDoubleValue(1, lastValue + a * (value - lastValue));
+                nextOutputIndex++;
+
+                publish = true;
+                publishData();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            // don't publish last sample again after execute
+            publish = false;
+        }
+
+        lastTime = time;
+        lastValue = value;
+    }
+}
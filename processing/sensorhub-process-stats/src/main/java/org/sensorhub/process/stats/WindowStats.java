@@ -0,0 +1,188 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.stats;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.Quantity;
+import net.opengis.swe.v20.Text;
+import org.sensorhub.algo.stats.WindowStatistics;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+import org.vast.swe.SWEConstants;
+import org.vast.swe.SWEHelper;
+
+
+/**
+ * <p>
+ * Computes count, mean, min, max and standard deviation of a numeric
+ * stream over time windows.
+ * </p><p>
+ * In TUMBLING mode, windows are contiguous and aligned on multiples of the
+ * window duration (e.g. every minute), and statistics are output once when
+ * the first sample of the next window is received.<br/>
+ * In SLIDING mode, statistics over the last window duration are output for
+ * every sample, or at most once per output interval if one is set.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class WindowStats extends AbstractStreamProcess
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("stats:WindowStats", "Window Statistics", "Compute mean, min, max and standard deviation over tumbling or sliding time windows", WindowStats.class);
+    enum WindowTypeEnum {TUMBLING, SLIDING}
+
+    protected Text windowTypeParam;
+    protected Quantity windowDurationParam;
+    protected Quantity outputIntervalParam;
+    protected DataRecord statsOut;
+
+    protected WindowStatistics stats = new WindowStatistics();
+    protected WindowTypeEnum windowType;
+    protected double windowDuration;
+    protected double outputInterval;
+    protected double currentWindow;
+    protected double nextOutputTime;
+
+
+    public WindowStats()
+    {
+        super(INFO);
+        var swe = new SWEHelper();
+
+        // outputs
+        outputData.add("stats", statsOut = swe.createRecord()
+            .label("Window Statistics")
+            .addField("time", swe.createTime()
+                .asSamplingTimeIsoUTC()
+                .label("Window End Time"))
+            .addField("count", swe.createCount()
+                .definition(SWEConstants.DEF_COUNT)
+                .label("Sample Count"))
+            .addField("mean", swe.createQuantity()
+                .definition(SWEHelper.getPropertyUri("Mean"))
+                .label("Mean")
+                .uomUri(SWEConstants.UOM_ANY))
+            .addField("min", swe.createQuantity()
+                .definition(SWEHelper.getPropertyUri("Minimum"))
+                .label("Minimum")
+                .uomUri(SWEConstants.UOM_ANY))
+            .addField("max", swe.createQuantity()
+                .definition(SWEHelper.getPropertyUri("Maximum"))
+                .label("Maximum")
+                .uomUri(SWEConstants.UOM_ANY))
+            .addField("stdDev", swe.createQuantity()
+                .definition(SWEHelper.getPropertyUri("StandardDeviation"))
+                .label("Standard Deviation")
+                .uomUri(SWEConstants.UOM_ANY))
+            .build());
+
+        // parameters
+        paramData.add("windowType", windowTypeParam = swe.createText()
+            .definition(SWEHelper.getPropertyUri("WindowType"))
+            .label("Window Type")
+            .addAllowedValues(Stream.of(WindowTypeEnum.values())
+                .map(e -> e.toString())
+                .collect(Collectors.toList()))
+            .value(WindowTypeEnum.TUMBLING.toString())
+            .build());
+
+        paramData.add("windowDuration", windowDurationParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("Duration"))
+            .label("Window Duration")
+            .uomCode("s")
+            .value(60.0)
+            .build());
+
+        paramData.add("outputInterval", outputIntervalParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("SamplingPeriod"))
+            .label("Output Interval")
+            .description("Minimum time between outputs in SLIDING mode, 0 to output on every sample")
+            .uomCode("s")
+            .value(0.0)
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+
+        try
+        {
+            windowType = WindowTypeEnum.valueOf(windowTypeParam.getData().getStringValue());
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ProcessException("Invalid window type. Must be one of " + Arrays.toString(WindowTypeEnum.values()), e);
+        }
+
+        windowDuration = readDuration(windowDurationParam, false);
+        outputInterval = readDuration(outputIntervalParam, true);
+
+        stats.clear();
+        currentWindow = Double.NaN;
+        nextOutputTime = Double.NEGATIVE_INFINITY;
+    }
+
+
+    @Override
+    protected void processSample(double time, double value) throws ProcessException
+    {
+        if (windowType == WindowTypeEnum.TUMBLING)
+        {
+            // output stats when we move to the next window
+            double window = Math.floor(time / windowDuration);
+            if (stats.getCount() > 0 && window != currentWindow)
+            {
+                writeStats((currentWindow + 1) * windowDuration);
+                stats.clear();
+            }
+
+            currentWindow = window;
+            stats.add(time, value);
+        }
+        else
+        {
+            stats.add(time, value);
+            stats.removeBefore(time - windowDuration);
+
+            if (time >= nextOutputTime && stats.getCount() > 0)
+            {
+                writeStats(time);
+                if (outputInterval > 0.0)
+                    nextOutputTime = (Math.floor(time / outputInterval) + 1) * outputInterval;
+            }
+        }
+    }
+
+
+    protected void writeStats(double time)
+    {
+        var statsData = statsOut.getData();
+        int idx = 0;
+        statsData.setDoubleValue(idx++, time);
+        statsData.setIntValue(idx++, stats.getCount());
+        statsData.setDoubleValue(idx++, stats.getMean());
+        statsData.setDoubleValue(idx++, stats.getMin());
+        statsData.setDoubleValue(idx++, stats.getMax());
+        statsData.setDoubleValue(idx++, stats.getStdDev());
+        publish = true;
+    }
+}
@@ -0,0 +1,89 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.stats;
+
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class TestP2Quantile
+{
+
+    void testQuantile(double p, double[] values, double tolerance)
+    {
+        var estimator = new P2Quantile(p);
+        for (double v: values)
+            estimator.add(v);
+
+        var sorted = values.clone();
+        Arrays.sort(sorted);
+        double expected = sorted[(int)Math.round(p * (sorted.length - 1))];
+        assertEquals(expected, estimator.getQuantile(), tolerance);
+    }
+
+
+    @Test
+    public void testUniform()
+    {
+        var random = new Random(42);
+        double[] values = new double[100000];
+        for (int i = 0; i < values.length; i++)
+            values[i] = random.nextDouble() * 100.0;
+
+        testQuantile(0.5, values, 0.5);
+        testQuantile(0.9, values, 0.5);
+        testQuantile(0.99, values, 0.5);
+    }
+
+
+    @Test
+    public void testNormal()
+    {
+        var random = new Random(42);
+        double[] values = new double[100000];
+        for (int i = 0; i < values.length; i++)
+            values[i] = 20.0 + random.nextGaussian() * 5.0;
+
+        testQuantile(0.5, values, 0.05);
+        testQuantile(0.05, values, 0.1);
+        testQuantile(0.95, values, 0.1);
+    }
+
+
+    @Test
+    public void testFewSamples()
+    {
+        var estimator = new P2Quantile(0.5);
+        assertTrue(Double.isNaN(estimator.getQuantile()));
+
+        estimator.add(3.0);
+        estimator.add(1.0);
+        estimator.add(2.0);
+        assertEquals(2.0, estimator.getQuantile(), 0.0);
+
+        estimator.reset();
+        estimator.add(10.0);
+        assertEquals(10.0, estimator.getQuantile(), 0.0);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile()
+    {
+        new P2Quantile(1.0);
+    }
+}
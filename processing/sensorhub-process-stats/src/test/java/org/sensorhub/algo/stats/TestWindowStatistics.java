@@ -0,0 +1,126 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.stats;
+
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class TestWindowStatistics
+{
+    static final double EPS = 1e-9;
+
+
+    void checkStats(WindowStatistics stats, double[] values, int from, int to)
+    {
+        var window = Arrays.copyOfRange(values, from, to);
+        int n = window.length;
+        assertEquals(n, stats.getCount());
+
+        double mean = Arrays.stream(window).average().getAsDouble();
+        double var = Arrays.stream(window).map(v -> (v-mean)*(v-mean)).sum() / (n-1);
+        assertEquals(mean, stats.getMean(), EPS);
+        assertEquals(Math.sqrt(var), stats.getStdDev(), EPS);
+        assertEquals(Arrays.stream(window).min().getAsDouble(), stats.getMin(), 0.0);
+        assertEquals(Arrays.stream(window).max().getAsDouble(), stats.getMax(), 0.0);
+    }
+
+
+    @Test
+    public void testSlidingWindow()
+    {
+        // use small capacity to also test buffer growth
+        var stats = new WindowStatistics(4);
+        var random = new Random(42);
+        int numSamples = 5000;
+        int windowSize = 100;
+        double[] values = new double[numSamples];
+
+        for (int i = 0; i < numSamples; i++)
+        {
+            values[i] = 1000.0 + random.nextGaussian() * 10.0;
+            stats.add(i, values[i]);
+            stats.removeBefore(i - windowSize + 1);
+
+            if (i >= windowSize)
+                checkStats(stats, values, i - windowSize + 1, i + 1);
+        }
+    }
+
+
+    @Test
+    public void testMonotonicValues()
+    {
+        var stats = new WindowStatistics(8);
+
+        // increasing values, min is always the oldest sample
+        for (int i = 0; i < 100; i++)
+        {
+            stats.add(i, i);
+            stats.removeBefore(i - 9);
+            assertEquals(Math.max(0, i - 9), stats.getMin(), 0.0);
+            assertEquals(i, stats.getMax(), 0.0);
+        }
+
+        // decreasing values, max is always the oldest sample
+        stats.clear();
+        for (int i = 0; i < 100; i++)
+        {
+            stats.add(i, -i);
+            stats.removeBefore(i - 9);
+            assertEquals(-i, stats.getMin(), 0.0);
+            assertEquals(-Math.max(0, i - 9), stats.getMax(), 0.0);
+        }
+    }
+
+
+    @Test
+    public void testTumblingWindow()
+    {
+        var stats = new WindowStatistics();
+        assertEquals(0, stats.getCount());
+        assertTrue(Double.isNaN(stats.getMean()));
+        assertTrue(Double.isNaN(stats.getMin()));
+
+        for (int w = 0; w < 10; w++)
+        {
+            double[] values = new double[50];
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = w * 100 + (i * 37) % 50;
+                stats.add(w * 50 + i, values[i]);
+            }
+
+            checkStats(stats, values, 0, values.length);
+            stats.clear();
+        }
+    }
+
+
+    @Test
+    public void testSingleSampleAndNaN()
+    {
+        var stats = new WindowStatistics();
+        stats.add(0.0, 5.0);
+        stats.add(1.0, Double.NaN);
+        assertEquals(1, stats.getCount());
+        assertEquals(5.0, stats.getMean(), 0.0);
+        assertEquals(0.0, stats.getStdDev(), 0.0);
+        assertEquals(0.0, stats.getOldestTime(), 0.0);
+        assertEquals(0.0, stats.getLatestTime(), 0.0);
+    }
+}
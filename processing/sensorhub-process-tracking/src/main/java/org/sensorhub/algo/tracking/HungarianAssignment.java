@@ -0,0 +1,153 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.tracking;
+
+import java.util.Arrays;
+
+
+/**
+ * <p>
+ * Solves the rectangular linear assignment problem (minimum total cost)
+ * with the Hungarian (Kuhn-Munkres) algorithm in O(n²m).
+ * </p><p>
+ * Work arrays are reused between calls so no allocation occurs once they
+ * have grown to the largest problem size.
+ * </p><p>
+ * <b>This class is NOT thread-safe</b>
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class HungarianAssignment
+{
+    double[] u = new double[0];
+    double[] v = new double[0];
+    double[] minv = new double[0];
+    int[] p = new int[0];
+    int[] way = new int[0];
+    boolean[] used = new boolean[0];
+
+
+    /**
+     * Computes the assignment of rows to columns that minimizes the total cost.
+     * When there are more rows than columns, some rows are left unassigned.
+     * @param cost Cost matrix, stored row by row
+     * @param rows Number of rows
+     * @param cols Number of columns
+     * @param rowAssign Array receiving the column assigned to each row, or -1
+     */
+    public void solve(double[] cost, int rows, int cols, int[] rowAssign)
+    {
+        Arrays.fill(rowAssign, 0, rows, -1);
+        if (rows == 0 || cols == 0)
+            return;
+
+        // algorithm needs n <= m so solve transposed problem if needed
+        boolean transpose = rows > cols;
+        int n = transpose ? cols : rows;
+        int m = transpose ? rows : cols;
+        ensureCapacity(n, m);
+
+        Arrays.fill(u, 0, n+1, 0.0);
+        Arrays.fill(v, 0, m+1, 0.0);
+        Arrays.fill(p, 0, m+1, 0);
+
+        // arrays are 1-based, index 0 is used as a sentinel
+        for (int i = 1; i <= n; i++)
+        {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, 0, m+1, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, 0, m+1, false);
+
+            do
+            {
+                used[j0] = true;
+                int i0 = p[j0], j1 = 0;
+                double delta = Double.POSITIVE_INFINITY;
+
+                for (int j = 1; j <= m; j++)
+                {
+                    if (!used[j])
+                    {
+                        double c = transpose ? cost[(j-1)*cols + (i0-1)] : cost[(i0-1)*cols + (j-1)];
+                        double cur = c - u[i0] - v[j];
+                        if (cur < minv[j])
+                        {
+                            minv[j] = cur;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta)
+                        {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+
+                for (int j = 0; j <= m; j++)
+                {
+                    if (used[j])
+                    {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    }
+                    else
+                        minv[j] -= delta;
+                }
+
+                j0 = j1;
+            }
+            while (p[j0] != 0);
+
+            // augment along path
+            do
+            {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            }
+            while (j0 != 0);
+        }
+
+        for (int j = 1; j <= m; j++)
+        {
+            if (p[j] != 0)
+            {
+                if (transpose)
+                    rowAssign[j-1] = p[j]-1;
+                else
+                    rowAssign[p[j]-1] = j-1;
+            }
+        }
+    }
+
+
+    protected void ensureCapacity(int n, int m)
+    {
+        if (u.length < n+1)
+            u = new double[n+1];
+
+        if (v.length < m+1)
+        {
+            v = new double[m+1];
+            minv = new double[m+1];
+            p = new int[m+1];
+            way = new int[m+1];
+            used = new boolean[m+1];
+        }
+    }
+}
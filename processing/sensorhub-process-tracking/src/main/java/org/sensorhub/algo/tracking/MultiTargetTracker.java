@@ -0,0 +1,486 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.tracking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * <p>
+ * Multi-target tracker for point detections expressed in a local metric
+ * frame (X east, Y north).
+ * </p><p>
+ * Detections are processed by scans (i.e. all detections reported by a
+ * sensor at a given time). For each scan, tracks are predicted to the scan
+ * time and indexed in a {@link SpatialGrid} so only tracks located within
+ * the maximum gate distance of a detection are considered. Candidate pairs
+ * passing the statistical gate (on Mahalanobis distance) are weighted by
+ * their likelihood and split into independent clusters, and
+ * each cluster is solved with the {@link HungarianAssignment Hungarian}
+ * algorithm, or with a greedy nearest neighbor assignment if it is larger
+ * than the maximum assignment size. Assigned tracks are updated by their
+ * Kalman filter, and unassigned detections start new tentative tracks.
+ * </p><p>
+ * Tracks are confirmed after a minimum number of hits and are dropped when
+ * not updated for longer than the maximum coast time. The number of tracks
+ * is bounded, and all work buffers are reused between scans, so memory use
+ * doesn't grow with the number of detections processed.
+ * </p><p>
+ * <b>This class is NOT thread-safe</b>
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MultiTargetTracker
+{
+    static final double NO_MATCH = 1e9;
+
+    // configuration
+    double maxGateDistance = 100.0;
+    double gateThreshold = 13.82; // chi-square 99.9% for 2 DOF
+    double accelVar = 1.0;
+    double initVelVar = 900.0;
+    int confirmHits = 3;
+    double maxCoastTime = 10.0;
+    int maxTracks = 10000;
+    int maxAssignmentSize = 100;
+
+    final ArrayList<Track> tracks = new ArrayList<>();
+    final SpatialGrid grid = new SpatialGrid();
+    final HungarianAssignment hungarian = new HungarianAssignment();
+    long nextTrackId = 1;
+
+    // work buffers reused between scans
+    int numPairs;
+    int[] pairDet = new int[0];
+    int[] pairTrack = new int[0];
+    double[] pairCost = new double[0];
+    long[] sortKeys = new long[0];
+    int[] parent = new int[0];
+    int[] detTrack = new int[0];
+    int[] localIndex = new int[0];
+    int[] localDet = new int[0];
+    int[] localTrack = new int[0];
+    int[] rowAssign = new int[0];
+    boolean[] trackUsed = new boolean[0];
+    double[] costMatrix = new double[0];
+
+
+    /**
+     * Processes one scan of detections
+     * @param time Time of the scan (s)
+     * @param x X coordinates of detections (m)
+     * @param y Y coordinates of detections (m)
+     * @param posError Standard deviation of position error of each detection
+     * (m), or null to use the same value for all detections
+     * @param defaultPosError Position error used when not provided (m)
+     * @param count Number of detections
+     */
+    public void processScan(double time, double[] x, double[] y, double[] posError, double defaultPosError, int count)
+    {
+        int numTracks = tracks.size();
+        ensureCapacity(count, numTracks);
+
+        // predict all tracks and index them
+        grid.clear(maxGateDistance);
+        for (int i = 0; i < numTracks; i++)
+        {
+            var t = tracks.get(i);
+            t.predict(time, accelVar);
+            grid.add(t.x, t.y, i);
+        }
+
+        // find candidate pairs
+        double maxDist2 = maxGateDistance * maxGateDistance;
+        numPairs = 0;
+        for (int d = 0; d < count; d++)
+        {
+            detTrack[d] = -1;
+            if (Double.isNaN(x[d]) || Double.isNaN(y[d]))
+            {
+                detTrack[d] = -2;
+                continue;
+            }
+
+            double measVar = getMeasurementVariance(posError, defaultPosError, d);
+            int n = grid.query(x[d], y[d]);
+            for (int k = 0; k < n; k++)
+            {
+                int ti = grid.getResult(k);
+                var t = tracks.get(ti);
+                double dx = x[d] - t.x;
+                double dy = y[d] - t.y;
+                if (dx*dx + dy*dy > maxDist2)
+                    continue;
+
+                // cost is the negative log likelihood (up to a constant) so that
+                // uncertain tentative tracks are not favored over established ones
+                double dist2 = t.getDistance2(x[d], y[d], measVar);
+                if (dist2 < gateThreshold)
+                    addPair(d, ti, dist2 + 2.0 * Math.log((t.p00 + measVar) / measVar));
+            }
+        }
+
+        associate(count, numTracks);
+
+        // update assigned tracks and create new ones
+        for (int d = 0; d < count; d++)
+        {
+            int ti = detTrack[d];
+            double measVar = getMeasurementVariance(posError, defaultPosError, d);
+
+            if (ti >= 0)
+            {
+                var t = tracks.get(ti);
+                t.update(x[d], y[d], measVar);
+                if (t.hits >= confirmHits)
+                    t.confirmed = true;
+            }
+            else if (ti == -1 && tracks.size() < maxTracks)
+            {
+                var t = new Track(nextTrackId++, time, x[d], y[d], measVar, initVelVar);
+                t.confirmed = confirmHits <= 1;
+                tracks.add(t);
+            }
+        }
+
+        dropStaleTracks(time);
+    }
+
+
+    /*
+     * Compute assignments of all candidate pairs, cluster by cluster
+     * Results are written to detTrack
+     */
+    protected void associate(int numDets, int numTracks)
+    {
+        if (numPairs == 0)
+            return;
+
+        // group detections and tracks linked by candidate pairs
+        // tracks are numbered after detections in the union-find array
+        for (int i = 0; i < numDets + numTracks; i++)
+            parent[i] = i;
+        for (int p = 0; p < numPairs; p++)
+            union(pairDet[p], numDets + pairTrack[p]);
+
+        // sort pairs by cluster
+        for (int p = 0; p < numPairs; p++)
+            sortKeys[p] = ((long)find(pairDet[p]) << 32) | p;
+        Arrays.sort(sortKeys, 0, numPairs);
+
+        // local indexes are reset after each cluster
+        Arrays.fill(localIndex, 0, numDets + numTracks, -1);
+
+        int start = 0;
+        while (start < numPairs)
+        {
+            long cluster = sortKeys[start] >>> 32;
+            int end = start + 1;
+            while (end < numPairs && (sortKeys[end] >>> 32) == cluster)
+                end++;
+
+            if (end - start == 1)
+            {
+                // most common case, isolated detection/track pair
+                int p = (int)sortKeys[start];
+                detTrack[pairDet[p]] = pairTrack[p];
+            }
+            else
+                assignCluster(start, end, numDets);
+
+            start = end;
+        }
+    }
+
+
+    /*
+     * Assign detections to tracks within a cluster of candidate pairs
+     * Pairs are referenced by sortKeys[start] to sortKeys[end-1]
+     */
+    protected void assignCluster(int start, int end, int numDets)
+    {
+        // compute local indexes of detections and tracks
+        int nd = 0, nt = 0;
+        for (int k = start; k < end; k++)
+        {
+            int p = (int)sortKeys[k];
+            int d = pairDet[p];
+            int t = numDets + pairTrack[p];
+            if (localIndex[d] < 0)
+            {
+                localIndex[d] = nd;
+                localDet[nd++] = d;
+            }
+            if (localIndex[t] < 0)
+            {
+                localIndex[t] = nt;
+                localTrack[nt++] = pairTrack[p];
+            }
+        }
+
+        if (nd <= maxAssignmentSize && nt <= maxAssignmentSize)
+        {
+            // optimal assignment
+            int size = nd * nt;
+            if (costMatrix.length < size)
+                costMatrix = new double[size];
+            Arrays.fill(costMatrix, 0, size, NO_MATCH);
+
+            for (int k = start; k < end; k++)
+            {
+                int p = (int)sortKeys[k];
+                int row = localIndex[pairDet[p]];
+                int col = localIndex[numDets + pairTrack[p]];
+                costMatrix[row * nt + col] = pairCost[p];
+            }
+
+            hungarian.solve(costMatrix, nd, nt, rowAssign);
+            for (int row = 0; row < nd; row++)
+            {
+                int col = rowAssign[row];
+                if (col >= 0 && costMatrix[row * nt + col] < NO_MATCH)
+                    detTrack[localDet[row]] = localTrack[col];
+            }
+        }
+        else
+        {
+            // greedy nearest neighbor assignment by increasing cost
+            // cost is quantized so it can be sorted together with pair index
+            double maxCost = 0.0;
+            for (int k = start; k < end; k++)
+                maxCost = Math.max(maxCost, pairCost[(int)sortKeys[k]]);
+
+            double scale = maxCost > 0.0 ? (1 << 30) / maxCost : 0.0;
+            for (int k = start; k < end; k++)
+            {
+                int p = (int)sortKeys[k];
+                long q = (long)(pairCost[p] * scale);
+                sortKeys[k] = (q << 32) | p;
+            }
+            Arrays.sort(sortKeys, start, end);
+
+            Arrays.fill(trackUsed, 0, nt, false);
+            for (int k = start; k < end; k++)
+            {
+                int p = (int)sortKeys[k];
+                int d = pairDet[p];
+                int col = localIndex[numDets + pairTrack[p]];
+                if (detTrack[d] < 0 && !trackUsed[col])
+                {
+                    detTrack[d] = pairTrack[p];
+                    trackUsed[col] = true;
+                }
+            }
+        }
+
+        // reset local indexes
+        for (int i = 0; i < nd; i++)
+            localIndex[localDet[i]] = -1;
+        for (int i = 0; i < nt; i++)
+            localIndex[numDets + localTrack[i]] = -1;
+    }
+
+
+    /*
+     * Remove tracks not updated for longer than max coast time
+     */
+    protected void dropStaleTracks(double time)
+    {
+        int j = 0;
+        for (int i = 0; i < tracks.size(); i++)
+        {
+            var t = tracks.get(i);
+            if (time - t.lastUpdateTime <= maxCoastTime)
+                tracks.set(j++, t);
+        }
+
+        while (tracks.size() > j)
+            tracks.remove(tracks.size() - 1);
+    }
+
+
+    protected double getMeasurementVariance(double[] posError, double defaultPosError, int i)
+    {
+        double sigma = (posError != null && posError[i] > 0.0) ? posError[i] : defaultPosError;
+        return sigma * sigma;
+    }
+
+
+    protected void addPair(int det, int track, double cost)
+    {
+        if (numPairs == pairDet.length)
+        {
+            int newSize = Math.max(64, numPairs * 2);
+            pairDet = Arrays.copyOf(pairDet, newSize);
+            pairTrack = Arrays.copyOf(pairTrack, newSize);
+            pairCost = Arrays.copyOf(pairCost, newSize);
+            sortKeys = Arrays.copyOf(sortKeys, newSize);
+        }
+
+        pairDet[numPairs] = det;
+        pairTrack[numPairs] = track;
+        pairCost[numPairs] = cost;
+        numPairs++;
+    }
+
+
+    protected int find(int i)
+    {
+        while (parent[i] != i)
+        {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+
+    protected void union(int i, int j)
+    {
+        int ri = find(i);
+        int rj = find(j);
+        if (ri != rj)
+            parent[rj] = ri;
+    }
+
+
+    protected void ensureCapacity(int numDets, int numTracks)
+    {
+        int numNodes = numDets + numTracks;
+        if (parent.length < numNodes)
+        {
+            parent = new int[numNodes];
+            localIndex = new int[numNodes];
+        }
+
+        if (detTrack.length < numDets)
+        {
+            detTrack = new int[numDets];
+            localDet = new int[numDets];
+            rowAssign = new int[numDets];
+        }
+
+        if (localTrack.length < numTracks)
+        {
+            localTrack = new int[numTracks];
+            trackUsed = new boolean[numTracks];
+        }
+    }
+
+
+    /**
+     * Removes all tracks
+     */
+    public void clear()
+    {
+        tracks.clear();
+    }
+
+
+    /**
+     * @return read-only view of current tracks, including tentative ones
+     */
+    public List<Track> getTracks()
+    {
+        return Collections.unmodifiableList(tracks);
+    }
+
+
+    /**
+     * @param maxGateDistance Maximum distance between a track and an
+     * associated detection (m). This is also the cell size of the spatial index.
+     */
+    public void setMaxGateDistance(double maxGateDistance)
+    {
+        if (!(maxGateDistance > 0.0))
+            throw new IllegalArgumentException("Gate distance must be positive");
+        this.maxGateDistance = maxGateDistance;
+    }
+
+
+    /**
+     * @param gateThreshold Threshold on squared Mahalanobis distance
+     */
+    public void setGateThreshold(double gateThreshold)
+    {
+        if (!(gateThreshold > 0.0))
+            throw new IllegalArgumentException("Gate threshold must be positive");
+        this.gateThreshold = gateThreshold;
+    }
+
+
+    /**
+     * @param accelNoise Standard deviation of target acceleration (m/s²)
+     */
+    public void setAccelerationNoise(double accelNoise)
+    {
+        this.accelVar = accelNoise * accelNoise;
+    }
+
+
+    /**
+     * @param velError Standard deviation of initial velocity of new tracks (m/s)
+     */
+    public void setInitialVelocityError(double velError)
+    {
+        this.initVelVar = velError * velError;
+    }
+
+
+    /**
+     * @param confirmHits Number of associated detections needed to confirm a track
+     */
+    public void setConfirmHits(int confirmHits)
+    {
+        this.confirmHits = confirmHits;
+    }
+
+
+    /**
+     * @param maxCoastTime Maximum time a track is kept without update (s)
+     */
+    public void setMaxCoastTime(double maxCoastTime)
+    {
+        this.maxCoastTime = maxCoastTime;
+    }
+
+
+    /**
+     * @param maxTracks Maximum number of tracks, new detections are ignored
+     * when this number is reached
+     */
+    public void setMaxTracks(int maxTracks)
+    {
+        if (maxTracks < 1 || maxTracks > SpatialGrid.MAX_INDEX)
+            throw new IllegalArgumentException("Maximum number of tracks must be between 1 and " + SpatialGrid.MAX_INDEX);
+        this.maxTracks = maxTracks;
+    }
+
+
+    /**
+     * @param maxAssignmentSize Maximum number of detections or tracks in a
+     * cluster solved with the Hungarian algorithm, larger clusters are solved
+     * with a greedy nearest neighbor assignment
+     */
+    public void setMaxAssignmentSize(int maxAssignmentSize)
+    {
+        this.maxAssignmentSize = maxAssignmentSize;
+    }
+}
@@ -0,0 +1,175 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.tracking;
+
+import java.util.Arrays;
+
+
+/**
+ * <p>
+ * Uniform grid index of 2D points, used to quickly find all points located
+ * near a query location.
+ * </p><p>
+ * Each entry is encoded in a single long integer (cell X, cell Y, item index)
+ * and entries are kept in a sorted primitive array, so the index can be
+ * rebuilt for each scan without allocating any object. Points are found by
+ * binary search of the 3x3 cells surrounding the query location, so all
+ * points within one cell size of the query are always returned (but some
+ * points further away can also be returned).
+ * </p><p>
+ * Cell coordinates are clamped to +/-2^20 and item indexes must be less
+ * than 2^21.
+ * </p><p>
+ * <b>This class is NOT thread-safe</b>
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SpatialGrid
+{
+    static final int INDEX_BITS = 21;
+    static final int CELL_BITS = 21;
+    static final int CELL_OFFSET = 1 << (CELL_BITS - 1);
+    static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    public static final int MAX_INDEX = (int)INDEX_MASK;
+
+    double cellSize;
+    long[] entries = new long[64];
+    int size;
+    int[] results = new int[64];
+    int numResults;
+    boolean sorted;
+
+
+    /**
+     * Removes all points and sets the cell size
+     * @param cellSize Size of grid cells, i.e. the search distance (m)
+     */
+    public void clear(double cellSize)
+    {
+        if (!(cellSize > 0.0))
+            throw new IllegalArgumentException("Cell size must be positive");
+
+        this.cellSize = cellSize;
+        this.size = 0;
+        this.sorted = true;
+    }
+
+
+    /**
+     * Adds a point to the grid
+     * @param x X coordinate of point
+     * @param y Y coordinate of point
+     * @param index Index of item
+     */
+    public void add(double x, double y, int index)
+    {
+        if (index < 0 || index > MAX_INDEX)
+            throw new IllegalArgumentException("Index must be between 0 and " + MAX_INDEX);
+
+        if (size == entries.length)
+            entries = Arrays.copyOf(entries, size * 2);
+
+        entries[size++] = (cellKey(cellCoord(x), cellCoord(y)) << INDEX_BITS) | index;
+        sorted = false;
+    }
+
+
+    /**
+     * Finds items located in the grid cell containing the given point, or in
+     * the 8 neighboring cells. Found indexes can then be read with
+     * {@link #getResult(int)}
+     * @param x X coordinate of query point
+     * @param y Y coordinate of query point
+     * @return the number of items found
+     */
+    public int query(double x, double y)
+    {
+        if (!sorted)
+        {
+            Arrays.sort(entries, 0, size);
+            sorted = true;
+        }
+
+        numResults = 0;
+        int cx = cellCoord(x);
+        int cy = cellCoord(y);
+
+        // cells with same X and consecutive Y have consecutive keys
+        // so each column of 3 cells is scanned in a single range
+        for (int i = cx - 1; i <= cx + 1; i++)
+        {
+            if (i < 0 || i > 2*CELL_OFFSET-1)
+                continue;
+
+            long minKey = cellKey(i, Math.max(cy - 1, 0)) << INDEX_BITS;
+            long maxKey = (cellKey(i, Math.min(cy + 1, 2*CELL_OFFSET-1)) << INDEX_BITS) | INDEX_MASK;
+            int pos = lowerBound(minKey);
+            while (pos < size && entries[pos] <= maxKey)
+                addResult((int)(entries[pos++] & INDEX_MASK));
+        }
+
+        return numResults;
+    }
+
+
+    public int getResult(int i)
+    {
+        return results[i];
+    }
+
+
+    public int size()
+    {
+        return size;
+    }
+
+
+    protected int cellCoord(double v)
+    {
+        double c = Math.floor(v / cellSize) + CELL_OFFSET;
+        return (int)Math.max(0, Math.min(c, 2*CELL_OFFSET-1));
+    }
+
+
+    protected long cellKey(int cx, int cy)
+    {
+        return ((long)cx << CELL_BITS) | cy;
+    }
+
+
+    protected int lowerBound(long key)
+    {
+        int lo = 0, hi = size;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (entries[mid] < key)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+
+    protected void addResult(int index)
+    {
+        if (numResults == results.length)
+            results = Arrays.copyOf(results, numResults * 2);
+        results[numResults++] = index;
+    }
+}
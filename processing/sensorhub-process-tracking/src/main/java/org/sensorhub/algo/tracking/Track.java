@@ -0,0 +1,185 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.tracking;
+
+
+/**
+ * <p>
+ * State of a single target track, estimated with a 2D constant velocity
+ * Kalman filter in a local metric frame (X east, Y north).
+ * </p><p>
+ * Measurement and process noises are isotropic so the covariance of the X
+ * and Y axes are identical and independent. Only one 2x2 covariance matrix
+ * (position, velocity) is stored and shared by both axes, so predict and
+ * update steps only need a few scalar operations.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class Track
+{
+    final long id;
+    double x, y; // position (m)
+    double vx, vy; // velocity (m/s)
+    double p00, p01, p11; // per-axis covariance
+    double time; // time of last prediction
+    double lastUpdateTime;
+    int hits;
+    boolean confirmed;
+
+
+    Track(long id, double time, double x, double y, double posVar, double velVar)
+    {
+        this.id = id;
+        this.time = time;
+        this.lastUpdateTime = time;
+        this.x = x;
+        this.y = y;
+        this.p00 = posVar;
+        this.p11 = velVar;
+        this.hits = 1;
+    }
+
+
+    /**
+     * Predicts the track state at the given time using a constant velocity
+     * model with white noise acceleration. Nothing is done if the time is
+     * not after the time of the last prediction.
+     * @param t Prediction time (s)
+     * @param accelVar Variance of acceleration noise (m²/s⁴)
+     */
+    public void predict(double t, double accelVar)
+    {
+        double dt = t - time;
+        if (!(dt > 0.0))
+            return;
+
+        double dt2 = dt * dt;
+        x += vx * dt;
+        y += vy * dt;
+        p00 += dt * (2.0 * p01 + dt * p11) + accelVar * dt2 * dt2 / 4.0;
+        p01 += dt * p11 + accelVar * dt2 * dt / 2.0;
+        p11 += accelVar * dt2;
+        time = t;
+    }
+
+
+    /**
+     * Computes the squared Mahalanobis distance between the predicted
+     * position and a measured position
+     * @param mx Measured X (m)
+     * @param my Measured Y (m)
+     * @param measVar Variance of measurement error on each axis (m²)
+     * @return the squared distance
+     */
+    public double getDistance2(double mx, double my, double measVar)
+    {
+        double dx = mx - x;
+        double dy = my - y;
+        return (dx * dx + dy * dy) / (p00 + measVar);
+    }
+
+
+    /**
+     * Updates the track state with a measured position
+     * @param mx Measured X (m)
+     * @param my Measured Y (m)
+     * @param measVar Variance of measurement error on each axis (m²)
+     */
+    public void update(double mx, double my, double measVar)
+    {
+        double s = p00 + measVar;
+        double k0 = p00 / s;
+        double k1 = p01 / s;
+
+        double rx = mx - x;
+        double ry = my - y;
+        x += k0 * rx;
+        y += k0 * ry;
+        vx += k1 * rx;
+        vy += k1 * ry;
+
+        p11 -= k1 * p01;
+        p01 -= k0 * p01;
+        p00 -= k0 * p00;
+
+        lastUpdateTime = time;
+        hits++;
+    }
+
+
+    public long getId()
+    {
+        return id;
+    }
+
+
+    public double getX()
+    {
+        return x;
+    }
+
+
+    public double getY()
+    {
+        return y;
+    }
+
+
+    public double getVelocityX()
+    {
+        return vx;
+    }
+
+
+    public double getVelocityY()
+    {
+        return vy;
+    }
+
+
+    /**
+     * @return the standard deviation of position error on each axis (m)
+     */
+    public double getPositionError()
+    {
+        return Math.sqrt(p00);
+    }
+
+
+    public double getTime()
+    {
+        return time;
+    }
+
+
+    public double getLastUpdateTime()
+    {
+        return lastUpdateTime;
+    }
+
+
+    public int getHits()
+    {
+        return hits;
+    }
+
+
+    public boolean isConfirmed()
+    {
+        return confirmed;
+    }
+}
@@ -0,0 +1,342 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.tracking;
+
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import net.opengis.swe.v20.DataRecord;
+import net.opengis.swe.v20.Quantity;
+import net.opengis.swe.v20.Time;
+import org.sensorhub.algo.geoloc.Ellipsoid;
+import org.sensorhub.algo.tracking.MultiTargetTracker;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ExecutableProcessImpl;
+import org.vast.process.ProcessException;
+import org.vast.swe.SWEConstants;
+import org.vast.swe.SWEHelper;
+import org.vast.swe.helper.GeoPosHelper;
+
+
+/**
+ * <p>
+ * Tracks multiple targets from geolocated detections, such as the ones
+ * produced by VMTI metadata, radars or video detection processes after
+ * projection on the ground.
+ * </p><p>
+ * Each execution processes one scan of detections (i.e. all detections
+ * made by one sensor at a given time), so several sources can be connected
+ * to the same process. The list of confirmed tracks is output after each
+ * scan.
+ * </p><p>
+ * Tracking is done in a local tangent plane centered on the first
+ * detection received, so it is meant for areas up to a few hundred
+ * kilometers wide.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MultiTargetTracking extends ExecutableProcessImpl
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("tracking:MultiTargetTracking", "Multi-Target Tracking", "Track multiple targets from geolocated detections", MultiTargetTracking.class);
+
+    protected Time timeIn;
+    protected Count numDetections;
+    protected DataArray detectionsIn;
+    protected Time timeOut;
+    protected Count numTracks;
+    protected DataArray tracksOut;
+    protected Quantity gateDistanceParam;
+    protected Quantity maxCoastTimeParam;
+    protected Count confirmHitsParam;
+    protected Count maxTracksParam;
+    protected Quantity accelNoiseParam;
+    protected Quantity posErrorParam;
+
+    protected MultiTargetTracker tracker;
+    protected double defaultPosError;
+
+    // local tangent plane
+    protected double refLat = Double.NaN;
+    protected double refLon;
+    protected double metersPerRadLat;
+    protected double metersPerRadLon;
+
+    // detection buffers reused across executions
+    protected double[] x = new double[0];
+    protected double[] y = new double[0];
+    protected double[] posError = new double[0];
+
+
+    public MultiTargetTracking()
+    {
+        super(INFO);
+        var swe = new GeoPosHelper();
+
+        // inputs
+        inputData.add("detections", swe.createRecord()
+            .label("Detections")
+            .description("List of detections made by a sensor at a given time")
+            .addField("time", timeIn = swe.createTime()
+                .asSamplingTimeIsoUTC()
+                .build())
+            .addField("numDetections", numDetections = swe.createCount()
+                .id("NUM_DETECTIONS")
+                .build())
+            .addField("detectionList", detectionsIn = swe.createArray()
+                .withSizeComponent(numDetections)
+                .withElement("detection", swe.createRecord()
+                    .addField("location", swe.createLocationVectorLLA()
+                        .description("Geographic location of detected target"))
+                    .addField("positionError", swe.createQuantity()
+                        .definition(SWEHelper.getPropertyUri("PositionError"))
+                        .label("Position Error")
+                        .description("Standard deviation of horizontal position error, 0 or NaN to use default value")
+                        .uomCode("m")))
+                .build())
+            .build());
+
+        // outputs
+        outputData.add("tracks", swe.createRecord()
+            .label("Tracks")
+            .description("List of confirmed tracks")
+            .addField("time", timeOut = swe.createTime()
+                .asSamplingTimeIsoUTC()
+                .build())
+            .addField("numTracks", numTracks = swe.createCount()
+                .id("NUM_TRACKS")
+                .build())
+            .addField("trackList", tracksOut = swe.createArray()
+                .withSizeComponent(numTracks)
+                .withElement("track", swe.createRecord()
+                    .addField("trackId", swe.createCount()
+                        .definition(SWEHelper.getPropertyUri("TrackID"))
+                        .label("Track ID"))
+                    .addField("location", swe.createLocationVectorLatLon()
+                        .description("Estimated location of target"))
+                    .addField("velocity", swe.createVector()
+                        .definition(GeoPosHelper.DEF_VELOCITY)
+                        .refFrame(SWEConstants.REF_FRAME_ENU)
+                        .description("Estimated ground velocity of target")
+                        .addCoordinate("ve", swe.createQuantity()
+                            .label("East Velocity")
+                            .uomCode("m/s")
+                            .axisId("E"))
+                        .addCoordinate("vn", swe.createQuantity()
+                            .label("North Velocity")
+                            .uomCode("m/s")
+                            .axisId("N")))
+                    .addField("positionError", swe.createQuantity()
+                        .definition(SWEHelper.getPropertyUri("PositionError"))
+                        .label("Position Error")
+                        .description("Standard deviation of estimated position error")
+                        .uomCode("m")))
+                .build())
+            .build());
+
+        // parameters
+        paramData.add("gateDistance", gateDistanceParam = swe.createQuantity()
+            .definition(GeoPosHelper.DEF_DISTANCE)
+            .label("Gate Distance")
+            .description("Maximum distance between a track and an associated detection")
+            .uomCode("m")
+            .value(100.0)
+            .build());
+
+        paramData.add("maxCoastTime", maxCoastTimeParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("Duration"))
+            .label("Maximum Coast Time")
+            .description("Tracks are dropped when not updated for longer than this duration")
+            .uomCode("s")
+            .value(10.0)
+            .build());
+
+        paramData.add("confirmHits", confirmHitsParam = swe.createCount()
+            .definition(SWEConstants.DEF_COUNT)
+            .label("Confirmation Hits")
+            .description("Number of associated detections needed to confirm a track")
+            .value(3)
+            .build());
+
+        paramData.add("maxTracks", maxTracksParam = swe.createCount()
+            .definition(SWEConstants.DEF_COUNT)
+            .label("Maximum Tracks")
+            .description("Maximum number of tracks (including unconfirmed ones)")
+            .value(10000)
+            .build());
+
+        paramData.add("accelerationNoise", accelNoiseParam = swe.createQuantity()
+            .definition(GeoPosHelper.DEF_ACCELERATION)
+            .label("Acceleration Noise")
+            .description("Standard deviation of target acceleration")
+            .uomCode("m/s2")
+            .value(1.0)
+            .build());
+
+        paramData.add("positionError", posErrorParam = swe.createQuantity()
+            .definition(SWEHelper.getPropertyUri("PositionError"))
+            .label("Default Position Error")
+            .description("Standard deviation of detection position error, when not provided with detections")
+            .uomCode("m")
+            .value(10.0)
+            .build());
+    }
+
+
+    @Override
+    public void init() throws ProcessException
+    {
+        super.init();
+
+        defaultPosError = posErrorParam.getData().getDoubleValue();
+        if (!(defaultPosError > 0.0))
+            reportError("Default position error must be positive");
+
+        int confirmHits = confirmHitsParam.getData().getIntValue();
+        if (confirmHits < 1)
+            reportError("Number of confirmation hits must be at least 1");
+
+        try
+        {
+            tracker = new MultiTargetTracker();
+            tracker.setMaxGateDistance(gateDistanceParam.getData().getDoubleValue());
+            tracker.setMaxCoastTime(maxCoastTimeParam.getData().getDoubleValue());
+            tracker.setConfirmHits(confirmHits);
+            tracker.setMaxTracks(maxTracksParam.getData().getIntValue());
+            tracker.setAccelerationNoise(accelNoiseParam.getData().getDoubleValue());
+        }
+        catch (IllegalArgumentException e)
+        {
+            reportError("Invalid tracker parameters", e);
+        }
+
+        refLat = Double.NaN;
+    }
+
+
+    @Override
+    public void execute() throws ProcessException
+    {
+        double time = timeIn.getData().getDoubleValue();
+        int count = readDetections();
+        tracker.processScan(time, x, y, posError, defaultPosError, count);
+        writeTracks(time);
+    }
+
+
+    /*
+     * Read detections and convert them to local tangent plane coordinates
+     * Returns the number of detections
+     */
+    protected int readDetections()
+    {
+        int count = numDetections.getData().getIntValue();
+        ensureCapacity(count);
+
+        var inData = detectionsIn.getData();
+        for (int i = 0, idx = 0; i < count; i++)
+        {
+            double lat = Math.toRadians(inData.getDoubleValue(idx++));
+            double lon = Math.toRadians(inData.getDoubleValue(idx++));
+            idx++; // altitude is not used
+            posError[i] = inData.getDoubleValue(idx++);
+
+            if (Double.isNaN(refLat) && !Double.isNaN(lat) && !Double.isNaN(lon))
+                setReferencePoint(lat, lon);
+
+            x[i] = normalizeAngle(lon - refLon) * metersPerRadLon;
+            y[i] = (lat - refLat) * metersPerRadLat;
+        }
+
+        return count;
+    }
+
+
+    /*
+     * Write confirmed tracks to output, converted back to lat/lon
+     */
+    protected void writeTracks(double time)
+    {
+        var tracks = tracker.getTracks();
+        int count = 0;
+        for (var t: tracks)
+        {
+            if (t.isConfirmed())
+                count++;
+        }
+
+        timeOut.getData().setDoubleValue(time);
+        numTracks.getData().setIntValue(count);
+        tracksOut.updateSize(count);
+        var outData = tracksOut.getData();
+
+        int idx = 0;
+        for (var t: tracks)
+        {
+            if (!t.isConfirmed())
+                continue;
+
+            double lat = refLat + t.getY() / metersPerRadLat;
+            double lon = normalizeAngle(refLon + t.getX() / metersPerRadLon);
+            outData.setIntValue(idx++, (int)t.getId());
+            outData.setDoubleValue(idx++, Math.toDegrees(lat));
+            outData.setDoubleValue(idx++, Math.toDegrees(lon));
+            outData.setDoubleValue(idx++, t.getVelocityX());
+            outData.setDoubleValue(idx++, t.getVelocityY());
+            outData.setDoubleValue(idx++, t.getPositionError());
+        }
+    }
+
+
+    /*
+     * Compute scale factors of local tangent plane using the
+     * radii of curvature of the WGS84 ellipsoid at the reference point
+     */
+    protected void setReferencePoint(double lat, double lon)
+    {
+        var ellipsoid = Ellipsoid.WGS84;
+        double a = ellipsoid.getEquatorRadius();
+        double e2 = ellipsoid.getE2();
+        double sinLat = Math.sin(lat);
+        double w2 = 1.0 - e2 * sinLat * sinLat;
+        double n = a / Math.sqrt(w2);
+
+        refLat = lat;
+        refLon = lon;
+        metersPerRadLat = n * (1.0 - e2) / w2;
+        metersPerRadLon = n * Math.cos(lat);
+    }
+
+
+    protected double normalizeAngle(double a)
+    {
+        if (a > Math.PI)
+            return a - 2.0 * Math.PI;
+        if (a < -Math.PI)
+            return a + 2.0 * Math.PI;
+        return a;
+    }
+
+
+    protected void ensureCapacity(int count)
+    {
+        if (x.length < count)
+        {
+            x = new double[count];
+            y = new double[count];
+            posError = new double[count];
+        }
+    }
+}
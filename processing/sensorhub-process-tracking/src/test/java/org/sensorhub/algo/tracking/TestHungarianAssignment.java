@@ -0,0 +1,104 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.tracking;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class TestHungarianAssignment
+{
+
+    /*
+     * Brute force search of minimum cost over all assignments
+     */
+    double bruteForce(double[] cost, int rows, int cols, int row, boolean[] usedCols)
+    {
+        if (row == rows)
+            return 0.0;
+
+        // rows can stay unassigned only if there are more rows than columns
+        double best = Double.POSITIVE_INFINITY;
+        int free = 0;
+        for (int j = 0; j < cols; j++)
+        {
+            if (!usedCols[j])
+            {
+                free++;
+                usedCols[j] = true;
+                best = Math.min(best, cost[row*cols + j] + bruteForce(cost, rows, cols, row+1, usedCols));
+                usedCols[j] = false;
+            }
+        }
+
+        if (rows - row > free)
+            best = Math.min(best, bruteForce(cost, rows, cols, row+1, usedCols));
+
+        return best;
+    }
+
+
+    @Test
+    public void testRandomMatrices()
+    {
+        var solver = new HungarianAssignment();
+        var random = new Random(42);
+        int[] assign = new int[10];
+
+        for (int test = 0; test < 500; test++)
+        {
+            int rows = 1 + random.nextInt(6);
+            int cols = 1 + random.nextInt(6);
+            double[] cost = new double[rows*cols];
+            for (int i = 0; i < cost.length; i++)
+                cost[i] = random.nextInt(100);
+
+            solver.solve(cost, rows, cols, assign);
+
+            double total = 0.0;
+            boolean[] usedCols = new boolean[cols];
+            int numAssigned = 0;
+            for (int i = 0; i < rows; i++)
+            {
+                if (assign[i] >= 0)
+                {
+                    assertFalse("Column assigned twice", usedCols[assign[i]]);
+                    usedCols[assign[i]] = true;
+                    total += cost[i*cols + assign[i]];
+                    numAssigned++;
+                }
+            }
+
+            assertEquals(Math.min(rows, cols), numAssigned);
+            assertEquals(bruteForce(cost, rows, cols, 0, new boolean[cols]), total, 1e-9);
+        }
+    }
+
+
+    @Test
+    public void testKnownSolution()
+    {
+        double[] cost = {
+            4, 1, 3,
+            2, 0, 5,
+            3, 2, 2
+        };
+
+        int[] assign = new int[3];
+        new HungarianAssignment().solve(cost, 3, 3, assign);
+        assertArrayEquals(new int[] {1, 0, 2}, assign);
+    }
+}
@@ -0,0 +1,230 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.tracking;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import java.util.HashSet;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class TestMultiTargetTracker
+{
+
+    Track findTrack(MultiTargetTracker tracker, double x, double y, double maxDist)
+    {
+        Track closest = null;
+        double minDist = maxDist;
+        for (var t: tracker.getTracks())
+        {
+            double dist = Math.hypot(t.getX() - x, t.getY() - y);
+            if (t.isConfirmed() && dist < minDist)
+            {
+                closest = t;
+                minDist = dist;
+            }
+        }
+        return closest;
+    }
+
+
+    @Test
+    public void testCrossingTargets()
+    {
+        var tracker = new MultiTargetTracker();
+        tracker.setMaxGateDistance(50.0);
+        tracker.setAccelerationNoise(0.1);
+        var random = new Random(42);
+        double posError = 2.0;
+        double[] x = new double[2];
+        double[] y = new double[2];
+        long id1 = -1, id2 = -1;
+
+        // two targets crossing at right angle at t = 50s
+        for (int i = 0; i <= 100; i++)
+        {
+            double t = i;
+            x[0] = -500.0 + 10.0*t + random.nextGaussian()*posError;
+            y[0] = random.nextGaussian()*posError;
+            x[1] = random.nextGaussian()*posError;
+            y[1] = -400.0 + 8.0*t + random.nextGaussian()*posError;
+            tracker.processScan(t, x, y, null, posError, 2);
+
+            if (i == 10)
+            {
+                id1 = findTrack(tracker, -400.0, 0.0, 10.0).getId();
+                id2 = findTrack(tracker, 0.0, -320.0, 10.0).getId();
+            }
+        }
+
+        assertEquals(2, tracker.getTracks().size());
+
+        // check track identities are preserved after crossing
+        var t1 = findTrack(tracker, 500.0, 0.0, 10.0);
+        var t2 = findTrack(tracker, 0.0, 400.0, 10.0);
+        assertEquals(id1, t1.getId());
+        assertEquals(id2, t2.getId());
+        assertEquals(10.0, t1.getVelocityX(), 0.5);
+        assertEquals(0.0, t1.getVelocityY(), 0.5);
+        assertEquals(0.0, t2.getVelocityX(), 0.5);
+        assertEquals(8.0, t2.getVelocityY(), 0.5);
+    }
+
+
+    @Test
+    public void testClutterAndTrackDeletion()
+    {
+        var tracker = new MultiTargetTracker();
+        tracker.setMaxGateDistance(50.0);
+        tracker.setConfirmHits(3);
+        tracker.setMaxCoastTime(5.0);
+        var random = new Random(42);
+        double[] x = new double[11];
+        double[] y = new double[11];
+
+        // one target and random clutter
+        for (int i = 0; i < 30; i++)
+        {
+            x[0] = 20.0*i;
+            y[0] = 100.0;
+            for (int k = 1; k < x.length; k++)
+            {
+                x[k] = (random.nextDouble() - 0.5) * 1e5;
+                y[k] = (random.nextDouble() - 0.5) * 1e5;
+            }
+            tracker.processScan(i, x, y, null, 1.0, x.length);
+        }
+
+        // clutter never produces confirmed tracks
+        int numConfirmed = 0;
+        for (var t: tracker.getTracks())
+        {
+            if (t.isConfirmed())
+                numConfirmed++;
+        }
+        assertEquals(1, numConfirmed);
+        assertNotNull(findTrack(tracker, 580.0, 100.0, 5.0));
+
+        // tracks are dropped after coast time
+        tracker.processScan(40.0, x, y, null, 1.0, 0);
+        assertEquals(0, tracker.getTracks().size());
+    }
+
+
+    @Test
+    public void testMaxTracks()
+    {
+        var tracker = new MultiTargetTracker();
+        tracker.setMaxTracks(100);
+        var random = new Random(42);
+        double[] x = new double[1000];
+        double[] y = new double[1000];
+        for (int k = 0; k < x.length; k++)
+        {
+            x[k] = random.nextDouble() * 1e6;
+            y[k] = random.nextDouble() * 1e6;
+        }
+
+        tracker.processScan(0.0, x, y, null, 1.0, x.length);
+        assertEquals(100, tracker.getTracks().size());
+    }
+
+
+    @Test
+    public void testDenseClusterGreedyFallback()
+    {
+        // targets closer than gate distance form one large cluster
+        for (int maxSize: new int[] {1000, 4})
+        {
+            var tracker = new MultiTargetTracker();
+            tracker.setMaxGateDistance(30.0);
+            tracker.setMaxAssignmentSize(maxSize);
+            int numTargets = 20;
+            double[] x = new double[numTargets];
+            double[] y = new double[numTargets];
+
+            for (int i = 0; i < 20; i++)
+            {
+                for (int k = 0; k < numTargets; k++)
+                {
+                    x[k] = k * 15.0;
+                    y[k] = i * 1.0;
+                }
+                tracker.processScan(i, x, y, null, 0.5, numTargets);
+            }
+
+            var ids = new HashSet<Long>();
+            for (var t: tracker.getTracks())
+            {
+                assertTrue(t.isConfirmed());
+                assertEquals(20, t.getHits());
+                ids.add(t.getId());
+            }
+            assertEquals(numTargets, ids.size());
+        }
+    }
+
+
+    @Test
+    public void testThroughput()
+    {
+        assumeTrue("Benchmark only runs with -Dtracking.benchmark=true", Boolean.getBoolean("tracking.benchmark"));
+
+        var tracker = new MultiTargetTracker();
+        tracker.setMaxGateDistance(100.0);
+        var random = new Random(42);
+        int numTargets = 5000;
+        int numScans = 100;
+        double[] x0 = new double[numTargets];
+        double[] y0 = new double[numTargets];
+        double[] vx = new double[numTargets];
+        double[] vy = new double[numTargets];
+        double[] x = new double[numTargets];
+        double[] y = new double[numTargets];
+
+        for (int k = 0; k < numTargets; k++)
+        {
+            x0[k] = (random.nextDouble() - 0.5) * 2e5;
+            y0[k] = (random.nextDouble() - 0.5) * 2e5;
+            vx[k] = random.nextGaussian() * 10.0;
+            vy[k] = random.nextGaussian() * 10.0;
+        }
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < numScans; i++)
+        {
+            for (int k = 0; k < numTargets; k++)
+            {
+                x[k] = x0[k] + vx[k]*i + random.nextGaussian()*5.0;
+                y[k] = y0[k] + vy[k]*i + random.nextGaussian()*5.0;
+            }
+            tracker.processScan(i, x, y, null, 5.0, numTargets);
+        }
+        long t1 = System.nanoTime();
+
+        int numConfirmed = 0;
+        for (var t: tracker.getTracks())
+        {
+            if (t.isConfirmed())
+                numConfirmed++;
+        }
+
+        System.out.printf("%d detections processed in %d ms, %d confirmed tracks\n",
+            numTargets*numScans, (t1-t0)/1000000, numConfirmed);
+        assertTrue(numConfirmed >= numTargets * 0.99);
+        assertTrue(tracker.getTracks().size() <= numTargets * 1.01);
+    }
+}
@@ -0,0 +1,89 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.tracking;
+
+import static org.junit.Assert.*;
+import java.util.HashSet;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class TestSpatialGrid
+{
+
+    @Test
+    public void testQueryAgainstBruteForce()
+    {
+        var grid = new SpatialGrid();
+        var random = new Random(42);
+        double cellSize = 50.0;
+        int numPoints = 5000;
+        double[] x = new double[numPoints];
+        double[] y = new double[numPoints];
+
+        grid.clear(cellSize);
+        for (int i = 0; i < numPoints; i++)
+        {
+            x[i] = (random.nextDouble() - 0.5) * 5000.0;
+            y[i] = (random.nextDouble() - 0.5) * 5000.0;
+            grid.add(x[i], y[i], i);
+        }
+        assertEquals(numPoints, grid.size());
+
+        for (int q = 0; q < 1000; q++)
+        {
+            double qx = (random.nextDouble() - 0.5) * 5000.0;
+            double qy = (random.nextDouble() - 0.5) * 5000.0;
+
+            var found = new HashSet<Integer>();
+            int n = grid.query(qx, qy);
+            for (int k = 0; k < n; k++)
+                assertTrue("Duplicate result", found.add(grid.getResult(k)));
+
+            // all points within cell size must be found
+            for (int i = 0; i < numPoints; i++)
+            {
+                double dx = x[i] - qx, dy = y[i] - qy;
+                if (dx*dx + dy*dy <= cellSize*cellSize)
+                    assertTrue("Point " + i + " not found", found.contains(i));
+            }
+
+            // and no point more than 2 cells away
+            for (int i: found)
+            {
+                assertTrue(Math.abs(x[i] - qx) < 2*cellSize);
+                assertTrue(Math.abs(y[i] - qy) < 2*cellSize);
+            }
+        }
+    }
+
+
+    @Test
+    public void testClear()
+    {
+        var grid = new SpatialGrid();
+        grid.clear(10.0);
+        grid.add(0.0, 0.0, 0);
+        grid.add(5.0, 5.0, 1);
+        assertEquals(2, grid.query(1.0, 1.0));
+
+        grid.clear(10.0);
+        assertEquals(0, grid.query(1.0, 1.0));
+
+        // far away points are clamped to border cells
+        grid.add(1e12, -1e12, 3);
+        assertEquals(1, grid.query(1e12, -1e12));
+    }
+}
@@ -3,13 +3,13 @@ package org.sensorhub.impl.process.universalcontroller;
 import org.sensorhub.impl.sensor.universalcontroller.helpers.UniversalControllerComponent;
 import net.opengis.swe.v20.*;
 import org.sensorhub.api.processing.OSHProcessInfo;
-import org.sensorhub.impl.process.universalcontroller.helpers.AbstractControllerTaskingProcess;
+import org.sensorhub.impl.process.universalcontroller.helpers.AbstractLowLatencyControllerProcess;
 import org.vast.process.ProcessException;
 import org.vast.swe.SWEConstants;
 import org.vast.swe.SWEHelper;
 import org.vast.swe.helper.GeoPosHelper;
 
-public class ControllerMAVLinkProcess extends AbstractControllerTaskingProcess {
+public class ControllerMAVLinkProcess extends AbstractLowLatencyControllerProcess {
 
     Quantity takeoffAltitude;
     Vector landingLocation;
@@ -80,13 +80,13 @@ public class ControllerMAVLinkProcess extends AbstractControllerTaskingProcess {
 
         // TODO: Might have error of continuous landing command if 0,0,0 is sent repeatedly. May need to switch all outputs to just be a single DataChoice output.
 
-        float currentX = fac.getComponentValueInput(UniversalControllerComponent.X_AXIS);
-        float currentY = fac.getComponentValueInput(UniversalControllerComponent.Y_AXIS);
-        float currentRX = fac.getComponentValueInput(UniversalControllerComponent.RX_AXIS);
-        float currentRY = fac.getComponentValueInput(UniversalControllerComponent.RY_AXIS);
-        float currentDPad = fac.getComponentValueInput(UniversalControllerComponent.D_PAD);
-        boolean isAPressed = fac.getComponentValueInput(UniversalControllerComponent.A_BUTTON) == 1.0f;
-        boolean isBPressed = fac.getComponentValueInput(UniversalControllerComponent.B_BUTTON) == 1.0f;
+        float currentX = state.getValue(UniversalControllerComponent.X_AXIS);
+        float currentY = state.getValue(UniversalControllerComponent.Y_AXIS);
+        float currentRX = state.getValue(UniversalControllerComponent.RX_AXIS);
+        float currentRY = state.getValue(UniversalControllerComponent.RY_AXIS);
+        float currentDPad = state.getValue(UniversalControllerComponent.D_PAD);
+        boolean isAPressed = state.isPressed(UniversalControllerComponent.A_BUTTON);
+        boolean isBPressed = state.isPressed(UniversalControllerComponent.B_BUTTON);
 
         // Takeoff
         if(isAPressed) {
@@ -3,12 +3,12 @@ package org.sensorhub.impl.process.universalcontroller;
 import org.sensorhub.impl.sensor.universalcontroller.helpers.UniversalControllerComponent;
 import net.opengis.swe.v20.DataType;
 import net.opengis.swe.v20.Quantity;
-import org.sensorhub.impl.process.universalcontroller.helpers.AbstractControllerTaskingProcess;
+import org.sensorhub.impl.process.universalcontroller.helpers.AbstractLowLatencyControllerProcess;
 import org.sensorhub.api.processing.OSHProcessInfo;
 import org.vast.process.ProcessException;
 import org.vast.swe.SWEHelper;
 
-public class ControllerPTZProcess extends AbstractControllerTaskingProcess {
+public class ControllerPTZProcess extends AbstractLowLatencyControllerProcess {
 
     public static final OSHProcessInfo INFO = new OSHProcessInfo("universalcontrollerptz", "Universal Controller PTZ Process", null, ControllerPTZProcess.class);
     float curXValue = 0;
@@ -55,20 +55,20 @@ public class ControllerPTZProcess extends AbstractControllerTaskingProcess {
     @Override
     public void updateOutputs() throws ProcessException {
         try {
-            boolean hasOnlyLeftJoystick = fac.hasComponent(UniversalControllerComponent.X_AXIS);
-            curXValue = hasOnlyLeftJoystick ? fac.getComponentValueInput(UniversalControllerComponent.X_AXIS) : fac.getComponentValueInput(UniversalControllerComponent.RX_AXIS);
-            curYValue = hasOnlyLeftJoystick ? fac.getComponentValueInput(UniversalControllerComponent.Y_AXIS) : fac.getComponentValueInput(UniversalControllerComponent.RY_AXIS);
+            boolean hasOnlyLeftJoystick = state.hasComponent(UniversalControllerComponent.X_AXIS);
+            curXValue = hasOnlyLeftJoystick ? state.getValue(UniversalControllerComponent.X_AXIS) : state.getValue(UniversalControllerComponent.RX_AXIS);
+            curYValue = hasOnlyLeftJoystick ? state.getValue(UniversalControllerComponent.Y_AXIS) : state.getValue(UniversalControllerComponent.RY_AXIS);
 
             // Zoom in/out button isPressed values for HID and Wii controllers
-            isLeftPressed = fac.getComponentValueInput(UniversalControllerComponent.LT_BUTTON) == 1.0f;
-            isRightPressed = fac.getComponentValueInput(UniversalControllerComponent.RT_BUTTON) == 1.0f;
+            isLeftPressed = state.isPressed(UniversalControllerComponent.LT_BUTTON);
+            isRightPressed = state.isPressed(UniversalControllerComponent.RT_BUTTON);
 
             // Sensitivity determined by dpadInput up and down on scale of 1-10
-            if(fac.getComponentValueInput(UniversalControllerComponent.D_PAD) == UniversalControllerComponent.DPadDirection.UP.getValue()) {
+            if(state.getValue(UniversalControllerComponent.D_PAD) == UniversalControllerComponent.DPadDirection.UP.getValue()) {
                 if(sensitivityOutput.getData().getIntValue() < 10) {
                     sensitivityOutput.getData().setIntValue(sensitivityOutput.getData().getIntValue() + 1);
                 }
-            } else if(fac.getComponentValueInput(UniversalControllerComponent.D_PAD) == UniversalControllerComponent.DPadDirection.DOWN.getValue()) {
+            } else if(state.getValue(UniversalControllerComponent.D_PAD) == UniversalControllerComponent.DPadDirection.DOWN.getValue()) {
                 if(sensitivityOutput.getData().getIntValue() > 1) {
                     sensitivityOutput.getData().setIntValue(sensitivityOutput.getData().getIntValue() - 1);
                 }
@@ -0,0 +1,212 @@
+package org.sensorhub.impl.process.universalcontroller.helpers;
+
+import net.opengis.swe.v20.DataComponent;
+import net.opengis.swe.v20.DataType;
+import net.opengis.swe.v20.Quantity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vast.data.DataBlockParallel;
+import org.vast.process.ProcessException;
+import org.vast.process.ProcessInfo;
+import org.vast.swe.SWEHelper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Base class for controller tasking processes that compute and send commands
+ * on a dedicated control loop thread instead of the thread delivering
+ * controller input.
+ * <p>
+ * Input records are only decoded in {@link #execute()} and handed to the
+ * control loop through a lock-free {@link ControllerStateBuffer}. The control
+ * loop wakes up as soon as a new state is available and sends commands right
+ * away, unless commands were sent less than one control period ago, in which
+ * case it waits and all states received in the meantime are coalesced into the
+ * latest one. Commands are thus sent with minimal delay but never faster than
+ * the control rate.
+ * <p>
+ * Subclasses read controller values from {@link #state} in
+ * {@link #updateOutputs()}. Latency from input reception to command sent is
+ * available from {@link #getLatencyStats()} and logged periodically.
+ * <p>
+ * Threading contract: {@link #execute()} runs on the process execution thread
+ * and only touches inputs and the state buffer. Outputs are written and
+ * published exclusively by the control loop thread, and the process thread
+ * never publishes them ({@link #publishData()} is a no-op). Once published,
+ * output data blocks are never modified again: the control loop switches each
+ * output to a copy of its data block before computing the next commands, so
+ * downstream processes or the process chain may read published blocks from
+ * their own thread.
+ */
+public abstract class AbstractLowLatencyControllerProcess extends AbstractControllerTaskingProcess {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractLowLatencyControllerProcess.class);
+    private static final long STATS_LOG_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    protected Quantity controlRateParam;
+    protected final ControllerStateBuffer stateBuffer = new ControllerStateBuffer();
+    protected final LatencyStats latencyStats = new LatencyStats();
+    protected ControllerState state;
+
+    private int controlStreamIndex;
+    private long controlPeriodNanos;
+    private volatile Thread controlThread;
+    private volatile boolean running;
+
+    public AbstractLowLatencyControllerProcess(ProcessInfo processInfo) {
+        super(processInfo);
+
+        paramData.add("controlRate", controlRateParam = fac.createQuantity()
+                .label("Control Rate")
+                .description("Maximum rate at which commands are sent")
+                .definition(SWEHelper.getPropertyUri("SamplingFrequency"))
+                .uomCode("Hz")
+                .dataType(DataType.FLOAT)
+                .value(50.0f)
+                .build());
+    }
+
+    @Override
+    public void init() throws ProcessException {
+        super.init();
+
+        double controlRate = controlRateParam.getData().getDoubleValue();
+        if (!(controlRate > 0.0)) {
+            reportError("Control rate must be positive");
+        }
+        controlPeriodNanos = (long) (1e9 / controlRate);
+        controlStreamIndex = paramData.getComponent(fac.createControlStreamIndexParameter().getName()).getData().getIntValue();
+    }
+
+    /**
+     * Decodes the component record and hands it to the control loop
+     */
+    @Override
+    public void execute() throws ProcessException {
+        long receivedTime = System.nanoTime();
+        fac.setComponentRecord(fac.getComponentRecord().getData());
+
+        int primaryControlStreamIndex = fac.getPrimaryControlStreamIndexInput();
+        if (primaryControlStreamIndex != controlStreamIndex) {
+            return;
+        }
+
+        ControllerState writeState = stateBuffer.getWriteState();
+        DataBlockParallel componentArray = (DataBlockParallel) fac.getComponentRecord().getComponent("gamepadComponents").getData();
+        writeState.setValues(
+                (String[]) componentArray.getUnderlyingObject()[0].getUnderlyingObject(),
+                componentArray.getUnderlyingObject()[1].getUnderlyingObject(),
+                fac.getNumComponentsInput());
+        writeState.setPrimaryControlStreamIndex(primaryControlStreamIndex);
+        writeState.setReceivedTimeNanos(receivedTime);
+        stateBuffer.publish();
+
+        Thread thread = controlThread;
+        if (thread == null) {
+            startControlLoop();
+        } else {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    protected synchronized void startControlLoop() {
+        if (controlThread != null) {
+            return;
+        }
+
+        running = true;
+        controlThread = new Thread(this::runControlLoop, getClass().getSimpleName() + " Control Loop");
+        controlThread.setDaemon(true);
+        controlThread.start();
+    }
+
+    protected synchronized void stopControlLoop() {
+        running = false;
+        if (controlThread != null) {
+            LockSupport.unpark(controlThread);
+            controlThread = null;
+        }
+    }
+
+    private void runControlLoop() {
+        long lastSendTime = System.nanoTime() - controlPeriodNanos;
+        long lastLogTime = System.nanoTime();
+
+        while (running) {
+            if (!stateBuffer.hasUpdate()) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            // rate limit, states received while waiting are coalesced
+            long waitTime = lastSendTime + controlPeriodNanos - System.nanoTime();
+            if (waitTime > 0) {
+                LockSupport.parkNanos(this, waitTime);
+                continue;
+            }
+
+            state = stateBuffer.acquire();
+            if (state == null) {
+                continue;
+            }
+
+            lastSendTime = System.nanoTime();
+            try {
+                sendCommands();
+                latencyStats.record(System.nanoTime() - state.getReceivedTimeNanos());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Error sending controller commands", e);
+            }
+
+            if (logger.isDebugEnabled() && lastSendTime - lastLogTime > STATS_LOG_PERIOD_NANOS) {
+                logger.debug("Controller command latency: {}, coalesced states: {}", latencyStats, stateBuffer.getCoalescedCount());
+                lastLogTime = lastSendTime;
+            }
+        }
+    }
+
+    /**
+     * Computes command outputs from the current state and publishes them.
+     * Only called from the control loop thread.
+     */
+    protected void sendCommands() throws ProcessException, InterruptedException {
+        updateOutputs();
+        super.publishData();
+        renewOutputBlocks();
+    }
+
+    /**
+     * Replaces output data blocks with copies so that blocks already published
+     * are not modified by the next call to {@link #updateOutputs()}
+     */
+    private void renewOutputBlocks() {
+        for (int i = 0; i < outputData.size(); i++) {
+            DataComponent output = outputData.getComponent(i);
+            if (output.hasData()) {
+                output.setData(output.getData().clone());
+            }
+        }
+    }
+
+    /**
+     * Outputs are only published by the control loop, in {@link #sendCommands()},
+     * so the process execution thread never touches output data blocks
+     */
+    @Override
+    protected void publishData() {
+    }
+
+    public LatencyStats getLatencyStats() {
+        return latencyStats;
+    }
+
+    @Override
+    public void dispose() {
+        stopControlLoop();
+        super.dispose();
+    }
+}
@@ -0,0 +1,106 @@
+package org.sensorhub.impl.process.universalcontroller.helpers;
+
+import org.sensorhub.impl.sensor.universalcontroller.helpers.UniversalControllerComponent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the component values of the primary controller, indexed by
+ * {@link UniversalControllerComponent} so values can be read without searching
+ * the component array by name.
+ * <p>
+ * Instances are recycled by {@link ControllerStateBuffer} and must only be read
+ * by the thread that acquired them.
+ */
+public class ControllerState {
+
+    private static final UniversalControllerComponent[] COMPONENTS = UniversalControllerComponent.values();
+    private static final Map<String, UniversalControllerComponent> COMPONENTS_BY_NAME = new HashMap<>();
+    static {
+        for (UniversalControllerComponent component : COMPONENTS) {
+            COMPONENTS_BY_NAME.put(component.getComponentName(), component);
+        }
+    }
+
+    final float[] values = new float[COMPONENTS.length];
+    final boolean[] present = new boolean[COMPONENTS.length];
+    long pressedMask;
+    int primaryControlStreamIndex;
+    long receivedTimeNanos;
+
+    /**
+     * Sets component values from the columns of the component array
+     *
+     * @param names Component names
+     * @param componentValues Component values, as a float[] or double[]
+     * @param numComponents Number of components
+     */
+    public void setValues(String[] names, Object componentValues, int numComponents) {
+        Arrays.fill(values, 0.0f);
+        Arrays.fill(present, false);
+
+        float[] floatValues = componentValues instanceof float[] ? (float[]) componentValues : null;
+        double[] doubleValues = floatValues == null ? (double[]) componentValues : null;
+
+        for (int i = 0; i < numComponents; i++) {
+            UniversalControllerComponent component = COMPONENTS_BY_NAME.get(names[i]);
+            if (component != null) {
+                values[component.ordinal()] = floatValues != null ? floatValues[i] : (float) doubleValues[i];
+                present[component.ordinal()] = true;
+            }
+        }
+    }
+
+    public void setValue(UniversalControllerComponent component, float value) {
+        values[component.ordinal()] = value;
+        present[component.ordinal()] = true;
+    }
+
+    public float getValue(UniversalControllerComponent component) {
+        return values[component.ordinal()];
+    }
+
+    public boolean hasComponent(UniversalControllerComponent component) {
+        return present[component.ordinal()];
+    }
+
+    /**
+     * @param component Button component
+     * @return true if the button is pressed, or was pressed in a state that was
+     * coalesced into this one
+     */
+    public boolean isPressed(UniversalControllerComponent component) {
+        return values[component.ordinal()] == 1.0f || (pressedMask & (1L << component.ordinal())) != 0;
+    }
+
+    public int getPrimaryControlStreamIndex() {
+        return primaryControlStreamIndex;
+    }
+
+    public void setPrimaryControlStreamIndex(int primaryControlStreamIndex) {
+        this.primaryControlStreamIndex = primaryControlStreamIndex;
+    }
+
+    /**
+     * @return Time at which the input was received by the process, from {@link System#nanoTime()}
+     */
+    public long getReceivedTimeNanos() {
+        return receivedTimeNanos;
+    }
+
+    public void setReceivedTimeNanos(long receivedTimeNanos) {
+        this.receivedTimeNanos = receivedTimeNanos;
+    }
+
+    long getCurrentPressedMask() {
+        long mask = 0;
+        for (int i = 0; i < values.length && i < Long.SIZE; i++) {
+            if (values[i] == 1.0f) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+}
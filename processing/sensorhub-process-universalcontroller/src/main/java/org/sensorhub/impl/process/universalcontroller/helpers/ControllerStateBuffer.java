@@ -0,0 +1,84 @@
+package org.sensorhub.impl.process.universalcontroller.helpers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free triple buffer used to hand the latest controller state from the
+ * thread receiving controller input to the control loop thread.
+ * <p>
+ * The writer fills the state returned by {@link #getWriteState()} and calls
+ * {@link #publish()}, the reader gets the most recent published state with
+ * {@link #acquire()}. Neither side ever blocks or allocates. States published
+ * while the reader is busy are coalesced, i.e. only the latest one is read, but
+ * button presses are latched so a short press is never lost.
+ * <p>
+ * Only one writer thread and one reader thread are supported.
+ */
+public class ControllerStateBuffer {
+
+    private static final int INDEX_MASK = 0x3;
+    private static final int DIRTY = 0x4;
+
+    private final ControllerState[] states = { new ControllerState(), new ControllerState(), new ControllerState() };
+    private final AtomicInteger shared = new AtomicInteger(1);
+    private final AtomicLong pendingPresses = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private int writeIndex = 0;
+    private int readIndex = 2;
+
+    /**
+     * @return State to fill before calling {@link #publish()}. Only to be used by the writer thread.
+     */
+    public ControllerState getWriteState() {
+        return states[writeIndex];
+    }
+
+    /**
+     * Makes the write state available to the reader, replacing the previously
+     * published state if it hasn't been read yet
+     */
+    public void publish() {
+        long pressed = states[writeIndex].getCurrentPressedMask();
+        long mask = pendingPresses.get();
+        while (pressed != 0 && !pendingPresses.compareAndSet(mask, mask | pressed)) {
+            mask = pendingPresses.get();
+        }
+
+        int previous = shared.getAndSet(writeIndex | DIRTY);
+        if ((previous & DIRTY) != 0) {
+            coalescedCount.incrementAndGet();
+        }
+        writeIndex = previous & INDEX_MASK;
+    }
+
+    /**
+     * @return true if a state was published since the last call to {@link #acquire()}
+     */
+    public boolean hasUpdate() {
+        return (shared.get() & DIRTY) != 0;
+    }
+
+    /**
+     * Gets the latest published state. The returned state remains valid until the next call.
+     *
+     * @return The latest state, or null if no state was published since the last call
+     */
+    public ControllerState acquire() {
+        if (!hasUpdate()) {
+            return null;
+        }
+
+        readIndex = shared.getAndSet(readIndex) & INDEX_MASK;
+        ControllerState state = states[readIndex];
+        state.pressedMask = pendingPresses.getAndSet(0);
+        return state;
+    }
+
+    /**
+     * @return Number of states that were replaced by a newer one before being read
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+}
@@ -0,0 +1,72 @@
+package org.sensorhub.impl.process.universalcontroller.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Latency statistics with a fixed size histogram, so recording a sample
+ * never allocates. Buckets are powers of two of microseconds, so percentiles
+ * are given as the upper bound of the bucket they fall in.
+ */
+public class LatencyStats {
+
+    private static final int NUM_BUCKETS = 32;
+
+    private final long[] histogram = new long[NUM_BUCKETS];
+    private long count;
+    private long sumNanos;
+    private long maxNanos;
+
+    public synchronized void record(long latencyNanos) {
+        long micros = Math.max(0, latencyNanos / 1000);
+        int bucket = Math.min(NUM_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+        histogram[bucket]++;
+        count++;
+        sumNanos += latencyNanos;
+        maxNanos = Math.max(maxNanos, latencyNanos);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMeanMillis() {
+        return count > 0 ? sumNanos / (count * 1e6) : Double.NaN;
+    }
+
+    public synchronized double getMaxMillis() {
+        return count > 0 ? maxNanos / 1e6 : Double.NaN;
+    }
+
+    /**
+     * @param p Percentile between 0 and 100
+     * @return Upper bound of the given latency percentile in milliseconds
+     */
+    public synchronized double getPercentileMillis(double p) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        long rank = (long) Math.ceil(p / 100.0 * count);
+        long cumulated = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            cumulated += histogram[i];
+            if (cumulated >= rank) {
+                return Math.min((1L << i) / 1000.0, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(histogram, 0);
+        count = 0;
+        sumNanos = 0;
+        maxNanos = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("n=%d, mean=%.2fms, p99=%.2fms, max=%.2fms",
+                count, getMeanMillis(), getPercentileMillis(99), getMaxMillis());
+    }
+}
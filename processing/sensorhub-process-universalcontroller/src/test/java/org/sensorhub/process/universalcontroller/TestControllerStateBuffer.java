@@ -0,0 +1,132 @@
+package org.sensorhub.process.universalcontroller;
+
+import org.junit.Test;
+import org.sensorhub.impl.process.universalcontroller.helpers.ControllerState;
+import org.sensorhub.impl.process.universalcontroller.helpers.ControllerStateBuffer;
+import org.sensorhub.impl.process.universalcontroller.helpers.LatencyStats;
+import org.sensorhub.impl.sensor.universalcontroller.helpers.UniversalControllerComponent;
+
+import static org.junit.Assert.*;
+
+public class TestControllerStateBuffer {
+
+    private void publish(ControllerStateBuffer buffer, float x, float a) {
+        ControllerState state = buffer.getWriteState();
+        state.setValue(UniversalControllerComponent.X_AXIS, x);
+        state.setValue(UniversalControllerComponent.A_BUTTON, a);
+        buffer.publish();
+    }
+
+    @Test
+    public void testLatestValueIsRead() {
+        ControllerStateBuffer buffer = new ControllerStateBuffer();
+        assertFalse(buffer.hasUpdate());
+        assertNull(buffer.acquire());
+
+        publish(buffer, 0.1f, 0.0f);
+        assertTrue(buffer.hasUpdate());
+        assertEquals(0.1f, buffer.acquire().getValue(UniversalControllerComponent.X_AXIS), 0.0f);
+        assertNull(buffer.acquire());
+
+        // intermediate states are coalesced
+        publish(buffer, 0.2f, 0.0f);
+        publish(buffer, 0.3f, 0.0f);
+        publish(buffer, 0.4f, 0.0f);
+        ControllerState state = buffer.acquire();
+        assertEquals(0.4f, state.getValue(UniversalControllerComponent.X_AXIS), 0.0f);
+        assertTrue(state.hasComponent(UniversalControllerComponent.X_AXIS));
+        assertFalse(state.hasComponent(UniversalControllerComponent.RX_AXIS));
+        assertEquals(2, buffer.getCoalescedCount());
+    }
+
+    @Test
+    public void testButtonPressIsLatched() {
+        ControllerStateBuffer buffer = new ControllerStateBuffer();
+
+        // press and release between two reads
+        publish(buffer, 0.0f, 1.0f);
+        publish(buffer, 0.0f, 0.0f);
+        ControllerState state = buffer.acquire();
+        assertEquals(0.0f, state.getValue(UniversalControllerComponent.A_BUTTON), 0.0f);
+        assertTrue(state.isPressed(UniversalControllerComponent.A_BUTTON));
+
+        // latch is cleared once read
+        publish(buffer, 0.0f, 0.0f);
+        assertFalse(buffer.acquire().isPressed(UniversalControllerComponent.A_BUTTON));
+    }
+
+    @Test
+    public void testSetValuesFromComponentArray() {
+        ControllerState state = new ControllerState();
+        String[] names = {"x", "y", "A", "unknown"};
+
+        state.setValues(names, new float[] {0.5f, -0.5f, 1.0f, 1.0f}, 4);
+        assertEquals(0.5f, state.getValue(UniversalControllerComponent.X_AXIS), 0.0f);
+        assertEquals(-0.5f, state.getValue(UniversalControllerComponent.Y_AXIS), 0.0f);
+        assertTrue(state.isPressed(UniversalControllerComponent.A_BUTTON));
+
+        // previous values are cleared
+        state.setValues(names, new double[] {0.25, 0.0}, 2);
+        assertEquals(0.25f, state.getValue(UniversalControllerComponent.X_AXIS), 0.0f);
+        assertFalse(state.hasComponent(UniversalControllerComponent.A_BUTTON));
+        assertFalse(state.isPressed(UniversalControllerComponent.A_BUTTON));
+    }
+
+    @Test
+    public void testConcurrentHandoff() throws Exception {
+        ControllerStateBuffer buffer = new ControllerStateBuffer();
+        int numUpdates = 1000000;
+
+        // all values of a state are written with the same counter so a torn
+        // read would show different values
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= numUpdates; i++) {
+                ControllerState state = buffer.getWriteState();
+                state.setValue(UniversalControllerComponent.X_AXIS, i);
+                state.setValue(UniversalControllerComponent.Y_AXIS, i);
+                state.setValue(UniversalControllerComponent.RX_AXIS, i);
+                buffer.publish();
+            }
+        });
+        writer.start();
+
+        float last = 0;
+        int numReads = 0;
+        while (last < numUpdates) {
+            ControllerState state = buffer.acquire();
+            if (state != null) {
+                float x = state.getValue(UniversalControllerComponent.X_AXIS);
+                assertEquals(x, state.getValue(UniversalControllerComponent.Y_AXIS), 0.0f);
+                assertEquals(x, state.getValue(UniversalControllerComponent.RX_AXIS), 0.0f);
+                assertTrue("States must be read in order", x > last);
+                last = x;
+                numReads++;
+            }
+        }
+
+        writer.join();
+        assertEquals(numUpdates, numReads + buffer.getCoalescedCount());
+    }
+
+    @Test
+    public void testLatencyStats() {
+        LatencyStats stats = new LatencyStats();
+        assertTrue(Double.isNaN(stats.getMeanMillis()));
+
+        for (int i = 1; i <= 100; i++) {
+            stats.record(i * 100000L);
+        }
+
+        assertEquals(100, stats.getCount());
+        assertEquals(5.05, stats.getMeanMillis(), 1e-9);
+        assertEquals(10.0, stats.getMaxMillis(), 1e-9);
+
+        // percentiles are bucket upper bounds
+        double p50 = stats.getPercentileMillis(50);
+        assertTrue(p50 >= 5.0 && p50 <= 10.0);
+        assertEquals(10.0, stats.getPercentileMillis(100), 1e-9);
+
+        stats.reset();
+        assertEquals(0, stats.getCount());
+    }
+}
@@ -0,0 +1,270 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.algo.vecmath;
+
+
+/**
+ * <p>
+ * Bulk operations on many 3D vectors stored as separate x, y and z arrays
+ * (struct of arrays layout).<br/>
+ * Loops are kept simple so they can be unrolled and vectorized by the JIT,
+ * and no object is allocated per vector. All operations are done in place
+ * on elements offset to offset+count-1.<br/>
+ * For efficiency, no checks for null pointers or NaN are done in this class.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class Vect3dArrays
+{
+
+    private Vect3dArrays()
+    {
+    }
+
+
+    /**
+     * Adds the same vector to all vectors
+     * @param x array of x components
+     * @param y array of y components
+     * @param z array of z components
+     * @param offset index of first vector
+     * @param count number of vectors
+     * @param t vector to add
+     */
+    public static void add(final double[] x, final double[] y, final double[] z, final int offset, final int count, final Vect3d t)
+    {
+        final double tx = t.x, ty = t.y, tz = t.z;
+        final int end = offset + count;
+
+        for (int i = offset; i < end; i++)
+        {
+            x[i] += tx;
+            y[i] += ty;
+            z[i] += tz;
+        }
+    }
+
+
+    /**
+     * Multiplies all vectors by the same scalar
+     * @param x array of x components
+     * @param y array of y components
+     * @param z array of z components
+     * @param offset index of first vector
+     * @param count number of vectors
+     * @param scalar scale factor
+     */
+    public static void scale(final double[] x, final double[] y, final double[] z, final int offset, final int count, final double scalar)
+    {
+        final int end = offset + count;
+
+        for (int i = offset; i < end; i++)
+        {
+            x[i] *= scalar;
+            y[i] *= scalar;
+            z[i] *= scalar;
+        }
+    }
+
+
+    /**
+     * Normalizes all vectors to unit length
+     * @param x array of x components
+     * @param y array of y components
+     * @param z array of z components
+     * @param offset index of first vector
+     * @param count number of vectors
+     */
+    public static void normalize(final double[] x, final double[] y, final double[] z, final int offset, final int count)
+    {
+        final int end = offset + count;
+
+        for (int i = offset; i < end; i++)
+        {
+            double invNorm = 1.0 / Math.sqrt(x[i]*x[i] + y[i]*y[i] + z[i]*z[i]);
+            x[i] *= invNorm;
+            y[i] *= invNorm;
+            z[i] *= invNorm;
+        }
+    }
+
+
+    /**
+     * Multiplies all vectors by the same 3x3 matrix
+     * @param m matrix
+     * @param x array of x components
+     * @param y array of y components
+     * @param z array of z components
+     * @param offset index of first vector
+     * @param count number of vectors
+     * @see Mat3d#mul(Vect3d, Vect3d)
+     */
+    public static void mul(final Mat3d m, final double[] x, final double[] y, final double[] z, final int offset, final int count)
+    {
+        final double m00 = m.m00, m01 = m.m01, m02 = m.m02;
+        final double m10 = m.m10, m11 = m.m11, m12 = m.m12;
+        final double m20 = m.m20, m21 = m.m21, m22 = m.m22;
+        final int end = offset + count;
+
+        for (int i = offset; i < end; i++)
+        {
+            double vx = x[i], vy = y[i], vz = z[i];
+            x[i] = m00*vx + m01*vy + m02*vz;
+            y[i] = m10*vx + m11*vy + m12*vz;
+            z[i] = m20*vx + m21*vy + m22*vz;
+        }
+    }
+
+
+    /**
+     * Applies the same affine transform to all vectors
+     * @param m 4x4 matrix (only the first three rows are used)
+     * @param x array of x components
+     * @param y array of y components
+     * @param z array of z components
+     * @param offset index of first vector
+     * @param count number of vectors
+     * @see Mat4d#mul(Vect3d, Vect3d)
+     */
+    public static void mul(final Mat4d m, final double[] x, final double[] y, final double[] z, final int offset, final int count)
+    {
+        final double m00 = m.m00, m01 = m.m01, m02 = m.m02, m03 = m.m03;
+        final double m10 = m.m10, m11 = m.m11, m12 = m.m12, m13 = m.m13;
+        final double m20 = m.m20, m21 = m.m21, m22 = m.m22, m23 = m.m23;
+        final int end = offset + count;
+
+        for (int i = offset; i < end; i++)
+        {
+            double vx = x[i], vy = y[i], vz = z[i];
+            x[i] = m00*vx + m01*vy + m02*vz + m03;
+            y[i] = m10*vx + m11*vy + m12*vz + m13;
+            z[i] = m20*vx + m21*vy + m22*vz + m23;
+        }
+    }
+
+
+    /**
+     * Rotates all vectors with the same quaternion
+     * @param q quaternion
+     * @param x array of x components
+     * @param y array of y components
+     * @param z array of z components
+     * @param offset index of first vector
+     * @param count number of vectors
+     * @see Quat4d#rotate(Vect3d, Vect3d)
+     */
+    public static void rotate(final Quat4d q, final double[] x, final double[] y, final double[] z, final int offset, final int count)
+    {
+        // applying the equivalent matrix is cheaper than the quaternion product
+        Mat3d m = new Mat3d();
+        q.toRotationMatrix(m);
+        mul(m, x, y, z, offset, count);
+    }
+
+
+    /**
+     * Rotates each vector with its own quaternion (e.g. attitude at each
+     * point of a track)
+     * @param qx array of quaternion x components
+     * @param qy array of quaternion y components
+     * @param qz array of quaternion z components
+     * @param qs array of quaternion scalar components
+     * @param x array of x components
+     * @param y array of y components
+     * @param z array of z components
+     * @param offset index of first vector and quaternion
+     * @param count number of vectors
+     * @see Quat4d#rotate(Vect3d, Vect3d)
+     */
+    public static void rotate(final double[] qx, final double[] qy, final double[] qz, final double[] qs,
+                              final double[] x, final double[] y, final double[] z, final int offset, final int count)
+    {
+        final int end = offset + count;
+
+        for (int i = offset; i < end; i++)
+        {
+            double twoxx = 2.0 * qx[i] * qx[i];
+            double twoyy = 2.0 * qy[i] * qy[i];
+            double twozz = 2.0 * qz[i] * qz[i];
+
+            double xy = qx[i] * qy[i];
+            double yz = qy[i] * qz[i];
+            double xz = qx[i] * qz[i];
+            double wx = qs[i] * qx[i];
+            double wy = qs[i] * qy[i];
+            double wz = qs[i] * qz[i];
+
+            double vx = x[i], vy = y[i], vz = z[i];
+
+            x[i] = vx * (1.0 - twoyy - twozz) +
+                   vy * (2.0 * (xy - wz)) +
+                   vz * (2.0 * (xz + wy));
+
+            y[i] = vx * (2.0 * (xy + wz)) +
+                   vy * (1.0 - twoxx - twozz) +
+                   vz * (2.0 * (yz - wx));
+
+            z[i] = vx * (2.0 * (xz - wy)) +
+                   vy * (2.0 * (yz + wx)) +
+                   vz * (1.0 - twoxx - twoyy);
+        }
+    }
+
+
+    /**
+     * Copies vectors from an interleaved array (x,y,z triplets) to separate arrays
+     * @param xyz interleaved array
+     * @param x array to receive x components
+     * @param y array to receive y components
+     * @param z array to receive z components
+     * @param offset index of first vector in all arrays
+     * @param count number of vectors
+     */
+    public static void deinterleave(final double[] xyz, final double[] x, final double[] y, final double[] z, final int offset, final int count)
+    {
+        final int end = offset + count;
+
+        for (int i = offset, j = 3*offset; i < end; i++, j += 3)
+        {
+            x[i] = xyz[j];
+            y[i] = xyz[j+1];
+            z[i] = xyz[j+2];
+        }
+    }
+
+
+    /**
+     * Copies vectors from separate arrays to an interleaved array (x,y,z triplets)
+     * @param x array of x components
+     * @param y array of y components
+     * @param z array of z components
+     * @param xyz interleaved array to receive the vectors
+     * @param offset index of first vector in all arrays
+     * @param count number of vectors
+     */
+    public static void interleave(final double[] x, final double[] y, final double[] z, final double[] xyz, final int offset, final int count)
+    {
+        final int end = offset + count;
+
+        for (int i = offset, j = 3*offset; i < end; i++, j += 3)
+        {
+            xyz[j] = x[i];
+            xyz[j+1] = y[i];
+            xyz[j+2] = z[i];
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.sensorhub.algo.vecmath.Mat3d;
 import org.sensorhub.api.processing.OSHProcessInfo;
 import org.vast.process.ExecutableProcessImpl;
 import org.vast.process.ProcessException;
+import org.vast.process.ProcessInfo;
 
 
 /**
@@ -48,14 +49,20 @@ public class Euler2Mat3 extends ExecutableProcessImpl
     private Quantity r3Data;
     private Text orderParam;
     private DataArray outputMatrix;
-    private char[] rotAxes = {'X','Y','Z'};
+    protected char[] rotAxes = {'X','Y','Z'};
     private double[] rotValues = new double[3];
     private Mat3d rotM = new Mat3d();
     
     
     public Euler2Mat3()
     {
-        super(INFO);
+        this(INFO);
+    }
+    
+    
+    protected Euler2Mat3(ProcessInfo info)
+    {
+        super(info);
         VecMathHelper sweHelper = new VecMathHelper();
         
         // create euler input
@@ -95,34 +102,45 @@ public class Euler2Mat3 extends ExecutableProcessImpl
         rotValues[0] = r1Data.getData().getDoubleValue();
         rotValues[1] = r2Data.getData().getDoubleValue();
         rotValues[2] = r3Data.getData().getDoubleValue();
-  
+        computeMatrix(rotValues, rotM);
+        
+        // assign values to output matrix
+        VecMathHelper.fromMat3d(rotM, outputMatrix.getData());
+    }
+    
+    
+    /**
+     * Computes the rotation matrix corresponding to the given euler angles,
+     * in the rotation order specified by the rotAxes parameter
+     * @param angles rotation angles about the 3 axes, in radians
+     * @param m matrix to receive the result
+     */
+    protected void computeMatrix(double[] angles, Mat3d m)
+    {
         // set up rotation matrices
-        rotM.setIdentity();
+        m.setIdentity();
  
         // rotate in reverse order as the one given
         // to get intrisic rotations (i.e. in rotating frames)
         for (int i=2; i>=0; i--)
         {
             char axis = rotAxes[i];
-            double r = -rotValues[i];
+            double r = -angles[i];
             
             switch (axis)
             {
                 case 'X':
-                    rotM.rotateX(r);
+                    m.rotateX(r);
                     break;
                     
                 case 'Y':
-                    rotM.rotateY(r);
+                    m.rotateY(r);
                     break;
                     
                 case 'Z':
-                    rotM.rotateZ(r);
+                    m.rotateZ(r);
                     break;
             }
         }
-        
-        // assign values to output matrix
-        VecMathHelper.fromMat3d(rotM, outputMatrix.getData());
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.vecmath;
+
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import org.sensorhub.algo.vecmath.Mat3d;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+
+
+/**
+ * <p>
+ * Construct 3D rotation matrices from a list of euler angle triplets in a
+ * single execution. All triplets use the rotation order specified by the
+ * rotAxes parameter.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class Euler2Mat3_Batch extends Euler2Mat3
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("euler2Mat3Batch", "Euler 2 Matrix (Batch)", "Conversion of a list of euler angles to rotation matrices", Euler2Mat3_Batch.class);
+    protected Count numAnglesIn;
+    protected DataArray anglesIn;
+    protected Count numMatricesOut;
+    protected DataArray matricesOut;
+    private double[] angles = new double[3];
+    private Mat3d rotM = new Mat3d();
+
+
+    public Euler2Mat3_Batch()
+    {
+        super(INFO);
+        VecMathHelper sweHelper = new VecMathHelper();
+
+        // replace euler input by a list
+        inputData.clear();
+        inputData.add("orientations", sweHelper.createRecord()
+            .label("Orientations")
+            .addField("numValues", numAnglesIn = sweHelper.createCount()
+                .id("NUM_ANGLES")
+                .build())
+            .addField("angleList", anglesIn = sweHelper.createArray()
+                .withSizeComponent(numAnglesIn)
+                .withElement("orientation", sweHelper.newEulerAngles(null, "rad"))
+                .build())
+            .build());
+
+        // replace matrix output by a list
+        outputData.clear();
+        outputData.add("rotMatrices", sweHelper.createRecord()
+            .label("Rotation Matrices")
+            .addField("numValues", numMatricesOut = sweHelper.createCount()
+                .id("NUM_MATRICES")
+                .build())
+            .addField("matrixList", matricesOut = sweHelper.createArray()
+                .withSizeComponent(numMatricesOut)
+                .withElement("rotMatrix", sweHelper.newMatrix(VecMathHelper.DEF_ROT_MATRIX, null, 3, 3))
+                .build())
+            .build());
+    }
+
+
+    @Override
+    public void execute() throws ProcessException
+    {
+        int count = numAnglesIn.getData().getIntValue();
+        var inData = anglesIn.getData();
+        matricesOut.updateSize(count);
+        var outData = matricesOut.getData();
+
+        for (int i = 0; i < count; i++)
+        {
+            angles[0] = inData.getDoubleValue(i*3);
+            angles[1] = inData.getDoubleValue(i*3+1);
+            angles[2] = inData.getDoubleValue(i*3+2);
+            computeMatrix(angles, rotM);
+
+            int idx = i*9;
+            outData.setDoubleValue(idx++, rotM.m00);
+            outData.setDoubleValue(idx++, rotM.m01);
+            outData.setDoubleValue(idx++, rotM.m02);
+            outData.setDoubleValue(idx++, rotM.m10);
+            outData.setDoubleValue(idx++, rotM.m11);
+            outData.setDoubleValue(idx++, rotM.m12);
+            outData.setDoubleValue(idx++, rotM.m20);
+            outData.setDoubleValue(idx++, rotM.m21);
+            outData.setDoubleValue(idx, rotM.m22);
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.sensorhub.algo.vecmath.Vect3d;
 import org.sensorhub.api.processing.OSHProcessInfo;
 import org.vast.process.ExecutableProcessImpl;
 import org.vast.process.ProcessException;
+import org.vast.process.ProcessInfo;
 
 
 /**
@@ -41,16 +42,22 @@ import org.vast.process.ProcessException;
 public class MulMat3Vec3 extends ExecutableProcessImpl
 {
     public static final OSHProcessInfo INFO = new OSHProcessInfo("mulMV3", "Matrix Vector Multiply", "Multiply 3x3 matrix by 3D vector", MulMat3Vec3.class);
-    private DataArray mat;
+    protected DataArray mat;
     private Vector vect;
     private Vector vres;
-    private Mat3d m;
-    private Vect3d v;
+    protected Mat3d m;
+    protected Vect3d v;
     
     
     public MulMat3Vec3()
     {
-        super(INFO);
+        this(INFO);
+    }
+    
+    
+    protected MulMat3Vec3(ProcessInfo info)
+    {
+        super(info);
         VecMathHelper sweHelper = new VecMathHelper();
         
         // create matrix input M
@@ -0,0 +1,97 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.process.vecmath;
+
+import net.opengis.swe.v20.Count;
+import net.opengis.swe.v20.DataArray;
+import org.sensorhub.api.processing.OSHProcessInfo;
+import org.vast.process.ProcessException;
+
+
+/**
+ * <p>
+ * Multiplication of a list of 3D vectors by the same 3D matrix in a single
+ * execution, so that the whole list can be passed between processes in
+ * one data block.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MulMat3Vec3_Batch extends MulMat3Vec3
+{
+    public static final OSHProcessInfo INFO = new OSHProcessInfo("mulMV3Batch", "Matrix Vector Multiply (Batch)", "Multiply a list of 3D vectors by a 3x3 matrix", MulMat3Vec3_Batch.class);
+    protected Count numVectorsIn;
+    protected DataArray vectorsIn;
+    protected Count numVectorsOut;
+    protected DataArray vectorsOut;
+
+
+    public MulMat3Vec3_Batch()
+    {
+        super(INFO);
+        VecMathHelper sweHelper = new VecMathHelper();
+
+        // keep matrix input M but replace vector input by a list
+        inputData.clear();
+        inputData.add("M", mat);
+        inputData.add("vectors", sweHelper.createRecord()
+            .label("Input Vectors")
+            .addField("numVectors", numVectorsIn = sweHelper.createCount()
+                .id("NUM_VECTORS_IN")
+                .build())
+            .addField("vectorList", vectorsIn = sweHelper.createArray()
+                .withSizeComponent(numVectorsIn)
+                .withElement("V", sweHelper.newVector3(null, null))
+                .build())
+            .build());
+
+        // output list of result vectors
+        outputData.clear();
+        outputData.add("results", sweHelper.createRecord()
+            .label("Result Vectors")
+            .addField("numVectors", numVectorsOut = sweHelper.createCount()
+                .id("NUM_VECTORS_OUT")
+                .build())
+            .addField("vectorList", vectorsOut = sweHelper.createArray()
+                .withSizeComponent(numVectorsOut)
+                .withElement("Vres", sweHelper.newVector3(null, null))
+                .build())
+            .build());
+    }
+
+
+    @Override
+    public void execute() throws ProcessException
+    {
+        VecMathHelper.toMat3d(mat.getData(), m);
+
+        int count = numVectorsIn.getData().getIntValue();
+        var inData = vectorsIn.getData();
+        vectorsOut.updateSize(count);
+        var outData = vectorsOut.getData();
+
+        for (int i = 0; i < count*3; i += 3)
+        {
+            v.x = inData.getDoubleValue(i);
+            v.y = inData.getDoubleValue(i+1);
+            v.z = inData.getDoubleValue(i+2);
+            m.mul(v, v);
+            outData.setDoubleValue(i, v.x);
+            outData.setDoubleValue(i+1, v.y);
+            outData.setDoubleValue(i+2, v.z);
+        }
+    }
+}
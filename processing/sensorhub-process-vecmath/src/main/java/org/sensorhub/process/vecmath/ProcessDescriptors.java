@@ -23,8 +23,10 @@ public class ProcessDescriptors extends AbstractProcessProvider
     public ProcessDescriptors()
     {
         addImpl(Euler2Mat3.INFO);
+        addImpl(Euler2Mat3_Batch.INFO);
         addImpl(MulMat3Mat3.INFO);
         addImpl(MulMat3Vec3.INFO);
+        addImpl(MulMat3Vec3_Batch.INFO);
         addImpl(MulMat4Mat4.INFO);
         addImpl(Pos2Mat4.INFO);
     }
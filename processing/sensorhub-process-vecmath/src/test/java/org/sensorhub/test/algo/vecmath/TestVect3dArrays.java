@@ -0,0 +1,251 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.test.algo.vecmath;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import java.util.Random;
+import org.junit.Test;
+import org.sensorhub.algo.vecmath.Mat3d;
+import org.sensorhub.algo.vecmath.Mat4d;
+import org.sensorhub.algo.vecmath.Quat4d;
+import org.sensorhub.algo.vecmath.Vect3d;
+import org.sensorhub.algo.vecmath.Vect3dArrays;
+
+
+public class TestVect3dArrays
+{
+    static final double EPS = 1.0e-12;
+    static final int NUM_POINTS = 1000;
+    static final int OFFSET = 10;
+    static final int COUNT = 900;
+
+    Random random = new Random(42);
+    double[] x = new double[NUM_POINTS];
+    double[] y = new double[NUM_POINTS];
+    double[] z = new double[NUM_POINTS];
+    Vect3d[] vects = new Vect3d[NUM_POINTS];
+
+
+    public TestVect3dArrays()
+    {
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            x[i] = random.nextDouble()*200 - 100;
+            y[i] = random.nextDouble()*200 - 100;
+            z[i] = random.nextDouble()*200 - 100;
+            vects[i] = new Vect3d(x[i], y[i], z[i]);
+        }
+    }
+
+
+    protected Quat4d randomQuat()
+    {
+        Quat4d q = new Quat4d(random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextDouble());
+        q.normalize();
+        return q;
+    }
+
+
+    protected void checkResults(Vect3d[] expected)
+    {
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            // elements outside of range must be untouched
+            Vect3d v = (i < OFFSET || i >= OFFSET+COUNT) ? vects[i] : expected[i];
+            assertEquals(v.x, x[i], EPS);
+            assertEquals(v.y, y[i], EPS);
+            assertEquals(v.z, z[i], EPS);
+        }
+    }
+
+
+    @Test
+    public void testAdd()
+    {
+        Vect3d t = new Vect3d(1.0, -2.0, 3.0);
+        Vect3d[] expected = new Vect3d[NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++)
+            expected[i] = vects[i].copy().add(t);
+
+        Vect3dArrays.add(x, y, z, OFFSET, COUNT, t);
+        checkResults(expected);
+    }
+
+
+    @Test
+    public void testScaleAndNormalize()
+    {
+        Vect3d[] expected = new Vect3d[NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++)
+            expected[i] = vects[i].copy().scale(3.5);
+
+        Vect3dArrays.scale(x, y, z, OFFSET, COUNT, 3.5);
+        checkResults(expected);
+
+        for (int i = 0; i < NUM_POINTS; i++)
+            expected[i].normalize();
+
+        Vect3dArrays.normalize(x, y, z, OFFSET, COUNT);
+        checkResults(expected);
+    }
+
+
+    @Test
+    public void testMulMat3d()
+    {
+        Mat3d m = new Mat3d();
+        randomQuat().toRotationMatrix(m);
+        m.m01 += 0.5; // also test with non orthogonal matrix
+
+        Vect3d[] expected = new Vect3d[NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            expected[i] = new Vect3d();
+            m.mul(vects[i], expected[i]);
+        }
+
+        Vect3dArrays.mul(m, x, y, z, OFFSET, COUNT);
+        checkResults(expected);
+    }
+
+
+    @Test
+    public void testMulMat4d()
+    {
+        Mat4d m = new Mat4d();
+        m.m00 = 1.0; m.m01 = 0.2; m.m02 = -0.3; m.m03 = 100.0;
+        m.m10 = 0.1; m.m11 = 2.0; m.m12 = 0.4;  m.m13 = -50.0;
+        m.m20 = 0.5; m.m21 = 0.6; m.m22 = 3.0;  m.m23 = 25.0;
+        m.m33 = 1.0;
+
+        Vect3d[] expected = new Vect3d[NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            expected[i] = new Vect3d();
+            m.mul(vects[i], expected[i]);
+        }
+
+        Vect3dArrays.mul(m, x, y, z, OFFSET, COUNT);
+        checkResults(expected);
+    }
+
+
+    @Test
+    public void testRotate()
+    {
+        Quat4d q = randomQuat();
+
+        Vect3d[] expected = new Vect3d[NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            expected[i] = new Vect3d();
+            q.rotate(vects[i], expected[i]);
+        }
+
+        Vect3dArrays.rotate(q, x, y, z, OFFSET, COUNT);
+        checkResults(expected);
+    }
+
+
+    @Test
+    public void testRotateEach()
+    {
+        double[] qx = new double[NUM_POINTS];
+        double[] qy = new double[NUM_POINTS];
+        double[] qz = new double[NUM_POINTS];
+        double[] qs = new double[NUM_POINTS];
+
+        Vect3d[] expected = new Vect3d[NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            Quat4d q = randomQuat();
+            qx[i] = q.x;
+            qy[i] = q.y;
+            qz[i] = q.z;
+            qs[i] = q.s;
+            expected[i] = new Vect3d();
+            q.rotate(vects[i], expected[i]);
+        }
+
+        Vect3dArrays.rotate(qx, qy, qz, qs, x, y, z, OFFSET, COUNT);
+        checkResults(expected);
+    }
+
+
+    @Test
+    public void testInterleave()
+    {
+        double[] xyz = new double[NUM_POINTS*3];
+        Vect3dArrays.interleave(x, y, z, xyz, 0, NUM_POINTS);
+
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            assertEquals(x[i], xyz[3*i], 0.0);
+            assertEquals(y[i], xyz[3*i+1], 0.0);
+            assertEquals(z[i], xyz[3*i+2], 0.0);
+        }
+
+        double[] x2 = new double[NUM_POINTS];
+        double[] y2 = new double[NUM_POINTS];
+        double[] z2 = new double[NUM_POINTS];
+        Vect3dArrays.deinterleave(xyz, x2, y2, z2, 0, NUM_POINTS);
+        assertArrayEquals(x, x2, 0.0);
+        assertArrayEquals(y, y2, 0.0);
+        assertArrayEquals(z, z2, 0.0);
+    }
+
+
+    @Test
+    public void testRotatePerformance()
+    {
+        assumeTrue("Benchmark only runs with -Dvecmath.benchmark=true", Boolean.getBoolean("vecmath.benchmark"));
+
+        int numPoints = 1000000;
+        int numRuns = 20;
+        Quat4d q = randomQuat();
+
+        double[] x = new double[numPoints];
+        double[] y = new double[numPoints];
+        double[] z = new double[numPoints];
+        Vect3d[] vects = new Vect3d[numPoints];
+        for (int i = 0; i < numPoints; i++)
+        {
+            vects[i] = new Vect3d(random.nextDouble(), random.nextDouble(), random.nextDouble());
+            x[i] = vects[i].x;
+            y[i] = vects[i].y;
+            z[i] = vects[i].z;
+        }
+
+        // per-object rotation
+        Vect3d res = new Vect3d();
+        long t0 = System.nanoTime();
+        for (int r = 0; r < numRuns; r++)
+        {
+            for (int i = 0; i < numPoints; i++)
+                q.rotate(vects[i], res);
+        }
+        long objTime = System.nanoTime() - t0;
+
+        // bulk rotation
+        t0 = System.nanoTime();
+        for (int r = 0; r < numRuns; r++)
+            Vect3dArrays.rotate(q, x, y, z, 0, numPoints);
+        long bulkTime = System.nanoTime() - t0;
+
+        System.out.printf("Rotate %d points: per-object = %.2f ms, bulk = %.2f ms\n",
+            numPoints, objTime/1e6/numRuns, bulkTime/1e6/numRuns);
+    }
+}
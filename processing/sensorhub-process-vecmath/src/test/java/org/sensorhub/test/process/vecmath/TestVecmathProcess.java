@@ -19,13 +19,18 @@ import net.opengis.sensorml.v20.Settings;
 import net.opengis.sensorml.v20.ValueSetting;
 import net.opengis.sensorml.v20.impl.SettingsImpl;
 import net.opengis.sensorml.v20.impl.ValueSettingImpl;
+import net.opengis.swe.v20.DataArray;
 import net.opengis.swe.v20.DataBlock;
+import net.opengis.swe.v20.Text;
 import org.junit.Test;
 import org.sensorhub.algo.vecmath.Mat3d;
 import org.sensorhub.algo.vecmath.Mat4d;
 import org.sensorhub.algo.vecmath.Vect3d;
+import org.sensorhub.process.vecmath.Euler2Mat3;
+import org.sensorhub.process.vecmath.Euler2Mat3_Batch;
 import org.sensorhub.process.vecmath.MulMat3Mat3;
 import org.sensorhub.process.vecmath.MulMat3Vec3;
+import org.sensorhub.process.vecmath.MulMat3Vec3_Batch;
 import org.sensorhub.process.vecmath.MulMatMat;
 import org.sensorhub.process.vecmath.VecMathHelper;
 import org.vast.sensorML.SMLUtils;
@@ -62,6 +67,84 @@ public class TestVecmathProcess
     }
     
     
+    @Test
+    public void testMulM3V3Batch() throws Exception
+    {
+        MulMat3Vec3 p1 = new MulMat3Vec3();
+        p1.init();
+        MulMat3Vec3_Batch p2 = new MulMat3Vec3_Batch();
+        p2.init();
+        
+        Mat3d m = new Mat3d();
+        for (int i = 0; i < 9; i++)
+            m.setElement(i/3, i%3, i*0.5 - 2);
+        VecMathHelper.fromMat3d(m, p1.getInputList().getComponent("M").getData());
+        VecMathHelper.fromMat3d(m, p2.getInputList().getComponent("M").getData());
+        
+        // set vector list
+        int count = 10;
+        var vectors = p2.getInputList().getComponent("vectors");
+        ((DataArray)vectors.getComponent("vectorList")).updateSize(count);
+        DataBlock listData = vectors.getComponent("vectorList").getData();
+        for (int i = 0; i < count*3; i++)
+            listData.setDoubleValue(i, i + 1.0);
+        p2.execute();
+        
+        // compare with single vector process
+        DataBlock results = p2.getOutputList().getComponent("results").getComponent("vectorList").getData();
+        assertEquals(count*3, results.getAtomCount());
+        for (int i = 0; i < count; i++)
+        {
+            Vect3d v = new Vect3d(i*3 + 1.0, i*3 + 2.0, i*3 + 3.0);
+            VecMathHelper.fromVect3d(v, p1.getInputList().getComponent("V").getData());
+            p1.execute();
+            DataBlock res = p1.getOutputList().getComponent(0).getData();
+            for (int j = 0; j < 3; j++)
+                assertEquals(res.getDoubleValue(j), results.getDoubleValue(i*3 + j), 1e-12);
+        }
+    }
+    
+    
+    @Test
+    public void testEuler2Mat3Batch() throws Exception
+    {
+        Euler2Mat3 p1 = new Euler2Mat3();
+        Text axes1 = (Text)p1.getParameterList().getComponent("rotAxes");
+        axes1.assignNewDataBlock();
+        axes1.setValue("ZYX");
+        p1.init();
+        
+        Euler2Mat3_Batch p2 = new Euler2Mat3_Batch();
+        Text axes2 = (Text)p2.getParameterList().getComponent("rotAxes");
+        axes2.assignNewDataBlock();
+        axes2.setValue("ZYX");
+        p2.init();
+        
+        // set angle list
+        int count = 8;
+        var orientations = p2.getInputList().getComponent("orientations");
+        ((DataArray)orientations.getComponent("angleList")).updateSize(count);
+        DataBlock listData = orientations.getComponent("angleList").getData();
+        for (int i = 0; i < count*3; i++)
+            listData.setDoubleValue(i, Math.toRadians(i*7.5 - 60));
+        p2.execute();
+        
+        // compare with single orientation process
+        DataBlock results = p2.getOutputList().getComponent("rotMatrices").getComponent("matrixList").getData();
+        assertEquals(count*9, results.getAtomCount());
+        DataBlock angles = p1.getInputList().getComponent("orientation").getData();
+        for (int i = 0; i < count; i++)
+        {
+            for (int j = 0; j < 3; j++)
+                angles.setDoubleValue(j, listData.getDoubleValue(i*3 + j));
+            p1.execute();
+            DataBlock res = p1.getOutputList().getComponent(0).getData();
+            for (int j = 0; j < 9; j++)
+                assertEquals(res.getDoubleValue(j), results.getDoubleValue(i*9 + j), 1e-12);
+        }
+    }
+    
+    
     @Test
     public void testMulM3M3() throws Exception
     {
@@ -32,6 +32,14 @@ public class Bno055Config extends SensorConfig
     public CommProviderConfig<?> commSettings;
     
     
+    @DisplayInfo(label="Sampling Rate", desc="Rate at which orientation is read from the sensor, in Hz (max 100Hz)")
+    public double samplingRate = 10.0;
+    
+    
+    @DisplayInfo(label="Samples per Event", desc="Number of samples published together in a single data event. Increase to reduce processing overhead at high sampling rates")
+    public int samplesPerEvent = 1;
+    
+    
     public Bno055Config()
     {
         this.moduleClass = Bno055Sensor.class.getCanonicalName();
@@ -26,6 +26,8 @@ import net.opengis.swe.v20.DataComponent;
 import net.opengis.swe.v20.DataEncoding;
 import net.opengis.swe.v20.DataType;
 import net.opengis.swe.v20.Vector;
+import org.sensorhub.impl.sensor.sampling.SampleBatch;
+import org.sensorhub.impl.sensor.sampling.SampleClock;
 import org.vast.swe.DataInputStreamLI;
 import org.vast.swe.DataOutputStreamLI;
 import org.vast.swe.helper.GeoPosHelper;
@@ -50,11 +52,16 @@ public class Bno055Output extends AbstractSensorOutput<Bno055Sensor>
     };
     
     private final static double QUAT_SCALE = 1<<14;
+    private final static double MAX_SAMPLING_RATE = 100.0;
+    private final static double MAX_BATCH_LATENCY = 1.0;
     
     
     DataComponent imuData;
     DataEncoding dataEncoding;
     Timer timer;
+    double samplingPeriod;
+    SampleClock clock;
+    SampleBatch batch;
     DataInputStreamLI dataIn;
     DataOutputStreamLI dataOut;
     
@@ -70,6 +77,12 @@ public class Bno055Output extends AbstractSensorOutput<Bno055Sensor>
     public Bno055Output(Bno055Sensor parentSensor)
     {
         super("imuData", parentSensor);
+        
+        var config = parentSensor.getConfiguration();
+        double rate = Math.min(MAX_SAMPLING_RATE, config.samplingRate > 0 ? config.samplingRate : 10.0);
+        this.samplingPeriod = 1.0 / rate;
+        this.clock = new SampleClock(samplingPeriod);
+        this.batch = new SampleBatch(config.samplesPerEvent, MAX_BATCH_LATENCY);
     }
 
 
@@ -117,13 +130,16 @@ public class Bno055Output extends AbstractSensorOutput<Bno055Sensor>
     /* TODO: only using HV message; add support for HT and ML */
     private void pollAndSendMeasurement()
     {
-    	long msgTime = System.currentTimeMillis();
-    	
+        double msgTime;
+        
         // decode message
 	    try
         {
             ByteBuffer resp = parentSensor.sendReadCommand(READ_QUAT_CMD);
             
+            // regularize sampling time to remove timer and bus jitter
+            msgTime = clock.next(SampleClock.now());
+            
             // read 4 quaternion components (scalar first)
             quat[3] = (float)(resp.getShort() / QUAT_SCALE);
             for (int i=0; i<3; i++)
@@ -143,7 +159,7 @@ public class Bno055Output extends AbstractSensorOutput<Bno055Sensor>
     	    dataBlock = latestRecord.renew();
     	
     	int k = 0;
-        dataBlock.setDoubleValue(k++, msgTime / 1000.);
+        dataBlock.setDoubleValue(k++, msgTime);
         /*for (int i=0; i<3; i++, k++)
             dataBlock.setFloatValue(k, gyro[i]);
         for (int i=0; i<3; i++, k++)
@@ -151,10 +167,19 @@ public class Bno055Output extends AbstractSensorOutput<Bno055Sensor>
         for (int i=0; i<4; i++, k++)
             dataBlock.setFloatValue(k, quat[i]);
         
-        // update latest record and send event
+        // update latest record and send event with all batched records
         latestRecord = dataBlock;
-        latestRecordTime = msgTime;
-        eventHandler.publish(new DataEvent(latestRecordTime, Bno055Output.this, dataBlock));        
+        latestRecordTime = (long)(msgTime * 1000);
+        synchronized (batch)
+        {
+            // sample polled while stopping is dropped
+            // since the batch was already flushed
+            if (timer == null)
+                return;
+            
+            if (batch.add(dataBlock, msgTime))
+                eventHandler.publish(new DataEvent(latestRecordTime, Bno055Output.this, batch.drain()));
+        }
     }
    
 
@@ -163,6 +188,7 @@ public class Bno055Output extends AbstractSensorOutput<Bno055Sensor>
         sampleCounter = -1;
         dataIn = parentSensor.dataIn;
         dataOut = parentSensor.dataOut;        
+        clock.reset();
         
         // start main measurement thread
         TimerTask t = new TimerTask()
@@ -173,25 +199,36 @@ public class Bno055Output extends AbstractSensorOutput<Bno055Sensor>
             }
         };
         
-        timer = new Timer();
-        timer.schedule(t, 0, (long)(getAverageSamplingPeriod()*1000));
+        // use fixed rate so that polling period doesn't drift
+        synchronized (batch)
+        {
+            timer = new Timer();
+            timer.scheduleAtFixedRate(t, 0, Math.max(1L, Math.round(samplingPeriod*1000)));
+        }
     }
 
 
     protected void stop()
     {
-    	if (timer != null)
-    	{
-	        timer.cancel();
-	        timer = null;
-    	}
+        synchronized (batch)
+        {
+            if (timer != null)
+            {
+                timer.cancel();
+                timer = null;
+            }
+            
+            // publish partial batch
+            if (!batch.isEmpty())
+                eventHandler.publish(new DataEvent(latestRecordTime, this, batch.drain()));
+        }
     }
 
 
     @Override
     public double getAverageSamplingPeriod()
     {
-    	return 0.1;
+    	return samplingPeriod;
     }
 
 
@@ -59,5 +59,14 @@ public class Bno085ConstantsI2C {
     public final static byte MAGNETIC_FIELD_UNCALIBRATED_ID = (byte) 0X0F;
     public final static byte ROTATION_VECTOR_ID = (byte) 0X05;
 
+    // INPUT REPORT LENGTHS (including report ID)
+    public final static int TIMESTAMP_REPORT_LENGTH = 5;
+    public final static int VECTOR3_REPORT_LENGTH = 10;
+    public final static int ROTATION_VECTOR_REPORT_LENGTH = 14;
+    public final static int UNCALIBRATED_REPORT_LENGTH = 16;
+
+    // TIMESTAMP/DELAY UNITS IN SECONDS (100 µS)
+    public final static double TIMESTAMP_UNIT = 100e-6;
+
 
 }
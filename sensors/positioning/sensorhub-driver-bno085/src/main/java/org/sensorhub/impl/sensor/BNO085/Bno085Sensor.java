@@ -15,6 +15,7 @@ import org.sensorhub.impl.sensor.BNO085.config.Bno085Config;
 import org.sensorhub.impl.sensor.BNO085.outputs.*;
 import org.sensorhub.api.common.SensorHubException;
 import org.sensorhub.impl.sensor.AbstractSensorModule;
+import org.sensorhub.impl.sensor.sampling.SampleClock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,7 +28,9 @@ import com.pi4j.io.i2c.I2CConfig;
 import com.pi4j.io.i2c.I2CProvider;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -41,6 +44,7 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
     static final String XML_PREFIX = "BNO085";
 
     private static final Logger logger = LoggerFactory.getLogger(Bno085Sensor.class);
+    private static final long STOP_TIMEOUT_MILLIS = 1000L;
 
     ///  REQUIRED VARIABLES FOR SENSOR OPERATION
     // I2C Initialization Variables from Pi4j
@@ -57,7 +61,9 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
 
     // Local variables
     private volatile boolean keepRunning = false;
+    private Thread workerThread;
     List<Byte> activeReportIds = new ArrayList<>();
+    Map<Byte, SampleClock> reportClocks = new HashMap<>();
 
     // Cosmetic debugging Variables Used to make font bold
     String BoldOn = "\033[1m";  // ANSI code to turn on bold
@@ -89,17 +95,24 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
     public void doStart() throws SensorHubException {
         super.doStart();
         byte[] timeIntervalArray;
-        long timeIntervalMicro = config.outputs.timeIntervalSeconds * 1000000L; // BNO085 Sensor uses µS to set sensor features
+        byte[] batchIntervalArray;
+        long timeIntervalMicro = Math.round(config.outputs.timeIntervalSeconds * 1000000L); // BNO085 Sensor uses µS to set sensor features
         timeIntervalArray = convertTo4ByteArray(timeIntervalMicro);
 
+        // Let the sensor hub FIFO accumulate reports so they are read in bursts when batching is enabled
+        long batchIntervalMicro = config.outputs.samplesPerEvent > 1 ? timeIntervalMicro * config.outputs.samplesPerEvent : 0;
+        batchIntervalArray = convertTo4ByteArray(batchIntervalMicro);
+
         for (byte id: activeReportIds){
             logger.info("{}Setting Sensor on BNO085: {}0x{}", BoldOn, BoldOff, Integer.toHexString(id & 0xFF));
-            setFeature(id,timeIntervalArray[3],timeIntervalArray[2],timeIntervalArray[1],timeIntervalArray[0]);
+            setFeature(id,timeIntervalArray[3],timeIntervalArray[2],timeIntervalArray[1],timeIntervalArray[0],
+                    batchIntervalArray[3],batchIntervalArray[2],batchIntervalArray[1],batchIntervalArray[0]);
+            reportClocks.put(id, new SampleClock(config.outputs.timeIntervalSeconds));
         }
 
         keepRunning = true;
-        Thread readBNO085 = new Thread(this, "BNO085 Worker");
-        readBNO085.start();
+        workerThread = new Thread(this, "BNO085 Worker");
+        workerThread.start();
     }
 
     @Override
@@ -107,6 +120,19 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
         super.doStop();
         keepRunning = false;
 
+        // wait for the worker to finish its last read before publishing partial batches
+        if (workerThread != null) {
+            try {
+                workerThread.join(getPollPeriodMillis() + STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (!workerThread.isAlive())
+                flushOutputs();
+            workerThread = null;
+        }
+
         for (byte id: activeReportIds){
             logger.info("{}Turning off Sensor on BNO085{}", BoldOn, BoldOff);
             setFeature(id,(byte)0,(byte)0,(byte)0,(byte)0);
@@ -122,11 +148,13 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
 
     @Override
     public void run() {
+        long pollPeriodMillis = getPollPeriodMillis();
+
         while (keepRunning){
             readSensor();
 
             try {
-                Thread.sleep(config.outputs.timeIntervalSeconds * 1000L); // Thread uses milliseconds
+                Thread.sleep(pollPeriodMillis); // Thread uses milliseconds
             } catch (InterruptedException e) {
                 throw new RuntimeException(e);
             }
@@ -134,8 +162,36 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
     }
 
 
+    private long getPollPeriodMillis() {
+        // Poll at the rate reports (or batches of reports) are produced so the sensor hub FIFO doesn't fill up
+        return Math.max(1L, Math.round(config.outputs.timeIntervalSeconds * Math.max(1, config.outputs.samplesPerEvent) * 1000));
+    }
+
+    private void flushOutputs() {
+        if (accelerometerOutput != null)
+            accelerometerOutput.flush();
+        if (gravityOutput != null)
+            gravityOutput.flush();
+        if (gyroCalOutput != null)
+            gyroCalOutput.flush();
+        if (magFieldCalOutput != null)
+            magFieldCalOutput.flush();
+        if (rotationOutput != null)
+            rotationOutput.flush();
+    }
+
+
     // BNO085 SENSOR SPECIFIC METHODS
     /// UTILITY METHODS
+    public static int readInt16(byte[] bytes, int offset){
+        return (short) (((bytes[offset + 1] & 0xFF) << 8) | (bytes[offset] & 0xFF));
+    }
+
+    public static int readInt32(byte[] bytes, int offset){
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8) |
+                ((bytes[offset + 2] & 0xFF) << 16) | ((bytes[offset + 3] & 0xFF) << 24);
+    }
+
     public static byte[] convertTo4ByteArray(long number){
         return new byte[] {
                 (byte) (number >>> 24),
@@ -254,6 +310,11 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
     }
 
     public void setFeature(byte ReportID, byte time_byte_LSB, byte time_byte_2, byte time_byte_1, byte time_byte_MSB) {
+        setFeature(ReportID, time_byte_LSB, time_byte_2, time_byte_1, time_byte_MSB, (byte)0, (byte)0, (byte)0, (byte)0);
+    }
+
+    public void setFeature(byte ReportID, byte time_byte_LSB, byte time_byte_2, byte time_byte_1, byte time_byte_MSB,
+                           byte batch_byte_LSB, byte batch_byte_2, byte batch_byte_1, byte batch_byte_MSB) {
         byte[] setRequest = new byte[21];                               // Create a byte array to hold header info (4) and Set Feature Command Cargo (17)
 
         setRequest[0] = (byte) 0x15;                                    // Header 1: Length of Message LSB
@@ -269,10 +330,10 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
         setRequest[10] = time_byte_2;                                   // Cargo 6: REPORT INTERVAL
         setRequest[11] = time_byte_1;                                   // Cargo 7: REPORT INTERVAL
         setRequest[12] = time_byte_MSB;                                 // Cargo 8: REPORT INTERVAL MSB
-        setRequest[13] = (byte)0;                                       // Cargo 9: Batch Interval LSB
-        setRequest[14] = (byte)0;                                       // Cargo 10: Batch Interval
-        setRequest[15] = (byte)0;                                       // Cargo 11: Batch Interval
-        setRequest[16] = (byte)0;                                       // Cargo 12: Batch Interval MSB
+        setRequest[13] = batch_byte_LSB;                                // Cargo 9: Batch Interval LSB
+        setRequest[14] = batch_byte_2;                                  // Cargo 10: Batch Interval
+        setRequest[15] = batch_byte_1;                                  // Cargo 11: Batch Interval
+        setRequest[16] = batch_byte_MSB;                                // Cargo 12: Batch Interval MSB
         setRequest[17] = (byte)0;                                       // Cargo 13: Sensor configuration word LSB
         setRequest[18] = (byte)0;                                       // Cargo 14: Sensor config word
         setRequest[19] = (byte)0;                                       // Cargo 15: Sensor config word
@@ -324,45 +385,6 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
 //        System.out.println(results);
     }
 
-    // 0XFA --- TIme Stamp Rebase Report
-    public void readTimestampRebase() throws InterruptedException {
-        byte[] response = new byte[8];          // Length of initial timestamp (4 header + 5 Timestamp reference - ID )
-        this.i2c.read(response);
-
-        // Print Time Stamp Info
-        String timeStampResponse =
-                "0:\t" + (response[0] & 0xFF) + "\t(LSB Length)\n" +
-                        "1:\t" +  (response[1] & 0xFF) +"\t(MSB Length)\n" +
-                        "2:\t" +  (response[2] & 0xFF) +"\t(Channel)\n" +
-                        "3:\t" +  (response[3] & 0xFF) + "\t(Sequence Number)\n" +
-                        "4:\t0xFA\t(Timestamp Rebase ID)\n" +
-                        "5:\t" +  (response[4] & 0xFF) + "\t(Base Delta LSB)\n" +
-                        "6:\t" +  (response[5] & 0xFF) + "\t(Base Delta...\n" +
-                        "7:\t" +  (response[6] & 0xFF) + "\t(Base Delta...)\n" +
-                        "8:\t" +  (response[7] & 0xFF) + "\t(Base Delta MSB)\n";
-
-//        System.out.println(BoldOn + "Timestamp Rebase\n" + BoldOff + timeStampResponse);
-    }
-
-    // 0XFB --- Base Time Stamp Report
-    public void readBaseTimeStampReference() throws InterruptedException {
-        byte[] response = new byte[8];          // Length of initial timestamp (4 header + 5 Timestamp reference - ID )
-        this.i2c.read(response);
-        // Print Time Stamp Info
-        String timeStampResponse =
-                "0:\t" + (response[0] & 0xFF) + "\t(LSB Length)\n" +
-                        "1:\t" +  (response[1] & 0xFF) +"\t(MSB Length)\n" +
-                        "2:\t" +  (response[2] & 0xFF) +"\t(Channel)\n" +
-                        "3:\t" +  (response[3] & 0xFF) + "\t(Sequence Number)\n" +
-                        "4:\t0xFB\t(Base Timestamp Reference ID)\n" +
-                        "5:\t" +  (response[4] & 0xFF) + "\t(Base Delta LSB)\n" +
-                        "6:\t" +  (response[5] & 0xFF) + "\t(Base Delta...\n" +
-                        "7:\t" +  (response[6] & 0xFF) + "\t(Base Delta...)\n" +
-                        "8:\t" +  (response[7] & 0xFF) + "\t(Base Delta MSB)\n";
-
-//        System.out.println(BoldOn + "Base Timestamp Reference\n" + BoldOff + timeStampResponse);
-    }
-
     // 0xFC --- FEATURE RESPONSE
     public void getFeatureResponse() throws InterruptedException {
         byte[] response = new byte[20]; // Feature Response is always 21 (4 header + 17 Response)
@@ -455,279 +477,140 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
     }
 
     // 0X01, 0X04, 0X06 --- ACCELEROMETER. LINEAR ACCELERATION, AND GRAVITY
-    public void readAccelerationReport(byte reportId) throws InterruptedException {
-        String idName = switch (reportId) {
-            case 0x01 -> "Accelerometer";
-            case 0x04 -> "Linear Acceleration";
-            case 0x06 -> "Gravity";
-            default -> "Error";
-        };
-
-        byte[] response = new byte[13];            // Header (4) + Input Report (10) - REPORT ID
-        this.i2c.read(response);
-
-        int rawX = ((response[8] & 0xFF)<<8) | (response[7] & 0xFF);
-        int rawY = ((response[10] & 0xFF)<<8) | (response[9] & 0xFF);
-        int rawZ = ((response[12] & 0xFF)<<8) | (response[11] & 0xFF);
-
+    public void readAccelerationReport(byte reportId, byte[] report, int offset, double sampleTime) {
         // Divide by 256 because values are in Q point 8
-        float x = (short) rawX/256.0f;
-        float y = (short) rawY/256.0f;
-        float z = (short) rawZ/256.0f;
+        float x = readInt16(report, offset + 4)/256.0f;
+        float y = readInt16(report, offset + 6)/256.0f;
+        float z = readInt16(report, offset + 8)/256.0f;
 
-        // Print GRAVITY FEATURE
-        String featureResponse =
-            "0:\t" + (response[0] & 0xFF) + "\t(LSB Length)\n" +
-            "1:\t" +  (response[1] & 0xFF) +"\t(MSB Length)\n" +
-            "2:\t" +  (response[2] & 0xFF) +"\t(Channel)\n" +
-            "3:\t" +  (response[3] & 0xFF) + "\t(Sequence Number)\n" +
-            "4:\t0x" + Integer.toHexString(reportId) + "\t(Report ID)\n" +
-            "5:\t" +  (response[4] & 0xFF) + "\t(Sequence Number)\n" +
-            "6:\t" +  (response[5] & 0xFF) + "\t(Status)\n" +
-            "7:\t" +  (response[6] & 0xFF) + "\t(Delay)\n" +
-            "8-9:\t"  +  String.format("%.2f", x) + " m/s^2\t(" + idName + " Axis X)\n" + // Must divide by 256 because Q point is 8
-            "10-11:\t" + String.format("%.2f", y) + " m/s^2\t(" + idName + " Axis Y)\n" + // Must divide by 256 because Q point is 8
-            "12-13:\t" + String.format("%.2f", z) + " m/s^2\t(" + idName + " Axis Z)\n";// Must divide by 256 because Q point is 8  //Must devide by 256 because Q point is 8
-
-//        System.out.println(BoldOn + idName + " Report\n" + BoldOff + featureResponse);
         switch (reportId){
             case Bno085ConstantsI2C.ACCELEROMETER_ID:
-                accelerometerOutput.SetData(x,y,z);
+                accelerometerOutput.SetData(sampleTime,x,y,z);
                 break;
             case Bno085ConstantsI2C.GRAVITY_ID:
-                gravityOutput.SetData(x,y,z);
+                gravityOutput.SetData(sampleTime,x,y,z);
                 break;
         }
     }
 
     // 0X02 ---- CALIBRATED GYROSCOPE
-    public void readGyrCalReport(){
-        byte[] response = new byte[13];            // Header (4) + Input Report (10) - REPORT ID
-        this.i2c.read(response);
-
-        int rawX = ((response[8] & 0xFF)<<8) | (response[7] & 0xFF);
-        int rawY = ((response[10] & 0xFF)<<8) | (response[9] & 0xFF);
-        int rawZ = ((response[12] & 0xFF)<<8) | (response[11] & 0xFF);
-
+    public void readGyrCalReport(byte[] report, int offset, double sampleTime){
         // Divide by 512 because values are in Q point 9
-        float x = (short) rawX/512.0f;
-        float y = (short) rawY/512.0f;
-        float z = (short) rawZ/512.0f;
+        float x = readInt16(report, offset + 4)/512.0f;
+        float y = readInt16(report, offset + 6)/512.0f;
+        float z = readInt16(report, offset + 8)/512.0f;
 
-        // Print GRAVITY FEATURE
-        String featureResponse =
-            "0:\t" + (response[0] & 0xFF) + "\t(LSB Length)\n" +
-            "1:\t" +  (response[1] & 0xFF) +"\t(MSB Length)\n" +
-            "2:\t" +  (response[2] & 0xFF) +"\t(Channel)\n" +
-            "3:\t" +  (response[3] & 0xFF) + "\t(Sequence Number)\n" +
-            "4:\t0x02\t(Gyroscope Calibrated ID)\n" +
-            "5:\t" +  (response[4] & 0xFF) + "\t(Sequence Number)\n" +
-            "6:\t" +  (response[5] & 0xFF) + "\t(Status)\n" +
-            "7:\t" +  (response[6] & 0xFF) + "\t(Delay)\n" +
-            "8-9:\t"  +  String.format("%.2f", x) + " rad/s\t(Calibrated Axis X)\n" + // Must divide by 256 because Q point is 8
-            "10-11:\t" + String.format("%.2f", y) + " rad/s\t(Calibrated Axis Y)\n" + // Must divide by 256 because Q point is 8
-            "12-13:\t" + String.format("%.2f", z) + " rad/s\t(Calibrated Axis Z)\n";// Must divide by 256 because Q point is 8  //Must devide by 256 because Q point is 8
-
-//        System.out.println(BoldOn + "Gyroscope Calibrated Report\n" + BoldOff + featureResponse);
-        gyroCalOutput.SetData(x,y,z);
+        gyroCalOutput.SetData(sampleTime,x,y,z);
     }
 
     // 0X03 ---- CALIBRATED MAGNETIC FIELD
-    public void readMagFieldCalReport(){
-        byte[] response = new byte[13];            // Header (4) + Input Report (10) - REPORT ID
-        this.i2c.read(response);
-
-        int rawX = ((response[8] & 0xFF)<<8) | (response[7] & 0xFF);
-        int rawY = ((response[10] & 0xFF)<<8) | (response[9] & 0xFF);
-        int rawZ = ((response[12] & 0xFF)<<8) | (response[11] & 0xFF);
-
+    public void readMagFieldCalReport(byte[] report, int offset, double sampleTime){
         float q = 16.0f;// Divide by 16 because values are in Q point 4
 
-        float x = (short) rawX/q;
-        float y = (short) rawY/q;
-        float z = (short) rawZ/q;
-
-        // Print GRAVITY FEATURE
-        String featureResponse =
-            "0:\t" + (response[0] & 0xFF) + "\t(LSB Length)\n" +
-            "1:\t" +  (response[1] & 0xFF) +"\t(MSB Length)\n" +
-            "2:\t" +  (response[2] & 0xFF) +"\t(Channel)\n" +
-            "3:\t" +  (response[3] & 0xFF) + "\t(Sequence Number)\n" +
-            "4:\t0x03\t(Magnetic Field Calibrated ID)\n" +
-            "5:\t" +  (response[4] & 0xFF) + "\t(Sequence Number)\n" +
-            "6:\t" +  (response[5] & 0xFF) + "\t(Status)\n" +
-            "7:\t" +  (response[6] & 0xFF) + "\t(Delay)\n" +
-            "8-9:\t"  +  String.format("%.2f", x) + " µT\t(Calibrated Axis X)\n" +
-            "10-11:\t" + String.format("%.2f", y) + " µT\t(Calibrated Axis Y)\n" +
-            "12-13:\t" + String.format("%.2f", z) + " µT\t(Calibrated Axis Z)\n";
-
-//        System.out.println(BoldOn + "Magnetic Field Calibrated Report\n" + BoldOff + featureResponse);
+        float x = readInt16(report, offset + 4)/q;
+        float y = readInt16(report, offset + 6)/q;
+        float z = readInt16(report, offset + 8)/q;
 
-        magFieldCalOutput.SetData(x,y,z);
+        magFieldCalOutput.SetData(sampleTime,x,y,z);
     }
 
     // 0X05 ---- ROTATION VECTOR
-    public void readRotationReport(){
-        byte[] response = new byte[17];            // Header (4) + Input Report (14) - REPORT ID
-        this.i2c.read(response);
-
-        int rawI = ((response[8] & 0xFF)<<8) | (response[7] & 0xFF);
-        int rawJ = ((response[10] & 0xFF)<<8) | (response[9] & 0xFF);
-        int rawK = ((response[12] & 0xFF)<<8) | (response[11] & 0xFF);
-        int rawR = ((response[14] & 0xFF)<<8) | (response[13] & 0xFF);
-        int rawA = ((response[16] & 0xFF)<<8) | (response[15] & 0xFF);
-
+    public void readRotationReport(byte[] report, int offset, double sampleTime){
         float q1 = 16384.0f;// Q point is 14
         float q2 = 4096.0f;// Q point 12
 
-        float i = (short) rawI/q1;
-        float j = (short) rawJ/q1;
-        float k = (short) rawK/q1;
-        float r = (short) rawR/q1;
-        float a = (short) rawA/q2;
+        float i = readInt16(report, offset + 4)/q1;
+        float j = readInt16(report, offset + 6)/q1;
+        float k = readInt16(report, offset + 8)/q1;
+        float r = readInt16(report, offset + 10)/q1;
+        float a = readInt16(report, offset + 12)/q2;
 
-        // Print GRAVITY FEATURE
-        String featureResponse =
-                "0:\t" + (response[0] & 0xFF) + "\t(LSB Length)\n" +
-                        "1:\t" +  (response[1] & 0xFF) +"\t(MSB Length)\n" +
-                        "2:\t" +  (response[2] & 0xFF) +"\t(Channel)\n" +
-                        "3:\t" +  (response[3] & 0xFF) + "\t(Sequence Number)\n" +
-                        "4:\t0x05\t(Rotation Vector ID)\n" +
-                        "5:\t" +  (response[4] & 0xFF) + "\t(Sequence Number)\n" +
-                        "6:\t" +  (response[5] & 0xFF) + "\t(Status)\n" +
-                        "7:\t" +  (response[6] & 0xFF) + "\t(Delay)\n" +
-                        "8-9:\t"  +  String.format("%.2f", i) + "\t(Quaternion i)\n" +
-                        "10-11:\t" + String.format("%.2f", j) + "\t(Quaternion j)\n" +
-                        "12-13:\t" + String.format("%.2f", k) + "\t(Quaternion K)\n" +
-                        "14-15:\t" + String.format("%.2f", r) + "\t(Quaternion Real)\n" +
-                        "16-17:\t" + String.format("%.2f", a) + " rad\t(Accuracy Estimate)\n";
-
-//        System.out.println(BoldOn + "Rotation Vector Report\n" + BoldOff + featureResponse);
-
-        rotationOutput.SetData(i, j, k, r, a);
+        rotationOutput.SetData(sampleTime, i, j, k, r, a);
     }
 
-    // 0X07 - UNCALIBRATED GYROSCOPE
-    public void readGyrUnCalReport(){
-        byte[] response = new byte[19];            // Header (4) + Input Report (16) - REPORT ID
-        this.i2c.read(response);
-
-        int rawX = ((response[8] & 0xFF)<<8) | (response[7] & 0xFF);
-        int rawY = ((response[10] & 0xFF)<<8) | (response[9] & 0xFF);
-        int rawZ = ((response[12] & 0xFF)<<8) | (response[11] & 0xFF);
-        int rawXbias = ((response[8] & 0xFF)<<8) | (response[7] & 0xFF);
-        int rawYbias = ((response[10] & 0xFF)<<8) | (response[9] & 0xFF);
-        int rawZbias = ((response[12] & 0xFF)<<8) | (response[11] & 0xFF);
-
-        float q = 512.0f; // Divide by 512 because values are in Q point 9
-
-        float x = (short) rawX/q;
-        float y = (short) rawY/q;
-        float z = (short) rawZ/q;
-        float xbias = (short) rawXbias/q;
-        float ybias = (short) rawYbias/q;
-        float zbias = (short) rawZbias/q;
-
-        // Print GRAVITY FEATURE
-        String featureResponse =
-            "0:\t" + (response[0] & 0xFF) + "\t(LSB Length)\n" +
-            "1:\t" +  (response[1] & 0xFF) +"\t(MSB Length)\n" +
-            "2:\t" +  (response[2] & 0xFF) +"\t(Channel)\n" +
-            "3:\t" +  (response[3] & 0xFF) + "\t(Sequence Number)\n" +
-            "4:\t0x07\t(Gyroscope Uncalibrated ID)\n" +
-            "5:\t" +  (response[4] & 0xFF) + "\t(Sequence Number)\n" +
-            "6:\t" +  (response[5] & 0xFF) + "\t(Status)\n" +
-            "7:\t" +  (response[6] & 0xFF) + "\t(Delay)\n" +
-            "8-9:\t"  +  String.format("%.2f", x) + " rad/s\t(Axis X)\n" +
-            "10-11:\t" + String.format("%.2f", y) + " rad/s\t(Axis Y)\n" +
-            "12-13:\t" + String.format("%.2f", z) + " rad/s\t(Axis Z)\n" +
-            "14-15:\t"  +  String.format("%.2f", xbias) + " rad/s\t(bias Axis X)\n" +
-            "16-17:\t" + String.format("%.2f", ybias) + " rad/s\t(bias Axis Y)\n" +
-            "18-19:\t" + String.format("%.2f", zbias) + " rad/s\t(bias Axis Z)\n";
-
-//        System.out.println(BoldOn + "Gyroscope Uncalibrated Report\n" + BoldOff + featureResponse);
-
-    }
-
-    // 0X0F - UNCALIBRATED Magnetic Field
-    public void readMagFieldUnCalReport(){
-        byte[] response = new byte[19];            // Header (4) + Input Report (16) - REPORT ID
-        this.i2c.read(response);
-
-        int rawX = ((response[8] & 0xFF)<<8) | (response[7] & 0xFF);
-        int rawY = ((response[10] & 0xFF)<<8) | (response[9] & 0xFF);
-        int rawZ = ((response[12] & 0xFF)<<8) | (response[11] & 0xFF);
-        int rawXbias = ((response[8] & 0xFF)<<8) | (response[7] & 0xFF);
-        int rawYbias = ((response[10] & 0xFF)<<8) | (response[9] & 0xFF);
-        int rawZbias = ((response[12] & 0xFF)<<8) | (response[11] & 0xFF);
-
-        float q = 16.0f; // Divide by 16 because values are in Q point 4
-
-        float x = (short) rawX/q;
-        float y = (short) rawY/q;
-        float z = (short) rawZ/q;
-        float xbias = (short) rawXbias/q;
-        float ybias = (short) rawYbias/q;
-        float zbias = (short) rawZbias/q;
+    public static int getInputReportLength(byte reportID) {
+        switch (reportID) {
+            case Bno085ConstantsI2C.TIMESTAMP_REBASE_ID:
+            case Bno085ConstantsI2C.BASE_TIMESTAMP_REFERENCE_ID:
+                return Bno085ConstantsI2C.TIMESTAMP_REPORT_LENGTH;
+            case Bno085ConstantsI2C.ACCELEROMETER_ID:
+            case Bno085ConstantsI2C.LINEAR_ACCELERATION_ID:
+            case Bno085ConstantsI2C.GRAVITY_ID:
+            case Bno085ConstantsI2C.GYROSCOP_CALIBRATED_ID:
+            case Bno085ConstantsI2C.MAGNETIC_FIELD_CALIBRATED_ID:
+                return Bno085ConstantsI2C.VECTOR3_REPORT_LENGTH;
+            case Bno085ConstantsI2C.ROTATION_VECTOR_ID:
+                return Bno085ConstantsI2C.ROTATION_VECTOR_REPORT_LENGTH;
+            case Bno085ConstantsI2C.GYROSCOP_UNCALIBRATED_ID:
+            case Bno085ConstantsI2C.MAGNETIC_FIELD_UNCALIBRATED_ID:
+                return Bno085ConstantsI2C.UNCALIBRATED_REPORT_LENGTH;
+            default:
+                return 0;
+        }
+    }
 
-        String featureResponse =
-                "0:\t" + (response[0] & 0xFF) + "\t(LSB Length)\n" +
-                        "1:\t" +  (response[1] & 0xFF) +"\t(MSB Length)\n" +
-                        "2:\t" +  (response[2] & 0xFF) +"\t(Channel)\n" +
-                        "3:\t" +  (response[3] & 0xFF) + "\t(Sequence Number)\n" +
-                        "4:\t0x0F\t(Magnetic Field Uncalibrated ID)\n" +
-                        "5:\t" +  (response[4] & 0xFF) + "\t(Sequence Number)\n" +
-                        "6:\t" +  (response[5] & 0xFF) + "\t(Status)\n" +
-                        "7:\t" +  (response[6] & 0xFF) + "\t(Delay)\n" +
-                        "8-9:\t"  +  String.format("%.2f", x) + " µT\t(uncalibrated Axis X)\n" +
-                        "10-11:\t" + String.format("%.2f", y) + " µT\t(uncalibrated Axis Y)\n" +
-                        "12-13:\t" + String.format("%.2f", z) + " µT\t(uncalibrated Axis Z)\n" +
-                        "14-15:\t"  +  String.format("%.2f", xbias) + " µT\t(uncalibrated hard iron bias Axis X)\n" +
-                        "16-17:\t" + String.format("%.2f", ybias) + " µT\t(uncalibrated hard iron bias Axis Y)\n" +
-                        "18-19:\t" + String.format("%.2f", zbias) + " µT\t(uncalibrated hard iron bias Axis Z)\n";
+    ///  HANDLER METHODS
+    public void readInputSensorResponse(int msgLength) {
+        // READ THE WHOLE PACKET IN A SINGLE TRANSFER
+        // The header is sent again before the cargo, which can contain many reports when they are batched by the sensor hub
+        double readTime = SampleClock.now();
+        byte[] packet = new byte[msgLength];
+        this.i2c.read(packet);
+
+        // Time of following reports relative to read time, in 100µS units
+        int referenceDelta = 0;
+
+        int offset = Bno085ConstantsI2C.SHTP_HEADER_LENGTH;
+        while (offset < msgLength) {
+            byte reportID = packet[offset];
+            int reportLength = getInputReportLength(reportID);
+            if (reportLength == 0 || offset + reportLength > msgLength) {
+                logger.debug("Unknown or truncated input report: 0x{}", Integer.toHexString(reportID & 0xFF));
+                return;
+            }
 
-//        System.out.println(BoldOn + "Magnetic Field Uncalibrated Report\n" + BoldOff + featureResponse);
+            switch (reportID) {
+                case Bno085ConstantsI2C.BASE_TIMESTAMP_REFERENCE_ID:
+                    // Base delta is the time elapsed since the reports were generated
+                    referenceDelta = -readInt32(packet, offset + 1);
+                    break;
+                case Bno085ConstantsI2C.TIMESTAMP_REBASE_ID:
+                    referenceDelta += readInt32(packet, offset + 1);
+                    break;
+                default:
+                    // 14-bit delay is split between upper bits of status byte and delay byte
+                    int delay = ((packet[offset + 2] & 0xFC) << 6) | (packet[offset + 3] & 0xFF);
+                    double reportTime = readTime + (referenceDelta + delay) * Bno085ConstantsI2C.TIMESTAMP_UNIT;
+                    readInputReport(reportID, packet, offset, reportTime);
+                    break;
+            }
 
+            offset += reportLength;
+        }
     }
 
-    ///  HANDLER METHODS
-    public void readInputSensorResponse() throws InterruptedException {
-        //RETRIEVE REPORT ID
-        byte[] header = new byte[5];        // HEADER TO INCLUDE REPORT ID
-        this.i2c.read(header);
-
-        int msgLength = (header[0] & 0xFF);
-        byte reportID = header[4];
+    public void readInputReport(byte reportID, byte[] packet, int offset, double reportTime) {
+        // Regularize report time to remove I2C polling jitter and keep samples ordered
+        SampleClock clock = reportClocks.get(reportID);
+        double sampleTime = clock != null ? clock.next(reportTime) : reportTime;
 
         switch (reportID) {
-            case Bno085ConstantsI2C.TIMESTAMP_REBASE_ID:
-                readTimestampRebase();
-                break;
-            case Bno085ConstantsI2C.BASE_TIMESTAMP_REFERENCE_ID:
-                readBaseTimeStampReference();
-                break;
             case Bno085ConstantsI2C.ACCELEROMETER_ID,
                  Bno085ConstantsI2C.LINEAR_ACCELERATION_ID,
                  Bno085ConstantsI2C.GRAVITY_ID:
-                readAccelerationReport(reportID);
+                readAccelerationReport(reportID, packet, offset, sampleTime);
                 break;
             case Bno085ConstantsI2C.GYROSCOP_CALIBRATED_ID:
-                readGyrCalReport();
-                break;
-            case Bno085ConstantsI2C.GYROSCOP_UNCALIBRATED_ID:
-                readGyrUnCalReport();
+                readGyrCalReport(packet, offset, sampleTime);
                 break;
             case Bno085ConstantsI2C.MAGNETIC_FIELD_CALIBRATED_ID:
-                readMagFieldCalReport();
-                break;
-            case Bno085ConstantsI2C.MAGNETIC_FIELD_UNCALIBRATED_ID:
-                readMagFieldUnCalReport();
+                readMagFieldCalReport(packet, offset, sampleTime);
                 break;
             case Bno085ConstantsI2C.ROTATION_VECTOR_ID:
-                readRotationReport();
+                readRotationReport(packet, offset, sampleTime);
                 break;
             default:
-                readUnknownReport(reportID, msgLength);
+                // No output for uncalibrated reports yet
                 break;
         }
     }
@@ -825,11 +708,7 @@ public class Bno085Sensor extends AbstractSensorModule<Bno085Config> implements
                     }
                     break;
                 case Bno085ConstantsI2C.CHANNEL.INPUT_SENSOR_REPORTS:
-                    try {
-                        readInputSensorResponse();
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
+                    readInputSensorResponse(msgLength);
                     break;
                 case Bno085ConstantsI2C.CHANNEL.WAKE_INPUT_SENSOR_REPORTS:
                     readWakeInputSensorReports(msgLength);
@@ -10,8 +10,11 @@ import org.sensorhub.api.config.DisplayInfo;
     @since June 9, 2025
  */
 public class Outputs {
-    @DisplayInfo(label = "Time Interval (seconds)", desc="Provide a time interval for sensor to provide readings")
-    public int timeIntervalSeconds = 1;
+    @DisplayInfo(label = "Time Interval (seconds)", desc="Provide a time interval for sensor to provide readings (e.g. 0.01 for 100Hz)")
+    public double timeIntervalSeconds = 1;
+
+    @DisplayInfo(label = "Samples per Event", desc="Number of readings batched in the sensor FIFO and published together in a single event. Increase to reduce I2C and processing overhead at high rates")
+    public int samplesPerEvent = 1;
 
     @DisplayInfo(label = "Accelerometer Vector", desc="Do you want sensor to display gravity vector")
     public boolean isAccelerometer = false;
@@ -18,6 +18,7 @@ import net.opengis.swe.v20.DataEncoding;
 import net.opengis.swe.v20.DataRecord;
 import org.sensorhub.api.data.DataEvent;
 import org.sensorhub.impl.sensor.AbstractSensorOutput;
+import org.sensorhub.impl.sensor.sampling.SampleBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.vast.swe.SWEBuilders;
@@ -42,6 +43,9 @@ public class GyroCalibratedOutput extends AbstractSensorOutput<Bno085Sensor> {
 
     private static final Logger logger = LoggerFactory.getLogger(GyroCalibratedOutput.class);
 
+    private static final double MAX_BATCH_LATENCY = 1.0;
+    private final SampleBatch batch;
+
     private DataRecord dataStruct;
     private DataEncoding dataEncoding;
 
@@ -52,6 +56,7 @@ public class GyroCalibratedOutput extends AbstractSensorOutput<Bno085Sensor> {
      */
     public GyroCalibratedOutput(Bno085Sensor parentSensor) {
         super(SENSOR_OUTPUT_NAME, parentSensor);
+        batch = new SampleBatch(parentSensor.getConfiguration().outputs.samplesPerEvent, MAX_BATCH_LATENCY);
     }
 
     /**
@@ -113,7 +118,16 @@ public class GyroCalibratedOutput extends AbstractSensorOutput<Bno085Sensor> {
         return accumulator / (double) MAX_NUM_TIMING_SAMPLES;
     }
 
-    public void SetData(float x, float y, float z) {
+    /**
+     * Publishes the records remaining in the current batch, if any.
+     * Must be called once the sensor worker thread has stopped.
+     */
+    public void flush() {
+        if (!batch.isEmpty())
+            eventHandler.publish(new DataEvent(latestRecordTime, GyroCalibratedOutput.this, batch.drain()));
+    }
+
+    public void SetData(double sampleTime, float x, float y, float z) {
         DataBlock dataBlock;
         try {
             if (latestRecord == null) {
@@ -130,7 +144,7 @@ public class GyroCalibratedOutput extends AbstractSensorOutput<Bno085Sensor> {
             }
             ++setCount;
 
-            dataBlock.setDoubleValue(0, System.currentTimeMillis() / 1000d);
+            dataBlock.setDoubleValue(0, sampleTime);
             dataBlock.setDoubleValue(1, x);
             dataBlock.setDoubleValue(2, y);
             dataBlock.setDoubleValue(3, z);
@@ -138,7 +152,9 @@ public class GyroCalibratedOutput extends AbstractSensorOutput<Bno085Sensor> {
             latestRecord = dataBlock;
             latestRecordTime = System.currentTimeMillis();
 
-            eventHandler.publish(new DataEvent(latestRecordTime, GyroCalibratedOutput.this, dataBlock));
+            // send event with all batched records
+            if (batch.add(dataBlock, sampleTime))
+                eventHandler.publish(new DataEvent(latestRecordTime, GyroCalibratedOutput.this, batch.drain()));
 
         } catch (Exception e) {
             System.err.println("Error reading from BNO085: " + e.getMessage());
@@ -18,6 +18,7 @@ import net.opengis.swe.v20.DataEncoding;
 import net.opengis.swe.v20.DataRecord;
 import org.sensorhub.api.data.DataEvent;
 import org.sensorhub.impl.sensor.AbstractSensorOutput;
+import org.sensorhub.impl.sensor.sampling.SampleBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.vast.swe.SWEBuilders;
@@ -43,6 +44,9 @@ public class RotationOutput extends AbstractSensorOutput<Bno085Sensor> {
 
     private static final Logger logger = LoggerFactory.getLogger(RotationOutput.class);
 
+    private static final double MAX_BATCH_LATENCY = 1.0;
+    private final SampleBatch batch;
+
     private DataRecord dataStruct;
     private DataEncoding dataEncoding;
 
@@ -53,6 +57,7 @@ public class RotationOutput extends AbstractSensorOutput<Bno085Sensor> {
      */
     public RotationOutput(Bno085Sensor parentSensor) {
         super(SENSOR_OUTPUT_NAME, parentSensor);
+        batch = new SampleBatch(parentSensor.getConfiguration().outputs.samplesPerEvent, MAX_BATCH_LATENCY);
     }
 
     /**
@@ -109,7 +114,16 @@ public class RotationOutput extends AbstractSensorOutput<Bno085Sensor> {
         return accumulator / (double) MAX_NUM_TIMING_SAMPLES;
     }
 
-    public void SetData(float i, float j, float k, float real, float accuracy) {
+    /**
+     * Publishes the records remaining in the current batch, if any.
+     * Must be called once the sensor worker thread has stopped.
+     */
+    public void flush() {
+        if (!batch.isEmpty())
+            eventHandler.publish(new DataEvent(latestRecordTime, RotationOutput.this, batch.drain()));
+    }
+
+    public void SetData(double sampleTime, float i, float j, float k, float real, float accuracy) {
        DataBlock dataBlock;
         try {
             if (latestRecord == null) {
@@ -126,7 +140,7 @@ public class RotationOutput extends AbstractSensorOutput<Bno085Sensor> {
             }
             ++setCount;
 
-            dataBlock.setDoubleValue(0, System.currentTimeMillis() / 1000d);
+            dataBlock.setDoubleValue(0, sampleTime);
             dataBlock.setDoubleValue(1, i);
             dataBlock.setDoubleValue(2, j);
             dataBlock.setDoubleValue(3, k);
@@ -136,7 +150,9 @@ public class RotationOutput extends AbstractSensorOutput<Bno085Sensor> {
             latestRecord = dataBlock;
             latestRecordTime = System.currentTimeMillis();
 
-            eventHandler.publish(new DataEvent(latestRecordTime, RotationOutput.this, dataBlock));
+            // send event with all batched records
+            if (batch.add(dataBlock, sampleTime))
+                eventHandler.publish(new DataEvent(latestRecordTime, RotationOutput.this, batch.drain()));
 
         } catch (Exception e) {
             logger.debug("Error reading from BNO085: {}", e.getMessage());
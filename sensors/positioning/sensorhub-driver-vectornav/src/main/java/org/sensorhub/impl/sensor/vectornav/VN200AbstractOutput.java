@@ -16,26 +16,73 @@ package org.sensorhub.impl.sensor.vectornav;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import net.opengis.swe.v20.DataBlock;
 import net.opengis.swe.v20.DataComponent;
 import net.opengis.swe.v20.DataEncoding;
+import org.sensorhub.api.data.DataEvent;
 import org.sensorhub.impl.sensor.AbstractSensorOutput;
+import org.sensorhub.impl.sensor.sampling.SampleBatch;
+import org.sensorhub.impl.sensor.sampling.SampleClock;
 
 
 public abstract class VN200AbstractOutput extends AbstractSensorOutput<VN200Sensor>
 {
+    static final double MAX_BATCH_LATENCY = 1.0;
+    
     DataComponent dataStruct;
     DataEncoding dataEncoding;
     double samplingPeriod;
+    SampleClock clock;
+    SampleBatch batch;
 
 
-    public VN200AbstractOutput(String name, VN200Sensor parentSensor, double samplingPeriod)
+    public VN200AbstractOutput(String name, VN200Sensor parentSensor, double samplingPeriod, int samplesPerEvent)
     {
         super(name, parentSensor);
         this.samplingPeriod = samplingPeriod;
+        this.clock = new SampleClock(samplingPeriod);
+        this.batch = new SampleBatch(samplesPerEvent, MAX_BATCH_LATENCY);
     }
 
 
-    protected abstract void decodeAndSendMeasurement(long timeStamp, ByteBuffer payload) throws IOException;
+    /**
+     * Decodes the message payload and sends the corresponding record
+     * @param sampleTime Sampling time in seconds since epoch
+     * @param payload Buffer positioned at the first field of the output
+     * @throws IOException
+     */
+    protected abstract void decodeAndSendMeasurement(double sampleTime, ByteBuffer payload) throws IOException;
+    
+    
+    /*
+     * Add record to current batch and send event with all batched records
+     * when the batch is full
+     */
+    protected void sendRecord(double sampleTime, DataBlock dataBlock)
+    {
+        latestRecord = dataBlock;
+        latestRecordTime = (long)(sampleTime * 1000);
+        
+        if (batch.add(dataBlock, sampleTime))
+            eventHandler.publish(new DataEvent(latestRecordTime, this, batch.drain()));
+    }
+    
+    
+    /*
+     * Send event with the records remaining in the current batch, if any
+     * This must be called by the reader thread or once it has terminated
+     */
+    protected void flush()
+    {
+        if (!batch.isEmpty())
+            eventHandler.publish(new DataEvent(latestRecordTime, this, batch.drain()));
+    }
+    
+    
+    protected void reset()
+    {
+        clock.reset();
+    }
     
     
     @Override
@@ -34,6 +34,14 @@ public class VN200Config extends SensorConfig
     public int gpsSamplingFactor = 80;
     
     
+    @DisplayInfo(label="Attitude Samples per Event", desc="Number of attitude samples published together in a single data event. Increase to reduce processing overhead at high sampling rates")
+    public int attSamplesPerEvent = 1;
+    
+    
+    @DisplayInfo(label="Use Sensor Clock", desc="Timestamp attitude samples using the sensor internal clock rather than the time at which they are received")
+    public boolean useSensorClock = true;
+    
+    
     public VN200Config()
     {
         this.moduleClass = VN200Sensor.class.getCanonicalName();
@@ -18,19 +18,18 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import net.opengis.swe.v20.DataBlock;
 import net.opengis.swe.v20.Vector;
-import org.sensorhub.api.data.DataEvent;
 import org.vast.swe.SWEHelper;
 import org.vast.swe.helper.GeoPosHelper;
 
 
 public class VN200GpsOutput extends VN200AbstractOutput
 {
-    float[] quat = new float[4];
+    double[] lla = new double[3];
     
     
-    public VN200GpsOutput(VN200Sensor parentSensor, double samplingPeriod)
+    public VN200GpsOutput(VN200Sensor parentSensor, double samplingPeriod, int samplesPerEvent)
     {
-        super("gpsData", parentSensor, samplingPeriod);
+        super("gpsData", parentSensor, samplingPeriod, samplesPerEvent);
     }
 
 
@@ -57,13 +56,13 @@ public class VN200GpsOutput extends VN200AbstractOutput
     }
     
     
-    protected void decodeAndSendMeasurement(long timeStamp, ByteBuffer payload) throws IOException
+    protected void decodeAndSendMeasurement(double sampleTime, ByteBuffer payload) throws IOException
     {
         // decode GPS time and location message
-        quat[1] = payload.getFloat();
-        quat[2] = payload.getFloat();
-        quat[3] = payload.getFloat();
-        quat[0] = payload.getFloat();
+        // skip UTC time since sampling time is provided
+        payload.position(payload.position() + 8);
+        for (int i=0; i<3; i++)
+            lla[i] = payload.getDouble();
         
         // create and populate datablock
         DataBlock dataBlock;
@@ -73,13 +72,10 @@ public class VN200GpsOutput extends VN200AbstractOutput
             dataBlock = latestRecord.renew();
         
         int k = 0;
-        dataBlock.setDoubleValue(k++, timeStamp / 1000.);
-        for (int i=0; i<4; i++, k++)
-            dataBlock.setFloatValue(k, quat[i]);
+        dataBlock.setDoubleValue(k++, sampleTime);
+        for (int i=0; i<3; i++, k++)
+            dataBlock.setDoubleValue(k, lla[i]);
         
-        // update latest record and send event
-        latestRecord = dataBlock;
-        latestRecordTime = timeStamp;
-        eventHandler.publish(new DataEvent(latestRecordTime, this, dataBlock));        
+        sendRecord(sampleTime, dataBlock);
     }
 }
@@ -19,7 +19,6 @@ import java.nio.ByteBuffer;
 import net.opengis.swe.v20.DataBlock;
 import net.opengis.swe.v20.DataType;
 import net.opengis.swe.v20.Vector;
-import org.sensorhub.api.data.DataEvent;
 import org.vast.swe.SWEHelper;
 import org.vast.swe.helper.GeoPosHelper;
 
@@ -29,9 +28,9 @@ public class VN200QuatOutput extends VN200AbstractOutput
     float[] quat = new float[4];
     
     
-    public VN200QuatOutput(VN200Sensor parentSensor, double samplingPeriod)
+    public VN200QuatOutput(VN200Sensor parentSensor, double samplingPeriod, int samplesPerEvent)
     {
-        super("quatData", parentSensor, samplingPeriod);
+        super("quatData", parentSensor, samplingPeriod, samplesPerEvent);
     }
 
 
@@ -59,7 +58,7 @@ public class VN200QuatOutput extends VN200AbstractOutput
     }
     
     
-    protected void decodeAndSendMeasurement(long timeStamp, ByteBuffer payload) throws IOException
+    protected void decodeAndSendMeasurement(double sampleTime, ByteBuffer payload) throws IOException
     {
         // decode quaternion message
         // scalar value is last on VN200
@@ -76,13 +75,10 @@ public class VN200QuatOutput extends VN200AbstractOutput
             dataBlock = latestRecord.renew();
         
         int k = 0;
-        dataBlock.setDoubleValue(k++, timeStamp / 1000.);
+        dataBlock.setDoubleValue(k++, sampleTime);
         for (int i=0; i<4; i++, k++)
             dataBlock.setFloatValue(k, quat[i]);
         
-        // update latest record and send event
-        latestRecord = dataBlock;
-        latestRecordTime = timeStamp;
-        eventHandler.publish(new DataEvent(latestRecordTime, this, dataBlock));        
+        sendRecord(sampleTime, dataBlock);
     }
 }
@@ -14,10 +14,12 @@ Copyright (C) 2012-2015 Sensia Software LLC. All Rights Reserved.
 
 package org.sensorhub.impl.sensor.vectornav;
 
+import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import net.opengis.sensorml.v20.ClassifierList;
 import net.opengis.sensorml.v20.PhysicalSystem;
@@ -26,6 +28,8 @@ import net.opengis.sensorml.v20.Term;
 import org.sensorhub.api.comm.ICommProvider;
 import org.sensorhub.api.common.SensorHubException;
 import org.sensorhub.impl.sensor.AbstractSensorModule;
+import org.sensorhub.impl.sensor.sampling.DeviceClock;
+import org.sensorhub.impl.sensor.sampling.SampleClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.vast.sensorML.SMLFactory;
@@ -47,14 +51,30 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
     protected final static String CRS_ID = "SENSOR_FRAME";
     protected final static byte SYNC = (byte)0xFA;
     protected final static double BASE_FREQ = 800.0;
+    protected final static int READ_BUFFER_SIZE = 4096;
+    protected final static long STOP_TIMEOUT = 1000L; // ms
+    
+    // binary output groups and fields
+    protected final static int GROUP_COMMON = 0x01;
+    protected final static int GROUP_GPS = 0x08;
+    protected final static int GROUP_ATTITUDE = 0x10;
+    protected final static int FIELD_TIME_STARTUP = 0x0001;
+    protected final static int FIELD_GPS_UTC = 0x0001;
+    protected final static int FIELD_GPS_POSLLA = 0x0020;
+    protected final static int FIELD_QUATERNION = 0x0004;
+    protected final static int TIME_STARTUP_SIZE = 8;
+    protected final static int GPS_PAYLOAD_SIZE = 8+24;
+    protected final static int ATT_PAYLOAD_SIZE = 16;
     
     ICommProvider<?> commProvider;
     VN200QuatOutput quatOutput;
     VN200GpsOutput gpsOutput;
+    DeviceClock sensorClock = new DeviceClock();
     
-    boolean started;
+    volatile boolean started;
+    Thread readerThread;
     DataInputStream dataIn;
-    ByteBuffer readBuffer = ByteBuffer.allocate(32);
+    ByteBuffer readBuffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
     
     
     public VN200Sensor()
@@ -72,11 +92,11 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
         generateXmlID("VNAV_INS_", null);
         
         // create data interfaces
-        quatOutput = new VN200QuatOutput(this, config.attSamplingFactor / BASE_FREQ);
+        quatOutput = new VN200QuatOutput(this, config.attSamplingFactor / BASE_FREQ, config.attSamplesPerEvent);
         quatOutput.init();
         addOutput(quatOutput, false);
                 
-        gpsOutput = new VN200GpsOutput(this, config.gpsSamplingFactor / BASE_FREQ);
+        gpsOutput = new VN200GpsOutput(this, config.gpsSamplingFactor / BASE_FREQ, 1);
         gpsOutput.init();
         addOutput(gpsOutput, false);        
     }
@@ -152,7 +172,8 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
             sendInitCommands();
                 
             // connect to data stream
-            dataIn = new DataInputStream(commProvider.getInputStream());
+            // use a large buffer so that all messages available are read at once
+            dataIn = new DataInputStream(new BufferedInputStream(commProvider.getInputStream(), READ_BUFFER_SIZE));
             VN200Sensor.log.info("Connected to IMU data stream");
         }
         catch (IOException e)
@@ -160,8 +181,12 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
             throw new RuntimeException("Error while initializing communications ", e);
         }
         
+        sensorClock.reset();
+        quatOutput.reset();
+        gpsOutput.reset();
+        
         // start main measurement thread
-        Thread t = new Thread(new Runnable()
+        readerThread = new Thread(new Runnable()
         {
             public void run()
             {
@@ -173,34 +198,32 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
                 dataIn = null;
             }
         });
-        t.start();
         
         started = true;
+        readerThread.start();
     }
     
     
     protected void sendInitCommands() throws IOException
     {
         OutputStream os = commProvider.getOutputStream();
-        StringBuilder buf;
+        String cmd;
         
-        // enable attitude message
-        buf = new StringBuilder();
-        buf.append("$VNWRG,75,1,") // async data on serial port 1
-           .append(config.attSamplingFactor).append(',') // output rate
-           .append(0x10) // enable output group 4 
-           .append(0x04) // enable field 'Quaternion' 
-           .append("*XX");
-        os.write(buf.toString().getBytes(StandardCharsets.US_ASCII));
+        // enable attitude message on serial port 1
+        // with field 'Quaternion' and optionally 'TimeStartup' from common group
+        if (config.useSensorClock)
+            cmd = String.format("$VNWRG,75,1,%d,%02X,%04X,%04X*XX\r\n",
+                config.attSamplingFactor, GROUP_COMMON | GROUP_ATTITUDE, FIELD_TIME_STARTUP, FIELD_QUATERNION);
+        else
+            cmd = String.format("$VNWRG,75,1,%d,%02X,%04X*XX\r\n",
+                config.attSamplingFactor, GROUP_ATTITUDE, FIELD_QUATERNION);
+        os.write(cmd.getBytes(StandardCharsets.US_ASCII));
         
-        // enable GPS message
-        buf = new StringBuilder();
-        buf.append("$VNWRG,76,1,") // async data on serial port 1
-           .append(config.gpsSamplingFactor).append(',') // output rate
-           .append(0x08) // enable output group 4 
-           .append(0x21) // enable fields 'UTC' and 'PosLla'
-           .append("*XX");
-        os.write(buf.toString().getBytes(StandardCharsets.US_ASCII));
+        // enable GPS message on serial port 1 with fields 'UTC' and 'PosLla'
+        cmd = String.format("$VNWRG,76,1,%d,%02X,%04X*XX\r\n",
+            config.gpsSamplingFactor, GROUP_GPS, FIELD_GPS_UTC | FIELD_GPS_POSLLA);
+        os.write(cmd.getBytes(StandardCharsets.US_ASCII));
+        os.flush();
     }
     
     
@@ -215,8 +238,9 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
             
             // prepare for reading message
             readBuffer.clear();
-            long timeStamp = System.currentTimeMillis();
+            double hostTime = SampleClock.now();
             VN200AbstractOutput output;
+            int numGroups;
             int payloadLength;
             
             // read group config and select corresponding output
@@ -224,13 +248,21 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
             readBuffer.put(groups);
             switch (groups)
             {
-                case 8:
-                    payloadLength = 32+4;
+                case GROUP_GPS:
+                    numGroups = 1;
+                    payloadLength = GPS_PAYLOAD_SIZE;
                     output = gpsOutput;
                     break;
                     
-                case 16:
-                    payloadLength = 16+4;
+                case GROUP_ATTITUDE:
+                    numGroups = 1;
+                    payloadLength = ATT_PAYLOAD_SIZE;
+                    output = quatOutput;
+                    break;
+                    
+                case GROUP_COMMON | GROUP_ATTITUDE:
+                    numGroups = 2;
+                    payloadLength = TIME_STARTUP_SIZE + ATT_PAYLOAD_SIZE;
                     output = quatOutput;
                     break;
                     
@@ -239,9 +271,10 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
                     return false;
             }
             
-            // read data to buffer
-            dataIn.read(readBuffer.array(), 1, payloadLength);
-            readBuffer.limit(payloadLength);
+            // read whole message to buffer (field masks + payload + CRC)
+            int msgLength = 1 + numGroups*2 + payloadLength + 2;
+            dataIn.readFully(readBuffer.array(), 1, msgLength-1);
+            readBuffer.limit(msgLength);
             
             // check CRC
             if (!checkCRC(readBuffer))
@@ -250,9 +283,19 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
                 return false;
             }
             
+            // compute sampling time, using sensor time if available
+            readBuffer.position(1 + numGroups*2);
+            double sampleTime;
+            if ((groups & GROUP_COMMON) != 0)
+            {
+                long timeStartup = readBuffer.getLong(); // in ns
+                sampleTime = sensorClock.toHostTime(timeStartup / 1e9, hostTime);
+            }
+            else
+                sampleTime = output.clock.next(hostTime);
+            
             // let output class decode the payload
-            readBuffer.position(3);
-            output.decodeAndSendMeasurement(timeStamp, readBuffer);            
+            output.decodeAndSendMeasurement(sampleTime, readBuffer);
         }
         catch (IOException e)
         {
@@ -269,22 +312,22 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
     
     protected boolean checkCRC(ByteBuffer readBuffer)
     {
-        readBuffer.flip();
+        int crcIndex = readBuffer.limit()-2;
         int crc = 0;
         
         // compute message CRC
-        for (int i = 0; i < readBuffer.limit()-2; i++)
+        for (int i = 0; i < crcIndex; i++)
         {
             crc = (crc >> 8) | (crc << 8);
-            crc ^= readBuffer.get() & 0xff;
+            crc ^= readBuffer.get(i) & 0xff;
             crc ^= (crc & 0xff) >> 4;
             crc ^= crc << 12;
             crc ^= (crc & 0xff) << 5;
             crc &= 0xFFFF;            
         }
         
-        // compare with embedded CRC
-        int readCrc = readBuffer.getShort() & 0xFFFF;
+        // compare with embedded CRC (always big endian)
+        int readCrc = ((readBuffer.get(crcIndex) & 0xFF) << 8) | (readBuffer.get(crcIndex+1) & 0xFF);
         if (readCrc != crc)
             return false;
         
@@ -295,11 +338,34 @@ public class VN200Sensor extends AbstractSensorModule<VN200Config>
     @Override
     protected void doStop() throws SensorHubException
     {
+        started = false;
+        
         if (commProvider != null)
         {
             commProvider.stop();
             commProvider = null;
         }
+        
+        // wait for reader thread to exit and publish partial batches
+        if (readerThread != null)
+        {
+            try
+            {
+                readerThread.join(STOP_TIMEOUT);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            
+            if (!readerThread.isAlive())
+            {
+                quatOutput.flush();
+                gpsOutput.flush();
+            }
+            
+            readerThread = null;
+        }
     }
     
 
@@ -0,0 +1,60 @@
+/*
+ *  The contents of this file are subject to the Mozilla Public License, v. 2.0.
+ *  If a copy of the MPL was not distributed with this file, You can obtain one
+ *  at http://mozilla.org/MPL/2.0/.
+ *
+ *  Software distributed under the License is distributed on an "AS IS" basis,
+ *  WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ *  for the specific language governing rights and limitations under the License.
+ *
+ *  Copyright (C) 2026 Botts Innovative Research, Inc. All Rights Reserved.
+ */
+
+package org.sensorhub.impl.ros.config;
+
+import org.sensorhub.api.config.DisplayInfo;
+
+/**
+ * Configuration parameters controlling how range scans (e.g. ROS LaserScan messages)
+ * are downsampled and encoded by sensor outputs
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ScanCompressionConfig {
+
+    /**
+     * If true, ranges and intensities are quantized and delta encoded
+     */
+    @DisplayInfo(label = "Enable Compression", desc = "Publish ranges and intensities as quantized, " +
+            "delta encoded binary blocks instead of raw float arrays")
+    public boolean enabled = false;
+
+    /**
+     * Quantization step for range values
+     */
+    @DisplayInfo(label = "Range Resolution", desc = "Quantization step applied to range values, in meters")
+    @DisplayInfo.ValueRange(min = 0.0001, max = 1.0)
+    public float rangeResolution = 0.001f;
+
+    /**
+     * Quantization step for intensity values
+     */
+    @DisplayInfo(label = "Intensity Resolution", desc = "Quantization step applied to intensity values")
+    @DisplayInfo.ValueRange(min = 0.0001)
+    public float intensityResolution = 1.0f;
+
+    /**
+     * Number of consecutive samples merged into one angular bin
+     */
+    @DisplayInfo(label = "Angle Bin Size", desc = "Number of consecutive samples merged into a single sample. " +
+            "The closest valid range of each bin is kept. Use 1 to keep the full angular resolution")
+    @DisplayInfo.ValueRange(min = 1, max = 360)
+    public int angleBinSize = 1;
+
+    /**
+     * If false, intensities are not published
+     */
+    @DisplayInfo(label = "Include Intensities", desc = "Publish intensity values along with ranges")
+    public boolean includeIntensities = true;
+}
@@ -0,0 +1,182 @@
+/*
+ *  The contents of this file are subject to the Mozilla Public License, v. 2.0.
+ *  If a copy of the MPL was not distributed with this file, You can obtain one
+ *  at http://mozilla.org/MPL/2.0/.
+ *
+ *  Software distributed under the License is distributed on an "AS IS" basis,
+ *  WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ *  for the specific language governing rights and limitations under the License.
+ *
+ *  Copyright (C) 2026 Botts Innovative Research, Inc. All Rights Reserved.
+ */
+
+package org.sensorhub.impl.ros.utils;
+
+import org.vast.data.DataBlockByte;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Byte data block backed by a region of an existing array, such as the payload of a
+ * ROS message, so that large payloads (images, depth maps, point clouds) can be
+ * published without being copied.
+ * <p>
+ * Values read through the {@code DataBlock} accessors are taken directly from the
+ * wrapped region. Since {@link #getUnderlyingObject()} must return an array starting
+ * at index 0, it only returns the backing array itself when the region covers all of
+ * it, otherwise the region is copied once the first time it is requested.
+ * <p>
+ * Renewing a view doesn't allocate any storage, the new view is empty until
+ * {@link #wrap} or {@link #resize} is called. Outputs can thus call
+ * {@code latestRecord.renew()} as usual for each message without allocating a
+ * full frame that would be replaced right away.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class DataBlockByteView extends DataBlockByte {
+
+    private static final long serialVersionUID = -1638493726151409541L;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Copy of the wrapped region, created on demand for callers needing a plain array
+     */
+    private transient volatile byte[] compacted;
+
+    /**
+     * Constructor for an empty view
+     */
+    public DataBlockByteView() {
+
+        this.primitiveArray = EMPTY;
+    }
+
+    /**
+     * Constructor for a view of the remaining bytes of a buffer
+     *
+     * @param buffer the buffer to wrap
+     */
+    public DataBlockByteView(ByteBuffer buffer) {
+
+        wrap(buffer);
+    }
+
+    /**
+     * Makes this block a view of a region of an array. The array is not copied
+     * and must not be modified while the block is in use.
+     *
+     * @param array  the backing array
+     * @param offset index of the first byte of the region
+     * @param length number of bytes in the region
+     */
+    public void wrap(byte[] array, int offset, int length) {
+
+        if (offset < 0 || length < 0 || offset + length > array.length) {
+
+            throw new IndexOutOfBoundsException("Invalid region [" + offset + ", " + (offset + length) +
+                    "[ of array of size " + array.length);
+        }
+
+        this.primitiveArray = array;
+        this.startIndex = offset;
+        this.atomCount = length;
+        this.compacted = null;
+    }
+
+    /**
+     * Makes this block a view of the remaining bytes of a buffer. Heap buffers are
+     * wrapped without copy, other buffers are copied since their content cannot be
+     * accessed as an array.
+     *
+     * @param buffer the buffer to wrap, its position is not modified
+     */
+    public void wrap(ByteBuffer buffer) {
+
+        if (buffer.hasArray()) {
+
+            wrap(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+
+        } else {
+
+            byte[] array = new byte[buffer.remaining()];
+            buffer.duplicate().get(array);
+            wrap(array, 0, array.length);
+        }
+    }
+
+    /**
+     * Retrieves the wrapped region as a read-only buffer, without copy
+     *
+     * @return a buffer positioned at the start of the region
+     */
+    public ByteBuffer asByteBuffer() {
+
+        return ByteBuffer.wrap(primitiveArray, startIndex, atomCount).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Checks if the view covers the whole backing array
+     *
+     * @return true if {@link #getUnderlyingObject()} can be returned without copy
+     */
+    public boolean isCompact() {
+
+        return startIndex == 0 && atomCount == primitiveArray.length;
+    }
+
+    @Override
+    public byte[] getUnderlyingObject() {
+
+        if (isCompact()) {
+
+            return primitiveArray;
+        }
+
+        byte[] array = compacted;
+
+        if (array == null) {
+
+            array = Arrays.copyOfRange(primitiveArray, startIndex, startIndex + atomCount);
+            compacted = array;
+        }
+
+        return array;
+    }
+
+    @Override
+    public void setUnderlyingObject(byte[] primitiveArray) {
+
+        wrap(primitiveArray, 0, primitiveArray.length);
+    }
+
+    @Override
+    public void resize(int size) {
+
+        wrap(new byte[size], 0, size);
+    }
+
+    @Override
+    public DataBlockByteView copy() {
+
+        DataBlockByteView newBlock = new DataBlockByteView();
+        newBlock.wrap(primitiveArray, startIndex, atomCount);
+        return newBlock;
+    }
+
+    @Override
+    public DataBlockByteView renew() {
+
+        return new DataBlockByteView();
+    }
+
+    @Override
+    public DataBlockByte clone() {
+
+        DataBlockByte newBlock = new DataBlockByte();
+        newBlock.setUnderlyingObject(Arrays.copyOfRange(primitiveArray, startIndex, startIndex + atomCount));
+        return newBlock;
+    }
+}
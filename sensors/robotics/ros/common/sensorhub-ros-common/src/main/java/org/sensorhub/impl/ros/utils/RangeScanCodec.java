@@ -0,0 +1,285 @@
+/*
+ *  The contents of this file are subject to the Mozilla Public License, v. 2.0.
+ *  If a copy of the MPL was not distributed with this file, You can obtain one
+ *  at http://mozilla.org/MPL/2.0/.
+ *
+ *  Software distributed under the License is distributed on an "AS IS" basis,
+ *  WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ *  for the specific language governing rights and limitations under the License.
+ *
+ *  Copyright (C) 2026 Botts Innovative Research, Inc. All Rights Reserved.
+ */
+
+package org.sensorhub.impl.ros.utils;
+
+import java.util.Arrays;
+
+/**
+ * Compact binary codec for range scans and other arrays of slowly varying float values.
+ * <p>
+ * Values are quantized with a fixed resolution, then each value is stored as the
+ * zigzag varint encoded difference with the previous valid value. Consecutive ranges of
+ * a laser scan are usually close to each other, so most samples take 1 or 2 bytes
+ * instead of 4. Non-finite values (NaN, +/-Inf) are preserved using reserved codes.
+ * <p>
+ * Encoded block layout:
+ * <pre>
+ *   varint  number of values
+ *   float32 resolution (big endian)
+ *   varint  code for each value (0 = NaN, 1 = +Inf, 2 = -Inf, n > 2 = zigzag(delta) + 3)
+ * </pre>
+ * <p>
+ * Instances reuse an internal scratch buffer and are not thread safe.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class RangeScanCodec {
+
+    /**
+     * Compression identifier used in SWE Common binary blocks carrying encoded scans
+     */
+    public static final String COMPRESSION = "SCAN_DELTA";
+
+    private static final int CODE_NAN = 0;
+
+    private static final int CODE_POS_INF = 1;
+
+    private static final int CODE_NEG_INF = 2;
+
+    private static final int CODE_OFFSET = 3;
+
+    /**
+     * Scratch buffer, grown as needed
+     */
+    private byte[] scratch = new byte[4096];
+
+    /**
+     * Current write position in scratch buffer
+     */
+    private int pos;
+
+    /**
+     * Encodes an array of values
+     *
+     * @param values     the values to encode
+     * @param count      the number of values to encode, starting at index 0
+     * @param resolution the quantization step
+     * @return a new array containing the encoded block
+     */
+    public byte[] encode(float[] values, int count, float resolution) {
+
+        if (!(resolution > 0)) {
+
+            throw new IllegalArgumentException("Resolution must be strictly positive");
+        }
+
+        // worst case is 10 bytes per value + header
+        ensureCapacity(count * 10L + 16);
+        pos = 0;
+
+        writeVarLong(count);
+        int bits = Float.floatToIntBits(resolution);
+        scratch[pos++] = (byte) (bits >> 24);
+        scratch[pos++] = (byte) (bits >> 16);
+        scratch[pos++] = (byte) (bits >> 8);
+        scratch[pos++] = (byte) bits;
+
+        long prev = 0;
+
+        for (int i = 0; i < count; i++) {
+
+            float val = values[i];
+
+            if (Float.isNaN(val)) {
+
+                writeVarLong(CODE_NAN);
+
+            } else if (val == Float.POSITIVE_INFINITY) {
+
+                writeVarLong(CODE_POS_INF);
+
+            } else if (val == Float.NEGATIVE_INFINITY) {
+
+                writeVarLong(CODE_NEG_INF);
+
+            } else {
+
+                long q = Math.round((double) val / resolution);
+                long delta = q - prev;
+                writeVarLong(((delta << 1) ^ (delta >> 63)) + CODE_OFFSET);
+                prev = q;
+            }
+        }
+
+        return Arrays.copyOf(scratch, pos);
+    }
+
+    /**
+     * Decodes a block produced by {@link #encode}
+     *
+     * @param data the encoded block
+     * @return the decoded values
+     * @throws IllegalArgumentException if the block is truncated or corrupted
+     */
+    public static float[] decode(byte[] data) {
+
+        int[] offset = new int[1];
+
+        long count = readVarLong(data, offset);
+        if (count < 0 || count > data.length) {
+
+            // each value takes at least one byte
+            throw new IllegalArgumentException("Invalid value count: " + count);
+        }
+
+        int p = offset[0];
+        if (p + 4 > data.length) {
+
+            throw new IllegalArgumentException("Truncated scan block");
+        }
+
+        float resolution = Float.intBitsToFloat(
+                (data[p] & 0xFF) << 24 | (data[p + 1] & 0xFF) << 16 | (data[p + 2] & 0xFF) << 8 | (data[p + 3] & 0xFF));
+        offset[0] = p + 4;
+
+        float[] values = new float[(int) count];
+        long prev = 0;
+
+        for (int i = 0; i < values.length; i++) {
+
+            long code = readVarLong(data, offset);
+
+            if (code == CODE_NAN) {
+
+                values[i] = Float.NaN;
+
+            } else if (code == CODE_POS_INF) {
+
+                values[i] = Float.POSITIVE_INFINITY;
+
+            } else if (code == CODE_NEG_INF) {
+
+                values[i] = Float.NEGATIVE_INFINITY;
+
+            } else {
+
+                long zz = code - CODE_OFFSET;
+                prev += (zz >>> 1) ^ -(zz & 1);
+                values[i] = (float) (prev * (double) resolution);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Merges groups of consecutive scan samples into angular bins.
+     * <p>
+     * The closest finite range of each bin is kept so that obstacles are not lost, along
+     * with the intensity of the same sample. If a bin contains no finite range, its first
+     * sample is kept. The last bin may contain less than binSize samples.
+     *
+     * @param ranges         the input ranges
+     * @param intensities    the input intensities, can be null or shorter than ranges
+     * @param count          the number of input samples
+     * @param binSize        the number of samples per bin
+     * @param outRanges      the array receiving the binned ranges
+     * @param outIntensities the array receiving the binned intensities, can be null
+     * @return the number of bins written to the output arrays
+     */
+    public static int binByAngle(float[] ranges, float[] intensities, int count, int binSize,
+                                 float[] outRanges, float[] outIntensities) {
+
+        if (binSize < 1) {
+
+            throw new IllegalArgumentException("Bin size must be at least 1");
+        }
+
+        boolean hasIntensities = intensities != null && outIntensities != null;
+        int numBins = 0;
+
+        for (int start = 0; start < count; start += binSize) {
+
+            int end = Math.min(start + binSize, count);
+            int selected = start;
+
+            for (int i = start; i < end; i++) {
+
+                float r = ranges[i];
+
+                if (Float.isFinite(r) && (!Float.isFinite(ranges[selected]) || r < ranges[selected])) {
+
+                    selected = i;
+                }
+            }
+
+            outRanges[numBins] = ranges[selected];
+
+            if (hasIntensities && selected < intensities.length) {
+
+                outIntensities[numBins] = intensities[selected];
+            }
+
+            numBins++;
+        }
+
+        return numBins;
+    }
+
+    /**
+     * Computes the number of bins produced by {@link #binByAngle}
+     *
+     * @param count   the number of input samples
+     * @param binSize the number of samples per bin
+     * @return the number of bins
+     */
+    public static int getBinCount(int count, int binSize) {
+
+        return (count + binSize - 1) / binSize;
+    }
+
+    private void ensureCapacity(long size) {
+
+        if (size > scratch.length) {
+
+            scratch = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(size, scratch.length * 2L))];
+        }
+    }
+
+    private void writeVarLong(long val) {
+
+        while ((val & ~0x7FL) != 0) {
+
+            scratch[pos++] = (byte) ((val & 0x7F) | 0x80);
+            val >>>= 7;
+        }
+
+        scratch[pos++] = (byte) val;
+    }
+
+    private static long readVarLong(byte[] data, int[] offset) {
+
+        long val = 0;
+        int p = offset[0];
+
+        for (int shift = 0; shift < 64; shift += 7) {
+
+            if (p >= data.length) {
+
+                throw new IllegalArgumentException("Truncated scan block");
+            }
+
+            byte b = data[p++];
+            val |= (long) (b & 0x7F) << shift;
+
+            if (b >= 0) {
+
+                offset[0] = p;
+                return val;
+            }
+        }
+
+        throw new IllegalArgumentException("Malformed varint in scan block");
+    }
+}
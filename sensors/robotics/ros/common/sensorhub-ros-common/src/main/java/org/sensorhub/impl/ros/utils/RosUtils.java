@@ -12,9 +12,14 @@
 
 package org.sensorhub.impl.ros.utils;
 
+import net.opengis.swe.v20.DataBlock;
+import org.jboss.netty.buffer.ChannelBuffer;
 import org.ros.node.NodeConfiguration;
+import org.vast.data.AbstractDataBlock;
+import org.vast.data.DataBlockMixed;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
 
 /**
  * Utility functions to simplify ROS operations
@@ -46,4 +51,58 @@ public class RosUtils {
 
         return nodeConfiguration;
     }
+
+    /**
+     * Retrieves the readable bytes of a message buffer as a byte buffer, without copy
+     * when the buffer is backed by an array. Message fields such as image or point cloud
+     * data are slices of the buffer holding the whole message, so the array offset and
+     * reader index are taken into account.
+     *
+     * @param buffer the buffer read from a ROS message
+     * @return a buffer positioned at the first readable byte, with the same byte order
+     */
+    public static ByteBuffer asByteBuffer(final ChannelBuffer buffer) {
+
+        if (buffer.hasArray()) {
+
+            return ByteBuffer.wrap(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), buffer.readableBytes())
+                    .slice()
+                    .order(buffer.order());
+        }
+
+        return buffer.toByteBuffer().order(buffer.order());
+    }
+
+    /**
+     * Sets the content of a byte array member of a data record to the readable bytes of a
+     * message buffer, without copy. The existing member block is replaced by a
+     * {@link DataBlockByteView} if it isn't one already.
+     *
+     * @param dataBlock the record data block, as created from the output record structure
+     * @param index     index of the array member in the record
+     * @param buffer    the buffer read from a ROS message
+     * @return the view now holding the array data
+     */
+    public static DataBlockByteView setByteData(final DataBlock dataBlock, final int index, final ChannelBuffer buffer) {
+
+        AbstractDataBlock[] members = ((DataBlockMixed) dataBlock).getUnderlyingObject();
+
+        DataBlockByteView view;
+
+        if (members[index] instanceof DataBlockByteView) {
+
+            view = (DataBlockByteView) members[index];
+
+        } else {
+
+            view = new DataBlockByteView();
+            members[index] = view;
+        }
+
+        view.wrap(asByteBuffer(buffer));
+
+        ((DataBlockMixed) dataBlock).updateAtomCount();
+
+        return view;
+    }
 }
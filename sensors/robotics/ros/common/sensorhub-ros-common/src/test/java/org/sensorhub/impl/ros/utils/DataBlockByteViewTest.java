@@ -0,0 +1,165 @@
+/*
+ *  The contents of this file are subject to the Mozilla Public License, v. 2.0.
+ *  If a copy of the MPL was not distributed with this file, You can obtain one
+ *  at http://mozilla.org/MPL/2.0/.
+ *
+ *  Software distributed under the License is distributed on an "AS IS" basis,
+ *  WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ *  for the specific language governing rights and limitations under the License.
+ *
+ *  Copyright (C) 2026 Botts Innovative Research, Inc. All Rights Reserved.
+ */
+package org.sensorhub.impl.ros.utils;
+
+import net.opengis.swe.v20.DataBlock;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Test;
+import org.vast.data.AbstractDataBlock;
+import org.vast.data.DataBlockByte;
+import org.vast.data.DataBlockDouble;
+import org.vast.data.DataBlockMixed;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class DataBlockByteViewTest {
+
+    private static final int HEADER_SIZE = 37;
+
+    private static final int PAYLOAD_SIZE = 640 * 480;
+
+    /**
+     * Creates a buffer laid out like a deserialized ROS image message, where the
+     * pixel data is a slice located after the message header
+     */
+    private static ChannelBuffer createMessageData(byte[] frame) {
+
+        for (int i = 0; i < frame.length; i++) {
+
+            frame[i] = (byte) (i < HEADER_SIZE ? 0xFF : i - HEADER_SIZE);
+        }
+
+        ChannelBuffer message = ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN, frame);
+        message.skipBytes(HEADER_SIZE);
+
+        return message.readSlice(PAYLOAD_SIZE);
+    }
+
+    private static DataBlockMixed createImageRecord() {
+
+        DataBlockByte pixels = new DataBlockByte();
+        pixels.resize(PAYLOAD_SIZE);
+
+        DataBlockMixed record = new DataBlockMixed(new DataBlockDouble(1), pixels);
+        record.updateAtomCount();
+
+        return record;
+    }
+
+    @Test
+    public void testByteBufferHonorsOffset() {
+
+        byte[] frame = new byte[HEADER_SIZE + PAYLOAD_SIZE + 16];
+        ByteBuffer buffer = RosUtils.asByteBuffer(createMessageData(frame));
+
+        assertSame(frame, buffer.array());
+        assertEquals(HEADER_SIZE, buffer.arrayOffset());
+        assertEquals(PAYLOAD_SIZE, buffer.remaining());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+        assertEquals(0, buffer.get(0));
+        assertEquals((byte) 100, buffer.get(100));
+    }
+
+    @Test
+    public void testViewWithoutCopy() {
+
+        byte[] frame = new byte[HEADER_SIZE + PAYLOAD_SIZE + 16];
+        DataBlockByteView view = new DataBlockByteView(RosUtils.asByteBuffer(createMessageData(frame)));
+
+        assertEquals(PAYLOAD_SIZE, view.getAtomCount());
+        assertFalse(view.isCompact());
+
+        for (int i = 0; i < 1000; i++) {
+
+            assertEquals((byte) i, view.getByteValue(i));
+        }
+
+        // changes to the message are visible since nothing was copied
+        frame[HEADER_SIZE + 5] = 42;
+        assertEquals(42, view.getByteValue(5));
+        assertEquals(42, view.asByteBuffer().get(5));
+
+        // plain array only contains the payload
+        byte[] array = view.getUnderlyingObject();
+        assertEquals(PAYLOAD_SIZE, array.length);
+        assertEquals(42, array[5]);
+        assertSame(array, view.getUnderlyingObject());
+
+        // clone is detached from the message
+        DataBlock clone = view.clone();
+        frame[HEADER_SIZE + 5] = 0;
+        assertEquals(42, clone.getByteValue(5));
+        assertEquals(0, view.getByteValue(5));
+    }
+
+    @Test
+    public void testCompactView() {
+
+        byte[] data = new byte[256];
+        DataBlockByteView view = new DataBlockByteView(ByteBuffer.wrap(data));
+
+        assertTrue(view.isCompact());
+        assertSame(data, view.getUnderlyingObject());
+    }
+
+    @Test
+    public void testRenewedRecordReusesView() {
+
+        DataBlockMixed record = createImageRecord();
+
+        byte[] frame1 = new byte[HEADER_SIZE + PAYLOAD_SIZE];
+        DataBlockByteView view1 = RosUtils.setByteData(record, 1, createMessageData(frame1));
+        assertSame(view1, record.getUnderlyingObject()[1]);
+        assertEquals(1 + PAYLOAD_SIZE, record.getAtomCount());
+
+        // renewing the record must not allocate a new frame
+        DataBlockMixed record2 = (DataBlockMixed) record.renew();
+        AbstractDataBlock renewedView = record2.getUnderlyingObject()[1];
+        assertTrue(renewedView instanceof DataBlockByteView);
+        assertEquals(0, renewedView.getAtomCount());
+
+        byte[] frame2 = new byte[HEADER_SIZE + PAYLOAD_SIZE];
+        DataBlockByteView view2 = RosUtils.setByteData(record2, 1, createMessageData(frame2));
+        assertSame(renewedView, view2);
+        assertEquals(1 + PAYLOAD_SIZE, record2.getAtomCount());
+        assertEquals((byte) 7, record2.getByteValue(1 + 7));
+
+        // previous record still points to its own message
+        frame1[HEADER_SIZE + 7] = -1;
+        assertEquals(-1, record.getByteValue(1 + 7));
+        assertEquals((byte) 7, record2.getByteValue(1 + 7));
+    }
+
+    @Test
+    public void testDirectBufferIsCopied() {
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        direct.put(10, (byte) 3);
+        direct.position(8);
+
+        DataBlockByteView view = new DataBlockByteView(direct);
+
+        assertEquals(56, view.getAtomCount());
+        assertEquals(3, view.getByteValue(2));
+        assertEquals(8, direct.position());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidRegion() {
+
+        new DataBlockByteView().wrap(new byte[10], 4, 8);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ *  The contents of this file are subject to the Mozilla Public License, v. 2.0.
+ *  If a copy of the MPL was not distributed with this file, You can obtain one
+ *  at http://mozilla.org/MPL/2.0/.
+ *
+ *  Software distributed under the License is distributed on an "AS IS" basis,
+ *  WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ *  for the specific language governing rights and limitations under the License.
+ *
+ *  Copyright (C) 2026 Botts Innovative Research, Inc. All Rights Reserved.
+ */
+package org.sensorhub.impl.ros.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class RangeScanCodecTest {
+
+    private static final int SCAN_SIZE = 720;
+
+    /**
+     * Generates a scan similar to what a 2D lidar sees from the middle of a room,
+     * including sensor noise, a few obstacles and missing returns
+     */
+    private static float[] generateScan(Random random, float offset) {
+
+        float[] ranges = new float[SCAN_SIZE];
+
+        for (int i = 0; i < SCAN_SIZE; i++) {
+
+            double angle = 2 * Math.PI * i / SCAN_SIZE;
+
+            // distance to the walls of a 8m x 5m room
+            double dx = 4.0 / Math.max(Math.abs(Math.cos(angle)), 1e-6);
+            double dy = 2.5 / Math.max(Math.abs(Math.sin(angle)), 1e-6);
+            double range = Math.min(dx, dy) + offset;
+
+            // obstacles
+            if (i > 100 && i < 130) {
+
+                range = 1.2;
+
+            } else if (i > 400 && i < 410) {
+
+                range = 0.6;
+            }
+
+            ranges[i] = (float) (range + random.nextGaussian() * 0.01);
+
+            if (random.nextInt(50) == 0) {
+
+                ranges[i] = Float.POSITIVE_INFINITY;
+
+            } else if (random.nextInt(200) == 0) {
+
+                ranges[i] = Float.NaN;
+            }
+        }
+
+        return ranges;
+    }
+
+    @Test
+    public void testRoundTrip() {
+
+        RangeScanCodec codec = new RangeScanCodec();
+        float[] ranges = generateScan(new Random(42), 0.0f);
+        float resolution = 0.001f;
+
+        byte[] encoded = codec.encode(ranges, ranges.length, resolution);
+        float[] decoded = RangeScanCodec.decode(encoded);
+
+        assertEquals(ranges.length, decoded.length);
+
+        for (int i = 0; i < ranges.length; i++) {
+
+            if (Float.isFinite(ranges[i])) {
+
+                assertEquals(ranges[i], decoded[i], resolution / 2 + 1e-6);
+
+            } else {
+
+                assertEquals(Float.valueOf(ranges[i]), Float.valueOf(decoded[i]));
+            }
+        }
+
+        // raw scan uses 4 bytes per sample
+        assertTrue("Encoded size is " + encoded.length, encoded.length < ranges.length * 4 / 2);
+    }
+
+    @Test
+    public void testPartialArrayAndScratchReuse() {
+
+        RangeScanCodec codec = new RangeScanCodec();
+
+        // large scan first so the scratch buffer contains leftover data
+        codec.encode(new float[10000], 10000, 0.001f);
+        byte[] first = codec.encode(new float[]{1.0f, 2.0f, -3.5f, 1000.0f}, 3, 0.5f);
+        byte[] second = codec.encode(new float[0], 0, 0.01f);
+
+        assertArrayEquals(new float[]{1.0f, 2.0f, -3.5f}, RangeScanCodec.decode(first), 0.0f);
+        assertEquals(0, RangeScanCodec.decode(second).length);
+    }
+
+    @Test
+    public void testCorruptedBlock() {
+
+        RangeScanCodec codec = new RangeScanCodec();
+        byte[] encoded = codec.encode(generateScan(new Random(1), 0.0f), SCAN_SIZE, 0.001f);
+
+        byte[] truncated = new byte[encoded.length / 2];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        try {
+
+            RangeScanCodec.decode(truncated);
+            fail("Truncated block should be rejected");
+
+        } catch (IllegalArgumentException e) {
+
+            // expected
+        }
+    }
+
+    @Test
+    public void testBinByAngle() {
+
+        float[] ranges = {3.0f, 1.0f, Float.NaN, Float.POSITIVE_INFINITY, Float.NaN, 2.0f, 0.5f};
+        float[] intensities = {10, 11, 12, 13, 14, 15, 16};
+
+        int numBins = RangeScanCodec.getBinCount(ranges.length, 3);
+        float[] outRanges = new float[numBins];
+        float[] outIntensities = new float[numBins];
+
+        assertEquals(3, RangeScanCodec.binByAngle(ranges, intensities, ranges.length, 3, outRanges, outIntensities));
+
+        // closest finite range is kept, along with its intensity
+        assertArrayEquals(new float[]{1.0f, 2.0f, 0.5f}, outRanges, 0.0f);
+        assertArrayEquals(new float[]{11, 15, 16}, outIntensities, 0.0f);
+
+        // bins without a finite range keep their first sample
+        float[] noReturn = {Float.NaN, Float.POSITIVE_INFINITY};
+        float[] out = new float[1];
+        RangeScanCodec.binByAngle(noReturn, null, 2, 2, out, null);
+        assertTrue(Float.isNaN(out[0]));
+    }
+
+    /**
+     * Checks the size of compressed scans for a sequence of scans at
+     * various bin sizes
+     */
+    @Test
+    public void testCompressedSize() {
+
+        float[][] scans = generateScans(2000);
+        RangeScanCodec codec = new RangeScanCodec();
+        long rawBytes = (long) scans.length * SCAN_SIZE * 4;
+
+        for (int binSize : new int[]{1, 2, 4}) {
+
+            long encodedBytes = encodeAll(codec, scans, binSize);
+            assertTrue(encodedBytes < rawBytes / (2 * binSize));
+        }
+    }
+
+
+    /**
+     * Compares the size and encoding throughput of raw and compressed scans
+     * for a sequence of scans at various bin sizes
+     */
+    @Test
+    public void testThroughput() {
+
+        assumeTrue("Benchmark only runs with -Dros.benchmark=true", Boolean.getBoolean("ros.benchmark"));
+
+        float[][] scans = generateScans(2000);
+        RangeScanCodec codec = new RangeScanCodec();
+        long rawBytes = (long) scans.length * SCAN_SIZE * 4;
+
+        for (int binSize : new int[]{1, 2, 4}) {
+
+            long t0 = System.nanoTime();
+            long encodedBytes = encodeAll(codec, scans, binSize);
+            double dt = (System.nanoTime() - t0) / 1e9;
+
+            System.out.printf("bin=%d: %d -> %d bytes (%.1f%%), %.0f scans/s%n",
+                    binSize, rawBytes, encodedBytes, 100.0 * encodedBytes / rawBytes, scans.length / dt);
+        }
+    }
+
+
+    private static float[][] generateScans(int numScans) {
+
+        Random random = new Random(7);
+        float[][] scans = new float[numScans][];
+
+        for (int i = 0; i < numScans; i++) {
+
+            scans[i] = generateScan(random, (float) Math.sin(i * 0.01) * 0.2f);
+        }
+
+        return scans;
+    }
+
+
+    private static long encodeAll(RangeScanCodec codec, float[][] scans, int binSize) {
+
+        float[] binned = new float[RangeScanCodec.getBinCount(SCAN_SIZE, binSize)];
+        long encodedBytes = 0;
+
+        for (float[] scan : scans) {
+
+            int n = RangeScanCodec.binByAngle(scan, null, scan.length, binSize, binned, null);
+            encodedBytes += codec.encode(binned, n, 0.001f).length;
+        }
+
+        return encodedBytes;
+    }
+}
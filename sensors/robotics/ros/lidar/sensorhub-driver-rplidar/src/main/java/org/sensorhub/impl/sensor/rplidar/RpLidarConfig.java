@@ -12,6 +12,7 @@
 package org.sensorhub.impl.sensor.rplidar;
 
 import org.sensorhub.impl.ros.config.RosMasterConfig;
+import org.sensorhub.impl.ros.config.ScanCompressionConfig;
 import org.sensorhub.api.config.DisplayInfo;
 import org.sensorhub.api.sensor.SensorConfig;
 
@@ -35,4 +36,7 @@ public class RpLidarConfig extends SensorConfig {
     @DisplayInfo.Required
     @DisplayInfo(label = "ROS", desc = "Configuration parameters for participating in ROS ecosystem")
     public RosMasterConfig rosMaster = new RosMasterConfig();
+
+    @DisplayInfo(label = "Scan Compression", desc = "Downsampling and compression of published laser scans")
+    public ScanCompressionConfig scanCompression = new ScanCompressionConfig();
 }
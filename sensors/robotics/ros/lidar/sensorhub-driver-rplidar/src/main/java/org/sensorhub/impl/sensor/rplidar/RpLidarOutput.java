@@ -12,8 +12,10 @@
 package org.sensorhub.impl.sensor.rplidar;
 
 import org.sensorhub.impl.ros.config.RosMasterConfig;
+import org.sensorhub.impl.ros.config.ScanCompressionConfig;
 import org.sensorhub.impl.ros.nodes.pubsub.RosSubscriberNode;
 import org.sensorhub.impl.ros.output.RosSensorOutput;
+import org.sensorhub.impl.ros.utils.RangeScanCodec;
 import org.sensorhub.impl.ros.utils.RosUtils;
 import net.opengis.swe.v20.*;
 import org.ros.node.DefaultNodeMainExecutor;
@@ -22,6 +24,7 @@ import org.ros.node.NodeMainExecutor;
 import org.sensorhub.api.data.DataEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.vast.cdm.common.CDMException;
 import org.vast.data.DataBlockMixed;
 import org.vast.swe.SWEHelper;
 import sensor_msgs.LaserScan;
@@ -50,6 +53,17 @@ public class RpLidarOutput extends RosSensorOutput<RpLidarSensor> {
 
     private RosSubscriberNode subscriberNode;
 
+    private ScanCompressionConfig compressionConfig;
+
+    private RangeScanCodec codec;
+
+    /**
+     * Scratch arrays receiving binned samples before compression
+     */
+    private float[] binnedRanges = new float[0];
+
+    private float[] binnedIntensities = new float[0];
+
     /**
      * Constructor
      *
@@ -208,7 +222,77 @@ public class RpLidarOutput extends RosSensorOutput<RpLidarSensor> {
                 .addField(intensityDataArray.getName(), intensityDataArray)
                 .build();
 
-        dataEncoding = sweFactory.newTextEncoding(",", "\n");
+        compressionConfig = parentSensor.getConfiguration().scanCompression;
+
+        if (compressionConfig != null && compressionConfig.enabled) {
+
+            dataEncoding = createCompressedEncoding(sweFactory);
+
+            codec = new RangeScanCodec();
+
+        } else {
+
+            dataEncoding = sweFactory.newTextEncoding(",", "\n");
+
+            codec = null;
+        }
+    }
+
+    /**
+     * Creates a binary encoding in which the range and intensity arrays are written as
+     * {@link RangeScanCodec} blocks. The data blocks of these arrays then hold the
+     * encoded bytes rather than float values.
+     *
+     * @param sweFactory the helper used to create the encoding
+     * @return the binary encoding, already assigned to the data record
+     */
+    private BinaryEncoding createCompressedEncoding(SWEHelper sweFactory) {
+
+        BinaryEncoding binaryEncoding = sweFactory.newBinaryEncoding(ByteOrder.BIG_ENDIAN, ByteEncoding.RAW);
+
+        for (int i = 0; i < dataStruct.getComponentCount(); i++) {
+
+            DataComponent component = dataStruct.getComponent(i);
+
+            if (component instanceof DataArray) {
+
+                BinaryBlock compressedBlock = sweFactory.newBinaryBlock();
+                compressedBlock.setRef("/" + component.getName());
+                compressedBlock.setCompression(RangeScanCodec.COMPRESSION);
+                binaryEncoding.addMemberAsBlock(compressedBlock);
+
+            } else {
+
+                BinaryComponent binaryComponent = sweFactory.newBinaryComponent();
+                binaryComponent.setRef("/" + component.getName());
+
+                if (component instanceof Time) {
+
+                    binaryComponent.setCdmDataType(DataType.DOUBLE);
+
+                } else if (component instanceof Count) {
+
+                    binaryComponent.setCdmDataType(DataType.INT);
+
+                } else {
+
+                    binaryComponent.setCdmDataType(DataType.FLOAT);
+                }
+
+                binaryEncoding.addMemberAsComponent(binaryComponent);
+            }
+        }
+
+        try {
+
+            SWEHelper.assignBinaryEncoding(dataStruct, binaryEncoding);
+
+        } catch (CDMException e) {
+
+            throw new IllegalStateException("Invalid binary encoding configuration", e);
+        }
+
+        return binaryEncoding;
     }
 
     @Override
@@ -231,15 +315,53 @@ public class RpLidarOutput extends RosSensorOutput<RpLidarSensor> {
         // Populate data block
         dataBlock.setDoubleValue(0, System.currentTimeMillis() / 1000.0);
 
+        float[] ranges = laserScan.getRanges();
+        float[] intensities = laserScan.getIntensities();
+        int binSize = compressionConfig != null ? Math.max(1, compressionConfig.angleBinSize) : 1;
+        float angleIncrement = laserScan.getAngleIncrement() * binSize;
+        float angleMax = laserScan.getAngleMax();
+
+        if (compressionConfig != null && !compressionConfig.includeIntensities) {
+
+            intensities = new float[0];
+        }
+
+        int numRanges = ranges.length;
+        int numIntensities = intensities.length;
+
+        if (binSize > 1) {
+
+            numRanges = RangeScanCodec.getBinCount(ranges.length, binSize);
+            numIntensities = RangeScanCodec.getBinCount(intensities.length, binSize);
+
+            // arrays are only handed over to the data block when they are not compressed
+            if (codec == null || binnedRanges.length < numRanges) {
+
+                binnedRanges = new float[numRanges];
+            }
+
+            if (codec == null || binnedIntensities.length < numIntensities) {
+
+                binnedIntensities = new float[numIntensities];
+            }
+
+            RangeScanCodec.binByAngle(ranges, intensities, ranges.length, binSize,
+                    binnedRanges, numIntensities > 0 ? binnedIntensities : null);
+            ranges = binnedRanges;
+            intensities = binnedIntensities;
+
+            angleMax = laserScan.getAngleMin() + (numRanges - 1) * angleIncrement;
+        }
+
         // Min/Max Angles
         dataBlock.setFloatValue(1, laserScan.getAngleMin());
-        dataBlock.setFloatValue(2, laserScan.getAngleMax());
+        dataBlock.setFloatValue(2, angleMax);
 
         // Angle Increment
-        dataBlock.setFloatValue(3, laserScan.getAngleIncrement());
+        dataBlock.setFloatValue(3, angleIncrement);
 
         // Time Increment
-        dataBlock.setFloatValue(4, laserScan.getTimeIncrement());
+        dataBlock.setFloatValue(4, laserScan.getTimeIncrement() * binSize);
 
         // Scan Time
         dataBlock.setFloatValue(5, laserScan.getScanTime());
@@ -249,16 +371,28 @@ public class RpLidarOutput extends RosSensorOutput<RpLidarSensor> {
         dataBlock.setFloatValue(7, laserScan.getRangeMax());
 
         // Range Data Count
-        dataBlock.setIntValue(8, laserScan.getRanges().length);
+        dataBlock.setIntValue(8, numRanges);
 
         // Intensity Data Count
-        dataBlock.setIntValue(9, laserScan.getIntensities().length);
+        dataBlock.setIntValue(9, numIntensities);
+
+        if (codec != null) {
 
-        // Range Data
-        ((DataBlockMixed) dataBlock).getUnderlyingObject()[10].setUnderlyingObject(laserScan.getRanges());
+            // Range and Intensity Data, as encoded blocks
+            ((DataBlockMixed) dataBlock).getUnderlyingObject()[10].setUnderlyingObject(
+                    codec.encode(ranges, numRanges, compressionConfig.rangeResolution));
 
-        // Intensity Data
-        ((DataBlockMixed) dataBlock).getUnderlyingObject()[11].setUnderlyingObject(laserScan.getIntensities());
+            ((DataBlockMixed) dataBlock).getUnderlyingObject()[11].setUnderlyingObject(
+                    codec.encode(intensities, numIntensities, compressionConfig.intensityResolution));
+
+        } else {
+
+            // Range Data
+            ((DataBlockMixed) dataBlock).getUnderlyingObject()[10].setUnderlyingObject(ranges);
+
+            // Intensity Data
+            ((DataBlockMixed) dataBlock).getUnderlyingObject()[11].setUnderlyingObject(intensities);
+        }
 
         ((DataBlockMixed) dataBlock).updateAtomCount();
 
@@ -22,11 +22,11 @@ import org.sensorhub.api.data.DataEvent;
 import org.sensorhub.impl.ros.config.RosMasterConfig;
 import org.sensorhub.impl.ros.nodes.pubsub.RosSubscriberNode;
 import org.sensorhub.impl.ros.output.RosSensorOutput;
+import org.sensorhub.impl.ros.utils.DataBlockByteView;
 import org.sensorhub.impl.ros.utils.RosUtils;
 import org.sensorhub.impl.sensor.spot.SpotSensor;
 import org.sensorhub.impl.sensor.spot.config.SpotFrameResConfig;
 import org.slf4j.LoggerFactory;
-import org.vast.data.DataBlockMixed;
 import org.vast.data.TextEncodingImpl;
 import org.vast.swe.SWEHelper;
 import org.vast.swe.helper.VectorHelper;
@@ -198,10 +198,10 @@ public class DepthOutput extends RosSensorOutput<SpotSensor> {
             dataBlock = latestRecord.renew();
         }
 
-        // Populate data block
+        // Populate data block, depth data is wrapped in place within the message buffer
         dataBlock.setDoubleValue(0, System.currentTimeMillis() / 1000.0);
-        dataBlock.setIntValue(1, resConfig.height * resConfig.height);
-        ((DataBlockMixed) dataBlock).getUnderlyingObject()[2].setUnderlyingObject(image.getData().array());
+        DataBlockByteView depthData = RosUtils.setByteData(dataBlock, 2, image.getData());
+        dataBlock.setIntValue(1, depthData.getAtomCount());
 
         // update the latest record and send event
         latestRecord = dataBlock;
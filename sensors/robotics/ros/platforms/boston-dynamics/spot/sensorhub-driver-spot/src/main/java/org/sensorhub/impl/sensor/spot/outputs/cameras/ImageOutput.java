@@ -26,7 +26,6 @@ import org.sensorhub.impl.sensor.spot.SpotSensor;
 import org.sensorhub.impl.sensor.spot.config.SpotFrameResConfig;
 import org.sensorhub.impl.sensor.videocam.VideoCamHelper;
 import org.slf4j.LoggerFactory;
-import org.vast.data.DataBlockMixed;
 import sensor_msgs.Image;
 
 import java.net.URI;
@@ -166,9 +165,9 @@ public class ImageOutput extends RosVideoOutput<SpotSensor> {
             dataBlock = latestRecord.renew();
         }
 
-        // Populate data block
+        // Populate data block, pixels are wrapped in place within the message buffer
         dataBlock.setDoubleValue(0, System.currentTimeMillis() / 1000.0);
-        ((DataBlockMixed) dataBlock).getUnderlyingObject()[1].setUnderlyingObject(image.getData().array());
+        RosUtils.setByteData(dataBlock, 1, image.getData());
 
         latestRecord = dataBlock;
 
@@ -13,7 +13,6 @@
 package org.sensorhub.impl.sensor.astracam;
 
 import net.opengis.swe.v20.DataBlock;
-import org.jboss.netty.buffer.ChannelBuffer;
 import org.ros.node.DefaultNodeMainExecutor;
 import org.ros.node.NodeConfiguration;
 import org.ros.node.NodeMainExecutor;
@@ -23,18 +22,16 @@ import org.sensorhub.impl.ros.nodes.pubsub.RosSubscriberNode;
 import org.sensorhub.impl.ros.output.RosVideoOutput;
 import org.sensorhub.impl.ros.utils.RosUtils;
 import org.sensorhub.impl.sensor.videocam.VideoCamHelper;
+import org.sensorhub.impl.sensor.videocam.jpeg.JpegEncoderPool;
+import org.sensorhub.impl.sensor.videocam.jpeg.RawPixelFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.vast.data.DataBlockMixed;
 import sensor_msgs.Image;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferByte;
-import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
 
 /**
  * Output specification and provider for image/video output
@@ -52,10 +49,6 @@ public class VideoOutput extends RosVideoOutput<AstraCamSensor> {
 
     private static final Logger logger = LoggerFactory.getLogger(VideoOutput.class);
 
-    private static final int BYTES_PER_PIXEL = 3;
-
-    private static final String STR_JPG_FORMAT_SPECIFIER = "jpg";
-
     private NodeMainExecutor nodeMainExecutor;
 
     private RosSubscriberNode subscriberNode;
@@ -94,42 +87,23 @@ public class VideoOutput extends RosVideoOutput<AstraCamSensor> {
 
         Image image = (Image) object;
 
-        ChannelBuffer channelBuffer = image.getData();
-        byte[] imageData = channelBuffer.array();
-
-        BufferedImage bufferedImage = new BufferedImage(640, 480, BufferedImage.TYPE_3BYTE_BGR);
-
-        byte[] channelData = ((DataBufferByte) bufferedImage.getRaster().getDataBuffer()).getData();
+        RawPixelFormat pixelFormat = getPixelFormat(image.getEncoding());
 
-        for (short y = 0; y < 480; ++y) {
+        if (pixelFormat == null) {
 
-            for (short x = 0; x < 640; ++x) {
+            logger.error("Unsupported image encoding: {}", image.getEncoding());
 
-                int offset = BYTES_PER_PIXEL * (x + y * 640);
-
-                // Kinect reports in BGRA
-                byte r = imageData[offset + 2];
-                byte g = imageData[offset + 1];
-                byte b = imageData[offset];
-
-                // Transpose as RGB
-                channelData[offset] = b;
-                channelData[offset + 1] = g;
-                channelData[offset + 2] = r;
-            }
+            return;
         }
 
-        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-
-        BufferedOutputStream bos = new BufferedOutputStream(byteStream);
+        // Image data is a view of the message buffer, which can be heap or direct
+        ByteBuffer imageData = RosUtils.asByteBuffer(image.getData());
 
         try {
 
-            ImageIO.write(bufferedImage, STR_JPG_FORMAT_SPECIFIER, bos);
-
-            byteStream.flush();
-
-            byte[] newImage = byteStream.toByteArray();
+            // Pixels are read in place, no need to convert them here
+            byte[] newImage = JpegEncoderPool.getDefault().encode(imageData,
+                    image.getWidth(), image.getHeight(), image.getStep(), pixelFormat);
 
             DataBlock dataBlock;
 
@@ -158,6 +132,41 @@ public class VideoOutput extends RosVideoOutput<AstraCamSensor> {
         }
     }
 
+    /**
+     * Maps ROS image encodings to raw pixel formats supported by the JPEG encoder
+     *
+     * @param encoding the encoding reported in the image message
+     * @return the pixel format, or null if the encoding is not supported
+     */
+    private static RawPixelFormat getPixelFormat(String encoding) {
+
+        if (encoding == null) {
+
+            return null;
+        }
+
+        switch (encoding) {
+
+            case "rgb8":
+                return RawPixelFormat.RGB24;
+
+            case "bgr8":
+                return RawPixelFormat.BGR24;
+
+            case "rgba8":
+                return RawPixelFormat.RGBA32;
+
+            case "bgra8":
+                return RawPixelFormat.BGRA32;
+
+            case "mono8":
+                return RawPixelFormat.GRAY8;
+
+            default:
+                return null;
+        }
+    }
+
     @Override
     public void doInit() {
 
@@ -36,7 +36,7 @@ import com.MAVLink.common.msg_attitude;
 public class AttitudeEulerOutput extends MavlinkOutput
 {
     
-    public AttitudeEulerOutput(MavlinkDriver parentSensor)
+    public AttitudeEulerOutput(IMavlinkSystem parentSensor)
     {
         super("platformAtt", parentSensor);
         this.samplingPeriod = 0.1; // default to 10Hz on startup        
@@ -35,7 +35,7 @@ public class BatteryStatusOutput extends MavlinkOutput
 {
     
     
-    public BatteryStatusOutput(MavlinkDriver parentSensor)
+    public BatteryStatusOutput(IMavlinkSystem parentSensor)
     {
         super("batteryStatus", parentSensor);
         this.samplingPeriod = 0.1; // default to 10Hz on startup        
@@ -36,7 +36,7 @@ import com.MAVLink.ardupilotmega.msg_mount_status;
 public class GimbalEulerOutput extends MavlinkOutput
 {
     
-    public GimbalEulerOutput(MavlinkDriver parentSensor)
+    public GimbalEulerOutput(IMavlinkSystem parentSensor)
     {
         super("gimbalAtt", parentSensor);
         this.samplingPeriod = 0.1; // default to 10Hz on startup        
@@ -35,7 +35,7 @@ import com.MAVLink.common.msg_global_position_int;
 public class GlobalPositionOutput extends MavlinkOutput
 {        
     
-    public GlobalPositionOutput(MavlinkDriver parentSensor)
+    public GlobalPositionOutput(IMavlinkSystem parentSensor)
     {
         super("platformLoc", parentSensor);
         this.samplingPeriod = 1.0; // default to 1Hz on startup        
@@ -0,0 +1,107 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+ 
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+ 
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.mavlink;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import org.sensorhub.api.sensor.ISensorDriver;
+import org.sensorhub.impl.sensor.mavlink.MavlinkConfig.CmdTypes;
+import com.MAVLink.MAVLinkPacket;
+import com.MAVLink.common.msg_command_long;
+import com.MAVLink.common.msg_param_set;
+import com.MAVLink.common.msg_set_mode;
+import com.MAVLink.enums.MAV_CMD;
+import com.MAVLink.enums.MAV_MODE_FLAG;
+import com.MAVLink.enums.MAV_PARAM_TYPE;
+
+
+/**
+ * <p>
+ * Common interface for systems whose data is received as MAVLink messages,
+ * either through a dedicated {@link MavlinkDriver} or as a vehicle member of
+ * a {@link MavlinkRouter}.<br/>
+ * Commands are sent through {@link #sendCommand(MAVLinkPacket)} so control
+ * inputs work the same with both kinds of systems.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public interface IMavlinkSystem extends ISensorDriver
+{
+    
+    /**
+     * Convert a time stamp relative to the system boot time to UTC time
+     * @param timeFromBootMs Time since boot in milliseconds
+     * @return Julian time in seconds since 01/01/1970
+     */
+    double getUtcTimeFromBootMillis(long timeFromBootMs);
+    
+    
+    /**
+     * @return MAVLink system ID to use as target of commands
+     */
+    int getTargetSystemId();
+    
+    
+    /**
+     * @return MAVLink commands to expose as control inputs of this system
+     */
+    EnumSet<CmdTypes> getActiveCommands();
+    
+    
+    /**
+     * Send a command message to this system.<br/>
+     * Target system/component fields of the message must be set by the caller.
+     * @param pkt Packed MAVLink message
+     * @throws IOException if the message cannot be sent
+     */
+    void sendCommand(MAVLinkPacket pkt) throws IOException;
+    
+    
+    default void setParam(String name, float value) throws IOException
+    {
+        msg_param_set setParam = new msg_param_set();
+        setParam.target_system = (short)getTargetSystemId();
+        setParam.target_component = 1;
+        setParam.param_type = MAV_PARAM_TYPE.MAV_PARAM_TYPE_REAL32;
+        setParam.setParam_Id(name);
+        setParam.param_value = value;
+        sendCommand(setParam.pack());
+    }
+    
+    
+    default void setMode(int mode) throws IOException
+    {
+        // MAV_CMD_DO_SET_MODE is not implemented by ArduCopter although the docs say it is...
+        msg_set_mode cmd = new msg_set_mode();
+        cmd.target_system = (short)getTargetSystemId();
+        cmd.base_mode = MAV_MODE_FLAG.MAV_MODE_FLAG_CUSTOM_MODE_ENABLED;
+        cmd.custom_mode = mode;
+        sendCommand(cmd.pack());
+    }
+    
+    
+    default void armMotors() throws IOException
+    {
+        msg_command_long cmd = new msg_command_long();
+        cmd.target_system = (short)getTargetSystemId();
+        cmd.target_component = 1;
+        cmd.command = MAV_CMD.MAV_CMD_COMPONENT_ARM_DISARM; // working but need gps fix and other prearm checks
+        cmd.param1 = 1;
+        sendCommand(cmd.pack());
+    }
+    
+}
@@ -41,7 +41,7 @@ import com.MAVLink.enums.MAV_CMD;
 public class MavlinkCameraControl extends MavlinkControlInput
 {
     
-    protected MavlinkCameraControl(MavlinkDriver driver)
+    protected MavlinkCameraControl(IMavlinkSystem driver)
     {
         super("camCommands", driver);
     }
@@ -58,7 +58,7 @@ public class MavlinkCameraControl extends MavlinkControlInput
         AllowedValues numConstraint;
         
         // get commands enabled in config
-        EnumSet<CmdTypes> cmdSet = parentSensor.getConfiguration().activeCommands;
+        EnumSet<CmdTypes> cmdSet = parentSensor.getActiveCommands();
         
         // mount control
         if (cmdSet.contains(CmdTypes.MOUNT_CONTROL))
@@ -113,7 +113,7 @@ public class MavlinkCameraControl extends MavlinkControlInput
             {
                 case MOUNT_CONTROL:
                     cmd = new msg_command_long();
-                    cmd.target_system = 1;
+                    cmd.target_system = (short)parentSensor.getTargetSystemId();
                     cmd.target_component = 1;
                     cmd.command = MAV_CMD.MAV_CMD_DO_MOUNT_CONTROL;
                     cmd.param1 = command.getFloatValue(1); // pitch (deg)
@@ -124,7 +124,7 @@ public class MavlinkCameraControl extends MavlinkControlInput
                     
                 case MOUNT_TARGET:
                     cmd = new msg_command_long();
-                    cmd.target_system = 1;
+                    cmd.target_system = (short)parentSensor.getTargetSystemId();
                     cmd.target_component = 1;
                     cmd.command = MAV_CMD.MAV_CMD_DO_SET_ROI;
                     cmd.param5 = (float)(command.getFloatValue(1)*1e7); // lat (deg)
@@ -19,12 +19,12 @@ import net.opengis.swe.v20.DataComponent;
 import org.sensorhub.impl.sensor.AbstractSensorControl;
 
 
-public abstract class MavlinkControlInput extends AbstractSensorControl<MavlinkDriver>
+public abstract class MavlinkControlInput extends AbstractSensorControl<IMavlinkSystem>
 {
     DataChoice commandData;
 
 
-    public MavlinkControlInput(String name, MavlinkDriver parentSensor)
+    public MavlinkControlInput(String name, IMavlinkSystem parentSensor)
     {
         super(name, parentSensor);
     }
@@ -14,29 +14,25 @@ Copyright (C) 2012-2015 Sensia Software LLC. All Rights Reserved.
 
 package org.sensorhub.impl.sensor.mavlink;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
 import java.util.Timer;
 import org.sensorhub.api.comm.ICommProvider;
 import org.sensorhub.api.common.SensorHubException;
 import org.sensorhub.api.data.IStreamingDataInterface;
 import org.sensorhub.api.sensor.SensorException;
 import org.sensorhub.impl.sensor.AbstractSensorModule;
+import org.sensorhub.impl.sensor.mavlink.MavlinkConfig.CmdTypes;
 import org.sensorhub.impl.sensor.mavlink.MavlinkConfig.MsgTypes;
 import com.MAVLink.MAVLinkPacket;
-import com.MAVLink.Parser;
 import com.MAVLink.Messages.MAVLinkMessage;
 import com.MAVLink.common.msg_command_ack;
-import com.MAVLink.common.msg_command_long;
-import com.MAVLink.common.msg_param_set;
 import com.MAVLink.common.msg_position_target_global_int;
-import com.MAVLink.common.msg_set_mode;
-import com.MAVLink.enums.MAV_CMD;
-import com.MAVLink.enums.MAV_MODE_FLAG;
-import com.MAVLink.enums.MAV_PARAM_TYPE;
 import com.MAVLink.minimal.msg_heartbeat;
 
 
@@ -50,11 +46,12 @@ import com.MAVLink.minimal.msg_heartbeat;
  * @author Alex Robin
  * @since Dec 12, 2015
  */
-public class MavlinkDriver extends AbstractSensorModule<MavlinkConfig>
+public class MavlinkDriver extends AbstractSensorModule<MavlinkConfig> implements IMavlinkSystem
 {
     protected static final String BODY_FRAME = "BODY_FRAME";
     protected static final String GIMBAL_FRAME = "GIMBAL_FRAME";
     protected static final long MAX_MSG_PERIOD = 10000L;
+    protected static final int RX_BUFFER_SIZE = 4096;
     
     ICommProvider<?> commProvider;
     Timer watchDogTimer;
@@ -62,7 +59,8 @@ public class MavlinkDriver extends AbstractSensorModule<MavlinkConfig>
     boolean connected;
     InputStream msgIn;
     OutputStream cmdOut;
-    Parser mavlinkParser;
+    MavlinkFrameParser mavlinkParser;
+    ByteBuffer rxBuffer;
     
     long lastMsgTime = 0;
     
@@ -174,8 +172,10 @@ public class MavlinkDriver extends AbstractSensorModule<MavlinkConfig>
         // connect to data stream
         try
         {
-            mavlinkParser = new Parser();
-            msgIn = new BufferedInputStream(commProvider.getInputStream());
+            // data is read in chunks so no need for a buffered stream
+            mavlinkParser = new MavlinkFrameParser();
+            rxBuffer = ByteBuffer.allocate(RX_BUFFER_SIZE);
+            msgIn = commProvider.getInputStream();
             cmdOut = new BufferedOutputStream(commProvider.getOutputStream());
             
             // send heartbeat
@@ -210,7 +210,7 @@ public class MavlinkDriver extends AbstractSensorModule<MavlinkConfig>
             public void run()
             {
                 while (started)
-                    handleNextMessage();
+                    readNextMessages();
             }
         });
         
@@ -271,48 +271,22 @@ public class MavlinkDriver extends AbstractSensorModule<MavlinkConfig>
     }
     
     
-    protected void setParam(String name, float value) throws IOException
+    @Override
+    public int getTargetSystemId()
     {
-        msg_param_set setParam = new msg_param_set();
-        setParam.target_system = 1;
-        setParam.target_component = 1;
-        setParam.param_type = MAV_PARAM_TYPE.MAV_PARAM_TYPE_REAL32;
-        setParam.setParam_Id(name);
-        setParam.param_value = value;
-        sendCommand(setParam.pack());
+        return 1;
     }
     
     
-    protected void setMode(int mode) throws IOException
-    {
-        // this command typeis not implemented by ArduCopter although the docs say it is...
-        /*msg_command_long cmd = new msg_command_long();
-        cmd.target_system = 1;
-        cmd.target_component = 1;
-        cmd.command = MAV_CMD.MAV_CMD_DO_SET_MODE;
-        cmd.param1 = (float)mode;
-        sendCommand(cmd.pack()); */
-        
-        msg_set_mode cmd = new msg_set_mode();
-        cmd.target_system = 1;
-        cmd.base_mode = MAV_MODE_FLAG.MAV_MODE_FLAG_CUSTOM_MODE_ENABLED;
-        cmd.custom_mode = mode;
-        sendCommand(cmd.pack());
-    }
-    
-    
-    protected void armMotors() throws IOException
+    @Override
+    public EnumSet<CmdTypes> getActiveCommands()
     {
-        msg_command_long cmd = new msg_command_long();
-        cmd.target_system = 1;
-        cmd.target_component = 1;
-        cmd.command = MAV_CMD.MAV_CMD_COMPONENT_ARM_DISARM; // working but need gps fix and other prearm checks
-        cmd.param1 = 1;
-        sendCommand(cmd.pack());
+        return config.activeCommands;
     }
     
     
-    protected void sendCommand(MAVLinkPacket pkt) throws IOException
+    @Override
+    public void sendCommand(MAVLinkPacket pkt) throws IOException
     {
         synchronized (cmdOut)
         {
@@ -351,52 +325,21 @@ public class MavlinkDriver extends AbstractSensorModule<MavlinkConfig>
     }
     
     
-    private void handleNextMessage()
+    private void readNextMessages()
     {
         try
         {
-            // read next message
-            MAVLinkPacket packet = null;
-            while (started && packet == null)
-            {
-                int c = msgIn.read();
-                packet = mavlinkParser.mavlink_parse_char(c);
-            }
-            
-            // if null, it's EOF
-            if (packet == null)
-                return;
-            
-            // time tag message receipt
-            lastMsgTime = System.currentTimeMillis();
-            
-            // send connection event
-            if (!connected)
-            {
-                connected = true;
-                notifyConnectionStatus(true, "MAVLink system");
-            }
+            // read all bytes available and parse complete frames
+            int nBytes = msgIn.read(rxBuffer.array(), rxBuffer.position(), rxBuffer.remaining());
+            if (nBytes < 0)
+                throw new EOFException("End of MAVLink stream");
             
-            // unpack and log message
-            MAVLinkMessage msg = packet.unpack();
-            if (msg instanceof msg_command_ack || msg instanceof msg_position_target_global_int)
-                getLogger().info("Received {}", msg);
-            else
-                getLogger().trace("Received message {} ({}) from {}:{}", msg, msg.getClass().getName(), msg.sysid, msg.compid);
-            
-            // special case for system time message
-            /*if (msg instanceof msg_system_time)
-            {
-                long unixTime = ((msg_system_time)msg).time_unix_usec;
-                log.info("Unix time = " + new DateTimeFormat().formatIso(unixTime/1e6, 0));
-            }*/
+            rxBuffer.position(rxBuffer.position() + nBytes);
+            rxBuffer.flip();
+            mavlinkParser.parse(rxBuffer, this::handleMessage);
             
-            // let each registered output handle this message
-            for (IStreamingDataInterface output: this.getOutputs().values())
-            {
-                MavlinkOutput nmeaOut = (MavlinkOutput)output;
-                nmeaOut.handleMessage(lastMsgTime, msg);
-            }
+            // keep incomplete frame for next read
+            rxBuffer.compact();
         }
         catch (IOException e)
         {
@@ -406,7 +349,46 @@ public class MavlinkDriver extends AbstractSensorModule<MavlinkConfig>
     }
     
     
-    protected double getUtcTimeFromBootMillis(long timeFromBootMs)
+    private void handleMessage(MAVLinkPacket packet)
+    {
+        // time tag message receipt
+        lastMsgTime = System.currentTimeMillis();
+        
+        // send connection event
+        if (!connected)
+        {
+            connected = true;
+            notifyConnectionStatus(true, "MAVLink system");
+        }
+        
+        // unpack and log message
+        MAVLinkMessage msg = packet.unpack();
+        if (msg == null)
+            return;
+        
+        if (msg instanceof msg_command_ack || msg instanceof msg_position_target_global_int)
+            getLogger().info("Received {}", msg);
+        else
+            getLogger().trace("Received message {} ({}) from {}:{}", msg, msg.getClass().getName(), msg.sysid, msg.compid);
+        
+        // special case for system time message
+        /*if (msg instanceof msg_system_time)
+        {
+            long unixTime = ((msg_system_time)msg).time_unix_usec;
+            log.info("Unix time = " + new DateTimeFormat().formatIso(unixTime/1e6, 0));
+        }*/
+        
+        // let each registered output handle this message
+        for (IStreamingDataInterface output: this.getOutputs().values())
+        {
+            MavlinkOutput nmeaOut = (MavlinkOutput)output;
+            nmeaOut.handleMessage(lastMsgTime, msg);
+        }
+    }
+    
+    
+    @Override
+    public double getUtcTimeFromBootMillis(long timeFromBootMs)
     {
         // just use receiving time stamp for now
         // TODO use sender time stamp for better relative timing accuracy
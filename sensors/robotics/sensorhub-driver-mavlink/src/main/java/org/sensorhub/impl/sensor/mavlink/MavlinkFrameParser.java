@@ -0,0 +1,200 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.mavlink;
+
+import java.nio.ByteBuffer;
+import com.MAVLink.MAVLinkPacket;
+import com.MAVLink.ardupilotmega.CRC;
+
+
+/**
+ * <p>
+ * MAVLink v1/v2 parser working on whole frames held in a byte buffer.<br/>
+ * Unlike the generated {@link com.MAVLink.Parser}, this parser doesn't
+ * need to be fed one byte at a time. Each call to {@link #parse} decodes all
+ * complete frames available in the buffer and leaves the buffer position at
+ * the start of the last incomplete frame, so the caller can compact the
+ * buffer and append more data before the next call.
+ * </p><p>
+ * Frames with an invalid checksum or an unknown message ID are skipped and
+ * parsing resumes at the next start byte. Signed MAVLink 2 frames are
+ * accepted but the signature is not verified.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MavlinkFrameParser
+{
+    public static final int MAX_FRAME_SIZE = MAVLinkPacket.MAVLINK2_NONPAYLOAD_LEN + 255 + 13;
+    static final int SIGNATURE_LEN = 13;
+    static final int INCOMPAT_FLAG_SIGNED = 0x01;
+
+
+    public interface FrameHandler
+    {
+        void handleFrame(MAVLinkPacket packet);
+    }
+
+
+    CRC crc = new CRC();
+    long frameCount;
+    long crcErrorCount;
+    long droppedBytes;
+
+
+    /**
+     * Parse all complete frames available between the buffer position and limit
+     * @param buf Buffer containing the received bytes
+     * @param handler Handler called for each valid frame
+     * @return Number of valid frames found
+     */
+    public int parse(ByteBuffer buf, FrameHandler handler)
+    {
+        int pos = buf.position();
+        int limit = buf.limit();
+        int numFrames = 0;
+
+        while (pos < limit)
+        {
+            // look for start byte
+            int stx = buf.get(pos) & 0xFF;
+            boolean isMavlink2 = (stx == MAVLinkPacket.MAVLINK_STX_MAVLINK2);
+            if (!isMavlink2 && stx != MAVLinkPacket.MAVLINK_STX_MAVLINK1)
+            {
+                pos++;
+                droppedBytes++;
+                continue;
+            }
+
+            // wait for more data if header is incomplete
+            int headerLen = isMavlink2 ? MAVLinkPacket.MAVLINK2_HEADER_LEN : MAVLinkPacket.MAVLINK1_HEADER_LEN;
+            if (limit - pos < headerLen)
+                break;
+
+            int payloadLen = buf.get(pos + 1) & 0xFF;
+            int incompatFlags = isMavlink2 ? buf.get(pos + 2) & 0xFF : 0;
+            if ((incompatFlags & ~INCOMPAT_FLAG_SIGNED) != 0)
+            {
+                // unsupported feature, resync on next byte
+                pos++;
+                droppedBytes++;
+                continue;
+            }
+
+            // wait for more data if frame is incomplete
+            int crcPos = pos + headerLen + payloadLen;
+            int frameLen = headerLen + payloadLen + 2;
+            if ((incompatFlags & INCOMPAT_FLAG_SIGNED) != 0)
+                frameLen += SIGNATURE_LEN;
+            if (limit - pos < frameLen)
+                break;
+
+            int msgId = isMavlink2 ?
+                (buf.get(pos + 7) & 0xFF) | (buf.get(pos + 8) & 0xFF) << 8 | (buf.get(pos + 9) & 0xFF) << 16 :
+                (buf.get(pos + 5) & 0xFF);
+
+            // checksum covers everything but the start byte
+            crc.start_checksum();
+            for (int i = pos + 1; i < crcPos; i++)
+                crc.update_checksum(buf.get(i));
+
+            if (!crc.finish_checksum(msgId) ||
+                crc.getLSB() != (buf.get(crcPos) & 0xFF) ||
+                crc.getMSB() != (buf.get(crcPos + 1) & 0xFF))
+            {
+                // start byte was probably part of another frame, resync on next byte
+                pos++;
+                droppedBytes++;
+                crcErrorCount++;
+                continue;
+            }
+
+            handler.handleFrame(decodePacket(buf, pos, isMavlink2, payloadLen, msgId));
+            pos += frameLen;
+            frameCount++;
+            numFrames++;
+        }
+
+        buf.position(pos);
+        return numFrames;
+    }
+
+
+    protected MAVLinkPacket decodePacket(ByteBuffer buf, int pos, boolean isMavlink2, int payloadLen, int msgId)
+    {
+        MAVLinkPacket packet = new MAVLinkPacket(payloadLen, isMavlink2);
+        int payloadPos;
+
+        if (isMavlink2)
+        {
+            packet.incompatFlags = buf.get(pos + 2) & 0xFF;
+            packet.compatFlags = buf.get(pos + 3) & 0xFF;
+            packet.seq = buf.get(pos + 4) & 0xFF;
+            packet.sysid = buf.get(pos + 5) & 0xFF;
+            packet.compid = buf.get(pos + 6) & 0xFF;
+            payloadPos = pos + MAVLinkPacket.MAVLINK2_HEADER_LEN;
+        }
+        else
+        {
+            packet.seq = buf.get(pos + 2) & 0xFF;
+            packet.sysid = buf.get(pos + 3) & 0xFF;
+            packet.compid = buf.get(pos + 4) & 0xFF;
+            payloadPos = pos + MAVLinkPacket.MAVLINK1_HEADER_LEN;
+        }
+
+        packet.msgid = msgId;
+
+        // copy payload in one go
+        // truncated MAVLink 2 payloads are implicitly zero filled
+        ByteBuffer payload = packet.payload.payload;
+        if (buf.hasArray())
+            payload.put(buf.array(), buf.arrayOffset() + payloadPos, payloadLen);
+        else
+        {
+            for (int i = 0; i < payloadLen; i++)
+                payload.put(buf.get(payloadPos + i));
+        }
+
+        return packet;
+    }
+
+
+    /**
+     * @return Number of valid frames decoded
+     */
+    public long getFrameCount()
+    {
+        return frameCount;
+    }
+
+
+    /**
+     * @return Number of frames rejected because of a bad checksum or unknown message ID
+     */
+    public long getCrcErrorCount()
+    {
+        return crcErrorCount;
+    }
+
+
+    /**
+     * @return Number of bytes skipped while looking for a valid frame
+     */
+    public long getDroppedBytes()
+    {
+        return droppedBytes;
+    }
+}
@@ -0,0 +1,186 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.mavlink;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import com.MAVLink.MAVLinkPacket;
+
+
+/**
+ * <p>
+ * Base class for links shared by several MAVLink systems.<br/>
+ * Data is received in chunks (datagrams or stream reads) and all complete
+ * frames are parsed at once with a {@link MavlinkFrameParser}. The link
+ * also keeps traffic statistics so data rates can be monitored per link.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public abstract class MavlinkLink
+{
+    public static final int RX_BUFFER_SIZE = 65536;
+    
+    
+    public interface PacketHandler
+    {
+        /**
+         * Called for each valid frame received on the link
+         * @param link Link the packet was received on
+         * @param source Address of sender, or null if link is point-to-point
+         * @param packet Decoded MAVLink packet
+         */
+        void handlePacket(MavlinkLink link, SocketAddress source, MAVLinkPacket packet);
+    }
+    
+    
+    protected final String name;
+    protected final MavlinkFrameParser parser = new MavlinkFrameParser();
+    protected final ByteBuffer rxBuffer = ByteBuffer.allocate(RX_BUFFER_SIZE);
+    protected final MavlinkFrameParser.FrameHandler frameHandler = this::dispatchFrame;
+    protected PacketHandler packetHandler;
+    protected SocketAddress currentSource;
+    
+    // traffic counters
+    protected volatile long rxBytes;
+    protected volatile long txBytes;
+    protected volatile long txFrames;
+    
+    // values at last call to getRateStats()
+    long lastStatsTime = System.currentTimeMillis();
+    long lastRxBytes, lastRxFrames, lastTxBytes, lastTxFrames;
+    
+    
+    protected MavlinkLink(String name, PacketHandler packetHandler)
+    {
+        this.name = name;
+        this.packetHandler = packetHandler;
+    }
+    
+    
+    /**
+     * Block until data is received, then dispatch all complete frames to
+     * the packet handler
+     * @throws IOException if an error occurs while reading from the link
+     */
+    public abstract void receive() throws IOException;
+    
+    
+    /**
+     * Send an encoded frame
+     * @param frame Encoded MAVLink frame
+     * @param dest Destination address, ignored if link is point-to-point
+     * @throws IOException if an error occurs while writing to the link
+     */
+    public abstract void send(byte[] frame, SocketAddress dest) throws IOException;
+    
+    
+    /**
+     * @return True if messages must be sent to the address of each system separately
+     */
+    public abstract boolean isMultipoint();
+    
+    
+    public abstract void close();
+    
+    
+    /*
+     * Parse frames available in the receive buffer.
+     * On return, buffer is ready to append more data
+     */
+    protected void parseFrames(SocketAddress source)
+    {
+        rxBuffer.flip();
+        rxBytes += rxBuffer.remaining();
+        currentSource = source;
+        parser.parse(rxBuffer, frameHandler);
+        rxBuffer.compact();
+    }
+    
+    
+    protected void dispatchFrame(MAVLinkPacket packet)
+    {
+        packetHandler.handlePacket(this, currentSource, packet);
+    }
+    
+    
+    protected void countSentFrame(int numBytes)
+    {
+        txBytes += numBytes;
+        txFrames++;
+    }
+    
+    
+    public String getName()
+    {
+        return name;
+    }
+    
+    
+    public long getRxBytes()
+    {
+        return rxBytes;
+    }
+    
+    
+    public long getRxFrames()
+    {
+        return parser.getFrameCount();
+    }
+    
+    
+    public long getRxErrors()
+    {
+        return parser.getCrcErrorCount();
+    }
+    
+    
+    public long getTxBytes()
+    {
+        return txBytes;
+    }
+    
+    
+    public long getTxFrames()
+    {
+        return txFrames;
+    }
+    
+    
+    /**
+     * Compute data rates since the previous call
+     * @return Human readable summary of link statistics
+     */
+    public synchronized String getRateStats()
+    {
+        long now = System.currentTimeMillis();
+        double dt = Math.max(now - lastStatsTime, 1) / 1000.;
+        long rxFrames = getRxFrames();
+        
+        String stats = String.format("rx %.1f msg/s %.0f B/s, tx %.1f msg/s %.0f B/s, %d CRC errors, %d bytes dropped",
+            (rxFrames - lastRxFrames) / dt, (rxBytes - lastRxBytes) / dt,
+            (txFrames - lastTxFrames) / dt, (txBytes - lastTxBytes) / dt,
+            parser.getCrcErrorCount(), parser.getDroppedBytes());
+        
+        lastStatsTime = now;
+        lastRxFrames = rxFrames;
+        lastRxBytes = rxBytes;
+        lastTxFrames = txFrames;
+        lastTxBytes = txBytes;
+        return stats;
+    }
+}
@@ -54,7 +54,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
 {
   
     
-    protected MavlinkMissionControl(MavlinkDriver driver, DataChoice commandChoice)
+    protected MavlinkMissionControl(IMavlinkSystem driver, DataChoice commandChoice)
     {
         super("missionPlan", driver);
     }
@@ -70,7 +70,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
         commandData.setUpdatable(true);
         
         // get commands enabled in config
-        EnumSet<CmdTypes> cmdSet = parentSensor.getConfiguration().activeCommands;
+        EnumSet<CmdTypes> cmdSet = parentSensor.getActiveCommands();
         
         // takeoff
         if (cmdSet.contains(CmdTypes.TAKEOFF))
@@ -192,7 +192,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
             {
                 case TAKEOFF:
                     var takeOffCmd = new msg_command_long();
-                    takeOffCmd.target_system = 1;
+                    takeOffCmd.target_system = (short)parentSensor.getTargetSystemId();
                     takeOffCmd.target_component = 1;//MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     takeOffCmd.command = MAV_CMD.MAV_CMD_NAV_TAKEOFF;
                     takeOffCmd.param7 = Math.min(10, command.getFloatValue(1)); // alt (m), max to 10m
@@ -204,7 +204,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
                     
                 case GOTO_LLA:
                     var wptCmd = new msg_mission_item_int();
-                    wptCmd.target_system = 1;
+                    wptCmd.target_system = (short)parentSensor.getTargetSystemId();
                     wptCmd.target_component = 1;
                     wptCmd.seq = 0;
                     wptCmd.current = 2;
@@ -224,7 +224,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
                     
                 case GOTO_ENU:
                     msg_set_position_target_local_ned enucmd = new msg_set_position_target_local_ned();
-                    enucmd.target_system = 1;
+                    enucmd.target_system = (short)parentSensor.getTargetSystemId();
                     enucmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     enucmd.coordinate_frame = MAV_FRAME.MAV_FRAME_LOCAL_OFFSET_NED;
                     enucmd.type_mask = 0x1F8;
@@ -238,7 +238,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
                     
                 case VELOCITY:
                     var velcmd = new msg_set_position_target_local_ned();
-                    velcmd.target_system = 1;
+                    velcmd.target_system = (short)parentSensor.getTargetSystemId();
                     velcmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     velcmd.coordinate_frame = MAV_FRAME.MAV_FRAME_LOCAL_NED;
                     velcmd.type_mask = 0x1C7;
@@ -251,7 +251,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
                     
                 case HEADING:
                     var headingCmd = new msg_command_long();
-                    headingCmd.target_system = 1;
+                    headingCmd.target_system = (short)parentSensor.getTargetSystemId();
                     headingCmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     headingCmd.command = MAV_CMD.MAV_CMD_CONDITION_YAW;
                     headingCmd.param1 = command.getFloatValue(1); // yaw (deg)
@@ -263,7 +263,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
                     
                 case LOITER:
                     var loiterCmd = new msg_command_long();
-                    loiterCmd.target_system = 1;
+                    loiterCmd.target_system = (short)parentSensor.getTargetSystemId();
                     loiterCmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     loiterCmd.command = MAV_CMD.MAV_CMD_NAV_LOITER_UNLIM;
                     loiterCmd.param5 = (float)(command.getDoubleValue(1)*1e7); // lat (deg)
@@ -275,7 +275,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
                     
                 case ORBIT:
                     var orbitCmd = new msg_mission_item_int();
-                    orbitCmd.target_system = 1;
+                    orbitCmd.target_system = (short)parentSensor.getTargetSystemId();
                     orbitCmd.target_component = 1;
                     orbitCmd.seq = 0;
                     orbitCmd.current = 2;
@@ -296,7 +296,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
                     
                 case RTL:
                     var rtlCmd = new msg_command_long();
-                    rtlCmd.target_system = 1;
+                    rtlCmd.target_system = (short)parentSensor.getTargetSystemId();
                     rtlCmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     rtlCmd.command = MAV_CMD.MAV_CMD_NAV_RETURN_TO_LAUNCH;
                     parentSensor.getLogger().info("Sending {} command: {}", cmdType, rtlCmd.command);
@@ -305,7 +305,7 @@ public class MavlinkMissionControl extends MavlinkControlInput
                     
                 case LAND:
                     var landCmd = new msg_command_long();
-                    landCmd.target_system = 1;
+                    landCmd.target_system = (short)parentSensor.getTargetSystemId();
                     landCmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     landCmd.command = MAV_CMD.MAV_CMD_NAV_LAND;
                     landCmd.param5 = (float)(command.getDoubleValue(1)*1e7); // lat (deg)
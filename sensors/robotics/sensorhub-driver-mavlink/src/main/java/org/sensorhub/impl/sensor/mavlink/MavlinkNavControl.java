@@ -46,7 +46,7 @@ public class MavlinkNavControl extends MavlinkControlInput
 {
   
     
-    protected MavlinkNavControl(MavlinkDriver driver)
+    protected MavlinkNavControl(IMavlinkSystem driver)
     {
         super("navCommands", driver);
     }
@@ -62,7 +62,7 @@ public class MavlinkNavControl extends MavlinkControlInput
         commandData.setUpdatable(true);
         
         // get commands enabled in config
-        EnumSet<CmdTypes> cmdSet = parentSensor.getConfiguration().activeCommands;
+        EnumSet<CmdTypes> cmdSet = parentSensor.getActiveCommands();
         
         // takeoff
         if (cmdSet.contains(CmdTypes.TAKEOFF))
@@ -162,7 +162,7 @@ public class MavlinkNavControl extends MavlinkControlInput
             {
                 case TAKEOFF:
                     cmd = new msg_command_long();
-                    cmd.target_system = 1;
+                    cmd.target_system = (short)parentSensor.getTargetSystemId();
                     cmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     cmd.command = MAV_CMD.MAV_CMD_NAV_TAKEOFF;
                     cmd.param7 = Math.min(10, command.getFloatValue(1)); // alt (m), max to 10m
@@ -172,7 +172,7 @@ public class MavlinkNavControl extends MavlinkControlInput
                     
                 case GOTO_LLA:
                     msg_set_position_target_global_int llacmd = new msg_set_position_target_global_int();
-                    llacmd.target_system = 1;
+                    llacmd.target_system = (short)parentSensor.getTargetSystemId();
                     llacmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     llacmd.coordinate_frame = MAV_FRAME.MAV_FRAME_GLOBAL_RELATIVE_ALT_INT;
                     llacmd.type_mask = 0x1F8;
@@ -186,7 +186,7 @@ public class MavlinkNavControl extends MavlinkControlInput
                     
                 case GOTO_ENU:
                     msg_set_position_target_local_ned enucmd = new msg_set_position_target_local_ned();
-                    enucmd.target_system = 1;
+                    enucmd.target_system = (short)parentSensor.getTargetSystemId();
                     enucmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     enucmd.coordinate_frame = MAV_FRAME.MAV_FRAME_LOCAL_OFFSET_NED;
                     enucmd.type_mask = 0x1F8;
@@ -200,7 +200,7 @@ public class MavlinkNavControl extends MavlinkControlInput
                     
                 case VELOCITY:
                     msg_set_position_target_local_ned velcmd = new msg_set_position_target_local_ned();
-                    velcmd.target_system = 1;
+                    velcmd.target_system = (short)parentSensor.getTargetSystemId();
                     velcmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     velcmd.coordinate_frame = MAV_FRAME.MAV_FRAME_LOCAL_NED;
                     velcmd.type_mask = 0x1C7;
@@ -213,7 +213,7 @@ public class MavlinkNavControl extends MavlinkControlInput
                     
                 case HEADING:
                     cmd = new msg_command_long();
-                    cmd.target_system = 1;
+                    cmd.target_system = (short)parentSensor.getTargetSystemId();
                     cmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     cmd.command = MAV_CMD.MAV_CMD_CONDITION_YAW;
                     cmd.param1 = command.getFloatValue(1); // yaw (deg)
@@ -225,7 +225,7 @@ public class MavlinkNavControl extends MavlinkControlInput
                     
                 case LOITER:
                     cmd = new msg_command_long();
-                    cmd.target_system = 1;
+                    cmd.target_system = (short)parentSensor.getTargetSystemId();
                     cmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     cmd.command = MAV_CMD.MAV_CMD_NAV_LOITER_UNLIM;
                     cmd.param5 = (float)(command.getFloatValue(1)*1e7); // lat (deg)
@@ -240,7 +240,7 @@ public class MavlinkNavControl extends MavlinkControlInput
                     parentSensor.setParam("CIRCLE_RADIUS", command.getFloatValue(4)*100f);
                     // send loiter command
                     cmd = new msg_command_long();
-                    cmd.target_system = 1;
+                    cmd.target_system = (short)parentSensor.getTargetSystemId();
                     cmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     cmd.command = MAV_CMD.MAV_CMD_NAV_LOITER_TURNS;
                     cmd.param5 = (float)(command.getFloatValue(1)*1e7); // lat (deg)
@@ -252,7 +252,7 @@ public class MavlinkNavControl extends MavlinkControlInput
                     
                 case RTL:
                     cmd = new msg_command_long();
-                    cmd.target_system = 1;
+                    cmd.target_system = (short)parentSensor.getTargetSystemId();
                     cmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     cmd.command = MAV_CMD.MAV_CMD_NAV_RETURN_TO_LAUNCH;
                     parentSensor.getLogger().info("Sending {} command: {}", cmdType,cmd.command);
@@ -261,7 +261,7 @@ public class MavlinkNavControl extends MavlinkControlInput
                     
                 case LAND:
                     cmd = new msg_command_long();
-                    cmd.target_system = 1;
+                    cmd.target_system = (short)parentSensor.getTargetSystemId();
                     cmd.target_component = MAV_COMPONENT.MAV_COMP_ID_SYSTEM_CONTROL;
                     cmd.command = MAV_CMD.MAV_CMD_NAV_LAND;
                     cmd.param5 = (float)(command.getDoubleValue(1)*1e7); // lat (deg)
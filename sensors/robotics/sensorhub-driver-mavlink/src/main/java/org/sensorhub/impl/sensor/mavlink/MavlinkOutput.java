@@ -30,7 +30,7 @@ import com.MAVLink.Messages.MAVLinkMessage;
  * @author Alex Robin
  * @since Dec 10, 2015
  */
-public abstract class MavlinkOutput extends AbstractSensorOutput<MavlinkDriver>
+public abstract class MavlinkOutput extends AbstractSensorOutput<IMavlinkSystem>
 {
     protected DataComponent dataStruct;
     protected DataEncoding dataEncoding;
@@ -38,7 +38,7 @@ public abstract class MavlinkOutput extends AbstractSensorOutput<MavlinkDriver>
     protected long lastMsgTime = Long.MIN_VALUE;
     
 
-    public MavlinkOutput(String name, MavlinkDriver parentSensor)
+    public MavlinkOutput(String name, IMavlinkSystem parentSensor)
     {
         super(name, parentSensor);
     }
@@ -0,0 +1,329 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.mavlink;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.sensorhub.api.comm.ICommProvider;
+import org.sensorhub.api.common.SensorHubException;
+import org.sensorhub.api.sensor.SensorException;
+import org.sensorhub.api.system.ISystemGroupDriver;
+import org.sensorhub.impl.sensor.AbstractSensorModule;
+import org.vast.sensorML.SMLHelper;
+import org.vast.swe.SWEConstants;
+import com.MAVLink.MAVLinkPacket;
+import com.MAVLink.enums.MAV_AUTOPILOT;
+import com.MAVLink.enums.MAV_TYPE;
+import com.MAVLink.minimal.msg_heartbeat;
+import net.opengis.sensorml.v20.PhysicalSystem;
+
+
+/**
+ * <p>
+ * Router for MAVLink networks where several vehicles share the same links
+ * (e.g. a UDP port or a multipoint telemetry radio).<br/>
+ * Frames are read from each link in bulk and demultiplexed by system ID.
+ * A new member system is created on the fly for each vehicle sending an
+ * autopilot heartbeat, and messages sent to a vehicle are routed back to
+ * the link and address it was last heard from.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MavlinkRouter extends AbstractSensorModule<MavlinkRouterConfig> implements ISystemGroupDriver<MavlinkVehicle>
+{
+    protected static final long HEARTBEAT_PERIOD = 1000L;
+    
+    ICommProvider<?> commProvider;
+    List<MavlinkLink> links = new ArrayList<>();
+    Map<String, MavlinkVehicle> vehicles = new ConcurrentSkipListMap<>();
+    final AtomicReferenceArray<MavlinkVehicle> vehiclesBySysId = new AtomicReferenceArray<>(256);
+    Timer timer;
+    volatile boolean started;
+    int txSeq;
+    
+    
+    @Override
+    protected void doInit() throws SensorHubException
+    {
+        super.doInit();
+        
+        // generate identifiers
+        generateUniqueID("urn:osh:system:mavlink:", config.networkID);
+        generateXmlID("MAVLINK_NETWORK_", config.networkID);
+    }
+    
+    
+    @Override
+    protected void updateSensorDescription()
+    {
+        synchronized (sensorDescLock)
+        {
+            super.updateSensorDescription();
+            
+            new SMLHelper().edit((PhysicalSystem)sensorDescription)
+                .name("MAVLink Vehicle Network")
+                .description("Group of MAVLink vehicles sharing the same communication links")
+                .definition(SWEConstants.DEF_SYSTEM)
+                .build();
+        }
+    }
+
+
+    @Override
+    protected synchronized void doStart() throws SensorHubException
+    {
+        if (started)
+            return;
+        
+        try
+        {
+            if (config.udpPort > 0)
+                links.add(new MavlinkUdpLink(config.udpBindAddress, config.udpPort, this::handlePacket));
+            
+            if (config.commSettings != null)
+            {
+                var moduleReg = getParentHub().getModuleRegistry();
+                commProvider = (ICommProvider<?>)moduleReg.loadSubModule(config.commSettings, true);
+                commProvider.start();
+                links.add(new MavlinkStreamLink("stream", commProvider, this::handlePacket));
+            }
+        }
+        catch (IOException e)
+        {
+            closeLinks();
+            throw new SensorException("Error while opening MAVLink links", e);
+        }
+        
+        if (links.isEmpty())
+            throw new SensorException("No UDP port or communication settings specified");
+        
+        // start one reader thread per link
+        started = true;
+        for (var link: links)
+        {
+            Thread t = new Thread(() -> readLink(link), "MAVLink Router " + link.getName());
+            t.start();
+        }
+        
+        startTimer();
+    }
+    
+    
+    private void readLink(MavlinkLink link)
+    {
+        while (started)
+        {
+            try
+            {
+                link.receive();
+            }
+            catch (IOException e)
+            {
+                if (started)
+                    reportError("Error while reading from MAVLink link " + link.getName(), e);
+                break;
+            }
+        }
+    }
+    
+    
+    private void startTimer()
+    {
+        timer = new Timer("MAVLink Router");
+        timer.schedule(new TimerTask() {
+            long lastStatsTime = System.currentTimeMillis();
+            
+            @Override
+            public void run()
+            {
+                // vehicles stop streaming if they don't receive GCS heartbeats
+                sendHeartbeats();
+                
+                long now = System.currentTimeMillis();
+                if (config.statsPeriod > 0 && now - lastStatsTime >= config.statsPeriod * 1000L)
+                {
+                    for (var link: links)
+                        getLogger().info("Link {}: {}", link.getName(), link.getRateStats());
+                    getLogger().info("{} vehicles on network", vehicles.size());
+                    lastStatsTime = now;
+                }
+            }
+        }, 0L, HEARTBEAT_PERIOD);
+    }
+    
+    
+    private void sendHeartbeats()
+    {
+        var hb = new msg_heartbeat();
+        hb.type = MAV_TYPE.MAV_TYPE_GCS;
+        hb.autopilot = MAV_AUTOPILOT.MAV_AUTOPILOT_INVALID;
+        
+        for (var link: links)
+        {
+            try
+            {
+                if (link.isMultipoint())
+                {
+                    // send to all vehicles last heard on this link
+                    for (var v: vehicles.values())
+                    {
+                        if (v.link == link && v.address != null)
+                            sendPacket(link, v.address, hb.pack());
+                    }
+                }
+                else
+                    sendPacket(link, null, hb.pack());
+            }
+            catch (IOException e)
+            {
+                getLogger().debug("Cannot send heartbeat on link {}", link.getName(), e);
+            }
+        }
+    }
+    
+    
+    protected void handlePacket(MavlinkLink link, SocketAddress source, MAVLinkPacket packet)
+    {
+        var vehicle = vehiclesBySysId.get(packet.sysid);
+        
+        // only create vehicles when receiving an autopilot heartbeat
+        // so GCS and other components don't show up as vehicles
+        if (vehicle == null)
+        {
+            if (packet.msgid != msg_heartbeat.MAVLINK_MSG_ID_HEARTBEAT || packet.sysid == config.systemId)
+                return;
+            
+            var hb = (msg_heartbeat)packet.unpack();
+            if (hb.type == MAV_TYPE.MAV_TYPE_GCS || hb.autopilot == MAV_AUTOPILOT.MAV_AUTOPILOT_INVALID)
+                return;
+            
+            vehicle = addVehicle(packet.sysid);
+            if (vehicle == null)
+                return;
+        }
+        
+        vehicle.handlePacket(link, source, packet);
+    }
+    
+    
+    protected synchronized MavlinkVehicle addVehicle(int sysId)
+    {
+        // check again in case another link added it
+        var vehicle = vehiclesBySysId.get(sysId);
+        if (vehicle != null)
+            return vehicle;
+        
+        try
+        {
+            vehicle = new MavlinkVehicle(this, sysId);
+            vehicle.init();
+        }
+        catch (SensorException e)
+        {
+            getLogger().error("Cannot create vehicle {}", sysId, e);
+            return null;
+        }
+        
+        vehicles.put(vehicle.getUniqueIdentifier(), vehicle);
+        vehiclesBySysId.set(sysId, vehicle);
+        getLogger().info("New MAVLink vehicle detected: system ID {}", sysId);
+        
+        // register new member with hub
+        var uid = vehicle.getUniqueIdentifier();
+        getParentHub().getSystemDriverRegistry().register(vehicle)
+            .exceptionally(e -> {
+                getLogger().error("Error registering vehicle {}", uid, e);
+                return null;
+            });
+        
+        return vehicle;
+    }
+    
+    
+    protected void sendPacket(MavlinkLink link, SocketAddress dest, MAVLinkPacket packet) throws IOException
+    {
+        byte[] frame;
+        synchronized (this)
+        {
+            packet.sysid = config.systemId;
+            packet.compid = config.componentId;
+            packet.seq = txSeq++ & 0xFF;
+            frame = packet.encodePacket();
+        }
+        
+        link.send(frame, dest);
+    }
+    
+    
+    private void closeLinks()
+    {
+        for (var link: links)
+            link.close();
+        links.clear();
+    }
+
+
+    @Override
+    protected synchronized void doStop() throws SensorHubException
+    {
+        started = false;
+        
+        if (timer != null)
+        {
+            timer.cancel();
+            timer = null;
+        }
+        
+        for (var link: links)
+            getLogger().info("Link {}: {}", link.getName(), link.getRateStats());
+        closeLinks();
+        
+        if (commProvider != null)
+        {
+            commProvider.stop();
+            commProvider = null;
+        }
+    }
+
+
+    @Override
+    public void cleanup() throws SensorHubException
+    {
+    }
+    
+    
+    @Override
+    public boolean isConnected()
+    {
+        return started;
+    }
+
+
+    @Override
+    public Map<String, ? extends MavlinkVehicle> getMembers()
+    {
+        return Collections.unmodifiableMap(vehicles);
+    }
+}
@@ -0,0 +1,53 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.mavlink;
+
+import java.util.EnumSet;
+import org.sensorhub.api.comm.CommProviderConfig;
+import org.sensorhub.api.config.DisplayInfo;
+import org.sensorhub.api.sensor.SensorConfig;
+import org.sensorhub.impl.sensor.mavlink.MavlinkConfig.CmdTypes;
+import org.sensorhub.impl.sensor.mavlink.MavlinkConfig.MsgTypes;
+
+
+public class MavlinkRouterConfig extends SensorConfig
+{
+    @DisplayInfo(label="Network ID", desc="ID of the MAVLink network (used to generate unique IDs of vehicles)")
+    public String networkID;
+    
+    @DisplayInfo(label="UDP Port", desc="Local UDP port on which MAVLink datagrams are received from vehicles, or 0 to disable UDP")
+    public int udpPort = 14550;
+    
+    @DisplayInfo(label="UDP Bind Address", desc="Local address to bind the UDP socket to (all interfaces if not set)")
+    public String udpBindAddress;
+    
+    @DisplayInfo(desc="Communication settings of an additional link shared by several vehicles (e.g. telemetry radio)")
+    public CommProviderConfig<?> commSettings;
+    
+    @DisplayInfo(label="GCS System ID", desc="MAVLink system ID used when sending messages to vehicles")
+    public int systemId = 255;
+    
+    @DisplayInfo(label="GCS Component ID", desc="MAVLink component ID used when sending messages to vehicles")
+    public int componentId = 190;
+    
+    @DisplayInfo(desc="MAVLink messages to expose as outputs of each vehicle")
+    public EnumSet<MsgTypes> activeMessages = EnumSet.noneOf(MsgTypes.class);
+    
+    @DisplayInfo(desc="MAVLink commands to expose as control inputs of each vehicle")
+    public EnumSet<CmdTypes> activeCommands = EnumSet.noneOf(CmdTypes.class);
+    
+    @DisplayInfo(label="Stats Period", desc="Period at which link statistics are logged, in seconds (0 to disable)")
+    public int statsPeriod = 60;
+}
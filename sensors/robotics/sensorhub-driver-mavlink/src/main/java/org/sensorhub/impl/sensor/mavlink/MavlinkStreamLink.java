@@ -0,0 +1,85 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.mavlink;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketAddress;
+import org.sensorhub.api.comm.ICommProvider;
+
+
+/**
+ * <p>
+ * MAVLink link over a byte stream provided by a comm provider (e.g. serial
+ * telemetry radio or TCP connection). Several vehicles can share the stream,
+ * for instance when using a multipoint radio network.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MavlinkStreamLink extends MavlinkLink
+{
+    InputStream in;
+    OutputStream out;
+    
+    
+    public MavlinkStreamLink(String name, ICommProvider<?> commProvider, PacketHandler packetHandler) throws IOException
+    {
+        super(name, packetHandler);
+        this.in = commProvider.getInputStream();
+        this.out = commProvider.getOutputStream();
+    }
+
+
+    @Override
+    public void receive() throws IOException
+    {
+        // read whatever is available after the incomplete frame
+        // left from the previous read
+        int nBytes = in.read(rxBuffer.array(), rxBuffer.position(), rxBuffer.remaining());
+        if (nBytes < 0)
+            throw new EOFException("End of MAVLink stream");
+        
+        rxBuffer.position(rxBuffer.position() + nBytes);
+        parseFrames(null);
+    }
+
+
+    @Override
+    public synchronized void send(byte[] frame, SocketAddress dest) throws IOException
+    {
+        out.write(frame);
+        out.flush();
+        countSentFrame(frame.length);
+    }
+
+
+    @Override
+    public boolean isMultipoint()
+    {
+        return false;
+    }
+
+
+    @Override
+    public void close()
+    {
+        try { in.close(); }
+        catch (IOException e) { }
+    }
+}
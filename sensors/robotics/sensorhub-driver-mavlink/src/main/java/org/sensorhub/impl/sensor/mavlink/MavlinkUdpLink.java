@@ -0,0 +1,91 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.mavlink;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+
+/**
+ * <p>
+ * MAVLink link receiving datagrams from any number of vehicles on a local
+ * UDP port. Messages are sent back to the address each vehicle was last
+ * heard from.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MavlinkUdpLink extends MavlinkLink
+{
+    DatagramChannel channel;
+    
+    
+    public MavlinkUdpLink(String bindAddress, int port, PacketHandler packetHandler) throws IOException
+    {
+        super("udp:" + port, packetHandler);
+        
+        var localAddress = bindAddress != null ?
+            new InetSocketAddress(bindAddress, port) :
+            new InetSocketAddress(port);
+        channel = DatagramChannel.open();
+        channel.bind(localAddress);
+    }
+
+
+    @Override
+    public void receive() throws IOException
+    {
+        // each datagram only contains whole frames
+        rxBuffer.clear();
+        SocketAddress source = channel.receive(rxBuffer);
+        parseFrames(source);
+    }
+
+
+    @Override
+    public synchronized void send(byte[] frame, SocketAddress dest) throws IOException
+    {
+        if (dest == null)
+            return;
+        
+        channel.send(ByteBuffer.wrap(frame), dest);
+        countSentFrame(frame.length);
+    }
+
+
+    public InetSocketAddress getLocalAddress() throws IOException
+    {
+        return (InetSocketAddress)channel.getLocalAddress();
+    }
+
+
+    @Override
+    public boolean isMultipoint()
+    {
+        return true;
+    }
+
+
+    @Override
+    public void close()
+    {
+        try { channel.close(); }
+        catch (IOException e) { }
+    }
+}
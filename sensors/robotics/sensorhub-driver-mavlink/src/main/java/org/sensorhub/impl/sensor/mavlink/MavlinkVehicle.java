@@ -0,0 +1,182 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.mavlink;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.EnumSet;
+import org.sensorhub.api.data.IStreamingDataInterface;
+import org.sensorhub.api.sensor.SensorException;
+import org.sensorhub.impl.sensor.AbstractSensorDriver;
+import org.sensorhub.impl.sensor.mavlink.MavlinkConfig.CmdTypes;
+import org.sensorhub.impl.sensor.mavlink.MavlinkConfig.MsgTypes;
+import org.vast.sensorML.SMLHelper;
+import org.vast.swe.SWEConstants;
+import com.MAVLink.MAVLinkPacket;
+import com.MAVLink.Messages.MAVLinkMessage;
+
+
+/**
+ * <p>
+ * Vehicle discovered by a {@link MavlinkRouter}.<br/>
+ * Each vehicle corresponds to one MAVLink system ID and receives messages
+ * from all components of that system, on whatever link the system was last
+ * heard from. Commands received on the vehicle control inputs are routed
+ * back to the vehicle on that same link.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class MavlinkVehicle extends AbstractSensorDriver implements IMavlinkSystem
+{
+    final MavlinkRouter router;
+    final int systemId;
+    volatile MavlinkLink link;
+    volatile SocketAddress address;
+    volatile long lastMsgTime;
+    
+    
+    protected MavlinkVehicle(MavlinkRouter router, int systemId)
+    {
+        super(router, router.getUniqueIdentifier() + ":" + systemId, "vehicle" + systemId);
+        this.router = router;
+        this.systemId = systemId;
+        
+        var sml = new SMLHelper();
+        this.smlDescription = sml.createPhysicalSystem()
+            .id(getShortID())
+            .uniqueID(getUniqueIdentifier())
+            .name("MAVLink Vehicle " + systemId)
+            .definition(SWEConstants.DEF_SYSTEM)
+            .build();
+    }
+    
+    
+    protected void init() throws SensorException
+    {
+        var activeMessages = router.getConfiguration().activeMessages;
+        
+        if (activeMessages.contains(MsgTypes.GLOBAL_POSITION))
+            addMavlinkOutput(new GlobalPositionOutput(this), false);
+        
+        if (activeMessages.contains(MsgTypes.ATTITUDE))
+            addMavlinkOutput(new AttitudeEulerOutput(this), false);
+        
+        if (activeMessages.contains(MsgTypes.ATTITUDE_QUATERNION))
+            addMavlinkOutput(new AttitudeQuatOutput(this), false);
+        
+        if (activeMessages.contains(MsgTypes.GIMBAL_REPORT))
+            addMavlinkOutput(new GimbalEulerOutput(this), false);
+        
+        if (activeMessages.contains(MsgTypes.BATTERY_STATUS))
+            addMavlinkOutput(new BatteryStatusOutput(this), true);
+        
+        // create control inputs depending on selected commands
+        // only add the control input objects if some commands were enabled
+        var navControl = new MavlinkNavControl(this);
+        navControl.init();
+        if (navControl.commandData.getNumItems() > 0)
+            addControlInput(navControl);
+        
+        var camControl = new MavlinkCameraControl(this);
+        camControl.init();
+        if (camControl.commandData.getNumItems() > 0)
+            addControlInput(camControl);
+    }
+    
+    
+    private void addMavlinkOutput(MavlinkOutput output, boolean isStatus) throws SensorException
+    {
+        output.init();
+        addOutput(output, isStatus);
+    }
+    
+    
+    protected void handlePacket(MavlinkLink link, SocketAddress source, MAVLinkPacket packet)
+    {
+        // remember where to send commands
+        this.link = link;
+        if (source != null)
+            this.address = source;
+        lastMsgTime = System.currentTimeMillis();
+        
+        MAVLinkMessage msg = packet.unpack();
+        if (msg == null)
+            return;
+        
+        for (IStreamingDataInterface output: getOutputs().values())
+            ((MavlinkOutput)output).handleMessage(lastMsgTime, msg);
+    }
+    
+    
+    /**
+     * Send a message to this vehicle, on the link it was last heard from.<br/>
+     * Target system/component fields of the message must be set by the caller.
+     * @param packet Packed MAVLink message
+     * @throws IOException if the message cannot be sent
+     */
+    @Override
+    public void sendCommand(MAVLinkPacket packet) throws IOException
+    {
+        var link = this.link;
+        if (link == null)
+            throw new IOException("No link to vehicle " + systemId);
+        
+        router.sendPacket(link, address, packet);
+    }
+    
+    
+    @Override
+    public double getUtcTimeFromBootMillis(long timeFromBootMs)
+    {
+        // just use receiving time stamp like the single vehicle driver
+        return ((double)lastMsgTime) / 1000.;
+    }
+    
+    
+    public int getSystemId()
+    {
+        return systemId;
+    }
+    
+    
+    @Override
+    public int getTargetSystemId()
+    {
+        return systemId;
+    }
+    
+    
+    @Override
+    public EnumSet<CmdTypes> getActiveCommands()
+    {
+        return router.getConfiguration().activeCommands;
+    }
+    
+    
+    @Override
+    public String getName()
+    {
+        return smlDescription.getName();
+    }
+
+
+    @Override
+    public boolean isConnected()
+    {
+        return System.currentTimeMillis() - lastMsgTime < MavlinkDriver.MAX_MSG_PERIOD;
+    }
+}
@@ -0,0 +1,225 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.test.sensor.mavlink;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayOutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.sensorhub.impl.sensor.mavlink.MavlinkFrameParser;
+import org.sensorhub.impl.sensor.mavlink.MavlinkUdpLink;
+import com.MAVLink.MAVLinkPacket;
+import com.MAVLink.Parser;
+import com.MAVLink.common.msg_attitude;
+import com.MAVLink.common.msg_global_position_int;
+import com.MAVLink.minimal.msg_heartbeat;
+
+
+public class TestMavlinkFrameParser
+{
+
+    static byte[] encode(int sysId, int seq, boolean mavlink2)
+    {
+        MAVLinkPacket pkt;
+        if (seq % 2 == 0)
+        {
+            var msg = new msg_global_position_int();
+            msg.lat = 434000000 + seq;
+            msg.lon = 15000000;
+            msg.alt = 100000;
+            pkt = msg.pack();
+        }
+        else
+        {
+            var msg = new msg_attitude();
+            msg.roll = 0.1f * seq;
+            pkt = msg.pack();
+        }
+
+        pkt.isMavlink2 = mavlink2;
+        pkt.sysid = sysId;
+        pkt.compid = 1;
+        pkt.seq = seq & 0xFF;
+        return pkt.encodePacket();
+    }
+
+
+    static byte[] buildStream(int numFrames, boolean withGarbage) throws Exception
+    {
+        var os = new ByteArrayOutputStream();
+        for (int i = 0; i < numFrames; i++)
+        {
+            os.write(encode(1 + i % 20, i, i % 3 != 0));
+
+            // add noise, including fake start bytes
+            if (withGarbage && i % 7 == 0)
+                os.write(new byte[] {0x12, (byte)0xFE, 0x05, (byte)0xFD, 0x33});
+        }
+        return os.toByteArray();
+    }
+
+
+    @Test
+    public void testParseInChunks() throws Exception
+    {
+        int numFrames = 1000;
+        byte[] stream = buildStream(numFrames, true);
+
+        // feed stream in chunks of various sizes, like a serial port would
+        var parser = new MavlinkFrameParser();
+        var buf = ByteBuffer.allocate(4096);
+        List<MAVLinkPacket> packets = new ArrayList<>();
+        int pos = 0, chunkSize = 1;
+        while (pos < stream.length)
+        {
+            int len = Math.min(Math.min(chunkSize, buf.remaining()), stream.length - pos);
+            buf.put(stream, pos, len);
+            pos += len;
+            chunkSize = chunkSize * 7 % 601 + 1;
+
+            buf.flip();
+            parser.parse(buf, packets::add);
+            buf.compact();
+        }
+
+        assertEquals(numFrames, packets.size());
+        assertEquals(numFrames, parser.getFrameCount());
+        assertTrue(parser.getDroppedBytes() > 0);
+
+        for (int i = 0; i < numFrames; i++)
+        {
+            var pkt = packets.get(i);
+            assertEquals(1 + i % 20, pkt.sysid);
+            assertEquals(i & 0xFF, pkt.seq);
+
+            var msg = pkt.unpack();
+            if (i % 2 == 0)
+                assertEquals(434000000 + i, ((msg_global_position_int)msg).lat);
+            else
+                assertEquals(0.1f * i, ((msg_attitude)msg).roll, 0.0f);
+        }
+    }
+
+
+    @Test
+    public void testSameResultsAsBytewiseParser() throws Exception
+    {
+        // the bytewise parser doesn't resync after noise so use a clean stream
+        byte[] stream = buildStream(500, false);
+
+        var refParser = new Parser();
+        List<MAVLinkPacket> expected = new ArrayList<>();
+        for (byte b: stream)
+        {
+            var pkt = refParser.mavlink_parse_char(b);
+            if (pkt != null)
+                expected.add(pkt);
+        }
+
+        List<MAVLinkPacket> packets = new ArrayList<>();
+        new MavlinkFrameParser().parse(ByteBuffer.wrap(stream), packets::add);
+
+        assertEquals(500, expected.size());
+        assertEquals(expected.size(), packets.size());
+        for (int i = 0; i < packets.size(); i++)
+        {
+            assertEquals(expected.get(i).msgid, packets.get(i).msgid);
+            assertEquals(expected.get(i).sysid, packets.get(i).sysid);
+            assertEquals(expected.get(i).unpack().toString(), packets.get(i).unpack().toString());
+        }
+    }
+
+
+    @Test
+    public void testCorruptedFrame() throws Exception
+    {
+        byte[] frame1 = encode(1, 0, true);
+        byte[] frame2 = encode(2, 1, false);
+        frame1[12] ^= 0x40; // corrupt payload
+
+        var buf = ByteBuffer.allocate(frame1.length + frame2.length);
+        buf.put(frame1).put(frame2).flip();
+
+        var parser = new MavlinkFrameParser();
+        List<MAVLinkPacket> packets = new ArrayList<>();
+        parser.parse(buf, packets::add);
+
+        assertEquals(1, packets.size());
+        assertEquals(2, packets.get(0).sysid);
+        assertEquals(1, parser.getCrcErrorCount());
+        assertFalse(buf.hasRemaining());
+    }
+
+
+    @Test
+    public void testUdpDemux() throws Exception
+    {
+        List<SocketAddress> sources = new ArrayList<>();
+        List<MAVLinkPacket> packets = new ArrayList<>();
+
+        var link = new MavlinkUdpLink("127.0.0.1", 0, (l, src, pkt) -> {
+            sources.add(src);
+            packets.add(pkt);
+        });
+
+        try (var vehicle1 = new DatagramSocket(); var vehicle2 = new DatagramSocket())
+        {
+            var dest = link.getLocalAddress();
+            var lo = InetAddress.getLoopbackAddress();
+
+            // datagram with several frames
+            var os = new ByteArrayOutputStream();
+            var hb = new msg_heartbeat();
+            hb.sysid = 1;
+            os.write(hb.pack().encodePacket());
+            os.write(encode(1, 0, true));
+            byte[] data1 = os.toByteArray();
+            vehicle1.send(new DatagramPacket(data1, data1.length, lo, dest.getPort()));
+
+            byte[] data2 = encode(2, 1, true);
+            vehicle2.send(new DatagramPacket(data2, data2.length, lo, dest.getPort()));
+
+            link.receive();
+            link.receive();
+
+            assertEquals(3, packets.size());
+            assertEquals(sources.get(0), sources.get(1));
+            assertEquals(vehicle1.getLocalPort(), ((InetSocketAddress)sources.get(0)).getPort());
+            assertEquals(vehicle2.getLocalPort(), ((InetSocketAddress)sources.get(2)).getPort());
+            assertEquals(2, packets.get(2).sysid);
+            assertEquals(3, link.getRxFrames());
+            assertEquals(data1.length + data2.length, link.getRxBytes());
+
+            // send back to vehicle
+            byte[] cmd = encode(255, 0, true);
+            link.send(cmd, sources.get(2));
+            var reply = new DatagramPacket(new byte[512], 512);
+            vehicle2.receive(reply);
+            assertEquals(cmd.length, reply.getLength());
+            assertEquals(1, link.getTxFrames());
+        }
+        finally
+        {
+            link.close();
+        }
+    }
+}
@@ -13,21 +13,17 @@ Copyright (C) 2019 Botts Innovative Research, Inc. All Rights Reserved.
 
 package org.sensorhub.impl.sensor.kinect;
 
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferByte;
-import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
-import javax.imageio.ImageIO;
-
 import org.openkinect.freenect.Device;
 import org.openkinect.freenect.FrameMode;
 import org.openkinect.freenect.VideoHandler;
 import org.sensorhub.api.data.DataEvent;
 import org.sensorhub.api.sensor.SensorException;
 import org.sensorhub.impl.sensor.videocam.VideoCamHelper;
+import org.sensorhub.impl.sensor.videocam.jpeg.JpegEncoderPool;
+import org.sensorhub.impl.sensor.videocam.jpeg.RawPixelFormat;
 import org.vast.data.DataBlockMixed;
 
 import net.opengis.swe.v20.DataBlock;
@@ -36,8 +32,6 @@ class KinectVideoOutputMJPEG extends KinectVideoOutput {
 
 	private static final String STR_NAME = new String("rgbCamera_MJPEG");
 
-	private static final String STR_JPG_FORMAT_SPECIFIER = new String("jpg");
-	
 	private static final String ERR_STR = new String("Error while initializing MJPEG video output");
 
 	public KinectVideoOutputMJPEG(KinectSensor parentSensor, Device kinectDevice) {
@@ -73,24 +67,14 @@ class KinectVideoOutputMJPEG extends KinectVideoOutput {
 
 				DataBlock dataBlock = videoStream.getElementType().createDataBlock();
 
-				BufferedImage bufferedImage = new BufferedImage(getParentProducer().getConfiguration().frameWidth,
-						getParentProducer().getConfiguration().frameHeight, BufferedImage.TYPE_3BYTE_BGR);
-
-				byte[] channelData = ((DataBufferByte) bufferedImage.getRaster().getDataBuffer()).getData();
-				
-				getChannelData(frame, channelData);
-
-				ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+				int width = getParentProducer().getConfiguration().frameWidth;
 
-				BufferedOutputStream bos = new BufferedOutputStream(byteStream);
+				int height = getParentProducer().getConfiguration().frameHeight;
 
 				try {
-					
-					ImageIO.write(bufferedImage, STR_JPG_FORMAT_SPECIFIER, bos);
-
-					byteStream.flush();
 
-					byte[] newImage = byteStream.toByteArray();
+					// frame is read in place, no need to convert pixels here
+					byte[] newImage = JpegEncoderPool.getDefault().encode(frame, width, height, width * 3, RawPixelFormat.RGB24);
 
 					double samplingTime = System.currentTimeMillis() / MS_PER_S;
 					
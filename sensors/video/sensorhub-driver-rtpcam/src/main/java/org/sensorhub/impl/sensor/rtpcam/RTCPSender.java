@@ -19,6 +19,8 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Random;
 import java.util.Timer;
 import java.util.TimerTask;
 import org.slf4j.Logger;
@@ -27,7 +29,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * <p>
- * RTCP Sender
+ * RTCP Sender.<br/>
+ * Sends periodic receiver reports computed from the reception statistics,
+ * and the generic NACK and picture loss indication feedback messages
+ * defined in RFC 4585 on request of the RTP receiver.
+ * Feedback messages are sent as compound packets starting with a receiver
+ * report.
  * </p>
  *
  * @author Alex Robin
@@ -36,28 +43,30 @@ import org.slf4j.LoggerFactory;
 public class RTCPSender extends TimerTask
 {
     static final Logger log = LoggerFactory.getLogger(RTCPSender.class);
+    static final int RTPFB_PAYLOAD_TYPE = 205;
+    static final int PSFB_PAYLOAD_TYPE = 206;
+    static final int NACK_FMT = 1;
+    static final int PLI_FMT = 1;
+    static final int MAX_CUM_LOST = 0x7FFFFF;
+    
     String remoteRtcpHost;
     InetAddress remoteIp;
     int localRtcpPort;
+    int remoteRtcpPort;
     int reportingPeriod;
     DatagramSocket rtcpSocket;
     Timer timer;
     RTSPClient rtspClient;
     long lastRtspReq = 0;
-    
-    // stats variables
-    int highSeqNb;
-    int numPktsExpected;    // number of RTP packets expected since the last RTCP packet
-    int numPktsLost;        // number of RTP packets lost since the last RTCP packet
-    int lastHighSeqNb;      // last highest Seq number received
-    int lastCumLost;        // last cumulative packets lost
-    float lastFractionLost; // last fraction lost
+    int ssrc = new Random().nextInt();
+    volatile RTPReceptionStats stats;
     
     
     public RTCPSender(String remoteHost, int localRtcpPort, int remoteRtcpPort, int reportingPeriod, RTSPClient rtspClient)
     {
         this.remoteRtcpHost = remoteHost;
         this.localRtcpPort = localRtcpPort;
+        this.remoteRtcpPort = remoteRtcpPort;
         this.reportingPeriod = reportingPeriod;
         this.rtspClient = rtspClient;
     }
@@ -104,23 +113,32 @@ public class RTCPSender extends TimerTask
     }
     
     
-    public void setStats(int seqNb)
+    /**
+     * Set the statistics used to fill receiver reports
+     * @param stats
+     */
+    public void setReceptionStats(RTPReceptionStats stats)
+    {
+        this.stats = stats;
+    }
+    
+    
+    protected RTCPpacket createReport(boolean newInterval)
     {
-        this.highSeqNb = seqNb;
+        RTPReceptionStats stats = this.stats;
+        if (stats == null || !stats.hasSource())
+            return new RTCPpacket(ssrc);
+        
+        int fractionLost = newInterval ? stats.nextFractionLost() : stats.getLastFractionLost();
+        long cumLost = Math.max(-MAX_CUM_LOST - 1, Math.min(MAX_CUM_LOST, stats.getCumulativeLost()));
+        return new RTCPpacket(ssrc, stats.getSsrc(), fractionLost, (int)cumLost,
+            (int)stats.getExtendedHighestSeqNum(), stats.getJitter());
     }
     
     
     protected void sendReport()
     {
-        // compute stats for this period
-        //numPktsExpected = statHighSeqNum - lastHighSeqNb;
-        //numPktsLost = statCumLost - lastCumLost;
-        //lastFractionLost = randomGenerator.nextInt(10)/10.0f;
-        //lastHighSeqNb = highSeqNb;
-        //lastFractionLost = numPktsExpected == 0 ? 0f : (float)numPktsLost / numPktsExpected;
-        //lastCumLost = statCumLost;
-
-        RTCPpacket rtcp_packet = new RTCPpacket(0, 0, highSeqNb);//lastFractionLost, statCumLost, highSeqNb);
+        RTCPpacket rtcp_packet = createReport(true);
         int packetLength = rtcp_packet.getLength();
         byte[] packetBits = new byte[packetLength];
         rtcp_packet.getpacket(packetBits);
@@ -128,9 +146,8 @@ public class RTCPSender extends TimerTask
         try
         {
             // send RTCP report packet
-            DatagramPacket dp = new DatagramPacket(packetBits, packetLength, remoteIp, localRtcpPort);
-            rtcpSocket.send(dp);
-            log.trace("Sent RTCP report at seq number {}", highSeqNb);
+            send(packetBits, packetLength);
+            log.trace("Sent RTCP report: {}", rtcp_packet);
         }
         catch (IOException e)
         {
@@ -141,7 +158,7 @@ public class RTCPSender extends TimerTask
         {
             // also send a request to keep RTSP connection alive
             long now = System.currentTimeMillis();
-            if (now - lastRtspReq > 10000)
+            if (rtspClient != null && now - lastRtspReq > 10000)
             {
                 //rtspClient.sendGetParameter();
                 rtspClient.sendOptions();
@@ -153,4 +170,91 @@ public class RTCPSender extends TimerTask
             log.trace("Error while sending RTSP keep-alive request", e);
         }
     }
+    
+    
+    /**
+     * Request retransmission of lost packets with a generic NACK message
+     * @param mediaSsrc SSRC of the RTP source
+     * @param firstSeqNum sequence number of first lost packet
+     * @param count number of consecutive lost packets
+     */
+    public void sendNack(int mediaSsrc, long firstSeqNum, int count)
+    {
+        // each FCI entry covers one packet ID + a bitmask of the 16 following ones
+        int numFci = (count + 16) / 17;
+        ByteBuffer buf = startCompoundPacket(12 + 4 * numFci);
+        writeFeedbackHeader(buf, NACK_FMT, RTPFB_PAYLOAD_TYPE, 2 + numFci, mediaSsrc);
+        
+        long endSeqNum = firstSeqNum + count;
+        for (long seqNum = firstSeqNum; seqNum < endSeqNum; seqNum += 17)
+        {
+            int blp = 0;
+            for (int i = 1; i <= 16 && seqNum + i < endSeqNum; i++)
+                blp |= 1 << (i - 1);
+            buf.putShort((short)seqNum);
+            buf.putShort((short)blp);
+        }
+        
+        try
+        {
+            send(buf.array(), buf.position());
+            log.trace("Sent RTCP NACK for packets {} to {}", firstSeqNum & 0xFFFF, (endSeqNum - 1) & 0xFFFF);
+        }
+        catch (IOException e)
+        {
+            log.error("Error while sending RTCP NACK", e);
+        }
+    }
+    
+    
+    /**
+     * Request a new key frame with a picture loss indication message
+     * @param mediaSsrc SSRC of the RTP source
+     */
+    public void sendPictureLossIndication(int mediaSsrc)
+    {
+        ByteBuffer buf = startCompoundPacket(12);
+        writeFeedbackHeader(buf, PLI_FMT, PSFB_PAYLOAD_TYPE, 2, mediaSsrc);
+        
+        try
+        {
+            send(buf.array(), buf.position());
+            log.trace("Sent RTCP PLI");
+        }
+        catch (IOException e)
+        {
+            log.error("Error while sending RTCP PLI", e);
+        }
+    }
+    
+    
+    protected ByteBuffer startCompoundPacket(int feedbackLength)
+    {
+        RTCPpacket rr = createReport(false);
+        ByteBuffer buf = ByteBuffer.allocate(rr.getLength() + feedbackLength);
+        rr.getpacket(buf.array());
+        buf.position(rr.getLength());
+        return buf;
+    }
+    
+    
+    protected void writeFeedbackHeader(ByteBuffer buf, int fmt, int payloadType, int length, int mediaSsrc)
+    {
+        buf.put((byte)(2 << 6 | fmt));
+        buf.put((byte)payloadType);
+        buf.putShort((short)length);
+        buf.putInt(ssrc);
+        buf.putInt(mediaSsrc);
+    }
+    
+    
+    protected void send(byte[] packetBits, int packetLength) throws IOException
+    {
+        DatagramSocket rtcpSocket = this.rtcpSocket;
+        if (rtcpSocket == null)
+            return;
+        
+        int port = remoteRtcpPort > 0 ? remoteRtcpPort : localRtcpPort;
+        rtcpSocket.send(new DatagramPacket(packetBits, packetLength, remoteIp, port));
+    }
 }
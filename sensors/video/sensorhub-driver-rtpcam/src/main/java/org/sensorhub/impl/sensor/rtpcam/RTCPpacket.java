@@ -7,9 +7,9 @@ at http://mozilla.org/MPL/2.0/.
 Software distributed under the License is distributed on an "AS IS" basis,
 WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
 for the specific language governing rights and limitations under the License.
- 
+
 Copyright (C) 2012-2016 Sensia Software LLC. All Rights Reserved.
- 
+
 ******************************* END LICENSE BLOCK ***************************/
 
 package org.sensorhub.impl.sensor.rtpcam;
@@ -26,9 +26,9 @@ import java.nio.ByteBuffer;
 //        +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
 //        |                     SSRC of packet sender                     |
 //        +=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+=+
-// report |                           fraction lost                       |
+// report |                 SSRC_1 (SSRC of first source)                 |
 // block  +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
-//   1    |              cumulative number of packets lost                |
+//   1    | fraction lost |       cumulative number of packets lost       |
 //        +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
 //        |           extended highest sequence number received           |
 //        +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -42,7 +42,7 @@ import java.nio.ByteBuffer;
 
 /**
  * <p>
- * Implementation of an RTCP packet
+ * Implementation of an RTCP receiver report packet (RFC 3550)
  * </p>
  *
  * @author Alex Robin
@@ -52,78 +52,107 @@ class RTCPpacket
 {
     final static int HEADER_SIZE = 8;
     final static int BODY_SIZE = 24;
+    final static int RR_PAYLOAD_TYPE = 201;
+
+    public int version;         // Version number 2
+    public int padding;         // Padding of packet
+    public int rcount;          // Reception report count, 0 or 1 for one source
+    public int payloadType;     // 201 for Receiver Report
+    public int length;          // Length in 32-bit words minus one
+    public int ssrc;            // Ssrc of sender
+    public int sourceSsrc;      // Ssrc of the RTP source the report is about
+    public int fractionLost;    // The fraction of RTP data packets from source lost since the previous RR packet was sent, in 1/256
+    public int cumLost;         // The total number of RTP data packets from source that have been lost since the beginning of reception.
+    public int highSeqNb;       // Extended highest sequence number received
+    public int jitter;          // Interarrival jitter in timestamp units
+    public int LSR;             // Not used
+    public int DLSR;            // Not used
+
+    public byte[] header;   //Bitstream of header
+    public byte[] body;     //Bitstream of the body
+
+
+    // constructor of empty report, used before any RTP packet is received
+    public RTCPpacket(int ssrc)
+    {
+        this.ssrc = ssrc;
+        this.rcount = 0;
+        this.body = new byte[0];
+        writeHeader();
+    }
 
-	public int version;			// Version number 2
-    public int padding;			// Padding of packet
-    public int rcount; 			// Reception report count = 1 for one receiver
-    public int payloadType;		// 201 for Receiver Report
-    public int length;			// 1 source is always 32 bytes: 8 header, 24 body
-    public int ssrc;			// Ssrc of sender
-    public float fractionLost;	// The fraction of RTP data packets from sender lost since the previous RR packet was sent
-    public int cumLost;			// The total number of RTP data packets from sender that have been lost since the beginning of reception.
-    public int highSeqNb;		// Highest sequence number received
-    public int jitter;			// Not used
-    public int LSR;				// Not used
-    public int DLSR;			// Not used
-
-	public byte[] header;	//Bitstream of header
-	public byte[] body;		//Bitstream of the body
-	
 
     // constructor from field values
-    public RTCPpacket(float fractionLost, int cumLost, int highSeqNb)
+    public RTCPpacket(int ssrc, int sourceSsrc, int fractionLost, int cumLost, int highSeqNb, int jitter)
+    {
+        this.ssrc = ssrc;
+        this.rcount = 1;
+        this.sourceSsrc = sourceSsrc;
+        this.fractionLost = fractionLost;
+        this.cumLost = cumLost;
+        this.highSeqNb = highSeqNb;
+        this.jitter = jitter;
+
+        body = new byte[BODY_SIZE];
+        ByteBuffer bb = ByteBuffer.wrap(body);
+        bb.putInt(sourceSsrc);
+        bb.putInt((fractionLost & 0xFF) << 24 | (cumLost & 0xFFFFFF));
+        bb.putInt(highSeqNb);
+        bb.putInt(jitter);
+        bb.putInt(LSR);
+        bb.putInt(DLSR);
+        writeHeader();
+    }
+
+
+    private void writeHeader()
     {
-    	version = 2;
-    	padding = 0;
-    	rcount = 1;
-    	payloadType = 201;
-    	length = 32;
-    	//Other fields not used
-
-    	this.fractionLost = fractionLost;
-    	this.cumLost = cumLost;
-    	this.highSeqNb = highSeqNb;
-
-    	//Construct the bitstreams
-    	header = new byte[HEADER_SIZE];
-    	body = new byte[BODY_SIZE];
-
-   		header[0] = (byte)(version << 6 | padding << 5 | rcount);
+        version = 2;
+        padding = 0;
+        payloadType = RR_PAYLOAD_TYPE;
+        length = (HEADER_SIZE + body.length) / 4 - 1;
+
+        header = new byte[HEADER_SIZE];
+        header[0] = (byte)(version << 6 | padding << 5 | rcount);
         header[1] = (byte)(payloadType & 0xFF);
         header[2] = (byte)(length >> 8);
-        header[3] = (byte)(length & 0xFF); 
+        header[3] = (byte)(length & 0xFF);
         header[4] = (byte)(ssrc >> 24);
         header[5] = (byte)(ssrc >> 16);
         header[6] = (byte)(ssrc >> 8);
         header[7] = (byte)(ssrc & 0xFF);
-
-		ByteBuffer bb = ByteBuffer.wrap(body);
-		bb.putFloat(fractionLost);
-		bb.putInt(cumLost);
-		bb.putInt(highSeqNb);
     }
 
-    
-    // constructor from bit stream
-    public RTCPpacket(byte[] packet, int packet_size) {
-
-    	header = new byte[HEADER_SIZE];
-    	body = new byte[BODY_SIZE];
 
+    // constructor from bit stream
+    public RTCPpacket(byte[] packet, int packet_size)
+    {
+        header = new byte[HEADER_SIZE];
         System.arraycopy(packet, 0, header, 0, HEADER_SIZE);
-        System.arraycopy(packet, HEADER_SIZE, body, 0, BODY_SIZE);
 
-    	// Parse header fields
+        // Parse header fields
         version = (header[0] & 0xFF) >> 6;
+        rcount = header[0] & 0x1F;
         payloadType = header[1] & 0xFF;
         length = (header[3] & 0xFF) + ((header[2] & 0xFF) << 8);
         ssrc = (header[7] & 0xFF) + ((header[6] & 0xFF) << 8) + ((header[5] & 0xFF) << 16) + ((header[4] & 0xFF) << 24);
 
-    	// Parse body fields
-    	ByteBuffer bb = ByteBuffer.wrap(body); // big-endian by default
-    	fractionLost = bb.getFloat();
-    	cumLost = bb.getInt();
-    	highSeqNb = bb.getInt();
+        // Parse first report block
+        int bodySize = (rcount > 0 && packet_size >= HEADER_SIZE + BODY_SIZE) ? BODY_SIZE : 0;
+        body = new byte[bodySize];
+        System.arraycopy(packet, HEADER_SIZE, body, 0, bodySize);
+        if (bodySize > 0)
+        {
+            ByteBuffer bb = ByteBuffer.wrap(body); // big-endian by default
+            sourceSsrc = bb.getInt();
+            int lost = bb.getInt();
+            fractionLost = lost >>> 24;
+            cumLost = (lost << 8) >> 8; // sign extend 24-bit value
+            highSeqNb = bb.getInt();
+            jitter = bb.getInt();
+            LSR = bb.getInt();
+            DLSR = bb.getInt();
+        }
     }
 
     //--------------------------
@@ -133,21 +162,21 @@ class RTCPpacket
     {
         //construct the packet = header + body
         System.arraycopy(header, 0, packet, 0, HEADER_SIZE);
-        System.arraycopy(body, 0, packet, HEADER_SIZE, BODY_SIZE);
+        System.arraycopy(body, 0, packet, HEADER_SIZE, body.length);
 
         //return total size of the packet
-        return (BODY_SIZE + HEADER_SIZE);
+        return getLength();
     }
 
     //--------------------------
     //getlength: return the total length of the RTCP packet
     //--------------------------
     public int getLength() {
-        return (BODY_SIZE + HEADER_SIZE);
+        return (body.length + HEADER_SIZE);
     }
 
     public String toString() {
-    	return "[RTCP] Version: " + version + ", Fraction Lost: " + fractionLost 
-    		   + ", Cumulative Lost: " + cumLost + ", Highest Seq Num: " + highSeqNb;
+        return "[RTCP] Version: " + version + ", Fraction Lost: " + fractionLost + "/256"
+               + ", Cumulative Lost: " + cumLost + ", Highest Seq Num: " + highSeqNb + ", Jitter: " + jitter;
     }
-}
\ No newline at end of file
+}
@@ -22,7 +22,7 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
 import org.sensorhub.api.sensor.SensorException;
 import org.slf4j.Logger;
@@ -33,7 +33,15 @@ import org.vast.swe.Base64Decoder;
 /**
  * <p>
  * Demuxer for H264 streams received via RTP (RFC6184).<br/>
- * Only single NAL unit packets and FU-A fragmentation units are supported.
+ * Only single NAL unit packets, STAP-A aggregation packets and FU-A
+ * fragmentation units are supported.
+ * </p><p>
+ * Packets are received in pooled buffers and re-ordered by a jitter buffer.
+ * NAL units are then assembled into access units that are emitted when the
+ * RTP marker bit is set or when the timestamp changes. When a packet is lost,
+ * the current access unit is dropped and all following ones are skipped until
+ * the next IDR frame, so only decodable frames are emitted. Lost packets can
+ * also be reported to the sender with RTCP NACK and PLI messages.
  * </p>
  *
  * @author Alex Robin
@@ -44,6 +52,10 @@ public class RTPH264Receiver extends Thread
     static final Logger log = LoggerFactory.getLogger(RTPH264Receiver.class);
     static final int MAX_DATAGRAM_SIZE = 64*1024;
     static final int MAX_FRAME_SIZE = 1024*1024;
+    static final int DEFAULT_JITTER_BUFFER_DEPTH = 10;
+    static final int MAX_NACK_PACKETS = 64;
+    static final long MIN_PLI_INTERVAL = 500; // ms
+    static final int H264_CLOCK_RATE = 90000;
     static final byte[] NAL_UNIT_MARKER = new byte[] {0x0, 0x0, 0x0, 0x1};
     static final int SINGLE_NALU_PACKET_TYPE = 23;
     static final int FU4_PACKET_TYPE = 28;
@@ -61,25 +73,44 @@ public class RTPH264Receiver extends Thread
     int remotePort, localPort;
     DatagramSocket rtpSocket;    
     RTPH264Callback callback;
-    PriorityQueue<RTPPacket> pktQueue;
-    byte[] payload;
+    RTPJitterBuffer jitterBuffer;
+    RTPReceptionStats stats;
     ByteBuffer dataBuf;
-    long expandedSeqNum = Long.MIN_VALUE;
     long lastSeqNum = Long.MIN_VALUE; // last processed sequence number
-    boolean discardNAL = false;
-    boolean spsReceived = false;
-    boolean ppsReceived = false;
-    boolean injectParamSets = false;
+    int ssrc;
+    
+    // access unit assembly state
+    int auTimeStamp;
+    int auSeqNum;
+    boolean auStarted = false;
+    boolean auCorrupted = false;
+    boolean auHasParamSets = false;
+    boolean inFragment = false;
+    boolean waitForKeyFrame = true;
     byte[] sps, pps;
+    
+    // RTCP feedback
+    volatile RTCPSender feedbackSender;
+    boolean enableNack, enablePli;
+    long lastPliTime;
         
     
     public RTPH264Receiver(String remoteHost, int remotePort, int localPort, RTPH264Callback callback)
+    {
+        this(remoteHost, remotePort, localPort, DEFAULT_JITTER_BUFFER_DEPTH, callback);
+    }
+    
+    
+    public RTPH264Receiver(String remoteHost, int remotePort, int localPort, int jitterBufferDepth, RTPH264Callback callback)
     {
         super(RTPH264Receiver.class.getSimpleName());
         this.remoteHost = remoteHost;
         this.remotePort = remotePort;
         this.localPort = localPort;
         this.callback = callback;
+        this.jitterBuffer = new RTPJitterBuffer(jitterBufferDepth, MAX_DATAGRAM_SIZE);
+        this.stats = new RTPReceptionStats(H264_CLOCK_RATE);
+        this.dataBuf = ByteBuffer.allocate(MAX_FRAME_SIZE);
     }
 
 
@@ -135,7 +166,6 @@ public class RTPH264Receiver extends Thread
             // decode base64 parameter sets
             this.sps = decodeBase64(sps);
             this.pps = decodeBase64(pps);
-            this.injectParamSets = true;
         }
         catch (Exception e)
         {
@@ -144,6 +174,26 @@ public class RTPH264Receiver extends Thread
     }
     
     
+    /**
+     * Enable RTCP feedback messages sent when packets are lost
+     * @param sender RTCP sender used to send feedback messages
+     * @param enableNack true to request retransmission of lost packets
+     * @param enablePli true to request a new key frame after a loss
+     */
+    public void setFeedbackSender(RTCPSender sender, boolean enableNack, boolean enablePli)
+    {
+        this.enableNack = enableNack;
+        this.enablePli = enablePli;
+        this.feedbackSender = sender;
+    }
+    
+    
+    public RTPReceptionStats getStats()
+    {
+        return stats;
+    }
+    
+    
     private byte[] decodeBase64(String s) throws IOException
     {
         byte[] res = new byte[s.length()*3/4];
@@ -163,61 +213,15 @@ public class RTPH264Receiver extends Thread
     {
         try
         {
-            final byte[] receiveData = new byte[MAX_DATAGRAM_SIZE];
-            final DatagramPacket receivePacket = new DatagramPacket(receiveData, receiveData.length);
-            
-            discardNAL = false;
-            spsReceived = false;
-            ppsReceived = false;
-            payload = new byte[MAX_DATAGRAM_SIZE];            
-            dataBuf = ByteBuffer.allocate(MAX_FRAME_SIZE);
-            pktQueue = new PriorityQueue<>();            
+            final DatagramPacket receivePacket = new DatagramPacket(new byte[0], 0);
             
             while (started)
             {
+                // receive directly in a pooled packet
+                RTPPacket rtpPacket = jitterBuffer.getFreePacket();
+                receivePacket.setData(rtpPacket.buffer);
                 rtpSocket.receive(receivePacket);
-                    
-                // create an RTPpacket object from the UDP payload
-                int length = receivePacket.getLength();
-                RTPPacket rtpPacket = new RTPPacket(receiveData, length);
-                if (log.isTraceEnabled())
-                {
-                    log.trace("Received RTP packet: seqNum=" + rtpPacket.getSequenceNumber() +
-                              ", timeStamp=" + rtpPacket.getTimeStamp() +
-                              ", payloadType=" + rtpPacket.getPayloadType());
-                }
-                
-                // add packet to re-ordering queue
-                pktQueue.add(expandSeqNum(rtpPacket));
-                
-                // process all packets in queue
-                while (!pktQueue.isEmpty())
-                {
-                    long nextSeqNumInQueue = pktQueue.peek().expandedSequenceNumber;
-                    long nextSeqNum = lastSeqNum + 1;
-                    
-                    if (lastSeqNum == Long.MIN_VALUE || nextSeqNumInQueue == nextSeqNum)
-                    {
-                        RTPPacket nextPacket = pktQueue.poll();
-                        log.trace("Processing packet {} -> {}", nextPacket.sequenceNumber, nextPacket.expandedSequenceNumber);
-                        processPacket(nextPacket);
-                        lastSeqNum = nextPacket.expandedSequenceNumber;
-                    }
-                    else
-                    {
-                        log.trace("Waiting for packet {}, Queue size: {}", nextSeqNum, pktQueue.size());
-                        
-                        // discard old packets and current NAL unit if we cannot wait anymore
-                        if (pktQueue.size() > 10)
-                        {
-                            log.debug("Lost packet {}, Dropping frame", nextSeqNum);
-                            lastSeqNum = pktQueue.peek().expandedSequenceNumber - 1;
-                            discardNAL = true;
-                        }
-                        
-                        break;
-                    }
-                }
+                onPacketReceived(rtpPacket, receivePacket.getLength());
             }
         }
         catch (Exception e)
@@ -225,137 +229,325 @@ public class RTPH264Receiver extends Thread
             if (started)
                 log.error("Error while demuxing H264 RTP stream", e);
         }
+        
+        if (log.isDebugEnabled())
+            log.debug("RTP reception stats: {}", stats);
     }
     
     
-    /*
-     * Utility method to expand the rolling sequence number to a
-     * 64-bits integer for proper sorting
+    /**
+     * Process an RTP packet received by other means than the RTP socket
+     * (e.g. interleaved in the RTSP connection or replayed from a capture file)
+     * @param data array containing the packet
+     * @param offset offset of the packet in the array
+     * @param length length of the packet
      */
-    protected RTPPacket expandSeqNum(RTPPacket pkt)
+    public void processDatagram(byte[] data, int offset, int length)
+    {
+        RTPPacket rtpPacket = jitterBuffer.getFreePacket();
+        length = Math.min(length, rtpPacket.buffer.length);
+        System.arraycopy(data, offset, rtpPacket.buffer, 0, length);
+        onPacketReceived(rtpPacket, length);
+    }
+    
+    
+    protected void onPacketReceived(RTPPacket rtpPacket, int length)
     {
-        if (expandedSeqNum == Long.MIN_VALUE)
-            expandedSeqNum = pkt.sequenceNumber;
+        if (!rtpPacket.parse(length))
+        {
+            log.trace("Invalid RTP packet");
+            jitterBuffer.recycle(rtpPacket);
+            return;
+        }
         
-        expandedSeqNum += (short)(pkt.sequenceNumber - expandedSeqNum);
-        pkt.expandedSequenceNumber = expandedSeqNum;
+        if (log.isTraceEnabled())
+        {
+            log.trace("Received RTP packet: seqNum=" + rtpPacket.getSequenceNumber() +
+                      ", timeStamp=" + rtpPacket.getTimeStamp() +
+                      ", payloadType=" + rtpPacket.getPayloadType());
+        }
+        
+        // add packet to jitter buffer
+        long prevHighestSeqNum = jitterBuffer.getHighestSeqNum();
+        int prevNumResyncs = jitterBuffer.getNumResyncs();
+        boolean buffered = jitterBuffer.insert(rtpPacket);
+        boolean resync = jitterBuffer.getNumResyncs() != prevNumResyncs;
+        if (resync)
+            stats.onSequenceJump(rtpPacket.expandedSequenceNumber);
+        stats.onPacket(rtpPacket, System.nanoTime());
+        ssrc = rtpPacket.ssrc;
+        
+        if (resync)
+        {
+            // sequence numbers restarted, so don't report the jump as a loss
+            // but drop the access unit that was in progress
+            log.debug("Sequence number jumped to {}, Resynchronizing", rtpPacket.sequenceNumber);
+            lastSeqNum = Long.MIN_VALUE;
+            auCorrupted = auStarted;
+            inFragment = false;
+        }
+        else if (!buffered)
+        {
+            log.trace("Discarding late or duplicate packet {}", rtpPacket.sequenceNumber);
+            stats.onLatePacket();
+            jitterBuffer.recycle(rtpPacket);
+        }
+        else if (prevHighestSeqNum != Long.MIN_VALUE)
+        {
+            // request retransmission of missing packets right away
+            long numMissing = rtpPacket.expandedSequenceNumber - prevHighestSeqNum - 1;
+            if (numMissing > 0 && numMissing <= MAX_NACK_PACKETS)
+                sendNack(prevHighestSeqNum + 1, (int)numMissing);
+        }
+        
+        // process all packets that are ready
+        RTPPacket nextPacket;
+        while ((nextPacket = jitterBuffer.poll()) != null)
+        {
+            long seqNum = nextPacket.expandedSequenceNumber;
+            if (lastSeqNum != Long.MIN_VALUE && seqNum != lastSeqNum + 1)
+                onPacketLoss(lastSeqNum + 1, seqNum - lastSeqNum - 1);
+            
+            log.trace("Processing packet {} -> {}", nextPacket.sequenceNumber, seqNum);
+            lastSeqNum = seqNum;
+            processPacket(nextPacket);
+            jitterBuffer.recycle(nextPacket);
+        }
+    }
+    
+    
+    protected void onPacketLoss(long firstSeqNum, long count)
+    {
+        log.debug("Lost {} packet(s) starting at {}, Waiting for next key frame", count, firstSeqNum & 0xFFFF);
         
-        return pkt;
+        // current frame can't be decoded, nor the following ones until the next IDR
+        // if no frame was in progress, the IDR first slice check is enough
+        auCorrupted = auStarted;
+        inFragment = false;
+        waitForKeyFrame = true;
+        requestKeyFrame();
+    }
+    
+    
+    protected void sendNack(long firstSeqNum, int count)
+    {
+        RTCPSender sender = feedbackSender;
+        if (enableNack && sender != null)
+        {
+            sender.sendNack(ssrc, firstSeqNum, count);
+            stats.onNackSent();
+        }
+    }
+    
+    
+    protected void requestKeyFrame()
+    {
+        RTCPSender sender = feedbackSender;
+        long now = System.currentTimeMillis();
+        if (enablePli && sender != null && now - lastPliTime >= MIN_PLI_INTERVAL)
+        {
+            sender.sendPictureLossIndication(ssrc);
+            stats.onPliSent();
+            lastPliTime = now;
+        }
     }
     
     
     protected void processPacket(RTPPacket rtpPacket)
     {
-        // get the payload bitstream from the RTPpacket object
-        int payload_length = rtpPacket.getPayload(payload);
+        if (rtpPacket.payloadType != 96)
+            return;
+        
+        byte[] payload = rtpPacket.payload;
+        int offset = rtpPacket.payloadOffset;
+        int payload_length = rtpPacket.payloadSize;
+        
+        // new time stamp means the previous access unit is complete,
+        // even if we didn't get its marker bit
+        if (auStarted && rtpPacket.timeStamp != auTimeStamp)
+            flushAccessUnit();
+        auStarted = true;
+        auTimeStamp = rtpPacket.timeStamp;
+        auSeqNum = rtpPacket.sequenceNumber;
         
-        if (rtpPacket.payloadType == 96)
+        int packetType = (payload[offset] & 0x1F);
+        log.trace("H264 RTP packet type = {}", packetType);
+        
+        // case of fragmented packet (FU-4)
+        if (packetType == FU4_PACKET_TYPE && payload_length > 2)
         {
-            int packetType = (payload[0] & 0x1F);
-            log.trace("H264 RTP packet type = {}", packetType);
+            int fuHeader = payload[offset+1];
+            int nalUnitType = fuHeader & 0x1F;
             
-            // case of fragmented packet (FU-4)
-            if (packetType == FU4_PACKET_TYPE)
+            // if start of NAL unit
+            if ((fuHeader & 0x80) != 0)
             {
-                int nalUnitType = payload[1] & 0x1F;
-                boolean startNalUnit = (payload[1] & 0x80) != 0;
-                
-                if (injectParamSets && startNalUnit)
-                {
-                    // inject SPS and PPS before key frame
-                    if (nalUnitType == NALU_KEYFRAME)
-                    {
-                        log.trace("Injecting SPS and PPS NAL units");
-                        dataBuf.put(NAL_UNIT_MARKER);
-                        dataBuf.put(sps);
-                        dataBuf.put(NAL_UNIT_MARKER);
-                        dataBuf.put(pps);
-                        spsReceived = true;
-                        ppsReceived = true;
-                    }
-                }
-                
-                if (spsReceived && ppsReceived)
+                log.trace("FU-4: Start NAL unit, type = {}", nalUnitType);
+                inFragment = startNalUnit(nalUnitType, payload, offset+2, payload_length-2, false);
+                if (inFragment)
                 {
-                    // if start of NAL unit
-                    if (startNalUnit) 
-                    {
-                        log.trace("FU-4: Start NAL unit, type = {}", nalUnitType);
-                        discardNAL = false;
-                        dataBuf.put(NAL_UNIT_MARKER);
-                        dataBuf.put((byte)((payload[0] & 0xE0) + nalUnitType));
-                    }
-                    
-                    // copy NAL fragment
-                    dataBuf.put(payload, 2, payload_length-2);
-                            
-                    // if end of NAL unit
-                    if ((payload[1] & 0x40) != 0)
-                    {
-                        log.trace("FU-4: End NAL unit, type = {}", nalUnitType);
-                        
-                        if (!discardNAL)
-                        {
-                            dataBuf.flip();
-                            callback.onFrame(rtpPacket.getTimeStamp() & 0xFFFFFFFF, rtpPacket.getSequenceNumber(), dataBuf, discardNAL);
-                            
-                            // copy buffer
-                            final ByteBuffer newBuf = ByteBuffer.allocate(dataBuf.limit());
-                            newBuf.put(dataBuf);
-                            newBuf.flip();
-                        }
-                        else
-                            log.trace("FU-4: Discarded");
-                        
-                        discardNAL = false;
-                        dataBuf.clear();
-                    }
+                    appendData(NAL_UNIT_MARKER, 0, NAL_UNIT_MARKER.length);
+                    appendData((byte)((payload[offset] & 0xE0) + nalUnitType));
                 }
             }
             
-            // single time aggregation units
-            else if (packetType == STAPA_PACKET_TYPE)
+            // copy NAL fragment
+            // fragments of a NAL unit whose start was lost or skipped are ignored
+            if (inFragment)
+                appendData(payload, offset+2, payload_length-2);
+                    
+            // if end of NAL unit
+            if ((fuHeader & 0x40) != 0)
+            {
+                log.trace("FU-4: End NAL unit, type = {}", nalUnitType);
+                inFragment = false;
+            }
+        }
+        
+        // single time aggregation units
+        else if (packetType == STAPA_PACKET_TYPE)
+        {
+            int index = offset+1;
+            int end = offset + payload_length;
+            while (index+2 < end)
             {
-                int index = 1;
-                while (index+1 < payload_length)
+                int nalSize = ((payload[index] & 0xFF) << 8) | (payload[index+1] & 0xFF);
+                index += 2;
+                if (nalSize == 0 || index + nalSize > end)
+                    break;
+                
+                int nalUnitType = payload[index] & 0x1F;
+                log.trace("STAP NAL unit, type = {}", nalUnitType);
+                
+                // write nal unit to buffer with a marker
+                if (startNalUnit(nalUnitType, payload, index+1, nalSize-1, true))
                 {
-                    int nalSize = ((payload[index] & 0xFF) << 8) | (payload[index+1] & 0xFF);
-                    if (nalSize == 0)
-                        break;
-                    
-                    index += 2;
-                    int nalUnitType = payload[index] & 0x1F;
-                    log.trace("STAP NAL unit, type = {}", nalUnitType);
-                    
-                    // write nal unit to buffer with a marker
-                    dataBuf.put(NAL_UNIT_MARKER);
-                    dataBuf.put(payload, index, nalSize);                            
-                    index += nalSize;
-                    
-                    // mark when SPS and PPS are received
-                    if (nalUnitType == NALU_SPS)
-                        spsReceived = true;
-                    else if (nalUnitType == NALU_PPS)
-                        ppsReceived = true;
+                    appendData(NAL_UNIT_MARKER, 0, NAL_UNIT_MARKER.length);
+                    appendData(payload, index, nalSize);
                 }
+                index += nalSize;
             }
+        }
+        
+        // case of single NAL unit directly as payload
+        else if (packetType <= SINGLE_NALU_PACKET_TYPE)
+        {
+            int nalUnitType = packetType;
+            log.trace("Single NAL unit, type = {}", packetType);
             
-            // case of single NAL unit directly as payload
-            else if (packetType <= SINGLE_NALU_PACKET_TYPE)
+            if (startNalUnit(nalUnitType, payload, offset+1, payload_length-1, true))
             {
-                int nalUnitType = packetType;
-                log.trace("Single NAL unit, type = {}", packetType);
-                
-                dataBuf.put(NAL_UNIT_MARKER);
-                dataBuf.put(payload, 0, payload_length);
-                
-                // mark when SPS and PPS are received
+                appendData(NAL_UNIT_MARKER, 0, NAL_UNIT_MARKER.length);
+                appendData(payload, offset, payload_length);
+            }
+        }
+        
+        else
+            log.trace("Unsupported H264 RTP packet type {}", packetType);
+        
+        // marker bit is set on last packet of access unit
+        if (rtpPacket.marker != 0)
+            flushAccessUnit();
+    }
+    
+    
+    /*
+     * Check if a new NAL unit can be added to the current access unit and
+     * inject parameter sets before IDR slices if needed.
+     * Data starts after the NAL unit header byte and is incomplete in the
+     * case of fragmentation units.
+     */
+    protected boolean startNalUnit(int nalUnitType, byte[] data, int offset, int length, boolean complete)
+    {
+        // remember last parameter sets to inject them if needed
+        if (nalUnitType == NALU_SPS || nalUnitType == NALU_PPS)
+        {
+            byte[] paramSet = nalUnitType == NALU_SPS ? sps : pps;
+            if (complete && (paramSet == null || !Arrays.equals(paramSet, 1, paramSet.length, data, offset, offset + length)))
+            {
+                paramSet = Arrays.copyOfRange(data, offset - 1, offset + length);
                 if (nalUnitType == NALU_SPS)
-                    spsReceived = true;
-                else if (nalUnitType == NALU_PPS)
-                    ppsReceived = true;
+                    sps = paramSet;
+                else
+                    pps = paramSet;
+            }
+            
+            auHasParamSets |= nalUnitType == NALU_PPS;
+            return true;
+        }
+        
+        if (nalUnitType == NALU_KEYFRAME)
+        {
+            // resume only at the first slice of an intact IDR frame
+            // i.e. first_mb_in_slice = 0, coded as a single '1' bit
+            boolean firstSlice = length > 0 && (data[offset] & 0x80) != 0;
+            if (waitForKeyFrame && !auCorrupted && firstSlice && sps != null && pps != null)
+            {
+                log.debug("Key frame received, Resuming stream");
+                waitForKeyFrame = false;
             }
+            
+            // inject SPS and PPS before key frame
+            if (!waitForKeyFrame && !auHasParamSets && sps != null && pps != null)
+            {
+                log.trace("Injecting SPS and PPS NAL units");
+                appendData(NAL_UNIT_MARKER, 0, NAL_UNIT_MARKER.length);
+                appendData(sps, 0, sps.length);
+                appendData(NAL_UNIT_MARKER, 0, NAL_UNIT_MARKER.length);
+                appendData(pps, 0, pps.length);
+                auHasParamSets = true;
+            }
+        }
+        
+        return !waitForKeyFrame;
+    }
+    
+    
+    protected void appendData(byte[] data, int offset, int length)
+    {
+        if (dataBuf.remaining() < length)
+        {
+            if (!auCorrupted)
+                log.warn("Frame larger than {} bytes, Dropping frame", MAX_FRAME_SIZE);
+            auCorrupted = true;
+            waitForKeyFrame = true;
+            return;
+        }
+        
+        dataBuf.put(data, offset, length);
+    }
+    
+    
+    protected void appendData(byte b)
+    {
+        if (dataBuf.hasRemaining())
+            dataBuf.put(b);
+        else
+            auCorrupted = true;
+    }
+    
+    
+    protected void flushAccessUnit()
+    {
+        if (auCorrupted || waitForKeyFrame)
+        {
+            log.trace("Discarding frame {}", auTimeStamp & 0xFFFFFFFFL);
+            stats.onFrame(true);
+            if (waitForKeyFrame)
+                requestKeyFrame();
+        }
+        else if (dataBuf.position() > 0)
+        {
+            dataBuf.flip();
+            callback.onFrame(auTimeStamp & 0xFFFFFFFFL, auSeqNum, dataBuf, false);
+            stats.onFrame(false);
         }
+        
+        dataBuf.clear();
+        auStarted = false;
+        auCorrupted = false;
+        auHasParamSets = false;
+        inFragment = false;
     }
     
     
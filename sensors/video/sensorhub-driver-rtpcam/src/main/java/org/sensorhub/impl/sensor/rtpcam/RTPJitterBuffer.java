@@ -0,0 +1,246 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.rtpcam;
+
+import java.util.ArrayDeque;
+
+
+/**
+ * <p>
+ * Jitter buffer re-ordering RTP packets by sequence number.<br/>
+ * Packets are stored in a ring indexed by their extended sequence number and
+ * released in order. A missing packet is given up on once a packet more than
+ * <i>depth</i> sequence numbers after it has been received, so the depth
+ * trades tolerance to re-ordering for latency.
+ * </p><p>
+ * The buffer also owns a pool of packets with preallocated receive buffers
+ * so no memory is allocated once the stream is running. Packets obtained
+ * with {@link #getFreePacket()} or {@link #poll()} must be given back with
+ * {@link #recycle(RTPPacket)}.
+ * </p><p>
+ * This class is not thread-safe and is meant to be used by the receiver
+ * thread only.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class RTPJitterBuffer
+{
+    static final int MAX_DROPOUT = 3000;
+
+    final int depth;
+    final int packetSize;
+    final RTPPacket[] slots;
+    final int mask;
+    final ArrayDeque<RTPPacket> freePackets = new ArrayDeque<>();
+    int numBuffered;
+    long nextSeqNum = Long.MIN_VALUE; // next sequence number to release
+    long highestSeqNum = Long.MIN_VALUE;
+    long numDropped;
+    int numResyncs;
+
+
+    /**
+     * @param depth Max distance in sequence numbers between a missing packet
+     * and the packets received after it (0 means no re-ordering)
+     * @param packetSize Size of packet receive buffers
+     */
+    public RTPJitterBuffer(int depth, int packetSize)
+    {
+        if (depth < 0)
+            throw new IllegalArgumentException("Jitter buffer depth must be positive");
+
+        this.depth = depth;
+        this.packetSize = packetSize;
+
+        // ring must hold all packets between next and highest sequence numbers
+        int size = Integer.highestOneBit(Math.max(depth, 1) * 2 + 1) << 1;
+        this.slots = new RTPPacket[size];
+        this.mask = size - 1;
+    }
+
+
+    /**
+     * @return A packet to receive the next datagram into
+     */
+    public RTPPacket getFreePacket()
+    {
+        RTPPacket pkt = freePackets.poll();
+        return pkt != null ? pkt : new RTPPacket(packetSize);
+    }
+
+
+    /**
+     * Give a packet back to the pool
+     * @param pkt
+     */
+    public void recycle(RTPPacket pkt)
+    {
+        freePackets.push(pkt);
+    }
+
+
+    /**
+     * Add a packet to the buffer.<br/>
+     * The packet extended sequence number is computed even if the packet is
+     * rejected.
+     * @param pkt
+     * @return true if the packet was buffered, false if it is a duplicate or
+     * arrived too late, in which case the caller must recycle it
+     */
+    public boolean insert(RTPPacket pkt)
+    {
+        if (highestSeqNum == Long.MIN_VALUE)
+        {
+            pkt.expandedSequenceNumber = pkt.sequenceNumber;
+            nextSeqNum = highestSeqNum = pkt.expandedSequenceNumber;
+        }
+        else
+            pkt.expandedSequenceNumber = highestSeqNum + (short)(pkt.sequenceNumber - highestSeqNum);
+
+        long seqNum = pkt.expandedSequenceNumber;
+        if (Math.abs(seqNum - highestSeqNum) > MAX_DROPOUT)
+        {
+            // sender restarted or jumped, don't count it as loss
+            clear();
+            nextSeqNum = highestSeqNum = seqNum;
+            numResyncs++;
+        }
+        else if (seqNum < nextSeqNum)
+            return false;
+
+        // give up on all packets that don't fit in the ring anymore
+        while (seqNum - nextSeqNum >= slots.length)
+            skip();
+
+        int index = (int)(seqNum & mask);
+        if (slots[index] != null)
+            return false;
+
+        slots[index] = pkt;
+        numBuffered++;
+        if (seqNum > highestSeqNum)
+            highestSeqNum = seqNum;
+
+        return true;
+    }
+
+
+    /**
+     * Get the next packet in sequence order.<br/>
+     * Missing packets are skipped if enough packets were received after them
+     * so callers detect losses by checking for gaps in sequence numbers.
+     * @return The next packet or null if none is ready
+     */
+    public RTPPacket poll()
+    {
+        while (numBuffered > 0)
+        {
+            int index = (int)(nextSeqNum & mask);
+            RTPPacket pkt = slots[index];
+            if (pkt != null)
+            {
+                slots[index] = null;
+                numBuffered--;
+                nextSeqNum++;
+                return pkt;
+            }
+
+            // keep waiting for missing packet
+            if (highestSeqNum - nextSeqNum <= depth)
+                return null;
+
+            nextSeqNum++;
+            numDropped++;
+        }
+
+        return null;
+    }
+
+
+    protected void skip()
+    {
+        int index = (int)(nextSeqNum & mask);
+        if (slots[index] != null)
+        {
+            recycle(slots[index]);
+            slots[index] = null;
+            numBuffered--;
+        }
+
+        nextSeqNum++;
+        numDropped++;
+    }
+
+
+    /**
+     * Recycle all buffered packets
+     */
+    public void clear()
+    {
+        for (int i = 0; i < slots.length; i++)
+        {
+            if (slots[i] != null)
+            {
+                recycle(slots[i]);
+                slots[i] = null;
+            }
+        }
+
+        numBuffered = 0;
+    }
+
+
+    /**
+     * @return The highest extended sequence number received so far or
+     * Long.MIN_VALUE if no packet was received yet
+     */
+    public long getHighestSeqNum()
+    {
+        return highestSeqNum;
+    }
+
+
+    /**
+     * @return Number of packets given up on since the buffer was created
+     */
+    public long getNumDropped()
+    {
+        return numDropped;
+    }
+
+
+    /**
+     * @return Number of times the buffer was cleared and restarted because
+     * the sequence number jumped by more than {@value #MAX_DROPOUT}
+     */
+    public int getNumResyncs()
+    {
+        return numResyncs;
+    }
+
+
+    public int getDepth()
+    {
+        return depth;
+    }
+
+
+    public int size()
+    {
+        return numBuffered;
+    }
+}
@@ -48,6 +48,12 @@ public class RTPPacket implements Comparable<RTPPacket>
     
     // bitstream of the RTP payload
     public byte[] payload;
+    
+    // offset of the RTP payload in the payload array
+    public int payloadOffset;
+    
+    // receive buffer when packet is reused
+    public byte[] buffer;
 
 
     /**
@@ -114,13 +120,68 @@ public class RTPPacket implements Comparable<RTPPacket>
                 payload[i - HEADER_SIZE] = packet[i];
 
             //interpret the changing fields of the header:
-            payloadType = header[1] & 127;
-            sequenceNumber = (header[3] & 0xFF) + 256 * (header[2] & 0xFF);
-            timeStamp = (header[7] & 0xFF) + 256 * (header[6] & 0xFF) + 65536 * (header[5] & 0xFF) + 16777216 * (header[4] & 0xFF);
+            parseHeader(header);
         }
     }
 
 
+    /**
+     * Constructor of a reusable RTPpacket object.<br/>
+     * Datagrams are received directly in the packet {@link #buffer} and
+     * decoded by {@link #parse(int)}, so the payload is never copied.
+     * @param bufferSize max size of datagrams
+     */
+    public RTPPacket(int bufferSize)
+    {
+        this.buffer = new byte[bufferSize];
+    }
+
+
+    /**
+     * Decode the datagram currently held in the receive buffer
+     * @param packetSize size of the datagram
+     * @return true if the datagram is a valid RTP packet
+     */
+    public boolean parse(int packetSize)
+    {
+        if (packetSize < HEADER_SIZE || packetSize > buffer.length)
+            return false;
+        
+        header = buffer;
+        payload = buffer;
+        parseHeader(buffer);
+        if (version != 2)
+            return false;
+
+        // skip CSRC list and header extension
+        payloadOffset = HEADER_SIZE + 4 * CC;
+        if (extension != 0 && payloadOffset + 4 <= packetSize)
+            payloadOffset += 4 + 4 * (((buffer[payloadOffset + 2] & 0xFF) << 8) | (buffer[payloadOffset + 3] & 0xFF));
+        
+        // remove padding
+        int end = packetSize;
+        if (padding != 0)
+            end -= buffer[packetSize - 1] & 0xFF;
+        
+        payloadSize = end - payloadOffset;
+        return payloadSize > 0;
+    }
+    
+    
+    protected void parseHeader(byte[] header)
+    {
+        version = (header[0] & 0xFF) >> 6;
+        padding = (header[0] >> 5) & 1;
+        extension = (header[0] >> 4) & 1;
+        CC = header[0] & 0xF;
+        marker = (header[1] >> 7) & 1;
+        payloadType = header[1] & 127;
+        sequenceNumber = (header[3] & 0xFF) + 256 * (header[2] & 0xFF);
+        timeStamp = (header[7] & 0xFF) + 256 * (header[6] & 0xFF) + 65536 * (header[5] & 0xFF) + 16777216 * (header[4] & 0xFF);
+        ssrc = (header[11] & 0xFF) + ((header[10] & 0xFF) << 8) + ((header[9] & 0xFF) << 16) + ((header[8] & 0xFF) << 24);
+    }
+
+
     /**
      * Get the payload bistream of the RTPpacket and its size
      * @param data byte array where to store payload data
@@ -128,9 +189,7 @@ public class RTPPacket implements Comparable<RTPPacket>
      */
     public int getPayload(byte[] data)
     {
-        for (int i = 0; i < payloadSize; i++)
-            data[i] = payload[i];
-
+        System.arraycopy(payload, payloadOffset, data, 0, payloadSize);
         return (payloadSize);
     }
 
@@ -163,8 +222,7 @@ public class RTPPacket implements Comparable<RTPPacket>
         //construct the packet = header + payload
         for (int i = 0; i < HEADER_SIZE; i++)
             packet[i] = header[i];
-        for (int i = 0; i < payloadSize; i++)
-            packet[i + HEADER_SIZE] = payload[i];
+        System.arraycopy(payload, payloadOffset, packet, HEADER_SIZE, payloadSize);
 
         //return total size of the packet
         return (payloadSize + HEADER_SIZE);
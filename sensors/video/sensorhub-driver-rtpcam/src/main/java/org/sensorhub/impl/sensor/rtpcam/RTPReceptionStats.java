@@ -0,0 +1,254 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.rtpcam;
+
+
+/**
+ * <p>
+ * Reception statistics of an RTP stream, computed as described in
+ * RFC 3550 appendix A.3 and A.8, and used to fill RTCP receiver reports.
+ * Frame level counters are also maintained by the H264 receiver.
+ * </p><p>
+ * Statistics are updated by the receiver thread and read by the RTCP thread
+ * so all methods are synchronized.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class RTPReceptionStats
+{
+    final double clockRate;
+    int ssrc;
+    long baseSeqNum = Long.MIN_VALUE;
+    long maxSeqNum;
+    long numReceived;
+    long expectedPrior;
+    long receivedPrior;
+    int lastFractionLost;
+    double jitter;
+    double lastTransit;
+    long firstArrival;
+    long numFrames;
+    long numDroppedFrames;
+    long numLate;
+    long numNacks;
+    long numPlis;
+
+
+    /**
+     * @param clockRate RTP clock rate in Hz (90000 for video)
+     */
+    public RTPReceptionStats(int clockRate)
+    {
+        this.clockRate = clockRate;
+    }
+
+
+    /**
+     * Update statistics with a newly received packet
+     * @param pkt packet with its extended sequence number already computed
+     * @param arrivalNanos arrival time as given by {@link System#nanoTime()}
+     */
+    public synchronized void onPacket(RTPPacket pkt, long arrivalNanos)
+    {
+        long seqNum = pkt.expandedSequenceNumber;
+        if (baseSeqNum == Long.MIN_VALUE)
+        {
+            ssrc = pkt.ssrc;
+            baseSeqNum = maxSeqNum = seqNum;
+            firstArrival = arrivalNanos;
+        }
+        else if (seqNum > maxSeqNum)
+            maxSeqNum = seqNum;
+
+        numReceived++;
+
+        // interarrival jitter in timestamp units
+        double arrival = (arrivalNanos - firstArrival) * clockRate / 1e9;
+        double transit = arrival - (pkt.timeStamp & 0xFFFFFFFFL);
+        if (numReceived > 1)
+        {
+            double d = Math.abs(transit - lastTransit);
+            if (d > 0x80000000L) // timestamp wrap around
+                d = Math.abs(d - 0x100000000L);
+            jitter += (d - jitter) / 16.;
+        }
+        lastTransit = transit;
+    }
+
+
+    /**
+     * Restart sequence number tracking when the sender jumped to a new
+     * sequence number, so that the jump is not counted as lost packets
+     * @param newSeqNum extended sequence number of the first packet after the jump
+     */
+    public synchronized void onSequenceJump(long newSeqNum)
+    {
+        if (baseSeqNum != Long.MIN_VALUE)
+        {
+            baseSeqNum += newSeqNum - maxSeqNum - 1;
+            maxSeqNum = newSeqNum - 1;
+        }
+    }
+
+
+    /**
+     * Compute fraction of packets lost since the previous call and start
+     * a new reporting interval
+     * @return The fraction lost as a fixed point number with the binary point
+     * at the left edge, as needed in receiver reports
+     */
+    public synchronized int nextFractionLost()
+    {
+        long expected = getExpected();
+        long expectedInterval = expected - expectedPrior;
+        long receivedInterval = numReceived - receivedPrior;
+        long lostInterval = expectedInterval - receivedInterval;
+        expectedPrior = expected;
+        receivedPrior = numReceived;
+
+        if (expectedInterval == 0 || lostInterval <= 0)
+            lastFractionLost = 0;
+        else
+            lastFractionLost = (int)((lostInterval << 8) / expectedInterval);
+
+        return lastFractionLost;
+    }
+
+
+    /**
+     * @return The fraction lost computed for the last interval
+     */
+    public synchronized int getLastFractionLost()
+    {
+        return lastFractionLost;
+    }
+
+
+    public synchronized boolean hasSource()
+    {
+        return baseSeqNum != Long.MIN_VALUE;
+    }
+
+
+    public synchronized int getSsrc()
+    {
+        return ssrc;
+    }
+
+
+    public synchronized long getExpected()
+    {
+        return baseSeqNum == Long.MIN_VALUE ? 0 : maxSeqNum - baseSeqNum + 1;
+    }
+
+
+    public synchronized long getReceived()
+    {
+        return numReceived;
+    }
+
+
+    /**
+     * @return Cumulative number of packets lost, which can be negative if
+     * duplicates were received
+     */
+    public synchronized long getCumulativeLost()
+    {
+        return getExpected() - numReceived;
+    }
+
+
+    public synchronized long getExtendedHighestSeqNum()
+    {
+        return maxSeqNum;
+    }
+
+
+    /**
+     * @return The interarrival jitter in timestamp units
+     */
+    public synchronized int getJitter()
+    {
+        return (int)jitter;
+    }
+
+
+    public synchronized void onFrame(boolean dropped)
+    {
+        if (dropped)
+            numDroppedFrames++;
+        else
+            numFrames++;
+    }
+
+
+    public synchronized void onLatePacket()
+    {
+        numLate++;
+    }
+
+
+    public synchronized void onNackSent()
+    {
+        numNacks++;
+    }
+
+
+    public synchronized void onPliSent()
+    {
+        numPlis++;
+    }
+
+
+    public synchronized long getNumFrames()
+    {
+        return numFrames;
+    }
+
+
+    public synchronized long getNumDroppedFrames()
+    {
+        return numDroppedFrames;
+    }
+
+
+    public synchronized long getNumLatePackets()
+    {
+        return numLate;
+    }
+
+
+    public synchronized long getNumNacks()
+    {
+        return numNacks;
+    }
+
+
+    public synchronized long getNumPlis()
+    {
+        return numPlis;
+    }
+
+
+    @Override
+    public synchronized String toString()
+    {
+        return "received=" + numReceived + ", lost=" + getCumulativeLost() + ", late=" + numLate +
+               ", jitter=" + getJitter() + ", frames=" + numFrames + ", droppedFrames=" + numDroppedFrames +
+               ", nacks=" + numNacks + ", plis=" + numPlis;
+    }
+}
@@ -123,7 +123,7 @@ public class RTPVideoOutput<SensorType extends ISensorModule<?>> extends Abstrac
                     timeout);
             
             // init the RTP receiver first to bind the socket and get the actual port
-            rtpThread = new RTPH264Receiver(rtspConfig.remoteHost, 0, rtspConfig.localUdpPort, this);
+            rtpThread = new RTPH264Receiver(rtspConfig.remoteHost, 0, rtspConfig.localUdpPort, rtspConfig.jitterBufferDepth, this);
             rtpThread.init();
 
             // some cameras don't have a real RTSP server (i.e. 3DR Solo UAV)
@@ -175,7 +175,9 @@ public class RTPVideoOutput<SensorType extends ISensorModule<?>> extends Abstrac
                 // start RTCP sending thread
                 // some cameras need that to maintain the stream
                 rtcpThread = new RTCPSender(rtspConfig.remoteHost, rtpThread.getLocalPort()+1, rtspClient.getRemoteRtcpPort(), 1000, rtspClient);
+                rtcpThread.setReceptionStats(rtpThread.getStats());
                 rtcpThread.start();
+                rtpThread.setFeedbackSender(rtcpThread, rtspConfig.enableNack, rtspConfig.enablePli);
             }
         }
         catch (IOException e)
@@ -266,9 +268,6 @@ public class RTPVideoOutput<SensorType extends ISensorModule<?>> extends Abstrac
     @Override
     public void onFrame(long timeStamp, int seqNum, ByteBuffer frameBuf, boolean packetLost)
     {
-        if (rtcpThread != null)
-            rtcpThread.setStats(seqNum);
-                
         if (!packetLost)
         {
             final byte[] frameBytes = new byte[frameBuf.limit()];
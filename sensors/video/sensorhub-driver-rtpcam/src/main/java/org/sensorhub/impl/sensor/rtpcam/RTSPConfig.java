@@ -38,6 +38,17 @@ public class RTSPConfig extends TCPConfig
     @DisplayInfo(desc="Only connect to RTSP port without initiating RTSP session")
     public boolean onlyConnectRtsp;
     
+    @DisplayInfo(label="Jitter Buffer Depth", desc="Max number of RTP packets that can be received ahead of a missing packet before it is considered lost. "
+        + "Higher values tolerate more packet reordering but increase latency")
+    public int jitterBufferDepth = 10;
+    
+    @DisplayInfo(label="Send NACK", desc="Request retransmission of lost RTP packets with RTCP NACK messages (RFC 4585). "
+        + "Only useful if the camera supports retransmissions")
+    public boolean enableNack = false;
+    
+    @DisplayInfo(label="Send PLI", desc="Request a new key frame with RTCP picture loss indication messages when RTP packets are lost")
+    public boolean enablePli = true;
+    
     
     public RTSPConfig()
     {
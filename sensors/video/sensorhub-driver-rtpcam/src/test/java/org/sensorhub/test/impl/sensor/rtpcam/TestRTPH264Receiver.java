@@ -0,0 +1,590 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.test.impl.sensor.rtpcam;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.sensorhub.impl.sensor.rtpcam.RTCPSender;
+import org.sensorhub.impl.sensor.rtpcam.RTPH264Callback;
+import org.sensorhub.impl.sensor.rtpcam.RTPH264Receiver;
+
+
+/**
+ * <p>
+ * Replays RTP captures through the H264 receiver to check frame integrity
+ * and measure throughput. A synthetic H264 stream is packetized, saved to a
+ * pcap file and replayed with loss, reordering and duplication.<br/>
+ * A real capture can also be replayed with -Drtp.pcap=file.pcap and
+ * optionally -Drtp.port=port to select the UDP stream.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class TestRTPH264Receiver
+{
+    static final int RTP_PORT = 5004;
+    static final int GOP_SIZE = 30;
+    static final int MTU = 1400;
+    static final int FIRST_SEQ_NUM = 65400; // to test wrap around
+    static final int TS_STEP = 3000;
+    static final int SSRC = 0x12345678;
+    static final byte[] START_CODE = {0, 0, 0, 1};
+
+
+    static class Stream
+    {
+        List<byte[]> frames = new ArrayList<>(); // expected access units in Annex B format
+        List<byte[]> packets = new ArrayList<>();
+        List<Integer> packetFrameIdx = new ArrayList<>();
+    }
+
+
+    static class FrameCollector implements RTPH264Callback
+    {
+        List<Long> timeStamps = new ArrayList<>();
+        List<byte[]> frames = new ArrayList<>();
+        long numBytes;
+
+        @Override
+        public void onFrame(long timeStamp, int seqNum, ByteBuffer frameData, boolean packetLost)
+        {
+            assertFalse(packetLost);
+            byte[] frame = new byte[frameData.remaining()];
+            frameData.get(frame);
+            timeStamps.add(timeStamp);
+            frames.add(frame);
+            numBytes += frame.length;
+        }
+
+        @Override
+        public void onError(Throwable e)
+        {
+        }
+    }
+
+
+    static class FeedbackRecorder extends RTCPSender
+    {
+        List<Long> nackedSeqNums = new ArrayList<>();
+        int numPli;
+
+        FeedbackRecorder()
+        {
+            super("localhost", 0, 0, 1000, null);
+        }
+
+        @Override
+        public void sendNack(int mediaSsrc, long firstSeqNum, int count)
+        {
+            assertEquals(SSRC, mediaSsrc);
+            for (int i = 0; i < count; i++)
+                nackedSeqNums.add((firstSeqNum + i) & 0xFFFF);
+        }
+
+        @Override
+        public void sendPictureLossIndication(int mediaSsrc)
+        {
+            assertEquals(SSRC, mediaSsrc);
+            numPli++;
+        }
+    }
+
+
+    /*
+     * Generate a stream with fake slice data, where each frame
+     * is a single slice and each GOP starts with SPS + PPS + IDR
+     */
+    static Stream generateStream(int numFrames, long seed)
+    {
+        Random rand = new Random(seed);
+        Stream stream = new Stream();
+        int seqNum = FIRST_SEQ_NUM;
+
+        for (int i = 0; i < numFrames; i++)
+        {
+            List<byte[]> nalUnits = new ArrayList<>();
+            if (i % GOP_SIZE == 0)
+            {
+                nalUnits.add(randomNal(rand, 0x67, 12));
+                nalUnits.add(randomNal(rand, 0x68, 5));
+                nalUnits.add(randomNal(rand, 0x65, 20000 + rand.nextInt(20000)));
+            }
+            else
+                nalUnits.add(randomNal(rand, 0x41, 200 + rand.nextInt(6000)));
+
+            // expected access unit
+            ByteArrayOutputStream au = new ByteArrayOutputStream();
+            for (byte[] nal: nalUnits)
+            {
+                au.writeBytes(START_CODE);
+                au.writeBytes(nal);
+            }
+            stream.frames.add(au.toByteArray());
+
+            // packetize, using STAP-A for parameter sets
+            int ts = 1000 + i * TS_STEP;
+            List<byte[]> payloads = new ArrayList<>();
+            int n = 0;
+            if (nalUnits.size() == 3)
+            {
+                byte[] sps = nalUnits.get(0), pps = nalUnits.get(1);
+                ByteBuffer stap = ByteBuffer.allocate(1 + 4 + sps.length + pps.length);
+                stap.put((byte)24).putShort((short)sps.length).put(sps).putShort((short)pps.length).put(pps);
+                payloads.add(stap.array());
+                n = 2;
+            }
+            for (; n < nalUnits.size(); n++)
+            {
+                byte[] nal = nalUnits.get(n);
+                if (nal.length <= MTU)
+                    payloads.add(nal);
+                else
+                {
+                    for (int off = 1; off < nal.length; off += MTU)
+                    {
+                        int len = Math.min(MTU, nal.length - off);
+                        byte[] fu = new byte[len + 2];
+                        fu[0] = (byte)((nal[0] & 0xE0) | 28);
+                        fu[1] = (byte)(nal[0] & 0x1F);
+                        if (off == 1)
+                            fu[1] |= 0x80;
+                        if (off + len == nal.length)
+                            fu[1] |= 0x40;
+                        System.arraycopy(nal, off, fu, 2, len);
+                        payloads.add(fu);
+                    }
+                }
+            }
+
+            for (int p = 0; p < payloads.size(); p++)
+            {
+                boolean marker = p == payloads.size() - 1;
+                stream.packets.add(rtpPacket(seqNum++ & 0xFFFF, ts, marker, payloads.get(p)));
+                stream.packetFrameIdx.add(i);
+            }
+        }
+
+        return stream;
+    }
+
+
+    static byte[] randomNal(Random rand, int header, int size)
+    {
+        byte[] nal = new byte[size];
+        rand.nextBytes(nal);
+        nal[0] = (byte)header;
+        nal[1] |= 0x80; // first_mb_in_slice = 0
+        return nal;
+    }
+
+
+    static byte[] rtpPacket(int seqNum, int ts, boolean marker, byte[] payload)
+    {
+        ByteBuffer buf = ByteBuffer.allocate(12 + payload.length);
+        buf.put((byte)0x80);
+        buf.put((byte)((marker ? 0x80 : 0) | 96));
+        buf.putShort((short)seqNum);
+        buf.putInt(ts);
+        buf.putInt(SSRC);
+        buf.put(payload);
+        return buf.array();
+    }
+
+
+    /*
+     * Write UDP datagrams to a pcap file with Ethernet/IPv4/UDP headers
+     */
+    static void writePcap(File file, List<byte[]> datagrams, int dstPort) throws IOException
+    {
+        try (OutputStream os = new FileOutputStream(file))
+        {
+            ByteBuffer hdr = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+            hdr.putInt(0xa1b2c3d4).putShort((short)2).putShort((short)4).putInt(0).putInt(0).putInt(65535).putInt(1);
+            os.write(hdr.array());
+
+            long timeUs = 0;
+            for (byte[] data: datagrams)
+            {
+                int frameLen = 14 + 20 + 8 + data.length;
+                ByteBuffer rec = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+                rec.putInt((int)(timeUs / 1000000)).putInt((int)(timeUs % 1000000)).putInt(frameLen).putInt(frameLen);
+                os.write(rec.array());
+                timeUs += 100;
+
+                ByteBuffer frame = ByteBuffer.allocate(frameLen);
+                frame.put(new byte[12]).putShort((short)0x0800);
+                frame.put((byte)0x45).put((byte)0).putShort((short)(frameLen - 14)).putInt(0);
+                frame.put((byte)64).put((byte)17).putShort((short)0);
+                frame.put(new byte[] {10, 0, 0, 1, 10, 0, 0, 2});
+                frame.putShort((short)40000).putShort((short)dstPort).putShort((short)(8 + data.length)).putShort((short)0);
+                frame.put(data);
+                os.write(frame.array());
+            }
+        }
+    }
+
+
+    /*
+     * Read UDP payloads sent to the given port (or all if port is 0) from a
+     * pcap file. Supports Ethernet (with VLAN tags), Linux cooked and raw IP
+     * link types with IPv4 only.
+     */
+    static List<byte[]> readPcap(File file, int dstPort) throws IOException
+    {
+        List<byte[]> datagrams = new ArrayList<>();
+
+        try (InputStream is = new FileInputStream(file))
+        {
+            DataInputStream dis = new DataInputStream(is);
+            byte[] hdrBytes = new byte[24];
+            dis.readFully(hdrBytes);
+            ByteBuffer hdr = ByteBuffer.wrap(hdrBytes);
+            int magic = hdr.getInt();
+            if (magic == 0xd4c3b2a1 || magic == 0x4d3cb2a1)
+                hdr.order(ByteOrder.LITTLE_ENDIAN);
+            else if (magic != 0xa1b2c3d4 && magic != 0xa1b23c4d)
+                throw new IOException("Not a pcap file");
+            int linkType = hdr.getInt(20);
+
+            byte[] recHdr = new byte[16];
+            while (true)
+            {
+                try
+                {
+                    dis.readFully(recHdr);
+                }
+                catch (EOFException e)
+                {
+                    break;
+                }
+
+                int inclLen = ByteBuffer.wrap(recHdr).order(hdr.order()).getInt(8);
+                byte[] frameBytes = new byte[inclLen];
+                dis.readFully(frameBytes);
+                ByteBuffer frame = ByteBuffer.wrap(frameBytes);
+
+                int etherType;
+                if (linkType == 1) // Ethernet
+                {
+                    int pos = 12;
+                    etherType = frame.getShort(pos) & 0xFFFF;
+                    while (etherType == 0x8100 && pos + 6 <= inclLen)
+                        etherType = frame.getShort(pos += 4) & 0xFFFF;
+                    frame.position(pos + 2);
+                }
+                else if (linkType == 113) // Linux cooked
+                {
+                    etherType = frame.getShort(14) & 0xFFFF;
+                    frame.position(16);
+                }
+                else if (linkType == 101) // raw IP
+                    etherType = 0x0800;
+                else
+                    throw new IOException("Unsupported link type " + linkType);
+
+                int ipStart = frame.position();
+                if (etherType != 0x0800 || inclLen < ipStart + 28 || (frame.get(ipStart) >> 4) != 4)
+                    continue;
+
+                // skip non UDP packets and IP fragments
+                int ihl = (frame.get(ipStart) & 0xF) * 4;
+                int fragment = frame.getShort(ipStart + 6) & 0x3FFF;
+                if (frame.get(ipStart + 9) != 17 || fragment != 0)
+                    continue;
+
+                int udpStart = ipStart + ihl;
+                int port = frame.getShort(udpStart + 2) & 0xFFFF;
+                int udpLen = frame.getShort(udpStart + 4) & 0xFFFF;
+                if (dstPort != 0 && port != dstPort)
+                    continue;
+
+                int dataLen = Math.min(udpLen - 8, inclLen - udpStart - 8);
+                datagrams.add(Arrays.copyOfRange(frameBytes, udpStart + 8, udpStart + 8 + dataLen));
+            }
+        }
+
+        return datagrams;
+    }
+
+
+    static List<byte[]> roundTripPcap(List<byte[]> datagrams) throws IOException
+    {
+        File file = File.createTempFile("rtp", ".pcap");
+        file.deleteOnExit();
+        try
+        {
+            writePcap(file, datagrams, RTP_PORT);
+            return readPcap(file, RTP_PORT);
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+
+    static FrameCollector replay(RTPH264Receiver receiver, FrameCollector collector, List<byte[]> datagrams)
+    {
+        for (byte[] data: datagrams)
+            receiver.processDatagram(data, 0, data.length);
+        return collector;
+    }
+
+
+    /*
+     * Check that all emitted frames are identical to the original ones and
+     * decodable, i.e. predicted frames are only emitted if all frames since
+     * the previous IDR were also emitted. Return the set of emitted frames.
+     */
+    static BitSet checkIntegrity(Stream stream, FrameCollector collector)
+    {
+        BitSet emitted = new BitSet();
+        int prevIdx = -1;
+
+        for (int i = 0; i < collector.frames.size(); i++)
+        {
+            int idx = (int)((collector.timeStamps.get(i) - 1000) / TS_STEP);
+            assertArrayEquals("Frame " + idx + " is corrupted", stream.frames.get(idx), collector.frames.get(i));
+            assertTrue("Frame " + idx + " emitted out of order", idx > prevIdx);
+            if (idx % GOP_SIZE != 0)
+                assertTrue("Frame " + idx + " emitted after a missing reference frame", emitted.get(idx - 1));
+            emitted.set(idx);
+            prevIdx = idx;
+        }
+
+        return emitted;
+    }
+
+
+    @Test
+    public void testInOrderStream() throws Exception
+    {
+        Stream stream = generateStream(100, 1);
+        FrameCollector collector = new FrameCollector();
+        RTPH264Receiver receiver = new RTPH264Receiver("localhost", 0, 0, collector);
+        replay(receiver, collector, roundTripPcap(stream.packets));
+
+        BitSet emitted = checkIntegrity(stream, collector);
+        assertEquals(stream.frames.size(), emitted.cardinality());
+        assertEquals(0, receiver.getStats().getCumulativeLost());
+        assertEquals(stream.packets.size(), receiver.getStats().getReceived());
+    }
+
+
+    @Test
+    public void testReorderedAndDuplicatePackets() throws Exception
+    {
+        Stream stream = generateStream(100, 2);
+        int depth = 10;
+        Random rand = new Random(2);
+
+        // swap packets with others at most depth positions further
+        List<byte[]> packets = new ArrayList<>(stream.packets);
+        // first packet is kept in place since it sets the initial sequence number
+        for (int i = 1; i < packets.size() - depth; i += depth + 1)
+            Collections.swap(packets, i, i + 1 + rand.nextInt(depth));
+
+        // duplicate some packets
+        for (int i = packets.size() - 1; i > 0; i -= 7)
+            packets.add(i, packets.get(i - 1));
+
+        FrameCollector collector = new FrameCollector();
+        RTPH264Receiver receiver = new RTPH264Receiver("localhost", 0, 0, depth, collector);
+        replay(receiver, collector, roundTripPcap(packets));
+
+        BitSet emitted = checkIntegrity(stream, collector);
+        assertEquals(stream.frames.size(), emitted.cardinality());
+        assertEquals(0, receiver.getStats().getNumDroppedFrames());
+        assertTrue(receiver.getStats().getNumLatePackets() > 0);
+    }
+
+
+    @Test
+    public void testSkipToNextKeyFrame() throws Exception
+    {
+        Stream stream = generateStream(100, 3);
+        int lostFrame = 40;
+        int lostPacket = stream.packetFrameIdx.indexOf(lostFrame);
+        int lostSeqNum = (FIRST_SEQ_NUM + lostPacket) & 0xFFFF;
+
+        List<byte[]> packets = new ArrayList<>(stream.packets);
+        packets.remove(lostPacket);
+
+        FrameCollector collector = new FrameCollector();
+        FeedbackRecorder feedback = new FeedbackRecorder();
+        RTPH264Receiver receiver = new RTPH264Receiver("localhost", 0, 0, collector);
+        receiver.setFeedbackSender(feedback, true, true);
+        replay(receiver, collector, roundTripPcap(packets));
+
+        // all frames until next GOP must be skipped
+        BitSet emitted = checkIntegrity(stream, collector);
+        for (int i = 0; i < stream.frames.size(); i++)
+            assertEquals("Frame " + i, i < lostFrame || i >= 60, emitted.get(i));
+
+        assertEquals(1, receiver.getStats().getCumulativeLost());
+        assertEquals(Arrays.asList((long)lostSeqNum), feedback.nackedSeqNums);
+        assertTrue(feedback.numPli > 0);
+    }
+
+
+    @Test
+    public void testSequenceNumberJump() throws Exception
+    {
+        Stream stream = generateStream(100, 6);
+
+        // sender restarts with new sequence numbers at the start of a GOP
+        int jumpPacket = stream.packetFrameIdx.indexOf(2 * GOP_SIZE);
+        List<byte[]> packets = new ArrayList<>();
+        for (int i = 0; i < stream.packets.size(); i++)
+        {
+            byte[] pkt = stream.packets.get(i).clone();
+            if (i >= jumpPacket)
+            {
+                int seqNum = ((pkt[2] & 0xFF) << 8 | (pkt[3] & 0xFF)) + 20000;
+                pkt[2] = (byte)(seqNum >> 8);
+                pkt[3] = (byte)seqNum;
+            }
+            packets.add(pkt);
+        }
+
+        FrameCollector collector = new FrameCollector();
+        FeedbackRecorder feedback = new FeedbackRecorder();
+        RTPH264Receiver receiver = new RTPH264Receiver("localhost", 0, 0, collector);
+        receiver.setFeedbackSender(feedback, true, true);
+        replay(receiver, collector, roundTripPcap(packets));
+
+        // the jump must not be handled as a loss
+        BitSet emitted = checkIntegrity(stream, collector);
+        assertEquals(stream.frames.size(), emitted.cardinality());
+        assertEquals(0, receiver.getStats().getCumulativeLost());
+        assertTrue(feedback.nackedSeqNums.isEmpty());
+        assertEquals(0, feedback.numPli);
+    }
+
+
+    @Test
+    public void testLossyLink() throws Exception
+    {
+        Stream stream = generateStream(600, 4);
+        Random rand = new Random(4);
+
+        // drop 0.5% of packets and reorder some
+        List<byte[]> packets = new ArrayList<>();
+        int numLost = 0;
+        for (byte[] pkt: stream.packets)
+        {
+            if (rand.nextInt(1000) < 5)
+                numLost++;
+            else
+                packets.add(pkt);
+        }
+        for (int i = 1; i < packets.size() - 3; i += 20)
+            Collections.swap(packets, i, i + 3);
+
+        FrameCollector collector = new FrameCollector();
+        RTPH264Receiver receiver = new RTPH264Receiver("localhost", 0, 0, collector);
+        replay(receiver, collector, roundTripPcap(packets));
+
+        BitSet emitted = checkIntegrity(stream, collector);
+        assertEquals(numLost, receiver.getStats().getCumulativeLost());
+        assertTrue(emitted.cardinality() > 0);
+        assertEquals(emitted.cardinality(), receiver.getStats().getNumFrames());
+    }
+
+
+    @Test
+    public void testLongStream() throws Exception
+    {
+        Stream stream = generateStream(3000, 5);
+        List<byte[]> packets = roundTripPcap(stream.packets);
+
+        FrameCollector collector = new FrameCollector();
+        RTPH264Receiver receiver = new RTPH264Receiver("localhost", 0, 0, collector);
+        replay(receiver, collector, packets);
+
+        assertEquals(stream.frames.size(), collector.frames.size());
+        checkIntegrity(stream, collector);
+    }
+
+
+    @Test
+    public void testThroughput() throws Exception
+    {
+        assumeTrue("Benchmark only runs with -Drtp.benchmark=true", Boolean.getBoolean("rtp.benchmark"));
+
+        Stream stream = generateStream(3000, 5);
+        List<byte[]> packets = roundTripPcap(stream.packets);
+
+        // warm up
+        replay(new RTPH264Receiver("localhost", 0, 0, new FrameCollector()), null, packets);
+
+        FrameCollector collector = new FrameCollector();
+        RTPH264Receiver receiver = new RTPH264Receiver("localhost", 0, 0, collector);
+        long t0 = System.nanoTime();
+        replay(receiver, collector, packets);
+        double dt = (System.nanoTime() - t0) / 1e9;
+
+        assertEquals(stream.frames.size(), collector.frames.size());
+        System.out.printf("%d frames, %.1f MB/s%n", collector.frames.size(), collector.numBytes / dt / 1e6);
+    }
+
+
+    @Test
+    public void testReplayCapture() throws Exception
+    {
+        String pcapPath = System.getProperty("rtp.pcap");
+        assumeTrue("Capture replay only runs with -Drtp.pcap=file.pcap", pcapPath != null);
+
+        int port = Integer.parseInt(System.getProperty("rtp.port", "0"));
+        List<byte[]> packets = readPcap(new File(pcapPath), port);
+
+        FrameCollector collector = new FrameCollector();
+        RTPH264Receiver receiver = new RTPH264Receiver("localhost", 0, 0, collector);
+        replay(receiver, collector, packets);
+
+        // optionally save the reassembled stream for inspection with a player
+        String outPath = System.getProperty("rtp.h264out");
+        if (outPath != null)
+        {
+            try (DataOutputStream os = new DataOutputStream(new FileOutputStream(outPath)))
+            {
+                for (byte[] frame: collector.frames)
+                    os.write(frame);
+            }
+        }
+
+        assertTrue(collector.frames.size() > 0);
+    }
+}
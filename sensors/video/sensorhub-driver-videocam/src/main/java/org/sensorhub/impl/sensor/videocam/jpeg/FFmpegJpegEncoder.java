@@ -0,0 +1,279 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.videocam.jpeg;
+
+import static org.bytedeco.ffmpeg.global.avcodec.*;
+import static org.bytedeco.ffmpeg.global.avutil.*;
+import static org.bytedeco.ffmpeg.global.swscale.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.bytedeco.ffmpeg.avcodec.AVCodec;
+import org.bytedeco.ffmpeg.avcodec.AVCodecContext;
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.bytedeco.ffmpeg.avutil.AVFrame;
+import org.bytedeco.ffmpeg.swscale.SwsContext;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.javacpp.PointerPointer;
+
+
+/**
+ * <p>
+ * JPEG encoder using the FFmpeg MJPEG encoder through JavaCPP.<br/>
+ * The conversion from RGB/BGR(A), gray or YUV input to the YUV 4:2:0 layout
+ * of the encoder is done natively by swscale, so pixels are never swizzled
+ * in Java. Direct byte buffers are read in place, while arrays are copied to
+ * a native buffer allocated once.
+ * The codec context, frame and packet are reused between frames.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class FFmpegJpegEncoder extends JpegEncoder
+{
+    AVCodecContext codecCtx;
+    SwsContext swsCtx;
+    AVFrame yuvFrame;
+    AVPacket packet;
+    BytePointer nativeBuffer;
+    PointerPointer<BytePointer> srcData;
+    IntPointer srcStride;
+    long pts;
+
+
+    /**
+     * @return True if FFmpeg native libraries can be loaded and provide an MJPEG encoder
+     */
+    public static boolean isAvailable()
+    {
+        AVCodec codec = avcodec_find_encoder(AV_CODEC_ID_MJPEG);
+        return codec != null && !codec.isNull();
+    }
+
+
+    public FFmpegJpegEncoder(int width, int height, RawPixelFormat pixelFormat, float quality)
+    {
+        super(width, height, pixelFormat, quality);
+
+        try
+        {
+            AVCodec codec = avcodec_find_encoder(AV_CODEC_ID_MJPEG);
+            if (codec == null || codec.isNull())
+                throw new IllegalStateException("FFmpeg MJPEG encoder not available");
+
+            // use fixed quantizer scale derived from quality
+            // this roughly matches the quality factor of libjpeg/ImageIO
+            int qscale = Math.round(2 + (1.0f - quality) * 29);
+            codecCtx = avcodec_alloc_context3(codec);
+            codecCtx.width(width);
+            codecCtx.height(height);
+            codecCtx.pix_fmt(AV_PIX_FMT_YUVJ420P);
+            codecCtx.time_base(av_make_q(1, 30));
+            codecCtx.flags(codecCtx.flags() | AV_CODEC_FLAG_QSCALE);
+            codecCtx.global_quality(FF_QP2LAMBDA * qscale);
+            if (avcodec_open2(codecCtx, codec, (PointerPointer<?>)null) < 0)
+                throw new IllegalStateException("Could not open FFmpeg MJPEG encoder");
+
+            yuvFrame = av_frame_alloc();
+            yuvFrame.format(AV_PIX_FMT_YUVJ420P);
+            yuvFrame.width(width);
+            yuvFrame.height(height);
+            yuvFrame.quality(codecCtx.global_quality());
+            if (av_frame_get_buffer(yuvFrame, 0) < 0)
+                throw new IllegalStateException("Could not allocate YUV frame");
+
+            swsCtx = sws_getContext(width, height, getFFmpegPixelFormat(pixelFormat),
+                width, height, AV_PIX_FMT_YUVJ420P, SWS_BILINEAR, null, null, (DoublePointer)null);
+            if (swsCtx == null || swsCtx.isNull())
+                throw new IllegalStateException("Could not create color converter for " + pixelFormat);
+
+            packet = av_packet_alloc();
+            srcData = new PointerPointer<>(4);
+            srcStride = new IntPointer(4);
+        }
+        catch (RuntimeException e)
+        {
+            close();
+            throw e;
+        }
+    }
+
+
+    static int getFFmpegPixelFormat(RawPixelFormat pixelFormat)
+    {
+        switch (pixelFormat)
+        {
+            case RGB24: return AV_PIX_FMT_RGB24;
+            case BGR24: return AV_PIX_FMT_BGR24;
+            case RGBA32: return AV_PIX_FMT_RGBA;
+            case BGRA32: return AV_PIX_FMT_BGRA;
+            case GRAY8: return AV_PIX_FMT_GRAY8;
+            case YUYV: return AV_PIX_FMT_YUYV422;
+            case NV12: return AV_PIX_FMT_NV12;
+            case I420: return AV_PIX_FMT_YUV420P;
+            default: throw new IllegalArgumentException("Unsupported pixel format: " + pixelFormat);
+        }
+    }
+
+
+    @Override
+    public byte[] encode(byte[] src, int offset, int stride) throws IOException
+    {
+        int frameSize = checkFrameSize(src.length - offset, stride);
+
+        if (nativeBuffer == null || nativeBuffer.capacity() < frameSize)
+        {
+            if (nativeBuffer != null)
+                nativeBuffer.deallocate();
+            nativeBuffer = new BytePointer(frameSize);
+        }
+
+        nativeBuffer.position(0).put(src, offset, frameSize);
+        return encodeNative(nativeBuffer, stride);
+    }
+
+
+    @Override
+    public byte[] encode(ByteBuffer src, int stride) throws IOException
+    {
+        checkFrameSize(src.remaining(), stride);
+
+        if (src.isDirect())
+        {
+            // read pixels in place from the direct buffer
+            try (var ptr = new BytePointer(src.slice()))
+            {
+                return encodeNative(ptr, stride);
+            }
+        }
+        else if (src.hasArray())
+            return encode(src.array(), src.arrayOffset() + src.position(), stride);
+        else
+        {
+            var b = new byte[src.remaining()];
+            src.duplicate().get(b);
+            return encode(b, 0, stride);
+        }
+    }
+
+
+    protected byte[] encodeNative(BytePointer src, int stride) throws IOException
+    {
+        if (codecCtx == null)
+            throw new IOException("Encoder is closed");
+
+        // convert to YUV directly into the frame buffer
+        if (av_frame_make_writable(yuvFrame) < 0)
+            throw new IOException("Could not make frame writable");
+        setSourcePlanes(src, stride);
+        sws_scale(swsCtx, srcData, srcStride, 0, height, yuvFrame.data(), yuvFrame.linesize());
+
+        // encode, MJPEG has no delay so we get the packet immediately
+        yuvFrame.pts(pts++);
+        int ret = avcodec_send_frame(codecCtx, yuvFrame);
+        if (ret < 0)
+            throw new IOException("Error sending frame to MJPEG encoder: " + ret);
+
+        ret = avcodec_receive_packet(codecCtx, packet);
+        if (ret < 0)
+            throw new IOException("Error receiving packet from MJPEG encoder: " + ret);
+
+        try
+        {
+            var jpeg = new byte[packet.size()];
+            packet.data().capacity(jpeg.length).position(0).get(jpeg);
+            return jpeg;
+        }
+        finally
+        {
+            av_packet_unref(packet);
+        }
+    }
+
+
+    /*
+     * Set pointers and strides of all planes of the source frame
+     */
+    protected void setSourcePlanes(BytePointer src, int stride)
+    {
+        srcData.put(0, src);
+        srcStride.put(0, stride);
+
+        int lumaSize = stride * height;
+        if (pixelFormat == RawPixelFormat.NV12)
+        {
+            srcData.put(1, new BytePointer(src).position(src.position() + lumaSize));
+            srcStride.put(1, stride);
+        }
+        else if (pixelFormat == RawPixelFormat.I420)
+        {
+            int chromaStride = RawPixelFormat.getChromaStride(stride);
+            int chromaSize = chromaStride * ((height + 1) / 2);
+            srcData.put(1, new BytePointer(src).position(src.position() + lumaSize));
+            srcData.put(2, new BytePointer(src).position(src.position() + lumaSize + chromaSize));
+            srcStride.put(1, chromaStride);
+            srcStride.put(2, chromaStride);
+        }
+    }
+
+
+    @Override
+    public void close()
+    {
+        if (codecCtx != null)
+        {
+            avcodec_free_context(codecCtx);
+            codecCtx = null;
+        }
+
+        if (yuvFrame != null)
+        {
+            av_frame_free(yuvFrame);
+            yuvFrame = null;
+        }
+
+        if (packet != null)
+        {
+            av_packet_free(packet);
+            packet = null;
+        }
+
+        if (swsCtx != null)
+        {
+            sws_freeContext(swsCtx);
+            swsCtx = null;
+        }
+
+        if (nativeBuffer != null)
+        {
+            nativeBuffer.deallocate();
+            nativeBuffer = null;
+        }
+
+        if (srcData != null)
+        {
+            srcData.deallocate();
+            srcData = null;
+        }
+
+        if (srcStride != null)
+        {
+            srcStride.deallocate();
+            srcStride = null;
+        }
+    }
+}
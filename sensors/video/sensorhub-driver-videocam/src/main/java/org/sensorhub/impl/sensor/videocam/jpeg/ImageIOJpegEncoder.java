@@ -0,0 +1,201 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.videocam.jpeg;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+
+/**
+ * <p>
+ * Pure Java JPEG encoder based on ImageIO, used when the native encoder is
+ * not available.<br/>
+ * Frames are copied into a standard BGR or gray image allocated once, since
+ * ImageIO only uses its fast path for these image types. Rows are copied in
+ * bulk when the input is already BGR or gray, and YUV input is converted to
+ * BGR. The image writer and output buffer are also reused between frames.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class ImageIOJpegEncoder extends JpegEncoder
+{
+    final ImageWriter writer;
+    final ImageWriteParam writeParam;
+    final BufferedImage img;
+    final byte[] imgData;
+    final IIOImage iioImage;
+    final ByteArrayOutputStream os;
+    byte[] copyBuffer;
+
+
+    public ImageIOJpegEncoder(int width, int height, RawPixelFormat pixelFormat, float quality)
+    {
+        super(width, height, pixelFormat, quality);
+
+        var it = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!it.hasNext())
+            throw new IllegalStateException("No ImageIO JPEG writer available");
+        this.writer = it.next();
+
+        this.writeParam = writer.getDefaultWriteParam();
+        writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        writeParam.setCompressionQuality(quality);
+
+        int imgType = pixelFormat.isGray() ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_3BYTE_BGR;
+        this.img = new BufferedImage(width, height, imgType);
+        this.imgData = ((DataBufferByte)img.getRaster().getDataBuffer()).getData();
+        this.iioImage = new IIOImage(img, null, null);
+        this.os = new ByteArrayOutputStream(width * height / 4);
+    }
+
+
+    @Override
+    public byte[] encode(byte[] src, int offset, int stride) throws IOException
+    {
+        checkFrameSize(src.length - offset, stride);
+
+        if (pixelFormat == RawPixelFormat.BGR24 || pixelFormat == RawPixelFormat.GRAY8)
+        {
+            // same layout as image, copy rows in bulk
+            int rowSize = width * pixelFormat.getBytesPerPixel();
+            for (int y = 0; y < height; y++)
+                System.arraycopy(src, offset + y * stride, imgData, y * rowSize, rowSize);
+        }
+        else if (pixelFormat.isYUV())
+            convertYUV(src, offset, stride);
+        else
+        {
+            int[] bands = pixelFormat.getBandOffsets();
+            int r = bands[0], g = bands[1], b = bands[2];
+            int bpp = pixelFormat.getBytesPerPixel();
+            int dst = 0;
+
+            for (int y = 0; y < height; y++)
+            {
+                int p = offset + y * stride;
+                for (int x = 0; x < width; x++, p += bpp)
+                {
+                    imgData[dst++] = src[p + b];
+                    imgData[dst++] = src[p + g];
+                    imgData[dst++] = src[p + r];
+                }
+            }
+        }
+
+        os.reset();
+        try (var ios = new MemoryCacheImageOutputStream(os))
+        {
+            writer.setOutput(ios);
+            writer.write(null, iioImage, writeParam);
+        }
+        finally
+        {
+            writer.setOutput(null);
+        }
+
+        return os.toByteArray();
+    }
+
+
+    /*
+     * Convert YUV pixels to BGR, with U and V samples shared by
+     * 2 pixels horizontally (and 2 rows for 4:2:0 formats)
+     */
+    protected void convertYUV(byte[] src, int offset, int stride)
+    {
+        int lumaSize = stride * height;
+        int chromaStride = RawPixelFormat.getChromaStride(stride);
+        int chromaSize = chromaStride * ((height + 1) / 2);
+        int dst = 0;
+
+        for (int y = 0; y < height; y++)
+        {
+            int row = offset + y * stride;
+            for (int x = 0; x < width; x++)
+            {
+                int lum, u, v;
+                switch (pixelFormat)
+                {
+                    case YUYV:
+                        int p = row + (x & ~1) * 2;
+                        lum = src[row + x * 2] & 0xFF;
+                        u = src[p + 1] & 0xFF;
+                        v = src[p + 3] & 0xFF;
+                        break;
+
+                    case NV12:
+                        int uv = offset + lumaSize + (y / 2) * stride + (x & ~1);
+                        lum = src[row + x] & 0xFF;
+                        u = src[uv] & 0xFF;
+                        v = src[uv + 1] & 0xFF;
+                        break;
+
+                    default: // I420
+                        int c = offset + lumaSize + (y / 2) * chromaStride + x / 2;
+                        lum = src[row + x] & 0xFF;
+                        u = src[c] & 0xFF;
+                        v = src[c + chromaSize] & 0xFF;
+                        break;
+                }
+
+                // BT.601 limited range to RGB
+                int l = 298 * (lum - 16) + 128;
+                int d = u - 128;
+                int e = v - 128;
+                imgData[dst++] = clamp((l + 516 * d) >> 8);
+                imgData[dst++] = clamp((l - 100 * d - 208 * e) >> 8);
+                imgData[dst++] = clamp((l + 409 * e) >> 8);
+            }
+        }
+    }
+
+
+    static byte clamp(int val)
+    {
+        return (byte)Math.max(0, Math.min(255, val));
+    }
+
+
+    @Override
+    public byte[] encode(ByteBuffer src, int stride) throws IOException
+    {
+        if (src.hasArray())
+            return encode(src.array(), src.arrayOffset() + src.position(), stride);
+
+        // direct buffers have to be copied to the heap in one go
+        int frameSize = checkFrameSize(src.remaining(), stride);
+        if (copyBuffer == null || copyBuffer.length < frameSize)
+            copyBuffer = new byte[frameSize];
+        src.duplicate().get(copyBuffer, 0, frameSize);
+        return encode(copyBuffer, 0, stride);
+    }
+
+
+    @Override
+    public void close()
+    {
+        writer.dispose();
+    }
+}
@@ -0,0 +1,116 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.videocam.jpeg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+
+/**
+ * <p>
+ * Base class for JPEG encoders configured for a given frame size and pixel
+ * format. Encoders keep their working buffers between frames and are not
+ * thread-safe, so they are usually leased from a {@link JpegEncoderPool}.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public abstract class JpegEncoder implements AutoCloseable
+{
+    protected final int width;
+    protected final int height;
+    protected final RawPixelFormat pixelFormat;
+    protected final float quality;
+
+
+    protected JpegEncoder(int width, int height, RawPixelFormat pixelFormat, float quality)
+    {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Invalid frame size: " + width + "x" + height);
+        if (quality <= 0 || quality > 1)
+            throw new IllegalArgumentException("Quality must be in ]0,1]");
+
+        this.width = width;
+        this.height = height;
+        this.pixelFormat = pixelFormat;
+        this.quality = quality;
+    }
+
+
+    /**
+     * Encode a frame held in a byte array
+     * @param src Array containing the raw pixels
+     * @param offset Offset of the first pixel in the array
+     * @param stride Number of bytes between the start of two consecutive rows
+     * @return The JPEG image
+     * @throws IOException if the frame cannot be encoded
+     */
+    public abstract byte[] encode(byte[] src, int offset, int stride) throws IOException;
+
+
+    /**
+     * Encode a frame held in a byte buffer, starting at the buffer position.<br/>
+     * Direct buffers are read in place by native encoders.
+     * The buffer position is not modified.
+     * @param src Buffer containing the raw pixels
+     * @param stride Number of bytes between the start of two consecutive rows
+     * @return The JPEG image
+     * @throws IOException if the frame cannot be encoded
+     */
+    public abstract byte[] encode(ByteBuffer src, int stride) throws IOException;
+
+
+    @Override
+    public abstract void close();
+
+
+    protected int checkFrameSize(int available, int stride)
+    {
+        int rowSize = width * pixelFormat.getBytesPerPixel();
+        if (stride < rowSize)
+            throw new IllegalArgumentException("Stride must be at least " + rowSize);
+
+        int frameSize = pixelFormat.getFrameSize(width, height, stride);
+        if (available < frameSize)
+            throw new IllegalArgumentException("Frame needs " + frameSize + " bytes but only " + available + " are available");
+
+        return frameSize;
+    }
+
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+
+    public RawPixelFormat getPixelFormat()
+    {
+        return pixelFormat;
+    }
+
+
+    public float getQuality()
+    {
+        return quality;
+    }
+}
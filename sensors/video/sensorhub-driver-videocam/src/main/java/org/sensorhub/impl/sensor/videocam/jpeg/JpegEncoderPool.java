@@ -0,0 +1,240 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.videocam.jpeg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * <p>
+ * Pool of JPEG encoders shared by camera drivers producing MJPEG streams.<br/>
+ * Encoders are created on demand for each combination of frame size, pixel
+ * format and quality, and kept idle between frames so their native buffers
+ * are reused. The FFmpeg encoder is used when the JavaCPP FFmpeg libraries
+ * are available at runtime, otherwise the pool falls back to ImageIO.
+ * </p><p>
+ * This class is thread-safe. Several threads can encode frames of the same
+ * type concurrently, each one using its own encoder.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class JpegEncoderPool
+{
+    static final Logger log = LoggerFactory.getLogger(JpegEncoderPool.class);
+
+    public static final float DEFAULT_QUALITY = 0.75f;
+    public static final int DEFAULT_MAX_IDLE = 4;
+
+    private static JpegEncoderPool defaultPool;
+
+    final boolean useNative;
+    final int maxIdlePerType;
+    final Map<EncoderType, BlockingQueue<JpegEncoder>> idleEncoders = new ConcurrentHashMap<>();
+
+
+    static final class EncoderType
+    {
+        final int width;
+        final int height;
+        final RawPixelFormat pixelFormat;
+        final float quality;
+
+        EncoderType(int width, int height, RawPixelFormat pixelFormat, float quality)
+        {
+            this.width = width;
+            this.height = height;
+            this.pixelFormat = Objects.requireNonNull(pixelFormat);
+            this.quality = quality;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof EncoderType))
+                return false;
+            var other = (EncoderType)obj;
+            return width == other.width &&
+                height == other.height &&
+                pixelFormat == other.pixelFormat &&
+                quality == other.quality;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(width, height, pixelFormat, quality);
+        }
+    }
+
+
+    /**
+     * @return The pool shared by all camera drivers, using the native
+     * encoder if available
+     */
+    public static synchronized JpegEncoderPool getDefault()
+    {
+        if (defaultPool == null)
+            defaultPool = new JpegEncoderPool(isNativeEncoderAvailable(), DEFAULT_MAX_IDLE);
+        return defaultPool;
+    }
+
+
+    /**
+     * @return True if the FFmpeg native encoder can be used on this platform
+     */
+    public static boolean isNativeEncoderAvailable()
+    {
+        try
+        {
+            if (FFmpegJpegEncoder.isAvailable())
+                return true;
+            
+            log.info("FFmpeg libraries don't provide an MJPEG encoder, falling back to ImageIO");
+            return false;
+        }
+        catch (Throwable e)
+        {
+            // JavaCPP classes or native libs not found
+            log.info("FFmpeg libraries not found, falling back to ImageIO JPEG encoder");
+            log.debug("FFmpeg JPEG encoder not available", e);
+            return false;
+        }
+    }
+
+
+    /**
+     * @param useNative True to use the FFmpeg encoder, false to use ImageIO
+     * @param maxIdlePerType Max number of idle encoders kept for each frame type
+     */
+    public JpegEncoderPool(boolean useNative, int maxIdlePerType)
+    {
+        this.useNative = useNative;
+        this.maxIdlePerType = maxIdlePerType;
+        log.info("Using {} for JPEG compression",
+            useNative ? FFmpegJpegEncoder.class.getSimpleName() : ImageIOJpegEncoder.class.getSimpleName());
+    }
+
+
+    /**
+     * Encode a frame held in a byte array with the default quality
+     * @see JpegEncoder#encode(byte[], int, int)
+     */
+    public byte[] encode(byte[] src, int offset, int width, int height, int stride, RawPixelFormat pixelFormat) throws IOException
+    {
+        var encoder = acquire(width, height, pixelFormat, DEFAULT_QUALITY);
+        try
+        {
+            return encoder.encode(src, offset, stride);
+        }
+        finally
+        {
+            release(encoder);
+        }
+    }
+
+
+    /**
+     * Encode a frame held in a byte buffer with the default quality
+     * @see JpegEncoder#encode(ByteBuffer, int)
+     */
+    public byte[] encode(ByteBuffer src, int width, int height, int stride, RawPixelFormat pixelFormat) throws IOException
+    {
+        var encoder = acquire(width, height, pixelFormat, DEFAULT_QUALITY);
+        try
+        {
+            return encoder.encode(src, stride);
+        }
+        finally
+        {
+            release(encoder);
+        }
+    }
+
+
+    /**
+     * Lease an encoder from the pool, or create a new one if none is idle.<br/>
+     * The encoder must be given back with {@link #release(JpegEncoder)}.
+     * @param width Frame width in pixels
+     * @param height Frame height in pixels
+     * @param pixelFormat Layout of the raw pixels
+     * @param quality JPEG quality between 0 and 1
+     * @return The encoder
+     */
+    public JpegEncoder acquire(int width, int height, RawPixelFormat pixelFormat, float quality)
+    {
+        var type = new EncoderType(width, height, pixelFormat, quality);
+        var idle = idleEncoders.get(type);
+        if (idle != null)
+        {
+            var encoder = idle.poll();
+            if (encoder != null)
+                return encoder;
+        }
+
+        JpegEncoder encoder;
+        if (useNative)
+            encoder = new FFmpegJpegEncoder(width, height, pixelFormat, quality);
+        else
+            encoder = new ImageIOJpegEncoder(width, height, pixelFormat, quality);
+        
+        log.debug("Created {} for {}x{} {} frames, quality={}",
+            encoder.getClass().getSimpleName(), width, height, pixelFormat, quality);
+        return encoder;
+    }
+
+
+    /**
+     * Give an encoder back to the pool.<br/>
+     * The encoder is closed if enough encoders of the same type are already idle.
+     * @param encoder The encoder to release
+     */
+    public void release(JpegEncoder encoder)
+    {
+        var type = new EncoderType(encoder.getWidth(), encoder.getHeight(), encoder.getPixelFormat(), encoder.getQuality());
+        var idle = idleEncoders.computeIfAbsent(type, k -> new ArrayBlockingQueue<>(maxIdlePerType));
+        if (!idle.offer(encoder))
+            encoder.close();
+    }
+
+
+    /**
+     * Close all idle encoders
+     */
+    public void clear()
+    {
+        for (var idle: idleEncoders.values())
+        {
+            JpegEncoder encoder;
+            while ((encoder = idle.poll()) != null)
+                encoder.close();
+        }
+    }
+
+
+    public boolean isNative()
+    {
+        return useNative;
+    }
+}
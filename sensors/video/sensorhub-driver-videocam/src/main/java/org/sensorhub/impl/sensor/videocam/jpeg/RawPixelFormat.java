@@ -0,0 +1,115 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.videocam.jpeg;
+
+
+/**
+ * <p>
+ * Layout of uncompressed 8-bit pixels, as produced by camera SDKs.
+ * Alpha channels are ignored by encoders.
+ * </p><p>
+ * YUV formats use BT.601 limited range samples. Planes of planar formats are
+ * stored one after the other, and the stride given to encoders is the stride
+ * of the luma plane. The interleaved UV plane of NV12 has the same stride,
+ * while the U and V planes of I420 have half the luma stride (rounded up).
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public enum RawPixelFormat
+{
+    RGB24(3, 0, 1, 2),
+    BGR24(3, 2, 1, 0),
+    RGBA32(4, 0, 1, 2),
+    BGRA32(4, 2, 1, 0),
+    GRAY8(1, 0),
+    YUYV(2),  // packed 4:2:2, Y0 U Y1 V
+    NV12(1),  // Y plane followed by interleaved 4:2:0 UV plane
+    I420(1);  // Y plane followed by 4:2:0 U and V planes
+
+
+    private final int bytesPerPixel;
+    private final int[] bandOffsets;
+
+
+    RawPixelFormat(int bytesPerPixel, int... bandOffsets)
+    {
+        this.bytesPerPixel = bytesPerPixel;
+        this.bandOffsets = bandOffsets;
+    }
+
+
+    /**
+     * @return Number of bytes per pixel, or of the luma plane for planar formats
+     */
+    public int getBytesPerPixel()
+    {
+        return bytesPerPixel;
+    }
+
+
+    /**
+     * @return Offsets of the R, G and B bytes (or the single gray byte) within
+     * a pixel, or an empty array for YUV formats
+     */
+    public int[] getBandOffsets()
+    {
+        return bandOffsets.clone();
+    }
+
+
+    public boolean isGray()
+    {
+        return bandOffsets.length == 1;
+    }
+
+
+    public boolean isYUV()
+    {
+        return bandOffsets.length == 0;
+    }
+
+
+    /**
+     * Compute the number of bytes needed to hold a frame
+     * @param width Frame width in pixels
+     * @param height Frame height in pixels
+     * @param stride Number of bytes between the start of two consecutive rows
+     * of the first plane
+     * @return Frame size in bytes. Padding after the last row is not needed
+     * for packed formats.
+     */
+    public int getFrameSize(int width, int height, int stride)
+    {
+        int chromaHeight = (height + 1) / 2;
+        switch (this)
+        {
+            case NV12: return stride * (height + chromaHeight);
+            case I420: return stride * height + 2 * getChromaStride(stride) * chromaHeight;
+            default: return stride * (height - 1) + width * bytesPerPixel;
+        }
+    }
+
+
+    /**
+     * @param stride Stride of the luma plane
+     * @return Stride of the U and V planes of I420 frames
+     */
+    public static int getChromaStride(int stride)
+    {
+        return (stride + 1) / 2;
+    }
+}
@@ -0,0 +1,320 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.test.sensor.videocam;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+import org.sensorhub.impl.sensor.videocam.jpeg.JpegEncoder;
+import org.sensorhub.impl.sensor.videocam.jpeg.JpegEncoderPool;
+import org.sensorhub.impl.sensor.videocam.jpeg.RawPixelFormat;
+
+
+public class TestJpegEncoder
+{
+    static final int WIDTH = 640;
+    static final int HEIGHT = 480;
+
+
+    /*
+     * Frame with a red left half and a blue right half
+     */
+    static byte[] makeFrame(RawPixelFormat fmt, int stride)
+    {
+        if (fmt.isYUV())
+            return makeYUVFrame(fmt, stride);
+
+        var frame = new byte[stride * HEIGHT];
+        int[] offsets = fmt.getBandOffsets();
+        int bpp = fmt.getBytesPerPixel();
+
+        for (int y = 0; y < HEIGHT; y++)
+        {
+            for (int x = 0; x < WIDTH; x++)
+            {
+                int p = y * stride + x * bpp;
+                if (fmt.isGray())
+                    frame[p] = (byte)(x < WIDTH / 2 ? 200 : 50);
+                else
+                {
+                    frame[p + offsets[0]] = (byte)(x < WIDTH / 2 ? 220 : 10);
+                    frame[p + offsets[1]] = (byte)20;
+                    frame[p + offsets[2]] = (byte)(x < WIDTH / 2 ? 10 : 230);
+                }
+            }
+        }
+
+        return frame;
+    }
+
+
+    /*
+     * Same frame using BT.601 limited range YUV samples
+     */
+    static byte[] makeYUVFrame(RawPixelFormat fmt, int stride)
+    {
+        var frame = new byte[fmt.getFrameSize(WIDTH, HEIGHT, stride)];
+        int lumaSize = stride * HEIGHT;
+        int chromaStride = RawPixelFormat.getChromaStride(stride);
+        int chromaSize = chromaStride * (HEIGHT / 2);
+
+        for (int y = 0; y < HEIGHT; y++)
+        {
+            for (int x = 0; x < WIDTH; x++)
+            {
+                int r = x < WIDTH / 2 ? 220 : 10;
+                int g = 20;
+                int b = x < WIDTH / 2 ? 10 : 230;
+                byte lum = (byte)(((66 * r + 129 * g + 25 * b + 128) >> 8) + 16);
+                byte u = (byte)(((-38 * r - 74 * g + 112 * b + 128) >> 8) + 128);
+                byte v = (byte)(((112 * r - 94 * g - 18 * b + 128) >> 8) + 128);
+
+                switch (fmt)
+                {
+                    case YUYV:
+                        int p = y * stride + (x & ~1) * 2;
+                        frame[y * stride + x * 2] = lum;
+                        frame[p + 1] = u;
+                        frame[p + 3] = v;
+                        break;
+
+                    case NV12:
+                        int uv = lumaSize + (y / 2) * stride + (x & ~1);
+                        frame[y * stride + x] = lum;
+                        frame[uv] = u;
+                        frame[uv + 1] = v;
+                        break;
+
+                    default:
+                        int c = lumaSize + (y / 2) * chromaStride + x / 2;
+                        frame[y * stride + x] = lum;
+                        frame[c] = u;
+                        frame[c + chromaSize] = v;
+                        break;
+                }
+            }
+        }
+
+        return frame;
+    }
+
+
+    static void checkColors(byte[] jpeg, RawPixelFormat fmt) throws Exception
+    {
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertEquals(WIDTH, img.getWidth());
+        assertEquals(HEIGHT, img.getHeight());
+
+        int left = img.getRGB(WIDTH / 4, HEIGHT / 2);
+        int right = img.getRGB(3 * WIDTH / 4, HEIGHT / 2);
+
+        if (fmt.isGray())
+        {
+            // read raw samples since getRGB applies gamma to gray images
+            assertEquals(200, img.getRaster().getSample(WIDTH / 4, HEIGHT / 2, 0), 8);
+            assertEquals(50, img.getRaster().getSample(3 * WIDTH / 4, HEIGHT / 2, 0), 8);
+        }
+        else
+        {
+            assertEquals(220, (left >> 16) & 0xFF, 12);
+            assertEquals(10, left & 0xFF, 12);
+            assertEquals(10, (right >> 16) & 0xFF, 12);
+            assertEquals(230, right & 0xFF, 12);
+        }
+    }
+
+
+    @Test
+    public void testAllPixelFormats() throws Exception
+    {
+        var pool = new JpegEncoderPool(false, 2);
+
+        for (var fmt: RawPixelFormat.values())
+        {
+            // use padded rows to check stride handling
+            int stride = WIDTH * fmt.getBytesPerPixel() + 16;
+            var frame = makeFrame(fmt, stride);
+
+            checkColors(pool.encode(frame, 0, WIDTH, HEIGHT, stride, fmt), fmt);
+
+            // same frame at an offset in a larger array
+            var shifted = new byte[frame.length + 100];
+            System.arraycopy(frame, 0, shifted, 100, frame.length);
+            checkColors(pool.encode(shifted, 100, WIDTH, HEIGHT, stride, fmt), fmt);
+
+            // direct buffer
+            var direct = ByteBuffer.allocateDirect(frame.length);
+            direct.put(frame).flip();
+            checkColors(pool.encode(direct, WIDTH, HEIGHT, stride, fmt), fmt);
+            assertEquals(0, direct.position());
+        }
+    }
+
+
+    @Test
+    public void testNativeEncoder() throws Exception
+    {
+        assumeTrue("FFmpeg is not available on this platform", JpegEncoderPool.isNativeEncoderAvailable());
+
+        var pool = new JpegEncoderPool(true, 2);
+        for (var fmt: RawPixelFormat.values())
+        {
+            int stride = WIDTH * fmt.getBytesPerPixel();
+            var frame = makeFrame(fmt, stride);
+            checkColors(pool.encode(frame, 0, WIDTH, HEIGHT, stride, fmt), fmt);
+
+            var direct = ByteBuffer.allocateDirect(frame.length);
+            direct.put(frame).flip();
+            checkColors(pool.encode(direct, WIDTH, HEIGHT, stride, fmt), fmt);
+        }
+        pool.clear();
+    }
+
+
+    @Test
+    public void testEncoderReuse() throws Exception
+    {
+        var pool = new JpegEncoderPool(false, 1);
+
+        JpegEncoder enc1 = pool.acquire(WIDTH, HEIGHT, RawPixelFormat.RGB24, 0.8f);
+        JpegEncoder enc2 = pool.acquire(WIDTH, HEIGHT, RawPixelFormat.RGB24, 0.8f);
+        assertNotSame(enc1, enc2);
+        pool.release(enc1);
+        pool.release(enc2); // pool is full, this one is closed
+
+        assertSame(enc1, pool.acquire(WIDTH, HEIGHT, RawPixelFormat.RGB24, 0.8f));
+        assertNotSame(enc2, pool.acquire(WIDTH, HEIGHT, RawPixelFormat.RGB24, 0.8f));
+
+        // different frame type
+        pool.release(enc1);
+        assertNotSame(enc1, pool.acquire(WIDTH, HEIGHT, RawPixelFormat.BGRA32, 0.8f));
+    }
+
+
+    @Test
+    public void testConcurrentEncoding() throws Exception
+    {
+        var pool = new JpegEncoderPool(false, 4);
+        var frame = makeFrame(RawPixelFormat.BGR24, WIDTH * 3);
+        List<Throwable> errors = new ArrayList<>();
+
+        var threads = new Thread[3];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread(() -> {
+                try
+                {
+                    for (int j = 0; j < 5; j++)
+                        checkColors(pool.encode(frame, 0, WIDTH, HEIGHT, WIDTH * 3, RawPixelFormat.BGR24), RawPixelFormat.BGR24);
+                }
+                catch (Throwable e)
+                {
+                    synchronized (errors) { errors.add(e); }
+                }
+            });
+            threads[i].start();
+        }
+
+        for (var t: threads)
+            t.join();
+
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+
+    /*
+     * Encoding path previously used by drivers: per pixel swizzling into a new
+     * BufferedImage, then ImageIO.write to a new stream
+     */
+    static byte[] legacyEncode(byte[] bgra) throws Exception
+    {
+        var bufferedImage = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+        var channelData = ((DataBufferByte)bufferedImage.getRaster().getDataBuffer()).getData();
+
+        for (int y = 0; y < HEIGHT; ++y)
+        {
+            for (int x = 0; x < WIDTH; ++x)
+            {
+                int src = 4 * (x + y * WIDTH);
+                int dst = 3 * (x + y * WIDTH);
+                channelData[dst] = bgra[src];
+                channelData[dst + 1] = bgra[src + 1];
+                channelData[dst + 2] = bgra[src + 2];
+            }
+        }
+
+        var byteStream = new ByteArrayOutputStream();
+        var bos = new BufferedOutputStream(byteStream);
+        ImageIO.write(bufferedImage, "jpg", bos);
+        bos.flush();
+        return byteStream.toByteArray();
+    }
+
+
+    static double benchmark(String name, int numFrames, FrameEncoder encoder) throws Exception
+    {
+        // warm up
+        for (int i = 0; i < 10; i++)
+            encoder.encode();
+
+        long t0 = System.nanoTime();
+        long size = 0;
+        for (int i = 0; i < numFrames; i++)
+            size += encoder.encode().length;
+        double fps = numFrames / ((System.nanoTime() - t0) / 1e9);
+
+        System.out.printf("%s: %.1f fps, %d bytes/frame%n", name, fps, size / numFrames);
+        return fps;
+    }
+
+
+    interface FrameEncoder
+    {
+        byte[] encode() throws Exception;
+    }
+
+
+    @Test
+    public void testBenchmarkVsImageIO() throws Exception
+    {
+        assumeTrue("Benchmark only runs with -Dvideocam.benchmark=true", Boolean.getBoolean("videocam.benchmark"));
+
+        int numFrames = 50;
+        var frame = makeFrame(RawPixelFormat.BGRA32, WIDTH * 4);
+
+        benchmark("Legacy ImageIO", numFrames, () -> legacyEncode(frame));
+
+        var javaPool = new JpegEncoderPool(false, 1);
+        benchmark("Pooled ImageIO", numFrames, () -> javaPool.encode(frame, 0, WIDTH, HEIGHT, WIDTH * 4, RawPixelFormat.BGRA32));
+
+        if (JpegEncoderPool.isNativeEncoderAvailable())
+        {
+            var nativePool = new JpegEncoderPool(true, 1);
+            var direct = ByteBuffer.allocateDirect(frame.length);
+            direct.put(frame).flip();
+            benchmark("Pooled FFmpeg", numFrames, () -> nativePool.encode(direct, WIDTH, HEIGHT, WIDTH * 4, RawPixelFormat.BGRA32));
+            nativePool.clear();
+        }
+    }
+}
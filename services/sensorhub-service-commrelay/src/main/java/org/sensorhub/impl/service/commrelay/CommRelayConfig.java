@@ -14,6 +14,8 @@ Copyright (C) 2012-2016 Sensia Software LLC. All Rights Reserved.
 
 package org.sensorhub.impl.service.commrelay;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.sensorhub.api.comm.CommProviderConfig;
 import org.sensorhub.api.config.DisplayInfo;
 import org.sensorhub.api.service.ServiceConfig;
@@ -29,11 +31,30 @@ import org.sensorhub.api.service.ServiceConfig;
  */
 public class CommRelayConfig extends ServiceConfig
 {
+    public enum RelayMode
+    {
+        THREAD_PER_STREAM,
+        SHARED_POLLING
+    }
+    
+
     @DisplayInfo(desc="Communication settings for the incoming stream")
     public CommProviderConfig<?> incomingCommSettings;
     
     @DisplayInfo(desc="Communication settings for the outgoing stream")
     public CommProviderConfig<?> outgoingCommSettings;
     
+    @DisplayInfo(desc="Communication settings for additional outgoing streams. The incoming stream is copied to all of them")
+    public List<CommProviderConfig<?>> additionalOutgoingCommSettings = new ArrayList<>();
+    
+    @DisplayInfo(desc="Relay mode: one blocking thread per stream, or all streams multiplexed on a few threads shared by all relay services")
+    public RelayMode relayMode = RelayMode.THREAD_PER_STREAM;
+    
+    @DisplayInfo(desc="Number of worker threads of the engine shared by all relay services with the same thread count and buffer size (only used in shared polling mode)")
+    public int sharedThreads = 2;
+    
+    @DisplayInfo(desc="Period at which relay throughput statistics are reported, in seconds (0 to disable)")
+    public int statsReportPeriod = 0;
+    
     public int bufferSize = 8092;
 }
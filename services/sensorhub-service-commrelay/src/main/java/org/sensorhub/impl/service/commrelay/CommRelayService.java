@@ -15,11 +15,20 @@ Copyright (C) 2012-2016 Sensia Software LLC. All Rights Reserved.
 package org.sensorhub.impl.service.commrelay;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.sensorhub.api.comm.CommProviderConfig;
 import org.sensorhub.api.comm.ICommProvider;
 import org.sensorhub.api.common.SensorHubException;
 import org.sensorhub.impl.module.AbstractModule;
+import org.sensorhub.impl.service.commrelay.CommRelayConfig.RelayMode;
+import org.sensorhub.utils.NamedThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +38,10 @@ import org.slf4j.LoggerFactory;
  * Comm Relay Service implementation simply forwarding data from incoming input
  * stream to outgoing outputstream, and from outgoing inputstream to incoming
  * outputstream (for commands).
+ * </p><p>
+ * The incoming stream can be copied to several outgoing providers, and
+ * relays can either run on dedicated threads or be multiplexed with relays
+ * of other services on the threads of a shared relay engine.
  * </p>
  *
  * @author Alexandre Robin <alex.robin@sensiasoftware.com>
@@ -37,22 +50,24 @@ import org.slf4j.LoggerFactory;
 public class CommRelayService extends AbstractModule<CommRelayConfig>
 {
     private static final Logger log = LoggerFactory.getLogger(CommRelayService.class);
-    private static final int EOF = -1;
     
     ICommProvider<?> incoming;
     ICommProvider<?> outgoing;
-    boolean started;
+    List<ICommProvider<?>> additionalOutgoing = new ArrayList<>();
+    List<StreamRelay> relays = new ArrayList<>();
+    SharedRelayEngine sharedEngine;
+    ScheduledExecutorService statsTimer;
+    volatile boolean started;
     
     
     class TransferThread extends Thread
     {
-        InputStream input;
-        OutputStream output;
+        StreamRelay relay;
         
-        TransferThread(InputStream input, OutputStream output)
+        TransferThread(StreamRelay relay)
         {
-            this.input = input;
-            this.output = output;
+            super("CommRelay-" + relay.name);
+            this.relay = relay;
         }
         
         @Override
@@ -62,12 +77,7 @@ public class CommRelayService extends AbstractModule<CommRelayConfig>
             
             try
             {
-                if (input != null && output != null)
-                {
-                    int n = 0;
-                    while (started && (n = input.read(buffer)) != EOF)
-                        output.write(buffer, 0, n);
-                }
+                while (started && relay.transfer(buffer, false) != StreamRelay.EOF);
             }
             catch (IOException e)
             {
@@ -85,58 +95,143 @@ public class CommRelayService extends AbstractModule<CommRelayConfig>
 
     @Override
     protected void doStart() throws SensorHubException
+    {
+        try
+        {
+            startProviders();
+            createRelays();
+        }
+        catch (SensorHubException | RuntimeException e)
+        {
+            // don't leak providers that were already started
+            releaseSharedEngine();
+            relays.clear();
+            stopProviders();
+            throw e;
+        }
+        
+        // start transfers
+        started = true;
+        if (sharedEngine != null)
+        {
+            for (var relay: relays)
+                sharedEngine.add(relay);
+        }
+        else
+        {
+            for (var relay: relays)
+                new TransferThread(relay).start();
+        }
+        
+        // start stats reporting
+        if (config.statsReportPeriod > 0)
+        {
+            statsTimer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("CommRelayStats"));
+            statsTimer.scheduleAtFixedRate(this::reportStats, config.statsReportPeriod, config.statsReportPeriod, TimeUnit.SECONDS);
+        }
+    }
+    
+    
+    protected void startProviders() throws SensorHubException
     {
         // start incoming provider
         if (incoming == null)
         {
-            try
-            {
-                if (config.incomingCommSettings == null)
-                    throw new SensorHubException("No incoming communication settings specified");
-                
-                var moduleReg = getParentHub().getModuleRegistry();
-                incoming = (ICommProvider<?>)moduleReg.loadSubModule(config.incomingCommSettings, true);
-                incoming.start();
-            }
-            catch (Exception e)
-            {
-                incoming = null;
-                throw e;
-            }
+            if (config.incomingCommSettings == null)
+                throw new SensorHubException("No incoming communication settings specified");
+            incoming = startProvider(config.incomingCommSettings);
         }
         
         // start ontgoing provider
         if (outgoing == null)
         {
-            try
+            if (config.outgoingCommSettings == null)
+                throw new SensorHubException("No outgoing communication settings specified");
+            outgoing = startProvider(config.outgoingCommSettings);
+        }
+        
+        // start additional outgoing providers
+        if (additionalOutgoing.isEmpty() && config.additionalOutgoingCommSettings != null)
+        {
+            for (var commSettings: config.additionalOutgoingCommSettings)
+                additionalOutgoing.add(startProvider(commSettings));
+        }
+    }
+    
+    
+    protected void createRelays() throws SensorHubException
+    {
+        // outputs of shared relays are written asynchronously
+        // so a slow sink doesn't block other relays
+        var queuedOutputs = new IdentityHashMap<OutputStream, OutputStream>();
+        if (config.relayMode == RelayMode.SHARED_POLLING)
+            sharedEngine = SharedRelayEngine.acquire(config.sharedThreads, config.bufferSize);
+        
+        try
+        {
+            var allOutgoing = new ArrayList<ICommProvider<?>>();
+            allOutgoing.add(outgoing);
+            allOutgoing.addAll(additionalOutgoing);
+            
+            // incoming stream is copied to all outgoing streams
+            var outputs = new ArrayList<OutputStream>();
+            for (var out: allOutgoing)
             {
-                if (config.outgoingCommSettings == null)
-                    throw new SensorHubException("No outgoing communication settings specified");
-                
-                var moduleReg = getParentHub().getModuleRegistry();
-                outgoing = (ICommProvider<?>)moduleReg.loadSubModule(config.outgoingCommSettings, true);
-                outgoing.start();
+                if (out.getOutputStream() != null)
+                    outputs.add(wrapOutput(out.getOutputStream(), queuedOutputs));
             }
-            catch (Exception e)
+            var input = incoming.getInputStream();
+            if (input != null && !outputs.isEmpty())
+                relays.add(new StreamRelay(getLocalID() + "-in", input, outputs));
+            
+            // commands from all outgoing streams are sent to incoming stream
+            var cmdOutput = incoming.getOutputStream();
+            for (int i = 0; i < allOutgoing.size() && cmdOutput != null; i++)
             {
-                outgoing = null;
-                throw e;
+                input = allOutgoing.get(i).getInputStream();
+                if (input != null)
+                    relays.add(new StreamRelay(getLocalID() + "-out" + i, input, List.of(wrapOutput(cmdOutput, queuedOutputs))));
             }
         }
-        
-        // start transfer thread
-        try
+        catch (IOException e)
         {
-            TransferThread t1 = new TransferThread(incoming.getInputStream(), outgoing.getOutputStream());
-            TransferThread t2 = new TransferThread(outgoing.getInputStream(), incoming.getOutputStream());
-            started = true;
-            t1.start();
-            t2.start();
+            throw new SensorHubException("Error while accessing input and output streams", e);
         }
-        catch (IOException e)
+    }
+    
+    
+    protected OutputStream wrapOutput(OutputStream os, Map<OutputStream, OutputStream> queuedOutputs)
+    {
+        if (sharedEngine == null)
+            return os;
+        
+        // use a single queue per output so writes of several relays are not interleaved
+        return queuedOutputs.computeIfAbsent(os, sharedEngine::createQueuedOutput);
+    }
+    
+    
+    protected ICommProvider<?> startProvider(CommProviderConfig<?> commSettings) throws SensorHubException
+    {
+        var moduleReg = getParentHub().getModuleRegistry();
+        var provider = (ICommProvider<?>)moduleReg.loadSubModule(commSettings, true);
+        provider.start();
+        return provider;
+    }
+    
+    
+    protected void reportStats()
+    {
+        var sb = new StringBuilder();
+        for (var relay: relays)
         {
-            throw new SensorHubException("Error while accessing input and output streams");
+            var stats = relay.reportStats();
+            log.debug(stats);
+            if (sb.length() > 0)
+                sb.append("; ");
+            sb.append(stats);
         }
+        
+        reportStatus(sb.toString());
     }
     
 
@@ -145,17 +240,60 @@ public class CommRelayService extends AbstractModule<CommRelayConfig>
     {
         started = false;
         
+        if (statsTimer != null)
+        {
+            statsTimer.shutdownNow();
+            statsTimer = null;
+        }
+        
+        releaseSharedEngine();
+        relays.clear();
+        stopProviders();
+    }
+    
+    
+    protected void releaseSharedEngine()
+    {
+        if (sharedEngine != null)
+        {
+            for (var relay: relays)
+                sharedEngine.remove(relay);
+            SharedRelayEngine.release(sharedEngine);
+            sharedEngine = null;
+        }
+    }
+    
+    
+    protected void stopProviders()
+    {
         if (incoming != null)
         {
-            incoming.stop();
+            stopProvider(incoming);
             incoming = null;
         }
         
         if (outgoing != null)
         {
-            outgoing.stop();
+            stopProvider(outgoing);
             outgoing = null;
         }
+        
+        for (var provider: additionalOutgoing)
+            stopProvider(provider);
+        additionalOutgoing.clear();
+    }
+    
+    
+    protected void stopProvider(ICommProvider<?> provider)
+    {
+        try
+        {
+            provider.stop();
+        }
+        catch (Exception e)
+        {
+            log.error("Error stopping comm provider {}", provider.getName(), e);
+        }
     }
     
 
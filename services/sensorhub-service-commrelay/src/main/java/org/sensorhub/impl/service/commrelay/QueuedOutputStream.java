@@ -0,0 +1,193 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.commrelay;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+
+/**
+ * <p>
+ * Output stream queuing written bytes and writing them to the underlying
+ * stream on a separate thread, so that a slow or blocked sink doesn't stall
+ * the shared relay worker writing to it.<br/>
+ * The queue is bounded. Relays stop reading from their input while one of
+ * their outputs is not writable, so back pressure is only applied to the
+ * relays feeding the slow sink.
+ * </p><p>
+ * Bytes are copied into fixed size blocks that are recycled once written to
+ * the underlying stream, and small writes are appended to the last queued
+ * block, so no memory is allocated once the stream has reached its steady
+ * state.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+class QueuedOutputStream extends OutputStream
+{
+    final OutputStream out;
+    final Executor executor;
+    final int blockSize;
+    final int maxQueuedBytes;
+    final ArrayDeque<Block> queue = new ArrayDeque<>();
+    final ArrayDeque<Block> freeBlocks = new ArrayDeque<>();
+    int queuedBytes;
+    boolean draining;
+    volatile IOException error;
+
+
+    static class Block
+    {
+        final byte[] data;
+        int length;
+
+        Block(int size)
+        {
+            this.data = new byte[size];
+        }
+    }
+
+
+    QueuedOutputStream(OutputStream out, Executor executor, int blockSize, int maxQueuedBytes)
+    {
+        this.out = out;
+        this.executor = executor;
+        this.blockSize = blockSize;
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+
+    @Override
+    public void write(int b) throws IOException
+    {
+        write(new byte[] {(byte)b}, 0, 1);
+    }
+
+
+    @Override
+    public void write(byte[] buf, int off, int len) throws IOException
+    {
+        if (error != null)
+            throw error;
+
+        synchronized (queue)
+        {
+            while (len > 0)
+            {
+                // blocks are removed from the queue before they are drained
+                // so the last one can safely be appended to
+                var block = queue.peekLast();
+                if (block == null || block.length == blockSize)
+                {
+                    block = freeBlocks.poll();
+                    if (block == null)
+                        block = new Block(blockSize);
+                    queue.add(block);
+                }
+
+                int n = Math.min(len, blockSize - block.length);
+                System.arraycopy(buf, off, block.data, block.length, n);
+                block.length += n;
+                queuedBytes += n;
+                off += n;
+                len -= n;
+            }
+
+            if (!draining)
+            {
+                draining = true;
+                executor.execute(this::drain);
+            }
+        }
+    }
+
+
+    @Override
+    public void flush()
+    {
+        // bytes are flushed by the drain task
+    }
+
+
+    /*
+     * Write queued bytes to the underlying stream until the queue is empty
+     */
+    void drain()
+    {
+        while (true)
+        {
+            Block block;
+            synchronized (queue)
+            {
+                block = queue.poll();
+                if (block == null)
+                {
+                    draining = false;
+                    return;
+                }
+            }
+
+            try
+            {
+                out.write(block.data, 0, block.length);
+                out.flush();
+            }
+            catch (IOException e)
+            {
+                error = e;
+                synchronized (queue)
+                {
+                    queue.clear();
+                    queuedBytes = 0;
+                    draining = false;
+                }
+                return;
+            }
+
+            synchronized (queue)
+            {
+                queuedBytes -= block.length;
+                recycle(block);
+            }
+        }
+    }
+
+
+    /*
+     * Keep blocks for reuse, up to the number needed to fill the queue
+     * Must be called while holding the queue lock
+     */
+    void recycle(Block block)
+    {
+        block.length = 0;
+        if ((freeBlocks.size() + queue.size()) * blockSize < maxQueuedBytes + blockSize)
+            freeBlocks.add(block);
+    }
+
+
+    /**
+     * @return true if more bytes can be queued without exceeding the limit
+     */
+    boolean isWritable()
+    {
+        synchronized (queue)
+        {
+            return queuedBytes < maxQueuedBytes;
+        }
+    }
+}
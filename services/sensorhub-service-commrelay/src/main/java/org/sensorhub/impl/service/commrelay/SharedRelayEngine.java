@@ -0,0 +1,270 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.commrelay;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.io.OutputStream;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * <p>
+ * Relay engine shared by all comm relay services running in the same VM
+ * with the same thread and buffer settings.<br/>
+ * All relays are multiplexed on a small number of worker threads that poll
+ * each relay input for available bytes, instead of using one blocking
+ * thread per stream. Workers back off progressively when no data is
+ * flowing to limit CPU usage on idle links.
+ * </p><p>
+ * Since available() cannot tell an idle input from a closed one, a blocking
+ * read is done on a separate probe thread when a relay has been idle for some
+ * time. The relay is removed if this read reaches the end of stream, and goes
+ * back to polling as soon as data is received. The number of probe threads
+ * is bounded, so when more relays are idle, the others keep being polled and
+ * are probed when a probe thread becomes available.<br/>
+ * Outputs of shared relays are wrapped in {@link QueuedOutputStream}s written
+ * by separate I/O threads, so a slow sink cannot stall the worker.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+class SharedRelayEngine
+{
+    private static final Logger log = LoggerFactory.getLogger(SharedRelayEngine.class);
+    private static final long MIN_IDLE_WAIT_NANOS = 100_000L;
+    private static final long MAX_IDLE_WAIT_NANOS = 5_000_000L;
+    static final long PROBE_DELAY = 1000L;
+    static final int MAX_PROBE_THREADS = 4;
+    static final int MAX_QUEUED_BUFFERS = 64;
+    private static final Map<List<Integer>, SharedRelayEngine> instances = new HashMap<>();
+
+    final List<Integer> key;
+    final List<Worker> workers = new ArrayList<>();
+    final ExecutorService ioExecutor;
+    final ExecutorService probeExecutor;
+    final AtomicInteger numProbes = new AtomicInteger();
+    final ThreadLocal<byte[]> probeBuffer;
+    final int bufferSize;
+    int nextWorker;
+    int refCount;
+
+
+    class Worker extends Thread
+    {
+        final List<StreamRelay> relays = new CopyOnWriteArrayList<>();
+        final byte[] buffer;
+        volatile boolean running = true;
+
+        Worker(int id, int bufferSize)
+        {
+            super("CommRelay-" + id);
+            setDaemon(true);
+            this.buffer = new byte[bufferSize];
+        }
+
+        @Override
+        public void run()
+        {
+            long idleWait = MIN_IDLE_WAIT_NANOS;
+
+            while (running)
+            {
+                boolean transfered = false;
+                long now = System.currentTimeMillis();
+
+                for (var relay: relays)
+                {
+                    // input is being read by an I/O thread
+                    if (relay.probing)
+                        continue;
+
+                    try
+                    {
+                        int n = relay.transfer(buffer, true);
+                        if (n > 0)
+                            transfered = true;
+                        else if (n == StreamRelay.EOF)
+                            relays.remove(relay);
+                        else if (relay.isIdle(now, PROBE_DELAY) && relay.canTransfer())
+                            probe(relay);
+                    }
+                    catch (IOException e)
+                    {
+                        if (!relay.closed)
+                            log.error("Error while transfering byte stream on {}", relay.name, e);
+                        relay.closed = true;
+                        relays.remove(relay);
+                    }
+                }
+
+                if (transfered)
+                    idleWait = MIN_IDLE_WAIT_NANOS;
+                else
+                {
+                    LockSupport.parkNanos(idleWait);
+                    idleWait = Math.min(idleWait*2, MAX_IDLE_WAIT_NANOS);
+                }
+            }
+        }
+    }
+
+
+    private SharedRelayEngine(List<Integer> key, int numThreads, int bufferSize)
+    {
+        this.key = key;
+        this.bufferSize = bufferSize;
+        this.ioExecutor = Executors.newCachedThreadPool(r -> {
+            var t = new Thread(r, "CommRelay-IO");
+            t.setDaemon(true);
+            return t;
+        });
+        this.probeExecutor = Executors.newFixedThreadPool(MAX_PROBE_THREADS, r -> {
+            var t = new Thread(r, "CommRelay-Probe");
+            t.setDaemon(true);
+            return t;
+        });
+        this.probeBuffer = ThreadLocal.withInitial(() -> new byte[bufferSize]);
+
+        for (int i = 0; i < numThreads; i++)
+        {
+            var w = new Worker(i, bufferSize);
+            workers.add(w);
+            w.start();
+        }
+    }
+
+
+    /*
+     * Get the engine with the given settings, creating it if needed
+     * Relays configured with different settings run on separate engines
+     */
+    static synchronized SharedRelayEngine acquire(int numThreads, int bufferSize)
+    {
+        var key = List.of(Math.max(1, numThreads), bufferSize);
+        var engine = instances.computeIfAbsent(key, k -> {
+            if (!instances.isEmpty())
+                log.info("Starting additional shared relay engine with {} threads and {} bytes buffers", k.get(0), k.get(1));
+            return new SharedRelayEngine(k, k.get(0), k.get(1));
+        });
+        engine.refCount++;
+        return engine;
+    }
+
+
+    static synchronized void release(SharedRelayEngine engine)
+    {
+        if (instances.get(engine.key) != engine)
+            return;
+
+        if (--engine.refCount <= 0)
+        {
+            for (var w: engine.workers)
+                w.running = false;
+            engine.ioExecutor.shutdownNow();
+            engine.probeExecutor.shutdownNow();
+            instances.remove(engine.key);
+        }
+    }
+
+
+    synchronized void add(StreamRelay relay)
+    {
+        // assign relays to workers in round-robin
+        workers.get(nextWorker).relays.add(relay);
+        nextWorker = (nextWorker + 1) % workers.size();
+    }
+
+
+    synchronized void remove(StreamRelay relay)
+    {
+        relay.closed = true;
+        for (var w: workers)
+            w.relays.remove(relay);
+    }
+
+
+    /*
+     * Do a blocking read on a probe thread to detect end of stream or
+     * wait for new data without blocking the worker
+     * Nothing is done if all probe threads are busy, so the relay is
+     * still polled and will be probed again later
+     */
+    void probe(StreamRelay relay)
+    {
+        if (numProbes.incrementAndGet() > MAX_PROBE_THREADS)
+        {
+            numProbes.decrementAndGet();
+            return;
+        }
+
+        relay.probing = true;
+        try
+        {
+            probeExecutor.execute(() -> doProbe(relay));
+        }
+        catch (RejectedExecutionException e)
+        {
+            // engine is shutting down
+            relay.probing = false;
+            numProbes.decrementAndGet();
+        }
+    }
+
+
+    void doProbe(StreamRelay relay)
+    {
+        try
+        {
+            int n = relay.transfer(probeBuffer.get(), false);
+            if (n == StreamRelay.EOF)
+            {
+                log.info("End of stream reached on {}", relay.name);
+                remove(relay);
+            }
+        }
+        catch (IOException e)
+        {
+            if (!relay.closed)
+                log.error("Error while transfering byte stream on {}", relay.name, e);
+            remove(relay);
+        }
+        finally
+        {
+            relay.probing = false;
+            numProbes.decrementAndGet();
+        }
+    }
+
+
+    /*
+     * Wrap an output so it is written asynchronously by the I/O threads
+     */
+    OutputStream createQueuedOutput(OutputStream out)
+    {
+        return new QueuedOutputStream(out, ioExecutor, bufferSize, MAX_QUEUED_BUFFERS * bufferSize);
+    }
+}
@@ -0,0 +1,164 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.commrelay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * <p>
+ * Relay copying bytes from one input stream to one or more output streams,
+ * and keeping track of transfer statistics.<br/>
+ * Transfers can be done in blocking mode (i.e. by a dedicated thread) or in
+ * non-blocking mode, in which case only the bytes already available on the
+ * input are transfered, so that many relays can be serviced by the same
+ * thread.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+class StreamRelay
+{
+    static final int EOF = -1;
+
+    final String name;
+    final InputStream input;
+    final List<OutputStream> outputs;
+    final AtomicLong byteCount = new AtomicLong();
+    final AtomicLong writeTimeNanos = new AtomicLong();
+    final AtomicLong writeCount = new AtomicLong();
+    volatile long lastTransferTime;
+    volatile long lastActivityTime = System.currentTimeMillis();
+    volatile boolean probing;
+    volatile boolean closed;
+
+    // values at last stats report
+    long lastReportTime = System.currentTimeMillis();
+    long lastReportByteCount;
+    long lastReportWriteTime;
+    long lastReportWriteCount;
+
+
+    StreamRelay(String name, InputStream input, List<OutputStream> outputs)
+    {
+        this.name = name;
+        this.input = input;
+        this.outputs = outputs;
+    }
+
+
+    /*
+     * Transfer one chunk of data from input to all outputs
+     * Returns the number of bytes transfered, 0 if no data was available
+     * in non-blocking mode, or EOF if the input stream is closed
+     */
+    int transfer(byte[] buffer, boolean nonBlocking) throws IOException
+    {
+        int len = buffer.length;
+        if (nonBlocking)
+        {
+            // don't read more data if an output is already lagging behind
+            if (!canTransfer())
+                return 0;
+
+            len = Math.min(input.available(), buffer.length);
+            if (len <= 0)
+                return 0;
+        }
+
+        int n = input.read(buffer, 0, len);
+        if (n == EOF)
+        {
+            closed = true;
+            return EOF;
+        }
+
+        if (n > 0)
+        {
+            var t0 = System.nanoTime();
+            for (var output: outputs)
+            {
+                // several relays can write to the same output
+                synchronized (output)
+                {
+                    output.write(buffer, 0, n);
+                    output.flush();
+                }
+            }
+
+            writeTimeNanos.addAndGet(System.nanoTime() - t0);
+            writeCount.incrementAndGet();
+            byteCount.addAndGet(n);
+            lastTransferTime = lastActivityTime = System.currentTimeMillis();
+        }
+
+        return n;
+    }
+
+
+    /*
+     * Check that all outputs can accept more data without blocking
+     */
+    boolean canTransfer()
+    {
+        for (var output: outputs)
+        {
+            if (output instanceof QueuedOutputStream && !((QueuedOutputStream)output).isWritable())
+                return false;
+        }
+
+        return true;
+    }
+
+
+    /*
+     * Check if no data was received during the given period
+     */
+    boolean isIdle(long now, long period)
+    {
+        return now - lastActivityTime >= period;
+    }
+
+
+    /*
+     * Compute stats since last report and return them as a readable string
+     */
+    synchronized String reportStats()
+    {
+        var now = System.currentTimeMillis();
+        var bytes = byteCount.get();
+        var writeTime = writeTimeNanos.get();
+        var writes = writeCount.get();
+
+        var dt = Math.max(1, now - lastReportTime) / 1000.0;
+        var rate = (bytes - lastReportByteCount) / dt;
+        var nWrites = writes - lastReportWriteCount;
+        var lag = nWrites > 0 ? (writeTime - lastReportWriteTime) / nWrites / 1e6 : 0.0;
+        var idle = lastTransferTime > 0 ? (now - lastTransferTime) / 1000.0 : Double.NaN;
+
+        lastReportTime = now;
+        lastReportByteCount = bytes;
+        lastReportWriteTime = writeTime;
+        lastReportWriteCount = writes;
+
+        return String.format("%s: %.1f B/s, %d bytes total, write lag %.3f ms, idle %.1f s",
+            name, rate, bytes, lag, idle);
+    }
+}
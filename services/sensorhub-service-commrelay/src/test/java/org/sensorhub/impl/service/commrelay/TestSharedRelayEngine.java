@@ -0,0 +1,253 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.commrelay;
+
+import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestSharedRelayEngine
+{
+    static final int BUFFER_SIZE = 1024;
+    static final long TIMEOUT = 5000;
+
+    SharedRelayEngine engine;
+
+
+    @Before
+    public void setup()
+    {
+        // single worker so all relays share the same thread
+        engine = SharedRelayEngine.acquire(1, BUFFER_SIZE);
+    }
+
+
+    static byte[] testData(int size)
+    {
+        var data = new byte[size];
+        for (int i = 0; i < size; i++)
+            data[i] = (byte)i;
+        return data;
+    }
+
+
+    static void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long t0 = System.currentTimeMillis();
+        while (!condition.getAsBoolean())
+        {
+            assertTrue("Timeout", System.currentTimeMillis() - t0 < TIMEOUT);
+            Thread.sleep(10);
+        }
+    }
+
+
+    @Test
+    public void testEndOfStream() throws Exception
+    {
+        var data = testData(3000);
+        var out = new ByteArrayOutputStream();
+        var relay = new StreamRelay("eof", new ByteArrayInputStream(data), List.of(engine.createQueuedOutput(out)));
+        engine.add(relay);
+
+        // available() returns 0 at end of stream so closure
+        // must be detected even though no error is reported
+        waitFor(() -> relay.closed);
+        waitFor(() -> out.size() == data.length);
+        assertArrayEquals(data, out.toByteArray());
+        for (var w: engine.workers)
+            assertFalse(w.relays.contains(relay));
+    }
+
+
+    @Test
+    public void testIdleStreamNotClosed() throws Exception
+    {
+        var pipeOut = new PipedOutputStream();
+        var pipeIn = new PipedInputStream(pipeOut, BUFFER_SIZE);
+        var out = new ByteArrayOutputStream();
+        var relay = new StreamRelay("idle", pipeIn, List.of(engine.createQueuedOutput(out)));
+        engine.add(relay);
+
+        // wait until relay is idle long enough to be probed
+        Thread.sleep(SharedRelayEngine.PROBE_DELAY + 500);
+        assertFalse(relay.closed);
+
+        // data received while probing is still relayed
+        var data = testData(100);
+        pipeOut.write(data);
+        pipeOut.flush();
+        waitFor(() -> out.size() == data.length);
+        assertArrayEquals(data, out.toByteArray());
+
+        pipeOut.close();
+        waitFor(() -> relay.closed);
+    }
+
+
+    @Test
+    public void testSlowSink() throws Exception
+    {
+        // sink blocking until released
+        var unblock = new CountDownLatch(1);
+        var slowOut = new ByteArrayOutputStream();
+        var slowSink = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException
+            {
+                write(new byte[] {(byte)b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException
+            {
+                try
+                {
+                    unblock.await();
+                }
+                catch (InterruptedException e)
+                {
+                    throw new IOException(e);
+                }
+                slowOut.write(b, off, len);
+            }
+        };
+
+        var slowData = testData(200 * BUFFER_SIZE);
+        var slowRelay = new StreamRelay("slow", new ByteArrayInputStream(slowData), List.of(engine.createQueuedOutput(slowSink)));
+        engine.add(slowRelay);
+
+        // other relay on the same worker must not be stalled
+        var fastData = testData(50 * BUFFER_SIZE);
+        var fastOut = new ByteArrayOutputStream();
+        var fastRelay = new StreamRelay("fast", new ByteArrayInputStream(fastData), List.of(engine.createQueuedOutput(fastOut)));
+        engine.add(fastRelay);
+
+        waitFor(() -> fastOut.size() == fastData.length);
+        assertArrayEquals(fastData, fastOut.toByteArray());
+
+        // reading from slow relay stopped when its queue was full
+        assertFalse(slowRelay.closed);
+        assertTrue(slowRelay.byteCount.get() < slowData.length);
+
+        // everything is delivered once sink unblocks
+        unblock.countDown();
+        waitFor(() -> slowOut.size() == slowData.length);
+        assertTrue(Arrays.equals(slowData, slowOut.toByteArray()));
+    }
+
+
+    @Test
+    public void testManyIdleStreams() throws Exception
+    {
+        int numRelays = SharedRelayEngine.MAX_PROBE_THREADS * 3;
+        var pipes = new ArrayList<PipedOutputStream>();
+        var outputs = new ArrayList<ByteArrayOutputStream>();
+        var relays = new ArrayList<StreamRelay>();
+        for (int i = 0; i < numRelays; i++)
+        {
+            var pipeOut = new PipedOutputStream();
+            var out = new ByteArrayOutputStream();
+            var relay = new StreamRelay("idle" + i, new PipedInputStream(pipeOut, BUFFER_SIZE), List.of(engine.createQueuedOutput(out)));
+            pipes.add(pipeOut);
+            outputs.add(out);
+            relays.add(relay);
+            engine.add(relay);
+        }
+
+        // only a limited number of relays are probed at the same time
+        Thread.sleep(SharedRelayEngine.PROBE_DELAY + 500);
+        assertEquals(SharedRelayEngine.MAX_PROBE_THREADS, engine.numProbes.get());
+
+        // all relays still transfer data
+        var data = testData(100);
+        for (var pipeOut: pipes)
+        {
+            pipeOut.write(data);
+            pipeOut.flush();
+        }
+        for (var out: outputs)
+            waitFor(() -> out.size() == data.length);
+
+        // end of stream is detected on all relays
+        for (var pipeOut: pipes)
+            pipeOut.close();
+        for (var relay: relays)
+            waitFor(() -> relay.closed);
+    }
+
+
+    @Test
+    public void testSmallWrites() throws Exception
+    {
+        var out = new ByteArrayOutputStream();
+        var queuedOut = (QueuedOutputStream)engine.createQueuedOutput(out);
+        var data = testData(10 * BUFFER_SIZE + 7);
+
+        for (int i = 0; i < data.length; i += 13)
+            queuedOut.write(data, i, Math.min(13, data.length - i));
+
+        waitFor(() -> out.size() == data.length);
+        assertArrayEquals(data, out.toByteArray());
+
+        // written blocks are kept for reuse
+        synchronized (queuedOut.queue)
+        {
+            assertTrue(queuedOut.queue.isEmpty());
+            assertFalse(queuedOut.freeBlocks.isEmpty());
+        }
+    }
+
+
+    @Test
+    public void testEngineSettings()
+    {
+        var same = SharedRelayEngine.acquire(1, BUFFER_SIZE);
+        var other = SharedRelayEngine.acquire(1, 2 * BUFFER_SIZE);
+
+        try
+        {
+            // relays with different settings don't share the same engine
+            assertSame(engine, same);
+            assertNotSame(engine, other);
+            assertEquals(2 * BUFFER_SIZE, other.bufferSize);
+        }
+        finally
+        {
+            SharedRelayEngine.release(same);
+            SharedRelayEngine.release(other);
+        }
+    }
+
+
+    @After
+    public void cleanup()
+    {
+        SharedRelayEngine.release(engine);
+    }
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+
+ The contents of this file are subject to the Mozilla Public License, v. 2.0.
+ If a copy of the MPL was not distributed with this file, You can obtain one
+ at http://mozilla.org/MPL/2.0/.
+
+ Software distributed under the License is distributed on an "AS IS" basis,
+ WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ for the specific language governing rights and limitations under the License.
+
+ The Initial Developer is Botts Innovative Research Inc. Portions created by the Initial
+ Developer are Copyright (C) 2025 the Initial Developer. All Rights Reserved.
+
+ ******************************************************************************/
+
+package com.botts.impl.service.fileserver;
+
+import org.eclipse.jetty.servlet.DefaultServlet;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.slf4j.Logger;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * File servlet used in caching mode. It relies on Jetty's default servlet to
+ * keep small files in an in-memory LRU cache, serve large files from memory
+ * mapped buffers, handle range requests, ETag/Last-Modified validation and
+ * precompressed sidecar files, and adds the file server permission check.
+ */
+public class CachedFileServlet extends DefaultServlet {
+
+    final PermissionCache permissions;
+    final transient Logger log;
+
+    public CachedFileServlet(PermissionCache permissions, Logger log) {
+        this.permissions = permissions;
+        this.log = log;
+    }
+
+    public static ServletHolder createHolder(PermissionCache permissions, FileServerConfig config, Logger log) {
+        ServletHolder holder = new ServletHolder(new CachedFileServlet(permissions, log));
+        holder.setInitParameter("dirAllowed", "false");
+        holder.setInitParameter("etags", "true");
+        holder.setInitParameter("acceptRanges", "true");
+        holder.setInitParameter("useFileMappedBuffer", Boolean.toString(config.useFileMappedBuffer));
+        holder.setInitParameter("maxCacheSize", Integer.toString(config.maxCacheSize));
+        holder.setInitParameter("maxCachedFileSize", Integer.toString(config.maxCachedFileSize));
+        holder.setInitParameter("maxCachedFiles", Integer.toString(config.maxCachedFiles));
+        if (config.precompressed)
+            holder.setInitParameter("precompressed", "br=.br,gzip=.gz");
+        if (config.cacheControl != null && !config.cacheControl.isBlank())
+            holder.setInitParameter("cacheControl", config.cacheControl);
+        return holder;
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        try {
+            // Set current user and check if it has permissions
+            if (!permissions.checkPermission(request)) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "You do not have access to this resource");
+                return;
+            }
+
+            super.service(request, response);
+        } catch (IOException | ServletException e) {
+            log.error("Error while serving {}", request.getRequestURI(), e);
+        } finally {
+            permissions.clearCurrentUser();
+        }
+    }
+
+}
@@ -17,7 +17,6 @@ package com.botts.impl.service.fileserver;
 
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.handler.ResourceHandler;
-import org.sensorhub.api.security.ISecurityManager;
 import org.slf4j.Logger;
 
 import javax.servlet.ServletException;
@@ -34,11 +33,15 @@ public class FileHandler extends ResourceHandler {
     static final String INTERNAL_ERROR_LOG_MSG = INTERNAL_ERROR_MSG + " while processing request " + LOG_REQUEST_MSG;
     static final String ACCESS_DENIED_ERROR_MSG = "Permission denied";
 
-    FileServerSecurity security;
+    PermissionCache permissions;
     Logger log;
 
     public FileHandler(FileServerSecurity security, Logger log) {
-        this.security = security;
+        this(new PermissionCache(security, 0), log);
+    }
+
+    public FileHandler(PermissionCache permissions, Logger log) {
+        this.permissions = permissions;
         this.log = log;
     }
 
@@ -47,11 +50,8 @@ public class FileHandler extends ResourceHandler {
                        HttpServletRequest request,
                        HttpServletResponse response) throws ServletException, IOException {
         try {
-            // Set current user
-            setCurrentUser(request);
-
-            // Check if current user has permissions
-            if (!security.hasPermission(security.get)) {
+            // Set current user and check if it has permissions
+            if (!permissions.checkPermission(request)) {
                 response.sendError(HttpServletResponse.SC_FORBIDDEN, "You do not have access to this resource");
                 baseRequest.setHandled(true);
                 return;
@@ -63,21 +63,10 @@ public class FileHandler extends ResourceHandler {
         } catch (IOException | ServletException e) {
             logError(request, e);
         } finally {
-            clearCurrentUser();
+            permissions.clearCurrentUser();
         }
     }
 
-    private void setCurrentUser(HttpServletRequest req) {
-        String userID = ISecurityManager.ANONYMOUS_USER;
-        if (req.getRemoteUser() != null)
-            userID = req.getRemoteUser();
-        security.setCurrentUser(userID);
-    }
-
-    private void clearCurrentUser() {
-        security.clearCurrentUser();
-    }
-
     private void sendError(int code, String msg, HttpServletRequest req, HttpServletResponse resp) {
         try {
             var accept = req.getHeader("Accept");
@@ -19,6 +19,7 @@ import org.eclipse.jetty.security.ConstraintMapping;
 import org.eclipse.jetty.security.ConstraintSecurityHandler;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.handler.*;
+import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.util.security.Constraint;
 import org.sensorhub.api.common.SensorHubException;
 import org.sensorhub.impl.service.AbstractHttpServiceModule;
@@ -30,6 +31,7 @@ import java.util.Arrays;
 public class FileServer extends AbstractHttpServiceModule<FileServerConfig> {
 
     FileServerSecurity security;
+    PermissionCache permissionCache;
     Handler fileServerHandler;
     HandlerCollection serverHandlers;
 
@@ -48,16 +50,31 @@ public class FileServer extends AbstractHttpServiceModule<FileServerConfig> {
         Asserts.checkNotNull(config.staticDocsRootUrl);
         Asserts.checkNotNull(config.staticDocsRootDir);
 
-        // File resource handler
-        FileHandler fileResourceHandler = new FileHandler(security, getLogger());
-        fileResourceHandler.setDirectoriesListed(false);
-        fileResourceHandler.setEtags(true);
-
-        // Context handler
-        ContextHandler fileResourceContext = new ContextHandler();
-        fileResourceContext.setContextPath(config.staticDocsRootUrl);
-        fileResourceContext.setHandler(fileResourceHandler);
-        fileResourceContext.setResourceBase(config.staticDocsRootDir);
+        // only cache permission decisions in caching mode
+        int permissionCacheTimeout = config.enableCaching ? config.permissionCacheTimeout : 0;
+        permissionCache = new PermissionCache(security, permissionCacheTimeout);
+
+        ContextHandler fileResourceContext;
+        if (config.enableCaching) {
+            // Servlet context with cached file servlet
+            ServletContextHandler servletContext = new ServletContextHandler(ServletContextHandler.NO_SESSIONS);
+            servletContext.setContextPath(config.staticDocsRootUrl);
+            servletContext.setResourceBase(config.staticDocsRootDir);
+            servletContext.setWelcomeFiles(new String[]{"index.html"});
+            servletContext.addServlet(CachedFileServlet.createHolder(permissionCache, config, getLogger()), "/");
+            fileResourceContext = servletContext;
+        } else {
+            // File resource handler
+            FileHandler fileResourceHandler = new FileHandler(permissionCache, getLogger());
+            fileResourceHandler.setDirectoriesListed(false);
+            fileResourceHandler.setEtags(true);
+
+            // Context handler
+            fileResourceContext = new ContextHandler();
+            fileResourceContext.setContextPath(config.staticDocsRootUrl);
+            fileResourceContext.setHandler(fileResourceHandler);
+            fileResourceContext.setResourceBase(config.staticDocsRootDir);
+        }
 
         serverHandlers = (HandlerCollection) server.getJettyServer().getHandler();
 
@@ -95,6 +112,8 @@ public class FileServer extends AbstractHttpServiceModule<FileServerConfig> {
         if (serverHandlers != null && fileServerHandler != null) {
             serverHandlers.removeHandler(fileServerHandler);
         }
+        if (permissionCache != null)
+            permissionCache.invalidate();
     }
 
     @Override
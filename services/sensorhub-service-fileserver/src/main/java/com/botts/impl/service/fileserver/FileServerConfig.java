@@ -27,6 +27,32 @@ public class FileServerConfig extends ServiceConfig {
     @DisplayInfo(desc="Directory where static web content is located.")
     public String staticDocsRootDir = "web";
 
+    @DisplayInfo(desc="Serve files in caching mode, with an in-memory cache of small files, memory mapped large files, " +
+            "range requests and precompressed variants.")
+    public boolean enableCaching = false;
+
+    @DisplayInfo(desc="Value of the Cache-Control header sent with static content (caching mode only).")
+    public String cacheControl = "max-age=3600";
+
+    @DisplayInfo(desc="Serve precompressed .br and .gz sidecar files to clients accepting them (caching mode only).")
+    public boolean precompressed = true;
+
+    @DisplayInfo(desc="Serve large files from memory mapped buffers (caching mode only).")
+    public boolean useFileMappedBuffer = true;
+
+    @DisplayInfo(desc="Maximum total size of the in-memory file cache, in bytes (caching mode only).")
+    public int maxCacheSize = 64 * 1024 * 1024;
+
+    @DisplayInfo(desc="Maximum size of a file kept in the in-memory cache, in bytes (caching mode only).")
+    public int maxCachedFileSize = 1024 * 1024;
+
+    @DisplayInfo(desc="Maximum number of files kept in the in-memory cache (caching mode only).")
+    public int maxCachedFiles = 2048;
+
+    @DisplayInfo(desc="Duration during which the permission decision for a user is cached, in seconds (caching mode only, 0 to disable). " +
+            "Revoked permissions can remain effective for up to this duration.")
+    public int permissionCacheTimeout = 0;
+
     @DisplayInfo(desc="Security related options")
     public SecurityConfig securityConfig = new SecurityConfig();
 
@@ -0,0 +1,114 @@
+/*******************************************************************************
+
+ The contents of this file are subject to the Mozilla Public License, v. 2.0.
+ If a copy of the MPL was not distributed with this file, You can obtain one
+ at http://mozilla.org/MPL/2.0/.
+
+ Software distributed under the License is distributed on an "AS IS" basis,
+ WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ for the specific language governing rights and limitations under the License.
+
+ The Initial Developer is Botts Innovative Research Inc. Portions created by the Initial
+ Developer are Copyright (C) 2025 the Initial Developer. All Rights Reserved.
+
+ ******************************************************************************/
+
+package com.botts.impl.service.fileserver;
+
+import org.sensorhub.api.security.ISecurityManager;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the file server permission decision of each user for a short time
+ * so the security manager is not queried on every file request.
+ * Permissions are module-wide so decisions are cached per user, not per path.
+ * Since all entries have the same lifetime, they are kept in insertion order,
+ * which is also their expiration order, so expired entries are evicted from
+ * the head of the map.
+ */
+public class PermissionCache {
+
+    static final int MAX_ENTRIES = 10000;
+
+    final FileServerSecurity security;
+    final long timeoutMillis;
+    final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    static class Entry {
+        final boolean allowed;
+        final long expirationTime;
+
+        Entry(boolean allowed, long expirationTime) {
+            this.allowed = allowed;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    public PermissionCache(FileServerSecurity security, int timeoutSeconds) {
+        this.security = security;
+        this.timeoutMillis = timeoutSeconds * 1000L;
+    }
+
+    /**
+     * Sets the current user from the request and checks if it has access to files.
+     * The current user must be cleared by the caller with {@link #clearCurrentUser()}.
+     * @param req HTTP request
+     * @return True if the user has permission to get files
+     */
+    public boolean checkPermission(HttpServletRequest req) {
+        String userID = ISecurityManager.ANONYMOUS_USER;
+        if (req.getRemoteUser() != null)
+            userID = req.getRemoteUser();
+        security.setCurrentUser(userID);
+
+        if (timeoutMillis <= 0)
+            return security.hasPermission(security.get);
+
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(userID);
+            if (entry != null && entry.expirationTime > now)
+                return entry.allowed;
+        }
+
+        boolean allowed = security.hasPermission(security.get);
+
+        synchronized (entries) {
+            evictExpired(now);
+            // remove first so the entry is moved to the end of the expiration order
+            entries.remove(userID);
+            entries.put(userID, new Entry(allowed, now + timeoutMillis));
+        }
+
+        return allowed;
+    }
+
+    /*
+     * Remove expired entries, and the ones closest to expiration if the cache is full.
+     * Must be called while holding the lock on entries.
+     */
+    void evictExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.expirationTime > now && entries.size() < MAX_ENTRIES)
+                break;
+            it.remove();
+        }
+    }
+
+    public void clearCurrentUser() {
+        security.clearCurrentUser();
+    }
+
+    public void invalidate() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+}
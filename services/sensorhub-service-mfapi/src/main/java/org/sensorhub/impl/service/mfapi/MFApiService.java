@@ -17,6 +17,7 @@ package org.sensorhub.impl.service.mfapi;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.sensorhub.api.common.SensorHubException;
 import org.sensorhub.api.database.IObsSystemDatabase;
 import org.sensorhub.api.event.IEventListener;
@@ -29,6 +30,7 @@ import org.sensorhub.impl.service.mfapi.home.MFCollectionItemsHandler;
 import org.sensorhub.impl.service.mfapi.mf.MFHandler;
 import org.sensorhub.impl.service.mfapi.mf.TemporalGeomHandler;
 import org.sensorhub.impl.service.mfapi.mf.TemporalPropHandler;
+import org.sensorhub.impl.service.mfapi.mf.TrajectoryIndex;
 import org.sensorhub.impl.service.consys.HandlerContext;
 import org.sensorhub.impl.service.consys.RestApiService;
 import org.sensorhub.impl.service.consys.home.ConformanceHandler;
@@ -50,6 +52,7 @@ public class MFApiService extends AbstractHttpServiceModule<MFApiServiceConfig>
 {
     protected MFApiServlet servlet;
     ScheduledExecutorService threadPool;
+    TrajectoryIndex trajectoryIndex;
     
     static final Set<String> CONF_CLASSES = ImmutableSet.of(
         "http://www.opengis.net/spec/ogcapi-common-1/1.0/conf/core",
@@ -105,7 +108,15 @@ public class MFApiService extends AbstractHttpServiceModule<MFApiServiceConfig>
         var mfHandler = new MFHandler(handlerCtx, security.foi_permissions);
         rootHandler.addSubResource(mfHandler);
         
-        var tgeomHandler = new TemporalGeomHandler(handlerCtx, security.foi_permissions);
+        // init trajectory index and refresh it periodically with new obs
+        if (config.trajectoryIndex != null && config.trajectoryIndex.enabled)
+        {
+            trajectoryIndex = new TrajectoryIndex(readDb.getObservationStore(), config.trajectoryIndex, getLogger());
+            var refreshPeriod = Math.max(1, config.trajectoryIndex.refreshPeriod);
+            threadPool.scheduleWithFixedDelay(trajectoryIndex::refresh, refreshPeriod, refreshPeriod, TimeUnit.SECONDS);
+        }
+        
+        var tgeomHandler = new TemporalGeomHandler(handlerCtx, security.foi_permissions, trajectoryIndex);
         mfHandler.addSubResource(tgeomHandler);
         
         var tpropHandler = new TemporalPropHandler(handlerCtx, security.foi_permissions);
@@ -147,6 +158,7 @@ public class MFApiService extends AbstractHttpServiceModule<MFApiServiceConfig>
         // stop thread pool
         if (threadPool != null)
             threadPool.shutdown();
+        trajectoryIndex = null;
 
         setState(ModuleState.STOPPED);
     }
@@ -49,6 +49,31 @@ public class MFApiServiceConfig extends OGCServiceConfig
     }
     
     
+    public static class TrajectoryIndexConfig
+    {
+        @DisplayInfo(desc="Set to true to serve temporal geometries from precomputed trajectory chunks")
+        public boolean enabled = false;
+
+        @DisplayInfo(label="Chunk Duration", desc="Duration of each trajectory chunk, in seconds")
+        public int chunkDuration = 3600;
+
+        @DisplayInfo(desc="Simplification tolerances, in degrees, used to precompute simplified trajectories (one per zoom level)")
+        public double[] tolerances = { 1e-5, 1e-4, 1e-3, 1e-2 };
+
+        @DisplayInfo(label="Refresh Period", desc="Period at which indexed trajectories are updated with new observations, in seconds")
+        public int refreshPeriod = 10;
+
+        @DisplayInfo(label="Max Features", desc="Maximum number of features whose trajectories are kept in the index")
+        public int maxFeatures = 10000;
+
+        @DisplayInfo(label="Max Points Per DataStream", desc="Maximum number of positions kept in the index for each datastream. Oldest chunks are dropped when this is exceeded")
+        public int maxPointsPerDataStream = 200000;
+
+        @DisplayInfo(label="Max Points Per Feature", desc="Maximum number of positions kept in the index for each feature, all datastreams included. Oldest chunks are dropped when this is exceeded")
+        public int maxPointsPerFeature = 500000;
+    }
+
+
     @DisplayInfo(desc="Filtered view to select features exposed as read-only through this service")
     public ObsSystemDatabaseViewConfig exposedResources = null;
 
@@ -69,6 +94,10 @@ public class MFApiServiceConfig extends OGCServiceConfig
     public List<CollectionConfig> collections= new ArrayList<>();
 
 
+    @DisplayInfo(desc="Configuration of the precomputed trajectory index")
+    public TrajectoryIndexConfig trajectoryIndex = new TrajectoryIndexConfig();
+
+
     public MFApiServiceConfig()
     {
         this.moduleClass = MFApiService.class.getCanonicalName();
@@ -135,6 +135,39 @@ public class TemporalGeomBindingJson extends ResourceBindingJson<BigId, IObsData
     }
     
     
+    /*
+     * Serialize a trajectory precomputed by the trajectory index
+     */
+    public void serialize(TrajectoryIndex.Trajectory traj) throws IOException
+    {
+        writer.beginObject();
+        
+        writer.name("id").value("tg-" + idEncoders.getDataStreamIdEncoder().encodeID(traj.dsId));
+        writer.name("type").value("MovingPoint");
+        
+        writer.name("datetimes").beginArray();
+        for (var t: traj.dateTimes)
+            writer.value(t.toString());
+        writer.endArray();
+        
+        writer.name("coordinates").beginArray();
+        for (var coords: traj.coordinates)
+        {
+            writer.beginArray();
+            ((JsonInliningWriter)writer).writeInline(true);
+            for (var v: coords)
+                writer.value(v);
+            writer.endArray();
+            ((JsonInliningWriter)writer).writeInline(false);
+        }
+        writer.endArray();
+        
+        writer.name("interpolation").value("Linear");
+        
+        writer.endObject();
+    }
+    
+    
     boolean hasGeom(DataComponent struct)
     {
         for (var it = new DataIterator(struct); it.hasNext(); )
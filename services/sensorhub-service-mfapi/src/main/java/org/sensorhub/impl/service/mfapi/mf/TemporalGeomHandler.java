@@ -15,6 +15,7 @@ Copyright (C) 2020 Sensia Software LLC. All Rights Reserved.
 package org.sensorhub.impl.service.mfapi.mf;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 import org.sensorhub.api.common.BigId;
 import org.sensorhub.api.data.IDataStreamInfo;
@@ -41,8 +42,13 @@ public class TemporalGeomHandler extends BaseResourceHandler<BigId, IObsData, Ob
 {
     public static final String[] NAMES = { "tgeometries" };
     
+    // same page limits as the other collection resources of the API
+    static final long DEFAULT_LIMIT = 100;
+    static final long MAX_LIMIT = 10000;
+    
     final IEventBus eventBus;
     final IObsSystemDatabase db;
+    final TrajectoryIndex trajectoryIndex;
     
     
     public static class ObsHandlerContextData
@@ -55,11 +61,91 @@ public class TemporalGeomHandler extends BaseResourceHandler<BigId, IObsData, Ob
     
     
     public TemporalGeomHandler(HandlerContext ctx, ResourcePermissions permissions)
+    {
+        this(ctx, permissions, null);
+    }
+    
+    
+    public TemporalGeomHandler(HandlerContext ctx, ResourcePermissions permissions, TrajectoryIndex trajectoryIndex)
     {
         super(ctx.getObservationStore(), ctx.getObsIdEncoder(), ctx, permissions);
         
         this.eventBus = ctx.getEventBus();
         this.db = ctx.getReadDb();
+        this.trajectoryIndex = trajectoryIndex;
+    }
+    
+    
+    @Override
+    public void doGet(RequestContext ctx) throws IOException
+    {
+        // serve trajectory collections from index when available
+        if (trajectoryIndex != null && ctx.isEndOfPath() && ctx.getParentRef().internalID != null)
+            listFromIndex(ctx);
+        else
+            super.doGet(ctx);
+    }
+    
+    
+    protected void listFromIndex(RequestContext ctx) throws IOException
+    {
+        var parent = ctx.getParentRef();
+        ctx.getSecurityHandler().checkParentPermission(permissions.list, parent.id);
+        
+        var queryParams = ctx.getParameterMap();
+        var format = parseFormat(queryParams);
+        if (!format.isOneOf(ResourceFormat.JSON, ResourceFormat.AUTO))
+            throw ServiceErrors.unsupportedFormat(format);
+        
+        // same filters as getFilter() so results don't depend on the index
+        var timeRange = parseTimeStampArg("datetime", queryParams);
+        var bbox = parseBboxArg("bbox", queryParams);
+        var geom = parseGeomArg("location", queryParams);
+        var offset = parseLongParam("offset", queryParams, 0);
+        var limit = Math.min(parseLongParam("limit", queryParams, DEFAULT_LIMIT), MAX_LIMIT);
+        var tolerance = 0.0;
+        var toleranceParam = queryParams.get("tolerance");
+        if (toleranceParam != null && toleranceParam.length > 0)
+        {
+            try { tolerance = Double.parseDouble(toleranceParam[0]); }
+            catch (NumberFormatException e) { throw ServiceErrors.badRequest("Invalid tolerance: " + toleranceParam[0]); }
+        }
+        
+        var trajectories = trajectoryIndex.select(parent.internalID, timeRange, bbox, geom, tolerance, offset, limit);
+        
+        // fall back to database if requested time range is no longer indexed
+        if (trajectories == null)
+        {
+            super.doGet(ctx);
+            return;
+        }
+        
+        ctx.setResponseContentType(ResourceFormat.JSON.getMimeType());
+        var binding = new TemporalGeomBindingJson(ctx, idEncoders, false, dataStore);
+        binding.startCollection();
+        for (var traj: trajectories)
+            binding.serialize(traj);
+        binding.endCollection(Collections.emptyList());
+    }
+    
+    
+    protected long parseLongParam(String name, Map<String, String[]> queryParams, long defaultValue) throws InvalidRequestException
+    {
+        var param = queryParams.get(name);
+        if (param == null || param.length == 0)
+            return defaultValue;
+        
+        try
+        {
+            var val = Long.parseLong(param[0]);
+            if (val < 0)
+                throw ServiceErrors.badRequest("Invalid " + name + ": " + param[0]);
+            return val;
+        }
+        catch (NumberFormatException e)
+        {
+            throw ServiceErrors.badRequest("Invalid " + name + ": " + param[0]);
+        }
     }
     
     
@@ -172,6 +172,17 @@ public class TemporalPropCollector extends DataBlockProcessor
     }
     
     
+    /*
+     * Clear all collected values but keep the processor tree
+     */
+    public void clear()
+    {
+        dateTimes.clear();
+        for (var prop: temporalProperties)
+            prop.values.clear();
+    }
+
+
     @Override
     public void visit(Boolean component)
     {
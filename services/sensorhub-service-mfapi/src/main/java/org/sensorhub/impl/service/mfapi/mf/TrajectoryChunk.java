@@ -0,0 +1,208 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.mfapi.mf;
+
+import java.util.Arrays;
+import org.vast.util.Bbox;
+
+
+/**
+ * <p>
+ * Time chunk of a single trajectory, storing raw positions in flat arrays
+ * along with simplified versions computed at several tolerance levels.<br/>
+ * Simplified levels are computed lazily with the Douglas-Peucker algorithm
+ * and are invalidated when new points are appended to the chunk.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+class TrajectoryChunk
+{
+    static final int INIT_CAPACITY = 64;
+
+    final long startTime;
+    final int numDims;
+    final int lonIdx;
+    final int latIdx;
+    int numPoints;
+    long[] times = new long[INIT_CAPACITY];
+    double[] coords;
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    volatile int[][] levels;
+
+
+    TrajectoryChunk(long startTime, int numDims, int lonIdx, int latIdx)
+    {
+        this.startTime = startTime;
+        this.numDims = numDims;
+        this.lonIdx = lonIdx;
+        this.latIdx = latIdx;
+        this.coords = new double[INIT_CAPACITY*numDims];
+    }
+
+
+    synchronized void add(long time, double[] pos)
+    {
+        if (numPoints == times.length)
+        {
+            times = Arrays.copyOf(times, numPoints*2);
+            coords = Arrays.copyOf(coords, numPoints*2*numDims);
+        }
+
+        times[numPoints] = time;
+        System.arraycopy(pos, 0, coords, numPoints*numDims, numDims);
+        numPoints++;
+
+        var x = pos[lonIdx];
+        var y = pos[latIdx];
+        if (x < minX) minX = x;
+        if (x > maxX) maxX = x;
+        if (y < minY) minY = y;
+        if (y > maxY) maxY = y;
+
+        levels = null;
+    }
+
+
+    long getEndTime()
+    {
+        return numPoints > 0 ? times[numPoints-1] : startTime;
+    }
+
+
+    boolean intersects(Bbox bbox)
+    {
+        return intersects(bbox.getMinX(), bbox.getMinY(), bbox.getMaxX(), bbox.getMaxY());
+    }
+
+
+    boolean intersects(double bMinX, double bMinY, double bMaxX, double bMaxY)
+    {
+        return numPoints > 0 &&
+            minX <= bMaxX && maxX >= bMinX &&
+            minY <= bMaxY && maxY >= bMinY;
+    }
+
+
+    /*
+     * Get indices of points to keep at the given level.
+     * Level 0 is always the raw trajectory, level N is simplified using
+     * tolerance N-1 of the provided array.
+     */
+    synchronized int[] getLevel(int level, double[] tolerances)
+    {
+        var levels = this.levels;
+        if (levels == null)
+        {
+            levels = new int[tolerances.length+1][];
+            this.levels = levels;
+        }
+
+        if (levels[level] == null)
+        {
+            if (level == 0)
+                levels[0] = allIndices();
+            else
+                levels[level] = simplify(tolerances[level-1]);
+        }
+
+        return levels[level];
+    }
+
+
+    int[] allIndices()
+    {
+        var indices = new int[numPoints];
+        for (int i = 0; i < numPoints; i++)
+            indices[i] = i;
+        return indices;
+    }
+
+
+    /*
+     * Non-recursive Douglas-Peucker simplification in lon/lat space
+     */
+    int[] simplify(double tolerance)
+    {
+        if (numPoints < 3)
+            return allIndices();
+
+        var keep = new boolean[numPoints];
+        keep[0] = true;
+        keep[numPoints-1] = true;
+
+        var stack = new int[2*numPoints];
+        int sp = 0;
+        stack[sp++] = 0;
+        stack[sp++] = numPoints-1;
+        var tol2 = tolerance*tolerance;
+
+        while (sp > 0)
+        {
+            var last = stack[--sp];
+            var first = stack[--sp];
+
+            var x0 = coords[first*numDims+lonIdx];
+            var y0 = coords[first*numDims+latIdx];
+            var dx = coords[last*numDims+lonIdx] - x0;
+            var dy = coords[last*numDims+latIdx] - y0;
+            var len2 = dx*dx + dy*dy;
+
+            var maxDist2 = 0.0;
+            var maxIdx = -1;
+            for (int i = first+1; i < last; i++)
+            {
+                var px = coords[i*numDims+lonIdx] - x0;
+                var py = coords[i*numDims+latIdx] - y0;
+                double d2;
+                if (len2 == 0)
+                    d2 = px*px + py*py;
+                else
+                {
+                    var cross = px*dy - py*dx;
+                    d2 = cross*cross / len2;
+                }
+
+                if (d2 > maxDist2)
+                {
+                    maxDist2 = d2;
+                    maxIdx = i;
+                }
+            }
+
+            if (maxIdx >= 0 && maxDist2 > tol2)
+            {
+                keep[maxIdx] = true;
+                stack[sp++] = first;
+                stack[sp++] = maxIdx;
+                stack[sp++] = maxIdx;
+                stack[sp++] = last;
+            }
+        }
+
+        int count = 0;
+        for (var k: keep)
+            if (k) count++;
+
+        var indices = new int[count];
+        for (int i = 0, j = 0; i < numPoints; i++)
+            if (keep[i]) indices[j++] = i;
+        return indices;
+    }
+}
@@ -0,0 +1,500 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.mfapi.mf;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.sensorhub.api.common.BigId;
+import org.sensorhub.api.data.IObsData;
+import org.sensorhub.api.datastore.TemporalFilter;
+import org.sensorhub.api.datastore.obs.DataStreamKey;
+import org.sensorhub.api.datastore.obs.IObsStore;
+import org.sensorhub.api.datastore.obs.ObsFilter;
+import org.sensorhub.impl.service.mfapi.MFApiServiceConfig.TrajectoryIndexConfig;
+import org.slf4j.Logger;
+import org.vast.swe.helper.GeoPosHelper;
+import org.vast.util.Bbox;
+import org.vast.util.TimeExtent;
+import net.opengis.swe.v20.Vector;
+
+
+/**
+ * <p>
+ * Index maintaining precomputed trajectories of moving features.<br/>
+ * Trajectories are split in fixed duration chunks, each holding the raw
+ * positions and simplified versions at several tolerance levels, so that
+ * bbox and time window requests can be answered without rescanning and
+ * reparsing all observations from the database.
+ * </p><p>
+ * Trajectories of a given feature are loaded from the observation store
+ * the first time they are requested and then updated incrementally,
+ * either on the next request or by calling {@link #refresh()} periodically.
+ * Observations older than the latest indexed position of a datastream are
+ * ignored.
+ * </p><p>
+ * Memory is bounded by the max number of features (least recently used
+ * features are evicted first) and by the max number of positions per
+ * datastream and per feature (oldest chunks are dropped first). Requests
+ * reaching before the oldest position still indexed are not answered from
+ * the index so they can be served from the database instead.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class TrajectoryIndex
+{
+    final IObsStore obsStore;
+    final Logger log;
+    final long chunkDuration;
+    final double[] tolerances;
+    final int maxFeatures;
+    final int maxPointsPerDataStream;
+    final int maxPointsPerFeature;
+    final GeometryFactory geomFactory = new GeometryFactory();
+
+    // access ordered so the least recently used feature is always first
+    final Map<BigId, FoiTrajectories> fois;
+
+
+    /*
+     * Trajectory selected by a query
+     */
+    public static class Trajectory
+    {
+        public BigId dsId;
+        public List<Instant> dateTimes = new ArrayList<>();
+        public List<double[]> coordinates = new ArrayList<>();
+    }
+
+
+    class FoiTrajectories
+    {
+        final BigId foiId;
+        final Map<BigId, DataStreamTrajectory> dataStreams = new LinkedHashMap<>();
+        int numPoints;
+
+        FoiTrajectories(BigId foiId)
+        {
+            this.foiId = foiId;
+        }
+
+        /*
+         * Drop oldest chunks of all datastreams until the number of points
+         * is below the limit, always keeping the chunk being written to
+         */
+        void trim()
+        {
+            while (numPoints > maxPointsPerFeature)
+            {
+                DataStreamTrajectory oldest = null;
+                for (var dsTraj: dataStreams.values())
+                {
+                    if (dsTraj.chunks.size() > 1 &&
+                        (oldest == null || dsTraj.chunks.firstKey() < oldest.chunks.firstKey()))
+                        oldest = dsTraj;
+                }
+
+                if (oldest == null)
+                    break;
+                oldest.removeFirstChunk();
+            }
+        }
+    }
+
+
+    class DataStreamTrajectory
+    {
+        final FoiTrajectories foiTraj;
+        final BigId dsId;
+        final TemporalPropCollector collector;
+        final TreeMap<Long, TrajectoryChunk> chunks = new TreeMap<>();
+        final List<TemporalPropCollector.ValueCollector<?>> coordProps = new ArrayList<>();
+        int lonIdx = -1, latIdx = -1;
+        double[] pos;
+        Instant latestTime = Instant.MIN;
+        long firstIndexedTime = Long.MIN_VALUE;
+        int numPoints;
+
+        DataStreamTrajectory(FoiTrajectories foiTraj, BigId dsId)
+        {
+            this.foiTraj = foiTraj;
+            this.dsId = dsId;
+            this.collector = new TemporalPropCollector(dsId);
+        }
+
+        void add(IObsData obs) throws IOException
+        {
+            collector.collect(obs);
+
+            // build list of coordinates on first obs since the collector
+            // tree is created lazily
+            if (pos == null)
+            {
+                for (var prop: collector.temporalProperties)
+                {
+                    if (prop.comp.getParent() instanceof Vector)
+                    {
+                        var def = prop.comp.getDefinition();
+                        if (GeoPosHelper.DEF_LONGITUDE.equals(def))
+                            lonIdx = coordProps.size();
+                        else if (GeoPosHelper.DEF_LATITUDE_GEODETIC.equals(def))
+                            latIdx = coordProps.size();
+                        coordProps.add(prop);
+                    }
+                }
+
+                pos = new double[coordProps.size()];
+            }
+
+            if (lonIdx >= 0 && latIdx >= 0)
+            {
+                for (int i = 0; i < pos.length; i++)
+                    pos[i] = ((Number)coordProps.get(i).values.get(0)).doubleValue();
+
+                var time = obs.getPhenomenonTime();
+                var timeMillis = time.toEpochMilli();
+                var chunkStart = Math.floorDiv(timeMillis, chunkDuration) * chunkDuration;
+                var chunk = chunks.get(chunkStart);
+                if (chunk == null)
+                {
+                    chunk = new TrajectoryChunk(chunkStart, pos.length, lonIdx, latIdx);
+                    chunks.put(chunkStart, chunk);
+
+                    // enforce memory limits when starting a new chunk
+                    while (numPoints > maxPointsPerDataStream && chunks.size() > 1)
+                        removeFirstChunk();
+                    foiTraj.trim();
+                }
+
+                chunk.add(timeMillis, pos);
+                numPoints++;
+                foiTraj.numPoints++;
+                latestTime = time;
+            }
+
+            collector.clear();
+        }
+
+        void removeFirstChunk()
+        {
+            var chunk = chunks.pollFirstEntry().getValue();
+            numPoints -= chunk.numPoints;
+            foiTraj.numPoints -= chunk.numPoints;
+
+            // positions before the next chunk are not indexed anymore
+            firstIndexedTime = chunks.firstKey();
+        }
+    }
+
+
+    public TrajectoryIndex(IObsStore obsStore, TrajectoryIndexConfig config, Logger log)
+    {
+        this.obsStore = obsStore;
+        this.log = log;
+        this.chunkDuration = config.chunkDuration * 1000L;
+        this.tolerances = config.tolerances.clone();
+        this.maxFeatures = config.maxFeatures;
+        this.maxPointsPerDataStream = config.maxPointsPerDataStream;
+        this.maxPointsPerFeature = config.maxPointsPerFeature;
+        Arrays.sort(this.tolerances);
+
+        this.fois = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BigId, FoiTrajectories> eldest)
+            {
+                return size() > maxFeatures;
+            }
+        };
+    }
+
+
+    /**
+     * Select trajectories of the given feature of interest
+     * @param foiId Internal ID of the feature of interest
+     * @param timeRange Time range to select or null to select all
+     * @param bbox Bounding box used to select positions or null to select all
+     * @param roi Geometry used to select positions or null to select all
+     * @param tolerance Maximum simplification tolerance in degrees
+     * @param offset Number of positions to skip
+     * @param limit Maximum number of positions to return, callers must
+     * apply the API page limit since time range and bbox are optional
+     * @return The list of selected trajectories, one per datastream, or null
+     * if the index doesn't contain all positions in the requested time range
+     * @throws IOException if the index cannot be updated from the database
+     */
+    public List<Trajectory> select(BigId foiId, TimeExtent timeRange, Bbox bbox, Geometry roi, double tolerance, long offset, long limit) throws IOException
+    {
+        FoiTrajectories foiTraj;
+        synchronized (fois)
+        {
+            foiTraj = fois.computeIfAbsent(foiId, FoiTrajectories::new);
+        }
+        update(foiTraj);
+
+        var level = getLevel(tolerance);
+        var minTime = timeRange != null ? toEpochMillis(timeRange.begin(), Long.MIN_VALUE) : Long.MIN_VALUE;
+        var maxTime = timeRange != null ? toEpochMillis(timeRange.end(), Long.MAX_VALUE) : Long.MAX_VALUE;
+        var minChunk = minTime == Long.MIN_VALUE ? minTime : Math.floorDiv(minTime, chunkDuration) * chunkDuration;
+        var selector = new PointSelector(bbox, roi, offset, limit);
+
+        var results = new ArrayList<Trajectory>();
+        synchronized (foiTraj)
+        {
+            for (var dsTraj: foiTraj.dataStreams.values())
+            {
+                if (minTime < dsTraj.firstIndexedTime)
+                    return null;
+            }
+
+            for (var dsTraj: foiTraj.dataStreams.values())
+            {
+                var traj = new Trajectory();
+                traj.dsId = dsTraj.dsId;
+
+                for (var chunk: dsTraj.chunks.tailMap(minChunk, true).values())
+                {
+                    if (chunk.startTime > maxTime || selector.isDone())
+                        break;
+
+                    if (!selector.intersects(chunk))
+                        continue;
+
+                    collectPoints(chunk, level, minTime, maxTime, selector, traj);
+                }
+
+                if (!traj.dateTimes.isEmpty())
+                    results.add(traj);
+            }
+        }
+
+        return results;
+    }
+
+
+    /*
+     * Convert to epoch millis, clamping instants that cannot be represented
+     * (e.g. open-ended time ranges)
+     */
+    static long toEpochMillis(Instant t, long defaultValue)
+    {
+        if (t == null)
+            return defaultValue;
+
+        try
+        {
+            return t.toEpochMilli();
+        }
+        catch (ArithmeticException e)
+        {
+            return t.isBefore(Instant.EPOCH) ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+
+    /*
+     * Spatial filter and paging state of a query
+     */
+    class PointSelector
+    {
+        final Bbox bbox;
+        final Geometry roi;
+        final PreparedGeometry preparedRoi;
+        long toSkip;
+        long remaining;
+
+        PointSelector(Bbox bbox, Geometry roi, long offset, long limit)
+        {
+            this.bbox = bbox;
+            this.roi = roi;
+            this.preparedRoi = roi != null ? PreparedGeometryFactory.prepare(roi) : null;
+            this.toSkip = Math.max(0, offset);
+            this.remaining = limit;
+        }
+
+        boolean intersects(TrajectoryChunk chunk)
+        {
+            if (bbox != null && !chunk.intersects(bbox))
+                return false;
+
+            if (roi != null)
+            {
+                var env = roi.getEnvelopeInternal();
+                if (!chunk.intersects(env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY()))
+                    return false;
+            }
+
+            return true;
+        }
+
+        boolean accept(double x, double y)
+        {
+            if (bbox != null && (x < bbox.getMinX() || x > bbox.getMaxX() || y < bbox.getMinY() || y > bbox.getMaxY()))
+                return false;
+
+            if (preparedRoi != null && !preparedRoi.intersects(geomFactory.createPoint(new Coordinate(x, y))))
+                return false;
+
+            if (toSkip > 0)
+            {
+                toSkip--;
+                return false;
+            }
+
+            remaining--;
+            return true;
+        }
+
+        boolean isDone()
+        {
+            return remaining <= 0;
+        }
+    }
+
+
+    void collectPoints(TrajectoryChunk chunk, int level, long minTime, long maxTime, PointSelector selector, Trajectory traj)
+    {
+        synchronized (chunk)
+        {
+            var indices = chunk.getLevel(level, tolerances);
+            for (var i: indices)
+            {
+                var t = chunk.times[i];
+                if (t < minTime || t > maxTime)
+                    continue;
+
+                var idx = i*chunk.numDims;
+                if (!selector.accept(chunk.coords[idx+chunk.lonIdx], chunk.coords[idx+chunk.latIdx]))
+                    continue;
+
+                traj.dateTimes.add(Instant.ofEpochMilli(t));
+                traj.coordinates.add(Arrays.copyOfRange(chunk.coords, idx, idx+chunk.numDims));
+
+                if (selector.isDone())
+                    break;
+            }
+        }
+    }
+
+
+    /*
+     * Get index of the largest precomputed level whose tolerance is
+     * lower or equal to the requested tolerance
+     */
+    int getLevel(double tolerance)
+    {
+        int level = 0;
+        for (int i = 0; i < tolerances.length; i++)
+        {
+            if (tolerances[i] <= tolerance)
+                level = i+1;
+        }
+        return level;
+    }
+
+
+    /**
+     * Update all indexed trajectories with new observations
+     */
+    public void refresh()
+    {
+        List<FoiTrajectories> snapshot;
+        synchronized (fois)
+        {
+            snapshot = new ArrayList<>(fois.values());
+        }
+
+        for (var foiTraj: snapshot)
+        {
+            try
+            {
+                update(foiTraj);
+            }
+            catch (Exception e)
+            {
+                log.error("Error updating trajectory index for feature {}", foiTraj.foiId, e);
+            }
+        }
+    }
+
+
+    protected void update(FoiTrajectories foiTraj) throws IOException
+    {
+        synchronized (foiTraj)
+        {
+            // fetch all obs newer than the oldest latest time of all datastreams
+            var latestTime = Instant.MAX;
+            for (var dsTraj: foiTraj.dataStreams.values())
+            {
+                if (dsTraj.latestTime.isBefore(latestTime))
+                    latestTime = dsTraj.latestTime;
+            }
+
+            var builder = new ObsFilter.Builder()
+                .withDataStreams()
+                    .withObservedProperties(GeoPosHelper.DEF_LONGITUDE)
+                    .done()
+                .withFois(foiTraj.foiId);
+
+            if (!foiTraj.dataStreams.isEmpty() && latestTime != Instant.MIN)
+            {
+                builder.withPhenomenonTime(new TemporalFilter.Builder()
+                    .withRange(latestTime.plusNanos(1), Instant.MAX)
+                    .build());
+            }
+
+            try
+            {
+                obsStore.select(builder.build()).forEach(obs -> {
+                    var dsTraj = foiTraj.dataStreams.computeIfAbsent(obs.getDataStreamID(), k -> createTrajectory(foiTraj, k));
+                    if (dsTraj != null && obs.getPhenomenonTime().isAfter(dsTraj.latestTime))
+                    {
+                        try { dsTraj.add(obs); }
+                        catch (IOException e) { throw new IllegalStateException(e); }
+                    }
+                });
+            }
+            catch (IllegalStateException e)
+            {
+                throw new IOException("Error updating trajectory index", e.getCause());
+            }
+        }
+    }
+
+
+    protected DataStreamTrajectory createTrajectory(FoiTrajectories foiTraj, BigId dsId)
+    {
+        var dsInfo = obsStore.getDataStreams().get(new DataStreamKey(dsId));
+        if (dsInfo == null)
+            return null;
+
+        var dsTraj = new DataStreamTrajectory(foiTraj, dsId);
+        dsTraj.collector.setDataComponents(dsInfo.getRecordStructure());
+        return dsTraj;
+    }
+
+}
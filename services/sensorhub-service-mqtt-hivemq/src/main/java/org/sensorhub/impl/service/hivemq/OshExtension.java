@@ -293,8 +293,11 @@ public class OshExtension implements ExtensionMain, EmbeddedExtension, IMqttServ
             .correlationData(correlData)
             .retain(false)
             .build();
-        Services.publishService().publish(message);
-        return CompletableFuture.completedFuture(true);
+        
+        // complete only once HiveMQ has taken the message so the caller
+        // knows when the payload buffer can be reused
+        return Services.publishService().publish(message)
+            .handle((v, e) -> e == null);
     }
 
 
@@ -18,6 +18,8 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.concurrent.TimeUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.Flow.Subscriber;
 import java.util.stream.Collectors;
 import org.joda.time.DateTimeZone;
@@ -142,12 +144,7 @@ public class ObservationEntityHandler implements IResourceHandler<Observation>
                 ResourceId dsId = pm.dataStreamHandler.handleDatastreamAssoc(ds);
                 
                 // get transaction handler for existing datastream
-                var dsHandler = dsHandlerCache.get(dsId, () -> {
-                    return pm.transactionHandler.getDataStreamHandler(dsId);
-                });
-                if (dsHandler == null)
-                    throw new NoSuchEntityException(DatastreamEntityHandler.NOT_FOUND_MESSAGE + dsId);
-                //var oldDsInfo = dsHandler.getDataStreamInfo();
+                var dsHandler = getDataStreamHandler(dsId);
                 
                 // check linked FOI exists
                 ResourceId foiId = null;
@@ -155,10 +152,7 @@ public class ObservationEntityHandler implements IResourceHandler<Observation>
                 if (obs.getFeatureOfInterest() != null)
                 {
                     foiId = (ResourceId)obs.getFeatureOfInterest().getId();
-                    var foi = pm.foiHandler.foiWriteStore.getCurrentVersion(foiId);
-                    if (foi == null)
-                        throw new NoSuchEntityException(FoiEntityHandler.NOT_FOUND_MESSAGE + foiId);
-                    foiUri = foi.getUniqueIdentifier();
+                    foiUri = getFoiUri(foiId, new HashMap<>());
                 }
                 
                 // generate OSH obs
@@ -180,6 +174,86 @@ public class ObservationEntityHandler implements IResourceHandler<Observation>
     }
 
 
+    /*
+     * Create a batch of observations of the same datastream in a single transaction.
+     * The datastream association and transaction handler are resolved only once
+     * and each FOI is looked up only once per batch.
+     */
+    public List<ResourceId> createBatch(AbstractDatastream<?> ds, List<Observation> obsList) throws NoSuchEntityException
+    {
+        checkTransactionsEnabled();
+        Asserts.checkNotNull(obsList, "obsList");
+        
+        securityHandler.checkPermission(securityHandler.sta_insert_obs);
+        for (var obs: obsList)
+            Asserts.checkArgument(obs.getPhenomenonTime() != null, "Missing phenomenonTime");
+        
+        try
+        {
+            return pm.writeDatabase.executeTransaction(() -> {
+                
+                // handle datastream association once for the whole batch
+                ResourceId dsId = pm.dataStreamHandler.handleDatastreamAssoc(ds);
+                var dsHandler = getDataStreamHandler(dsId);
+                
+                var foiUris = new HashMap<ResourceId, String>();
+                var ids = new ArrayList<ResourceId>(obsList.size());
+                for (var obs: obsList)
+                {
+                    ResourceId foiId = null;
+                    String foiUri = null;
+                    if (obs.getFeatureOfInterest() != null)
+                    {
+                        foiId = (ResourceId)obs.getFeatureOfInterest().getId();
+                        foiUri = getFoiUri(foiId, foiUris);
+                    }
+                    
+                    var obsData = toObsData(obs, dsId, foiId, foiUri);
+                    var newObsId = dsHandler.addObs(obsData);
+                    ids.add(new ResourceBigId(newObsId));
+                }
+                
+                return ids;
+            });
+        }
+        catch (IllegalArgumentException | NoSuchEntityException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new ServerErrorException("Error creating observations", e);
+        }
+    }
+    
+    
+    protected DataStreamTransactionHandler getDataStreamHandler(ResourceId dsId) throws Exception
+    {
+        var dsHandler = dsHandlerCache.get(dsId, () -> {
+            return pm.transactionHandler.getDataStreamHandler(dsId);
+        });
+        if (dsHandler == null)
+            throw new NoSuchEntityException(DatastreamEntityHandler.NOT_FOUND_MESSAGE + dsId);
+        return dsHandler;
+    }
+    
+    
+    protected String getFoiUri(ResourceId foiId, HashMap<ResourceId, String> foiUris) throws NoSuchEntityException
+    {
+        var foiUri = foiUris.get(foiId);
+        if (foiUri == null)
+        {
+            var foi = pm.foiHandler.foiWriteStore.getCurrentVersion(foiId);
+            if (foi == null)
+                throw new NoSuchEntityException(FoiEntityHandler.NOT_FOUND_MESSAGE + foiId);
+            foiUri = foi.getUniqueIdentifier();
+            foiUris.put(foiId, foiUri);
+        }
+        
+        return foiUri;
+    }
+
+
     @Override
     public boolean update(Entity entity) throws NoSuchEntityException
     {
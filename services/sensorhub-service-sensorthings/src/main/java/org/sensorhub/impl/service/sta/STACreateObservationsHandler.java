@@ -0,0 +1,273 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.sta;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.AccessControlException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import de.fraunhofer.iosb.ilt.frostserver.model.Datastream;
+import de.fraunhofer.iosb.ilt.frostserver.model.FeatureOfInterest;
+import de.fraunhofer.iosb.ilt.frostserver.model.MultiDatastream;
+import de.fraunhofer.iosb.ilt.frostserver.model.Observation;
+import de.fraunhofer.iosb.ilt.frostserver.model.core.AbstractDatastream;
+import de.fraunhofer.iosb.ilt.frostserver.model.core.Id;
+import de.fraunhofer.iosb.ilt.frostserver.model.ext.TimeInstant;
+import de.fraunhofer.iosb.ilt.frostserver.persistence.PersistenceManagerFactory;
+import de.fraunhofer.iosb.ilt.frostserver.settings.CoreSettings;
+import de.fraunhofer.iosb.ilt.frostserver.util.NoSuchEntityException;
+
+
+/**
+ * <p>
+ * Handler for the STA CreateObservations request (dataArray extension).<br/>
+ * The whole payload is validated first and the request is rejected without
+ * inserting anything if any entry is invalid. Observations of each datastream
+ * entry are then inserted as a single batch in one database transaction. As per the specification, the response
+ * contains the URL of each created observation, or "error" for each
+ * observation of a batch that could not be inserted.
+ * </p>
+ *
+ * @author agent
+ * @date Oct 19, 2026
+ */
+public class STACreateObservationsHandler
+{
+    public static final String PATH = "/CreateObservations";
+    static final String ERROR_VALUE = "error";
+    static final String COMP_PHENOMENON_TIME = "phenomenonTime";
+    static final String COMP_RESULT_TIME = "resultTime";
+    static final String COMP_RESULT = "result";
+    static final String COMP_FOI = "FeatureOfInterest/id";
+    static final String COMP_PARAMS = "parameters";
+
+    static final TypeReference<Map<String, Object>> PARAMS_TYPE = new TypeReference<>() {};
+
+    STAService service;
+    CoreSettings coreSettings;
+    ObjectMapper mapper = new ObjectMapper();
+    volatile OSHPersistenceManager pm;
+
+
+    static class ObsBatch
+    {
+        final AbstractDatastream<?> ds;
+        final List<Observation> obsList;
+
+        ObsBatch(AbstractDatastream<?> ds, List<Observation> obsList)
+        {
+            this.ds = ds;
+            this.obsList = obsList;
+        }
+    }
+
+
+    public STACreateObservationsHandler(STAService service, CoreSettings coreSettings)
+    {
+        this.service = service;
+        this.coreSettings = coreSettings;
+    }
+
+
+    public static boolean isCreateObservationsRequest(HttpServletRequest req)
+    {
+        var pathInfo = req.getPathInfo();
+        return "POST".equals(req.getMethod()) && pathInfo != null && pathInfo.endsWith(PATH);
+    }
+
+
+    /*
+     * Handle request. The current user must have been set before calling this method.
+     */
+    public void handle(HttpServletRequest req, HttpServletResponse resp) throws IOException
+    {
+        JsonNode root;
+        try
+        {
+            root = mapper.readTree(req.getInputStream());
+            if (!root.isArray())
+                throw new IllegalArgumentException("CreateObservations payload must be a JSON array");
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        // parse and validate all entries before inserting anything so that
+        // an invalid entry doesn't leave earlier batches committed
+        var batches = new ArrayList<ObsBatch>(root.size());
+        try
+        {
+            for (var dsEntry: root)
+                batches.add(new ObsBatch(parseDatastream(dsEntry), parseObservations(dsEntry)));
+        }
+        catch (IllegalArgumentException e)
+        {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        var obsHandler = getPersistenceManager().observationHandler;
+        var baseUrl = coreSettings.getServiceRootUrl() + "/v1.0/Observations(";
+        var results = mapper.createArrayNode();
+
+        for (var batch: batches)
+        {
+            try
+            {
+                var ids = obsHandler.createBatch(batch.ds, batch.obsList);
+                for (var id: ids)
+                    results.add(baseUrl + id.getUrl() + ")");
+            }
+            catch (AccessControlException e)
+            {
+                // let servlet handle permission errors
+                return;
+            }
+            catch (NoSuchEntityException | RuntimeException e)
+            {
+                service.getLogger().debug("Error inserting observation batch", e);
+                addErrors(results, batch.obsList.size());
+            }
+        }
+
+        resp.setStatus(HttpServletResponse.SC_CREATED);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        mapper.writeValue(resp.getOutputStream(), results);
+    }
+
+
+    protected AbstractDatastream<?> parseDatastream(JsonNode dsEntry)
+    {
+        var dsNode = dsEntry.get("Datastream");
+        if (dsNode != null)
+            return new Datastream(parseId(dsNode));
+
+        dsNode = dsEntry.get("MultiDatastream");
+        if (dsNode != null)
+            return new MultiDatastream(parseId(dsNode));
+
+        throw new IllegalArgumentException("Missing Datastream or MultiDatastream");
+    }
+
+
+    protected List<Observation> parseObservations(JsonNode dsEntry)
+    {
+        var components = dsEntry.get("components");
+        var dataArray = dsEntry.get("dataArray");
+        if (components == null || !components.isArray() || dataArray == null || !dataArray.isArray())
+            throw new IllegalArgumentException("Missing components or dataArray");
+
+        // map component names to indices once per batch
+        int timeIdx = -1, resultTimeIdx = -1, resultIdx = -1, foiIdx = -1, paramsIdx = -1;
+        for (int i = 0; i < components.size(); i++)
+        {
+            var name = components.get(i).asText();
+            if (COMP_PHENOMENON_TIME.equals(name))
+                timeIdx = i;
+            else if (COMP_RESULT_TIME.equals(name))
+                resultTimeIdx = i;
+            else if (COMP_RESULT.equals(name))
+                resultIdx = i;
+            else if (COMP_FOI.equals(name))
+                foiIdx = i;
+            else if (COMP_PARAMS.equals(name))
+                paramsIdx = i;
+        }
+
+        if (resultIdx < 0)
+            throw new IllegalArgumentException("Missing result component");
+
+        var obsList = new ArrayList<Observation>(dataArray.size());
+        for (var row: dataArray)
+        {
+            if (!row.isArray() || row.size() != components.size())
+                throw new IllegalArgumentException("Invalid dataArray row: " + row);
+
+            var obs = new Observation();
+
+            if (timeIdx >= 0)
+                obs.setPhenomenonTime(TimeInstant.parse(row.get(timeIdx).asText()));
+            else
+                obs.setPhenomenonTime(TimeInstant.now());
+
+            if (resultTimeIdx >= 0 && !row.get(resultTimeIdx).isNull())
+                obs.setResultTime(TimeInstant.parse(row.get(resultTimeIdx).asText()));
+
+            if (foiIdx >= 0 && !row.get(foiIdx).isNull())
+                obs.setFeatureOfInterest(new FeatureOfInterest(parseId(row.get(foiIdx))));
+
+            if (paramsIdx >= 0 && row.get(paramsIdx).isObject())
+            {
+                obs.setParameters(mapper.convertValue(row.get(paramsIdx), PARAMS_TYPE));
+            }
+
+            obs.setResult(toResultValue(row.get(resultIdx)));
+            obsList.add(obs);
+        }
+
+        return obsList;
+    }
+
+
+    protected Object toResultValue(JsonNode node)
+    {
+        try
+        {
+            return mapper.treeToValue(node, Object.class);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalArgumentException("Invalid result: " + node, e);
+        }
+    }
+
+
+    protected Id parseId(JsonNode node)
+    {
+        var idNode = node.isObject() ? node.get("@iot.id") : node;
+        if (idNode == null || idNode.isNull())
+            throw new IllegalArgumentException("Missing @iot.id");
+
+        var idStr = idNode.isNumber() ? idNode.asText() : "'" + idNode.asText() + "'";
+        return getPersistenceManager().getIdManager().parseId(idStr);
+    }
+
+
+    protected void addErrors(ArrayNode results, int count)
+    {
+        for (int i = 0; i < count; i++)
+            results.add(ERROR_VALUE);
+    }
+
+
+    protected OSHPersistenceManager getPersistenceManager()
+    {
+        // create lazily since persistence manager factory is initialized by servlet
+        if (pm == null)
+            pm = (OSHPersistenceManager)PersistenceManagerFactory.getInstance().create();
+        return pm;
+    }
+}
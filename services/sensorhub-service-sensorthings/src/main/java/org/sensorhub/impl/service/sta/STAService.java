@@ -160,6 +160,13 @@ public class STAService extends AbstractHttpServiceModule<STAServiceConfig> impl
         var coreSettings = new CoreSettings(staSettings);
         servlet.getServletContext().setAttribute(TAG_CORE_SETTINGS, coreSettings);
         
+        // enable streaming of collections as server-sent events
+        if (config.enableEventStream)
+            ((STAServlet)servlet).streamHandler = new STAStreamHandler(this, coreSettings);
+        
+        // enable batch observation insertion
+        ((STAServlet)servlet).createObsHandler = new STACreateObservationsHandler(this, coreSettings);
+        
         // also enable MQTT extension if an MQTT server is available
         if (config.enableMqtt)
         {
@@ -218,6 +225,10 @@ public class STAService extends AbstractHttpServiceModule<STAServiceConfig> impl
 
         if (servlet != null)
         {
+            var streamHandler = ((STAServlet)servlet).streamHandler;
+            if (streamHandler != null)
+                streamHandler.stop();
+            
             httpServer.undeployServlet(servlet);
             servlet.destroy();
             servlet = null;
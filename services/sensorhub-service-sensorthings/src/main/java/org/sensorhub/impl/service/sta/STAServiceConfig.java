@@ -74,6 +74,10 @@ public class STAServiceConfig extends HttpServiceConfig
     public boolean enableMqtt = false;
     
     
+    @DisplayInfo(desc="Set to true to enable streaming of collections as server-sent events, with optional server-side sampling")
+    public boolean enableEventStream = true;
+    
+    
     @DisplayInfo(label="Max Observations Returned", desc="Maximum number of observations returned in a page (max limit)")
     public int maxObsCount = 1000;
     
@@ -36,6 +36,8 @@ public class STAServlet extends ServletV1P0
     
     STAService service;
     STASecurity securityHandler;
+    volatile STAStreamHandler streamHandler;
+    volatile STACreateObservationsHandler createObsHandler;
     
     
     STAServlet(STAService service)
@@ -53,7 +55,17 @@ public class STAServlet extends ServletV1P0
             userID = request.getRemoteUser();
         
         securityHandler.setCurrentUser(userID);
-        super.service(request, response);
+        
+        // stream collection as server-sent events if requested
+        if (streamHandler != null && STAStreamHandler.isEventStreamRequest(request))
+            streamHandler.handle(request, response);
+        
+        // insert observation batches
+        else if (createObsHandler != null && STACreateObservationsHandler.isCreateObservationsRequest(request))
+            createObsHandler.handle(request, response);
+        
+        else
+            super.service(request, response);
         
         Exception authError = securityHandler.getPermissionError();
         if (authError != null)
@@ -0,0 +1,411 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.sta;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.AccessControlException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import de.fraunhofer.iosb.ilt.frostserver.formatter.ResultFormatter;
+import de.fraunhofer.iosb.ilt.frostserver.model.core.Entity;
+import de.fraunhofer.iosb.ilt.frostserver.parser.path.PathParser;
+import de.fraunhofer.iosb.ilt.frostserver.parser.query.QueryParser;
+import de.fraunhofer.iosb.ilt.frostserver.path.ResourcePath;
+import de.fraunhofer.iosb.ilt.frostserver.persistence.PersistenceManagerFactory;
+import de.fraunhofer.iosb.ilt.frostserver.query.Query;
+import de.fraunhofer.iosb.ilt.frostserver.settings.CoreSettings;
+
+
+/**
+ * <p>
+ * This class streams STA collections to HTTP clients as server-sent events.
+ * It reuses the subscription mechanism of the MQTT extension and can
+ * optionally decimate observations on the server side before they are
+ * serialized, using the following (non-standard) query parameters:
+ * <ul>
+ * <li>sampling: latest, min, max or avg</li>
+ * <li>samplingInterval: duration of the sampling window in seconds</li>
+ * </ul>
+ * </p><p>
+ * Requests are processed asynchronously so streaming clients don't hold
+ * servlet threads. A single timer thread is used to send keep-alive comments
+ * and to flush sampling windows when a stream goes quiet.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class STAStreamHandler
+{
+    public static final String EVENT_STREAM_MIME_TYPE = "text/event-stream";
+    static final String SAMPLING_PARAM = "sampling";
+    static final String SAMPLING_INTERVAL_PARAM = "samplingInterval";
+    static final long KEEP_ALIVE_PERIOD = 15000L;
+    static final byte[] KEEP_ALIVE_MSG = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    STAService service;
+    CoreSettings coreSettings;
+    ScheduledExecutorService timer;
+    volatile OSHPersistenceManager pm;
+
+
+    static class StreamParams
+    {
+        STAStreamSampler.Mode samplingMode;
+        long samplingInterval;
+        String staQuery;
+    }
+
+
+    class EventStreamSubscriber implements Subscriber<Entity<?>>, AsyncListener
+    {
+        final ResourcePath path;
+        final Query query;
+        final ResultFormatter formatter;
+        final OutputStream os;
+        final AtomicBoolean closed = new AtomicBoolean();
+        volatile Subscription subscription;
+        volatile AsyncContext asyncCtx;
+        volatile ScheduledFuture<?> keepAliveTask;
+        volatile ScheduledFuture<?> flushTask;
+        volatile long lastWriteTime;
+
+        EventStreamSubscriber(ResourcePath path, Query query, OutputStream os)
+        {
+            this.path = path;
+            this.query = query;
+            this.os = os;
+            this.formatter = coreSettings.getFormatter();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription)
+        {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(Entity<?> item)
+        {
+            try
+            {
+                var msg = formatter.format(path, query, item, false);
+                write(("data: " + msg + "\n\n").getBytes(StandardCharsets.UTF_8));
+            }
+            catch (IOException e)
+            {
+                service.getLogger().debug("Client disconnected from stream {}", path, e);
+                close();
+            }
+            catch (Exception e)
+            {
+                service.getLogger().error("Error while streaming {}", path, e);
+                close();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable)
+        {
+            service.getLogger().error("Error while streaming {}", path, throwable);
+            close();
+        }
+
+        @Override
+        public void onComplete()
+        {
+            close();
+        }
+
+        void start(AsyncContext asyncCtx, STAStreamSampler sampler)
+        {
+            this.asyncCtx = asyncCtx;
+            asyncCtx.setTimeout(0);
+            asyncCtx.addListener(this);
+
+            keepAliveTask = timer.scheduleAtFixedRate(this::keepAlive,
+                KEEP_ALIVE_PERIOD, KEEP_ALIVE_PERIOD, TimeUnit.MILLISECONDS);
+
+            // emit sampling windows that don't receive new observations
+            if (sampler != null)
+            {
+                var period = sampler.getInterval();
+                flushTask = timer.scheduleAtFixedRate(() -> flush(sampler),
+                    period, period, TimeUnit.MILLISECONDS);
+            }
+
+            // stream may have ended before async processing was started
+            if (closed.get())
+            {
+                cancelTasks();
+                complete(asyncCtx);
+            }
+        }
+
+        void keepAlive()
+        {
+            if (System.currentTimeMillis() - lastWriteTime < KEEP_ALIVE_PERIOD)
+                return;
+
+            try
+            {
+                write(KEEP_ALIVE_MSG);
+            }
+            catch (IOException e)
+            {
+                service.getLogger().debug("Client disconnected from stream {}", path, e);
+                close();
+            }
+        }
+
+        void flush(STAStreamSampler sampler)
+        {
+            try
+            {
+                sampler.flushIdleWindows(System.currentTimeMillis());
+            }
+            catch (Exception e)
+            {
+                service.getLogger().error("Error while flushing sampled stream {}", path, e);
+                close();
+            }
+        }
+
+        void write(byte[] data) throws IOException
+        {
+            synchronized (os)
+            {
+                os.write(data);
+                os.flush();
+            }
+
+            lastWriteTime = System.currentTimeMillis();
+        }
+
+        void close()
+        {
+            if (!closed.compareAndSet(false, true))
+                return;
+
+            if (subscription != null)
+                subscription.cancel();
+            cancelTasks();
+
+            var ctx = asyncCtx;
+            if (ctx != null)
+                complete(ctx);
+        }
+
+        void cancelTasks()
+        {
+            if (keepAliveTask != null)
+                keepAliveTask.cancel(false);
+            if (flushTask != null)
+                flushTask.cancel(false);
+        }
+
+        void complete(AsyncContext ctx)
+        {
+            try
+            {
+                ctx.complete();
+            }
+            catch (IllegalStateException e)
+            {
+                // already completed
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event)
+        {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event)
+        {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event)
+        {
+            service.getLogger().debug("Async error while streaming {}", path, event.getThrowable());
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event)
+        {
+        }
+    }
+
+
+    public STAStreamHandler(STAService service, CoreSettings coreSettings)
+    {
+        this.service = service;
+        this.coreSettings = coreSettings;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            var t = new Thread(r, "STA-EventStream");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+
+    public static boolean isEventStreamRequest(HttpServletRequest req)
+    {
+        var accept = req.getHeader("Accept");
+        return "GET".equals(req.getMethod()) && accept != null && accept.contains(EVENT_STREAM_MIME_TYPE);
+    }
+
+
+    /*
+     * Start streaming the requested collection to the client until it disconnects.
+     * The request is put in async mode so this method returns right away.
+     * The current user must have been set before calling this method.
+     */
+    public void handle(HttpServletRequest req, HttpServletResponse resp) throws IOException
+    {
+        ResourcePath path;
+        Query query;
+        StreamParams params;
+
+        // parse request, separating sampling params from STA query params
+        try
+        {
+            path = PathParser.parsePath(getPersistenceManager().getIdManager(), "/", req.getPathInfo());
+            params = parseQueryString(req.getQueryString());
+            query = QueryParser.parseQuery(params.staQuery, coreSettings);
+            query.validate(path);
+        }
+        catch (IllegalArgumentException e)
+        {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(EVENT_STREAM_MIME_TYPE);
+        resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resp.setHeader("Cache-Control", "no-cache");
+
+        // subscribe, with sampling if requested
+        var sub = new EventStreamSubscriber(path, query, resp.getOutputStream());
+        Subscriber<Entity<?>> subscriber = sub;
+        STAStreamSampler sampler = null;
+        if (params.samplingMode != null && params.samplingInterval > 0)
+            subscriber = sampler = new STAStreamSampler(sub, params.samplingMode, params.samplingInterval);
+
+        try
+        {
+            var handler = getPersistenceManager().getHandler(path);
+            handler.subscribeToCollection(path, query, subscriber);
+        }
+        catch (AccessControlException e)
+        {
+            // let servlet handle permission errors
+            return;
+        }
+        catch (IllegalArgumentException e)
+        {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        // release request thread while streaming
+        sub.start(req.startAsync(), sampler);
+
+        try
+        {
+            resp.flushBuffer();
+        }
+        catch (IOException e)
+        {
+            service.getLogger().debug("Client disconnected from stream {}", path, e);
+            sub.close();
+        }
+    }
+
+
+    /*
+     * Split query string in individual parameters before decoding names and
+     * values, so encoded '&' and '=' characters are not seen as separators
+     */
+    static StreamParams parseQueryString(String queryString)
+    {
+        var params = new StreamParams();
+        var staQuery = new StringBuilder();
+
+        if (queryString != null)
+        {
+            for (var param: queryString.split("&"))
+            {
+                if (param.isEmpty())
+                    continue;
+
+                var sep = param.indexOf('=');
+                var name = URLDecoder.decode(sep < 0 ? param : param.substring(0, sep), StandardCharsets.UTF_8);
+                var value = sep < 0 ? "" : URLDecoder.decode(param.substring(sep+1), StandardCharsets.UTF_8);
+
+                if (SAMPLING_PARAM.equals(name))
+                    params.samplingMode = STAStreamSampler.Mode.valueOf(value.toUpperCase());
+                else if (SAMPLING_INTERVAL_PARAM.equals(name))
+                    params.samplingInterval = (long)(Double.parseDouble(value) * 1000);
+                else
+                {
+                    if (staQuery.length() > 0)
+                        staQuery.append('&');
+                    staQuery.append(name);
+                    if (sep >= 0)
+                        staQuery.append('=').append(value);
+                }
+            }
+        }
+
+        params.staQuery = staQuery.toString();
+        return params;
+    }
+
+
+    public void stop()
+    {
+        timer.shutdownNow();
+    }
+
+
+    protected OSHPersistenceManager getPersistenceManager()
+    {
+        // create lazily since persistence manager factory is initialized by servlet
+        if (pm == null)
+            pm = (OSHPersistenceManager)PersistenceManagerFactory.getInstance().create();
+        return pm;
+    }
+}
@@ -0,0 +1,258 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.sta;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import de.fraunhofer.iosb.ilt.frostserver.model.Observation;
+import de.fraunhofer.iosb.ilt.frostserver.model.core.Entity;
+import de.fraunhofer.iosb.ilt.frostserver.model.ext.TimeInstant;
+
+
+/**
+ * <p>
+ * Subscriber decimating a stream of observations before it is forwarded to
+ * the downstream subscriber (and thus before serialization).<br/>
+ * Observations are grouped in fixed windows of phenomenon time, separately
+ * for each datastream, and a single observation is emitted per window.
+ * The emitted observation is either the latest one received in the window,
+ * or the latest one with its numerical result replaced by the min, max or
+ * average value computed over the window.
+ * </p><p>
+ * A window is emitted when the first observation of the next window is
+ * received, when the stream completes, or when {@link #flushIdleWindows(long)}
+ * is called after no observation was received for a whole sampling interval,
+ * so the last window is not held back when a stream goes quiet.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class STAStreamSampler implements Subscriber<Entity<?>>
+{
+    public enum Mode
+    {
+        LATEST,
+        MIN,
+        MAX,
+        AVG
+    }
+
+    final Subscriber<Entity<?>> downstream;
+    final Mode mode;
+    final long intervalMillis;
+    final Map<Object, Window> windows = new HashMap<>();
+
+
+    static class Window
+    {
+        long start;
+        long lastUpdate;
+        Observation latest;
+        double[] values;
+        int[] counts;
+    }
+
+
+    public STAStreamSampler(Subscriber<Entity<?>> downstream, Mode mode, long intervalMillis)
+    {
+        this.downstream = downstream;
+        this.mode = mode;
+        this.intervalMillis = intervalMillis;
+    }
+
+
+    @Override
+    public void onSubscribe(Subscription subscription)
+    {
+        downstream.onSubscribe(subscription);
+    }
+
+
+    @Override
+    public synchronized void onNext(Entity<?> item)
+    {
+        if (!(item instanceof Observation) || intervalMillis <= 0)
+        {
+            downstream.onNext(item);
+            return;
+        }
+
+        var obs = (Observation)item;
+        var time = getTime(obs);
+        var windowStart = Math.floorDiv(time, intervalMillis) * intervalMillis;
+
+        var window = windows.computeIfAbsent(getDataStreamKey(obs), k -> new Window());
+        if (window.latest != null && windowStart != window.start)
+            emit(window);
+
+        window.start = windowStart;
+        window.lastUpdate = System.currentTimeMillis();
+        accumulate(window, obs);
+    }
+
+
+    @Override
+    public void onError(Throwable throwable)
+    {
+        downstream.onError(throwable);
+    }
+
+
+    @Override
+    public synchronized void onComplete()
+    {
+        for (var window: windows.values())
+        {
+            if (window.latest != null)
+                emit(window);
+        }
+
+        downstream.onComplete();
+    }
+
+
+    /**
+     * Emits windows that didn't receive any observation during the last
+     * sampling interval
+     * @param now Current system time, in milliseconds
+     */
+    public synchronized void flushIdleWindows(long now)
+    {
+        for (var window: windows.values())
+        {
+            if (window.latest != null && now - window.lastUpdate >= intervalMillis)
+                emit(window);
+        }
+    }
+
+
+    public long getInterval()
+    {
+        return intervalMillis;
+    }
+
+
+    protected void accumulate(Window window, Observation obs)
+    {
+        window.latest = obs;
+        if (mode == Mode.LATEST)
+            return;
+
+        var result = obs.getResult();
+        if (result instanceof Object[])
+        {
+            var values = (Object[])result;
+            ensureSize(window, values.length);
+            for (int i = 0; i < values.length; i++)
+                accumulate(window, i, values[i]);
+        }
+        else
+        {
+            ensureSize(window, 1);
+            accumulate(window, 0, result);
+        }
+    }
+
+
+    protected void accumulate(Window window, int i, Object val)
+    {
+        if (!(val instanceof Number))
+            return;
+
+        var v = ((Number)val).doubleValue();
+        var count = window.counts[i];
+        if (count == 0)
+            window.values[i] = v;
+        else if (mode == Mode.MIN)
+            window.values[i] = Math.min(window.values[i], v);
+        else if (mode == Mode.MAX)
+            window.values[i] = Math.max(window.values[i], v);
+        else
+            window.values[i] += v;
+        window.counts[i] = count + 1;
+    }
+
+
+    protected void ensureSize(Window window, int size)
+    {
+        if (window.values == null || window.values.length != size)
+        {
+            window.values = new double[size];
+            window.counts = new int[size];
+        }
+    }
+
+
+    protected void emit(Window window)
+    {
+        var obs = window.latest;
+
+        if (mode != Mode.LATEST && window.values != null)
+        {
+            var result = obs.getResult();
+            if (result instanceof Object[])
+            {
+                var values = (Object[])result;
+                for (int i = 0; i < values.length && i < window.values.length; i++)
+                {
+                    if (window.counts[i] > 0)
+                        values[i] = getAggregate(window, i);
+                }
+                obs.setResult(values);
+            }
+            else if (window.counts[0] > 0)
+                obs.setResult(getAggregate(window, 0));
+
+            for (int i = 0; i < window.counts.length; i++)
+                window.counts[i] = 0;
+        }
+
+        window.latest = null;
+        downstream.onNext(obs);
+    }
+
+
+    protected double getAggregate(Window window, int i)
+    {
+        if (mode == Mode.AVG)
+            return window.values[i] / window.counts[i];
+        else
+            return window.values[i];
+    }
+
+
+    protected long getTime(Observation obs)
+    {
+        var time = obs.getPhenomenonTime();
+        if (time instanceof TimeInstant)
+            return ((TimeInstant)time).getDateTime().getMillis();
+        else
+            return System.currentTimeMillis();
+    }
+
+
+    protected Object getDataStreamKey(Observation obs)
+    {
+        if (obs.getDatastream() != null)
+            return obs.getDatastream().getId();
+        else if (obs.getMultiDatastream() != null)
+            return obs.getMultiDatastream().getId();
+        else
+            return this;
+    }
+}
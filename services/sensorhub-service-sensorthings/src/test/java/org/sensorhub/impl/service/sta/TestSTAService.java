@@ -31,6 +31,7 @@ import org.sensorhub.impl.SensorHub;
 import org.sensorhub.impl.service.HttpServer;
 import org.sensorhub.impl.service.HttpServerConfig;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -175,9 +176,15 @@ public class TestSTAService
     
     
     protected String getDataStreamId(int idx) throws Exception
+    {
+        return getDataStreamIdElement(idx).getAsString();
+    }
+    
+    
+    protected JsonElement getDataStreamIdElement(int idx) throws Exception
     {
         JsonObject col = sendGetRequest("Datastreams").getAsJsonObject();
-        return col.getAsJsonArray("value").get(idx).getAsJsonObject().get(ID_PROP).getAsString();
+        return col.getAsJsonArray("value").get(idx).getAsJsonObject().get(ID_PROP);
     }
     
     
@@ -230,6 +237,75 @@ public class TestSTAService
     }
     
     
+    @Test
+    public void testCreateObservationsBatch() throws Exception
+    {
+        deepInsertThing(1);
+        long numObs = sta.writeDatabase.getObservationStore().size();
+        
+        var payload = new JsonArray();
+        payload.add(createObsBatch(getDataStreamIdElement(0), 3));
+        payload.add(createObsBatch(getDataStreamIdElement(1), 2));
+        
+        var response = sendPostRequest("CreateObservations", payload);
+        assertEquals(201, response.statusCode());
+        var urls = JsonParser.parseString(response.body()).getAsJsonArray();
+        assertEquals(5, urls.size());
+        for (var url: urls)
+            assertTrue(url.getAsString().contains("Observations("));
+        assertEquals(numObs + 5, sta.writeDatabase.getObservationStore().size());
+    }
+    
+    
+    @Test
+    public void testCreateObservationsInvalidEntry() throws Exception
+    {
+        deepInsertThing(1);
+        long numObs = sta.writeDatabase.getObservationStore().size();
+        
+        // second entry has no result component
+        var invalidBatch = createObsBatch(getDataStreamIdElement(1), 2);
+        invalidBatch.getAsJsonArray("components").remove(1);
+        for (var row: invalidBatch.getAsJsonArray("dataArray"))
+            row.getAsJsonArray().remove(1);
+        
+        var payload = new JsonArray();
+        payload.add(createObsBatch(getDataStreamIdElement(0), 3));
+        payload.add(invalidBatch);
+        
+        // whole request must be rejected and first batch must not be inserted
+        var response = sendPostRequestNoCheck("CreateObservations", payload);
+        assertEquals(400, response.statusCode());
+        assertEquals(numObs, sta.writeDatabase.getObservationStore().size());
+    }
+    
+    
+    protected JsonObject createObsBatch(JsonElement dsId, int numObs)
+    {
+        var ds = new JsonObject();
+        ds.add(ID_PROP, dsId);
+        
+        var components = new JsonArray();
+        components.add("phenomenonTime");
+        components.add("result");
+        
+        var dataArray = new JsonArray();
+        for (int i = 0; i < numObs; i++)
+        {
+            var row = new JsonArray();
+            row.add("2016-01-0" + (i+1) + "T00:00:00Z");
+            row.add(10 + i);
+            dataArray.add(row);
+        }
+        
+        var entry = new JsonObject();
+        entry.add("Datastream", ds);
+        entry.add("components", components);
+        entry.add("dataArray", dataArray);
+        return entry;
+    }
+    
+    
     protected JsonObject deepInsertThing(int thingNum) throws Exception
     {
         var builder = JsonBuilderFactory.buildObject()
@@ -383,6 +459,18 @@ public class TestSTAService
     
     
     protected HttpResponse<String> sendPostRequest(String path, JsonElement json) throws IOException
+    {
+        HttpResponse<String> response = sendPostRequestNoCheck(path, json);
+        int statusCode = response.statusCode();
+        if (statusCode != 200)
+            System.err.println(response.body());
+        assertTrue("Received HTTP error status", statusCode < 300);
+        
+        return response;
+    }
+    
+    
+    protected HttpResponse<String> sendPostRequestNoCheck(String path, JsonElement json) throws IOException
     {
         try
         {
@@ -394,13 +482,7 @@ public class TestSTAService
                 .header("Content-Type", "application/json")
                 .build();
             
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            int statusCode = response.statusCode();
-            if (statusCode != 200)
-                System.err.println(response.body());
-            assertTrue("Received HTTP error status", statusCode < 300);
-            
-            return response;
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
         }
         catch (InterruptedException e)
         {
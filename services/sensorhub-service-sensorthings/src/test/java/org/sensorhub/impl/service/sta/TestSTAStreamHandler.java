@@ -0,0 +1,59 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+ 
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+ 
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.sta;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+
+public class TestSTAStreamHandler
+{
+    
+    @Test
+    public void testParseSamplingParams()
+    {
+        var params = STAStreamHandler.parseQueryString("sampling=avg&samplingInterval=2.5&$top=10");
+        assertEquals(STAStreamSampler.Mode.AVG, params.samplingMode);
+        assertEquals(2500, params.samplingInterval);
+        assertEquals("$top=10", params.staQuery);
+    }
+    
+    
+    @Test
+    public void testDecodeAfterSplit()
+    {
+        // encoded '&' and '=' must stay inside the filter value
+        var params = STAStreamHandler.parseQueryString("%24filter=result%20eq%20%27a%26b%3Dc%27&sampling=max");
+        assertEquals(STAStreamSampler.Mode.MAX, params.samplingMode);
+        assertEquals(0, params.samplingInterval);
+        assertEquals("$filter=result eq 'a&b=c'", params.staQuery);
+    }
+    
+    
+    @Test
+    public void testNoQuery()
+    {
+        var params = STAStreamHandler.parseQueryString(null);
+        assertNull(params.samplingMode);
+        assertEquals("", params.staQuery);
+    }
+    
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSamplingMode()
+    {
+        STAStreamHandler.parseQueryString("sampling=median");
+    }
+}
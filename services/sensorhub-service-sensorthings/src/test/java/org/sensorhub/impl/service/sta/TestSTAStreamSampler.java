@@ -0,0 +1,111 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+ 
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+ 
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.service.sta;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import org.junit.Test;
+import de.fraunhofer.iosb.ilt.frostserver.model.Datastream;
+import de.fraunhofer.iosb.ilt.frostserver.model.Observation;
+import de.fraunhofer.iosb.ilt.frostserver.model.core.Entity;
+import de.fraunhofer.iosb.ilt.frostserver.model.core.IdLong;
+import de.fraunhofer.iosb.ilt.frostserver.model.ext.TimeInstant;
+
+
+public class TestSTAStreamSampler
+{
+    static final long INTERVAL = 10000;
+    
+    List<Observation> received = new ArrayList<>();
+    boolean completed;
+    
+    
+    Subscriber<Entity<?>> downstream = new Subscriber<>() {
+        public void onSubscribe(Subscription subscription) {}
+        public void onNext(Entity<?> item) { received.add((Observation)item); }
+        public void onError(Throwable throwable) {}
+        public void onComplete() { completed = true; }
+    };
+    
+    
+    protected Observation createObs(long dsId, String time, double result)
+    {
+        var obs = new Observation();
+        obs.setDatastream(new Datastream(new IdLong(dsId)));
+        obs.setPhenomenonTime(TimeInstant.parse(time));
+        obs.setResult(result);
+        return obs;
+    }
+    
+    
+    @Test
+    public void testAggregates()
+    {
+        var sampler = new STAStreamSampler(downstream, STAStreamSampler.Mode.AVG, INTERVAL);
+        sampler.onNext(createObs(1, "2026-01-01T00:00:01Z", 1.0));
+        sampler.onNext(createObs(1, "2026-01-01T00:00:05Z", 3.0));
+        sampler.onNext(createObs(2, "2026-01-01T00:00:06Z", 10.0));
+        assertTrue(received.isEmpty());
+        
+        // first obs of next window emits previous window of same datastream only
+        sampler.onNext(createObs(1, "2026-01-01T00:00:12Z", 5.0));
+        assertEquals(1, received.size());
+        assertEquals(2.0, ((Number)received.get(0).getResult()).doubleValue(), 1e-9);
+        
+        sampler.onComplete();
+        assertTrue(completed);
+        assertEquals(3, received.size());
+    }
+    
+    
+    @Test
+    public void testMinMax()
+    {
+        var sampler = new STAStreamSampler(downstream, STAStreamSampler.Mode.MAX, INTERVAL);
+        sampler.onNext(createObs(1, "2026-01-01T00:00:01Z", 4.0));
+        sampler.onNext(createObs(1, "2026-01-01T00:00:02Z", 7.0));
+        sampler.onNext(createObs(1, "2026-01-01T00:00:03Z", 2.0));
+        sampler.onComplete();
+        
+        assertEquals(1, received.size());
+        assertEquals(7.0, ((Number)received.get(0).getResult()).doubleValue(), 1e-9);
+    }
+    
+    
+    @Test
+    public void testFlushIdleWindows()
+    {
+        var sampler = new STAStreamSampler(downstream, STAStreamSampler.Mode.LATEST, INTERVAL);
+        sampler.onNext(createObs(1, "2026-01-01T00:00:01Z", 1.0));
+        sampler.onNext(createObs(1, "2026-01-01T00:00:02Z", 2.0));
+        
+        // window is kept while it is still receiving observations
+        sampler.flushIdleWindows(System.currentTimeMillis());
+        assertTrue(received.isEmpty());
+        
+        // and emitted once the stream has been quiet for a whole interval
+        sampler.flushIdleWindows(System.currentTimeMillis() + INTERVAL);
+        assertEquals(1, received.size());
+        assertEquals(2.0, ((Number)received.get(0).getResult()).doubleValue(), 1e-9);
+        
+        // nothing left to emit
+        sampler.flushIdleWindows(System.currentTimeMillis() + 2*INTERVAL);
+        sampler.onComplete();
+        assertEquals(1, received.size());
+    }
+}
@@ -5,7 +5,9 @@
 package com.georobotix.ai.impl.rulesengine;
 
 import com.georobotix.ai.impl.rulesengine.facts.DataStreamFact;
+import com.georobotix.ai.impl.rulesengine.facts.DataStreamFactIndex;
 import com.georobotix.ai.impl.rulesengine.results.DataStreamResults;
+import com.georobotix.ai.impl.rulesengine.rules.DataStreamRule;
 import com.georobotix.ai.impl.rulesengine.rules.Rules;
 import org.sensorhub.api.ISensorHub;
 import org.sensorhub.api.data.DataStreamAddedEvent;
@@ -20,11 +22,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Flow;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * A simple implementation of a Rule's Based Engine, making use of rule files to define
@@ -41,6 +43,10 @@ import java.util.stream.Collectors;
  * addition of a data stream to the data streams result set is our business logic as we do
  * not want to modify knowledge, identify knowledge that satisfies the conditions of
  * our rules.
+ * <p>
+ * Facts are indexed by ontological definition and the facts satisfying each rule are
+ * maintained incrementally as facts are added or removed, so firing the engine only
+ * rebuilds the result set when the matches of the targeted rules have changed.
  *
  * @author Nicolas Garay
  * @since 24 Jan 2022
@@ -56,9 +62,14 @@ public class RulesEngine {
 
     /**
      * The collection of data streams wrapped and decorated as facts to be acted upon by the
-     * rule engine
+     * rule engine, indexed by definition
+     */
+    private final DataStreamFactIndex facts = new DataStreamFactIndex();
+
+    /**
+     * Facts currently satisfying each rule, by rule id, maintained as facts are added and removed
      */
-    private List<DataStreamFact> facts = new ArrayList<>();
+    private final Map<String, RuleMatches> ruleMatches = new HashMap<>();
 
     private final Object factsLock = new Object();
 
@@ -72,6 +83,32 @@ public class RulesEngine {
      */
     private final DataStreamResults resultSet = new DataStreamResults();
 
+    /**
+     * The rule ids used to build the current result set, null if it must be rebuilt
+     */
+    private List<String> resultRuleIds = null;
+
+    /**
+     * The version of the rules used to build the current result set
+     */
+    private int resultRulesVersion = -1;
+
+    /**
+     * The facts satisfying a rule, along with the rule instance they were computed for
+     */
+    private static class RuleMatches {
+
+        final DataStreamRule rule;
+
+        final Set<DataStreamFact> facts;
+
+        RuleMatches(DataStreamRule rule, DataStreamFactIndex index) {
+
+            this.rule = rule;
+            this.facts = rule.evaluate(index);
+        }
+    }
+
     /**
      * Subscription used by the service to be notified in changes to the available data streams
      */
@@ -156,7 +193,14 @@ public class RulesEngine {
      */
     public void setRules(Rules rules) {
 
-        this.rules = rules;
+        synchronized (factsLock) {
+
+            this.rules = rules;
+
+            // matches are recomputed lazily from the index when rules are next fired
+            ruleMatches.clear();
+            resultRuleIds = null;
+        }
     }
 
     /**
@@ -166,16 +210,17 @@ public class RulesEngine {
      */
     public void addFact(DataStreamFact fact) {
 
-        boolean isDuplicate = false;
-
         synchronized (factsLock) {
 
-            isDuplicate = facts.stream().anyMatch(dataStreamFact -> dataStreamFact.getSystemId().equalsIgnoreCase(fact.getSystemId()) &&
-                    dataStreamFact.getDataStreamId().equalsIgnoreCase(fact.getDataStreamId()));
+            if (facts.add(fact)) {
 
-            if (!isDuplicate) {
+                for (RuleMatches matches : ruleMatches.values()) {
 
-                facts.add(fact);
+                    if (matches.rule.getPredicateTest().test(fact) && matches.facts.add(fact)) {
+
+                        resultRuleIds = null;
+                    }
+                }
             }
         }
     }
@@ -190,9 +235,18 @@ public class RulesEngine {
 
         synchronized (factsLock) {
 
-            facts = facts.stream().filter(dataStreamFact ->
-                    !dataStreamFact.getSystemId().equalsIgnoreCase(systemId) &&
-                            !dataStreamFact.getDataStreamId().equalsIgnoreCase(dataStreamId)).collect(Collectors.toList());
+            DataStreamFact fact = facts.remove(systemId, dataStreamId);
+
+            if (fact != null) {
+
+                for (RuleMatches matches : ruleMatches.values()) {
+
+                    if (matches.facts.remove(fact)) {
+
+                        resultRuleIds = null;
+                    }
+                }
+            }
         }
     }
 
@@ -212,30 +266,74 @@ public class RulesEngine {
      */
     synchronized public void fire() {
 
-        // Clear the result set to not aggregate results across queries
-        resultSet.clear();
-
         List<String> ruleIds = this.ruleIds;
 
-        if (ruleIds != null) {
+        synchronized (factsLock) {
+
+            int rulesVersion = rules != null ? rules.getVersion() : -1;
+
+            // Result set is still valid if no rule was added or removed and
+            // no fact satisfying the targeted rules changed
+            if (resultRuleIds != null && resultRuleIds.equals(ruleIds) && resultRulesVersion == rulesVersion) {
+
+                return;
+            }
+
+            // Drop matches of rules that were removed or replaced since last evaluated
+            if (rules != null && resultRulesVersion != rulesVersion) {
+
+                ruleMatches.entrySet().removeIf(entry -> rules.getRule(entry.getKey()) != entry.getValue().rule);
+            }
 
-            for (String ruleId : ruleIds) {
+            // Clear the result set to not aggregate results across queries
+            resultSet.clear();
 
-                Predicate<DataStreamFact> condition = rules.getCondition(ruleId);
+            if (ruleIds != null && rules != null) {
 
-                if (condition != null) {
+                for (String ruleId : ruleIds) {
 
-                    synchronized (factsLock) {
+                    RuleMatches matches = getRuleMatches(ruleId);
 
-                        List<DataStreamFact> collect = facts.stream().filter(condition).collect(Collectors.toList());
+                    if (matches != null) {
 
-                        resultSet.addResults(ruleId, collect);
+                        resultSet.addResults(ruleId, new ArrayList<>(matches.facts));
                     }
                 }
             }
+
+            resultRuleIds = ruleIds != null ? List.copyOf(ruleIds) : null;
+            resultRulesVersion = rulesVersion;
         }
     }
 
+    /**
+     * Returns the facts satisfying the given rule, evaluating the rule against
+     * the fact index if it was not evaluated since the rule was last changed.
+     * Must be called while holding the facts lock.
+     *
+     * @param ruleId The id of the rule
+     * @return The facts satisfying the rule, or null if the rule does not exist
+     */
+    private RuleMatches getRuleMatches(String ruleId) {
+
+        DataStreamRule rule = rules.getRule(ruleId);
+
+        if (rule == null) {
+
+            return null;
+        }
+
+        RuleMatches matches = ruleMatches.get(ruleId);
+
+        if (matches == null || matches.rule != rule) {
+
+            matches = new RuleMatches(rule, facts);
+            ruleMatches.put(ruleId, matches);
+        }
+
+        return matches;
+    }
+
     /**
      * Returns the current result set
      *
@@ -251,13 +349,20 @@ public class RulesEngine {
      */
     public void reset() {
 
-        rules = null;
+        synchronized (factsLock) {
+
+            rules = null;
 
-        ruleIds = null;
+            ruleIds = null;
 
-        facts.clear();
+            facts.clear();
 
-        resultSet.clear();
+            ruleMatches.clear();
+
+            resultSet.clear();
+
+            resultRuleIds = null;
+        }
     }
 
     /**
@@ -289,7 +394,7 @@ public class RulesEngine {
             String systemId = hub.getIdEncoders().getSystemIdEncoder().encodeID(dataStreamInfo.getSystemID().getInternalID());
             String dataStreamId = hub.getIdEncoders().getDataStreamIdEncoder().encodeID(dataStreamEntry.getKey().getInternalID());
 
-            facts.add(new DataStreamFact(systemId, dataStreamId, dataStreamInfo));
+            addFact(new DataStreamFact(systemId, dataStreamId, dataStreamInfo));
         }
     }
 
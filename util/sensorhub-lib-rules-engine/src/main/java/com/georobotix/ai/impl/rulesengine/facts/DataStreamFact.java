@@ -9,8 +9,12 @@ import org.sensorhub.api.data.IDataStreamInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * DataStreamFacts wrap instances of {@link IDataStreamInfo} records allowing for the rules
@@ -43,6 +47,12 @@ public class DataStreamFact {
      */
     private final Map<String, DataComponent> dataComponentMap = new HashMap<>();
 
+    /**
+     * Normalized (lower case) definitions found in the data stream record structure,
+     * used to test conditions without scanning all definitions
+     */
+    private final Set<String> definitions = new HashSet<>();
+
     /**
      * The associated system id
      */
@@ -113,18 +123,28 @@ public class DataStreamFact {
      */
     public boolean satisfies(String condition) {
 
-        boolean satisfies = false;
+        return definitions.contains(normalize(condition));
+    }
 
-        for (String definition : dataComponentMap.keySet()) {
+    /**
+     * Returns the normalized definitions contained in the data stream record structure
+     *
+     * @return An unmodifiable set of lower case definition URIs
+     */
+    public Set<String> getDefinitions() {
 
-            if (definition.equalsIgnoreCase(condition)) {
+        return Collections.unmodifiableSet(definitions);
+    }
 
-                satisfies = true;
-                break;
-            }
-        }
+    /**
+     * Normalizes a definition or condition so it can be compared regardless of case
+     *
+     * @param definition The definition URI to normalize
+     * @return The lower case definition
+     */
+    public static String normalize(String definition) {
 
-        return satisfies;
+        return definition.toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -154,6 +174,7 @@ public class DataStreamFact {
         if (definition != null) {
 
             dataComponentMap.put(definition, recordStructure);
+            definitions.add(normalize(definition));
         }
 
         for (int idx = 0; idx < recordStructure.getComponentCount(); ++idx) {
@@ -0,0 +1,139 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+ Copyright (C) 2026 Botts Innovative Research, Inc. All Rights Reserved.
+ ******************************* END LICENSE BLOCK ***************************/
+package com.georobotix.ai.impl.rulesengine.facts;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index of {@link DataStreamFact}s by ontological definition URI.
+ * <p>
+ * Facts are also indexed by system and data stream ids so duplicates can be
+ * detected and facts removed without scanning the whole knowledge base.
+ * Facts are kept in insertion order. This class is not thread safe.
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class DataStreamFactIndex {
+
+    /**
+     * Mapping of normalized system and data stream ids to the corresponding fact
+     */
+    private final Map<String, DataStreamFact> factsById = new LinkedHashMap<>();
+
+    /**
+     * Mapping of normalized definition URI to the facts containing it
+     */
+    private final Map<String, Set<DataStreamFact>> factsByDefinition = new HashMap<>();
+
+    /**
+     * Adds a fact to the index
+     *
+     * @param fact The fact to be added
+     * @return true if the fact was added, false if a fact with the same system
+     * and data stream ids is already indexed
+     */
+    public boolean add(DataStreamFact fact) {
+
+        String key = getKey(fact.getSystemId(), fact.getDataStreamId());
+
+        if (factsById.putIfAbsent(key, fact) != null) {
+
+            return false;
+        }
+
+        for (String definition : fact.getDefinitions()) {
+
+            factsByDefinition.computeIfAbsent(definition, k -> new LinkedHashSet<>()).add(fact);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes a fact from the index by system and data stream ids
+     *
+     * @param systemId     The fact's associated system id
+     * @param dataStreamId The fact's associated data stream id
+     * @return The removed fact, or null if no such fact was indexed
+     */
+    public DataStreamFact remove(String systemId, String dataStreamId) {
+
+        DataStreamFact fact = factsById.remove(getKey(systemId, dataStreamId));
+
+        if (fact != null) {
+
+            for (String definition : fact.getDefinitions()) {
+
+                Set<DataStreamFact> facts = factsByDefinition.get(definition);
+
+                if (facts != null) {
+
+                    facts.remove(fact);
+
+                    if (facts.isEmpty()) {
+
+                        factsByDefinition.remove(definition);
+                    }
+                }
+            }
+        }
+
+        return fact;
+    }
+
+    /**
+     * Returns the facts whose data stream contains the given definition
+     *
+     * @param definition The definition URI, matched regardless of case
+     * @return An unmodifiable set of facts, empty if none contain the definition
+     */
+    public Set<DataStreamFact> getFacts(String definition) {
+
+        Set<DataStreamFact> facts = factsByDefinition.get(DataStreamFact.normalize(definition));
+
+        return facts != null ? Collections.unmodifiableSet(facts) : Collections.emptySet();
+    }
+
+    /**
+     * Returns all indexed facts in insertion order
+     *
+     * @return An unmodifiable collection of all facts
+     */
+    public Collection<DataStreamFact> getAllFacts() {
+
+        return Collections.unmodifiableCollection(factsById.values());
+    }
+
+    /**
+     * Returns the number of indexed facts
+     *
+     * @return The number of indexed facts
+     */
+    public int size() {
+
+        return factsById.size();
+    }
+
+    /**
+     * Removes all facts from the index
+     */
+    public void clear() {
+
+        factsById.clear();
+        factsByDefinition.clear();
+    }
+
+    private static String getKey(String systemId, String dataStreamId) {
+
+        return DataStreamFact.normalize(systemId) + '/' + DataStreamFact.normalize(dataStreamId);
+    }
+}
@@ -6,15 +6,20 @@ package com.georobotix.ai.impl.rulesengine.rules;
 
 import com.georobotix.ai.impl.rulesengine.Constants;
 import com.georobotix.ai.impl.rulesengine.facts.DataStreamFact;
+import com.georobotix.ai.impl.rulesengine.facts.DataStreamFactIndex;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 
 /**
  * Class that encapsulates a rule applied to data streams.  In this case the rule is composed of a
  * rule id and a list of target conditions.  When the rule is instantiated the target conditions are
  * "compiled" into a predicate, or predicate chain, to evaluate data streams against the rule.
+ * The same conditions are also compiled into a sequence of set operations so the rule can be
+ * evaluated against a {@link DataStreamFactIndex} without testing every fact.
  *
  * @author Nicolas Garay
  * @since 24 Jan 2022
@@ -36,6 +41,22 @@ public class DataStreamRule {
      */
     private final Predicate<DataStreamFact> predicate;
 
+    /**
+     * The set operations constructed from the target conditions, applied left to right
+     * in the same order as the predicate chain
+     */
+    private final List<Term> terms = new ArrayList<>();
+
+    /**
+     * A compiled condition, combining the facts satisfying a definition with the current result
+     *
+     * @param operator   One of {@link Constants#LOGICAL_AND}, {@link Constants#LOGICAL_OR}
+     *                   or {@link Constants#LOGICAL_NOT}
+     * @param definition The definition URI to be satisfied
+     */
+    private record Term(String operator, String definition) {
+    }
+
     /**
      * Constructor
      *
@@ -61,18 +82,21 @@ public class DataStreamRule {
                     final String rightOperand = conditions[tokenIdx++];
                     targets.add(rightOperand);
                     tempPredicate = tempPredicate.and(fact -> fact.satisfies(rightOperand));
+                    terms.add(new Term(Constants.LOGICAL_AND, rightOperand));
 
                 } else if (token.equalsIgnoreCase(Constants.LOGICAL_OR) || token.equalsIgnoreCase(Constants.LOGICAL_OR_SYM)) {
 
                     final String rightOperand = conditions[tokenIdx++];
                     targets.add(rightOperand);
                     tempPredicate = tempPredicate.or(fact -> fact.satisfies(rightOperand));
+                    terms.add(new Term(Constants.LOGICAL_OR, rightOperand));
 
                 } else if (token.equalsIgnoreCase(Constants.LOGICAL_NOT) || token.equalsIgnoreCase(Constants.LOGICAL_NOT_SYM)) {
 
                     final String rightOperand = conditions[tokenIdx++];
                     targets.add(rightOperand);
                     tempPredicate = tempPredicate.and(fact -> !fact.satisfies(rightOperand));
+                    terms.add(new Term(Constants.LOGICAL_NOT, rightOperand));
                 }
 
             } else if (!token.equalsIgnoreCase(Constants.LOGICAL_OR) &&
@@ -82,11 +106,7 @@ public class DataStreamRule {
 
                 targets.add(token);
                 tempPredicate = fact -> fact.satisfies(token);
-
-            } else if (token.equalsIgnoreCase(Constants.LOGICAL_NOT) || token.equalsIgnoreCase(Constants.LOGICAL_NOT_SYM)) {
-
-                targets.add(token);
-                tempPredicate = fact -> !fact.satisfies(token);
+                terms.add(new Term(Constants.LOGICAL_OR, token));
             }
 
         } while (tokenIdx < conditions.length);
@@ -114,6 +134,32 @@ public class DataStreamRule {
         return predicate;
     }
 
+    /**
+     * Evaluates the rule against all facts of the given index at once, using set
+     * operations on the facts satisfying each condition.
+     *
+     * @param index The index of facts to evaluate the rule against
+     * @return The set of facts satisfying the rule
+     */
+    public Set<DataStreamFact> evaluate(DataStreamFactIndex index) {
+
+        Set<DataStreamFact> result = new LinkedHashSet<>();
+
+        for (Term term : terms) {
+
+            Set<DataStreamFact> facts = index.getFacts(term.definition());
+
+            switch (term.operator()) {
+
+                case Constants.LOGICAL_AND -> result.retainAll(facts);
+                case Constants.LOGICAL_OR -> result.addAll(facts);
+                default -> result.removeAll(facts);
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Returns the rule's id
      *
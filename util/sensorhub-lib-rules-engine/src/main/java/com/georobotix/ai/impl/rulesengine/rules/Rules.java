@@ -32,6 +32,11 @@ public class Rules {
      */
     private final Map<String, DataStreamRule> rulesMap = new HashMap<>();
 
+    /**
+     * Incremented each time a rule is added or removed, so users can detect changes
+     */
+    private volatile int version = 0;
+
     /**
      * Constructor
      */
@@ -69,6 +74,36 @@ public class Rules {
     void addRule(String ruleId, DataStreamRule rule) {
 
         rulesMap.put(ruleId, rule);
+        version++;
+    }
+
+    /**
+     * Removes a rule from the set of rules
+     *
+     * @param ruleId The id of the rule to remove
+     * @return The removed rule, or null if no rule exists for the given id
+     */
+    public DataStreamRule removeRule(String ruleId) {
+
+        DataStreamRule rule = rulesMap.remove(ruleId);
+
+        if (rule != null) {
+
+            version++;
+        }
+
+        return rule;
+    }
+
+    /**
+     * Returns the modification count of the rules, incremented each time a rule
+     * is added or removed
+     *
+     * @return The current version of the rules
+     */
+    public int getVersion() {
+
+        return version;
     }
 
     /**
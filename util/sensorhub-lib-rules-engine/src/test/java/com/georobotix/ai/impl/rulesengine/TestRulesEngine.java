@@ -0,0 +1,105 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+ Copyright (C) 2026 Botts Innovative Research, Inc. All Rights Reserved.
+ ******************************* END LICENSE BLOCK ***************************/
+package com.georobotix.ai.impl.rulesengine;
+
+import com.georobotix.ai.impl.rulesengine.facts.DataStreamFact;
+import com.georobotix.ai.impl.rulesengine.rules.RuleManager;
+import com.georobotix.ai.impl.rulesengine.rules.Rules;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static com.georobotix.ai.impl.rulesengine.facts.TestDataStreamFactIndex.createFact;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link RulesEngine} result caching
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class TestRulesEngine {
+
+    static final String DEF_TEMP = "http://sensorml.com/ont/swe/property/Temperature";
+    static final String DEF_PRESS = "http://sensorml.com/ont/swe/property/Pressure";
+
+    private RulesEngine engine;
+
+    private Rules rules;
+
+    private DataStreamFact f1, f2;
+
+    private static void loadRules(String content, Rules rules) throws IOException {
+
+        RuleManager.loadRules(new BufferedReader(new StringReader(content)), Constants.TXT_FILE_TYPE, rules);
+    }
+
+    private Map<String, List<DataStreamFact>> fire(String... ruleIds) {
+
+        engine.setTargetRuleIds(List.of(ruleIds));
+        engine.fire();
+        return engine.getResultSet().getRulesToDataStreamsMap();
+    }
+
+    @Before
+    public void setup() throws IOException {
+
+        engine = new RulesEngine(null);
+        rules = new Rules();
+        loadRules("temp " + DEF_TEMP + "\n", rules);
+        engine.setRules(rules);
+
+        f1 = createFact("sys1", "ds1", DEF_TEMP, DEF_PRESS);
+        f2 = createFact("sys1", "ds2", DEF_PRESS);
+        engine.addFact(f1);
+        engine.addFact(f2);
+    }
+
+    @Test
+    public void testFactChanges() {
+
+        assertEquals(List.of(f1), fire("temp").get("temp"));
+
+        DataStreamFact f3 = createFact("sys2", "ds3", DEF_TEMP);
+        engine.addFact(f3);
+        assertEquals(List.of(f1, f3), fire("temp").get("temp"));
+
+        engine.removeFact("sys1", "ds1");
+        assertEquals(List.of(f3), fire("temp").get("temp"));
+    }
+
+    @Test
+    public void testAddedRule() throws IOException {
+
+        assertNull(fire("temp", "press").get("press"));
+
+        // rule added after the result set was cached with the same target ids
+        loadRules("press " + DEF_PRESS + "\n", rules);
+        assertEquals(List.of(f1, f2), fire("temp", "press").get("press"));
+    }
+
+    @Test
+    public void testReplacedRule() throws IOException {
+
+        assertEquals(List.of(f1), fire("temp").get("temp"));
+
+        loadRules("temp " + DEF_PRESS + " NOT " + DEF_TEMP + "\n", rules);
+        assertEquals(List.of(f2), fire("temp").get("temp"));
+    }
+
+    @Test
+    public void testRemovedRule() {
+
+        assertEquals(List.of(f1), fire("temp").get("temp"));
+
+        assertNotNull(rules.removeRule("temp"));
+        assertNull(fire("temp").get("temp"));
+    }
+}
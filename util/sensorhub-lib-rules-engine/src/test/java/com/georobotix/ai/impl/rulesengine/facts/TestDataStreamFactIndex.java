@@ -0,0 +1,117 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+ Copyright (C) 2026 Botts Innovative Research, Inc. All Rights Reserved.
+ ******************************* END LICENSE BLOCK ***************************/
+package com.georobotix.ai.impl.rulesengine.facts;
+
+import net.opengis.swe.v20.DataRecord;
+import org.junit.Before;
+import org.junit.Test;
+import org.sensorhub.api.common.BigId;
+import org.sensorhub.api.data.DataStreamInfo;
+import org.sensorhub.api.feature.FeatureId;
+import org.vast.data.TextEncodingImpl;
+import org.vast.swe.SWEHelper;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link DataStreamFactIndex}
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class TestDataStreamFactIndex {
+
+    static final String DEF_TEMP = "http://sensorml.com/ont/swe/property/Temperature";
+    static final String DEF_PRESS = "http://sensorml.com/ont/swe/property/Pressure";
+    static final String DEF_LOC = "http://sensorml.com/ont/swe/property/Location";
+
+    private DataStreamFactIndex index;
+
+    /**
+     * Creates a fact for a data stream whose record contains the given definitions
+     */
+    public static DataStreamFact createFact(String systemId, String dataStreamId, String... definitions) {
+
+        SWEHelper swe = new SWEHelper();
+        DataRecord rec = swe.createRecord()
+                .name("rec")
+                .build();
+
+        for (int i = 0; i < definitions.length; i++) {
+
+            rec.addField("f" + i, swe.createQuantity().definition(definitions[i]).build());
+        }
+
+        DataStreamInfo dsInfo = new DataStreamInfo.Builder()
+                .withName(dataStreamId)
+                .withSystem(new FeatureId(BigId.fromLong(1, 1), "urn:osh:test:" + systemId))
+                .withRecordDescription(rec)
+                .withRecordEncoding(new TextEncodingImpl())
+                .build();
+
+        return new DataStreamFact(systemId, dataStreamId, dsInfo);
+    }
+
+    @Before
+    public void setup() {
+
+        index = new DataStreamFactIndex();
+    }
+
+    @Test
+    public void testAddAndLookup() {
+
+        DataStreamFact f1 = createFact("sys1", "ds1", DEF_TEMP, DEF_PRESS);
+        DataStreamFact f2 = createFact("sys1", "ds2", DEF_TEMP);
+        DataStreamFact f3 = createFact("sys2", "ds3", DEF_LOC);
+
+        assertTrue(index.add(f1));
+        assertTrue(index.add(f2));
+        assertTrue(index.add(f3));
+        assertEquals(3, index.size());
+
+        assertEquals(List.of(f1, f2), List.copyOf(index.getFacts(DEF_TEMP)));
+        assertEquals(Set.of(f1), index.getFacts(DEF_PRESS));
+        assertEquals(Set.of(f3), index.getFacts(DEF_LOC));
+        assertTrue(index.getFacts("http://unknown").isEmpty());
+
+        // definitions are matched regardless of case
+        assertEquals(Set.of(f1), index.getFacts(DEF_PRESS.toUpperCase()));
+
+        // facts are kept in insertion order
+        assertEquals(List.of(f1, f2, f3), List.copyOf(index.getAllFacts()));
+    }
+
+    @Test
+    public void testDuplicateIgnored() {
+
+        assertTrue(index.add(createFact("sys1", "ds1", DEF_TEMP)));
+        assertFalse(index.add(createFact("SYS1", "DS1", DEF_PRESS)));
+        assertEquals(1, index.size());
+        assertTrue(index.getFacts(DEF_PRESS).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+
+        DataStreamFact f1 = createFact("sys1", "ds1", DEF_TEMP, DEF_PRESS);
+        DataStreamFact f2 = createFact("sys1", "ds2", DEF_TEMP);
+        index.add(f1);
+        index.add(f2);
+
+        assertSame(f1, index.remove("sys1", "ds1"));
+        assertNull(index.remove("sys1", "ds1"));
+        assertEquals(1, index.size());
+        assertEquals(Set.of(f2), index.getFacts(DEF_TEMP));
+        assertTrue(index.getFacts(DEF_PRESS).isEmpty());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.getFacts(DEF_TEMP).isEmpty());
+    }
+}
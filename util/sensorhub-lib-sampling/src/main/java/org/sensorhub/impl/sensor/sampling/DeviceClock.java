@@ -0,0 +1,123 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.sampling;
+
+
+/**
+ * <p>
+ * Converts timestamps generated by the internal clock of a sensor (e.g. time
+ * since startup) to host time.<br/>
+ * The offset between the two clocks is estimated from the time at which
+ * samples are received. The smallest offset observed corresponds to the
+ * smallest transport delay, so the offset is decreased right away when a
+ * smaller value is observed and only slowly increased otherwise, to follow
+ * the drift between the two clocks without being affected by latency.
+ * </p><p>
+ * The clock is resynchronized if the device time goes backward (e.g. the
+ * sensor was reset) or if the offset changes abruptly. Converted times are
+ * always strictly increasing.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class DeviceClock
+{
+    static final double DRIFT_GAIN = 0.001;
+    static final double DEFAULT_RESYNC_THRESHOLD = 1.0;
+
+    final double resyncThreshold;
+    double offset = Double.NaN;
+    double lastDeviceTime;
+    double lastTime = Double.NaN;
+    int numResyncs;
+
+
+    public DeviceClock()
+    {
+        this(DEFAULT_RESYNC_THRESHOLD);
+    }
+
+
+    /**
+     * @param resyncThreshold Max change of clock offset, in seconds, before
+     * the clock is resynchronized
+     */
+    public DeviceClock(double resyncThreshold)
+    {
+        this.resyncThreshold = resyncThreshold;
+    }
+
+
+    /**
+     * Converts a device timestamp to host time
+     * @param deviceTime Time of the sample as reported by the device, in seconds
+     * @param hostTime Time at which the sample was received, in seconds
+     * @return Sampling time in host time base, in seconds
+     */
+    public synchronized double toHostTime(double deviceTime, double hostTime)
+    {
+        double newOffset = hostTime - deviceTime;
+
+        if (Double.isNaN(offset) || deviceTime < lastDeviceTime ||
+            Math.abs(newOffset - offset) > resyncThreshold)
+        {
+            if (!Double.isNaN(offset))
+                numResyncs++;
+            offset = newOffset;
+        }
+        else if (newOffset < offset)
+            offset = newOffset;
+        else
+            offset += DRIFT_GAIN * (newOffset - offset);
+
+        double time = deviceTime + offset;
+        if (!Double.isNaN(lastTime) && time <= lastTime)
+            time = Math.nextUp(lastTime);
+
+        lastDeviceTime = deviceTime;
+        lastTime = time;
+        return time;
+    }
+
+
+    /**
+     * Resets the clock so the offset is estimated again from the next sample
+     */
+    public synchronized void reset()
+    {
+        offset = Double.NaN;
+        lastTime = Double.NaN;
+    }
+
+
+    /**
+     * @return Current estimate of the offset between device and host clocks,
+     * in seconds, or NaN if no sample was received yet
+     */
+    public synchronized double getOffset()
+    {
+        return offset;
+    }
+
+
+    /**
+     * @return Number of times the clock was resynchronized
+     */
+    public synchronized int getNumResyncs()
+    {
+        return numResyncs;
+    }
+}
@@ -0,0 +1,131 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.sampling;
+
+import java.util.Arrays;
+import net.opengis.swe.v20.DataBlock;
+
+
+/**
+ * <p>
+ * Accumulates records of a sensor output so they can be published together
+ * in a single data event, using the multi-record constructor of
+ * {@link org.sensorhub.api.data.DataEvent DataEvent}.<br/>
+ * The record structure of the output is not modified so consumers receive
+ * the same records, only less often.
+ * </p><p>
+ * A batch is ready once it contains the max number of records or when its
+ * oldest record has been waiting for longer than the max latency, so that
+ * low rate outputs are not delayed too much.
+ * </p><p>
+ * This class is not thread safe and is meant to be used by the thread
+ * reading samples from the sensor.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SampleBatch
+{
+    final DataBlock[] records;
+    final double maxLatency;
+    int size;
+    double firstTime;
+
+
+    /**
+     * Creates a batch without latency limit
+     * @param maxSize Max number of records per batch
+     */
+    public SampleBatch(int maxSize)
+    {
+        this(maxSize, Double.POSITIVE_INFINITY);
+    }
+
+
+    /**
+     * @param maxSize Max number of records per batch
+     * @param maxLatency Max time, in seconds, between the first and last
+     * records of a batch
+     */
+    public SampleBatch(int maxSize, double maxLatency)
+    {
+        this.records = new DataBlock[Math.max(1, maxSize)];
+        this.maxLatency = maxLatency;
+    }
+
+
+    /**
+     * Adds a record to the batch
+     * @param rec Record to add
+     * @param time Sampling time of the record, in seconds
+     * @return true if the batch is ready to be published
+     */
+    public boolean add(DataBlock rec, double time)
+    {
+        if (size == 0)
+            firstTime = time;
+        else if (size == records.length)
+            throw new IllegalStateException("Batch is full");
+
+        records[size++] = rec;
+        return isReady(time);
+    }
+
+
+    /**
+     * Checks if the batch must be published
+     * @param time Current time, in seconds
+     * @return true if the batch is full or its oldest record has waited
+     * for longer than the max latency
+     */
+    public boolean isReady(double time)
+    {
+        return size == records.length ||
+            (size > 0 && time - firstTime >= maxLatency);
+    }
+
+
+    /**
+     * Removes all records from the batch
+     * @return Array of records in the order they were added. A new array is
+     * returned each time so it can be attached to an event.
+     */
+    public DataBlock[] drain()
+    {
+        DataBlock[] batch = Arrays.copyOf(records, size);
+        Arrays.fill(records, 0, size, null);
+        size = 0;
+        return batch;
+    }
+
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+
+    public int size()
+    {
+        return size;
+    }
+
+
+    public int getMaxSize()
+    {
+        return records.length;
+    }
+}
@@ -0,0 +1,286 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.sampling;
+
+
+/**
+ * <p>
+ * Reconstructs sampling times of a sensor producing samples at a fixed rate
+ * from the (jittery) times at which the host receives them.<br/>
+ * Sample times are predicted from the previous sample and the sampling
+ * period, and the prediction is then corrected using the host reception
+ * time. Since a sample can only be received after it was taken, the clock
+ * follows the lower envelope of reception times: it is pulled back right
+ * away when the prediction is later than the reception time, but only
+ * slowly moved forward otherwise, so that transport and scheduling delays
+ * are filtered out.<br/>
+ * The actual sampling period, which differs from the nominal one due to the
+ * drift of the sensor oscillator, is estimated by comparing the samples
+ * received with the smallest delay during consecutive time windows.
+ * </p><p>
+ * Generated times are always strictly increasing, even when the clock is
+ * resynchronized after a large gap (e.g. FIFO overflow or stalled link).
+ * </p><p>
+ * All times are expressed in seconds since the Unix epoch.
+ * </p>
+ *
+ * @author agent
+ * @since Oct 19, 2026
+ */
+public class SampleClock
+{
+    static final long BASE_TIME_NANOS = System.currentTimeMillis() * 1000000L;
+    static final long BASE_NANO_TIME = System.nanoTime();
+
+    static final double DEFAULT_PERIOD_TOLERANCE = 0.05;
+    static final double PHASE_GAIN = 0.02;
+    static final double PERIOD_GAIN = 0.3;
+    static final double MIN_RESYNC_THRESHOLD = 0.5;
+    static final double MIN_PERIOD_WINDOW = 1.0;
+
+    final double nominalPeriod;
+    final double minPeriod;
+    final double maxPeriod;
+    final double resyncThreshold;
+    final double periodWindow;
+    double period;
+    double lastTime = Double.NaN;
+    int numResyncs;
+
+    // period estimation state
+    long sampleCount;
+    double windowStart;
+    double windowMinOffset;
+    long windowMinCount;
+    double windowMinTime;
+    long refCount;
+    double refTime;
+
+
+    /**
+     * Creates a clock for a sensor sampling at the given nominal period, allowing
+     * the actual period to differ by up to 5%
+     * @param nominalPeriod Nominal sampling period, in seconds
+     */
+    public SampleClock(double nominalPeriod)
+    {
+        this(nominalPeriod, DEFAULT_PERIOD_TOLERANCE);
+    }
+
+
+    /**
+     * @param nominalPeriod Nominal sampling period, in seconds
+     * @param tolerance Max relative difference between the actual and nominal
+     * sampling periods (e.g. 0.01 for 1%)
+     */
+    public SampleClock(double nominalPeriod, double tolerance)
+    {
+        if (nominalPeriod <= 0)
+            throw new IllegalArgumentException("Sampling period must be > 0");
+
+        this.nominalPeriod = nominalPeriod;
+        this.minPeriod = nominalPeriod * (1 - tolerance);
+        this.maxPeriod = nominalPeriod * (1 + tolerance);
+        this.resyncThreshold = Math.max(MIN_RESYNC_THRESHOLD, 20 * nominalPeriod);
+        this.periodWindow = Math.max(MIN_PERIOD_WINDOW, 100 * nominalPeriod);
+        reset();
+    }
+
+
+    /**
+     * Gets the current host time with sub-millisecond resolution.<br/>
+     * Unlike {@link System#currentTimeMillis()}, the returned value is based on
+     * the monotonic system timer and is thus not affected by adjustments of the
+     * system clock while the process is running.
+     * @return Current time in seconds since the Unix epoch
+     */
+    public static double now()
+    {
+        long nanos = BASE_TIME_NANOS + (System.nanoTime() - BASE_NANO_TIME);
+        return nanos / 1e9;
+    }
+
+
+    /**
+     * Computes the sampling time of a single sample
+     * @param hostTime Time at which the sample was received, in seconds
+     * @return Sampling time, in seconds
+     */
+    public double next(double hostTime)
+    {
+        return next(hostTime, null, 1);
+    }
+
+
+    /**
+     * Computes the sampling times of consecutive samples received together
+     * (e.g. by reading the content of the sensor FIFO in a single transfer)
+     * @param hostTime Time at which the samples were received, in seconds
+     * @param sampleTimes Array receiving sampling times of all samples, from
+     * the oldest to the most recent. Can be null if only the time of the most
+     * recent sample is needed.
+     * @param numSamples Number of samples received
+     * @return Sampling time of the most recent sample, in seconds
+     */
+    public synchronized double next(double hostTime, double[] sampleTimes, int numSamples)
+    {
+        if (numSamples <= 0)
+            return lastTime;
+
+        double prevTime = lastTime;
+        double newTime;
+
+        if (Double.isNaN(prevTime))
+        {
+            // first samples, assume nominal rate and no latency
+            prevTime = hostTime - numSamples * period;
+            newTime = hostTime;
+            resetPeriodEstimation(hostTime);
+        }
+        else
+        {
+            double predicted = prevTime + numSamples * period;
+            double error = hostTime - predicted;
+
+            if (Math.abs(error) > resyncThreshold)
+            {
+                // samples were lost or the link was stalled, restart from reception time
+                // but don't go back in time in case the host clock jumped backward
+                newTime = Math.max(hostTime, prevTime + numSamples * minPeriod);
+                resetPeriodEstimation(hostTime);
+                numResyncs++;
+            }
+            else if (error < 0)
+            {
+                // samples cannot be received before they are taken
+                // so they were taken earlier than predicted
+                newTime = hostTime;
+            }
+            else
+            {
+                // received late, could be latency or slower sensor
+                newTime = predicted + PHASE_GAIN * error;
+            }
+
+            // keep consecutive samples ordered, even if it means setting
+            // a time slightly after reception time
+            newTime = Math.max(newTime, prevTime + numSamples * minPeriod);
+        }
+
+        // spread samples evenly since last one
+        if (sampleTimes != null)
+        {
+            double dt = (newTime - prevTime) / numSamples;
+            for (int i = 1; i < numSamples; i++)
+                sampleTimes[i-1] = prevTime + i * dt;
+            sampleTimes[numSamples-1] = newTime;
+        }
+
+        sampleCount += numSamples;
+        updatePeriod(hostTime);
+
+        lastTime = newTime;
+        return newTime;
+    }
+
+
+    /*
+     * Estimate sampling period using the sample received with the smallest
+     * delay in each window, so that latency doesn't bias the estimate
+     */
+    protected void updatePeriod(double hostTime)
+    {
+        double offset = hostTime - sampleCount * period;
+        if (offset < windowMinOffset)
+        {
+            windowMinOffset = offset;
+            windowMinCount = sampleCount;
+            windowMinTime = hostTime;
+        }
+
+        if (hostTime - windowStart >= periodWindow)
+        {
+            if (refCount >= 0 && windowMinCount > refCount)
+            {
+                double estimate = (windowMinTime - refTime) / (windowMinCount - refCount);
+                if (estimate >= minPeriod && estimate <= maxPeriod)
+                    period += PERIOD_GAIN * (estimate - period);
+            }
+
+            refCount = windowMinCount;
+            refTime = windowMinTime;
+            windowStart = hostTime;
+            windowMinOffset = Double.POSITIVE_INFINITY;
+        }
+    }
+
+
+    protected void resetPeriodEstimation(double hostTime)
+    {
+        sampleCount = 0;
+        refCount = -1;
+        windowStart = hostTime;
+        windowMinOffset = Double.POSITIVE_INFINITY;
+    }
+
+
+    /**
+     * Resets the clock so the next sample restarts from the reception time.<br/>
+     * This must be called when the sensor is restarted or reconfigured.
+     */
+    public synchronized void reset()
+    {
+        lastTime = Double.NaN;
+        period = nominalPeriod;
+    }
+
+
+    /**
+     * @return Sampling period currently estimated, in seconds
+     */
+    public synchronized double getPeriod()
+    {
+        return period;
+    }
+
+
+    /**
+     * @return Nominal sampling period, in seconds
+     */
+    public double getNominalPeriod()
+    {
+        return nominalPeriod;
+    }
+
+
+    /**
+     * @return Sampling time of the last sample, in seconds, or NaN if no
+     * sample was received since the clock was created or reset
+     */
+    public synchronized double getLastTime()
+    {
+        return lastTime;
+    }
+
+
+    /**
+     * @return Number of times the clock had to be resynchronized because
+     * reception time was too far from the predicted time
+     */
+    public synchronized int getNumResyncs()
+    {
+        return numResyncs;
+    }
+}
@@ -0,0 +1,159 @@
+/***************************** BEGIN LICENSE BLOCK ***************************
+
+The contents of this file are subject to the Mozilla Public License, v. 2.0.
+If a copy of the MPL was not distributed with this file, You can obtain one
+at http://mozilla.org/MPL/2.0/.
+
+Software distributed under the License is distributed on an "AS IS" basis,
+WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+for the specific language governing rights and limitations under the License.
+
+Copyright (C) 2026 Sensia Software LLC. All Rights Reserved.
+
+******************************* END LICENSE BLOCK ***************************/
+
+package org.sensorhub.impl.sensor.sampling;
+
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class TestSampleClock
+{
+    static final double T0 = 1760000000.0;
+    static final double NOMINAL_PERIOD = 1.0 / 400;
+    static final double MIN_LATENCY = 0.0005;
+
+    Random random = new Random(42);
+
+
+    double latency()
+    {
+        // mostly small delays with occasional scheduling hiccups
+        double l = MIN_LATENCY + random.nextDouble() * 0.002;
+        if (random.nextInt(50) == 0)
+            l += random.nextDouble() * 0.02;
+        return l;
+    }
+
+
+    @Test
+    public void testSingleSamples()
+    {
+        // sensor oscillator is 0.3% slower than nominal
+        double truePeriod = NOMINAL_PERIOD * 1.003;
+        var clock = new SampleClock(NOMINAL_PERIOD);
+        double prevTime = 0;
+        double maxError = 0;
+
+        for (int i = 0; i < 40000; i++)
+        {
+            double sampleTime = T0 + i * truePeriod;
+            double t = clock.next(sampleTime + latency());
+
+            assertTrue("Times must be increasing", t > prevTime);
+            prevTime = t;
+
+            // skip convergence period
+            if (i > 4000)
+                maxError = Math.max(maxError, Math.abs(t - sampleTime));
+        }
+
+        assertTrue(maxError < 0.002);
+        assertEquals(truePeriod, clock.getPeriod(), truePeriod * 0.001);
+        assertEquals(0, clock.getNumResyncs());
+    }
+
+
+    @Test
+    public void testBurstReads()
+    {
+        // sensor oscillator is 1% faster than nominal
+        double truePeriod = NOMINAL_PERIOD * 0.99;
+        var clock = new SampleClock(NOMINAL_PERIOD);
+        double[] sampleTimes = new double[64];
+        double prevTime = 0;
+        double maxError = 0;
+        int sampleIdx = 0;
+
+        // read FIFO content every ~20ms
+        double readTime = T0;
+        while (sampleIdx < 40000)
+        {
+            readTime += 0.02 + random.nextDouble() * 0.005;
+            int n = 0;
+            while (T0 + (sampleIdx + n) * truePeriod + MIN_LATENCY <= readTime)
+                n++;
+
+            clock.next(readTime, sampleTimes, n);
+            for (int i = 0; i < n; i++)
+            {
+                double sampleTime = T0 + (sampleIdx + i) * truePeriod;
+                assertTrue("Times must be increasing", sampleTimes[i] > prevTime);
+                prevTime = sampleTimes[i];
+
+                if (sampleIdx > 4000)
+                    maxError = Math.max(maxError, Math.abs(sampleTimes[i] - sampleTime));
+            }
+
+            sampleIdx += n;
+        }
+
+        assertTrue(maxError < 0.005);
+        assertEquals(truePeriod, clock.getPeriod(), truePeriod * 0.002);
+    }
+
+
+    @Test
+    public void testResyncAfterGap()
+    {
+        var clock = new SampleClock(NOMINAL_PERIOD);
+        double t = 0;
+
+        for (int i = 0; i < 1000; i++)
+            t = clock.next(T0 + i * NOMINAL_PERIOD + MIN_LATENCY);
+
+        // samples lost for 10s
+        double hostTime = T0 + 1010 + MIN_LATENCY;
+        double t2 = clock.next(hostTime);
+        assertEquals(1, clock.getNumResyncs());
+        assertEquals(hostTime, t2, 1e-9);
+
+        // host time going backward doesn't break ordering
+        double t3 = clock.next(t - 20);
+        assertTrue(t3 > t2);
+    }
+
+
+    @Test
+    public void testDeviceClock()
+    {
+        // device clock starts at 0 and drifts by 50ppm
+        double drift = 1.00005;
+        var clock = new DeviceClock();
+        double prevTime = 0;
+        double maxError = 0;
+
+        for (int i = 0; i < 100000; i++)
+        {
+            double sampleTime = T0 + i * NOMINAL_PERIOD;
+            double deviceTime = i * NOMINAL_PERIOD * drift;
+            double t = clock.toHostTime(deviceTime, sampleTime + latency());
+
+            assertTrue("Times must be increasing", t > prevTime);
+            prevTime = t;
+
+            if (i > 1000)
+                maxError = Math.max(maxError, Math.abs(t - sampleTime));
+        }
+
+        assertTrue(maxError < 0.002);
+        assertEquals(0, clock.getNumResyncs());
+
+        // device reset
+        double t = clock.toHostTime(0.001, prevTime + 0.1);
+        assertEquals(1, clock.getNumResyncs());
+        assertTrue(t > prevTime);
+    }
+}